@@ -0,0 +1,182 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -----------------------
+ * ChartDrawBenchmark.java
+ * -----------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.benchmark;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.DefaultPieDataset;
+import org.jfree.data.time.Millisecond;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken by {@link JFreeChart#draw(Graphics2D,
+ * Rectangle2D)} to draw typical charts created by {@link ChartFactory} into
+ * a {@code BufferedImage}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChartDrawBenchmark {
+
+    /** The chart type. */
+    @Param({"timeseries", "scatter", "bar", "pie"})
+    public String chartType;
+
+    /** The number of items in the dataset. */
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    /** The chart. */
+    private JFreeChart chart;
+
+    /** The image. */
+    private BufferedImage image;
+
+    /** The graphics target for the image. */
+    private Graphics2D g2;
+
+    /** The drawing area. */
+    private Rectangle2D area;
+
+    /**
+     * Creates the chart and the image.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.chart = createChart(this.chartType, this.size);
+        this.image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_ARGB);
+        this.g2 = this.image.createGraphics();
+        this.area = new Rectangle2D.Double(0, 0, 800, 600);
+    }
+
+    /**
+     * Releases the graphics target.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.g2.dispose();
+    }
+
+    /**
+     * Draws the chart.
+     *
+     * @return The image.
+     */
+    @Benchmark
+    public BufferedImage draw() {
+        this.chart.draw(this.g2, this.area);
+        return this.image;
+    }
+
+    /**
+     * Creates a chart for the benchmark.
+     *
+     * @param chartType  the chart type.
+     * @param size  the number of items.
+     *
+     * @return The chart.
+     */
+    static JFreeChart createChart(String chartType, int size) {
+        Random random = new Random(1234L);
+        if ("timeseries".equals(chartType)) {
+            TimeSeries series = new TimeSeries("Series 1");
+            RegularTimePeriod t = new Millisecond(0, 0, 0, 0, 1, 1, 2017);
+            double value = 100.0;
+            for (int i = 0; i < size; i++) {
+                value += random.nextGaussian();
+                series.add(t, value, false);
+                t = t.next();
+            }
+            return ChartFactory.createTimeSeriesChart("Time Series", "Time",
+                    "Value", new TimeSeriesCollection(series));
+        }
+        else if ("scatter".equals(chartType)) {
+            XYSeries series = new XYSeries("Series 1", false);
+            for (int i = 0; i < size; i++) {
+                series.add(random.nextGaussian(), random.nextGaussian(),
+                        false);
+            }
+            return ChartFactory.createScatterPlot("Scatter", "X", "Y",
+                    new XYSeriesCollection(series));
+        }
+        else if ("bar".equals(chartType)) {
+            DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+            for (int i = 0; i < size; i++) {
+                dataset.addValue(random.nextDouble() * 100.0, "Series 1",
+                        "C" + i);
+            }
+            return ChartFactory.createBarChart("Bar", "Category", "Value",
+                    dataset);
+        }
+        else if ("pie".equals(chartType)) {
+            DefaultPieDataset dataset = new DefaultPieDataset();
+            for (int i = 0; i < size; i++) {
+                dataset.setValue("S" + i, random.nextDouble() * 100.0);
+            }
+            return ChartFactory.createPieChart("Pie", dataset);
+        }
+        throw new IllegalArgumentException("Unknown chart type: "
+                + chartType);
+    }
+
+}
@@ -0,0 +1,172 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ---------------------------
+ * DatasetBoundsBenchmark.java
+ * ---------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.jfree.data.Range;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.DatasetUtils;
+import org.jfree.data.time.Millisecond;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken by {@link DatasetUtils} to find the bounds of
+ * the standard datasets, both through the cached bounds (where the dataset
+ * provides them) and by iterating over the items.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DatasetBoundsBenchmark {
+
+    /** The number of items in each dataset. */
+    @Param({"1000", "100000"})
+    public int size;
+
+    /** An XY dataset. */
+    private XYSeriesCollection xyDataset;
+
+    /** A time series dataset. */
+    private TimeSeriesCollection timeDataset;
+
+    /** A category dataset. */
+    private DefaultCategoryDataset categoryDataset;
+
+    /**
+     * Creates the datasets.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(1234L);
+        XYSeries xy = new XYSeries("S1");
+        TimeSeries ts = new TimeSeries("S1");
+        RegularTimePeriod t = new Millisecond(0, 0, 0, 0, 1, 1, 2017);
+        this.categoryDataset = new DefaultCategoryDataset();
+        for (int i = 0; i < this.size; i++) {
+            double y = random.nextGaussian();
+            xy.add(i, y, false);
+            ts.add(t, y, false);
+            t = t.next();
+            this.categoryDataset.addValue(y, "R" + (i % 10), "C" + (i / 10));
+        }
+        this.xyDataset = new XYSeriesCollection(xy);
+        this.timeDataset = new TimeSeriesCollection(ts);
+    }
+
+    /**
+     * Finds the domain bounds for an {@link XYSeriesCollection}.
+     *
+     * @return The bounds.
+     */
+    @Benchmark
+    public Range xyDomainBounds() {
+        return DatasetUtils.findDomainBounds(this.xyDataset);
+    }
+
+    /**
+     * Finds the range bounds for an {@link XYSeriesCollection}.
+     *
+     * @return The bounds.
+     */
+    @Benchmark
+    public Range xyRangeBounds() {
+        return DatasetUtils.findRangeBounds(this.xyDataset);
+    }
+
+    /**
+     * Finds the range bounds for an {@link XYSeriesCollection} by iterating
+     * over the items.
+     *
+     * @return The bounds.
+     */
+    @Benchmark
+    public Range xyIterateRangeBounds() {
+        return DatasetUtils.iterateRangeBounds(this.xyDataset);
+    }
+
+    /**
+     * Finds the domain bounds for a {@link TimeSeriesCollection}.
+     *
+     * @return The bounds.
+     */
+    @Benchmark
+    public Range timeDomainBounds() {
+        return DatasetUtils.findDomainBounds(this.timeDataset);
+    }
+
+    /**
+     * Finds the range bounds for a {@link TimeSeriesCollection} by iterating
+     * over the items.
+     *
+     * @return The bounds.
+     */
+    @Benchmark
+    public Range timeIterateRangeBounds() {
+        return DatasetUtils.iterateRangeBounds(this.timeDataset);
+    }
+
+    /**
+     * Finds the range bounds for a {@link DefaultCategoryDataset}.
+     *
+     * @return The bounds.
+     */
+    @Benchmark
+    public Range categoryRangeBounds() {
+        return DatasetUtils.findRangeBounds(this.categoryDataset);
+    }
+
+}
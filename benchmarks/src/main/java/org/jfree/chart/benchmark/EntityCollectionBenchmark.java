@@ -0,0 +1,129 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ------------------------------
+ * EntityCollectionBenchmark.java
+ * ------------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.benchmark;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.jfree.chart.entity.ChartEntity;
+import org.jfree.chart.entity.IndexedEntityCollection;
+import org.jfree.chart.entity.StandardEntityCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken to find the entity at a point (as the chart
+ * panel does for tooltips and mouse clicks) in a
+ * {@link StandardEntityCollection} and an {@link IndexedEntityCollection}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityCollectionBenchmark {
+
+    /** The number of entities. */
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    /** The collection type ("standard" or "indexed"). */
+    @Param({"standard", "indexed"})
+    public String collectionType;
+
+    /** The entity collection. */
+    private StandardEntityCollection entities;
+
+    /** The x-coordinates for the look ups. */
+    private double[] xx;
+
+    /** The y-coordinates for the look ups. */
+    private double[] yy;
+
+    /** The index of the next look up. */
+    private int next;
+
+    /**
+     * Creates the entities (small rectangles scattered over an 800 x 600
+     * area, similar to the items in a scatter plot).
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(1234L);
+        if ("indexed".equals(this.collectionType)) {
+            this.entities = new IndexedEntityCollection();
+        }
+        else {
+            this.entities = new StandardEntityCollection();
+        }
+        for (int i = 0; i < this.size; i++) {
+            this.entities.add(new ChartEntity(new Rectangle2D.Double(
+                    random.nextDouble() * 800.0, random.nextDouble() * 600.0,
+                    6.0, 6.0)));
+        }
+        this.xx = new double[1024];
+        this.yy = new double[1024];
+        for (int i = 0; i < this.xx.length; i++) {
+            this.xx[i] = random.nextDouble() * 800.0;
+            this.yy[i] = random.nextDouble() * 600.0;
+        }
+    }
+
+    /**
+     * Finds the entity at a point.
+     *
+     * @return The entity (possibly {@code null}).
+     */
+    @Benchmark
+    public ChartEntity getEntity() {
+        int i = this.next;
+        this.next = (i + 1) & 1023;
+        return this.entities.getEntity(this.xx[i], this.yy[i]);
+    }
+
+}
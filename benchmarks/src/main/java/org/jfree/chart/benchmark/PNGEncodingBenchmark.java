@@ -0,0 +1,108 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -------------------------
+ * PNGEncodingBenchmark.java
+ * -------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.JFreeChart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken by {@link ChartUtils#writeChartAsPNG(
+ * java.io.OutputStream, JFreeChart, int, int)} to draw a chart and encode
+ * it as a PNG image, as a server application does for each request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PNGEncodingBenchmark {
+
+    /** The chart type (see {@link ChartDrawBenchmark}). */
+    @Param({"timeseries", "bar"})
+    public String chartType;
+
+    /** The image width (the height is three quarters of the width). */
+    @Param({"400", "1600"})
+    public int width;
+
+    /** The chart. */
+    private JFreeChart chart;
+
+    /** The output stream (reset before each image is written). */
+    private ByteArrayOutputStream out;
+
+    /**
+     * Creates the chart.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.chart = ChartDrawBenchmark.createChart(this.chartType, 1000);
+        this.out = new ByteArrayOutputStream(1 << 20);
+    }
+
+    /**
+     * Writes the chart as a PNG image.
+     *
+     * @return The number of bytes written.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    @Benchmark
+    public int writeChartAsPNG() throws IOException {
+        this.out.reset();
+        ChartUtils.writeChartAsPNG(this.out, this.chart, this.width,
+                this.width * 3 / 4);
+        return this.out.size();
+    }
+
+}
@@ -0,0 +1,160 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------------------
+ * SeriesUpdateBenchmark.java
+ * --------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.jfree.data.time.Millisecond;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.xy.XYDataItem;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of adding data to series that belong to a dataset (so
+ * that change events are sent), as in a chart that is updated with live
+ * data.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SeriesUpdateBenchmark {
+
+    /**
+     * The maximum item count for the series (items are evicted once the
+     * series is full).
+     */
+    @Param({"1000", "100000"})
+    public int maximumItemCount;
+
+    /** The storage for the series ("default" or "compact"). */
+    @Param({"default", "compact"})
+    public String storage;
+
+    /** An XY series. */
+    private XYSeries xySeries;
+
+    /** A time series. */
+    private TimeSeries timeSeries;
+
+    /** The next x-value. */
+    private double x;
+
+    /** The next time period. */
+    private RegularTimePeriod period;
+
+    /** The index of the next item to update. */
+    private int updateIndex;
+
+    /**
+     * Creates full series.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        boolean compact = "compact".equals(this.storage);
+        this.xySeries = new XYSeries("S1", true, false, compact);
+        this.xySeries.setMaximumItemCount(this.maximumItemCount);
+        this.timeSeries = new TimeSeries("S1", "Time", "Value", compact);
+        this.timeSeries.setMaximumItemCount(this.maximumItemCount);
+        this.period = new Millisecond(0, 0, 0, 0, 1, 1, 2017);
+        for (int i = 0; i < this.maximumItemCount; i++) {
+            this.xySeries.add(i, Math.sin(i), false);
+            this.timeSeries.add(this.period, Math.sin(i), false);
+            this.period = this.period.next();
+        }
+        this.x = this.maximumItemCount;
+        this.updateIndex = 0;
+        new XYSeriesCollection(this.xySeries);
+        new TimeSeriesCollection(this.timeSeries);
+    }
+
+    /**
+     * Appends an item to a full {@link XYSeries}, so that the oldest item is
+     * removed.
+     *
+     * @return The series.
+     */
+    @Benchmark
+    public XYSeries xySeriesAdd() {
+        this.xySeries.add(this.x, Math.sin(this.x));
+        this.x += 1.0;
+        return this.xySeries;
+    }
+
+    /**
+     * Updates an existing item in an {@link XYSeries}.
+     *
+     * @return The previous item.
+     */
+    @Benchmark
+    public XYDataItem xySeriesAddOrUpdate() {
+        double existing = this.xySeries.getXValue(this.updateIndex);
+        this.updateIndex = (this.updateIndex + 1) % this.maximumItemCount;
+        return this.xySeries.addOrUpdate(existing, Math.cos(existing));
+    }
+
+    /**
+     * Appends an item to a full {@link TimeSeries}, so that the oldest item
+     * is removed.
+     *
+     * @return The series.
+     */
+    @Benchmark
+    public TimeSeries timeSeriesAdd() {
+        this.timeSeries.add(this.period, Math.sin(this.x));
+        this.period = this.period.next();
+        this.x += 1.0;
+        return this.timeSeries;
+    }
+
+}
@@ -222,8 +222,12 @@ import org.jfree.data.xy.XYZDataset;
  */
 public abstract class ChartFactory {
 
-    /** The chart theme. */
-    private static ChartTheme currentTheme = new StandardChartTheme("JFree");
+    /** 
+     * The chart theme (volatile so that charts can be created on multiple
+     * threads).
+     */
+    private static volatile ChartTheme currentTheme 
+            = new StandardChartTheme("JFree");
 
     /**
      * Returns the current chart theme used by the factory.
@@ -41,6 +41,7 @@
 package org.jfree.chart;
 
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Special rendering hints that can be used internally by JFreeChart or by
@@ -68,6 +69,24 @@ public final class ChartHints {
      * The key for a hint that ends an element.
      */
     public static final Key KEY_END_ELEMENT = new ChartHints.Key(1);
+
+    /**
+     * The key for a hint that restricts drawing to some of the layers of a 
+     * chart.  The value should be a {@code Set} containing the 
+     * {@link ChartLayer}s to draw, or {@code null} to draw all layers.
+     * 
+     * @since 1.5
+     */
+    public static final Key KEY_LAYERS = new ChartHints.Key(2);
+
+    /**
+     * The key for a hint that carries the {@link RenderControl} for the 
+     * chart being drawn.  The value should be a {@code RenderControl}, or 
+     * {@code null}.
+     * 
+     * @since 1.5
+     */
+    public static final Key KEY_RENDER_CONTROL = new ChartHints.Key(3);
     
     /**
      * A key for rendering hints that can be used with JFreeChart (in 
@@ -100,6 +119,10 @@ public final class ChartHints {
                             || val instanceof Map;
                 case 1:
                     return val == null || val instanceof Object;
+                case 2:
+                    return val == null || val instanceof Set;
+                case 3:
+                    return val == null || val instanceof RenderControl;
                 default:
                     throw new RuntimeException("Not possible!");
             }
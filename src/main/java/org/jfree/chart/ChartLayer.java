@@ -0,0 +1,118 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ---------------
+ * ChartLayer.java
+ * ---------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart;
+
+import java.util.Set;
+
+/**
+ * The layers that a chart is drawn in, from back to front.  By default a 
+ * chart draws all its layers, but the {@link ChartHints#KEY_LAYERS} hint can
+ * restrict drawing to a subset of the layers, so that a user interface 
+ * component can cache each layer in a separate buffer and redraw only the 
+ * layers that have changed (see 
+ * {@link ChartPanel#setLayeredBufferEnabled(boolean)}).  
+ * <p>
+ * Layers are currently supported by {@link JFreeChart},
+ * {@link org.jfree.chart.plot.XYPlot} and 
+ * {@link org.jfree.chart.plot.CategoryPlot}, other plots draw everything in
+ * every layer.
+ *
+ * @since 1.5
+ */
+public enum ChartLayer {
+
+    /** 
+     * The chart background, titles and legends, plus the plot background,
+     * gridlines and the markers and annotations in the background layer.
+     */
+    BACKGROUND("ChartLayer.BACKGROUND"),
+
+    /** The axes. */
+    AXES("ChartLayer.AXES"),
+
+    /** The data items. */
+    DATA("ChartLayer.DATA"),
+
+    /** 
+     * The markers and annotations in the foreground layer and the plot 
+     * outline. 
+     */
+    FOREGROUND("ChartLayer.FOREGROUND"),
+
+    /** 
+     * The crosshairs, which can change often (for example, to follow the 
+     * mouse) and are cheap to draw over a cached image of the other layers
+     * (see {@link ChartPanel#setOverlayCrosshairsEnabled(boolean)}). 
+     */
+    OVERLAY("ChartLayer.OVERLAY");
+
+    /** The name. */
+    private final String name;
+
+    /**
+     * Private constructor.
+     *
+     * @param name  the name.
+     */
+    private ChartLayer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns {@code true} if this layer should be drawn for the specified 
+     * value of the {@link ChartHints#KEY_LAYERS} hint.
+     *
+     * @param hint  the hint value (a {@code Set} of layers, or 
+     *     {@code null} for all layers).
+     *
+     * @return A boolean.
+     */
+    public boolean isDrawn(Object hint) {
+        return hint == null || ((Set) hint).contains(this);
+    }
+
+    /**
+     * Returns a string representing the object.
+     *
+     * @return The string.
+     */
+    @Override
+    public String toString() {
+        return this.name;
+    }
+
+}
@@ -191,6 +191,7 @@ import java.awt.Insets;
 import java.awt.Paint;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.Shape;
 import java.awt.Toolkit;
 import java.awt.Transparency;
 import java.awt.datatransfer.Clipboard;
@@ -204,6 +205,7 @@ import java.awt.geom.AffineTransform;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.awt.print.PageFormat;
 import java.awt.print.Printable;
 import java.awt.print.PrinterException;
@@ -218,10 +220,20 @@ import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.EventListener;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.swing.JFileChooser;
 import javax.swing.JMenu;
@@ -238,21 +250,36 @@ import org.jfree.chart.editor.ChartEditor;
 import org.jfree.chart.editor.ChartEditorManager;
 import org.jfree.chart.entity.ChartEntity;
 import org.jfree.chart.entity.EntityCollection;
+import org.jfree.chart.entity.IndexedEntityCollection;
+import org.jfree.chart.entity.StandardEntityCollection;
+import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.event.ChartChangeEvent;
+import org.jfree.chart.event.ChartChangeEventType;
 import org.jfree.chart.event.ChartChangeListener;
 import org.jfree.chart.event.ChartProgressEvent;
 import org.jfree.chart.event.ChartProgressListener;
+import org.jfree.chart.panel.CrosshairOverlay;
 import org.jfree.chart.panel.Overlay;
 import org.jfree.chart.event.OverlayChangeEvent;
 import org.jfree.chart.event.OverlayChangeListener;
+import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.CombinedDomainCategoryPlot;
+import org.jfree.chart.plot.CombinedDomainXYPlot;
+import org.jfree.chart.plot.CombinedRangeCategoryPlot;
+import org.jfree.chart.plot.CombinedRangeXYPlot;
 import org.jfree.chart.plot.Pannable;
+import org.jfree.chart.plot.PiePlot;
 import org.jfree.chart.plot.Plot;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.PlotRenderingInfo;
+import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.plot.Zoomable;
+import org.jfree.chart.title.LegendTitle;
 import org.jfree.chart.util.Args;
 import org.jfree.chart.util.ResourceBundleWrapper;
 import org.jfree.chart.util.SerialUtils;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.xy.XYDataset;
 
 /**
  * A Swing GUI component for displaying a {@link JFreeChart} object.
@@ -349,6 +376,11 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
     /** Zoom reset (range axis only) action command. */
     public static final String ZOOM_RESET_RANGE_COMMAND = "ZOOM_RESET_RANGE";
 
+    /** The order for painting the layer buffers, from back to front. */
+    private static final ChartLayer[] LAYER_PAINT_ORDER = {
+            ChartLayer.BACKGROUND, ChartLayer.AXES, ChartLayer.DATA,
+            ChartLayer.OVERLAY, ChartLayer.FOREGROUND};
+
     /** The chart that is displayed in the panel. */
     private JFreeChart chart;
 
@@ -370,6 +402,84 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
     /** The width of the chart buffer. */
     private int chartBufferWidth;
 
+    /** 
+     * A flag that controls whether or not the off-screen buffer is split 
+     * into layers.
+     */
+    private boolean layeredBuffer;
+
+    /** 
+     * The layers that must be redrawn the next time the layered buffer is
+     * painted (in addition to all the layers if {@code refreshBuffer} is 
+     * set).
+     */
+    private transient Set<ChartLayer> staleLayers 
+            = EnumSet.noneOf(ChartLayer.class);
+
+    /** A buffer for each layer of the chart (created when first needed). */
+    private transient Map<ChartLayer, Image> layerBuffers 
+            = new EnumMap<ChartLayer, Image>(ChartLayer.class);
+
+    /** The rendering info for each layer of the chart. */
+    private transient Map<ChartLayer, ChartRenderingInfo> layerInfos 
+            = new EnumMap<ChartLayer, ChartRenderingInfo>(ChartLayer.class);
+
+    /** 
+     * The axis ranges and legend items when the layers were drawn (if any
+     * of these change, all the layers must be redrawn).
+     */
+    private transient List staticLayerState;
+
+    /**
+     * A flag that controls whether or not the plot's crosshairs are drawn
+     * over the chart buffer instead of in it.
+     */
+    private boolean overlayCrosshairs;
+
+    /** 
+     * A flag that controls whether or not the chart is drawn on a background
+     * thread. 
+     */
+    private boolean asyncRendering;
+
+    /** 
+     * The time budget (in milliseconds) for background rendering, zero for
+     * no budget. 
+     */
+    private long renderTimeBudget;
+
+    /** Counts the changes to the chart, to detect obsolete frames. */
+    private final AtomicLong changeCount = new AtomicLong();
+
+    /** The executor for background rendering (created when needed). */
+    private transient ThreadPoolExecutor renderExecutor;
+
+    /** The most recent request for a background render. */
+    private transient volatile RenderRequest renderRequest;
+
+    /** The most recent frame rendered in the background. */
+    private transient RenderedFrame renderedFrame;
+
+    /** 
+     * The area of the last frame to stretch over the data area until the 
+     * frame for a zoom selection has been rendered ({@code null} if there
+     * is no preview).
+     */
+    private transient Rectangle2D zoomPreviewSource;
+
+    /** The data area for the zoom preview. */
+    private transient Rectangle2D zoomPreviewTarget;
+
+    /** The change count when the zoom preview was created. */
+    private transient long zoomPreviewChangeCount;
+
+    /** 
+     * The change count for the last chart that failed to render in the 
+     * background (that version of the chart is drawn on the event dispatch
+     * thread instead).
+     */
+    private transient long failedChangeCount = -1L;
+
     /**
      * The minimum width for drawing a chart (uses scaling for smaller widths).
      */
@@ -399,6 +509,12 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
     /** The drawing info collected the last time the chart was drawn. */
     private ChartRenderingInfo info;
 
+    /**
+     * A flag that controls whether or not the entities are collected in an
+     * {@link IndexedEntityCollection}.
+     */
+    private boolean entityIndex;
+
     /** The chart anchor point. */
     private Point2D anchor;
 
@@ -964,6 +1080,50 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
         return this.info;
     }
 
+    /**
+     * Returns the flag that controls whether or not the entities for the
+     * chart are collected in an {@link IndexedEntityCollection}.  The
+     * default value is {@code false}.
+     *
+     * @return A boolean.
+     *
+     * @see #setEntityIndexEnabled(boolean)
+     * @since 1.5
+     */
+    public boolean isEntityIndexEnabled() {
+        return this.entityIndex;
+    }
+
+    /**
+     * Sets the flag that controls whether or not the entities for the chart
+     * are collected in an {@link IndexedEntityCollection}.  The entities are
+     * looked up on every mouse movement (for tool tips and chart mouse
+     * events), and for a chart with a large number of entities (for
+     * example, a scatter plot with many thousands of items) the spatial
+     * index makes these lookups much faster.  For a chart with few entities
+     * the index is not worth the cost of building it, so the default
+     * collection is a {@link StandardEntityCollection}.
+     * <P>
+     * The entities collected when the chart was last drawn are copied to
+     * the new collection, so the chart is not redrawn.
+     *
+     * @param flag  the new flag value.
+     *
+     * @since 1.5
+     */
+    public void setEntityIndexEnabled(boolean flag) {
+        this.entityIndex = flag;
+        if (this.info != null) {
+            EntityCollection entities = flag ? new IndexedEntityCollection()
+                    : new StandardEntityCollection();
+            EntityCollection existing = this.info.getEntityCollection();
+            if (existing != null) {
+                entities.addAll(existing);
+            }
+            this.info.setEntityCollection(entities);
+        }
+    }
+
     /**
      * A convenience method that switches on mouse-based zooming.
      *
@@ -1371,7 +1531,23 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
      */
     @Override
     public void overlayChanged(OverlayChangeEvent event) {
-        repaint();
+        if (event.getSource() instanceof CrosshairOverlay) {
+            // crosshair overlays are clipped to the data area
+            repaintDataArea();
+        }
+        else {
+            repaint();
+        }
+    }
+
+    /**
+     * Repaints the part of the panel that contains the data area of the 
+     * plot (for changes that only affect that area).
+     */
+    private void repaintDataArea() {
+        Rectangle bounds = getScreenDataArea().getBounds();
+        bounds.grow(1, 1);
+        repaint(bounds);
     }
 
     /**
@@ -1508,6 +1684,188 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
         this.refreshBuffer = flag;
     }
 
+    /**
+     * Returns the flag that controls whether or not the off-screen buffer 
+     * is split into layers.  The default value is {@code false}.
+     *
+     * @return A boolean.
+     *
+     * @see #setLayeredBufferEnabled(boolean)
+     * @since 1.5
+     */
+    public boolean isLayeredBufferEnabled() {
+        return this.layeredBuffer;
+    }
+
+    /**
+     * Sets the flag that controls whether or not the off-screen buffer is 
+     * split into layers.  This only has an effect when the panel uses a 
+     * buffer and the chart has an {@link XYPlot} (other plots, including 
+     * the combined plots, always use a single buffer).
+     * <P>
+     * With a layered buffer, each {@link ChartLayer} of the chart is cached 
+     * in a separate buffer, and the buffers are drawn one over the other.  
+     * When the chart changes because a dataset has been updated, and the 
+     * axis ranges and legend items are unchanged, only the 
+     * {@link ChartLayer#DATA} buffer (and the {@link ChartLayer#OVERLAY} 
+     * buffer for the crosshairs, if they are visible) is redrawn.  This 
+     * saves a lot of work for charts that display live data, at the cost 
+     * of up to four extra buffers.  All other changes redraw every layer.
+     *
+     * @param flag  the new flag value.
+     *
+     * @since 1.5
+     */
+    public void setLayeredBufferEnabled(boolean flag) {
+        this.layeredBuffer = flag;
+        this.layerBuffers.clear();
+        this.layerInfos.clear();
+        this.staleLayers.clear();
+        this.staticLayerState = null;
+        this.refreshBuffer = true;
+        repaint();
+    }
+
+    /**
+     * Returns the flag that controls whether or not the crosshairs of an 
+     * {@link XYPlot} are drawn over the chart buffer instead of in it.  The
+     * default value is {@code false}.
+     *
+     * @return A boolean.
+     *
+     * @see #setOverlayCrosshairsEnabled(boolean)
+     * @since 1.5
+     */
+    public boolean isOverlayCrosshairsEnabled() {
+        return this.overlayCrosshairs;
+    }
+
+    /**
+     * Sets the flag that controls whether or not the crosshairs of an 
+     * {@link XYPlot} are drawn over the chart buffer instead of in it.  When
+     * this is enabled (and the panel uses a buffer that is drawn on the 
+     * event dispatch thread), the crosshairs are drawn in the 
+     * {@link ChartLayer#OVERLAY} layer on top of the buffer each time the 
+     * panel is painted, so a change to the crosshair values (for example, 
+     * to follow the mouse) only repaints the data area instead of redrawing
+     * the chart.  The crosshairs are then drawn over the foreground markers
+     * and the plot outline.  This is not supported for combined plots.
+     *
+     * @param flag  the new flag value.
+     *
+     * @since 1.5
+     */
+    public void setOverlayCrosshairsEnabled(boolean flag) {
+        this.overlayCrosshairs = flag;
+        this.refreshBuffer = true;
+        repaint();
+    }
+
+    /**
+     * Returns {@code true} if the plot's crosshairs are currently drawn 
+     * over the chart buffer (see 
+     * {@link #setOverlayCrosshairsEnabled(boolean)}).
+     *
+     * @return A boolean.
+     */
+    private boolean isCrosshairOverlayActive() {
+        return this.overlayCrosshairs && this.useBuffer 
+                && !this.asyncRendering && isLayeredDrawingSupported();
+    }
+
+    /**
+     * Returns the flag that controls whether or not the chart is drawn on a
+     * background thread.  The default value is {@code false}.
+     *
+     * @return A boolean.
+     *
+     * @see #setAsyncRenderingEnabled(boolean)
+     * @since 1.5
+     */
+    public boolean isAsyncRenderingEnabled() {
+        return this.asyncRendering;
+    }
+
+    /**
+     * Sets the flag that controls whether or not the chart is drawn on a 
+     * background thread.  This only has an effect when the panel uses a 
+     * buffer.
+     * <P>
+     * In this mode, the panel draws the chart into an image on a worker 
+     * thread, so the event dispatch thread is not blocked while a large 
+     * chart is drawn.  Until the image for the latest version of the chart 
+     * is ready, the panel shows the last completed image (scaled to the 
+     * panel size and, after a zoom with the mouse, to the zoomed area).  A
+     * render that is made obsolete by a newer chart change is discarded, 
+     * and queued renders are skipped if the chart has changed since they 
+     * were requested.
+     * <P>
+     * For an {@link XYPlot}, {@link CategoryPlot} or {@link PiePlot} 
+     * (including the combined plots), each frame is drawn from a copy of 
+     * the chart made on the event dispatch thread, so changes to the chart
+     * while a frame is drawn do not affect the frame.  The copy shares the 
+     * chart's datasets, so the datasets should be safe for concurrent reads
+     * (or only updated on the event dispatch thread when no frame is being
+     * drawn), and the entities in the rendering info refer to the copied 
+     * plot, axes and renderers.  Charts with other plots are drawn 
+     * directly, so they should only be changed when no frame is being 
+     * drawn.  A render that fails because the chart changed while it was 
+     * drawn is simply repeated, and a render that fails for the latest 
+     * version of the chart is repeated on the event dispatch thread (where 
+     * the exception is then thrown while the panel is painted).  
+     * {@link ChartProgressEvent}s for background renders are sent on the 
+     * worker thread.
+     *
+     * @param flag  the new flag value.
+     *
+     * @since 1.5
+     */
+    public void setAsyncRenderingEnabled(boolean flag) {
+        this.asyncRendering = flag;
+        cancelRenderRequest();
+        this.renderRequest = null;
+        this.renderedFrame = null;
+        this.zoomPreviewSource = null;
+        this.zoomPreviewTarget = null;
+        this.refreshBuffer = true;
+        repaint();
+    }
+
+    /**
+     * Returns the time budget (in milliseconds) for drawing the chart on a 
+     * background thread.  The default value is {@code 0} (no budget).
+     *
+     * @return The time budget.
+     *
+     * @see #setRenderTimeBudget(long)
+     * @since 1.5
+     */
+    public long getRenderTimeBudget() {
+        return this.renderTimeBudget;
+    }
+
+    /**
+     * Sets the time budget (in milliseconds) for drawing the chart on a 
+     * background thread (see {@link #setAsyncRenderingEnabled(boolean)}).
+     * When the budget is not sufficient to draw all the data of a large
+     * dataset, the plot draws a coarser view of the data (see 
+     * {@link RenderControl}), the panel displays that frame and then draws
+     * the chart again without a budget to refine it.  Use this to bound the
+     * delay before a change to a chart with a very large dataset becomes 
+     * visible.
+     *
+     * @param millis  the budget in milliseconds ({@code 0} for no budget).
+     *
+     * @see #getRenderTimeBudget()
+     * @since 1.5
+     */
+    public void setRenderTimeBudget(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Requires 'millis' >= 0.");
+        }
+        this.renderTimeBudget = millis;
+    }
+
     /**
      * Paints the component by drawing the chart to fill the entire component,
      * but allowing for the insets (which will be non-zero if a border has been
@@ -1564,7 +1922,14 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
                 drawHeight);
 
         // are we using the chart buffer?
-        if (this.useBuffer) {
+        if (this.useBuffer && this.asyncRendering) {
+            paintAsync(g2, available, drawWidth, drawHeight, scale);
+        }
+        else if (this.useBuffer && this.layeredBuffer 
+                && isLayeredDrawingSupported()) {
+            paintLayers(g2, available, chartArea, scale);
+        }
+        else if (this.useBuffer) {
 
             // do we need to resize the buffer?
             if ((this.chartBuffer == null)
@@ -1597,6 +1962,11 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
                         this.chartBufferHeight);
                 bufferG2.fill(r);
                 bufferG2.setComposite(savedComposite);
+                if (isCrosshairOverlayActive()) {
+                    bufferG2.setRenderingHint(ChartHints.KEY_LAYERS, 
+                            EnumSet.of(ChartLayer.BACKGROUND, ChartLayer.AXES,
+                            ChartLayer.DATA, ChartLayer.FOREGROUND));
+                }
                 
                 if (scale) {
                     AffineTransform saved = bufferG2.getTransform();
@@ -1615,6 +1985,9 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
 
             // zap the buffer onto the panel...
             g2.drawImage(this.chartBuffer, insets.left, insets.top, this);
+            if (isCrosshairOverlayActive()) {
+                paintCrosshairOverlay(g2);
+            }
 
         } else { // redrawing the chart every time...
             AffineTransform saved = g2.getTransform();
@@ -1645,14 +2018,591 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
         this.horizontalTraceLine = null;
     }
 
+    /**
+     * Returns {@code true} if the chart's plot supports drawing in layers 
+     * (see {@link ChartHints#KEY_LAYERS}).
+     *
+     * @return A boolean.
+     */
+    private boolean isLayeredDrawingSupported() {
+        Plot plot = this.chart.getPlot();
+        return plot instanceof XYPlot && !(plot instanceof CombinedDomainXYPlot)
+                && !(plot instanceof CombinedRangeXYPlot);
+    }
+
+    /**
+     * Paints the chart using the layered buffers, redrawing the layers that
+     * have changed.
+     *
+     * @param g2  the graphics target.
+     * @param available  the area available for the chart (inside the 
+     *     insets).
+     * @param chartArea  the area for drawing the chart (before scaling).
+     * @param scale  is the chart scaled?
+     */
+    private void paintLayers(Graphics2D g2, Rectangle2D available, 
+            Rectangle2D chartArea, boolean scale) {
+
+        // do we need to resize the buffers?
+        if (this.chartBufferWidth != (int) available.getWidth()
+                || this.chartBufferHeight != (int) available.getHeight()) {
+            this.chartBufferWidth = (int) available.getWidth();
+            this.chartBufferHeight = (int) available.getHeight();
+            this.layerBuffers.clear();
+            this.refreshBuffer = true;
+        }
+
+        // the layers that contain something (the overlay layer is only 
+        // needed for crosshairs that are not drawn over the buffer)
+        Set<ChartLayer> layers = EnumSet.of(ChartLayer.BACKGROUND, 
+                ChartLayer.AXES, ChartLayer.DATA, ChartLayer.FOREGROUND);
+        XYPlot plot = (XYPlot) this.chart.getPlot();
+        if (!isCrosshairOverlayActive() && (plot.isDomainCrosshairVisible()
+                || plot.isRangeCrosshairVisible())) {
+            layers.add(ChartLayer.OVERLAY);
+        }
+
+        Set<ChartLayer> stale = EnumSet.noneOf(ChartLayer.class);
+        if (this.refreshBuffer || !this.layerBuffers.keySet().containsAll(
+                layers)) {
+            stale.addAll(layers);
+        }
+        else if (!this.staleLayers.isEmpty()) {
+            // a dataset change can move the axis ranges or change the legend
+            if (captureStaticLayerState().equals(this.staticLayerState)) {
+                stale.addAll(this.staleLayers);
+                stale.retainAll(layers);
+            }
+            else {
+                stale.addAll(layers);
+            }
+        }
+        this.refreshBuffer = false;
+        this.staleLayers.clear();
+        this.layerBuffers.keySet().retainAll(layers);
+        this.layerInfos.keySet().retainAll(layers);
+
+        // draw the stale layers from back to front, so that the crosshair
+        // values computed in the data layer are used in the overlay layer
+        GraphicsConfiguration gc = g2.getDeviceConfiguration();
+        for (ChartLayer layer : stale) {
+            Image buffer = this.layerBuffers.get(layer);
+            if (buffer == null) {
+                buffer = gc.createCompatibleImage(this.chartBufferWidth, 
+                        this.chartBufferHeight, Transparency.TRANSLUCENT);
+                this.layerBuffers.put(layer, buffer);
+            }
+            ChartRenderingInfo layerInfo = this.info != null 
+                    ? new ChartRenderingInfo() : null;
+            drawLayers(buffer, EnumSet.of(layer), chartArea, scale, 
+                    layerInfo);
+            this.layerInfos.put(layer, layerInfo);
+        }
+        if (stale.contains(ChartLayer.BACKGROUND)) {
+            this.staticLayerState = captureStaticLayerState();
+        }
+        if (!stale.isEmpty() && this.info != null) {
+            // combine the info for the layers, with the entities in layer
+            // order
+            this.info.clear();
+            this.info.setChartArea(this.layerInfos.get(
+                    ChartLayer.BACKGROUND).getChartArea());
+            PlotRenderingInfo plotInfo = this.layerInfos.get(
+                    ChartLayer.DATA).getPlotInfo();
+            this.info.getPlotInfo().setPlotArea(plotInfo.getPlotArea());
+            this.info.getPlotInfo().setDataArea(plotInfo.getDataArea());
+            EntityCollection entities = this.info.getEntityCollection();
+            if (entities != null) {
+                for (ChartRenderingInfo layerInfo 
+                        : this.layerInfos.values()) {
+                    entities.addAll(layerInfo.getEntityCollection());
+                }
+            }
+        }
+
+        // the crosshairs are drawn under the foreground layer, as they are
+        // when the chart is drawn in one pass
+        Insets insets = getInsets();
+        for (ChartLayer layer : LAYER_PAINT_ORDER) {
+            Image buffer = this.layerBuffers.get(layer);
+            if (buffer != null) {
+                g2.drawImage(buffer, insets.left, insets.top, this);
+            }
+        }
+        if (isCrosshairOverlayActive()) {
+            paintCrosshairOverlay(g2);
+        }
+    }
+
+    /**
+     * Draws the crosshairs of the plot over the chart buffer (see 
+     * {@link #setOverlayCrosshairsEnabled(boolean)}).
+     *
+     * @param g2  the graphics target.
+     */
+    private void paintCrosshairOverlay(Graphics2D g2) {
+        XYPlot plot = (XYPlot) this.chart.getPlot();
+        Rectangle2D dataArea = this.info.getPlotInfo().getDataArea();
+        Insets insets = getInsets();
+        Graphics2D overlayG2 = (Graphics2D) g2.create();
+        overlayG2.addRenderingHints(this.chart.getRenderingHints());
+        overlayG2.translate(insets.left, insets.top);
+        overlayG2.scale(this.scaleX, this.scaleY);
+        overlayG2.clip(dataArea);
+        plot.drawCrosshairs(overlayG2, dataArea);
+        overlayG2.dispose();
+    }
+
+    /**
+     * Clears a layer buffer and draws some of the layers of the chart in it.
+     *
+     * @param buffer  the buffer.
+     * @param layers  the layers to draw.
+     * @param chartArea  the area for drawing the chart (before scaling).
+     * @param scale  is the chart scaled?
+     * @param layerInfo  the rendering info ({@code null} permitted).
+     */
+    private void drawLayers(Image buffer, Set<ChartLayer> layers, 
+            Rectangle2D chartArea, boolean scale, 
+            ChartRenderingInfo layerInfo) {
+        Graphics2D bufferG2 = (Graphics2D) buffer.getGraphics();
+        Composite savedComposite = bufferG2.getComposite();
+        bufferG2.setComposite(AlphaComposite.getInstance(
+                AlphaComposite.CLEAR, 0.0f));
+        bufferG2.fill(new Rectangle(0, 0, this.chartBufferWidth,
+                this.chartBufferHeight));
+        bufferG2.setComposite(savedComposite);
+        bufferG2.setRenderingHint(ChartHints.KEY_LAYERS, layers);
+        if (scale) {
+            bufferG2.transform(AffineTransform.getScaleInstance(
+                    this.scaleX, this.scaleY));
+            this.chart.draw(bufferG2, chartArea, this.anchor, layerInfo);
+        } else {
+            this.chart.draw(bufferG2, new Rectangle2D.Double(0, 0, 
+                    this.chartBufferWidth, this.chartBufferHeight), 
+                    this.anchor, layerInfo);
+        }
+        bufferG2.dispose();
+    }
+
+    /**
+     * Returns the state that the static layers depend on (and that a 
+     * dataset change can modify): the ranges of the axes, and the legend 
+     * items.
+     *
+     * @return The state.
+     */
+    private List captureStaticLayerState() {
+        XYPlot plot = (XYPlot) this.chart.getPlot();
+        List state = new ArrayList();
+        for (int i = 0; i < plot.getDomainAxisCount(); i++) {
+            ValueAxis axis = plot.getDomainAxis(i);
+            state.add(axis != null ? axis.getRange() : null);
+        }
+        for (int i = 0; i < plot.getRangeAxisCount(); i++) {
+            ValueAxis axis = plot.getRangeAxis(i);
+            state.add(axis != null ? axis.getRange() : null);
+        }
+        state.add(plot.getLegendItems());
+        return state;
+    }
+
+    /**
+     * Paints the last frame rendered in the background and, if the frame is
+     * out of date, requests a new one.
+     *
+     * @param g2  the graphics target.
+     * @param available  the area available for the chart (inside the 
+     *     insets).
+     * @param drawWidth  the width for drawing the chart (before scaling).
+     * @param drawHeight  the height for drawing the chart (before scaling).
+     * @param scale  is the chart scaled?
+     */
+    private void paintAsync(Graphics2D g2, Rectangle2D available, 
+            double drawWidth, double drawHeight, boolean scale) {
+        int width = (int) available.getWidth();
+        int height = (int) available.getHeight();
+        long count = this.changeCount.get();
+        RenderedFrame frame = this.renderedFrame;
+        boolean current = frame != null 
+                && frame.request.matches(this.chart, count, width, height);
+        // a frame drawn with reduced detail is refined without a budget
+        boolean refine = current 
+                && frame.request.control.isRefinementRequired();
+        Rectangle2D chartArea = new Rectangle2D.Double(0.0, 0.0, drawWidth,
+                drawHeight);
+        AffineTransform transform = scale ? AffineTransform.getScaleInstance(
+                this.scaleX, this.scaleY) : null;
+        if (!current && count == this.failedChangeCount && width > 0 
+                && height > 0) {
+            // this version of the chart failed to render in the background,
+            // so draw it here (a failure is then reported as it would be 
+            // without background rendering)
+            RenderRequest syncRequest = new RenderRequest(this.chart, 
+                    this.chart, count, width, height, chartArea, transform,
+                    this.anchor, new RenderControl());
+            ChartRenderingInfo frameInfo = new ChartRenderingInfo();
+            acceptFrame(syncRequest, drawFrame(syncRequest, frameInfo), 
+                    frameInfo);
+            frame = this.renderedFrame;
+            current = true;
+            refine = false;
+        }
+        RenderRequest request = this.renderRequest;
+        if ((!current || refine) && width > 0 && height > 0 
+                && (request == null 
+                || !request.matches(this.chart, count, width, height))) {
+            RenderControl control = this.renderTimeBudget > 0 && !refine
+                    ? new RenderControl(this.renderTimeBudget) 
+                    : new RenderControl();
+            cancelRenderRequest();
+            request = new RenderRequest(this.chart, createRenderSnapshot(), 
+                    count, width, height, chartArea, transform, this.anchor, 
+                    control);
+            this.renderRequest = request;
+            getRenderExecutor().execute(new RenderTask(request));
+        }
+        if (frame == null) {
+            return;
+        }
+        Insets insets = getInsets();
+        g2.drawImage(frame.image, insets.left, insets.top, width, height, 
+                this);
+        if (!current && this.zoomPreviewSource != null 
+                && frame.request.width == width 
+                && frame.request.height == height) {
+            Shape savedClip = g2.getClip();
+            Rectangle2D source = this.zoomPreviewSource;
+            Rectangle2D target = this.zoomPreviewTarget;
+            g2.clip(target);
+            g2.drawImage(frame.image, (int) target.getMinX(), 
+                    (int) target.getMinY(), (int) target.getMaxX(), 
+                    (int) target.getMaxY(), 
+                    (int) source.getMinX() - insets.left, 
+                    (int) source.getMinY() - insets.top, 
+                    (int) source.getMaxX() - insets.left, 
+                    (int) source.getMaxY() - insets.top, this);
+            g2.setClip(savedClip);
+        }
+    }
+
+    /**
+     * Cancels the most recent request for a background render, if there is
+     * one.
+     */
+    private void cancelRenderRequest() {
+        RenderRequest request = this.renderRequest;
+        if (request != null) {
+            request.control.cancel();
+        }
+    }
+
+    /**
+     * Returns the executor for background rendering, creating it if 
+     * necessary.  The executor has a single thread, which is stopped when 
+     * it has been idle for a few seconds.
+     *
+     * @return The executor.
+     */
+    private ThreadPoolExecutor getRenderExecutor() {
+        if (this.renderExecutor == null) {
+            this.renderExecutor = new ThreadPoolExecutor(1, 1, 5L, 
+                    TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), 
+                    new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "ChartPanel-renderer");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+            this.renderExecutor.allowCoreThreadTimeOut(true);
+        }
+        return this.renderExecutor;
+    }
+
+    /**
+     * Receives a frame rendered in the background (on the event dispatch
+     * thread).
+     *
+     * @param request  the request.
+     * @param image  the image ({@code null} if the render was skipped or 
+     *     failed).
+     * @param frameInfo  the rendering info for the frame.
+     * @param failure  the exception thrown by the render ({@code null} if 
+     *     there was none).
+     */
+    private void frameRendered(RenderRequest request, BufferedImage image,
+            ChartRenderingInfo frameInfo, RuntimeException failure) {
+        if (this.renderRequest == request) {
+            this.renderRequest = null;
+        }
+        releaseRenderSnapshot(request.snapshot);
+        if (request.chart != this.chart || !this.asyncRendering) {
+            return;
+        }
+        boolean obsolete = request.changeCount != this.changeCount.get();
+        if (failure != null && !obsolete) {
+            // paintAsync() draws this version of the chart on the event 
+            // dispatch thread instead
+            this.failedChangeCount = request.changeCount;
+        }
+        else if (image != null && (this.renderedFrame == null 
+                || request.changeCount 
+                >= this.renderedFrame.request.changeCount)) {
+            acceptFrame(request, image, frameInfo);
+        }
+        repaint();
+    }
+
+    /**
+     * Makes a rendered frame the frame that the panel displays, and updates
+     * the panel's rendering info (and the plot's crosshair values) from the
+     * frame.
+     *
+     * @param request  the request.
+     * @param image  the image.
+     * @param frameInfo  the rendering info for the frame.
+     */
+    private void acceptFrame(RenderRequest request, BufferedImage image,
+            ChartRenderingInfo frameInfo) {
+        this.renderedFrame = new RenderedFrame(request, image);
+        if (this.info != null) {
+            // copy into the existing info, since callers may hold a
+            // reference to it
+            this.info.clear();
+            this.info.setChartArea(frameInfo.getChartArea());
+            PlotRenderingInfo plotInfo = frameInfo.getPlotInfo();
+            PlotRenderingInfo target = this.info.getPlotInfo();
+            target.setPlotArea(plotInfo.getPlotArea());
+            target.setDataArea(plotInfo.getDataArea());
+            for (int i = 0; i < plotInfo.getSubplotCount(); i++) {
+                target.addSubplotInfo(plotInfo.getSubplotInfo(i));
+            }
+            EntityCollection entities = this.info.getEntityCollection();
+            if (entities != null) {
+                entities.addAll(frameInfo.getEntityCollection());
+            }
+        }
+        Plot drawn = request.snapshot.getPlot();
+        Plot plot = this.chart.getPlot();
+        if (drawn != plot && drawn instanceof XYPlot 
+                && plot instanceof XYPlot) {
+            // the crosshairs can lock on to the data while it is drawn
+            XYPlot xyPlot = (XYPlot) plot;
+            xyPlot.setDomainCrosshairValue(
+                    ((XYPlot) drawn).getDomainCrosshairValue(), false);
+            xyPlot.setRangeCrosshairValue(
+                    ((XYPlot) drawn).getRangeCrosshairValue(), false);
+        }
+        if (request.changeCount > this.zoomPreviewChangeCount) {
+            this.zoomPreviewSource = null;
+            this.zoomPreviewTarget = null;
+        }
+    }
+
+    /**
+     * Returns a copy of the chart for drawing on the rendering thread, so 
+     * that changes made to the chart on other threads while the frame is 
+     * drawn cannot affect the frame.  The copy shares the chart's datasets,
+     * and sends its {@link ChartProgressEvent}s to the chart's listeners.  
+     * If the chart's plot is not supported (see 
+     * {@link #isSnapshotSupported(Plot)}) or cannot be cloned, the chart 
+     * itself is returned.
+     *
+     * @return The chart to draw.
+     */
+    private JFreeChart createRenderSnapshot() {
+        final JFreeChart source = this.chart;
+        if (!isSnapshotSupported(source.getPlot())) {
+            return source;
+        }
+        JFreeChart snapshot;
+        try {
+            snapshot = (JFreeChart) source.clone();
+        }
+        catch (CloneNotSupportedException e) {
+            return source;
+        }
+        // the legends of the copy must use the items of the copied plot
+        for (int i = 0; i < snapshot.getSubtitleCount(); i++) {
+            if (snapshot.getSubtitle(i) instanceof LegendTitle) {
+                LegendTitle legend = (LegendTitle) snapshot.getSubtitle(i);
+                LegendItemSource[] sources = legend.getSources().clone();
+                for (int j = 0; j < sources.length; j++) {
+                    if (sources[j] == source.getPlot()) {
+                        sources[j] = snapshot.getPlot();
+                    }
+                }
+                legend.setSources(sources);
+            }
+        }
+        snapshot.addProgressListener(new ChartProgressListener() {
+            @Override
+            public void chartProgress(ChartProgressEvent event) {
+                source.notifyListeners(new ChartProgressEvent(source, source,
+                        event.getType(), event.getPercent()));
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * Returns {@code true} if a copy of a chart with the specified plot can 
+     * be drawn in the background, and released afterwards (see 
+     * {@link #releaseRenderSnapshot(JFreeChart)}).  This is the case for
+     * {@link XYPlot}, {@link CategoryPlot} and {@link PiePlot}, including 
+     * the combined plots.
+     *
+     * @param plot  the plot ({@code null} permitted).
+     *
+     * @return A boolean.
+     */
+    private static boolean isSnapshotSupported(Plot plot) {
+        List subplots = getSubplots(plot);
+        if (subplots != null) {
+            for (Object subplot : subplots) {
+                if (!isSnapshotSupported((Plot) subplot)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return plot instanceof XYPlot || plot instanceof CategoryPlot 
+                || plot instanceof PiePlot;
+    }
+
+    /**
+     * Returns the subplots of a combined plot.
+     *
+     * @param plot  the plot ({@code null} permitted).
+     *
+     * @return The subplots, or {@code null} if the plot is not a combined
+     *     plot.
+     */
+    private static List getSubplots(Plot plot) {
+        if (plot instanceof CombinedDomainXYPlot) {
+            return ((CombinedDomainXYPlot) plot).getSubplots();
+        }
+        if (plot instanceof CombinedRangeXYPlot) {
+            return ((CombinedRangeXYPlot) plot).getSubplots();
+        }
+        if (plot instanceof CombinedDomainCategoryPlot) {
+            return ((CombinedDomainCategoryPlot) plot).getSubplots();
+        }
+        if (plot instanceof CombinedRangeCategoryPlot) {
+            return ((CombinedRangeCategoryPlot) plot).getSubplots();
+        }
+        return null;
+    }
+
+    /**
+     * Releases a copy of a chart that has been drawn in the background, by
+     * removing its plots from the listeners of the (shared) datasets.
+     *
+     * @param snapshot  the copy (if this is the panel's chart, this method
+     *     does nothing).
+     */
+    private void releaseRenderSnapshot(JFreeChart snapshot) {
+        if (snapshot != this.chart && snapshot.getPlot() != null 
+                && isSnapshotSupported(snapshot.getPlot())) {
+            releasePlot(snapshot.getPlot());
+        }
+    }
+
+    /**
+     * Removes a copied plot (and its subplots) from the listeners of its 
+     * datasets.
+     *
+     * @param plot  the plot.
+     */
+    private static void releasePlot(Plot plot) {
+        List subplots = getSubplots(plot);
+        if (subplots != null) {
+            for (Object subplot : subplots) {
+                releasePlot((Plot) subplot);
+            }
+        }
+        if (plot instanceof XYPlot) {
+            XYPlot xyPlot = (XYPlot) plot;
+            for (XYDataset dataset : xyPlot.getDatasets().values()) {
+                if (dataset != null) {
+                    dataset.removeChangeListener(xyPlot);
+                }
+            }
+        }
+        else if (plot instanceof CategoryPlot) {
+            CategoryPlot categoryPlot = (CategoryPlot) plot;
+            for (CategoryDataset dataset 
+                    : categoryPlot.getDatasets().values()) {
+                if (dataset != null) {
+                    dataset.removeChangeListener(categoryPlot);
+                }
+            }
+        }
+        else if (plot instanceof PiePlot) {
+            PiePlot piePlot = (PiePlot) plot;
+            if (piePlot.getDataset() != null) {
+                piePlot.getDataset().removeChangeListener(piePlot);
+            }
+        }
+    }
+
+    /**
+     * Draws the chart for a request into a new image.
+     *
+     * @param request  the request.
+     * @param frameInfo  the rendering info for the frame.
+     *
+     * @return The image, or {@code null} if the render was cancelled.
+     */
+    private static BufferedImage drawFrame(RenderRequest request, 
+            ChartRenderingInfo frameInfo) {
+        BufferedImage image = new BufferedImage(request.width, 
+                request.height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            if (request.transform != null) {
+                g2.transform(request.transform);
+            }
+            request.snapshot.draw(g2, request.chartArea, request.anchor, 
+                    frameInfo, request.control);
+        }
+        finally {
+            g2.dispose();
+        }
+        return request.control.isCancelled() ? null : image;
+    }
+
     /**
      * Receives notification of changes to the chart, and redraws the chart.
+     * If a layered buffer is in use (see 
+     * {@link #setLayeredBufferEnabled(boolean)}), a change caused by a 
+     * dataset update only refreshes the data and overlay layers (unless the 
+     * axis ranges or the legend change as a result).
      *
      * @param event  details of the chart change event.
      */
     @Override
     public void chartChanged(ChartChangeEvent event) {
-        this.refreshBuffer = true;
+        if (event.getType() == ChartChangeEventType.OVERLAY_UPDATED 
+                && isCrosshairOverlayActive()) {
+            // the buffer is still valid, just paint the new crosshairs
+            repaintDataArea();
+            return;
+        }
+        this.changeCount.incrementAndGet();
+        // a render in progress is now obsolete
+        cancelRenderRequest();
+        if (this.useBuffer && this.layeredBuffer 
+                && event.getType() == ChartChangeEventType.DATASET_UPDATED
+                && isLayeredDrawingSupported()) {
+            this.staleLayers.add(ChartLayer.DATA);
+            this.staleLayers.add(ChartLayer.OVERLAY);
+        }
+        else {
+            this.refreshBuffer = true;
+        }
         Plot plot = this.chart.getPlot();
         if (plot instanceof Zoomable) {
             Zoomable z = (Zoomable) plot;
@@ -1929,6 +2879,7 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
             hZoom = this.domainZoomable;
             vZoom = this.rangeZoomable;
         }
+        Rectangle2D previous = this.zoomRectangle;
         Rectangle2D scaledDataArea = getScreenDataArea(
                 (int) this.zoomPoint.getX(), (int) this.zoomPoint.getY());
         if (hZoom && vZoom) {
@@ -1954,7 +2905,7 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
 
         // Draw the new zoom rectangle...
         if (this.useBuffer) {
-            repaint();
+            repaintZoomRectangle(previous);
         }
         else {
             // with no buffer, we use XOR to draw the rectangle "over" the
@@ -2044,7 +2995,7 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
                 // erase the zoom rectangle
                 Graphics2D g2 = (Graphics2D) getGraphics();
                 if (this.useBuffer) {
-                    repaint();
+                    repaintZoomRectangle(null);
                 }
                 else {
                     drawZoomRectangle(g2, true);
@@ -2303,6 +3254,16 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
                 (int) selection.getCenterX(), (int) selection.getCenterY());
         if ((selection.getHeight() > 0) && (selection.getWidth() > 0)) {
 
+            if (this.useBuffer && this.asyncRendering 
+                    && this.renderedFrame != null) {
+                // stretch the selection over the data area until the zoomed
+                // chart has been rendered
+                this.zoomPreviewSource = selection.createIntersection(
+                        scaledDataArea);
+                this.zoomPreviewTarget = scaledDataArea;
+                this.zoomPreviewChangeCount = this.changeCount.get();
+            }
+
             double hLower = (selection.getMinX() - scaledDataArea.getMinX())
                 / scaledDataArea.getWidth();
             double hUpper = (selection.getMaxX() - scaledDataArea.getMinX())
@@ -2582,6 +3543,27 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
         }
     }
 
+    /**
+     * Repaints the part of the panel covered by the previous and current 
+     * zoom rectangles (the chart buffer is not redrawn).
+     *
+     * @param previous  the previous zoom rectangle ({@code null} permitted).
+     */
+    private void repaintZoomRectangle(Rectangle2D previous) {
+        Rectangle dirty = null;
+        if (previous != null) {
+            dirty = previous.getBounds();
+        }
+        if (this.zoomRectangle != null) {
+            Rectangle bounds = this.zoomRectangle.getBounds();
+            dirty = dirty == null ? bounds : dirty.union(bounds);
+        }
+        if (dirty != null) {
+            dirty.grow(2, 2);
+            repaint(dirty);
+        }
+    }
+
     /**
      * Draws a vertical line used to trace the mouse position to the horizontal
      * axis.
@@ -3312,6 +4294,11 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
 
         // we create a new but empty chartMouseListeners list
         this.chartMouseListeners = new EventListenerList();
+        this.staleLayers = EnumSet.noneOf(ChartLayer.class);
+        this.layerBuffers = new EnumMap<ChartLayer, Image>(ChartLayer.class);
+        this.layerInfos = new EnumMap<ChartLayer, ChartRenderingInfo>(
+                ChartLayer.class);
+        this.failedChangeCount = -1L;
 
         // register as a listener with sub-components...
         if (this.chart != null) {
@@ -3320,4 +4307,154 @@ public class ChartPanel extends JPanel implements ChartChangeListener,
 
     }
 
+    /**
+     * A request to render the chart in the background.
+     */
+    private static final class RenderRequest {
+
+        /** The chart. */
+        final JFreeChart chart;
+
+        /** 
+         * The chart to draw (a copy of the chart, or the chart itself, see
+         * {@link ChartPanel#createRenderSnapshot()}).
+         */
+        final JFreeChart snapshot;
+
+        /** The change count when the request was made. */
+        final long changeCount;
+
+        /** The image width. */
+        final int width;
+
+        /** The image height. */
+        final int height;
+
+        /** The area for drawing the chart (before scaling). */
+        final Rectangle2D chartArea;
+
+        /** The scaling transform ({@code null} if not scaled). */
+        final AffineTransform transform;
+
+        /** The anchor point ({@code null} permitted). */
+        final Point2D anchor;
+
+        /** The render control. */
+        final RenderControl control;
+
+        /**
+         * Creates a new request.
+         *
+         * @param chart  the chart.
+         * @param snapshot  the chart to draw.
+         * @param changeCount  the change count.
+         * @param width  the image width.
+         * @param height  the image height.
+         * @param chartArea  the area for drawing the chart.
+         * @param transform  the scaling transform ({@code null} permitted).
+         * @param anchor  the anchor point ({@code null} permitted).
+         * @param control  the render control.
+         */
+        RenderRequest(JFreeChart chart, JFreeChart snapshot, long changeCount,
+                int width, int height, Rectangle2D chartArea, 
+                AffineTransform transform, Point2D anchor, 
+                RenderControl control) {
+            this.chart = chart;
+            this.snapshot = snapshot;
+            this.changeCount = changeCount;
+            this.width = width;
+            this.height = height;
+            this.chartArea = chartArea;
+            this.transform = transform;
+            this.anchor = anchor;
+            this.control = control;
+        }
+
+        /**
+         * Returns {@code true} if this request is for the specified chart, 
+         * change count and size.
+         *
+         * @param chart  the chart.
+         * @param changeCount  the change count.
+         * @param width  the width.
+         * @param height  the height.
+         *
+         * @return A boolean.
+         */
+        boolean matches(JFreeChart chart, long changeCount, int width, 
+                int height) {
+            return this.chart == chart && this.changeCount == changeCount 
+                    && this.width == width && this.height == height;
+        }
+    }
+
+    /**
+     * A frame rendered in the background.
+     */
+    private static final class RenderedFrame {
+
+        /** The request. */
+        final RenderRequest request;
+
+        /** The image. */
+        final BufferedImage image;
+
+        /**
+         * Creates a new frame.
+         *
+         * @param request  the request.
+         * @param image  the image.
+         */
+        RenderedFrame(RenderRequest request, BufferedImage image) {
+            this.request = request;
+            this.image = image;
+        }
+    }
+
+    /**
+     * Draws the chart for a request on the rendering thread, then passes
+     * the result to the event dispatch thread.
+     */
+    private class RenderTask implements Runnable {
+
+        /** The request. */
+        private final RenderRequest request;
+
+        /**
+         * Creates a new task.
+         *
+         * @param request  the request.
+         */
+        RenderTask(RenderRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            BufferedImage image = null;
+            ChartRenderingInfo frameInfo = null;
+            RuntimeException failure = null;
+            // skip the render if it has been superseded
+            if (this.request == renderRequest 
+                    && this.request.changeCount == changeCount.get()) {
+                frameInfo = new ChartRenderingInfo();
+                try {
+                    image = drawFrame(this.request, frameInfo);
+                }
+                catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            final BufferedImage result = image;
+            final ChartRenderingInfo resultInfo = frameInfo;
+            final RuntimeException resultFailure = failure;
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    frameRendered(request, result, resultInfo, resultFailure);
+                }
+            });
+        }
+    }
+
 }
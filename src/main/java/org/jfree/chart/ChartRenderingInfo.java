@@ -106,7 +106,9 @@ public class ChartRenderingInfo implements Cloneable, Serializable {
      * Constructs a new instance. If an entity collection is supplied, it will
      * be populated with information about the entities in a chart.  If it is
      * {@code null}, no entity information (including tool tips) will
-     * be collected.
+     * be collected.  For charts with a large number of entities, an
+     * {@link org.jfree.chart.entity.IndexedEntityCollection} provides faster
+     * lookups of the entity at a point.
      *
      * @param entities  an entity collection ({@code null} permitted).
      */
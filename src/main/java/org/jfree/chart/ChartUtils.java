@@ -90,6 +90,8 @@ import java.io.OutputStream;
 import java.io.PrintWriter;
 
 import org.jfree.chart.encoders.EncoderUtil;
+import org.jfree.chart.encoders.ImageEncoder;
+import org.jfree.chart.encoders.ImageEncoderFactory;
 import org.jfree.chart.encoders.ImageFormat;
 import org.jfree.chart.imagemap.ImageMapUtils;
 import org.jfree.chart.imagemap.OverLIBToolTipTagFragmentGenerator;
@@ -108,6 +110,78 @@ import org.jfree.chart.util.Args;
  */
 public abstract class ChartUtils {
 
+    /** The cache for encoded chart images ({@code null} permitted). */
+    private static volatile EncodedChartCache imageCache;
+
+    /** The pool of images used for drawing ({@code null} permitted). */
+    private static volatile RenderSurfacePool renderSurfacePool;
+
+    /**
+     * Returns the cache that is used to avoid rendering and encoding a chart
+     * again when it has not changed since it was last written (at the same
+     * size and in the same format).  The default is {@code null} (no 
+     * caching).
+     *
+     * @return The cache (possibly {@code null}).
+     *
+     * @see #setImageCache(EncodedChartCache)
+     * @since 1.5
+     */
+    public static EncodedChartCache getImageCache() {
+        return ChartUtils.imageCache;
+    }
+
+    /**
+     * Sets the cache that is used to avoid rendering and encoding a chart
+     * again when it has not changed since it was last written.  When a cache
+     * is set, the methods that write charts in PNG or JPEG format (and the 
+     * corresponding methods in {@link org.jfree.chart.util.ExportUtils}) 
+     * return the previously encoded image if the chart's modification stamp
+     * (see {@link JFreeChart#getModificationStamp()}), size and format are
+     * unchanged.  Calls that request a {@link ChartRenderingInfo} always
+     * render the chart, since the info must be populated.
+     *
+     * @param cache  the cache ({@code null} permitted, to disable caching).
+     *
+     * @since 1.5
+     */
+    public static void setImageCache(EncodedChartCache cache) {
+        ChartUtils.imageCache = cache;
+    }
+
+    /**
+     * Returns the pool of images that the methods writing charts in PNG or 
+     * JPEG format draw into.  The default is {@code null} (a new image is 
+     * created for every chart).
+     *
+     * @return The pool (possibly {@code null}).
+     *
+     * @see #setRenderSurfacePool(RenderSurfacePool)
+     * @since 1.5
+     */
+    public static RenderSurfacePool getRenderSurfacePool() {
+        return ChartUtils.renderSurfacePool;
+    }
+
+    /**
+     * Sets the pool of images that the methods writing charts in PNG or JPEG
+     * format (and the corresponding methods in 
+     * {@link org.jfree.chart.util.ExportUtils}) draw into.  The image for a 
+     * chart is returned to the pool once it has been encoded, so repeated 
+     * exports at the same size do not allocate new images.  Images that are
+     * returned to the caller (for example, by 
+     * {@link JFreeChart#createBufferedImage(int, int)}) are never taken from
+     * the pool.
+     *
+     * @param pool  the pool ({@code null} permitted, in which case a new 
+     *     image is created for every chart).
+     *
+     * @since 1.5
+     */
+    public static void setRenderSurfacePool(RenderSurfacePool pool) {
+        ChartUtils.renderSurfacePool = pool;
+    }
+
     /**
      * Applies the current theme to the specified chart.  This method is
      * provided for convenience, the theme itself is stored in the
@@ -180,9 +254,9 @@ public abstract class ChartUtils {
             throws IOException {
 
         Args.nullNotPermitted(chart, "chart");
-        BufferedImage bufferedImage
-                = chart.createBufferedImage(width, height, info);
-        EncoderUtil.writeBufferedImage(bufferedImage, ImageFormat.PNG, out);
+        writeChart(out, chart, width, height, info, 
+                BufferedImage.TYPE_INT_ARGB, 
+                ImageEncoderFactory.newInstance(ImageFormat.PNG), "png");
     }
 
     /**
@@ -208,13 +282,77 @@ public abstract class ChartUtils {
 
         Args.nullNotPermitted(out, "out");
         Args.nullNotPermitted(chart, "chart");
-        BufferedImage chartImage = chart.createBufferedImage(width, height,
-                BufferedImage.TYPE_INT_ARGB, info);
-        ChartUtils.writeBufferedImageAsPNG(out, chartImage, encodeAlpha,
-                compression);
+        writeChart(out, chart, width, height, info, 
+                BufferedImage.TYPE_INT_ARGB, ImageEncoderFactory.newInstance(
+                ImageFormat.PNG, compression, encodeAlpha), "png;alpha=" 
+                + encodeAlpha + ";compression=" + compression);
 
     }
 
+    /**
+     * Draws a chart to an image and writes it to an output stream using the
+     * specified encoder.  If an image cache has been set (and no rendering 
+     * info is requested), a previously encoded image is reused when the 
+     * chart has not changed, and a newly encoded image is added to the cache.
+     *
+     * @param out  the output stream.
+     * @param chart  the chart.
+     * @param width  the image width.
+     * @param height  the image height.
+     * @param info  carries back chart rendering info ({@code null}
+     *              permitted).
+     * @param imageType  the image type (see {@link BufferedImage}).
+     * @param encoder  the image encoder.
+     * @param format  the format key for the cache (this must identify the 
+     *     format and all encoding parameters).
+     *
+     * @throws IOException if there are any I/O errors.
+     */
+    private static void writeChart(OutputStream out, JFreeChart chart, 
+            int width, int height, ChartRenderingInfo info, int imageType, 
+            ImageEncoder encoder, String format) throws IOException {
+        EncodedChartCache cache = ChartUtils.imageCache;
+        RenderSurfacePool pool = ChartUtils.renderSurfacePool;
+        if (cache == null || info != null) {
+            BufferedImage image = chart.createBufferedImage(width, height,
+                    imageType, info, pool);
+            try {
+                encoder.encode(image, out);
+            }
+            finally {
+                release(pool, image);
+            }
+            return;
+        }
+        if (cache.write(chart, width, height, format, out)) {
+            return;
+        }
+        long stamp = chart.getModificationStamp();
+        BufferedImage image = chart.createBufferedImage(width, height,
+                imageType, null, pool);
+        byte[] data;
+        try {
+            data = encoder.encode(image);
+        }
+        finally {
+            release(pool, image);
+        }
+        out.write(data);
+        cache.put(chart, stamp, width, height, format, data);
+    }
+
+    /**
+     * Returns an image to a pool, if there is one.
+     *
+     * @param pool  the pool ({@code null} permitted).
+     * @param image  the image.
+     */
+    private static void release(RenderSurfacePool pool, BufferedImage image) {
+        if (pool != null) {
+            pool.release(image);
+        }
+    }
+
     /**
      * Writes a scaled version of a chart to an output stream in PNG format.
      *
@@ -407,9 +545,9 @@ public abstract class ChartUtils {
 
         Args.nullNotPermitted(out, "out");
         Args.nullNotPermitted(chart, "chart");
-        BufferedImage image = chart.createBufferedImage(width, height,
-                BufferedImage.TYPE_INT_RGB, info);
-        EncoderUtil.writeBufferedImage(image, ImageFormat.JPEG, out);
+        writeChart(out, chart, width, height, info, 
+                BufferedImage.TYPE_INT_RGB, 
+                ImageEncoderFactory.newInstance(ImageFormat.JPEG), "jpeg");
 
     }
 
@@ -434,9 +572,9 @@ public abstract class ChartUtils {
 
         Args.nullNotPermitted(out, "out");
         Args.nullNotPermitted(chart, "chart");
-        BufferedImage image = chart.createBufferedImage(width, height,
-                BufferedImage.TYPE_INT_RGB, info);
-        EncoderUtil.writeBufferedImage(image, ImageFormat.JPEG, out, quality);
+        writeChart(out, chart, width, height, info, 
+                BufferedImage.TYPE_INT_RGB, ImageEncoderFactory.newInstance(
+                ImageFormat.JPEG, quality), "jpeg;quality=" + quality);
 
     }
 
@@ -0,0 +1,338 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ----------------------
+ * EncodedChartCache.java
+ * ----------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.jfree.chart.util.Args;
+
+/**
+ * A cache for encoded chart images (for example, PNG files), used by 
+ * {@link ChartUtils} and {@link org.jfree.chart.util.ExportUtils} to avoid 
+ * rendering and encoding a chart again when it has not changed since the
+ * last time it was written at the same size and in the same format.  An 
+ * entry is valid only while the chart's modification stamp (see 
+ * {@link JFreeChart#getModificationStamp()}) is unchanged.
+ * <p>
+ * The cache refers to charts through weak references, so it does not 
+ * prevent charts from being garbage collected, and the total size of the 
+ * cached images is limited (the least recently used images are evicted 
+ * first).  Instances of this class are thread-safe.
+ *
+ * @see ChartUtils#setImageCache(EncodedChartCache)
+ *
+ * @since 1.5
+ */
+public class EncodedChartCache {
+
+    /** The default maximum size (16MB). */
+    public static final long DEFAULT_MAXIMUM_SIZE = 16L * 1024L * 1024L;
+
+    /** The maximum number of bytes held by the cache. */
+    private long maximumSize;
+
+    /** The number of bytes held by the cache. */
+    private long size;
+
+    /** The entries, in least-recently-used order. */
+    private LinkedHashMap entries;
+
+    /** The queue for keys whose chart has been garbage collected. */
+    private ReferenceQueue queue;
+
+    /**
+     * Creates a new cache with the default maximum size.
+     */
+    public EncodedChartCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maximumSize  the maximum number of bytes held by the cache 
+     *     (must be non-negative).
+     */
+    public EncodedChartCache(long maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Requires maximumSize >= 0.");
+        }
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap(16, 0.75f, true);
+        this.queue = new ReferenceQueue();
+    }
+
+    /**
+     * Returns the maximum number of bytes held by the cache.
+     *
+     * @return The maximum size.
+     */
+    public synchronized long getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * Returns the number of bytes currently held by the cache.
+     *
+     * @return The size.
+     */
+    public synchronized long getSize() {
+        expungeCollected();
+        return this.size;
+    }
+
+    /**
+     * Returns the number of images currently held by the cache.
+     *
+     * @return The image count.
+     */
+    public synchronized int getItemCount() {
+        expungeCollected();
+        return this.entries.size();
+    }
+
+    /**
+     * Writes the cached image for a chart to an output stream, if there is
+     * one that matches the chart's current modification stamp, size and 
+     * format, and returns {@code true}.  Otherwise this method writes 
+     * nothing and returns {@code false}.
+     *
+     * @param chart  the chart ({@code null} not permitted).
+     * @param width  the image width.
+     * @param height  the image height.
+     * @param format  a string that identifies the format and any encoding 
+     *     parameters ({@code null} not permitted).
+     * @param out  the output stream ({@code null} not permitted).
+     *
+     * @return A boolean.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public boolean write(JFreeChart chart, int width, int height, 
+            String format, OutputStream out) throws IOException {
+        Args.nullNotPermitted(out, "out");
+        byte[] data = get(chart, width, height, format);
+        if (data == null) {
+            return false;
+        }
+        out.write(data);
+        return true;
+    }
+
+    /**
+     * Adds an encoded image to the cache.  The image is only stored if the
+     * chart's modification stamp still equals {@code stamp} (the stamp read 
+     * before the chart was drawn), since otherwise the chart changed while 
+     * it was being drawn.  The array is not copied, so the caller must not 
+     * modify it afterwards.
+     *
+     * @param chart  the chart ({@code null} not permitted).
+     * @param stamp  the modification stamp of the chart before it was drawn.
+     * @param width  the image width.
+     * @param height  the image height.
+     * @param format  a string that identifies the format and any encoding 
+     *     parameters ({@code null} not permitted).
+     * @param data  the encoded image ({@code null} not permitted).
+     */
+    public synchronized void put(JFreeChart chart, long stamp, int width, 
+            int height, String format, byte[] data) {
+        Args.nullNotPermitted(chart, "chart");
+        Args.nullNotPermitted(format, "format");
+        Args.nullNotPermitted(data, "data");
+        expungeCollected();
+        if (chart.getModificationStamp() != stamp 
+                || data.length > this.maximumSize) {
+            return;
+        }
+        Key key = new Key(chart, width, height, format, this.queue);
+        Entry old = (Entry) this.entries.put(key, new Entry(stamp, data));
+        if (old != null) {
+            this.size -= old.data.length;
+        }
+        this.size += data.length;
+        Iterator iterator = this.entries.values().iterator();
+        while (this.size > this.maximumSize && iterator.hasNext()) {
+            Entry entry = (Entry) iterator.next();
+            iterator.remove();
+            this.size -= entry.data.length;
+        }
+    }
+
+    /**
+     * Removes all images from the cache.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        this.size = 0L;
+        while (this.queue.poll() != null) {
+            // discard
+        }
+    }
+
+    /**
+     * Returns the cached image, or {@code null}.
+     *
+     * @param chart  the chart ({@code null} not permitted).
+     * @param width  the image width.
+     * @param height  the image height.
+     * @param format  the format ({@code null} not permitted).
+     *
+     * @return The encoded image (possibly {@code null}).
+     */
+    private synchronized byte[] get(JFreeChart chart, int width, int height,
+            String format) {
+        Args.nullNotPermitted(chart, "chart");
+        Args.nullNotPermitted(format, "format");
+        expungeCollected();
+        Key key = new Key(chart, width, height, format, null);
+        Entry entry = (Entry) this.entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.stamp != chart.getModificationStamp()) {
+            this.entries.remove(key);
+            this.size -= entry.data.length;
+            return null;
+        }
+        return entry.data;
+    }
+
+    /**
+     * Removes the entries for charts that have been garbage collected.
+     */
+    private void expungeCollected() {
+        Key key = (Key) this.queue.poll();
+        while (key != null) {
+            Entry entry = (Entry) this.entries.remove(key);
+            if (entry != null) {
+                this.size -= entry.data.length;
+            }
+            key = (Key) this.queue.poll();
+        }
+    }
+
+    /**
+     * A cache key, which refers to the chart by identity through a weak 
+     * reference.
+     */
+    private static class Key extends WeakReference {
+
+        /** The hash code (fixed when the key is created). */
+        private final int hash;
+
+        /** The image width. */
+        private final int width;
+
+        /** The image height. */
+        private final int height;
+
+        /** The format. */
+        private final String format;
+
+        /**
+         * Creates a new key.
+         *
+         * @param chart  the chart.
+         * @param width  the image width.
+         * @param height  the image height.
+         * @param format  the format.
+         * @param queue  the reference queue ({@code null} permitted).
+         */
+        Key(JFreeChart chart, int width, int height, String format,
+                ReferenceQueue queue) {
+            super(chart, queue);
+            this.width = width;
+            this.height = height;
+            this.format = format;
+            int h = System.identityHashCode(chart);
+            h = 31 * h + width;
+            h = 31 * h + height;
+            h = 31 * h + format.hashCode();
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) obj;
+            Object chart = get();
+            return chart != null && chart == that.get() 
+                    && this.width == that.width 
+                    && this.height == that.height
+                    && this.format.equals(that.format);
+        }
+    }
+
+    /**
+     * A cache entry.
+     */
+    private static class Entry {
+
+        /** The modification stamp of the chart when it was drawn. */
+        final long stamp;
+
+        /** The encoded image. */
+        final byte[] data;
+
+        /**
+         * Creates a new entry.
+         *
+         * @param stamp  the modification stamp.
+         * @param data  the encoded image.
+         */
+        Entry(long stamp, byte[] data) {
+            this.stamp = stamp;
+            this.data = data;
+        }
+    }
+
+}
@@ -179,6 +179,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.swing.UIManager;
 import javax.swing.event.EventListenerList;
 
@@ -244,6 +245,9 @@ public class JFreeChart implements Drawable, TitleChangeListener,
     /** For serialization. */
     private static final long serialVersionUID = -3470703747817429120L;
 
+    /** The source for modification stamps (shared by all charts). */
+    private static final AtomicLong MODIFICATION_STAMPS = new AtomicLong();
+
     /** The default font for titles. */
     public static final Font DEFAULT_TITLE_FONT
             = new Font("SansSerif", Font.BOLD, 18);
@@ -340,6 +344,12 @@ public class JFreeChart implements Drawable, TitleChangeListener,
      * JFreeSVG is one output target that supports these hints.
      */
     private boolean elementHinting;
+
+    /** 
+     * The modification stamp, which is advanced whenever a change event is
+     * generated for the chart.
+     */
+    private transient volatile long modificationStamp;
     
     /**
      * Creates a new chart based on the supplied plot.  The chart will have
@@ -401,6 +411,7 @@ public class JFreeChart implements Drawable, TitleChangeListener,
         this.changeListeners = new EventListenerList();
         this.notify = true;  // default is to notify listeners when the
                              // chart changes
+        this.modificationStamp = MODIFICATION_STAMPS.incrementAndGet();
 
         this.renderingHints = new RenderingHints(
                 RenderingHints.KEY_ANTIALIASING,
@@ -1172,6 +1183,45 @@ public class JFreeChart implements Drawable, TitleChangeListener,
         draw(g2, area, null, info);
     }
 
+    /**
+     * Draws the chart on a Java 2D graphics device, under the control of a 
+     * {@link RenderControl}.  The control can cancel the drawing from 
+     * another thread, and can set a time budget for the drawing.  If the
+     * budget is not sufficient to draw all the data, the plot draws a 
+     * coarser view of the data and the control's 
+     * {@link RenderControl#isRefinementRequired()} method returns 
+     * {@code true} afterwards, to indicate that the chart should be drawn
+     * again to refine the output.  If the drawing is cancelled, the output
+     * is incomplete and should be discarded.
+     *
+     * @param g2  the graphics device.
+     * @param chartArea  the area within which the chart should be drawn.
+     * @param anchor  the anchor point (in Java2D space) for the chart
+     *                ({@code null} permitted).
+     * @param info  records info about the drawing (null means collect no info).
+     * @param control  the render control ({@code null} permitted).
+     *
+     * @since 1.5
+     */
+    public void draw(Graphics2D g2, Rectangle2D chartArea, Point2D anchor,
+            ChartRenderingInfo info, RenderControl control) {
+        if (control == null) {
+            draw(g2, chartArea, anchor, info);
+            return;
+        }
+        if (control.isCancelled()) {
+            return;
+        }
+        Object saved = g2.getRenderingHint(ChartHints.KEY_RENDER_CONTROL);
+        g2.setRenderingHint(ChartHints.KEY_RENDER_CONTROL, control);
+        try {
+            draw(g2, chartArea, anchor, info);
+        }
+        finally {
+            g2.setRenderingHint(ChartHints.KEY_RENDER_CONTROL, saved);
+        }
+    }
+
     /**
      * Draws the chart on a Java 2D graphics device (such as the screen or a
      * printer).
@@ -1199,6 +1249,9 @@ public class JFreeChart implements Drawable, TitleChangeListener,
             g2.setRenderingHint(ChartHints.KEY_BEGIN_ELEMENT, m);            
         }
         
+        // the background layer includes the titles
+        boolean background = ChartLayer.BACKGROUND.isDrawn(
+                g2.getRenderingHint(ChartHints.KEY_LAYERS));
         EntityCollection entities = null;
         // record the chart area, if info is requested...
         if (info != null) {
@@ -1206,7 +1259,7 @@ public class JFreeChart implements Drawable, TitleChangeListener,
             info.setChartArea(chartArea);
             entities = info.getEntityCollection();
         }
-        if (entities != null) {
+        if (entities != null && background) {
             entities.add(new JFreeChartEntity((Rectangle2D) chartArea.clone(),
                     this));
         }
@@ -1218,12 +1271,12 @@ public class JFreeChart implements Drawable, TitleChangeListener,
         g2.addRenderingHints(this.renderingHints);
 
         // draw the chart background...
-        if (this.backgroundPaint != null) {
+        if (this.backgroundPaint != null && background) {
             g2.setPaint(this.backgroundPaint);
             g2.fill(chartArea);
         }
 
-        if (this.backgroundImage != null) {
+        if (this.backgroundImage != null && background) {
             Composite originalComposite = g2.getComposite();
             g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER,
                     this.backgroundImageAlpha));
@@ -1237,7 +1290,7 @@ public class JFreeChart implements Drawable, TitleChangeListener,
             g2.setComposite(originalComposite);
         }
 
-        if (isBorderVisible()) {
+        if (isBorderVisible() && background) {
             Paint paint = getBorderPaint();
             Stroke stroke = getBorderStroke();
             if (paint != null && stroke != null) {
@@ -1257,8 +1310,9 @@ public class JFreeChart implements Drawable, TitleChangeListener,
         this.padding.trim(nonTitleArea);
 
         if (this.title != null && this.title.isVisible()) {
-            EntityCollection e = drawTitle(this.title, g2, nonTitleArea,
-                    (entities != null));
+            EntityCollection e = background ? drawTitle(this.title, g2, 
+                    nonTitleArea, (entities != null)) : drawTitle(this.title,
+                    g2, nonTitleArea, false, false);
             if (e != null && entities != null) {
                 entities.addAll(e);
             }
@@ -1268,8 +1322,10 @@ public class JFreeChart implements Drawable, TitleChangeListener,
         while (iterator.hasNext()) {
             Title currentTitle = (Title) iterator.next();
             if (currentTitle.isVisible()) {
-                EntityCollection e = drawTitle(currentTitle, g2, nonTitleArea,
-                        (entities != null));
+                EntityCollection e = background ? drawTitle(currentTitle, 
+                        g2, nonTitleArea, (entities != null)) 
+                        : drawTitle(currentTitle, g2, nonTitleArea, false, 
+                        false);
                 if (e != null && entities != null) {
                     entities.addAll(e);
                 }
@@ -1347,6 +1403,26 @@ public class JFreeChart implements Drawable, TitleChangeListener,
      */
     protected EntityCollection drawTitle(Title t, Graphics2D g2,
                                          Rectangle2D area, boolean entities) {
+        return drawTitle(t, g2, area, entities, true);
+    }
+
+    /**
+     * Performs the layout for a title and, optionally, draws it.  The area 
+     * is reduced by the space used by the title in either case.
+     *
+     * @param t  the title ({@code null} not permitted).
+     * @param g2  the graphics device ({@code null} not permitted).
+     * @param area  the chart area, excluding any existing titles 
+     *              ({@code null} not permitted).
+     * @param entities  a flag that controls whether or not an entity
+     *                  collection is returned for the title.
+     * @param draw  draw the title?  If {@code false}, only the layout is
+     *              performed.
+     *
+     * @return An entity collection for the title (possibly {@code null}).
+     */
+    private EntityCollection drawTitle(Title t, Graphics2D g2,
+            Rectangle2D area, boolean entities, boolean draw) {
 
         Args.nullNotPermitted(t, "t");
         Args.nullNotPermitted(area, "area");
@@ -1370,7 +1446,9 @@ public class JFreeChart implements Drawable, TitleChangeListener,
             Size2D size = t.arrange(g2, constraint);
             titleArea = createAlignedRectangle2D(size, area,
                     t.getHorizontalAlignment(), VerticalAlignment.TOP);
-            retValue = t.draw(g2, titleArea, p);
+            if (draw) {
+                retValue = t.draw(g2, titleArea, p);
+            }
             area.setRect(area.getX(), Math.min(area.getY() + size.height,
                     area.getMaxY()), area.getWidth(), Math.max(area.getHeight()
                     - size.height, 0));
@@ -1378,21 +1456,27 @@ public class JFreeChart implements Drawable, TitleChangeListener,
             Size2D size = t.arrange(g2, constraint);
             titleArea = createAlignedRectangle2D(size, area,
                     t.getHorizontalAlignment(), VerticalAlignment.BOTTOM);
-            retValue = t.draw(g2, titleArea, p);
+            if (draw) {
+                retValue = t.draw(g2, titleArea, p);
+            }
             area.setRect(area.getX(), area.getY(), area.getWidth(),
                     area.getHeight() - size.height);
         } else if (position == RectangleEdge.RIGHT) {
             Size2D size = t.arrange(g2, constraint);
             titleArea = createAlignedRectangle2D(size, area,
                     HorizontalAlignment.RIGHT, t.getVerticalAlignment());
-            retValue = t.draw(g2, titleArea, p);
+            if (draw) {
+                retValue = t.draw(g2, titleArea, p);
+            }
             area.setRect(area.getX(), area.getY(), area.getWidth()
                     - size.width, area.getHeight());
         } else if (position == RectangleEdge.LEFT) {
             Size2D size = t.arrange(g2, constraint);
             titleArea = createAlignedRectangle2D(size, area,
                     HorizontalAlignment.LEFT, t.getVerticalAlignment());
-            retValue = t.draw(g2, titleArea, p);
+            if (draw) {
+                retValue = t.draw(g2, titleArea, p);
+            }
             area.setRect(area.getX() + size.width, area.getY(), area.getWidth()
                     - size.width, area.getHeight());
         }
@@ -1455,6 +1539,44 @@ public class JFreeChart implements Drawable, TitleChangeListener,
         return image;
     }
 
+    /**
+     * Creates and returns a buffered image into which the chart has been 
+     * drawn, taking the image from a pool.  The caller should give the image
+     * back to the pool (see {@link RenderSurfacePool#release(BufferedImage)})
+     * once it is no longer needed.
+     *
+     * @param width  the width.
+     * @param height  the height.
+     * @param imageType  the image type.
+     * @param info  carries back chart state information ({@code null}
+     *              permitted).
+     * @param pool  the image pool ({@code null} permitted, in which case a 
+     *     new image is created).
+     *
+     * @return A buffered image.
+     *
+     * @since 1.5
+     */
+    public BufferedImage createBufferedImage(int width, int height,
+            int imageType, ChartRenderingInfo info, RenderSurfacePool pool) {
+        if (pool == null) {
+            return createBufferedImage(width, height, imageType, info);
+        }
+        BufferedImage image = pool.acquire(width, height, imageType);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            draw(g2, new Rectangle2D.Double(0, 0, width, height), null, info);
+        }
+        catch (RuntimeException e) {
+            pool.release(image);
+            throw e;
+        }
+        finally {
+            g2.dispose();
+        }
+        return image;
+    }
+
     /**
      * Creates and returns a buffered image into which the chart has been drawn.
      *
@@ -1506,6 +1628,29 @@ public class JFreeChart implements Drawable, TitleChangeListener,
         this.plot.handleClick(x, y, info.getPlotInfo());
     }
 
+    /**
+     * Returns the modification stamp for the chart.  The stamp is advanced
+     * every time a {@link ChartChangeEvent} is generated for the chart, 
+     * including changes to the plot, datasets, axes, renderers, titles and
+     * legend that are passed on to the chart (and including changes made 
+     * while the {@code notify} flag is {@code false}).  If the stamp has not
+     * changed since a chart was drawn, then drawing the chart again at the
+     * same size will produce the same output, so callers can use it to reuse
+     * previously rendered images.  Stamps are never reused, even across 
+     * different charts (a clone gets a stamp of its own).
+     * <p>
+     * Note that changes to a plot or dataset that is not sending change 
+     * events (for example, a plot with its own {@code notify} flag set to
+     * {@code false}) are not seen by the chart until the event is sent.
+     *
+     * @return The modification stamp.
+     *
+     * @since 1.5
+     */
+    public long getModificationStamp() {
+        return this.modificationStamp;
+    }
+
     /**
      * Registers an object for notification of changes to the chart.
      *
@@ -1547,6 +1692,7 @@ public class JFreeChart implements Drawable, TitleChangeListener,
      *               notification.
      */
     protected void notifyListeners(ChartChangeEvent event) {
+        this.modificationStamp = MODIFICATION_STAMPS.incrementAndGet();
         if (this.notify) {
             Object[] listeners = this.changeListeners.getListenerList();
             for (int i = listeners.length - 2; i >= 0; i -= 2) {
@@ -1711,6 +1857,7 @@ public class JFreeChart implements Drawable, TitleChangeListener,
         this.backgroundPaint = SerialUtils.readPaint(stream);
         this.progressListeners = new EventListenerList();
         this.changeListeners = new EventListenerList();
+        this.modificationStamp = MODIFICATION_STAMPS.incrementAndGet();
         this.renderingHints = new RenderingHints(
                 RenderingHints.KEY_ANTIALIASING,
                 RenderingHints.VALUE_ANTIALIAS_ON);
@@ -1764,6 +1911,8 @@ public class JFreeChart implements Drawable, TitleChangeListener,
 
         chart.progressListeners = new EventListenerList();
         chart.changeListeners = new EventListenerList();
+        // the clone is a different chart, so it can't share cached output
+        chart.modificationStamp = MODIFICATION_STAMPS.incrementAndGet();
         return chart;
     }
 
@@ -0,0 +1,191 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ------------------
+ * RenderControl.java
+ * ------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart;
+
+import java.awt.Graphics2D;
+
+/**
+ * A context that controls the drawing of a chart while it is in progress.
+ * It can be used to cancel a drawing that is no longer required (for 
+ * example, because the chart has changed) and to set a time budget for the
+ * drawing.  A control is passed to 
+ * {@link JFreeChart#draw(Graphics2D, java.awt.geom.Rectangle2D, 
+ * java.awt.geom.Point2D, ChartRenderingInfo, RenderControl)}, which makes it 
+ * available to the plot via the {@link ChartHints#KEY_RENDER_CONTROL} hint.
+ * <p>
+ * The plot and renderer loops check the control periodically.  A cancelled
+ * drawing stops as soon as possible and leaves the output incomplete.  When
+ * the time budget is not sufficient to draw all the items of a dataset, an
+ * {@link org.jfree.chart.plot.XYPlot} draws a coarser view of the dataset 
+ * instead and records this in the control, so that the caller can refine 
+ * the output by drawing the chart again (see 
+ * {@link #isRefinementRequired()}).
+ * <p>
+ * Instances of this class are thread-safe, a drawing in progress on one 
+ * thread can be cancelled from any other thread.  A control should only be
+ * used for one drawing.
+ *
+ * @since 1.5
+ */
+public class RenderControl {
+
+    /** The deadline (in terms of {@code System.nanoTime()}). */
+    private final long deadline;
+
+    /** A flag that indicates whether or not a deadline is set. */
+    private final boolean hasDeadline;
+
+    /** A flag that indicates whether or not the drawing is cancelled. */
+    private volatile boolean cancelled;
+
+    /** 
+     * A flag that indicates whether or not some data was drawn with reduced
+     * detail. 
+     */
+    private volatile boolean refinementRequired;
+
+    /**
+     * Creates a new control without a time budget.
+     */
+    public RenderControl() {
+        this.deadline = 0L;
+        this.hasDeadline = false;
+    }
+
+    /**
+     * Creates a new control with the specified time budget.  The budget 
+     * starts when the control is created.
+     *
+     * @param budgetMillis  the time budget in milliseconds (must be 
+     *     &gt;= 0).
+     */
+    public RenderControl(long budgetMillis) {
+        if (budgetMillis < 0) {
+            throw new IllegalArgumentException(
+                    "Requires 'budgetMillis' >= 0.");
+        }
+        this.deadline = System.nanoTime() + budgetMillis * 1000000L;
+        this.hasDeadline = true;
+    }
+
+    /**
+     * Cancels the drawing.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Returns {@code true} if the drawing has been cancelled, and 
+     * {@code false} otherwise.
+     *
+     * @return A boolean.
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Returns {@code true} if this control has a time budget, and 
+     * {@code false} otherwise.
+     *
+     * @return A boolean.
+     */
+    public boolean hasDeadline() {
+        return this.hasDeadline;
+    }
+
+    /**
+     * Returns the time remaining before the deadline, in nanoseconds.  The
+     * result is negative if the deadline has passed, and 
+     * {@code Long.MAX_VALUE} if there is no deadline.
+     *
+     * @return The remaining time.
+     */
+    public long getRemainingNanos() {
+        if (!this.hasDeadline) {
+            return Long.MAX_VALUE;
+        }
+        return this.deadline - System.nanoTime();
+    }
+
+    /**
+     * Returns {@code true} if the deadline has passed, and {@code false}
+     * otherwise (including when there is no deadline).
+     *
+     * @return A boolean.
+     */
+    public boolean isExpired() {
+        return this.hasDeadline && getRemainingNanos() <= 0L;
+    }
+
+    /**
+     * Records that some part of the chart was drawn with reduced detail to
+     * stay within the time budget.  This method is called by the plots.
+     */
+    public void requireRefinement() {
+        this.refinementRequired = true;
+    }
+
+    /**
+     * Returns {@code true} if some part of the chart was drawn with reduced
+     * detail to stay within the time budget, in which case the chart should 
+     * be drawn again (with a larger budget or none) to refine the output.
+     *
+     * @return A boolean.
+     */
+    public boolean isRefinementRequired() {
+        return this.refinementRequired;
+    }
+
+    /**
+     * Returns the control set for a graphics target via the 
+     * {@link ChartHints#KEY_RENDER_CONTROL} hint.
+     *
+     * @param g2  the graphics target ({@code null} not permitted).
+     *
+     * @return The control (possibly {@code null}).
+     */
+    public static RenderControl getRenderControl(Graphics2D g2) {
+        Object hint = g2.getRenderingHint(ChartHints.KEY_RENDER_CONTROL);
+        if (hint instanceof RenderControl) {
+            return (RenderControl) hint;
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,263 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ----------------------
+ * RenderSurfacePool.java
+ * ----------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A pool of images that can be reused as drawing surfaces, so that charts 
+ * that are drawn repeatedly at the same size (for example, by a server that
+ * exports charts) do not allocate a new image every time.  Large images are
+ * expensive to allocate and to garbage collect.
+ * <p>
+ * An image is borrowed with {@link #acquire(int, int, int)} and given back
+ * with {@link #release(BufferedImage)} once it is no longer used.  The 
+ * number of idle images held by the pool (and the memory they use) is 
+ * limited: when a released image would exceed a limit, the least recently
+ * released images are discarded.  The pool keeps track of the images it has
+ * handed out, and ignores a release of an image that it did not hand out or
+ * that has already been released, so an image cannot be handed out twice.
+ * Instances of this class are thread-safe.
+ *
+ * @see ChartUtils#setRenderSurfacePool(RenderSurfacePool)
+ *
+ * @since 1.5
+ */
+public class RenderSurfacePool {
+
+    /** The default maximum number of idle images. */
+    public static final int DEFAULT_MAXIMUM_IMAGE_COUNT = 4;
+
+    /** The default maximum size of the idle images (32MB). */
+    public static final long DEFAULT_MAXIMUM_SIZE = 32L * 1024L * 1024L;
+
+    /** The maximum number of idle images. */
+    private int maximumImageCount;
+
+    /** The maximum number of bytes used by the idle images. */
+    private long maximumSize;
+
+    /** The idle images, least recently released first. */
+    private ArrayDeque<BufferedImage> idle;
+
+    /** The number of bytes used by the idle images. */
+    private long size;
+
+    /** 
+     * The images that have been acquired and not yet released (weakly 
+     * referenced, so images that are never released can be collected). 
+     */
+    private Set<BufferedImage> acquired;
+
+    /**
+     * Creates a new pool with the default limits.
+     */
+    public RenderSurfacePool() {
+        this(DEFAULT_MAXIMUM_IMAGE_COUNT, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a new pool.
+     *
+     * @param maximumImageCount  the maximum number of idle images 
+     *     ({@code >= 0}).
+     * @param maximumSize  the maximum number of bytes used by the idle 
+     *     images ({@code >= 0}).
+     */
+    public RenderSurfacePool(int maximumImageCount, long maximumSize) {
+        if (maximumImageCount < 0) {
+            throw new IllegalArgumentException(
+                    "Requires maximumImageCount >= 0.");
+        }
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Requires maximumSize >= 0.");
+        }
+        this.maximumImageCount = maximumImageCount;
+        this.maximumSize = maximumSize;
+        this.idle = new ArrayDeque<BufferedImage>();
+        // BufferedImage does not override equals(), so this is an identity
+        // set
+        this.acquired = Collections.newSetFromMap(
+                new WeakHashMap<BufferedImage, Boolean>());
+    }
+
+    /**
+     * Returns the maximum number of idle images held by the pool.
+     *
+     * @return The maximum number of images.
+     */
+    public int getMaximumImageCount() {
+        return this.maximumImageCount;
+    }
+
+    /**
+     * Returns the maximum number of bytes used by the idle images held by
+     * the pool.
+     *
+     * @return The maximum size.
+     */
+    public long getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * Returns the number of idle images held by the pool.
+     *
+     * @return The number of images.
+     */
+    public synchronized int getImageCount() {
+        return this.idle.size();
+    }
+
+    /**
+     * Returns the number of bytes used by the idle images held by the pool.
+     *
+     * @return The size.
+     */
+    public synchronized long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns an image with the specified size and type, with every pixel 
+     * cleared to zero (transparent for images with an alpha channel, black 
+     * otherwise).  If the pool holds an idle image with the same size and 
+     * type it is reused, otherwise a new image is created.
+     *
+     * @param width  the width ({@code > 0}).
+     * @param height  the height ({@code > 0}).
+     * @param imageType  the image type (for example, 
+     *     {@link BufferedImage#TYPE_INT_ARGB}).
+     *
+     * @return The image (never {@code null}).
+     */
+    public BufferedImage acquire(int width, int height, int imageType) {
+        BufferedImage image = null;
+        synchronized (this) {
+            Iterator<BufferedImage> iterator = this.idle.descendingIterator();
+            while (iterator.hasNext()) {
+                BufferedImage candidate = iterator.next();
+                if (candidate.getWidth() == width 
+                        && candidate.getHeight() == height
+                        && candidate.getType() == imageType) {
+                    iterator.remove();
+                    this.size -= sizeOf(candidate);
+                    this.acquired.add(candidate);
+                    image = candidate;
+                    break;
+                }
+            }
+        }
+        if (image == null) {
+            image = new BufferedImage(width, height, imageType);
+            synchronized (this) {
+                this.acquired.add(image);
+            }
+            return image;
+        }
+        Graphics2D g2 = image.createGraphics();
+        g2.setComposite(AlphaComposite.Clear);
+        g2.fillRect(0, 0, width, height);
+        g2.dispose();
+        return image;
+    }
+
+    /**
+     * Gives an image back to the pool.  The caller must not use the image 
+     * after calling this method.  Images that were not acquired from this 
+     * pool, or that have been released already, are ignored, and images of
+     * type {@link BufferedImage#TYPE_CUSTOM} are not pooled.
+     *
+     * @param image  the image ({@code null} permitted, in which case this 
+     *     method does nothing).
+     */
+    public void release(BufferedImage image) {
+        if (image == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!this.acquired.remove(image)) {
+                return;
+            }
+        }
+        if (image.getType() == BufferedImage.TYPE_CUSTOM) {
+            return;
+        }
+        long imageSize = sizeOf(image);
+        if (imageSize > this.maximumSize || this.maximumImageCount == 0) {
+            return;
+        }
+        synchronized (this) {
+            while (this.idle.size() >= this.maximumImageCount 
+                    || this.size + imageSize > this.maximumSize) {
+                this.size -= sizeOf(this.idle.removeFirst());
+            }
+            this.idle.addLast(image);
+            this.size += imageSize;
+        }
+    }
+
+    /**
+     * Discards all the idle images held by the pool.
+     */
+    public synchronized void clear() {
+        this.idle.clear();
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of bytes used by the pixels of an image.
+     *
+     * @param image  the image.
+     *
+     * @return The size.
+     */
+    private static long sizeOf(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks()
+                * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+
+}
@@ -0,0 +1,861 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -------------------
+ * FastPNGEncoder.java
+ * -------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.encoders;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.jfree.chart.util.Args;
+
+/**
+ * A PNG encoder that writes directly from the pixel data of the image, with
+ * a configurable compression level and filter strategy.  The
+ * {@link ImageEncoderFactory} returns this encoder for
+ * {@link ImageFormat#FAST_PNG}, it can also be registered for
+ * {@link ImageFormat#PNG} with
+ * {@link ImageEncoderFactory#setImageEncoder(String, String)}.
+ * <p>
+ * When an image contains no more than 256 distinct colors (typical for 
+ * charts without gradients or anti-aliased text) it is written as an indexed
+ * (palette) PNG, using the smallest bit depth that holds the palette.  Other
+ * images are written as 8-bit RGB, or RGBA if the image has an alpha 
+ * channel and alpha encoding is enabled.
+ * <p>
+ * The compressed image data is streamed to the output in fixed size chunks,
+ * so the encoded image is never held in memory as a whole.  The fastest 
+ * path is for images of type {@code TYPE_INT_RGB} and 
+ * {@code TYPE_INT_ARGB} (as created by {@code JFreeChart}), other image 
+ * types are supported via {@link BufferedImage#getRGB(int, int, int, int, 
+ * int[], int, int)}.
+ * <p>
+ * For this encoder, the "quality" is the zlib compression level (0 to 9).
+ *
+ * @since 1.5
+ */
+public class FastPNGEncoder implements ImageEncoder {
+
+    /** Filter type: no filtering. */
+    public static final int FILTER_NONE = 0;
+
+    /** Filter type: difference from the pixel to the left. */
+    public static final int FILTER_SUB = 1;
+
+    /** Filter type: difference from the pixel above. */
+    public static final int FILTER_UP = 2;
+
+    /** Filter type: difference from the average of left and above. */
+    public static final int FILTER_AVERAGE = 3;
+
+    /** Filter type: difference from the Paeth predictor. */
+    public static final int FILTER_PAETH = 4;
+
+    /** 
+     * Filter strategy: choose the filter for each row that gives the 
+     * smallest sum of absolute differences (the heuristic recommended by the
+     * PNG specification).
+     */
+    public static final int FILTER_ADAPTIVE = 5;
+
+    /** The PNG signature. */
+    private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 
+            26, 10};
+
+    /** The maximum size of an IDAT chunk written by this encoder. */
+    private static final int IDAT_SIZE = 32 * 1024;
+
+    /** The zlib compression level (0-9). */
+    private int compressionLevel;
+
+    /** The filter strategy for true color images. */
+    private int filter;
+
+    /** Encode alpha, if the image has an alpha channel? */
+    private boolean encodingAlpha;
+
+    /** Write an indexed PNG when the image has few enough colors? */
+    private boolean paletteEnabled;
+
+    /**
+     * Creates a new encoder with compression level 6, the 
+     * {@link #FILTER_ADAPTIVE} strategy, alpha encoding and palette 
+     * detection enabled.
+     */
+    public FastPNGEncoder() {
+        this.compressionLevel = 6;
+        this.filter = FILTER_ADAPTIVE;
+        this.encodingAlpha = true;
+        this.paletteEnabled = true;
+    }
+
+    /**
+     * Returns the compression level, as a float.
+     *
+     * @return The compression level (0 to 9).
+     */
+    @Override
+    public float getQuality() {
+        return this.compressionLevel;
+    }
+
+    /**
+     * Sets the compression level.  The value is rounded to the nearest 
+     * integer and clipped to the range 0 to 9.
+     *
+     * @param quality  the compression level.
+     */
+    @Override
+    public void setQuality(float quality) {
+        int level = Math.round(quality);
+        this.compressionLevel = Math.max(0, Math.min(9, level));
+    }
+
+    /**
+     * Returns the zlib compression level.
+     *
+     * @return The compression level (0 to 9).
+     */
+    public int getCompressionLevel() {
+        return this.compressionLevel;
+    }
+
+    /**
+     * Sets the zlib compression level: 0 for no compression, 1 for the 
+     * fastest compression and 9 for the smallest output.
+     *
+     * @param level  the level (0 to 9).
+     */
+    public void setCompressionLevel(int level) {
+        if (level < 0 || level > 9) {
+            throw new IllegalArgumentException(
+                    "Requires 'level' in the range 0 to 9.");
+        }
+        this.compressionLevel = level;
+    }
+
+    /**
+     * Returns the filter strategy for true color images.
+     *
+     * @return The filter strategy (one of the {@code FILTER_*} constants).
+     */
+    public int getFilter() {
+        return this.filter;
+    }
+
+    /**
+     * Sets the filter strategy for true color images.  Indexed images are 
+     * always written without filtering, as the PNG specification recommends.
+     *
+     * @param filter  the filter strategy (one of the {@code FILTER_*} 
+     *     constants).
+     */
+    public void setFilter(int filter) {
+        if (filter < FILTER_NONE || filter > FILTER_ADAPTIVE) {
+            throw new IllegalArgumentException("Unrecognised filter " 
+                    + filter + ".");
+        }
+        this.filter = filter;
+    }
+
+    /**
+     * Returns the flag that controls whether or not the alpha channel of 
+     * an image is encoded.
+     *
+     * @return A boolean.
+     */
+    @Override
+    public boolean isEncodingAlpha() {
+        return this.encodingAlpha;
+    }
+
+    /**
+     * Sets the flag that controls whether or not the alpha channel of an
+     * image (if it has one) is encoded.  If not, all pixels are written as 
+     * opaque.
+     *
+     * @param encodingAlpha  encode alpha?
+     */
+    @Override
+    public void setEncodingAlpha(boolean encodingAlpha) {
+        this.encodingAlpha = encodingAlpha;
+    }
+
+    /**
+     * Returns the flag that controls whether or not images with no more 
+     * than 256 colors are written as indexed PNGs.
+     *
+     * @return A boolean.
+     */
+    public boolean isPaletteEnabled() {
+        return this.paletteEnabled;
+    }
+
+    /**
+     * Sets the flag that controls whether or not images with no more 
+     * than 256 colors are written as indexed PNGs.
+     *
+     * @param enabled  the new flag value.
+     */
+    public void setPaletteEnabled(boolean enabled) {
+        this.paletteEnabled = enabled;
+    }
+
+    /**
+     * Encodes an image in PNG format.
+     *
+     * @param bufferedImage  the image to be encoded ({@code null} not 
+     *     permitted).
+     *
+     * @return The encoded image.
+     *
+     * @throws IOException if there is an IO problem.
+     */
+    @Override
+    public byte[] encode(BufferedImage bufferedImage) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encode(bufferedImage, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes an image in PNG format and writes it to an output stream.  The
+     * stream is not closed.
+     *
+     * @param bufferedImage  the image to be encoded ({@code null} not 
+     *     permitted).
+     * @param outputStream  the output stream ({@code null} not permitted).
+     *
+     * @throws IOException if there is an IO problem.
+     */
+    @Override
+    public void encode(BufferedImage bufferedImage, OutputStream outputStream)
+            throws IOException {
+        Args.nullNotPermitted(bufferedImage, "bufferedImage");
+        Args.nullNotPermitted(outputStream, "outputStream");
+        PixelSource pixels = new PixelSource(bufferedImage);
+        boolean alpha = this.encodingAlpha 
+                && bufferedImage.getColorModel().hasAlpha();
+        Palette palette = null;
+        if (this.paletteEnabled) {
+            palette = Palette.create(pixels, alpha);
+        }
+        int width = pixels.width;
+        int height = pixels.height;
+        int bitDepth;
+        int colorType;
+        if (palette != null) {
+            bitDepth = palette.getBitDepth();
+            colorType = 3;
+        }
+        else {
+            bitDepth = 8;
+            colorType = alpha ? 6 : 2;
+        }
+        outputStream.write(SIGNATURE);
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = (byte) bitDepth;
+        header[9] = (byte) colorType;
+        // compression, filter and interlace methods are all 0
+        writeChunk(outputStream, "IHDR", header, header.length);
+        if (palette != null) {
+            writeChunk(outputStream, "PLTE", palette.rgb, palette.rgb.length);
+            if (palette.transparentCount > 0) {
+                writeChunk(outputStream, "tRNS", palette.alpha, 
+                        palette.transparentCount);
+            }
+        }
+        Deflater deflater = new Deflater(this.compressionLevel);
+        try {
+            ChunkOutputStream idat = new ChunkOutputStream(outputStream);
+            DeflaterOutputStream zout = new DeflaterOutputStream(idat, 
+                    deflater, 8192);
+            if (palette != null) {
+                writeIndexedRows(pixels, palette, zout);
+            }
+            else {
+                writeTrueColorRows(pixels, alpha, zout);
+            }
+            zout.finish();
+            idat.flush();
+        }
+        finally {
+            deflater.end();
+        }
+        writeChunk(outputStream, "IEND", new byte[0], 0);
+    }
+
+    /**
+     * Writes the rows of an indexed image (without filtering).
+     *
+     * @param pixels  the pixel source.
+     * @param palette  the palette.
+     * @param out  the output stream.
+     *
+     * @throws IOException if there is an IO problem.
+     */
+    private void writeIndexedRows(PixelSource pixels, Palette palette, 
+            OutputStream out) throws IOException {
+        int width = pixels.width;
+        int bitDepth = palette.getBitDepth();
+        int pixelsPerByte = 8 / bitDepth;
+        byte[] row = new byte[1 + (width + pixelsPerByte - 1) / pixelsPerByte];
+        int[] argb = new int[width];
+        for (int y = 0; y < pixels.height; y++) {
+            pixels.getRow(y, argb);
+            Arrays.fill(row, (byte) 0);
+            // row[0] is the filter type (FILTER_NONE)
+            for (int x = 0; x < width; x++) {
+                int index = palette.indexOf(argb[x]);
+                int i = 1 + x / pixelsPerByte;
+                int shift = 8 - bitDepth * (x % pixelsPerByte + 1);
+                row[i] = (byte) (row[i] | (index << shift));
+            }
+            out.write(row);
+        }
+    }
+
+    /**
+     * Writes the rows of a true color image, filtering each row according 
+     * to the filter strategy.
+     *
+     * @param pixels  the pixel source.
+     * @param alpha  write the alpha channel?
+     * @param out  the output stream.
+     *
+     * @throws IOException if there is an IO problem.
+     */
+    private void writeTrueColorRows(PixelSource pixels, boolean alpha, 
+            OutputStream out) throws IOException {
+        int width = pixels.width;
+        int bpp = alpha ? 4 : 3;
+        int rowLength = width * bpp;
+        byte[] previous = new byte[rowLength];
+        byte[] current = new byte[rowLength];
+        byte[][] filtered = new byte[FILTER_PAETH + 1][1 + rowLength];
+        int[] argb = new int[width];
+        for (int y = 0; y < pixels.height; y++) {
+            pixels.getRow(y, argb);
+            int i = 0;
+            for (int x = 0; x < width; x++) {
+                int p = argb[x];
+                current[i++] = (byte) (p >> 16);
+                current[i++] = (byte) (p >> 8);
+                current[i++] = (byte) p;
+                if (alpha) {
+                    current[i++] = (byte) (p >>> 24);
+                }
+            }
+            byte[] output;
+            if (this.filter == FILTER_ADAPTIVE) {
+                output = null;
+                long best = Long.MAX_VALUE;
+                for (int f = FILTER_NONE; f <= FILTER_PAETH; f++) {
+                    long sum = filterRow(f, current, previous, bpp, 
+                            filtered[f]);
+                    if (sum < best) {
+                        best = sum;
+                        output = filtered[f];
+                    }
+                }
+            }
+            else {
+                output = filtered[this.filter];
+                filterRow(this.filter, current, previous, bpp, output);
+            }
+            out.write(output);
+            byte[] temp = previous;
+            previous = current;
+            current = temp;
+        }
+    }
+
+    /**
+     * Applies a filter to one row of image data.
+     *
+     * @param filter  the filter type.
+     * @param current  the raw bytes for the current row.
+     * @param previous  the raw bytes for the previous row (all zero for the
+     *     first row).
+     * @param bpp  the number of bytes per pixel.
+     * @param out  the output array (the filter type followed by the 
+     *     filtered bytes).
+     *
+     * @return The sum of the absolute values of the filtered bytes (taken 
+     *     as signed), used to select a filter.
+     */
+    private static long filterRow(int filter, byte[] current, 
+            byte[] previous, int bpp, byte[] out) {
+        out[0] = (byte) filter;
+        long sum = 0;
+        for (int i = 0; i < current.length; i++) {
+            int x = current[i] & 0xFF;
+            int a = i >= bpp ? current[i - bpp] & 0xFF : 0;
+            int b = previous[i] & 0xFF;
+            int predictor;
+            switch (filter) {
+                case FILTER_SUB:
+                    predictor = a;
+                    break;
+                case FILTER_UP:
+                    predictor = b;
+                    break;
+                case FILTER_AVERAGE:
+                    predictor = (a + b) >> 1;
+                    break;
+                case FILTER_PAETH:
+                    int c = i >= bpp ? previous[i - bpp] & 0xFF : 0;
+                    predictor = paeth(a, b, c);
+                    break;
+                default:
+                    predictor = 0;
+            }
+            byte value = (byte) (x - predictor);
+            out[i + 1] = value;
+            sum += Math.abs(value);
+        }
+        return sum;
+    }
+
+    /**
+     * The Paeth predictor function defined in the PNG specification.
+     *
+     * @param a  the byte to the left.
+     * @param b  the byte above.
+     * @param c  the byte above and to the left.
+     *
+     * @return The predictor.
+     */
+    private static int paeth(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) {
+            return a;
+        }
+        if (pb <= pc) {
+            return b;
+        }
+        return c;
+    }
+
+    /**
+     * Writes a PNG chunk.
+     *
+     * @param out  the output stream.
+     * @param type  the chunk type (four ASCII characters).
+     * @param data  the chunk data.
+     * @param length  the number of bytes of data to write.
+     *
+     * @throws IOException if there is an IO problem.
+     */
+    private static void writeChunk(OutputStream out, String type, 
+            byte[] data, int length) throws IOException {
+        byte[] prefix = new byte[8];
+        putInt(prefix, 0, length);
+        for (int i = 0; i < 4; i++) {
+            prefix[4 + i] = (byte) type.charAt(i);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(prefix, 4, 4);
+        crc.update(data, 0, length);
+        byte[] suffix = new byte[4];
+        putInt(suffix, 0, (int) crc.getValue());
+        out.write(prefix);
+        out.write(data, 0, length);
+        out.write(suffix);
+    }
+
+    /**
+     * Writes an int to an array in big-endian order.
+     *
+     * @param b  the array.
+     * @param offset  the offset.
+     * @param value  the value.
+     */
+    private static void putInt(byte[] b, int offset, int value) {
+        b[offset] = (byte) (value >>> 24);
+        b[offset + 1] = (byte) (value >>> 16);
+        b[offset + 2] = (byte) (value >>> 8);
+        b[offset + 3] = (byte) value;
+    }
+
+    /**
+     * Reads rows of non-premultiplied ARGB pixels from an image, directly
+     * from the data buffer where possible.
+     */
+    private static class PixelSource {
+
+        /** The image. */
+        private final BufferedImage image;
+
+        /** The pixel data, or {@code null} to use {@code getRGB()}. */
+        private final int[] data;
+
+        /** The offset of the first pixel in the data array. */
+        private final int offset;
+
+        /** The distance between rows in the data array. */
+        private final int scanlineStride;
+
+        /** The image has no alpha channel (so alpha bits are ignored)? */
+        private final boolean opaque;
+
+        /** The image width. */
+        final int width;
+
+        /** The image height. */
+        final int height;
+
+        /**
+         * Creates a new pixel source for an image.
+         *
+         * @param image  the image.
+         */
+        PixelSource(BufferedImage image) {
+            this.image = image;
+            this.width = image.getWidth();
+            this.height = image.getHeight();
+            int type = image.getType();
+            if ((type == BufferedImage.TYPE_INT_RGB 
+                    || type == BufferedImage.TYPE_INT_ARGB)
+                    && image.getRaster().getDataBuffer() 
+                    instanceof DataBufferInt
+                    && image.getRaster().getSampleModel() 
+                    instanceof SinglePixelPackedSampleModel) {
+                SinglePixelPackedSampleModel sm = (SinglePixelPackedSampleModel)
+                        image.getRaster().getSampleModel();
+                DataBufferInt buffer = (DataBufferInt) 
+                        image.getRaster().getDataBuffer();
+                this.data = buffer.getData();
+                int tx = image.getRaster().getSampleModelTranslateX();
+                int ty = image.getRaster().getSampleModelTranslateY();
+                this.scanlineStride = sm.getScanlineStride();
+                this.offset = buffer.getOffset() - ty * this.scanlineStride 
+                        - tx;
+                this.opaque = type == BufferedImage.TYPE_INT_RGB;
+            }
+            else {
+                this.data = null;
+                this.offset = 0;
+                this.scanlineStride = 0;
+                this.opaque = !image.getColorModel().hasAlpha();
+            }
+        }
+
+        /**
+         * Reads one row of pixels.
+         *
+         * @param y  the row index.
+         * @param argb  the array for the pixels (length at least 
+         *     {@code width}).
+         */
+        void getRow(int y, int[] argb) {
+            if (this.data != null) {
+                System.arraycopy(this.data, this.offset 
+                        + y * this.scanlineStride, argb, 0, this.width);
+            }
+            else {
+                this.image.getRGB(0, y, this.width, 1, argb, 0, this.width);
+            }
+            if (this.opaque) {
+                for (int x = 0; x < this.width; x++) {
+                    argb[x] |= 0xFF000000;
+                }
+            }
+        }
+    }
+
+    /**
+     * The palette for an image with no more than 256 distinct colors.  
+     * Non-opaque colors come first, so the tRNS chunk can be truncated.
+     */
+    private static class Palette {
+
+        /** The size of the hash table (a power of two, over 2 x 256). */
+        private static final int TABLE_SIZE = 1024;
+
+        /** The colors in the hash table. */
+        private final int[] keys;
+
+        /** The palette index for each color in the hash table (-1 if none). */
+        private final int[] indices;
+
+        /** The palette entries (red, green, blue). */
+        byte[] rgb;
+
+        /** The alpha values for the palette entries. */
+        byte[] alpha;
+
+        /** The number of entries up to and including the last non-opaque. */
+        int transparentCount;
+
+        /** The number of colors. */
+        private int count;
+
+        /** Keep the alpha values when looking up colors? */
+        private boolean alphaMode;
+
+        /**
+         * Creates an empty palette.
+         */
+        private Palette() {
+            this.keys = new int[TABLE_SIZE];
+            this.indices = new int[TABLE_SIZE];
+            Arrays.fill(this.indices, -1);
+        }
+
+        /**
+         * Creates a palette for an image, if it has no more than 256 
+         * distinct colors.
+         *
+         * @param pixels  the pixel source.
+         * @param alpha  keep the alpha values?  If {@code false}, all colors
+         *     are treated as opaque.
+         *
+         * @return The palette, or {@code null} if the image has too many 
+         *     colors.
+         */
+        static Palette create(PixelSource pixels, boolean alpha) {
+            Palette palette = new Palette();
+            int[] colors = new int[256];
+            int[] argb = new int[pixels.width];
+            int last = 0;
+            boolean hasLast = false;
+            for (int y = 0; y < pixels.height; y++) {
+                pixels.getRow(y, argb);
+                for (int x = 0; x < pixels.width; x++) {
+                    int c = alpha ? argb[x] : argb[x] | 0xFF000000;
+                    if (hasLast && c == last) {
+                        continue;
+                    }
+                    last = c;
+                    hasLast = true;
+                    int slot = palette.slot(c);
+                    if (palette.indices[slot] < 0) {
+                        if (palette.count == 256) {
+                            return null;
+                        }
+                        palette.keys[slot] = c;
+                        palette.indices[slot] = palette.count;
+                        colors[palette.count++] = c;
+                    }
+                }
+            }
+            palette.assignIndices(colors, alpha);
+            return palette;
+        }
+
+        /**
+         * Orders the palette with non-opaque colors first, and fills in the 
+         * palette entries.
+         *
+         * @param colors  the colors, in the order found.
+         * @param alpha  keep the alpha values?
+         */
+        private void assignIndices(int[] colors, boolean alpha) {
+            int[] ordered = new int[this.count];
+            int n = 0;
+            for (int i = 0; i < this.count; i++) {
+                if (colors[i] >>> 24 != 0xFF) {
+                    ordered[n++] = colors[i];
+                }
+            }
+            this.transparentCount = n;
+            for (int i = 0; i < this.count; i++) {
+                if (colors[i] >>> 24 == 0xFF) {
+                    ordered[n++] = colors[i];
+                }
+            }
+            this.rgb = new byte[3 * this.count];
+            this.alpha = new byte[this.count];
+            for (int i = 0; i < this.count; i++) {
+                int c = ordered[i];
+                this.indices[slot(c)] = i;
+                this.rgb[3 * i] = (byte) (c >> 16);
+                this.rgb[3 * i + 1] = (byte) (c >> 8);
+                this.rgb[3 * i + 2] = (byte) c;
+                this.alpha[i] = (byte) (c >>> 24);
+            }
+            this.alphaMode = alpha;
+        }
+
+        /**
+         * Returns the smallest PNG bit depth that can hold the palette 
+         * indices.
+         *
+         * @return The bit depth (1, 2, 4 or 8).
+         */
+        int getBitDepth() {
+            if (this.count <= 2) {
+                return 1;
+            }
+            if (this.count <= 4) {
+                return 2;
+            }
+            if (this.count <= 16) {
+                return 4;
+            }
+            return 8;
+        }
+
+        /**
+         * Returns the palette index for a color that is in the palette.
+         *
+         * @param argb  the color.
+         *
+         * @return The index.
+         */
+        int indexOf(int argb) {
+            int c = this.alphaMode ? argb : argb | 0xFF000000;
+            return this.indices[slot(c)];
+        }
+
+        /**
+         * Returns the hash table slot for a color: either the slot holding
+         * the color, or the empty slot where it should be added.
+         *
+         * @param c  the color.
+         *
+         * @return The slot.
+         */
+        private int slot(int c) {
+            int h = c * 0x9E3779B9;
+            int slot = (h ^ (h >>> 16)) & (TABLE_SIZE - 1);
+            while (this.indices[slot] >= 0 && this.keys[slot] != c) {
+                slot = (slot + 1) & (TABLE_SIZE - 1);
+            }
+            return slot;
+        }
+    }
+
+    /**
+     * An output stream that writes the data it receives as a sequence of 
+     * IDAT chunks.
+     */
+    private static class ChunkOutputStream extends OutputStream {
+
+        /** The underlying stream. */
+        private final OutputStream out;
+
+        /** The buffer for the current chunk. */
+        private final byte[] buffer;
+
+        /** The number of bytes in the buffer. */
+        private int count;
+
+        /**
+         * Creates a new stream.
+         *
+         * @param out  the underlying stream.
+         */
+        ChunkOutputStream(OutputStream out) {
+            this.out = out;
+            this.buffer = new byte[IDAT_SIZE];
+        }
+
+        /**
+         * Writes a byte, first writing an IDAT chunk if the buffer is full.
+         *
+         * @param b  the byte (only the low eight bits are used).
+         *
+         * @throws IOException if there is an IO problem.
+         */
+        @Override
+        public void write(int b) throws IOException {
+            if (this.count == this.buffer.length) {
+                flush();
+            }
+            this.buffer[this.count++] = (byte) b;
+        }
+
+        /**
+         * Writes bytes from an array, writing an IDAT chunk each time the
+         * buffer is filled.
+         *
+         * @param b  the data.
+         * @param off  the offset of the first byte to write.
+         * @param len  the number of bytes to write.
+         *
+         * @throws IOException if there is an IO problem.
+         */
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (this.count == this.buffer.length) {
+                    flush();
+                }
+                int n = Math.min(len, this.buffer.length - this.count);
+                System.arraycopy(b, off, this.buffer, this.count, n);
+                this.count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        /**
+         * Writes the buffered data (if any) as an IDAT chunk.
+         *
+         * @throws IOException if there is an IO problem.
+         */
+        @Override
+        public void flush() throws IOException {
+            if (this.count > 0) {
+                writeChunk(this.out, "IDAT", this.buffer, this.count);
+                this.count = 0;
+            }
+        }
+
+        /**
+         * Does not close the underlying stream.
+         */
+        @Override
+        public void close() {
+            // the caller owns the underlying stream
+        }
+    }
+
+}
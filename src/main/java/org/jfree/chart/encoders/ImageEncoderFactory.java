@@ -45,16 +45,18 @@
 
 package org.jfree.chart.encoders;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jfree.chart.util.Args;
 
 /**
  * Factory class for returning {@link ImageEncoder}s for different
- * {@link ImageFormat}s.
+ * {@link ImageFormat}s.  The methods in this class can be called from 
+ * multiple threads.
  */
 public class ImageEncoderFactory {
 
-    /** Storage for the encoders. */
+    /** Storage for the encoders (format name to encoder class name). */
     private static Map encoders = null;
 
     static {
@@ -62,23 +64,28 @@ public class ImageEncoderFactory {
     }
 
     /**
-     * Sets up default encoders (uses Sun PNG Encoder if JDK 1.4+ and the
-     * SunPNGEncoderAdapter class is available).
+     * Sets up default encoders (the ImageIO based {@link SunPNGEncoderAdapter}
+     * and {@link SunJPEGEncoderAdapter} for PNG and JPEG, and the
+     * {@link FastPNGEncoder} for {@link ImageFormat#FAST_PNG}).
      */
     private static void init() {
-        encoders = new HashMap();
+        encoders = new ConcurrentHashMap();
         encoders.put("jpeg", "org.jfree.chart.encoders.SunJPEGEncoderAdapter");
         encoders.put("png", "org.jfree.chart.encoders.SunPNGEncoderAdapter");
+        encoders.put("fastpng", "org.jfree.chart.encoders.FastPNGEncoder");
     }
 
     /**
      * Used to set additional encoders or replace default ones.
      *
-     * @param format  The image format name.
-     * @param imageEncoderClassName  The name of the ImageEncoder class.
+     * @param format  The image format name ({@code null} not permitted).
+     * @param imageEncoderClassName  The name of the ImageEncoder class
+     *     ({@code null} not permitted).
      */
     public static void setImageEncoder(String format,
                                        String imageEncoderClassName) {
+        Args.nullNotPermitted(format, "format");
+        Args.nullNotPermitted(imageEncoderClassName, "imageEncoderClassName");
         encoders.put(format, imageEncoderClassName);
     }
 
@@ -90,6 +97,7 @@ public class ImageEncoderFactory {
      * @return The ImageEncoder or {@code null} if none available.
      */
     public static ImageEncoder newInstance(String format) {
+        Args.nullNotPermitted(format, "format");
         ImageEncoder imageEncoder = null;
         String className = (String) encoders.get(format);
         if (className == null) {
@@ -55,4 +55,11 @@ public interface ImageFormat {
     /** Graphics Interchange Format - lossless, but 256 colour restriction */
     public static String GIF = "gif";
 
+    /**
+     * Portable Network Graphics written by the {@link FastPNGEncoder}.
+     *
+     * @since 1.5
+     */
+    public static String FAST_PNG = "fastpng";
+
 }
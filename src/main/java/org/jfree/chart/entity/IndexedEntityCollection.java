@@ -0,0 +1,352 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ----------------------------
+ * IndexedEntityCollection.java
+ * ----------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.entity;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * An entity collection that maintains a spatial index (a uniform grid over
+ * the bounds of the entity areas) so that {@link #getEntity(double, double)}
+ * only needs to test the entities that are close to the specified point.
+ * This is useful for charts with a large number of entities, where the
+ * lookup is performed for each mouse movement (to display tool tips, for
+ * example).
+ * <p>
+ * The index is built on the first lookup after the collection has been
+ * modified, and the lookup returns the same entity as
+ * {@link StandardEntityCollection} would (the last entity added with an
+ * area that contains the point).  If the area of an entity is modified after
+ * it has been added to the collection, the result of a lookup is undefined.
+ * <p>
+ * To use this collection for a chart, pass an instance to the
+ * {@link org.jfree.chart.ChartRenderingInfo#ChartRenderingInfo(
+ * EntityCollection)} constructor.
+ *
+ * @since 1.5
+ */
+public class IndexedEntityCollection extends StandardEntityCollection {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -3175629417430526591L;
+
+    /** The maximum number of grid cells in each direction. */
+    private static final int MAX_CELLS_PER_SIDE = 512;
+
+    /**
+     * Entities whose bounds cover more than this number of grid cells are
+     * not stored in the grid, but tested on every lookup instead.
+     */
+    private static final int MAX_CELLS_PER_ENTITY = 64;
+
+    /** The x-coordinate of the grid origin. */
+    private transient double gridX;
+
+    /** The y-coordinate of the grid origin. */
+    private transient double gridY;
+
+    /** The width of one grid cell. */
+    private transient double cellWidth;
+
+    /** The height of one grid cell. */
+    private transient double cellHeight;
+
+    /** The number of grid columns. */
+    private transient int columns;
+
+    /** The number of grid rows. */
+    private transient int rows;
+
+    /**
+     * The start offset (into {@code cellEntities}) for each cell, plus one
+     * extra item containing the total length.  This is {@code null} when
+     * the index needs to be rebuilt.
+     */
+    private transient int[] cellStarts;
+
+    /** The entity indices for each cell, in ascending order per cell. */
+    private transient int[] cellEntities;
+
+    /** The (ascending) indices of the entities that are not in the grid. */
+    private transient int[] largeEntities;
+
+    /** The number of entities in the collection when it was indexed. */
+    private transient int indexedCount;
+
+    /**
+     * Creates a new (empty) collection.
+     */
+    public IndexedEntityCollection() {
+        super();
+    }
+
+    /**
+     * Adds an entity to the collection.
+     *
+     * @param entity  the entity ({@code null} not permitted).
+     */
+    @Override
+    public void add(ChartEntity entity) {
+        super.add(entity);
+        this.cellStarts = null;
+    }
+
+    /**
+     * Adds all the entities from the specified collection.
+     *
+     * @param collection  the collection of entities ({@code null} not
+     *     permitted).
+     */
+    @Override
+    public void addAll(EntityCollection collection) {
+        super.addAll(collection);
+        this.cellStarts = null;
+    }
+
+    /**
+     * Clears all the entities from the collection.
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        this.cellStarts = null;
+    }
+
+    /**
+     * Returns the last entity in the list with an area that encloses the
+     * specified coordinates, or {@code null} if there is no such entity.
+     *
+     * @param x  the x coordinate.
+     * @param y  the y coordinate.
+     *
+     * @return The entity (possibly {@code null}).
+     */
+    @Override
+    public ChartEntity getEntity(double x, double y) {
+        int entityCount = getEntityCount();
+        if (this.cellStarts == null || this.indexedCount != entityCount) {
+            buildIndex();
+        }
+        int result = -1;
+        int column = (int) Math.floor((x - this.gridX) / this.cellWidth);
+        int row = (int) Math.floor((y - this.gridY) / this.cellHeight);
+        if (column == this.columns) {
+            column--; // points on the right edge of the grid
+        }
+        if (row == this.rows) {
+            row--; // points on the bottom edge of the grid
+        }
+        if (column >= 0 && column < this.columns && row >= 0
+                && row < this.rows) {
+            int cell = row * this.columns + column;
+            for (int i = this.cellStarts[cell + 1] - 1;
+                    i >= this.cellStarts[cell]; i--) {
+                int index = this.cellEntities[i];
+                if (getEntity(index).getArea().contains(x, y)) {
+                    result = index;
+                    break;
+                }
+            }
+        }
+        for (int i = this.largeEntities.length - 1; i >= 0; i--) {
+            int index = this.largeEntities[i];
+            if (index < result) {
+                break;
+            }
+            if (getEntity(index).getArea().contains(x, y)) {
+                result = index;
+                break;
+            }
+        }
+        return result >= 0 ? getEntity(result) : null;
+    }
+
+    /**
+     * Builds the grid index for the current entities.
+     */
+    private void buildIndex() {
+        int entityCount = getEntityCount();
+        Rectangle2D[] bounds = new Rectangle2D[entityCount];
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < entityCount; i++) {
+            Rectangle2D b = getEntity(i).getArea().getBounds2D();
+            if (isFinite(b)) {
+                bounds[i] = b;
+                minX = Math.min(minX, b.getMinX());
+                minY = Math.min(minY, b.getMinY());
+                maxX = Math.max(maxX, b.getMaxX());
+                maxY = Math.max(maxY, b.getMaxY());
+            }
+        }
+        int side = (int) Math.ceil(Math.sqrt(entityCount));
+        side = Math.max(1, Math.min(side, MAX_CELLS_PER_SIDE));
+        if (minX > maxX) {
+            // no entities with finite bounds
+            minX = 0.0;
+            minY = 0.0;
+            maxX = 0.0;
+            maxY = 0.0;
+        }
+        this.gridX = minX;
+        this.gridY = minY;
+        this.columns = maxX > minX ? side : 1;
+        this.rows = maxY > minY ? side : 1;
+        this.cellWidth = maxX > minX ? (maxX - minX) / this.columns : 1.0;
+        this.cellHeight = maxY > minY ? (maxY - minY) / this.rows : 1.0;
+
+        // first pass: count the entities in each cell
+        int[] starts = new int[this.columns * this.rows + 1];
+        int largeCount = 0;
+        int[] cellRange = new int[4];
+        for (int i = 0; i < entityCount; i++) {
+            if (!findCellRange(bounds[i], cellRange)) {
+                bounds[i] = null;
+                largeCount++;
+                continue;
+            }
+            for (int r = cellRange[1]; r <= cellRange[3]; r++) {
+                for (int c = cellRange[0]; c <= cellRange[2]; c++) {
+                    starts[r * this.columns + c + 1]++;
+                }
+            }
+        }
+        for (int cell = 1; cell < starts.length; cell++) {
+            starts[cell] += starts[cell - 1];
+        }
+
+        // second pass: fill in the entity indices
+        int[] entities = new int[starts[starts.length - 1]];
+        int[] next = new int[starts.length - 1];
+        System.arraycopy(starts, 0, next, 0, next.length);
+        int[] large = new int[largeCount];
+        int l = 0;
+        for (int i = 0; i < entityCount; i++) {
+            if (bounds[i] == null) {
+                large[l++] = i;
+                continue;
+            }
+            findCellRange(bounds[i], cellRange);
+            for (int r = cellRange[1]; r <= cellRange[3]; r++) {
+                for (int c = cellRange[0]; c <= cellRange[2]; c++) {
+                    entities[next[r * this.columns + c]++] = i;
+                }
+            }
+        }
+        this.cellStarts = starts;
+        this.cellEntities = entities;
+        this.largeEntities = large;
+        this.indexedCount = entityCount;
+    }
+
+    /**
+     * Finds the range of grid cells covered by the specified bounds.
+     *
+     * @param b  the bounds ({@code null} permitted).
+     * @param result  an array to hold the result (first column, first row,
+     *     last column, last row).
+     *
+     * @return A boolean indicating whether or not the bounds should be
+     *     stored in the grid.
+     */
+    private boolean findCellRange(Rectangle2D b, int[] result) {
+        if (b == null) {
+            return false;
+        }
+        result[0] = cellColumn(b.getMinX());
+        result[1] = cellRow(b.getMinY());
+        result[2] = cellColumn(b.getMaxX());
+        result[3] = cellRow(b.getMaxY());
+        long cells = (long) (result[2] - result[0] + 1)
+                * (result[3] - result[1] + 1);
+        return cells <= MAX_CELLS_PER_ENTITY;
+    }
+
+    /**
+     * Returns the grid column for an x-coordinate within the grid bounds.
+     *
+     * @param x  the x-coordinate.
+     *
+     * @return The column index.
+     */
+    private int cellColumn(double x) {
+        int c = (int) Math.floor((x - this.gridX) / this.cellWidth);
+        return Math.max(0, Math.min(c, this.columns - 1));
+    }
+
+    /**
+     * Returns the grid row for a y-coordinate within the grid bounds.
+     *
+     * @param y  the y-coordinate.
+     *
+     * @return The row index.
+     */
+    private int cellRow(double y) {
+        int r = (int) Math.floor((y - this.gridY) / this.cellHeight);
+        return Math.max(0, Math.min(r, this.rows - 1));
+    }
+
+    /**
+     * Returns {@code true} if all the coordinates of the rectangle are
+     * finite.
+     *
+     * @param b  the rectangle.
+     *
+     * @return A boolean.
+     */
+    private static boolean isFinite(Rectangle2D b) {
+        double sum = b.getX() + b.getY() + b.getWidth() + b.getHeight();
+        return !Double.isNaN(sum) && !Double.isInfinite(sum);
+    }
+
+    /**
+     * Returns a clone of this entity collection.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if the object cannot be cloned.
+     */
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        IndexedEntityCollection clone
+                = (IndexedEntityCollection) super.clone();
+        clone.cellStarts = null;
+        return clone;
+    }
+
+}
@@ -63,6 +63,15 @@ public final class ChartChangeEventType implements Serializable {
     public static final ChartChangeEventType DATASET_UPDATED
             = new ChartChangeEventType("ChartChangeEventType.DATASET_UPDATED");
 
+    /** 
+     * OVERLAY_UPDATED (a change that only affects the overlay layer of the
+     * chart, such as a new crosshair value).
+     * 
+     * @since 1.5
+     */
+    public static final ChartChangeEventType OVERLAY_UPDATED
+            = new ChartChangeEventType("ChartChangeEventType.OVERLAY_UPDATED");
+
     /** The name. */
     private String name;
 
@@ -135,6 +144,9 @@ public final class ChartChangeEventType implements Serializable {
         else if (this.equals(ChartChangeEventType.DATASET_UPDATED)) {
             return ChartChangeEventType.DATASET_UPDATED;
         }
+        else if (this.equals(ChartChangeEventType.OVERLAY_UPDATED)) {
+            return ChartChangeEventType.OVERLAY_UPDATED;
+        }
         return null;
     }
 
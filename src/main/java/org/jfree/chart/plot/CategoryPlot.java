@@ -217,8 +217,11 @@ import java.util.Map.Entry;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.TreeMap;
+import org.jfree.chart.ChartHints;
+import org.jfree.chart.ChartLayer;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.LegendItemCollection;
+import org.jfree.chart.RenderControl;
 import org.jfree.chart.annotations.Annotation;
 import org.jfree.chart.annotations.CategoryAnnotation;
 import org.jfree.chart.axis.Axis;
@@ -1311,6 +1314,19 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
         return this.datasets.get(index);
     }
 
+    /**
+     * Returns a map containing the datasets for the plot, keyed by dataset
+     * index.  The map is a copy, so changes to it do not affect the plot.
+     *
+     * @return The datasets (never {@code null}).
+     *
+     * @see #getDataset(int)
+     * @since 1.5
+     */
+    public Map<Integer, CategoryDataset> getDatasets() {
+        return new HashMap<Integer, CategoryDataset>(this.datasets);
+    }
+
     /**
      * Sets the dataset for the plot, replacing the existing dataset, if there
      * is one.  This method also calls the
@@ -1536,6 +1552,17 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
         return this.renderers.size();
     }
 
+    /**
+     * Returns the renderers for this plot (used to check whether subplots 
+     * that are drawn in parallel share a renderer).
+     *
+     * @return The renderers (the collection can contain {@code null} 
+     *     items).
+     */
+    Collection<CategoryItemRenderer> getRendererCollection() {
+        return Collections.unmodifiableCollection(this.renderers.values());
+    }
+
     /**
      * Returns a reference to the renderer for the plot.
      *
@@ -3517,17 +3544,42 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
             return;
         }
         state.setDataArea(dataArea);
-        createAndAddEntity((Rectangle2D) dataArea.clone(), state, null, null);
 
-        // if there is a renderer, it draws the background, otherwise use the
-        // default background...
-        if (getRenderer() != null) {
-            getRenderer().drawBackground(g2, this, dataArea);
-        } else {
-            drawBackground(g2, dataArea);
+        // find the layers to draw (see ChartHints.KEY_LAYERS)...
+        Object layers = g2.getRenderingHint(ChartHints.KEY_LAYERS);
+        boolean background = ChartLayer.BACKGROUND.isDrawn(layers);
+        boolean data = ChartLayer.DATA.isDrawn(layers);
+        boolean foreground = ChartLayer.FOREGROUND.isDrawn(layers);
+        boolean overlay = ChartLayer.OVERLAY.isDrawn(layers);
+
+        if (background) {
+            createAndAddEntity((Rectangle2D) dataArea.clone(), state, null, 
+                    null);
+            // if there is a renderer, it draws the background, otherwise use
+            // the default background...
+            if (getRenderer() != null) {
+                getRenderer().drawBackground(g2, this, dataArea);
+            } else {
+                drawBackground(g2, dataArea);
+            }
         }
 
-        Map axisStateMap = drawAxes(g2, area, dataArea, state);
+        Map axisStateMap;
+        if (ChartLayer.AXES.isDrawn(layers)) {
+            axisStateMap = drawAxes(g2, area, dataArea, state);
+        }
+        else if (background) {
+            // the gridlines need the ticks, so lay out the axes without 
+            // drawing them
+            Graphics2D axisG2 = (Graphics2D) g2.create();
+            axisG2.clip(new Rectangle());
+            axisStateMap = drawAxes(axisG2, area, dataArea, 
+                    new PlotRenderingInfo(null));
+            axisG2.dispose();
+        }
+        else {
+            axisStateMap = new HashMap();
+        }
 
         // the anchor point is typically the point where the mouse last
         // clicked - the crosshairs will be driven off this point...
@@ -3567,7 +3619,9 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
         Shape savedClip = g2.getClip();
         g2.clip(dataArea);
 
-        drawDomainGridlines(g2, dataArea);
+        if (background) {
+            drawDomainGridlines(g2, dataArea);
+        }
 
         AxisState rangeAxisState = (AxisState) axisStateMap.get(getRangeAxis());
         if (rangeAxisState == null) {
@@ -3576,7 +3630,7 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
                         .get(getRangeAxis());
             }
         }
-        if (rangeAxisState != null) {
+        if (rangeAxisState != null && background) {
             drawRangeGridlines(g2, dataArea, rangeAxisState.getTicks());
             drawZeroRangeBaseline(g2, dataArea);
         }
@@ -3584,7 +3638,7 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
         Graphics2D savedG2 = g2;
         BufferedImage dataImage = null;
         boolean suppressShadow = Boolean.TRUE.equals(g2.getRenderingHint(
-                JFreeChart.KEY_SUPPRESS_SHADOW_GENERATION));
+                JFreeChart.KEY_SUPPRESS_SHADOW_GENERATION)) || !data;
         if (this.shadowGenerator != null && !suppressShadow) {
             dataImage = new BufferedImage((int) dataArea.getWidth(),
                     (int)dataArea.getHeight(), BufferedImage.TYPE_INT_ARGB);
@@ -3594,13 +3648,15 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
         }
 
         // draw the markers...
-        for (CategoryItemRenderer renderer : this.renderers.values()) {
-            int i = getIndexOf(renderer);
-            drawDomainMarkers(g2, dataArea, i, Layer.BACKGROUND);
-        }
-        for (CategoryItemRenderer renderer : this.renderers.values()) {
-            int i = getIndexOf(renderer);
-            drawRangeMarkers(g2, dataArea, i, Layer.BACKGROUND);
+        if (background) {
+            for (CategoryItemRenderer renderer : this.renderers.values()) {
+                int i = getIndexOf(renderer);
+                drawDomainMarkers(g2, dataArea, i, Layer.BACKGROUND);
+            }
+            for (CategoryItemRenderer renderer : this.renderers.values()) {
+                int i = getIndexOf(renderer);
+                drawRangeMarkers(g2, dataArea, i, Layer.BACKGROUND);
+            }
         }
 
         // now render data items...
@@ -3612,23 +3668,27 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
                 AlphaComposite.SRC_OVER, getForegroundAlpha()));
 
         DatasetRenderingOrder order = getDatasetRenderingOrder();
-        List<Integer> datasetIndices = getDatasetIndices(order);
-        for (int i : datasetIndices) {
-            foundData = render(g2, dataArea, i, state, crosshairState)
-                    || foundData;
+        if (data) {
+            List<Integer> datasetIndices = getDatasetIndices(order);
+            for (int i : datasetIndices) {
+                foundData = render(g2, dataArea, i, state, crosshairState)
+                        || foundData;
+            }
         }
 
-        // draw the foreground markers...
-        List<Integer> rendererIndices = getRendererIndices(order);
-        for (int i : rendererIndices) {
-            drawDomainMarkers(g2, dataArea, i, Layer.FOREGROUND);
-        }
-        for (int i : rendererIndices) {
-            drawRangeMarkers(g2, dataArea, i, Layer.FOREGROUND);
-        }
+        if (foreground) {
+            // draw the foreground markers...
+            List<Integer> rendererIndices = getRendererIndices(order);
+            for (int i : rendererIndices) {
+                drawDomainMarkers(g2, dataArea, i, Layer.FOREGROUND);
+            }
+            for (int i : rendererIndices) {
+                drawRangeMarkers(g2, dataArea, i, Layer.FOREGROUND);
+            }
 
-        // draw the annotations (if any)...
-        drawAnnotations(g2, dataArea);
+            // draw the annotations (if any)...
+            drawAnnotations(g2, dataArea);
+        }
 
         if (this.shadowGenerator != null && !suppressShadow) {
             BufferedImage shadowImage = this.shadowGenerator.createDropShadow(
@@ -3644,7 +3704,7 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
         g2.setClip(savedClip);
         g2.setComposite(originalComposite);
 
-        if (!foundData) {
+        if (!foundData && data) {
             drawNoDataMessage(g2, dataArea);
         }
 
@@ -3656,7 +3716,7 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
         Comparable columnKey = crosshairState.getColumnKey();
         setDomainCrosshairRowKey(rowKey, false);
         setDomainCrosshairColumnKey(columnKey, false);
-        if (isDomainCrosshairVisible() && columnKey != null) {
+        if (isDomainCrosshairVisible() && columnKey != null && overlay) {
             Paint paint = getDomainCrosshairPaint();
             Stroke stroke = getDomainCrosshairStroke();
             drawDomainCrosshair(g2, dataArea, this.orientation,
@@ -3677,7 +3737,7 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
             crosshairState.setCrosshairY(yy);
         }
         setRangeCrosshairValue(crosshairState.getCrosshairY(), false);
-        if (isRangeCrosshairVisible()) {
+        if (isRangeCrosshairVisible() && overlay) {
             double y = getRangeCrosshairValue();
             Paint paint = getRangeCrosshairPaint();
             Stroke stroke = getRangeCrosshairStroke();
@@ -3686,7 +3746,7 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
         }
 
         // draw an outline around the plot area...
-        if (isOutlineVisible()) {
+        if (isOutlineVisible() && foreground) {
             if (getRenderer() != null) {
                 getRenderer().drawOutline(g2, this, dataArea);
             }
@@ -3879,6 +3939,7 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
         if (hasData && renderer != null) {
 
             foundData = true;
+            RenderControl control = RenderControl.getRenderControl(g2);
             CategoryItemRendererState state = renderer.initialise(g2, dataArea,
                     this, index, info);
             state.setCrosshairState(crosshairState);
@@ -3888,6 +3949,9 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
             for (int pass = 0; pass < passCount; pass++) {
                 if (this.columnRenderingOrder == SortOrder.ASCENDING) {
                     for (int column = 0; column < columnCount; column++) {
+                        if (control != null && control.isCancelled()) {
+                            return foundData;
+                        }
                         if (this.rowRenderingOrder == SortOrder.ASCENDING) {
                             for (int row = 0; row < rowCount; row++) {
                                 renderer.drawItem(g2, state, dataArea, this,
@@ -3906,6 +3970,9 @@ public class CategoryPlot extends Plot implements ValueAxisPlot, Pannable,
                 }
                 else {
                     for (int column = columnCount - 1; column >= 0; column--) {
+                        if (control != null && control.isCancelled()) {
+                            return foundData;
+                        }
                         if (this.rowRenderingOrder == SortOrder.ASCENDING) {
                             for (int row = 0; row < rowCount; row++) {
                                 renderer.drawItem(g2, state, dataArea, this,
@@ -102,12 +102,16 @@
 package org.jfree.chart.plot;
 
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+import org.jfree.chart.ChartHints;
+import org.jfree.chart.ChartLayer;
 import org.jfree.chart.LegendItemCollection;
 import org.jfree.chart.axis.AxisSpace;
 import org.jfree.chart.axis.AxisState;
@@ -141,6 +145,9 @@ public class CombinedDomainXYPlot extends XYPlot
     /** The gap between subplots. */
     private double gap = 5.0;
 
+    /** A flag that controls whether the subplots are drawn in parallel. */
+    private boolean parallelRendering;
+
     /** Temporary storage for the subplot areas. */
     private transient Rectangle2D[] subplotAreas;
     // TODO:  the subplot areas needs to be moved out of the plot into the plot
@@ -201,6 +208,43 @@ public class CombinedDomainXYPlot extends XYPlot
         fireChangeEvent();
     }
 
+    /**
+     * Returns the flag that controls whether or not the subplots are drawn
+     * in parallel.  The default value is {@code false}.
+     *
+     * @return A boolean.
+     *
+     * @see #setParallelRendering(boolean)
+     * @since 1.5
+     */
+    public boolean isParallelRendering() {
+        return this.parallelRendering;
+    }
+
+    /**
+     * Sets the flag that controls whether or not the subplots are drawn in
+     * parallel, and sends a {@link PlotChangeEvent} to all registered 
+     * listeners.  When this is enabled, the subplots are laid out and the 
+     * shared axis is drawn as usual, then each subplot is drawn into its own
+     * image on a pool of threads and the images are drawn onto the target in
+     * order.  This only applies to raster targets (the screen or an image)
+     * without a scaling transform.  The subplots are always drawn one after 
+     * another for vector targets (SVG, PDF or a printer), and when two 
+     * subplots share a renderer.
+     * <P>
+     * Because the subplots are drawn at the same time, their datasets must
+     * not be updated while the plot is drawn.
+     *
+     * @param parallel  the new flag value.
+     *
+     * @see #isParallelRendering()
+     * @since 1.5
+     */
+    public void setParallelRendering(boolean parallel) {
+        this.parallelRendering = parallel;
+        fireChangeEvent();
+    }
+
     /**
      * Returns {@code true} if the range is pannable for at least one subplot,
      * and {@code false} otherwise.
@@ -489,22 +533,43 @@ public class CombinedDomainXYPlot extends XYPlot
         ValueAxis axis = getDomainAxis();
         RectangleEdge edge = getDomainAxisEdge();
         double cursor = RectangleEdge.coordinate(dataArea, edge);
-        AxisState axisState = axis.draw(g2, cursor, area, dataArea, edge, info);
+        AxisState axisState;
+        if (ChartLayer.AXES.isDrawn(g2.getRenderingHint(
+                ChartHints.KEY_LAYERS))) {
+            axisState = axis.draw(g2, cursor, area, dataArea, edge, info);
+        }
+        else {
+            // the subplots need the ticks, so lay out the axis without
+            // drawing it
+            Graphics2D axisG2 = (Graphics2D) g2.create();
+            axisG2.clip(new Rectangle());
+            axisState = axis.draw(axisG2, cursor, area, dataArea, edge, null);
+            axisG2.dispose();
+        }
         if (parentState == null) {
             parentState = new PlotState();
         }
         parentState.getSharedAxisStates().put(axis, axisState);
 
         // draw all the subplots
-        for (int i = 0; i < this.subplots.size(); i++) {
-            XYPlot plot = (XYPlot) this.subplots.get(i);
-            PlotRenderingInfo subplotInfo = null;
-            if (info != null) {
-                subplotInfo = new PlotRenderingInfo(info.getOwner());
-                info.addSubplotInfo(subplotInfo);
+        if (this.parallelRendering && this.subplots.size() > 1 
+                && ParallelSubplotRenderer.isSupported(g2)) {
+            Point2D[] anchors = new Point2D[this.subplots.size()];
+            Arrays.fill(anchors, anchor);
+            ParallelSubplotRenderer.drawSubplots(g2, this.subplots, 
+                    this.subplotAreas, anchors, parentState, info);
+        }
+        else {
+            for (int i = 0; i < this.subplots.size(); i++) {
+                XYPlot plot = (XYPlot) this.subplots.get(i);
+                PlotRenderingInfo subplotInfo = null;
+                if (info != null) {
+                    subplotInfo = new PlotRenderingInfo(info.getOwner());
+                    info.addSubplotInfo(subplotInfo);
+                }
+                plot.draw(g2, this.subplotAreas[i], anchor, parentState,
+                        subplotInfo);
             }
-            plot.draw(g2, this.subplotAreas[i], anchor, parentState,
-                    subplotInfo);
         }
 
         if (info != null) {
@@ -765,6 +830,9 @@ public class CombinedDomainXYPlot extends XYPlot
         if (this.gap != that.gap) {
             return false;
         }
+        if (this.parallelRendering != that.parallelRendering) {
+            return false;
+        }
         if (!ObjectUtils.equal(this.subplots, that.subplots)) {
             return false;
         }
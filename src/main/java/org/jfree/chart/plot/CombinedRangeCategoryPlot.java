@@ -63,6 +63,7 @@
 package org.jfree.chart.plot;
 
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.io.IOException;
@@ -71,6 +72,8 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+import org.jfree.chart.ChartHints;
+import org.jfree.chart.ChartLayer;
 import org.jfree.chart.LegendItemCollection;
 import org.jfree.chart.axis.AxisSpace;
 import org.jfree.chart.axis.AxisState;
@@ -95,11 +98,14 @@ public class CombinedRangeCategoryPlot extends CategoryPlot
     private static final long serialVersionUID = 7260210007554504515L;
 
     /** Storage for the subplot references. */
-    private List subplots;
+    private List<CategoryPlot> subplots;
 
     /** The gap between subplots. */
     private double gap;
 
+    /** A flag that controls whether the subplots are drawn in parallel. */
+    private boolean parallelRendering;
+
     /** Temporary storage for the subplot areas. */
     private transient Rectangle2D[] subplotArea;  // TODO: move to plot state
 
@@ -117,7 +123,7 @@ public class CombinedRangeCategoryPlot extends CategoryPlot
      */
     public CombinedRangeCategoryPlot(ValueAxis rangeAxis) {
         super(null, null, rangeAxis, null);
-        this.subplots = new java.util.ArrayList();
+        this.subplots = new java.util.ArrayList<CategoryPlot>();
         this.gap = 5.0;
     }
 
@@ -141,6 +147,36 @@ public class CombinedRangeCategoryPlot extends CategoryPlot
         fireChangeEvent();
     }
 
+    /**
+     * Returns the flag that controls whether or not the subplots are drawn
+     * in parallel.  The default value is {@code false}.
+     *
+     * @return A boolean.
+     *
+     * @see #setParallelRendering(boolean)
+     * @since 1.5
+     */
+    public boolean isParallelRendering() {
+        return this.parallelRendering;
+    }
+
+    /**
+     * Sets the flag that controls whether or not the subplots are drawn in
+     * parallel, and sends a {@link PlotChangeEvent} to all registered 
+     * listeners.  See 
+     * {@link CombinedDomainXYPlot#setParallelRendering(boolean)} for 
+     * details.
+     *
+     * @param parallel  the new flag value.
+     *
+     * @see #isParallelRendering()
+     * @since 1.5
+     */
+    public void setParallelRendering(boolean parallel) {
+        this.parallelRendering = parallel;
+        fireChangeEvent();
+    }
+
     /**
      * Adds a subplot (with a default 'weight' of 1) and sends a
      * {@link PlotChangeEvent} to all registered listeners.
@@ -357,27 +393,51 @@ public class CombinedRangeCategoryPlot extends CategoryPlot
         ValueAxis axis = getRangeAxis();
         RectangleEdge rangeEdge = getRangeAxisEdge();
         double cursor = RectangleEdge.coordinate(dataArea, rangeEdge);
-        AxisState state = axis.draw(g2, cursor, area, dataArea, rangeEdge,
-                info);
+        AxisState state;
+        if (ChartLayer.AXES.isDrawn(g2.getRenderingHint(
+                ChartHints.KEY_LAYERS))) {
+            state = axis.draw(g2, cursor, area, dataArea, rangeEdge, info);
+        }
+        else {
+            // the subplots need the ticks, so lay out the axis without
+            // drawing it
+            Graphics2D axisG2 = (Graphics2D) g2.create();
+            axisG2.clip(new Rectangle());
+            state = axis.draw(axisG2, cursor, area, dataArea, rangeEdge, null);
+            axisG2.dispose();
+        }
         if (parentState == null) {
             parentState = new PlotState();
         }
         parentState.getSharedAxisStates().put(axis, state);
 
         // draw all the charts
-        for (int i = 0; i < this.subplots.size(); i++) {
-            CategoryPlot plot = (CategoryPlot) this.subplots.get(i);
-            PlotRenderingInfo subplotInfo = null;
-            if (info != null) {
-                subplotInfo = new PlotRenderingInfo(info.getOwner());
-                info.addSubplotInfo(subplotInfo);
+        if (this.parallelRendering && this.subplots.size() > 1 
+                && ParallelSubplotRenderer.isSupported(g2)) {
+            Point2D[] anchors = new Point2D[this.subplots.size()];
+            for (int i = 0; i < anchors.length; i++) {
+                if (anchor != null && this.subplotArea[i].contains(anchor)) {
+                    anchors[i] = anchor;
+                }
             }
-            Point2D subAnchor = null;
-            if (anchor != null && this.subplotArea[i].contains(anchor)) {
-                subAnchor = anchor;
+            ParallelSubplotRenderer.drawSubplots(g2, this.subplots, 
+                    this.subplotArea, anchors, parentState, info);
+        }
+        else {
+            for (int i = 0; i < this.subplots.size(); i++) {
+                CategoryPlot plot = (CategoryPlot) this.subplots.get(i);
+                PlotRenderingInfo subplotInfo = null;
+                if (info != null) {
+                    subplotInfo = new PlotRenderingInfo(info.getOwner());
+                    info.addSubplotInfo(subplotInfo);
+                }
+                Point2D subAnchor = null;
+                if (anchor != null && this.subplotArea[i].contains(anchor)) {
+                    subAnchor = anchor;
+                }
+                plot.draw(g2, this.subplotArea[i], subAnchor, parentState,
+                        subplotInfo);
             }
-            plot.draw(g2, this.subplotArea[i], subAnchor, parentState,
-                    subplotInfo);
         }
 
         if (info != null) {
@@ -531,6 +591,9 @@ public class CombinedRangeCategoryPlot extends CategoryPlot
         if (this.gap != that.gap) {
             return false;
         }
+        if (this.parallelRendering != that.parallelRendering) {
+            return false;
+        }
         if (!ObjectUtils.equal(this.subplots, that.subplots)) {
             return false;
         }
@@ -549,10 +612,11 @@ public class CombinedRangeCategoryPlot extends CategoryPlot
     public Object clone() throws CloneNotSupportedException {
         CombinedRangeCategoryPlot result
             = (CombinedRangeCategoryPlot) super.clone();
-        result.subplots = (List) ObjectUtils.deepClone(this.subplots);
-        for (Iterator it = result.subplots.iterator(); it.hasNext();) {
-            Plot child = (Plot) it.next();
+        result.subplots = new java.util.ArrayList<CategoryPlot>();
+        for (CategoryPlot subplot : this.subplots) {
+            CategoryPlot child = (CategoryPlot) subplot.clone();
             child.setParent(result);
+            result.subplots.add(child);
         }
 
         // after setting up all the subplots, the shared range axis may need
@@ -102,12 +102,16 @@
 package org.jfree.chart.plot;
 
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+import org.jfree.chart.ChartHints;
+import org.jfree.chart.ChartLayer;
 import org.jfree.chart.LegendItemCollection;
 import org.jfree.chart.axis.AxisSpace;
 import org.jfree.chart.axis.AxisState;
@@ -139,6 +143,9 @@ public class CombinedRangeXYPlot extends XYPlot
     /** The gap between subplots. */
     private double gap = 5.0;
 
+    /** A flag that controls whether the subplots are drawn in parallel. */
+    private boolean parallelRendering;
+
     /** Temporary storage for the subplot areas. */
     private transient Rectangle2D[] subplotAreas;
 
@@ -193,6 +200,36 @@ public class CombinedRangeXYPlot extends XYPlot
     public void setGap(double gap) {
         this.gap = gap;
     }
+
+    /**
+     * Returns the flag that controls whether or not the subplots are drawn
+     * in parallel.  The default value is {@code false}.
+     *
+     * @return A boolean.
+     *
+     * @see #setParallelRendering(boolean)
+     * @since 1.5
+     */
+    public boolean isParallelRendering() {
+        return this.parallelRendering;
+    }
+
+    /**
+     * Sets the flag that controls whether or not the subplots are drawn in
+     * parallel, and sends a {@link PlotChangeEvent} to all registered 
+     * listeners.  See 
+     * {@link CombinedDomainXYPlot#setParallelRendering(boolean)} for 
+     * details.
+     *
+     * @param parallel  the new flag value.
+     *
+     * @see #isParallelRendering()
+     * @since 1.5
+     */
+    public void setParallelRendering(boolean parallel) {
+        this.parallelRendering = parallel;
+        fireChangeEvent();
+    }
     
     /**
      * Returns {@code true} if the domain is pannable for at least one subplot,
@@ -427,7 +464,19 @@ public class CombinedRangeXYPlot extends XYPlot
         ValueAxis axis = getRangeAxis();
         RectangleEdge edge = getRangeAxisEdge();
         double cursor = RectangleEdge.coordinate(dataArea, edge);
-        AxisState axisState = axis.draw(g2, cursor, area, dataArea, edge, info);
+        AxisState axisState;
+        if (ChartLayer.AXES.isDrawn(g2.getRenderingHint(
+                ChartHints.KEY_LAYERS))) {
+            axisState = axis.draw(g2, cursor, area, dataArea, edge, info);
+        }
+        else {
+            // the subplots need the ticks, so lay out the axis without
+            // drawing it
+            Graphics2D axisG2 = (Graphics2D) g2.create();
+            axisG2.clip(new Rectangle());
+            axisState = axis.draw(axisG2, cursor, area, dataArea, edge, null);
+            axisG2.dispose();
+        }
 
         if (parentState == null) {
             parentState = new PlotState();
@@ -435,15 +484,24 @@ public class CombinedRangeXYPlot extends XYPlot
         parentState.getSharedAxisStates().put(axis, axisState);
 
         // draw all the charts
-        for (int i = 0; i < this.subplots.size(); i++) {
-            XYPlot plot = (XYPlot) this.subplots.get(i);
-            PlotRenderingInfo subplotInfo = null;
-            if (info != null) {
-                subplotInfo = new PlotRenderingInfo(info.getOwner());
-                info.addSubplotInfo(subplotInfo);
+        if (this.parallelRendering && this.subplots.size() > 1 
+                && ParallelSubplotRenderer.isSupported(g2)) {
+            Point2D[] anchors = new Point2D[this.subplots.size()];
+            Arrays.fill(anchors, anchor);
+            ParallelSubplotRenderer.drawSubplots(g2, this.subplots, 
+                    this.subplotAreas, anchors, parentState, info);
+        }
+        else {
+            for (int i = 0; i < this.subplots.size(); i++) {
+                XYPlot plot = (XYPlot) this.subplots.get(i);
+                PlotRenderingInfo subplotInfo = null;
+                if (info != null) {
+                    subplotInfo = new PlotRenderingInfo(info.getOwner());
+                    info.addSubplotInfo(subplotInfo);
+                }
+                plot.draw(g2, this.subplotAreas[i], anchor, parentState,
+                        subplotInfo);
             }
-            plot.draw(g2, this.subplotAreas[i], anchor, parentState,
-                    subplotInfo);
         }
 
         if (info != null) {
@@ -740,6 +798,9 @@ public class CombinedRangeXYPlot extends XYPlot
         if (this.gap != that.gap) {
             return false;
         }
+        if (this.parallelRendering != that.parallelRendering) {
+            return false;
+        }
         if (!ObjectUtils.equal(this.subplots, that.subplots)) {
             return false;
         }
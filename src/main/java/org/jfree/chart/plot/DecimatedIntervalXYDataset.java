@@ -0,0 +1,177 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -------------------------------
+ * DecimatedIntervalXYDataset.java
+ * -------------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.plot;
+
+import java.awt.geom.Rectangle2D;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.ui.RectangleEdge;
+import org.jfree.data.xy.IntervalXYDataset;
+
+/**
+ * A {@link DecimatedXYDataset} for an {@link IntervalXYDataset}, so that
+ * renderers that draw the x- and y-intervals (such as
+ * {@link org.jfree.chart.renderer.xy.XYBarRenderer} and
+ * {@link org.jfree.chart.renderer.xy.DeviationRenderer}) can be passed the
+ * decimated view.
+ */
+final class DecimatedIntervalXYDataset extends DecimatedXYDataset
+        implements IntervalXYDataset {
+
+    /** The underlying dataset. */
+    private IntervalXYDataset dataset;
+
+    /**
+     * Creates a new view.
+     *
+     * @param dataset  the underlying dataset.
+     * @param decimator  the decimator.
+     * @param domainAxis  the domain axis.
+     * @param dataArea  the data area.
+     * @param domainEdge  the domain axis edge.
+     */
+    DecimatedIntervalXYDataset(IntervalXYDataset dataset,
+            XYDecimator decimator, ValueAxis domainAxis,
+            Rectangle2D dataArea, RectangleEdge domainEdge) {
+        super(dataset, decimator, domainAxis, dataArea, domainEdge);
+        this.dataset = dataset;
+    }
+
+    /**
+     * Returns the start x-value for an item.
+     *
+     * @param series  the series index.
+     * @param item  the item index (in the view).
+     *
+     * @return The start x-value.
+     */
+    @Override
+    public Number getStartX(int series, int item) {
+        return this.dataset.getStartX(series, getItems(series)[item]);
+    }
+
+    /**
+     * Returns the start x-value for an item.
+     *
+     * @param series  the series index.
+     * @param item  the item index (in the view).
+     *
+     * @return The start x-value.
+     */
+    @Override
+    public double getStartXValue(int series, int item) {
+        return this.dataset.getStartXValue(series, getItems(series)[item]);
+    }
+
+    /**
+     * Returns the end x-value for an item.
+     *
+     * @param series  the series index.
+     * @param item  the item index (in the view).
+     *
+     * @return The end x-value.
+     */
+    @Override
+    public Number getEndX(int series, int item) {
+        return this.dataset.getEndX(series, getItems(series)[item]);
+    }
+
+    /**
+     * Returns the end x-value for an item.
+     *
+     * @param series  the series index.
+     * @param item  the item index (in the view).
+     *
+     * @return The end x-value.
+     */
+    @Override
+    public double getEndXValue(int series, int item) {
+        return this.dataset.getEndXValue(series, getItems(series)[item]);
+    }
+
+    /**
+     * Returns the start y-value for an item.
+     *
+     * @param series  the series index.
+     * @param item  the item index (in the view).
+     *
+     * @return The start y-value.
+     */
+    @Override
+    public Number getStartY(int series, int item) {
+        return this.dataset.getStartY(series, getItems(series)[item]);
+    }
+
+    /**
+     * Returns the start y-value for an item.
+     *
+     * @param series  the series index.
+     * @param item  the item index (in the view).
+     *
+     * @return The start y-value.
+     */
+    @Override
+    public double getStartYValue(int series, int item) {
+        return this.dataset.getStartYValue(series, getItems(series)[item]);
+    }
+
+    /**
+     * Returns the end y-value for an item.
+     *
+     * @param series  the series index.
+     * @param item  the item index (in the view).
+     *
+     * @return The end y-value.
+     */
+    @Override
+    public Number getEndY(int series, int item) {
+        return this.dataset.getEndY(series, getItems(series)[item]);
+    }
+
+    /**
+     * Returns the end y-value for an item.
+     *
+     * @param series  the series index.
+     * @param item  the item index (in the view).
+     *
+     * @return The end y-value.
+     */
+    @Override
+    public double getEndYValue(int series, int item) {
+        return this.dataset.getEndYValue(series, getItems(series)[item]);
+    }
+
+}
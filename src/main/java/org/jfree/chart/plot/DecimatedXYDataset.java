@@ -0,0 +1,318 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -----------------------
+ * DecimatedXYDataset.java
+ * -----------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.plot;
+
+import java.awt.geom.Rectangle2D;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.entity.ChartEntity;
+import org.jfree.chart.entity.EntityCollection;
+import org.jfree.chart.entity.XYItemEntity;
+import org.jfree.chart.renderer.RendererUtils;
+import org.jfree.chart.ui.RectangleEdge;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.IntervalXYDataset;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYDatasetView;
+
+/**
+ * A read-only view of an {@link XYDataset} that contains only the items
+ * selected by an {@link XYDecimator}.  The items for each series are
+ * selected the first time the series is accessed, and the view remains
+ * valid (and is reused by the {@link XYPlot}) until the underlying dataset
+ * changes or the domain axis is changed (range or length in pixels).
+ * Use {@link #create(XYDataset, XYDecimator, ValueAxis, Rectangle2D,
+ * RectangleEdge)} to obtain a view that also implements
+ * {@link IntervalXYDataset} when the underlying dataset does.
+ */
+class DecimatedXYDataset extends AbstractXYDataset implements XYDatasetView {
+
+    /** The underlying dataset. */
+    private XYDataset dataset;
+
+    /** The decimator. */
+    private XYDecimator decimator;
+
+    /** The domain axis. */
+    private ValueAxis domainAxis;
+
+    /** The lower bound of the domain axis when the view was created. */
+    private double lowerBound;
+
+    /** The upper bound of the domain axis when the view was created. */
+    private double upperBound;
+
+    /** The data area. */
+    private Rectangle2D dataArea;
+
+    /** The domain axis edge. */
+    private RectangleEdge domainEdge;
+
+    /** The selected item indices for each series (created on demand). */
+    private int[][] items;
+
+    /**
+     * Creates a new view.
+     *
+     * @param dataset  the underlying dataset.
+     * @param decimator  the decimator.
+     * @param domainAxis  the domain axis.
+     * @param dataArea  the data area.
+     * @param domainEdge  the domain axis edge.
+     */
+    DecimatedXYDataset(XYDataset dataset, XYDecimator decimator,
+            ValueAxis domainAxis, Rectangle2D dataArea,
+            RectangleEdge domainEdge) {
+        this.dataset = dataset;
+        this.decimator = decimator;
+        this.domainAxis = domainAxis;
+        this.lowerBound = domainAxis.getLowerBound();
+        this.upperBound = domainAxis.getUpperBound();
+        this.dataArea = (Rectangle2D) dataArea.clone();
+        this.domainEdge = domainEdge;
+        this.items = new int[dataset.getSeriesCount()][];
+    }
+
+    /**
+     * Creates a new view of a dataset, implementing
+     * {@link IntervalXYDataset} if the dataset does.
+     *
+     * @param dataset  the underlying dataset.
+     * @param decimator  the decimator.
+     * @param domainAxis  the domain axis.
+     * @param dataArea  the data area.
+     * @param domainEdge  the domain axis edge.
+     *
+     * @return The view.
+     */
+    static DecimatedXYDataset create(XYDataset dataset,
+            XYDecimator decimator, ValueAxis domainAxis,
+            Rectangle2D dataArea, RectangleEdge domainEdge) {
+        if (dataset instanceof IntervalXYDataset) {
+            return new DecimatedIntervalXYDataset((IntervalXYDataset) dataset,
+                    decimator, domainAxis, dataArea, domainEdge);
+        }
+        return new DecimatedXYDataset(dataset, decimator, domainAxis,
+                dataArea, domainEdge);
+    }
+
+    /**
+     * Returns the underlying dataset.
+     *
+     * @return The underlying dataset.
+     */
+    @Override
+    public XYDataset getSourceDataset() {
+        return this.dataset;
+    }
+
+    /**
+     * Returns {@code true} if this view can be reused for the specified
+     * arguments, and {@code false} otherwise.
+     *
+     * @param dataset  the underlying dataset.
+     * @param decimator  the decimator.
+     * @param domainAxis  the domain axis.
+     * @param dataArea  the data area.
+     * @param domainEdge  the domain axis edge.
+     *
+     * @return A boolean.
+     */
+    boolean isValidFor(XYDataset dataset, XYDecimator decimator,
+            ValueAxis domainAxis, Rectangle2D dataArea,
+            RectangleEdge domainEdge) {
+        if (this.dataset != dataset || this.decimator != decimator
+                || this.domainAxis != domainAxis
+                || this.domainEdge != domainEdge) {
+            return false;
+        }
+        if (this.lowerBound != domainAxis.getLowerBound()
+                || this.upperBound != domainAxis.getUpperBound()) {
+            return false;
+        }
+        if (RectangleEdge.isTopOrBottom(domainEdge)) {
+            return this.dataArea.getMinX() == dataArea.getMinX()
+                    && this.dataArea.getWidth() == dataArea.getWidth();
+        }
+        return this.dataArea.getMinY() == dataArea.getMinY()
+                && this.dataArea.getHeight() == dataArea.getHeight();
+    }
+
+    /**
+     * Returns the selected item indices for a series.
+     *
+     * @param series  the series index.
+     *
+     * @return The item indices.
+     */
+    int[] getItems(int series) {
+        int[] result = this.items[series];
+        if (result == null) {
+            int firstItem = 0;
+            int lastItem = this.dataset.getItemCount(series) - 1;
+            if (lastItem >= 0 && this.lowerBound < this.upperBound) {
+                // only the visible items (plus one either side) are needed
+                int[] bounds = RendererUtils.findLiveItems(this.dataset,
+                        series, this.lowerBound, this.upperBound);
+                firstItem = Math.max(bounds[0] - 1, 0);
+                lastItem = Math.min(bounds[1] + 1, lastItem);
+            }
+            result = this.decimator.decimate(this.dataset, series, firstItem,
+                    lastItem, this.domainAxis, this.dataArea,
+                    this.domainEdge);
+            this.items[series] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Updates the item entities that were recorded for this view so that
+     * they refer to the underlying dataset and its item indices.
+     *
+     * @param entities  the entity collection ({@code null} not permitted).
+     * @param first  the index of the first entity to check.
+     */
+    void mapEntities(EntityCollection entities, int first) {
+        for (int i = first; i < entities.getEntityCount(); i++) {
+            ChartEntity entity = entities.getEntity(i);
+            if (entity instanceof XYItemEntity) {
+                XYItemEntity e = (XYItemEntity) entity;
+                if (e.getDataset() == this) {
+                    e.setItem(getItems(e.getSeriesIndex())[e.getItem()]);
+                    e.setDataset(this.dataset);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the order of the domain values in the underlying dataset.
+     *
+     * @return The domain order.
+     */
+    @Override
+    public DomainOrder getDomainOrder() {
+        return this.dataset.getDomainOrder();
+    }
+
+    /**
+     * Returns the number of series in the dataset.
+     *
+     * @return The series count.
+     */
+    @Override
+    public int getSeriesCount() {
+        return this.items.length;
+    }
+
+    /**
+     * Returns the key for a series.
+     *
+     * @param series  the series index.
+     *
+     * @return The key.
+     */
+    @Override
+    public Comparable getSeriesKey(int series) {
+        return this.dataset.getSeriesKey(series);
+    }
+
+    /**
+     * Returns the number of selected items in a series.
+     *
+     * @param series  the series index.
+     *
+     * @return The item count.
+     */
+    @Override
+    public int getItemCount(int series) {
+        return getItems(series).length;
+    }
+
+    /**
+     * Returns the x-value for an item.
+     *
+     * @param series  the series index.
+     * @param item  the item index (in the view).
+     *
+     * @return The x-value.
+     */
+    @Override
+    public Number getX(int series, int item) {
+        return this.dataset.getX(series, getItems(series)[item]);
+    }
+
+    /**
+     * Returns the x-value for an item.
+     *
+     * @param series  the series index.
+     * @param item  the item index (in the view).
+     *
+     * @return The x-value.
+     */
+    @Override
+    public double getXValue(int series, int item) {
+        return this.dataset.getXValue(series, getItems(series)[item]);
+    }
+
+    /**
+     * Returns the y-value for an item.
+     *
+     * @param series  the series index.
+     * @param item  the item index (in the view).
+     *
+     * @return The y-value.
+     */
+    @Override
+    public Number getY(int series, int item) {
+        return this.dataset.getY(series, getItems(series)[item]);
+    }
+
+    /**
+     * Returns the y-value for an item.
+     *
+     * @param series  the series index.
+     * @param item  the item index (in the view).
+     *
+     * @return The y-value.
+     */
+    @Override
+    public double getYValue(int series, int item) {
+        return this.dataset.getYValue(series, getItems(series)[item]);
+    }
+
+}
@@ -0,0 +1,217 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------------
+ * LTTBXYDecimator.java
+ * --------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.plot;
+
+import java.awt.geom.Rectangle2D;
+import java.io.Serializable;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.ui.RectangleEdge;
+import org.jfree.chart.util.Args;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * A decimator that uses the Largest-Triangle-Three-Buckets (LTTB)
+ * algorithm to select a fixed number of items (determined by the number of
+ * pixels along the domain axis) that preserve the visual shape of a series.
+ * The result is smoother than that of {@link MinMaxXYDecimator} and
+ * contains fewer items, but isolated spikes may be lost and gaps in the
+ * series (items with a {@code Double.NaN} y-value) are not preserved.
+ *
+ * @since 1.5
+ */
+public class LTTBXYDecimator implements XYDecimator, Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -6203174538512479370L;
+
+    /** The number of items to keep for each pixel along the domain axis. */
+    private double itemsPerPixel;
+
+    /**
+     * Creates a new decimator that keeps one item per pixel.
+     */
+    public LTTBXYDecimator() {
+        this(1.0);
+    }
+
+    /**
+     * Creates a new decimator.
+     *
+     * @param itemsPerPixel  the number of items to keep for each pixel along
+     *     the domain axis (must be positive).
+     */
+    public LTTBXYDecimator(double itemsPerPixel) {
+        if (!(itemsPerPixel > 0.0)) {
+            throw new IllegalArgumentException(
+                    "Requires 'itemsPerPixel' > 0.");
+        }
+        this.itemsPerPixel = itemsPerPixel;
+    }
+
+    /**
+     * Returns the number of items to keep for each pixel along the domain
+     * axis.
+     *
+     * @return The number of items per pixel.
+     */
+    public double getItemsPerPixel() {
+        return this.itemsPerPixel;
+    }
+
+    /**
+     * Returns the indices (in ascending order) of the items in the specified
+     * range that should be rendered.
+     *
+     * @param dataset  the dataset ({@code null} not permitted).
+     * @param series  the series index.
+     * @param firstItem  the index of the first item to consider.
+     * @param lastItem  the index of the last item to consider.
+     * @param domainAxis  the domain axis ({@code null} not permitted).
+     * @param dataArea  the area in which the data is drawn
+     *     ({@code null} not permitted).
+     * @param domainEdge  the edge for the domain axis
+     *     ({@code null} not permitted).
+     *
+     * @return The item indices (never {@code null}).
+     */
+    @Override
+    public int[] decimate(XYDataset dataset, int series, int firstItem,
+            int lastItem, ValueAxis domainAxis, Rectangle2D dataArea,
+            RectangleEdge domainEdge) {
+        Args.nullNotPermitted(dataset, "dataset");
+        Args.nullNotPermitted(domainAxis, "domainAxis");
+        Args.nullNotPermitted(dataArea, "dataArea");
+        Args.nullNotPermitted(domainEdge, "domainEdge");
+        int itemCount = Math.max(lastItem - firstItem + 1, 0);
+        double pixels = RectangleEdge.isTopOrBottom(domainEdge)
+                ? dataArea.getWidth() : dataArea.getHeight();
+        int threshold = Math.max(3, (int) (pixels * this.itemsPerPixel));
+        if (itemCount <= threshold) {
+            int[] result = new int[itemCount];
+            for (int i = 0; i < itemCount; i++) {
+                result[i] = firstItem + i;
+            }
+            return result;
+        }
+        int[] result = new int[threshold];
+        int count = 0;
+        // the first and last items are always selected, the remaining
+        // items are divided into (threshold - 2) buckets
+        double bucketSize = (double) (itemCount - 2) / (threshold - 2);
+        int a = firstItem;
+        result[count++] = a;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // the average of the next bucket is the third triangle vertex
+            int nextStart = firstItem + (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min(firstItem
+                    + (int) ((bucket + 2) * bucketSize) + 1, lastItem + 1);
+            double avgX = 0.0;
+            double avgY = 0.0;
+            int avgCount = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                double x = dataset.getXValue(series, i);
+                double y = dataset.getYValue(series, i);
+                if (!Double.isNaN(x) && !Double.isNaN(y)) {
+                    avgX += x;
+                    avgY += y;
+                    avgCount++;
+                }
+            }
+            if (avgCount > 0) {
+                avgX = avgX / avgCount;
+                avgY = avgY / avgCount;
+            }
+            else {
+                avgX = dataset.getXValue(series, lastItem);
+                avgY = dataset.getYValue(series, lastItem);
+            }
+
+            // select the item in this bucket with the largest triangle
+            int start = firstItem + (int) (bucket * bucketSize) + 1;
+            int end = firstItem + (int) ((bucket + 1) * bucketSize) + 1;
+            double ax = dataset.getXValue(series, a);
+            double ay = dataset.getYValue(series, a);
+            double maxArea = -1.0;
+            int selected = start;
+            for (int i = start; i < end; i++) {
+                double x = dataset.getXValue(series, i);
+                double y = dataset.getYValue(series, i);
+                double area = Math.abs((ax - avgX) * (y - ay)
+                        - (ax - x) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    selected = i;
+                }
+            }
+            result[count++] = selected;
+            a = selected;
+        }
+        result[count] = lastItem;
+        return result;
+    }
+
+    /**
+     * Tests this decimator for equality with an arbitrary object.
+     *
+     * @param obj  the object ({@code null} permitted).
+     *
+     * @return A boolean.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof LTTBXYDecimator)) {
+            return false;
+        }
+        LTTBXYDecimator that = (LTTBXYDecimator) obj;
+        return this.itemsPerPixel == that.itemsPerPixel;
+    }
+
+    /**
+     * Returns a hash code for this instance.
+     *
+     * @return A hash code.
+     */
+    @Override
+    public int hashCode() {
+        long bits = Double.doubleToLongBits(this.itemsPerPixel);
+        return (int) (bits ^ (bits >>> 32));
+    }
+
+}
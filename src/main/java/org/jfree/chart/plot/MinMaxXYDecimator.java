@@ -0,0 +1,177 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ----------------------
+ * MinMaxXYDecimator.java
+ * ----------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.plot;
+
+import java.awt.geom.Rectangle2D;
+import java.io.Serializable;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.ui.RectangleEdge;
+import org.jfree.chart.util.Args;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * A decimator that groups consecutive items by the pixel column that their
+ * x-values map to, and keeps the first, last, minimum and maximum item of
+ * each group.  A line drawn through the selected items is (at the pixel
+ * level) the same as a line drawn through all the items, so this decimator
+ * is suitable for line, step and area renderers.  Items with a
+ * {@code Double.NaN} x or y-value are always kept, so that gaps in a series
+ * are preserved.
+ *
+ * @since 1.5
+ */
+public class MinMaxXYDecimator implements XYDecimator, Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 4385290107216739462L;
+
+    /**
+     * Creates a new decimator.
+     */
+    public MinMaxXYDecimator() {
+        super();
+    }
+
+    /**
+     * Returns the indices (in ascending order) of the items in the specified
+     * range that should be rendered.
+     *
+     * @param dataset  the dataset ({@code null} not permitted).
+     * @param series  the series index.
+     * @param firstItem  the index of the first item to consider.
+     * @param lastItem  the index of the last item to consider.
+     * @param domainAxis  the domain axis ({@code null} not permitted).
+     * @param dataArea  the area in which the data is drawn
+     *     ({@code null} not permitted).
+     * @param domainEdge  the edge for the domain axis
+     *     ({@code null} not permitted).
+     *
+     * @return The item indices (never {@code null}).
+     */
+    @Override
+    public int[] decimate(XYDataset dataset, int series, int firstItem,
+            int lastItem, ValueAxis domainAxis, Rectangle2D dataArea,
+            RectangleEdge domainEdge) {
+        Args.nullNotPermitted(dataset, "dataset");
+        Args.nullNotPermitted(domainAxis, "domainAxis");
+        Args.nullNotPermitted(dataArea, "dataArea");
+        Args.nullNotPermitted(domainEdge, "domainEdge");
+        int[] result = new int[Math.max(lastItem - firstItem + 1, 0)];
+        int count = 0;
+        int item = firstItem;
+        while (item <= lastItem) {
+            double x = dataset.getXValue(series, item);
+            double y = dataset.getYValue(series, item);
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                result[count++] = item++;
+                continue;
+            }
+            double column = Math.floor(domainAxis.valueToJava2D(x, dataArea,
+                    domainEdge));
+            int start = item;
+            int min = item;
+            int max = item;
+            double minY = y;
+            double maxY = y;
+            item++;
+            while (item <= lastItem) {
+                x = dataset.getXValue(series, item);
+                y = dataset.getYValue(series, item);
+                if (Double.isNaN(x) || Double.isNaN(y)
+                        || Math.floor(domainAxis.valueToJava2D(x, dataArea,
+                        domainEdge)) != column) {
+                    break;
+                }
+                if (y < minY) {
+                    minY = y;
+                    min = item;
+                }
+                if (y > maxY) {
+                    maxY = y;
+                    max = item;
+                }
+                item++;
+            }
+            int end = item - 1;
+            // add the first, min, max and last items in ascending order
+            result[count++] = start;
+            int low = Math.min(min, max);
+            int high = Math.max(min, max);
+            if (low > start) {
+                result[count++] = low;
+            }
+            if (high > low && high > start) {
+                result[count++] = high;
+            }
+            if (end > high && end > start) {
+                result[count++] = end;
+            }
+        }
+        if (count < result.length) {
+            int[] trimmed = new int[count];
+            System.arraycopy(result, 0, trimmed, 0, count);
+            result = trimmed;
+        }
+        return result;
+    }
+
+    /**
+     * Tests this decimator for equality with an arbitrary object.
+     *
+     * @param obj  the object ({@code null} permitted).
+     *
+     * @return A boolean.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        return obj instanceof MinMaxXYDecimator;
+    }
+
+    /**
+     * Returns a hash code for this instance.
+     *
+     * @return A hash code.
+     */
+    @Override
+    public int hashCode() {
+        return 17;
+    }
+
+}
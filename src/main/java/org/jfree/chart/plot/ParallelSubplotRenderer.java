@@ -0,0 +1,519 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ----------------------------
+ * ParallelSubplotRenderer.java
+ * ----------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.plot;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsDevice;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jfree.chart.ChartHints;
+import org.jfree.chart.ChartLayer;
+import org.jfree.chart.ChartRenderingInfo;
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.RenderSurfacePool;
+import org.jfree.chart.entity.StandardEntityCollection;
+import org.jfree.chart.renderer.AbstractRenderer;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * Draws the subplots of a combined plot using several threads.  The 
+ * background and axes of each subplot are drawn first (this also lays out 
+ * the subplots' data areas), then the data items of each subplot are 
+ * rendered into their own off-screen image on a thread pool, and finally
+ * the images are drawn onto the target in the order of the subplots, each
+ * followed by that subplot's foreground.  This relies on the 
+ * {@link ChartHints#KEY_LAYERS} hint, so it only helps for subplots that 
+ * support layers ({@link XYPlot} and {@link CategoryPlot}), and is only 
+ * possible for raster targets, see {@link #isSupported(Graphics2D)}.  
+ * Subplots that share a renderer are drawn one after another, since a 
+ * renderer holds state while it draws.  So are the subplots of a combined
+ * plot that is itself a subplot being drawn on the pool, since the pool has
+ * a fixed number of threads and waiting on it from one of its own threads
+ * could deadlock.
+ */
+final class ParallelSubplotRenderer {
+
+    /** The pool for drawing the subplots (created when needed). */
+    private static ExecutorService pool;
+
+    /** Set for a thread while it draws a subplot for a parallel drawing. */
+    private static final ThreadLocal<Boolean> DRAWING_SUBPLOT
+            = new ThreadLocal<Boolean>();
+
+    /** 
+     * The images for the subplots, used when no pool has been set with 
+     * {@link ChartUtils#setRenderSurfacePool(RenderSurfacePool)} (the 
+     * images never leave this class, so they can always be reused).
+     */
+    private static final RenderSurfacePool SURFACE_POOL 
+            = new RenderSurfacePool();
+
+    private ParallelSubplotRenderer() {
+        // no need to instantiate this
+    }
+
+    /**
+     * Returns the pool for drawing the subplots, creating it if necessary.
+     * The pool has one thread per processor, and the threads are daemon 
+     * threads.
+     *
+     * @return The pool.
+     */
+    private static synchronized ExecutorService getPool() {
+        if (pool == null) {
+            pool = Executors.newFixedThreadPool(
+                    Runtime.getRuntime().availableProcessors(), 
+                    new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "ParallelSubplotRenderer-" 
+                            + this.count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        return pool;
+    }
+
+    /**
+     * Returns {@code true} if subplots can be drawn in parallel for the 
+     * specified target, and {@code false} otherwise.  Parallel drawing 
+     * requires a raster target (the screen or an image) with a transform 
+     * that only translates, and the default composite.  Vector targets 
+     * (such as SVG or PDF implementations of {@code Graphics2D}, or a 
+     * printer) need the original drawing operations, not an image, and with 
+     * a scaling transform the antialiased edges of the subplot images do 
+     * not match those drawn directly on the target.
+     *
+     * @param g2  the graphics target.
+     *
+     * @return A boolean.
+     */
+    static boolean isSupported(Graphics2D g2) {
+        if (!g2.getClass().getName().startsWith("sun.java2d.")) {
+            // vector implementations can claim an image buffer device, so
+            // only the JDK's raster implementation is trusted
+            return false;
+        }
+        int deviceType = g2.getDeviceConfiguration().getDevice().getType();
+        if (deviceType == GraphicsDevice.TYPE_PRINTER) {
+            return false;
+        }
+        if (!AlphaComposite.SrcOver.equals(g2.getComposite())) {
+            return false;
+        }
+        int type = g2.getTransform().getType();
+        return (type & ~AffineTransform.TYPE_TRANSLATION) == 0;
+    }
+
+    /**
+     * Returns {@code true} if any renderer is used by more than one of the 
+     * subplots, and {@code false} otherwise.
+     *
+     * @param subplots  the subplots.
+     *
+     * @return A boolean.
+     */
+    static boolean hasSharedRenderers(List<? extends Plot> subplots) {
+        Set<Object> renderers = Collections.newSetFromMap(
+                new IdentityHashMap<Object, Boolean>());
+        for (Plot subplot : subplots) {
+            Collection<?> subplotRenderers;
+            if (subplot instanceof XYPlot) {
+                subplotRenderers = ((XYPlot) subplot).getRendererCollection();
+            }
+            else if (subplot instanceof CategoryPlot) {
+                subplotRenderers 
+                        = ((CategoryPlot) subplot).getRendererCollection();
+            }
+            else {
+                continue;
+            }
+            // a renderer used more than once within a subplot is fine
+            Set<Object> local = Collections.newSetFromMap(
+                    new IdentityHashMap<Object, Boolean>());
+            for (Object renderer : subplotRenderers) {
+                if (renderer != null && local.add(renderer) 
+                        && !renderers.add(renderer)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Draws the subplots.  The rendering info for each subplot is added to
+     * {@code info} (and the entities to the owner's entity collection) in 
+     * the order of the subplots, as when the subplots are drawn one after 
+     * another.
+     *
+     * @param g2  the graphics target.
+     * @param subplots  the subplots.
+     * @param areas  the areas for the subplots.
+     * @param anchors  the anchor points for the subplots (the array items 
+     *     can be {@code null}).
+     * @param parentState  the state from the parent plot.
+     * @param info  the rendering info for the parent plot ({@code null} 
+     *     permitted).
+     */
+    static void drawSubplots(Graphics2D g2, List<? extends Plot> subplots,
+            Rectangle2D[] areas, Point2D[] anchors, 
+            final PlotState parentState, PlotRenderingInfo info) {
+
+        Object layers = g2.getRenderingHint(ChartHints.KEY_LAYERS);
+        if (!ChartLayer.DATA.isDrawn(layers) 
+                || hasSharedRenderers(subplots)
+                || DRAWING_SUBPLOT.get() != null) {
+            // there is nothing worth doing in parallel, or it is not safe
+            // (including a nested combined plot, which is drawn on a pool
+            // thread that must not wait for the pool)
+            for (int i = 0; i < subplots.size(); i++) {
+                subplots.get(i).draw(g2, areas[i], anchors[i], parentState, 
+                        createSubplotInfo(info));
+            }
+            return;
+        }
+
+        // look up the series paints, strokes and shapes in subplot order,
+        // since a renderer takes these from the parent's drawing supplier 
+        // on first use, so they don't depend on the thread scheduling (the
+        // legend items first, as they are when the legend is drawn, then
+        // the series that are not in the legend)
+        for (Plot subplot : subplots) {
+            subplot.getLegendItems();
+        }
+        for (Plot subplot : subplots) {
+            populateSeriesAttributes(subplot);
+        }
+
+        // draw the background and axes, which also records the data areas
+        int count = subplots.size();
+        PlotRenderingInfo[] subplotInfos = new PlotRenderingInfo[count];
+        g2.setRenderingHint(ChartHints.KEY_LAYERS, 
+                restrict(layers, ChartLayer.BACKGROUND, ChartLayer.AXES));
+        try {
+            for (int i = 0; i < count; i++) {
+                subplotInfos[i] = createSubplotInfo(info);
+                if (subplotInfos[i] == null) {
+                    // we still need the data area
+                    subplotInfos[i] = new PlotRenderingInfo(null);
+                }
+                subplots.get(i).draw(g2, areas[i], anchors[i], parentState, 
+                        subplotInfos[i]);
+            }
+        }
+        finally {
+            g2.setRenderingHint(ChartHints.KEY_LAYERS, layers);
+        }
+
+        // render the data items into an image per subplot
+        final AffineTransform transform = g2.getTransform();
+        final RenderingHints hints = g2.getRenderingHints();
+        hints.put(ChartHints.KEY_LAYERS, EnumSet.of(ChartLayer.DATA));
+        final boolean collectInfo = info != null;
+        final boolean collectEntities = collectInfo 
+                && info.getOwner() != null 
+                && info.getOwner().getEntityCollection() != null;
+        RenderSurfacePool pool = ChartUtils.getRenderSurfacePool();
+        final RenderSurfacePool surfacePool = pool != null ? pool 
+                : SURFACE_POOL;
+        List<Callable<SubplotImage>> tasks 
+                = new ArrayList<Callable<SubplotImage>>();
+        for (int i = 0; i < count; i++) {
+            final Plot subplot = subplots.get(i);
+            final Rectangle2D area = areas[i];
+            final Point2D anchor = anchors[i];
+            final Rectangle bounds = transform.createTransformedShape(
+                    subplotInfos[i].getDataArea()).getBounds();
+            tasks.add(new Callable<SubplotImage>() {
+                @Override
+                public SubplotImage call() {
+                    BufferedImage image = surfacePool.acquire(
+                            Math.max(bounds.width, 1), 
+                            Math.max(bounds.height, 1), 
+                            BufferedImage.TYPE_INT_ARGB_PRE);
+                    ChartRenderingInfo owner = null;
+                    if (collectInfo) {
+                        owner = new ChartRenderingInfo(collectEntities 
+                                ? new StandardEntityCollection() : null);
+                    }
+                    Graphics2D imageG2 = image.createGraphics();
+                    DRAWING_SUBPLOT.set(Boolean.TRUE);
+                    try {
+                        imageG2.setRenderingHints(hints);
+                        imageG2.translate(-bounds.x, -bounds.y);
+                        imageG2.transform(transform);
+                        subplot.draw(imageG2, area, anchor, parentState, 
+                                owner != null ? new PlotRenderingInfo(owner)
+                                : null);
+                    }
+                    catch (RuntimeException e) {
+                        surfacePool.release(image);
+                        throw e;
+                    }
+                    finally {
+                        DRAWING_SUBPLOT.remove();
+                        imageG2.dispose();
+                    }
+                    return new SubplotImage(image, bounds, owner);
+                }
+            });
+        }
+        List<Future<SubplotImage>> results;
+        try {
+            results = getPool().invokeAll(tasks);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        // draw the images and the foreground in the order of the subplots
+        RuntimeException failure = null;
+        g2.setRenderingHint(ChartHints.KEY_LAYERS, restrict(layers, 
+                ChartLayer.FOREGROUND, ChartLayer.OVERLAY));
+        try {
+            for (int i = 0; i < count; i++) {
+                SubplotImage subplotImage;
+                try {
+                    subplotImage = results.get(i).get();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    continue;
+                }
+                catch (ExecutionException e) {
+                    if (failure == null) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof Error) {
+                            throw (Error) cause;
+                        }
+                        failure = cause instanceof RuntimeException 
+                                ? (RuntimeException) cause 
+                                : new RuntimeException(cause);
+                    }
+                    continue;
+                }
+                if (failure == null) {
+                    subplotImage.drawOn(g2, transform);
+                    if (collectEntities) {
+                        info.getOwner().getEntityCollection().addAll(
+                                subplotImage.owner.getEntityCollection());
+                    }
+                    subplots.get(i).draw(g2, areas[i], anchors[i], 
+                            parentState, subplotInfos[i]);
+                }
+                surfacePool.release(subplotImage.image);
+            }
+        }
+        finally {
+            g2.setRenderingHint(ChartHints.KEY_LAYERS, layers);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Looks up the paints, strokes and shapes for all the series in a
+     * subplot, so that the renderers don't need to go to the drawing
+     * supplier while the subplot is drawn.
+     *
+     * @param subplot  the subplot.
+     */
+    private static void populateSeriesAttributes(Plot subplot) {
+        if (subplot instanceof XYPlot) {
+            XYPlot plot = (XYPlot) subplot;
+            Map<Integer, XYDataset> datasets
+                    = new TreeMap<Integer, XYDataset>(plot.getDatasets());
+            for (XYDataset dataset : datasets.values()) {
+                if (dataset != null) {
+                    populateSeriesAttributes(plot.getRendererForDataset(
+                            dataset), dataset.getSeriesCount());
+                }
+            }
+        }
+        else if (subplot instanceof CategoryPlot) {
+            CategoryPlot plot = (CategoryPlot) subplot;
+            Map<Integer, CategoryDataset> datasets = new TreeMap<Integer,
+                    CategoryDataset>(plot.getDatasets());
+            for (CategoryDataset dataset : datasets.values()) {
+                if (dataset != null) {
+                    populateSeriesAttributes(plot.getRendererForDataset(
+                            dataset), dataset.getRowCount());
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks up the paints, strokes and shapes for the series of a renderer.
+     *
+     * @param renderer  the renderer ({@code null} permitted).
+     * @param seriesCount  the number of series.
+     */
+    private static void populateSeriesAttributes(Object renderer,
+            int seriesCount) {
+        if (!(renderer instanceof AbstractRenderer)) {
+            return;
+        }
+        AbstractRenderer r = (AbstractRenderer) renderer;
+        for (int series = 0; series < seriesCount; series++) {
+            r.lookupSeriesPaint(series);
+            r.lookupSeriesFillPaint(series);
+            r.lookupSeriesOutlinePaint(series);
+            r.lookupSeriesStroke(series);
+            r.lookupSeriesOutlineStroke(series);
+            r.lookupSeriesShape(series);
+        }
+    }
+
+    /**
+     * Creates the rendering info for a subplot and adds it to the info for
+     * the parent plot.
+     *
+     * @param info  the info for the parent plot ({@code null} permitted).
+     *
+     * @return The info for the subplot (possibly {@code null}).
+     */
+    private static PlotRenderingInfo createSubplotInfo(PlotRenderingInfo info) {
+        if (info == null) {
+            return null;
+        }
+        PlotRenderingInfo subplotInfo = new PlotRenderingInfo(info.getOwner());
+        info.addSubplotInfo(subplotInfo);
+        return subplotInfo;
+    }
+
+    /**
+     * Returns a value for the {@link ChartHints#KEY_LAYERS} hint that 
+     * includes the specified layers, if they are included in 
+     * {@code layers}.
+     *
+     * @param layers  the current hint value ({@code null} for all layers).
+     * @param first  the first layer.
+     * @param second  the second layer.
+     *
+     * @return The hint value.
+     */
+    private static Set<ChartLayer> restrict(Object layers, ChartLayer first,
+            ChartLayer second) {
+        Set<ChartLayer> result = EnumSet.noneOf(ChartLayer.class);
+        if (first.isDrawn(layers)) {
+            result.add(first);
+        }
+        if (second.isDrawn(layers)) {
+            result.add(second);
+        }
+        return result;
+    }
+
+    /**
+     * The image and rendering info for the data items of one subplot.
+     */
+    private static final class SubplotImage {
+
+        /** The image. */
+        final BufferedImage image;
+
+        /** The bounds of the image in device space. */
+        final Rectangle bounds;
+
+        /** 
+         * The rendering info that collects the entities ({@code null} 
+         * permitted). 
+         */
+        final ChartRenderingInfo owner;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param image  the image.
+         * @param bounds  the bounds of the image in device space.
+         * @param owner  the rendering info ({@code null} permitted).
+         */
+        SubplotImage(BufferedImage image, Rectangle bounds, 
+                ChartRenderingInfo owner) {
+            this.image = image;
+            this.bounds = bounds;
+            this.owner = owner;
+        }
+
+        /**
+         * Draws the image onto the target.
+         *
+         * @param g2  the graphics target.
+         * @param transform  the target's transform.
+         */
+        void drawOn(Graphics2D g2, AffineTransform transform) {
+            g2.setTransform(new AffineTransform());
+            g2.drawImage(this.image, this.bounds.x, this.bounds.y, 
+                    this.bounds.x + this.bounds.width, 
+                    this.bounds.y + this.bounds.height, 0, 0, 
+                    this.bounds.width, this.bounds.height, null);
+            g2.setTransform(transform);
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ----------------
+ * XYDecimator.java
+ * ----------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.plot;
+
+import java.awt.geom.Rectangle2D;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.ui.RectangleEdge;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * A decimator selects a subset of the items in a series that is sufficient
+ * to draw the series at the resolution of the output device.  When a
+ * decimator is assigned to an {@link XYPlot} (see
+ * {@link XYPlot#setDecimator(XYDecimator)}), the renderers are passed a view
+ * of the dataset that contains only the selected items.
+ *
+ * @see MinMaxXYDecimator
+ * @see LTTBXYDecimator
+ *
+ * @since 1.5
+ */
+public interface XYDecimator {
+
+    /**
+     * Returns the indices (in ascending order) of the items in the specified
+     * range that should be rendered.
+     *
+     * @param dataset  the dataset ({@code null} not permitted).
+     * @param series  the series index.
+     * @param firstItem  the index of the first item to consider.
+     * @param lastItem  the index of the last item to consider.
+     * @param domainAxis  the domain axis ({@code null} not permitted).
+     * @param dataArea  the area in which the data is drawn
+     *     ({@code null} not permitted).
+     * @param domainEdge  the edge for the domain axis
+     *     ({@code null} not permitted).
+     *
+     * @return The item indices (never {@code null}).
+     */
+    public int[] decimate(XYDataset dataset, int series, int firstItem,
+            int lastItem, ValueAxis domainAxis, Rectangle2D dataArea,
+            RectangleEdge domainEdge);
+
+}
@@ -265,10 +265,13 @@ import java.util.Map.Entry;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.TreeMap;
+import org.jfree.chart.ChartHints;
+import org.jfree.chart.ChartLayer;
 import org.jfree.chart.JFreeChart;
 
 import org.jfree.chart.LegendItem;
 import org.jfree.chart.LegendItemCollection;
+import org.jfree.chart.RenderControl;
 import org.jfree.chart.annotations.Annotation;
 import org.jfree.chart.annotations.XYAnnotation;
 import org.jfree.chart.annotations.XYAnnotationBoundsInfo;
@@ -280,6 +283,7 @@ import org.jfree.chart.axis.AxisState;
 import org.jfree.chart.axis.TickType;
 import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.axis.ValueTick;
+import org.jfree.chart.entity.EntityCollection;
 import org.jfree.chart.event.AnnotationChangeEvent;
 import org.jfree.chart.event.ChartChangeEventType;
 import org.jfree.chart.event.PlotChangeEvent;
@@ -303,7 +307,15 @@ import org.jfree.chart.util.ShadowGenerator;
 import org.jfree.data.Range;
 import org.jfree.data.general.DatasetChangeEvent;
 import org.jfree.data.general.DatasetUtils;
+import org.jfree.data.statistics.BoxAndWhiskerXYDataset;
+import org.jfree.data.xy.MultiResolutionXYDataset;
+import org.jfree.data.xy.OHLCDataset;
+import org.jfree.data.xy.TableXYDataset;
+import org.jfree.data.xy.VectorXYDataset;
+import org.jfree.data.xy.WindDataset;
 import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYDatasetView;
+import org.jfree.data.xy.XYZDataset;
 
 /**
  * A general class for plotting data in the form of (x, y) pairs.  This plot can
@@ -340,6 +352,12 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
     /** The default crosshair paint. */
     public static final Paint DEFAULT_CROSSHAIR_PAINT = Color.BLUE;
 
+    /** 
+     * The estimated time (in nanoseconds) to render one item, used until 
+     * the time has been measured. 
+     */
+    private static final double DEFAULT_ITEM_RENDER_COST = 200.0;
+
     /** The resourceBundle for the localization. */
     protected static ResourceBundle localizationResources
             = ResourceBundleWrapper.getBundle(
@@ -606,6 +624,33 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
      */
     private ShadowGenerator shadowGenerator;
 
+    /**
+     * The decimator that selects the items to render ({@code null}
+     * permitted, in which case all items are rendered).
+     *
+     * @since 1.5
+     */
+    private XYDecimator decimator;
+
+    /**
+     * The decimated views of the datasets from the last time the plot was
+     * drawn, keyed by dataset index (created on demand).
+     */
+    private transient Map<Integer, DecimatedXYDataset> decimatedDatasets;
+
+    /**
+     * The measured time (in nanoseconds) to render one item, used to decide
+     * whether a dataset can be rendered within the time budget set by a
+     * {@link RenderControl} (zero if not yet measured).
+     */
+    private transient double itemRenderCost;
+
+    /** 
+     * The index of the dataset whose axes were used for the crosshairs the
+     * last time the plot was drawn. 
+     */
+    private transient int crosshairDatasetIndex;
+
     /**
      * Creates a new {@code XYPlot} instance with no dataset, no axes and
      * no renderer.  You should specify these items before using the plot.
@@ -1359,6 +1404,19 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
         return (XYDataset) this.datasets.get(index);
     }
 
+    /**
+     * Returns a map containing the datasets for the plot, keyed by dataset
+     * index.  The map is a copy, so changes to it do not affect the plot.
+     *
+     * @return The datasets (never {@code null}).
+     *
+     * @see #getDataset(int)
+     * @since 1.5
+     */
+    public Map<Integer, XYDataset> getDatasets() {
+        return new HashMap<Integer, XYDataset>(this.datasets);
+    }
+
     /**
      * Sets the primary dataset for the plot, replacing the existing dataset if
      * there is one.
@@ -1407,13 +1465,18 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
 
     /**
      * Returns the index of the specified dataset, or {@code -1} if the
-     * dataset does not belong to the plot.
+     * dataset does not belong to the plot.  If the dataset is a view
+     * ({@link XYDatasetView}) that the plot passed to a renderer in place of
+     * one of its datasets, the index of that dataset is returned.
      *
      * @param dataset  the dataset ({@code null} not permitted).
      *
      * @return The index or -1.
      */
     public int indexOf(XYDataset dataset) {
+        while (dataset instanceof XYDatasetView) {
+            dataset = ((XYDatasetView) dataset).getSourceDataset();
+        }
         for (Map.Entry<Integer, XYDataset> entry: this.datasets.entrySet()) {
             if (dataset == entry.getValue()) {
                 return entry.getKey();
@@ -1528,6 +1591,17 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
         return this.renderers.size();
     }
 
+    /**
+     * Returns the renderers for this plot (used to check whether subplots 
+     * that are drawn in parallel share a renderer).
+     *
+     * @return The renderers (the collection can contain {@code null} 
+     *     items).
+     */
+    Collection<XYItemRenderer> getRendererCollection() {
+        return Collections.unmodifiableCollection(this.renderers.values());
+    }
+
     /**
      * Returns the renderer for the primary dataset.
      *
@@ -2974,6 +3048,106 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
         fireChangeEvent();
     }
 
+    /**
+     * Returns the decimator for the plot, if any.
+     *
+     * @return The decimator (possibly {@code null}).
+     *
+     * @see #setDecimator(XYDecimator)
+     *
+     * @since 1.5
+     */
+    public XYDecimator getDecimator() {
+        return this.decimator;
+    }
+
+    /**
+     * Sets the decimator for the plot and sends a {@link PlotChangeEvent} to
+     * all registered listeners.  When a decimator is set, the renderers are
+     * passed a view of each dataset that contains only the items selected by
+     * the decimator (for the current domain axis range and the size of the
+     * data area), so that very large series can be drawn without visiting
+     * every item.  The selected items are cached until the dataset or the
+     * domain axis changes.  Decimation is intended for renderers that
+     * connect the items, such as
+     * {@link org.jfree.chart.renderer.xy.XYLineAndShapeRenderer},
+     * {@link org.jfree.chart.renderer.xy.XYStepRenderer} and
+     * {@link org.jfree.chart.renderer.xy.XYAreaRenderer}.  The
+     * {@link org.jfree.chart.entity.XYItemEntity} instances created for the
+     * view are mapped back to the dataset (and its item indices) after
+     * the view is drawn, but item label and tool tip generators see the
+     * view.  The view implements
+     * {@link org.jfree.data.xy.IntervalXYDataset} when the dataset does,
+     * and datasets whose items must stay aligned across series
+     * ({@link TableXYDataset}) or that carry more than (x, y) values per
+     * item (for example {@link OHLCDataset} and {@link XYZDataset}) are
+     * never decimated.
+     *
+     * @param decimator  the decimator ({@code null} permitted).
+     *
+     * @see #getDecimator()
+     *
+     * @since 1.5
+     */
+    public void setDecimator(XYDecimator decimator) {
+        this.decimator = decimator;
+        this.decimatedDatasets = null;
+        fireChangeEvent();
+    }
+
+    /**
+     * Returns a view of the dataset containing only the items selected by
+     * the plot's decimator, reusing the view from the previous call if the
+     * dataset and domain axis have not changed.
+     *
+     * @param index  the dataset index.
+     * @param dataset  the dataset.
+     * @param xAxis  the domain axis for the dataset.
+     * @param dataArea  the data area.
+     *
+     * @return The decimated view of the dataset.
+     */
+    private XYDataset getDecimatedDataset(int index, XYDataset dataset,
+            ValueAxis xAxis, Rectangle2D dataArea) {
+        if (!isDecimationSupported(dataset)) {
+            return dataset;
+        }
+        if (this.decimatedDatasets == null) {
+            this.decimatedDatasets = new HashMap<Integer, DecimatedXYDataset>();
+        }
+        RectangleEdge xAxisEdge = getDomainAxisEdge();
+        DecimatedXYDataset result = this.decimatedDatasets.get(index);
+        if (result == null || !result.isValidFor(dataset, this.decimator,
+                xAxis, dataArea, xAxisEdge)) {
+            result = DecimatedXYDataset.create(dataset, this.decimator, xAxis,
+                    dataArea, xAxisEdge);
+            this.decimatedDatasets.put(index, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code true} if a decimated view can be passed to a renderer
+     * in place of the specified dataset, and {@code false} otherwise.  The
+     * view only presents the x- and y-values (and the intervals, for an
+     * {@link org.jfree.data.xy.IntervalXYDataset}), and selects different
+     * items for each series, so it is not used for datasets where the
+     * renderer requires other values or relies on the items being aligned
+     * across the series.
+     *
+     * @param dataset  the dataset.
+     *
+     * @return A boolean.
+     */
+    private static boolean isDecimationSupported(XYDataset dataset) {
+        return !(dataset instanceof TableXYDataset
+                || dataset instanceof OHLCDataset
+                || dataset instanceof XYZDataset
+                || dataset instanceof WindDataset
+                || dataset instanceof BoxAndWhiskerXYDataset
+                || dataset instanceof VectorXYDataset);
+    }
+
     /**
      * Calculates the space required for all the axes in the plot.
      *
@@ -3137,14 +3311,41 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
         if (dataArea.isEmpty()) {
             return;
         }
-        createAndAddEntity((Rectangle2D) dataArea.clone(), info, null, null);
+
+        // find the layers to draw (see ChartHints.KEY_LAYERS)...
+        Object layers = g2.getRenderingHint(ChartHints.KEY_LAYERS);
+        boolean background = ChartLayer.BACKGROUND.isDrawn(layers);
+        boolean data = ChartLayer.DATA.isDrawn(layers);
+        boolean foreground = ChartLayer.FOREGROUND.isDrawn(layers);
+        boolean overlay = ChartLayer.OVERLAY.isDrawn(layers);
+
+        if (background) {
+            createAndAddEntity((Rectangle2D) dataArea.clone(), info, null, 
+                    null);
+        }
         if (info != null) {
             info.setDataArea(dataArea);
         }
 
         // draw the plot background and axes...
-        drawBackground(g2, dataArea);
-        Map axisStateMap = drawAxes(g2, area, dataArea, info);
+        if (background) {
+            drawBackground(g2, dataArea);
+        }
+        Map axisStateMap;
+        if (ChartLayer.AXES.isDrawn(layers)) {
+            axisStateMap = drawAxes(g2, area, dataArea, info);
+        } 
+        else if (background) {
+            // the gridlines need the ticks, so lay out the axes without 
+            // drawing them
+            Graphics2D axisG2 = (Graphics2D) g2.create();
+            axisG2.clip(new Rectangle());
+            axisStateMap = drawAxes(axisG2, area, dataArea, null);
+            axisG2.dispose();
+        }
+        else {
+            axisStateMap = new HashMap();
+        }
 
         PlotOrientation orient = getOrientation();
 
@@ -3212,17 +3413,17 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
                         .get(getRangeAxis());
             }
         }
-        if (domainAxisState != null) {
+        if (domainAxisState != null && background) {
             drawDomainTickBands(g2, dataArea, domainAxisState.getTicks());
         }
-        if (rangeAxisState != null) {
+        if (rangeAxisState != null && background) {
             drawRangeTickBands(g2, dataArea, rangeAxisState.getTicks());
         }
-        if (domainAxisState != null) {
+        if (domainAxisState != null && background) {
             drawDomainGridlines(g2, dataArea, domainAxisState.getTicks());
             drawZeroDomainBaseline(g2, dataArea);
         }
-        if (rangeAxisState != null) {
+        if (rangeAxisState != null && background) {
             drawRangeGridlines(g2, dataArea, rangeAxisState.getTicks());
             drawZeroRangeBaseline(g2, dataArea);
         }
@@ -3230,7 +3431,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
         Graphics2D savedG2 = g2;
         BufferedImage dataImage = null;
         boolean suppressShadow = Boolean.TRUE.equals(g2.getRenderingHint(
-                JFreeChart.KEY_SUPPRESS_SHADOW_GENERATION));
+                JFreeChart.KEY_SUPPRESS_SHADOW_GENERATION)) || !data;
         if (this.shadowGenerator != null && !suppressShadow) {
             dataImage = new BufferedImage((int) dataArea.getWidth(),
                     (int)dataArea.getHeight(), BufferedImage.TYPE_INT_ARGB);
@@ -3240,13 +3441,17 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
         }
 
         // draw the markers that are associated with a specific dataset...
-        for (XYDataset dataset: this.datasets.values()) {
-            int datasetIndex = indexOf(dataset);
-            drawDomainMarkers(g2, dataArea, datasetIndex, Layer.BACKGROUND);
-        }
-        for (XYDataset dataset: this.datasets.values()) {
-            int datasetIndex = indexOf(dataset);
-            drawRangeMarkers(g2, dataArea, datasetIndex, Layer.BACKGROUND);
+        if (background) {
+            for (XYDataset dataset: this.datasets.values()) {
+                int datasetIndex = indexOf(dataset);
+                drawDomainMarkers(g2, dataArea, datasetIndex, 
+                        Layer.BACKGROUND);
+            }
+            for (XYDataset dataset: this.datasets.values()) {
+                int datasetIndex = indexOf(dataset);
+                drawRangeMarkers(g2, dataArea, datasetIndex, 
+                        Layer.BACKGROUND);
+            }
         }
 
         // now draw annotations and render data items...
@@ -3258,7 +3463,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
         // draw background annotations
         for (int i : rendererIndices) {
             XYItemRenderer renderer = getRenderer(i);
-            if (renderer != null) {
+            if (renderer != null && background) {
                 ValueAxis domainAxis = getDomainAxisForDataset(i);
                 ValueAxis rangeAxis = getRangeAxisForDataset(i);
                 renderer.drawAnnotations(g2, dataArea, domainAxis, rangeAxis, 
@@ -3267,16 +3472,17 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
         }
 
         // render data items...
-        for (int datasetIndex : datasetIndices) {
-            XYDataset dataset = this.getDataset(datasetIndex);
-            foundData = render(g2, dataArea, datasetIndex, info, 
-                    crosshairState) || foundData;
+        if (data) {
+            for (int datasetIndex : datasetIndices) {
+                foundData = render(g2, dataArea, datasetIndex, info, 
+                        crosshairState) || foundData;
+            }
         }
 
         // draw foreground annotations
         for (int i : rendererIndices) {
             XYItemRenderer renderer = getRenderer(i);
-            if (renderer != null) {
+            if (renderer != null && foreground) {
                     ValueAxis domainAxis = getDomainAxisForDataset(i);
                     ValueAxis rangeAxis = getRangeAxisForDataset(i);
                 renderer.drawAnnotations(g2, dataArea, domainAxis, rangeAxis, 
@@ -3284,60 +3490,61 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
             }
         }
 
-        // draw domain crosshair if required...
-        int datasetIndex = crosshairState.getDatasetIndex();
-        ValueAxis xAxis = getDomainAxisForDataset(datasetIndex);
-        RectangleEdge xAxisEdge = getDomainAxisEdge(getDomainAxisIndex(xAxis));
-        if (!this.domainCrosshairLockedOnData && anchor != null) {
-            double xx;
-            if (orient == PlotOrientation.VERTICAL) {
-                xx = xAxis.java2DToValue(anchor.getX(), dataArea, xAxisEdge);
-            }
-            else {
-                xx = xAxis.java2DToValue(anchor.getY(), dataArea, xAxisEdge);
+        // update the crosshair values (the crosshair state is only filled 
+        // in by the renderers when the data is drawn, other passes keep 
+        // the values from the last data pass)...
+        if (data) {
+            int datasetIndex = crosshairState.getDatasetIndex();
+            this.crosshairDatasetIndex = datasetIndex;
+            ValueAxis xAxis = getDomainAxisForDataset(datasetIndex);
+            RectangleEdge xAxisEdge = getDomainAxisEdge(
+                    getDomainAxisIndex(xAxis));
+            if (!this.domainCrosshairLockedOnData && anchor != null) {
+                double xx;
+                if (orient == PlotOrientation.VERTICAL) {
+                    xx = xAxis.java2DToValue(anchor.getX(), dataArea, 
+                            xAxisEdge);
+                }
+                else {
+                    xx = xAxis.java2DToValue(anchor.getY(), dataArea, 
+                            xAxisEdge);
+                }
+                crosshairState.setCrosshairX(xx);
             }
-            crosshairState.setCrosshairX(xx);
-        }
-        setDomainCrosshairValue(crosshairState.getCrosshairX(), false);
-        if (isDomainCrosshairVisible()) {
-            double x = getDomainCrosshairValue();
-            Paint paint = getDomainCrosshairPaint();
-            Stroke stroke = getDomainCrosshairStroke();
-            drawDomainCrosshair(g2, dataArea, orient, x, xAxis, stroke, paint);
-        }
-
-        // draw range crosshair if required...
-        ValueAxis yAxis = getRangeAxisForDataset(datasetIndex);
-        RectangleEdge yAxisEdge = getRangeAxisEdge(getRangeAxisIndex(yAxis));
-        if (!this.rangeCrosshairLockedOnData && anchor != null) {
-            double yy;
-            if (orient == PlotOrientation.VERTICAL) {
-                yy = yAxis.java2DToValue(anchor.getY(), dataArea, yAxisEdge);
-            } else {
-                yy = yAxis.java2DToValue(anchor.getX(), dataArea, yAxisEdge);
+            setDomainCrosshairValue(crosshairState.getCrosshairX(), false);
+            ValueAxis yAxis = getRangeAxisForDataset(datasetIndex);
+            RectangleEdge yAxisEdge = getRangeAxisEdge(
+                    getRangeAxisIndex(yAxis));
+            if (!this.rangeCrosshairLockedOnData && anchor != null) {
+                double yy;
+                if (orient == PlotOrientation.VERTICAL) {
+                    yy = yAxis.java2DToValue(anchor.getY(), dataArea, 
+                            yAxisEdge);
+                } else {
+                    yy = yAxis.java2DToValue(anchor.getX(), dataArea, 
+                            yAxisEdge);
+                }
+                crosshairState.setCrosshairY(yy);
             }
-            crosshairState.setCrosshairY(yy);
+            setRangeCrosshairValue(crosshairState.getCrosshairY(), false);
         }
-        setRangeCrosshairValue(crosshairState.getCrosshairY(), false);
-        if (isRangeCrosshairVisible()) {
-            double y = getRangeCrosshairValue();
-            Paint paint = getRangeCrosshairPaint();
-            Stroke stroke = getRangeCrosshairStroke();
-            drawRangeCrosshair(g2, dataArea, orient, y, yAxis, stroke, paint);
+        if (overlay) {
+            drawCrosshairs(g2, dataArea);
         }
 
-        if (!foundData) {
+        if (!foundData && data) {
             drawNoDataMessage(g2, dataArea);
         }
 
-        for (int i : rendererIndices) { 
-            drawDomainMarkers(g2, dataArea, i, Layer.FOREGROUND);
-        }
-        for (int i : rendererIndices) {
-            drawRangeMarkers(g2, dataArea, i, Layer.FOREGROUND);
+        if (foreground) {
+            for (int i : rendererIndices) { 
+                drawDomainMarkers(g2, dataArea, i, Layer.FOREGROUND);
+            }
+            for (int i : rendererIndices) {
+                drawRangeMarkers(g2, dataArea, i, Layer.FOREGROUND);
+            }
+            drawAnnotations(g2, dataArea, info);
         }
-
-        drawAnnotations(g2, dataArea, info);
         if (this.shadowGenerator != null && !suppressShadow) {
             BufferedImage shadowImage
                     = this.shadowGenerator.createDropShadow(dataImage);
@@ -3352,7 +3559,9 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
         g2.setClip(originalClip);
         g2.setComposite(originalComposite);
 
-        drawOutline(g2, dataArea);
+        if (foreground) {
+            drawOutline(g2, dataArea);
+        }
 
     }
 
@@ -3698,6 +3907,10 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
         XYDataset dataset = getDataset(index);
         if (!DatasetUtils.isEmptyOrNull(dataset)) {
             foundData = true;
+            RenderControl control = RenderControl.getRenderControl(g2);
+            if (control != null && control.isCancelled()) {
+                return foundData;
+            }
             ValueAxis xAxis = getDomainAxisForDataset(index);
             ValueAxis yAxis = getRangeAxisForDataset(index);
             if (xAxis == null || yAxis == null) {
@@ -3711,70 +3924,179 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
                 }
             }
 
+            if (dataset instanceof MultiResolutionXYDataset) {
+                double length = RectangleEdge.isTopOrBottom(
+                        getDomainAxisEdge()) ? dataArea.getWidth()
+                        : dataArea.getHeight();
+                // draw a view at a fixed resolution for this pass
+                dataset = ((MultiResolutionXYDataset) dataset).getView(
+                        xAxis.getRange(), length);
+            }
+            int passCount = renderer.getPassCount();
+            if (this.decimator != null) {
+                dataset = getDecimatedDataset(index, dataset, xAxis, dataArea);
+            }
+            else if (control != null && control.hasDeadline() 
+                    && isDecimationSupported(dataset)
+                    && isCoarseRenderingRequired(dataset, xAxis, dataArea, 
+                    passCount, control)) {
+                // not enough time to render every item, so render a coarse
+                // view now and leave the details to a later frame
+                dataset = DecimatedXYDataset.create(dataset, 
+                        new MinMaxXYDecimator(), xAxis, dataArea, 
+                        getDomainAxisEdge());
+                control.requireRefinement();
+            }
             XYItemRendererState state = renderer.initialise(g2, dataArea, this,
                     dataset, info);
-            int passCount = renderer.getPassCount();
-
-            SeriesRenderingOrder seriesOrder = getSeriesRenderingOrder();
-            if (seriesOrder == SeriesRenderingOrder.REVERSE) {
-                //render series in reverse order
-                for (int pass = 0; pass < passCount; pass++) {
-                    int seriesCount = dataset.getSeriesCount();
-                    for (int series = seriesCount - 1; series >= 0; series--) {
-                        int firstItem = 0;
-                        int lastItem = dataset.getItemCount(series) - 1;
-                        if (lastItem == -1) {
-                            continue;
-                        }
-                        if (state.getProcessVisibleItemsOnly()) {
-                            int[] itemBounds = RendererUtils.findLiveItems(
-                                    dataset, series, xAxis.getLowerBound(),
-                                    xAxis.getUpperBound());
-                            firstItem = Math.max(itemBounds[0] - 1, 0);
-                            lastItem = Math.min(itemBounds[1] + 1, lastItem);
-                        }
-                        state.startSeriesPass(dataset, series, firstItem,
-                                lastItem, pass, passCount);
-                        for (int item = firstItem; item <= lastItem; item++) {
-                            renderer.drawItem(g2, state, dataArea, info,
-                                    this, xAxis, yAxis, dataset, series, item,
-                                    crosshairState, pass);
-                        }
-                        state.endSeriesPass(dataset, series, firstItem,
-                                lastItem, pass, passCount);
-                    }
+            long itemCount = 0L;
+            long startTime = System.nanoTime();
+
+            // the entities for a decimated view are recorded against the
+            // dataset (and its item indices) once the view is drawn
+            EntityCollection entities = null;
+            int firstEntity = 0;
+            if (dataset instanceof DecimatedXYDataset && info != null
+                    && info.getOwner() != null) {
+                entities = info.getOwner().getEntityCollection();
+                if (entities != null) {
+                    firstEntity = entities.getEntityCount();
                 }
             }
-            else {
-                //render series in forward order
-                for (int pass = 0; pass < passCount; pass++) {
-                    int seriesCount = dataset.getSeriesCount();
-                    for (int series = 0; series < seriesCount; series++) {
-                        int firstItem = 0;
-                        int lastItem = dataset.getItemCount(series) - 1;
-                        if (state.getProcessVisibleItemsOnly()) {
-                            int[] itemBounds = RendererUtils.findLiveItems(
-                                    dataset, series, xAxis.getLowerBound(),
-                                    xAxis.getUpperBound());
-                            firstItem = Math.max(itemBounds[0] - 1, 0);
-                            lastItem = Math.min(itemBounds[1] + 1, lastItem);
+            try {
+                SeriesRenderingOrder seriesOrder = getSeriesRenderingOrder();
+                if (seriesOrder == SeriesRenderingOrder.REVERSE) {
+                    //render series in reverse order
+                    for (int pass = 0; pass < passCount; pass++) {
+                        int seriesCount = dataset.getSeriesCount();
+                        for (int series = seriesCount - 1; series >= 0; series--) {
+                            int firstItem = 0;
+                            int lastItem = dataset.getItemCount(series) - 1;
+                            if (lastItem == -1) {
+                                continue;
+                            }
+                            if (state.getProcessVisibleItemsOnly()) {
+                                int[] itemBounds = RendererUtils.findLiveItems(
+                                        dataset, series, xAxis.getLowerBound(),
+                                        xAxis.getUpperBound());
+                                firstItem = Math.max(itemBounds[0] - 1, 0);
+                                lastItem = Math.min(itemBounds[1] + 1, lastItem);
+                            }
+                            state.startSeriesPass(dataset, series, firstItem,
+                                    lastItem, pass, passCount);
+                            for (int item = firstItem; item <= lastItem; item++) {
+                                if (control != null && (item & 0x3FF) == 0 
+                                        && control.isCancelled()) {
+                                    return foundData;
+                                }
+                                renderer.drawItem(g2, state, dataArea, info,
+                                        this, xAxis, yAxis, dataset, series, item,
+                                        crosshairState, pass);
+                            }
+                            itemCount += lastItem - firstItem + 1;
+                            state.endSeriesPass(dataset, series, firstItem,
+                                    lastItem, pass, passCount);
                         }
-                        state.startSeriesPass(dataset, series, firstItem,
-                                lastItem, pass, passCount);
-                        for (int item = firstItem; item <= lastItem; item++) {
-                            renderer.drawItem(g2, state, dataArea, info,
-                                    this, xAxis, yAxis, dataset, series, item,
-                                    crosshairState, pass);
+                    }
+                }
+                else {
+                    //render series in forward order
+                    for (int pass = 0; pass < passCount; pass++) {
+                        int seriesCount = dataset.getSeriesCount();
+                        for (int series = 0; series < seriesCount; series++) {
+                            int firstItem = 0;
+                            int lastItem = dataset.getItemCount(series) - 1;
+                            if (state.getProcessVisibleItemsOnly()) {
+                                int[] itemBounds = RendererUtils.findLiveItems(
+                                        dataset, series, xAxis.getLowerBound(),
+                                        xAxis.getUpperBound());
+                                firstItem = Math.max(itemBounds[0] - 1, 0);
+                                lastItem = Math.min(itemBounds[1] + 1, lastItem);
+                            }
+                            state.startSeriesPass(dataset, series, firstItem,
+                                    lastItem, pass, passCount);
+                            for (int item = firstItem; item <= lastItem; item++) {
+                                if (control != null && (item & 0x3FF) == 0 
+                                        && control.isCancelled()) {
+                                    return foundData;
+                                }
+                                renderer.drawItem(g2, state, dataArea, info,
+                                        this, xAxis, yAxis, dataset, series, item,
+                                        crosshairState, pass);
+                            }
+                            itemCount += lastItem - firstItem + 1;
+                            state.endSeriesPass(dataset, series, firstItem,
+                                    lastItem, pass, passCount);
                         }
-                        state.endSeriesPass(dataset, series, firstItem,
-                                lastItem, pass, passCount);
                     }
                 }
+                updateItemRenderCost(itemCount, System.nanoTime() - startTime);
+            }
+            finally {
+                if (entities != null) {
+                    ((DecimatedXYDataset) dataset).mapEntities(entities,
+                            firstEntity);
+                }
             }
         }
         return foundData;
     }
 
+    /**
+     * Returns {@code true} if the visible items of a dataset cannot be 
+     * rendered within the time remaining for a render control (based on the
+     * time taken to render items previously), and a coarse view of the 
+     * dataset would have fewer items.
+     *
+     * @param dataset  the dataset.
+     * @param xAxis  the domain axis for the dataset.
+     * @param dataArea  the data area.
+     * @param passCount  the number of passes required by the renderer.
+     * @param control  the render control.
+     *
+     * @return A boolean.
+     */
+    private boolean isCoarseRenderingRequired(XYDataset dataset, 
+            ValueAxis xAxis, Rectangle2D dataArea, int passCount, 
+            RenderControl control) {
+        long items = 0L;
+        for (int series = 0; series < dataset.getSeriesCount(); series++) {
+            if (dataset.getItemCount(series) > 0) {
+                int[] bounds = RendererUtils.findLiveItems(dataset, series, 
+                        xAxis.getLowerBound(), xAxis.getUpperBound());
+                items += bounds[1] - bounds[0] + 1;
+            }
+        }
+        double length = RectangleEdge.isTopOrBottom(getDomainAxisEdge()) 
+                ? dataArea.getWidth() : dataArea.getHeight();
+        // the min-max decimator keeps up to four items per pixel
+        if (items <= 4 * length) {
+            return false;
+        }
+        double cost = this.itemRenderCost > 0.0 ? this.itemRenderCost 
+                : DEFAULT_ITEM_RENDER_COST;
+        return control.isExpired() 
+                || items * passCount * cost > control.getRemainingNanos();
+    }
+
+    /**
+     * Updates the estimated time to render one item.
+     *
+     * @param itemCount  the number of items rendered.
+     * @param elapsed  the time taken (in nanoseconds).
+     */
+    private void updateItemRenderCost(long itemCount, long elapsed) {
+        // small renders are dominated by fixed costs
+        if (itemCount < 1000) {
+            return;
+        }
+        double cost = (double) elapsed / itemCount;
+        if (this.itemRenderCost > 0.0) {
+            cost = (this.itemRenderCost + cost) / 2.0;
+        }
+        this.itemRenderCost = cost;
+    }
+
     /**
      * Returns the domain axis for a dataset.
      *
@@ -4143,6 +4465,39 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
 
     }
 
+    /**
+     * Draws the domain and range crosshairs (if they are visible) at the 
+     * current crosshair values.  This method is called by the 
+     * {@link #draw(Graphics2D, Rectangle2D, Point2D, PlotState, 
+     * PlotRenderingInfo)} method, and can also be called to draw the 
+     * crosshairs over a cached image of the plot (see 
+     * {@link org.jfree.chart.ChartLayer#OVERLAY}).
+     *
+     * @param g2  the graphics device.
+     * @param dataArea  the data area (as recorded when the plot was drawn).
+     *
+     * @since 1.5
+     */
+    public void drawCrosshairs(Graphics2D g2, Rectangle2D dataArea) {
+        PlotOrientation orient = getOrientation();
+        if (isDomainCrosshairVisible()) {
+            ValueAxis xAxis = getDomainAxisForDataset(
+                    this.crosshairDatasetIndex);
+            double x = getDomainCrosshairValue();
+            Paint paint = getDomainCrosshairPaint();
+            Stroke stroke = getDomainCrosshairStroke();
+            drawDomainCrosshair(g2, dataArea, orient, x, xAxis, stroke, paint);
+        }
+        if (isRangeCrosshairVisible()) {
+            ValueAxis yAxis = getRangeAxisForDataset(
+                    this.crosshairDatasetIndex);
+            double y = getRangeCrosshairValue();
+            Paint paint = getRangeCrosshairPaint();
+            Stroke stroke = getRangeCrosshairStroke();
+            drawRangeCrosshair(g2, dataArea, orient, y, yAxis, stroke, paint);
+        }
+    }
+
     /**
      * Draws a domain crosshair.
      *
@@ -4530,6 +4885,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
      */
     @Override
     public void datasetChanged(DatasetChangeEvent event) {
+        this.decimatedDatasets = null;
         configureDomainAxes();
         configureRangeAxes();
         if (getParent() != null) {
@@ -4581,7 +4937,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
     public void setDomainCrosshairVisible(boolean flag) {
         if (this.domainCrosshairVisible != flag) {
             this.domainCrosshairVisible = flag;
-            fireChangeEvent();
+            fireOverlayChangeEvent();
         }
     }
 
@@ -4649,7 +5005,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
     public void setDomainCrosshairValue(double value, boolean notify) {
         this.domainCrosshairValue = value;
         if (isDomainCrosshairVisible() && notify) {
-            fireChangeEvent();
+            fireOverlayChangeEvent();
         }
     }
 
@@ -4678,7 +5034,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
     public void setDomainCrosshairStroke(Stroke stroke) {
         Args.nullNotPermitted(stroke, "stroke");
         this.domainCrosshairStroke = stroke;
-        fireChangeEvent();
+        fireOverlayChangeEvent();
     }
 
     /**
@@ -4705,7 +5061,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
     public void setDomainCrosshairPaint(Paint paint) {
         Args.nullNotPermitted(paint, "paint");
         this.domainCrosshairPaint = paint;
-        fireChangeEvent();
+        fireOverlayChangeEvent();
     }
 
     /**
@@ -4732,7 +5088,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
     public void setRangeCrosshairVisible(boolean flag) {
         if (this.rangeCrosshairVisible != flag) {
             this.rangeCrosshairVisible = flag;
-            fireChangeEvent();
+            fireOverlayChangeEvent();
         }
     }
 
@@ -4802,7 +5158,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
     public void setRangeCrosshairValue(double value, boolean notify) {
         this.rangeCrosshairValue = value;
         if (isRangeCrosshairVisible() && notify) {
-            fireChangeEvent();
+            fireOverlayChangeEvent();
         }
     }
 
@@ -4831,7 +5187,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
     public void setRangeCrosshairStroke(Stroke stroke) {
         Args.nullNotPermitted(stroke, "stroke");
         this.rangeCrosshairStroke = stroke;
-        fireChangeEvent();
+        fireOverlayChangeEvent();
     }
 
     /**
@@ -4858,7 +5214,19 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
     public void setRangeCrosshairPaint(Paint paint) {
         Args.nullNotPermitted(paint, "paint");
         this.rangeCrosshairPaint = paint;
-        fireChangeEvent();
+        fireOverlayChangeEvent();
+    }
+
+    /**
+     * Sends a {@link PlotChangeEvent} for a change that only affects the 
+     * crosshairs (with the type 
+     * {@link ChartChangeEventType#OVERLAY_UPDATED}) to all registered 
+     * listeners.
+     */
+    private void fireOverlayChangeEvent() {
+        PlotChangeEvent event = new PlotChangeEvent(this);
+        event.setType(ChartChangeEventType.OVERLAY_UPDATED);
+        notifyListeners(event);
     }
 
     /**
@@ -5511,6 +5879,9 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
                 that.shadowGenerator)) {
             return false;
         }
+        if (!ObjectUtils.equal(this.decimator, that.decimator)) {
+            return false;
+        }
         return super.equals(obj);
     }
 
@@ -5588,6 +5959,7 @@ public class XYPlot extends Plot implements ValueAxisPlot, Pannable, Zoomable,
         clone.quadrantOrigin = (Point2D) ObjectUtils.clone(
                 this.quadrantOrigin);
         clone.quadrantPaint = this.quadrantPaint.clone();
+        clone.decimatedDatasets = null;
         return clone;
 
     }
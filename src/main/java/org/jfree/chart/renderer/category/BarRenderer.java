@@ -163,7 +163,8 @@ public class BarRenderer extends AbstractCategoryItemRenderer
      *
      * @since 1.0.11
      */
-    private static BarPainter defaultBarPainter = new GradientBarPainter();
+    private static volatile BarPainter defaultBarPainter 
+            = new GradientBarPainter();
 
     /**
      * Returns the default bar painter.
@@ -191,7 +192,7 @@ public class BarRenderer extends AbstractCategoryItemRenderer
     /**
      * The default value for the initialisation of the shadowsVisible flag.
      */
-    private static boolean defaultShadowsVisible = true;
+    private static volatile boolean defaultShadowsVisible = true;
 
     /**
      * Returns the default value for the {@code shadowsVisible} flag.
@@ -129,7 +129,7 @@ public class WindItemRenderer extends AbstractXYItemRenderer
 
         // get the data point...
 
-        Number x = windData.getX(series, item);
+        double x = windData.getXValue(series, item);
         Number windDir = windData.getWindDirection(series, item);
         Number wforce = windData.getWindForce(series, item);
         double windForce = wforce.doubleValue();
@@ -140,11 +140,11 @@ public class WindItemRenderer extends AbstractXYItemRenderer
 
         RectangleEdge domainAxisLocation = plot.getDomainAxisEdge();
         RectangleEdge rangeAxisLocation = plot.getRangeAxisEdge();
-        ax1 = domainAxis.valueToJava2D(x.doubleValue(), plotArea,
+        ax1 = domainAxis.valueToJava2D(x, plotArea,
                 domainAxisLocation);
         ay1 = rangeAxis.valueToJava2D(0.0, plotArea, rangeAxisLocation);
 
-        rax2 = x.doubleValue() + (windForce * Math.cos(wdirt) * 8000000.0);
+        rax2 = x + (windForce * Math.cos(wdirt) * 8000000.0);
         ray2 = windForce * Math.sin(wdirt);
 
         ax2 = domainAxis.valueToJava2D(rax2, plotArea, domainAxisLocation);
@@ -170,7 +170,7 @@ public class WindItemRenderer extends AbstractXYItemRenderer
         double aldir = Math.toRadians(windDir.doubleValue()
                 * (-30.0) - 90.0 - 5.0);
         ralx2 = wforce.doubleValue() * Math.cos(aldir) * 8000000 * 0.8
-        + x.doubleValue();
+        + x;
         raly2 = wforce.doubleValue() * Math.sin(aldir) * 0.8;
 
         alx2 = domainAxis.valueToJava2D(ralx2, plotArea, domainAxisLocation);
@@ -182,7 +182,7 @@ public class WindItemRenderer extends AbstractXYItemRenderer
         double ardir = Math.toRadians(windDir.doubleValue()
                 * (-30.0) - 90.0 + 5.0);
         rarx2 = wforce.doubleValue() * Math.cos(ardir) * 8000000 * 0.8
-                + x.doubleValue();
+                + x;
         rary2 = wforce.doubleValue() * Math.sin(ardir) * 0.8;
 
         arx2 = domainAxis.valueToJava2D(rarx2, plotArea, domainAxisLocation);
@@ -163,7 +163,8 @@ public class XYBarRenderer extends AbstractXYItemRenderer
      *
      * @since 1.0.11
      */
-    private static XYBarPainter defaultBarPainter = new GradientXYBarPainter();
+    private static volatile XYBarPainter defaultBarPainter 
+            = new GradientXYBarPainter();
 
     /**
      * Returns the default bar painter.
@@ -191,7 +192,7 @@ public class XYBarRenderer extends AbstractXYItemRenderer
     /**
      * The default value for the initialisation of the shadowsVisible flag.
      */
-    private static boolean defaultShadowsVisible = true;
+    private static volatile boolean defaultShadowsVisible = true;
 
     /**
      * Returns the default value for the {@code shadowsVisible} flag.
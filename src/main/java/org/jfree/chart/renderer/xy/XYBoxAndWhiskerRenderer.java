@@ -385,7 +385,7 @@ public class XYBoxAndWhiskerRenderer extends AbstractXYItemRenderer
         BoxAndWhiskerXYDataset boxAndWhiskerData
                 = (BoxAndWhiskerXYDataset) dataset;
 
-        Number x = boxAndWhiskerData.getX(series, item);
+        double x = boxAndWhiskerData.getXValue(series, item);
         Number yMax = boxAndWhiskerData.getMaxRegularValue(series, item);
         Number yMin = boxAndWhiskerData.getMinRegularValue(series, item);
         Number yMedian = boxAndWhiskerData.getMedianValue(series, item);
@@ -393,7 +393,7 @@ public class XYBoxAndWhiskerRenderer extends AbstractXYItemRenderer
         Number yQ1Median = boxAndWhiskerData.getQ1Value(series, item);
         Number yQ3Median = boxAndWhiskerData.getQ3Value(series, item);
 
-        double xx = domainAxis.valueToJava2D(x.doubleValue(), dataArea,
+        double xx = domainAxis.valueToJava2D(x, dataArea,
                 plot.getDomainAxisEdge());
 
         RectangleEdge location = plot.getRangeAxisEdge();
@@ -525,7 +525,7 @@ public class XYBoxAndWhiskerRenderer extends AbstractXYItemRenderer
         BoxAndWhiskerXYDataset boxAndWhiskerData
             = (BoxAndWhiskerXYDataset) dataset;
 
-        Number x = boxAndWhiskerData.getX(series, item);
+        double x = boxAndWhiskerData.getXValue(series, item);
         Number yMax = boxAndWhiskerData.getMaxRegularValue(series, item);
         Number yMin = boxAndWhiskerData.getMinRegularValue(series, item);
         Number yMedian = boxAndWhiskerData.getMedianValue(series, item);
@@ -539,7 +539,7 @@ public class XYBoxAndWhiskerRenderer extends AbstractXYItemRenderer
             yOutliers = Collections.EMPTY_LIST;
         }
 
-        double xx = domainAxis.valueToJava2D(x.doubleValue(), dataArea,
+        double xx = domainAxis.valueToJava2D(x, dataArea,
                 plot.getDomainAxisEdge());
 
         RectangleEdge location = plot.getRangeAxisEdge();
@@ -0,0 +1,166 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ----------------
+ * CachedChart.java
+ * ----------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.servlet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+import org.jfree.chart.util.Args;
+
+/**
+ * A rendered chart image held by a {@link ChartImageCache}.  Instances are
+ * immutable.
+ *
+ * @since 1.5
+ */
+public final class CachedChart implements Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 6023165429875215361L;
+
+    /** The token that identifies the image. */
+    private final String token;
+
+    /** The encoded image. */
+    private final byte[] data;
+
+    /** The MIME type of the image. */
+    private final String mimeType;
+
+    /** The time the image was created (milliseconds since the epoch). */
+    private final long lastModified;
+
+    /**
+     * Creates a new instance.  The array {@code data} is not copied, so the 
+     * caller must not modify it afterwards.
+     *
+     * @param token  the token ({@code null} not permitted).
+     * @param data  the encoded image ({@code null} not permitted).
+     * @param mimeType  the MIME type ({@code null} not permitted).
+     * @param lastModified  the time the image was created.
+     */
+    CachedChart(String token, byte[] data, String mimeType, 
+            long lastModified) {
+        Args.nullNotPermitted(token, "token");
+        Args.nullNotPermitted(data, "data");
+        Args.nullNotPermitted(mimeType, "mimeType");
+        this.token = token;
+        this.data = data;
+        this.mimeType = mimeType;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Returns the token that identifies the image in the cache.
+     *
+     * @return The token (never {@code null}).
+     */
+    public String getToken() {
+        return this.token;
+    }
+
+    /**
+     * Returns the MIME type of the image (for example "image/png").
+     *
+     * @return The MIME type (never {@code null}).
+     */
+    public String getMimeType() {
+        return this.mimeType;
+    }
+
+    /**
+     * Returns the time that the image was created, in milliseconds since 
+     * the epoch.
+     *
+     * @return The time.
+     */
+    public long getLastModified() {
+        return this.lastModified;
+    }
+
+    /**
+     * Returns the entity tag for the image, for use in the HTTP 
+     * {@code ETag} header.  Since the image for a token never changes, the 
+     * tag is derived from the token.
+     *
+     * @return The entity tag, including the surrounding quotes.
+     */
+    public String getETag() {
+        return "\"" + this.token + "\"";
+    }
+
+    /**
+     * Returns the length of the encoded image in bytes.
+     *
+     * @return The length.
+     */
+    public int getLength() {
+        return this.data.length;
+    }
+
+    /**
+     * Returns a copy of the encoded image.
+     *
+     * @return The image bytes (never {@code null}).
+     */
+    public byte[] getData() {
+        return (byte[]) this.data.clone();
+    }
+
+    /**
+     * Writes the encoded image to the specified stream.
+     *
+     * @param out  the output stream ({@code null} not permitted).
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        Args.nullNotPermitted(out, "out");
+        out.write(this.data);
+    }
+
+    /**
+     * Returns the encoded image without copying it (for use by the cache).
+     *
+     * @return The image bytes.
+     */
+    byte[] getDataArray() {
+        return this.data;
+    }
+
+}
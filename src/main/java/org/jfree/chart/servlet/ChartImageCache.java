@@ -0,0 +1,726 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------------
+ * ChartImageCache.java
+ * --------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.servlet;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.jfree.chart.util.Args;
+
+/**
+ * An in-memory store for rendered chart images, used by 
+ * {@link ServletUtilities} and the {@link DisplayCachedChart} servlet to 
+ * serve charts without writing them to the temporary directory.  Each image 
+ * is identified by an opaque, randomly generated token.
+ * <p>
+ * The total size of the images held in memory is limited: when the limit is
+ * exceeded the least recently used images are evicted.  If a spill directory
+ * has been specified, evicted images are written to that directory (and read
+ * back on demand) rather than discarded, up to a separate limit for the 
+ * total size of the spilled images (beyond which the oldest spilled images 
+ * are deleted).  Images expire (and are removed from both memory and the 
+ * spill directory) when they are older than the time-to-live.
+ * <p>
+ * Instances of this class are thread-safe.  Files are read, written and 
+ * deleted without holding the lock on the cache, so a slow disk does not 
+ * hold up requests for the images in memory.
+ *
+ * @since 1.5
+ */
+public class ChartImageCache {
+
+    /** The default maximum size (32MB). */
+    public static final long DEFAULT_MAXIMUM_SIZE = 32L * 1024L * 1024L;
+
+    /** The default maximum size for the spilled images (256MB). */
+    public static final long DEFAULT_MAXIMUM_SPILL_SIZE 
+            = 256L * 1024L * 1024L;
+
+    /** The default time-to-live (10 minutes). */
+    public static final long DEFAULT_TIME_TO_LIVE = 10L * 60L * 1000L;
+
+    /** The number of random bytes in a token. */
+    private static final int TOKEN_BYTES = 16;
+
+    /** Hex digits for the tokens. */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** The maximum number of bytes held in memory. */
+    private long maximumSize;
+
+    /** The maximum number of bytes in the spilled images. */
+    private long maximumSpillSize;
+
+    /** The time-to-live for an image, in milliseconds. */
+    private long timeToLive;
+
+    /** The directory for evicted images ({@code null} permitted). */
+    private File spillDirectory;
+
+    /** The images held in memory, in least-recently-used order. */
+    private LinkedHashMap entries;
+
+    /** The number of bytes held in memory. */
+    private long size;
+
+    /** The images that have been spilled to disk, by token, oldest first. */
+    private LinkedHashMap spilled;
+
+    /** The number of bytes in the spilled images. */
+    private long spilledSize;
+
+    /** The time at which images are next checked for expiry by add(). */
+    private long nextPurge;
+
+    /** The source for the tokens. */
+    private SecureRandom random;
+
+    /**
+     * Creates a new cache with the default maximum size and time-to-live, 
+     * and no spill directory.
+     */
+    public ChartImageCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Creates a new cache with no spill directory.
+     *
+     * @param maximumSize  the maximum number of bytes held in memory (must 
+     *     be non-negative).
+     * @param timeToLive  the time-to-live for each image, in milliseconds 
+     *     (must be positive).
+     */
+    public ChartImageCache(long maximumSize, long timeToLive) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Requires maximumSize >= 0.");
+        }
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("Requires timeToLive > 0.");
+        }
+        this.maximumSize = maximumSize;
+        this.maximumSpillSize = DEFAULT_MAXIMUM_SPILL_SIZE;
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap(16, 0.75f, true);
+        this.spilled = new LinkedHashMap();
+        this.random = new SecureRandom();
+    }
+
+    /**
+     * Returns the maximum number of bytes held in memory.
+     *
+     * @return The maximum size.
+     */
+    public synchronized long getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * Sets the maximum number of bytes held in memory, evicting images if 
+     * necessary.
+     *
+     * @param maximumSize  the maximum size (must be non-negative).
+     */
+    public void setMaximumSize(long maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Requires maximumSize >= 0.");
+        }
+        List spills;
+        List deletes = new ArrayList();
+        synchronized (this) {
+            this.maximumSize = maximumSize;
+            spills = evict(deletes);
+        }
+        writeSpills(spills);
+        deleteFiles(deletes);
+    }
+
+    /**
+     * Returns the maximum number of bytes in the images that are spilled to
+     * disk.  The default value is {@link #DEFAULT_MAXIMUM_SPILL_SIZE}.
+     *
+     * @return The maximum size.
+     */
+    public synchronized long getMaximumSpillSize() {
+        return this.maximumSpillSize;
+    }
+
+    /**
+     * Sets the maximum number of bytes in the images that are spilled to 
+     * disk, deleting the oldest spilled images if necessary.
+     *
+     * @param maximumSpillSize  the maximum size (must be non-negative).
+     */
+    public void setMaximumSpillSize(long maximumSpillSize) {
+        if (maximumSpillSize < 0) {
+            throw new IllegalArgumentException(
+                    "Requires maximumSpillSize >= 0.");
+        }
+        List deletes = new ArrayList();
+        synchronized (this) {
+            this.maximumSpillSize = maximumSpillSize;
+            trimSpilled(deletes);
+        }
+        deleteFiles(deletes);
+    }
+
+    /**
+     * Returns the time-to-live for each image, in milliseconds.
+     *
+     * @return The time-to-live.
+     */
+    public synchronized long getTimeToLive() {
+        return this.timeToLive;
+    }
+
+    /**
+     * Sets the time-to-live for each image, in milliseconds.
+     *
+     * @param timeToLive  the time-to-live (must be positive).
+     */
+    public synchronized void setTimeToLive(long timeToLive) {
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("Requires timeToLive > 0.");
+        }
+        this.timeToLive = timeToLive;
+        this.nextPurge = 0L;
+    }
+
+    /**
+     * Returns the directory that evicted images are written to.
+     *
+     * @return The directory (possibly {@code null}).
+     */
+    public synchronized File getSpillDirectory() {
+        return this.spillDirectory;
+    }
+
+    /**
+     * Sets the directory that evicted images are written to (the directory 
+     * is created if it does not exist).  If this is {@code null}, evicted 
+     * images are discarded.  Images that have already been spilled to the
+     * previous directory remain available until they expire.
+     *
+     * @param directory  the directory ({@code null} permitted).
+     */
+    public void setSpillDirectory(File directory) {
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs();
+        }
+        synchronized (this) {
+            this.spillDirectory = directory;
+        }
+    }
+
+    /**
+     * Returns the number of bytes currently held in memory.
+     *
+     * @return The size.
+     */
+    public synchronized long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of images currently held in memory.
+     *
+     * @return The image count.
+     */
+    public synchronized int getItemCount() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the number of bytes in the images currently spilled to disk.
+     *
+     * @return The size.
+     */
+    public synchronized long getSpilledSize() {
+        return this.spilledSize;
+    }
+
+    /**
+     * Returns the number of images currently spilled to disk.
+     *
+     * @return The image count.
+     */
+    public synchronized int getSpilledItemCount() {
+        return this.spilled.size();
+    }
+
+    /**
+     * Adds an image to the cache and returns the token that identifies it.
+     *
+     * @param data  the encoded image ({@code null} not permitted).
+     * @param mimeType  the MIME type of the image ({@code null} not 
+     *     permitted).
+     *
+     * @return The token (never {@code null}).
+     */
+    public String put(byte[] data, String mimeType) {
+        Args.nullNotPermitted(data, "data");
+        return add((byte[]) data.clone(), mimeType);
+    }
+
+    /**
+     * Adds an image to the cache without copying the data.  Expired images 
+     * are purged at most once per quarter of the time-to-live, rather than 
+     * on every call, since that requires a pass over all the images.
+     *
+     * @param data  the encoded image ({@code null} not permitted).
+     * @param mimeType  the MIME type ({@code null} not permitted).
+     *
+     * @return The token.
+     */
+    String add(byte[] data, String mimeType) {
+        Args.nullNotPermitted(data, "data");
+        Args.nullNotPermitted(mimeType, "mimeType");
+        String token;
+        List spills;
+        List deletes = new ArrayList();
+        synchronized (this) {
+            long now = currentTimeMillis();
+            if (now >= this.nextPurge) {
+                purgeExpired(now, deletes);
+                this.nextPurge = now + Math.max(this.timeToLive / 4, 1L);
+            }
+            token = createToken();
+            CachedChart chart = new CachedChart(token, data, mimeType, now);
+            this.entries.put(token, chart);
+            this.size += data.length;
+            spills = evict(deletes);
+        }
+        writeSpills(spills);
+        deleteFiles(deletes);
+        return token;
+    }
+
+    /**
+     * Returns the image for the specified token, or {@code null} if there is
+     * no such image (or it has expired).
+     *
+     * @param token  the token ({@code null} permitted).
+     *
+     * @return The image (possibly {@code null}).
+     */
+    public CachedChart get(String token) {
+        if (token == null) {
+            return null;
+        }
+        SpilledChart s;
+        synchronized (this) {
+            long now = currentTimeMillis();
+            CachedChart chart = (CachedChart) this.entries.get(token);
+            if (chart != null) {
+                if (!isExpired(chart.getLastModified(), now)) {
+                    return chart;
+                }
+                s = null;
+            }
+            else {
+                s = (SpilledChart) this.spilled.get(token);
+                if (s == null) {
+                    return null;
+                }
+                if (isExpired(s.lastModified, now)) {
+                    s = null;
+                }
+                else if (s.pending != null) {
+                    return s.pending;  // the file is still being written
+                }
+            }
+        }
+        if (s == null) {
+            remove(token);  // the image has expired
+            return null;
+        }
+        try {
+            return new CachedChart(token, readFile(s.file), s.mimeType, 
+                    s.lastModified);
+        }
+        catch (IOException e) {
+            remove(token);
+            return null;
+        }
+    }
+
+    /**
+     * Removes the image for the specified token.
+     *
+     * @param token  the token ({@code null} permitted).
+     *
+     * @return A boolean indicating whether or not an image was removed.
+     */
+    public boolean remove(String token) {
+        List deletes = new ArrayList(1);
+        synchronized (this) {
+            CachedChart chart = (CachedChart) this.entries.remove(token);
+            if (chart != null) {
+                this.size -= chart.getLength();
+                return true;
+            }
+            SpilledChart s = (SpilledChart) this.spilled.remove(token);
+            if (s == null) {
+                return false;
+            }
+            removedSpilled(s, deletes);
+        }
+        deleteFiles(deletes);
+        return true;
+    }
+
+    /**
+     * Removes all images from the cache, including those spilled to disk.
+     */
+    public void clear() {
+        List deletes = new ArrayList();
+        synchronized (this) {
+            this.entries.clear();
+            this.size = 0L;
+            Iterator iterator = this.spilled.values().iterator();
+            while (iterator.hasNext()) {
+                removedSpilled((SpilledChart) iterator.next(), deletes);
+            }
+            this.spilled.clear();
+        }
+        deleteFiles(deletes);
+    }
+
+    /**
+     * Removes all images that have expired.  This is done periodically when
+     * images are added, so calling this method is only necessary to release
+     * memory (or disk space) promptly when the cache is idle.
+     */
+    public void purgeExpired() {
+        List deletes = new ArrayList();
+        synchronized (this) {
+            purgeExpired(currentTimeMillis(), deletes);
+        }
+        deleteFiles(deletes);
+    }
+
+    /**
+     * Removes all images that have expired.  The caller must hold the lock 
+     * on this cache.
+     *
+     * @param now  the current time.
+     * @param deletes  a list that the files to delete are added to.
+     */
+    private void purgeExpired(long now, List deletes) {
+        Iterator iterator = this.entries.values().iterator();
+        while (iterator.hasNext()) {
+            CachedChart chart = (CachedChart) iterator.next();
+            if (isExpired(chart.getLastModified(), now)) {
+                iterator.remove();
+                this.size -= chart.getLength();
+            }
+        }
+        iterator = this.spilled.values().iterator();
+        while (iterator.hasNext()) {
+            SpilledChart s = (SpilledChart) iterator.next();
+            if (isExpired(s.lastModified, now)) {
+                iterator.remove();
+                removedSpilled(s, deletes);
+            }
+        }
+    }
+
+    /**
+     * Returns the current time in milliseconds.  Subclasses can override
+     * this (for testing, for example).
+     *
+     * @return The current time.
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Returns {@code true} if an image created at the specified time has 
+     * expired.
+     *
+     * @param lastModified  the time the image was created.
+     * @param now  the current time.
+     *
+     * @return A boolean.
+     */
+    private boolean isExpired(long lastModified, long now) {
+        return now - lastModified >= this.timeToLive;
+    }
+
+    /**
+     * Updates the spilled size for an image that has been removed from the
+     * spilled images, and adds its file to the list of files to delete 
+     * (unless the file is still being written, in which case the writer
+     * deletes it).  The caller must hold the lock on this cache.
+     *
+     * @param s  the spilled image.
+     * @param deletes  a list that the files to delete are added to.
+     */
+    private void removedSpilled(SpilledChart s, List deletes) {
+        this.spilledSize -= s.length;
+        if (s.pending == null) {
+            deletes.add(s.file);
+        }
+    }
+
+    /**
+     * Evicts the least recently used images until the images held in memory
+     * fit within the maximum size.  If there is a spill directory, the 
+     * evicted images are recorded as spilled (and remain available from 
+     * memory) until the caller writes them with 
+     * {@link #writeSpills(List)}.  The caller must hold the lock on this 
+     * cache.
+     *
+     * @param deletes  a list that the files to delete are added to.
+     *
+     * @return The images to write to the spill directory.
+     */
+    private List evict(List deletes) {
+        List result = new ArrayList();
+        Iterator iterator = this.entries.values().iterator();
+        while (this.size > this.maximumSize && iterator.hasNext()) {
+            CachedChart chart = (CachedChart) iterator.next();
+            iterator.remove();
+            this.size -= chart.getLength();
+            if (this.spillDirectory != null) {
+                File file = new File(this.spillDirectory, "jfreechart-" 
+                        + chart.getToken() + suffix(chart.getMimeType()));
+                SpilledChart s = new SpilledChart(file, chart);
+                this.spilled.put(chart.getToken(), s);
+                this.spilledSize += s.length;
+                result.add(s);
+            }
+        }
+        trimSpilled(deletes);
+        return result;
+    }
+
+    /**
+     * Removes the oldest spilled images until the spilled images fit within
+     * the maximum spill size.  The caller must hold the lock on this cache.
+     *
+     * @param deletes  a list that the files to delete are added to.
+     */
+    private void trimSpilled(List deletes) {
+        Iterator iterator = this.spilled.values().iterator();
+        while (this.spilledSize > this.maximumSpillSize 
+                && iterator.hasNext()) {
+            SpilledChart s = (SpilledChart) iterator.next();
+            iterator.remove();
+            removedSpilled(s, deletes);
+        }
+    }
+
+    /**
+     * Writes images to the spill directory.  This must be called without 
+     * holding the lock on this cache, by the thread that evicted the images.
+     * If an image cannot be written, or is removed from the cache while it 
+     * is being written, its file is deleted.
+     *
+     * @param spills  the images (instances of {@code SpilledChart}).
+     */
+    private void writeSpills(List spills) {
+        Iterator iterator = spills.iterator();
+        while (iterator.hasNext()) {
+            SpilledChart s = (SpilledChart) iterator.next();
+            CachedChart chart = s.pending;
+            boolean written = writeFile(s.file, chart);
+            boolean keep;
+            synchronized (this) {
+                boolean current = this.spilled.get(chart.getToken()) == s;
+                keep = written && current;
+                if (keep) {
+                    s.pending = null;
+                }
+                else if (current) {
+                    this.spilled.remove(chart.getToken());
+                    this.spilledSize -= s.length;
+                }
+            }
+            if (!keep) {
+                s.file.delete();
+            }
+        }
+    }
+
+    /**
+     * Deletes files.  This must be called without holding the lock on this
+     * cache.
+     *
+     * @param files  the files (instances of {@code File}).
+     */
+    private static void deleteFiles(List files) {
+        Iterator iterator = files.iterator();
+        while (iterator.hasNext()) {
+            ((File) iterator.next()).delete();
+        }
+    }
+
+    /**
+     * Returns a file name suffix for a MIME type.
+     *
+     * @param mimeType  the MIME type.
+     *
+     * @return The suffix.
+     */
+    private static String suffix(String mimeType) {
+        if ("image/png".equals(mimeType)) {
+            return ".png";
+        }
+        if ("image/jpeg".equals(mimeType)) {
+            return ".jpeg";
+        }
+        return ".tmp";
+    }
+
+    /**
+     * Writes an image to a file.
+     *
+     * @param file  the file.
+     * @param chart  the image.
+     *
+     * @return A boolean indicating whether or not the image was written.
+     */
+    private static boolean writeFile(File file, CachedChart chart) {
+        try {
+            OutputStream out = new FileOutputStream(file);
+            try {
+                chart.writeTo(out);
+            }
+            finally {
+                out.close();
+            }
+            return true;
+        }
+        catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the contents of a file.
+     *
+     * @param file  the file.
+     *
+     * @return The contents.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static byte[] readFile(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] data = new byte[(int) file.length()];
+            new DataInputStream(in).readFully(data);
+            return data;
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Creates a new token that is not in use.
+     *
+     * @return The token.
+     */
+    private String createToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        String token;
+        do {
+            this.random.nextBytes(bytes);
+            char[] chars = new char[TOKEN_BYTES * 2];
+            for (int i = 0; i < TOKEN_BYTES; i++) {
+                chars[2 * i] = HEX[(bytes[i] >> 4) & 0x0F];
+                chars[2 * i + 1] = HEX[bytes[i] & 0x0F];
+            }
+            token = new String(chars);
+        } while (this.entries.containsKey(token) 
+                || this.spilled.containsKey(token));
+        return token;
+    }
+
+    /**
+     * The details of an image that has been spilled to disk.
+     */
+    private static class SpilledChart {
+
+        /** The file. */
+        final File file;
+
+        /** The MIME type. */
+        final String mimeType;
+
+        /** The time the image was created. */
+        final long lastModified;
+
+        /** The size of the image in bytes. */
+        final long length;
+
+        /** 
+         * The image while the file is being written, otherwise {@code null}
+         * (guarded by the lock on the cache, but read without the lock by
+         * the thread that writes the file).
+         */
+        CachedChart pending;
+
+        /**
+         * Creates a new instance for an image that is about to be written.
+         *
+         * @param file  the file.
+         * @param chart  the image.
+         */
+        SpilledChart(File file, CachedChart chart) {
+            this.file = file;
+            this.mimeType = chart.getMimeType();
+            this.lastModified = chart.getLastModified();
+            this.length = chart.getLength();
+            this.pending = chart;
+        }
+    }
+
+}
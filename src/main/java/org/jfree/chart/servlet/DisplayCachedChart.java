@@ -0,0 +1,106 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -----------------------
+ * DisplayCachedChart.java
+ * -----------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.servlet;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Servlet used for streaming charts to the client browser from the 
+ * in-memory chart cache (see {@link ServletUtilities#getChartCache()}).  
+ * Charts are added to the cache with 
+ * {@link ServletUtilities#cacheChartAsPNG(org.jfree.chart.JFreeChart, int, 
+ * int, org.jfree.chart.ChartRenderingInfo)} and requested with the returned
+ * token in the "token" parameter.  Responses carry {@code ETag} and 
+ * {@code Last-Modified} headers, and conditional requests for an unchanged
+ * chart receive a 304 (Not Modified) response.  You need to add this 
+ * servlet and mapping to your deployment descriptor (web.xml) in order to 
+ * get it to work.  The syntax is as follows:
+ * 
+ * &lt;xmp&gt;
+ * &lt;servlet&gt;
+ *    &lt;servlet-name&gt;DisplayCachedChart&lt;/servlet-name&gt;
+ *    &lt;servlet-class&gt;org.jfree.chart.servlet.DisplayCachedChart&lt;/servlet-class&gt;
+ * &lt;/servlet&gt;
+ * &lt;servlet-mapping&gt;
+ *     &lt;servlet-name&gt;DisplayCachedChart&lt;/servlet-name&gt;
+ *     &lt;url-pattern&gt;/servlet/DisplayCachedChart&lt;/url-pattern&gt;
+ * &lt;/servlet-mapping&gt;
+ * &lt;/xmp&gt;
+ *
+ * @since 1.5
+ */
+public class DisplayCachedChart extends HttpServlet {
+
+    /**
+     * Default constructor.
+     */
+    public DisplayCachedChart() {
+        super();
+    }
+
+    /**
+     * Sends the chart identified by the "token" parameter, or a 404 (Not 
+     * Found) response if the chart is not in the cache.
+     *
+     * @param request  the request.
+     * @param response  the response.
+     *
+     * @throws ServletException if the "token" parameter is missing.
+     * @throws IOException if there is an I/O problem.
+     */
+    @Override
+    protected void doGet(HttpServletRequest request,
+            HttpServletResponse response) throws ServletException, 
+            IOException {
+        String token = request.getParameter("token");
+        if (token == null) {
+            throw new ServletException("Parameter 'token' must be supplied");
+        }
+        CachedChart chart = ServletUtilities.getChartCache().get(token);
+        if (chart == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        ServletUtilities.sendCachedChart(chart, request, response);
+    }
+
+}
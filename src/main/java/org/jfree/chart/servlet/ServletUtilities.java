@@ -59,6 +59,7 @@ package org.jfree.chart.servlet;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -68,6 +69,7 @@ import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
@@ -87,6 +89,9 @@ public class ServletUtilities {
     /** A prefix for "one time" charts. */
     private static String tempOneTimeFilePrefix = "jfreechart-onetime-";
 
+    /** The in-memory store for rendered charts. */
+    private static volatile ChartImageCache chartCache = new ChartImageCache();
+
     /**
      * Returns the prefix for the temporary file names generated by this class.
      *
@@ -260,6 +265,162 @@ public class ServletUtilities {
 
     }
 
+    /**
+     * Returns the in-memory store used by the {@code cacheChartAs...()} 
+     * methods and the {@link DisplayCachedChart} servlet.
+     *
+     * @return The cache (never {@code null}).
+     *
+     * @since 1.5
+     */
+    public static ChartImageCache getChartCache() {
+        return ServletUtilities.chartCache;
+    }
+
+    /**
+     * Sets the in-memory store used by the {@code cacheChartAs...()} 
+     * methods and the {@link DisplayCachedChart} servlet.
+     *
+     * @param cache  the cache ({@code null} not permitted).
+     *
+     * @since 1.5
+     */
+    public static void setChartCache(ChartImageCache cache) {
+        Args.nullNotPermitted(cache, "cache");
+        ServletUtilities.chartCache = cache;
+    }
+
+    /**
+     * Renders the chart in PNG format and adds it to the chart cache (see
+     * {@link #getChartCache()}), without writing to the temporary 
+     * directory.  The chart can be served to clients by the 
+     * {@link DisplayCachedChart} servlet using the returned token.
+     *
+     * @param chart  the chart ({@code null} not permitted).
+     * @param width  the width of the chart.
+     * @param height  the height of the chart.
+     * @param info  the ChartRenderingInfo object to be populated
+     *              ({@code null} permitted).
+     *
+     * @return The token for the chart in the cache.
+     *
+     * @throws IOException if there is a problem encoding the image.
+     *
+     * @since 1.5
+     */
+    public static String cacheChartAsPNG(JFreeChart chart, int width,
+            int height, ChartRenderingInfo info) throws IOException {
+        Args.nullNotPermitted(chart, "chart");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ChartUtils.writeChartAsPNG(out, chart, width, height, info);
+        return ServletUtilities.chartCache.add(out.toByteArray(), 
+                "image/png");
+    }
+
+    /**
+     * Renders the chart in JPEG format and adds it to the chart cache (see
+     * {@link #getChartCache()}), without writing to the temporary 
+     * directory.  The chart can be served to clients by the 
+     * {@link DisplayCachedChart} servlet using the returned token.
+     *
+     * @param chart  the chart ({@code null} not permitted).
+     * @param width  the width of the chart.
+     * @param height  the height of the chart.
+     * @param info  the ChartRenderingInfo object to be populated
+     *              ({@code null} permitted).
+     *
+     * @return The token for the chart in the cache.
+     *
+     * @throws IOException if there is a problem encoding the image.
+     *
+     * @since 1.5
+     */
+    public static String cacheChartAsJPEG(JFreeChart chart, int width,
+            int height, ChartRenderingInfo info) throws IOException {
+        Args.nullNotPermitted(chart, "chart");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ChartUtils.writeChartAsJPEG(out, chart, width, height, info);
+        return ServletUtilities.chartCache.add(out.toByteArray(), 
+                "image/jpeg");
+    }
+
+    /**
+     * Sends a cached chart to the HTTP response, with {@code ETag} and
+     * {@code Last-Modified} headers.  If the request carries an
+     * {@code If-None-Match} header matching the chart (or, in the absence of
+     * that header, an {@code If-Modified-Since} header that is not earlier
+     * than the chart), a 304 (Not Modified) response is sent instead of the
+     * image.
+     *
+     * @param chart  the chart ({@code null} not permitted).
+     * @param request  the HTTP request ({@code null} not permitted).
+     * @param response  the HTTP response ({@code null} not permitted).
+     *
+     * @throws IOException if there is an I/O problem.
+     *
+     * @since 1.5
+     */
+    public static void sendCachedChart(CachedChart chart,
+            HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Args.nullNotPermitted(chart, "chart");
+        Args.nullNotPermitted(request, "request");
+        Args.nullNotPermitted(response, "response");
+
+        // HTTP dates have a resolution of one second
+        long lastModified = chart.getLastModified() / 1000L * 1000L;
+        response.setHeader("ETag", chart.getETag());
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Cache-Control", "private");
+
+        boolean notModified;
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            notModified = matchesETag(ifNoneMatch, chart.getETag());
+        }
+        else {
+            long ifModifiedSince;
+            try {
+                ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            }
+            catch (IllegalArgumentException e) {
+                ifModifiedSince = -1L;  // ignore a malformed header
+            }
+            notModified = ifModifiedSince >= 0L 
+                    && lastModified <= ifModifiedSince;
+        }
+        if (notModified) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType(chart.getMimeType());
+        response.setContentLength(chart.getLength());
+        chart.writeTo(response.getOutputStream());
+    }
+
+    /**
+     * Returns {@code true} if an {@code If-None-Match} header value matches
+     * the specified entity tag (weak comparison).
+     *
+     * @param header  the header value.
+     * @param eTag  the entity tag.
+     *
+     * @return A boolean.
+     */
+    private static boolean matchesETag(String header, String eTag) {
+        String[] tags = header.split(",");
+        for (int i = 0; i < tags.length; i++) {
+            String tag = tags[i].trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Creates the temporary directory if it does not exist.  Throws a
      * {@code RuntimeException} if the temporary directory is
@@ -55,19 +55,19 @@ public class TextUtils {
      * 
      * http://www.jfree.org/phpBB2/viewtopic.php?p=45459&highlight=#45459
      */
-    private static boolean drawStringsWithFontAttributes = false;
+    private static volatile boolean drawStringsWithFontAttributes = false;
     
     /**
      * A flag that controls whether or not the rotated string workaround is
      * used.
      */
-    private static boolean useDrawRotatedStringWorkaround = true;
+    private static volatile boolean useDrawRotatedStringWorkaround = true;
 
     /**
      * A flag that controls whether the FontMetrics.getStringBounds() method
      * is used or a workaround is applied.
      */
-    private static boolean useFontMetricsGetStringBounds = false;
+    private static volatile boolean useFontMetricsGetStringBounds = false;
 
     /**
      * Private constructor prevents object creation.
@@ -0,0 +1,120 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ----------------------
+ * BatchExportResult.java
+ * ----------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of a {@link BatchExporter#export(java.util.Iterator)} call: 
+ * the number of jobs that succeeded and the jobs that failed (with the 
+ * cause of each failure).
+ *
+ * @since 1.5
+ */
+public class BatchExportResult {
+
+    /** The number of jobs that succeeded. */
+    private int succeededCount;
+
+    /** The jobs that failed, with the cause of the failure. */
+    private Map<ExportJob, Throwable> failures;
+
+    /**
+     * Creates a new (empty) result.
+     */
+    BatchExportResult() {
+        this.failures = new LinkedHashMap<ExportJob, Throwable>();
+    }
+
+    /**
+     * Records the outcome of a job.
+     *
+     * @param job  the job.
+     * @param failure  the cause of failure ({@code null} if the job 
+     *     succeeded).
+     */
+    synchronized void record(ExportJob job, Throwable failure) {
+        if (failure == null) {
+            this.succeededCount++;
+        }
+        else {
+            this.failures.put(job, failure);
+        }
+    }
+
+    /**
+     * Returns the number of jobs that succeeded.
+     *
+     * @return The number of jobs that succeeded.
+     */
+    public synchronized int getSucceededCount() {
+        return this.succeededCount;
+    }
+
+    /**
+     * Returns the number of jobs that failed.
+     *
+     * @return The number of jobs that failed.
+     */
+    public synchronized int getFailedCount() {
+        return this.failures.size();
+    }
+
+    /**
+     * Returns the jobs that failed, in the order that they failed.
+     *
+     * @return A new list of jobs (never {@code null}).
+     */
+    public synchronized List<ExportJob> getFailedJobs() {
+        return new ArrayList<ExportJob>(this.failures.keySet());
+    }
+
+    /**
+     * Returns the cause of failure for a job.
+     *
+     * @param job  the job.
+     *
+     * @return The cause of failure, or {@code null} if the job did not fail.
+     */
+    public synchronized Throwable getFailure(ExportJob job) {
+        return this.failures.get(job);
+    }
+
+}
@@ -0,0 +1,415 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ------------------
+ * BatchExporter.java
+ * ------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.util;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.RenderSurfacePool;
+import org.jfree.chart.encoders.ImageEncoder;
+import org.jfree.chart.encoders.ImageEncoderFactory;
+import org.jfree.chart.encoders.ImageFormat;
+
+/**
+ * Exports large numbers of charts to files using a bounded pool of worker 
+ * threads.  Jobs (see {@link ExportJob}) are pulled from an iterator as 
+ * capacity becomes available, so a batch can be generated lazily.  For 
+ * raster formats, drawing the chart and encoding the image are separate 
+ * stages with their own threads, and the images are recycled between jobs 
+ * of the same size (using a {@link RenderSurfacePool}).  Vector formats 
+ * (SVG and PDF) are written directly by the drawing threads using 
+ * {@link ExportUtils}.
+ * <p>
+ * At most {@code maxPendingJobs} jobs are in progress (drawn but not yet 
+ * written) at any time: once that limit is reached, no more jobs are taken 
+ * from the iterator until a job completes.  This bounds the memory used by
+ * the batch, regardless of its length.
+ * <p>
+ * Charts are created (by each job's supplier) and drawn on the worker 
+ * threads, so a chart must not be shared between jobs, or modified by 
+ * another thread while its job is in progress.
+ *
+ * @since 1.5
+ */
+public class BatchExporter {
+
+    /** The number of threads for drawing charts. */
+    private final int renderThreadCount;
+
+    /** The number of threads for encoding images. */
+    private final int encodeThreadCount;
+
+    /** The maximum number of jobs in progress. */
+    private final int maxPendingJobs;
+
+    /**
+     * Creates a new exporter with one drawing thread per available 
+     * processor.
+     */
+    public BatchExporter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new exporter with the specified number of drawing threads,
+     * half as many encoding threads (at least one), and up to four jobs per 
+     * drawing thread in progress.
+     *
+     * @param renderThreadCount  the number of drawing threads (at least 1).
+     */
+    public BatchExporter(int renderThreadCount) {
+        this(renderThreadCount, Math.max(1, renderThreadCount / 2), 
+                4 * renderThreadCount);
+    }
+
+    /**
+     * Creates a new exporter.
+     *
+     * @param renderThreadCount  the number of drawing threads (at least 1).
+     * @param encodeThreadCount  the number of encoding threads (at least 1).
+     * @param maxPendingJobs  the maximum number of jobs in progress (at 
+     *     least 1).
+     */
+    public BatchExporter(int renderThreadCount, int encodeThreadCount, 
+            int maxPendingJobs) {
+        if (renderThreadCount < 1) {
+            throw new IllegalArgumentException(
+                    "Requires renderThreadCount >= 1.");
+        }
+        if (encodeThreadCount < 1) {
+            throw new IllegalArgumentException(
+                    "Requires encodeThreadCount >= 1.");
+        }
+        if (maxPendingJobs < 1) {
+            throw new IllegalArgumentException("Requires maxPendingJobs >= 1.");
+        }
+        this.renderThreadCount = renderThreadCount;
+        this.encodeThreadCount = encodeThreadCount;
+        this.maxPendingJobs = maxPendingJobs;
+    }
+
+    /**
+     * Returns the number of threads used to draw charts.
+     *
+     * @return The thread count.
+     */
+    public int getRenderThreadCount() {
+        return this.renderThreadCount;
+    }
+
+    /**
+     * Returns the number of threads used to encode images.
+     *
+     * @return The thread count.
+     */
+    public int getEncodeThreadCount() {
+        return this.encodeThreadCount;
+    }
+
+    /**
+     * Returns the maximum number of jobs in progress at any time.
+     *
+     * @return The maximum number of jobs.
+     */
+    public int getMaxPendingJobs() {
+        return this.maxPendingJobs;
+    }
+
+    /**
+     * Runs all the jobs supplied by an iterator and waits for them to 
+     * complete.  A job that fails does not stop the batch, the failure is 
+     * recorded in the result.
+     *
+     * @param jobs  the jobs ({@code null} not permitted).
+     *
+     * @return The result (never {@code null}).
+     *
+     * @throws InterruptedException if the calling thread is interrupted 
+     *     (the remaining jobs are cancelled).
+     */
+    public BatchExportResult export(Iterator<ExportJob> jobs) 
+            throws InterruptedException {
+        Args.nullNotPermitted(jobs, "jobs");
+        Batch batch = new Batch();
+        boolean finished = false;
+        try {
+            while (jobs.hasNext()) {
+                ExportJob job = jobs.next();
+                Args.nullNotPermitted(job, "job");
+                batch.permits.acquire();
+                batch.renderPool.execute(new RenderTask(batch, job));
+            }
+            // wait for the jobs in progress
+            batch.permits.acquire(this.maxPendingJobs);
+            finished = true;
+        }
+        finally {
+            if (finished) {
+                batch.renderPool.shutdown();
+                batch.encodePool.shutdown();
+            }
+            else {
+                batch.renderPool.shutdownNow();
+                batch.encodePool.shutdownNow();
+            }
+        }
+        return batch.result;
+    }
+
+    /**
+     * Creates a thread factory for daemon worker threads.
+     *
+     * @param stage  the stage name.
+     *
+     * @return The thread factory.
+     */
+    private static ThreadFactory threadFactory(final String stage) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "BatchExporter-" + stage + "-" 
+                        + this.count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        };
+    }
+
+    /**
+     * The state for one call to {@link #export(Iterator)}.
+     */
+    private class Batch {
+
+        /** The drawing threads. */
+        final ExecutorService renderPool;
+
+        /** The encoding threads. */
+        final ExecutorService encodePool;
+
+        /** One permit per job that can be in progress. */
+        final Semaphore permits;
+
+        /** Images that can be reused. */
+        final RenderSurfacePool images;
+
+        /** The result. */
+        final BatchExportResult result;
+
+        /**
+         * Creates the state for a new batch.
+         */
+        Batch() {
+            this.renderPool = Executors.newFixedThreadPool(
+                    renderThreadCount, threadFactory("render"));
+            this.encodePool = Executors.newFixedThreadPool(
+                    encodeThreadCount, threadFactory("encode"));
+            this.permits = new Semaphore(maxPendingJobs);
+            this.images = new RenderSurfacePool(renderThreadCount 
+                    + encodeThreadCount, Long.MAX_VALUE);
+            this.result = new BatchExportResult();
+        }
+
+        /**
+         * Records the outcome of a job and releases its permit.
+         *
+         * @param job  the job.
+         * @param failure  the cause of failure ({@code null} if the job 
+         *     succeeded).
+         */
+        void complete(ExportJob job, Throwable failure) {
+            this.result.record(job, failure);
+            this.permits.release();
+        }
+    }
+
+    /**
+     * The first stage of a job: creates and draws the chart.  For raster 
+     * formats the image is passed to the encoding stage, vector formats are
+     * written directly.
+     */
+    private static class RenderTask implements Runnable {
+
+        /** The batch. */
+        private final Batch batch;
+
+        /** The job. */
+        private final ExportJob job;
+
+        /**
+         * Creates a new task.
+         *
+         * @param batch  the batch.
+         * @param job  the job.
+         */
+        RenderTask(Batch batch, ExportJob job) {
+            this.batch = batch;
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            BufferedImage image = null;
+            Throwable failure = null;
+            try {
+                JFreeChart chart = this.job.getChartSupplier().call();
+                if (chart == null) {
+                    throw new IllegalStateException(
+                            "The chart supplier returned null.");
+                }
+                int w = this.job.getWidth();
+                int h = this.job.getHeight();
+                ExportFormat format = this.job.getFormat();
+                if (format == ExportFormat.SVG) {
+                    ExportUtils.writeAsSVG(chart, w, h, this.job.getFile());
+                    this.batch.complete(this.job, null);
+                    return;
+                }
+                if (format == ExportFormat.PDF) {
+                    ExportUtils.writeAsPDF(chart, w, h, this.job.getFile());
+                    this.batch.complete(this.job, null);
+                    return;
+                }
+                int type = format == ExportFormat.PNG 
+                        ? BufferedImage.TYPE_INT_ARGB 
+                        : BufferedImage.TYPE_INT_RGB;
+                image = this.batch.images.acquire(w, h, type);
+                Graphics2D g2 = image.createGraphics();
+                try {
+                    chart.draw(g2, new Rectangle2D.Double(0, 0, w, h), null, 
+                            null);
+                }
+                finally {
+                    g2.dispose();
+                }
+                this.batch.encodePool.execute(new EncodeTask(this.batch, 
+                        this.job, image));
+                // the encode task now owns the image
+                image = null;
+            }
+            catch (Exception e) {
+                failure = e;
+            }
+            catch (Error e) {
+                failure = e;
+                throw e;
+            }
+            finally {
+                if (image != null) {
+                    this.batch.images.release(image);
+                }
+                if (failure != null) {
+                    this.batch.complete(this.job, failure);
+                }
+            }
+        }
+    }
+
+    /**
+     * The second stage of a job for raster formats: encodes the image and 
+     * writes it to the file.
+     */
+    private static class EncodeTask implements Runnable {
+
+        /** The batch. */
+        private final Batch batch;
+
+        /** The job. */
+        private final ExportJob job;
+
+        /** The image. */
+        private final BufferedImage image;
+
+        /**
+         * Creates a new task.
+         *
+         * @param batch  the batch.
+         * @param job  the job.
+         * @param image  the image.
+         */
+        EncodeTask(Batch batch, ExportJob job, BufferedImage image) {
+            this.batch = batch;
+            this.job = job;
+            this.image = image;
+        }
+
+        @Override
+        public void run() {
+            Throwable failure = null;
+            try {
+                String format = this.job.getFormat() == ExportFormat.PNG 
+                        ? ImageFormat.PNG : ImageFormat.JPEG;
+                ImageEncoder encoder = ImageEncoderFactory.newInstance(format);
+                OutputStream out = new BufferedOutputStream(
+                        new FileOutputStream(this.job.getFile()));
+                try {
+                    encoder.encode(this.image, out);
+                }
+                finally {
+                    out.close();
+                }
+            }
+            catch (IOException e) {
+                failure = e;
+            }
+            catch (RuntimeException e) {
+                failure = e;
+            }
+            catch (Error e) {
+                failure = e;
+                throw e;
+            }
+            finally {
+                this.batch.images.release(this.image);
+                this.batch.complete(this.job, failure);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -----------------
+ * ExportFormat.java
+ * -----------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.util;
+
+/**
+ * The output formats supported by {@link BatchExporter}.
+ *
+ * @since 1.5
+ */
+public enum ExportFormat {
+
+    /** PNG format (a raster format). */
+    PNG("ExportFormat.PNG"),
+
+    /** JPEG format (a raster format). */
+    JPEG("ExportFormat.JPEG"),
+
+    /** SVG format (requires JFreeSVG on the classpath). */
+    SVG("ExportFormat.SVG"),
+
+    /** PDF format (requires OrsonPDF on the classpath). */
+    PDF("ExportFormat.PDF");
+
+    /** The name. */
+    private final String name;
+
+    /**
+     * Private constructor.
+     *
+     * @param name  the name.
+     */
+    private ExportFormat(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns {@code true} if this is a raster format (the chart is drawn to
+     * an image that is then encoded), and {@code false} for vector formats.
+     *
+     * @return A boolean.
+     */
+    public boolean isRaster() {
+        return this == PNG || this == JPEG;
+    }
+
+    /**
+     * Returns a string representing the object.
+     *
+     * @return The string.
+     */
+    @Override
+    public String toString() {
+        return this.name;
+    }
+
+}
@@ -0,0 +1,183 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------
+ * ExportJob.java
+ * --------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.util;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+
+import org.jfree.chart.JFreeChart;
+
+/**
+ * A request to export a chart to a file, for use with 
+ * {@link BatchExporter}.  The chart is obtained from a supplier when the job
+ * runs (on a worker thread), so that large batches do not need to hold every
+ * chart in memory at once.  Instances are immutable.
+ *
+ * @since 1.5
+ */
+public final class ExportJob {
+
+    /** The supplier for the chart. */
+    private final Callable<JFreeChart> chartSupplier;
+
+    /** The width of the output. */
+    private final int width;
+
+    /** The height of the output. */
+    private final int height;
+
+    /** The output format. */
+    private final ExportFormat format;
+
+    /** The destination file. */
+    private final File file;
+
+    /**
+     * Creates a job for an existing chart.  Note that the chart must not be
+     * modified (or included in another job) until the export has finished.
+     *
+     * @param chart  the chart ({@code null} not permitted).
+     * @param width  the width of the output (must be positive).
+     * @param height  the height of the output (must be positive).
+     * @param format  the output format ({@code null} not permitted).
+     * @param file  the destination file ({@code null} not permitted).
+     */
+    public ExportJob(final JFreeChart chart, int width, int height, 
+            ExportFormat format, File file) {
+        this(supplierFor(chart), width, height, format, file);
+    }
+
+    /**
+     * Creates a job for a chart that will be created by 
+     * {@code chartSupplier} when the job runs.
+     *
+     * @param chartSupplier  the chart supplier ({@code null} not permitted).
+     * @param width  the width of the output (must be positive).
+     * @param height  the height of the output (must be positive).
+     * @param format  the output format ({@code null} not permitted).
+     * @param file  the destination file ({@code null} not permitted).
+     */
+    public ExportJob(Callable<JFreeChart> chartSupplier, int width, 
+            int height, ExportFormat format, File file) {
+        Args.nullNotPermitted(chartSupplier, "chartSupplier");
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException(
+                    "Requires width > 0 and height > 0.");
+        }
+        Args.nullNotPermitted(format, "format");
+        Args.nullNotPermitted(file, "file");
+        this.chartSupplier = chartSupplier;
+        this.width = width;
+        this.height = height;
+        this.format = format;
+        this.file = file;
+    }
+
+    /**
+     * Returns a supplier that returns the specified chart.
+     * 
+     * @param chart  the chart ({@code null} not permitted).
+     * 
+     * @return The supplier.
+     */
+    private static Callable<JFreeChart> supplierFor(final JFreeChart chart) {
+        Args.nullNotPermitted(chart, "chart");
+        return new Callable<JFreeChart>() {
+            @Override
+            public JFreeChart call() {
+                return chart;
+            }
+        };
+    }
+
+    /**
+     * Returns the chart supplier.
+     *
+     * @return The chart supplier (never {@code null}).
+     */
+    public Callable<JFreeChart> getChartSupplier() {
+        return this.chartSupplier;
+    }
+
+    /**
+     * Returns the width of the output.
+     *
+     * @return The width.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Returns the height of the output.
+     *
+     * @return The height.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Returns the output format.
+     *
+     * @return The format (never {@code null}).
+     */
+    public ExportFormat getFormat() {
+        return this.format;
+    }
+
+    /**
+     * Returns the destination file.
+     *
+     * @return The file (never {@code null}).
+     */
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Returns a string representing the job (for debugging).
+     *
+     * @return A string.
+     */
+    @Override
+    public String toString() {
+        return "ExportJob[" + this.format + ", " + this.width + "x" 
+                + this.height + ", " + this.file + "]";
+    }
+
+}
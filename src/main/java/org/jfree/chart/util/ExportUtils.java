@@ -45,6 +45,7 @@ import java.awt.Rectangle;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -54,6 +55,10 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import javax.imageio.ImageIO;
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.EncodedChartCache;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.RenderSurfacePool;
 import org.jfree.chart.ui.Drawable;
 
 /**
@@ -208,17 +213,7 @@ public class ExportUtils {
      */
     public static void writeAsPNG(Drawable drawable, int w, int h, 
             File file) throws FileNotFoundException, IOException {
-        BufferedImage image = new BufferedImage(w, h, 
-                BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2 = image.createGraphics();
-        drawable.draw(g2, new Rectangle(w, h));
-        OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
-        try {
-            ImageIO.write(image, "png", out);
-        }
-        finally {
-            out.close();
-        }
+        writeImage(drawable, w, h, file, BufferedImage.TYPE_INT_ARGB, "png");
     }
 
     /**
@@ -234,13 +229,88 @@ public class ExportUtils {
      */
     public static void writeAsJPEG(Drawable drawable, int w, int h, 
             File file) throws FileNotFoundException, IOException {
-        BufferedImage image = new BufferedImage(w, h, 
-                BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2 = image.createGraphics();
-        drawable.draw(g2, new Rectangle(w, h));
-        OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+        writeImage(drawable, w, h, file, BufferedImage.TYPE_INT_RGB, "jpg");
+    }
+
+    /**
+     * Writes the current content to the specified file using ImageIO.  If
+     * the drawable is a {@link JFreeChart} and an image cache has been set
+     * (see {@link ChartUtils#setImageCache(EncodedChartCache)}), the 
+     * previously encoded image is reused when the chart has not changed.
+     * 
+     * @param drawable  the drawable ({@code null} not permitted).
+     * @param w  the chart width.
+     * @param h  the chart height.
+     * @param file  the output file ({@code null} not permitted).
+     * @param imageType  the image type (see {@link BufferedImage}).
+     * @param formatName  the ImageIO format name.
+     * 
+     * @throws FileNotFoundException if the file is not found.
+     * @throws IOException if there is an I/O problem.
+     */
+    private static void writeImage(Drawable drawable, int w, int h, 
+            File file, int imageType, String formatName) 
+            throws FileNotFoundException, IOException {
+        EncodedChartCache cache = ChartUtils.getImageCache();
+        JFreeChart chart = null;
+        String format = "imageio;" + formatName;
+        if (cache != null && drawable instanceof JFreeChart) {
+            chart = (JFreeChart) drawable;
+            ByteArrayOutputStream cached = new ByteArrayOutputStream();
+            if (cache.write(chart, w, h, format, cached)) {
+                writeBytes(cached.toByteArray(), file);
+                return;
+            }
+        }
+        long stamp = chart != null ? chart.getModificationStamp() : 0L;
+        RenderSurfacePool pool = ChartUtils.getRenderSurfacePool();
+        BufferedImage image = pool != null ? pool.acquire(w, h, imageType) 
+                : new BufferedImage(w, h, imageType);
+        try {
+            Graphics2D g2 = image.createGraphics();
+            try {
+                drawable.draw(g2, new Rectangle(w, h));
+            }
+            finally {
+                g2.dispose();
+            }
+            if (chart != null) {
+                ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+                ImageIO.write(image, formatName, encoded);
+                byte[] data = encoded.toByteArray();
+                writeBytes(data, file);
+                cache.put(chart, stamp, w, h, format, data);
+                return;
+            }
+            OutputStream out = new BufferedOutputStream(
+                    new FileOutputStream(file));
+            try {
+                ImageIO.write(image, formatName, out);
+            }
+            finally {
+                out.close();
+            }
+        }
+        finally {
+            if (pool != null) {
+                pool.release(image);
+            }
+        }
+    }
+
+    /**
+     * Writes bytes to a file.
+     * 
+     * @param data  the bytes.
+     * @param file  the file.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    private static void writeBytes(byte[] data, File file) 
+            throws IOException {
+        OutputStream out = new FileOutputStream(file);
         try {
-            ImageIO.write(image, "jpg", out);
+            out.write(data);
         }
         finally {
             out.close();
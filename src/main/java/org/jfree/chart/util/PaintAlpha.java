@@ -86,7 +86,7 @@ public class PaintAlpha {
      */
     private static final double FACTOR = 0.7;
 
-    private static boolean legacyAlpha = false;
+    private static volatile boolean legacyAlpha = false;
 
     /**
      * Per default {@code PaintAlpha} will try to honour alpha-channel
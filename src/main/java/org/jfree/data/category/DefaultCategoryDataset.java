@@ -49,19 +49,32 @@
 package org.jfree.data.category;
 
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import org.jfree.chart.util.Args;
 import org.jfree.chart.util.PublicCloneable;
 
 import org.jfree.data.DefaultKeyedValues2D;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
 import org.jfree.data.UnknownKeyException;
 import org.jfree.data.general.AbstractDataset;
 import org.jfree.data.general.DatasetChangeEvent;
 
 /**
  * A default implementation of the {@link CategoryDataset} interface.
+ * <p>
+ * The dataset caches the minimum and maximum value for each row, so that
+ * the range bounds (used for auto-ranging the value axis) can be found
+ * without iterating over all the values.  The cache for a row is updated as
+ * values are added, and is recalculated lazily when the minimum or maximum
+ * value for the row is overwritten or removed.
  */
 public class DefaultCategoryDataset extends AbstractDataset
-        implements CategoryDataset, PublicCloneable, Serializable {
+        implements CategoryDataset, RangeInfo, CategoryRangeInfo,
+        PublicCloneable, Serializable {
 
     /** For serialization. */
     private static final long serialVersionUID = -8168173757291644622L;
@@ -69,6 +82,12 @@ public class DefaultCategoryDataset extends AbstractDataset
     /** A storage structure for the data. */
     private DefaultKeyedValues2D data;
 
+    /**
+     * The cached bounds for each row (row key --> double[] {min, max}), only
+     * populated on demand.
+     */
+    private transient Map rowBounds;
+
     /**
      * Creates a new (empty) dataset.
      */
@@ -229,6 +248,7 @@ public class DefaultCategoryDataset extends AbstractDataset
      */
     public void addValue(Number value, Comparable rowKey,
                          Comparable columnKey) {
+        updateRowBoundsForChange(rowKey, columnKey, value);
         this.data.addValue(value, rowKey, columnKey);
         fireDatasetChanged();
     }
@@ -259,6 +279,7 @@ public class DefaultCategoryDataset extends AbstractDataset
      */
     public void setValue(Number value, Comparable rowKey,
                          Comparable columnKey) {
+        updateRowBoundsForChange(rowKey, columnKey, value);
         this.data.setValue(value, rowKey, columnKey);
         fireDatasetChanged();
     }
@@ -310,6 +331,7 @@ public class DefaultCategoryDataset extends AbstractDataset
      */
     public void removeValue(Comparable rowKey, Comparable columnKey) {
         this.data.removeValue(rowKey, columnKey);
+        invalidateRowBounds(rowKey);
         fireDatasetChanged();
     }
 
@@ -322,7 +344,9 @@ public class DefaultCategoryDataset extends AbstractDataset
      * @see #removeColumn(int)
      */
     public void removeRow(int rowIndex) {
+        Comparable rowKey = this.data.getRowKey(rowIndex);
         this.data.removeRow(rowIndex);
+        invalidateRowBounds(rowKey);
         fireDatasetChanged();
     }
 
@@ -336,6 +360,7 @@ public class DefaultCategoryDataset extends AbstractDataset
      */
     public void removeRow(Comparable rowKey) {
         this.data.removeRow(rowKey);
+        invalidateRowBounds(rowKey);
         fireDatasetChanged();
     }
 
@@ -349,6 +374,7 @@ public class DefaultCategoryDataset extends AbstractDataset
      */
     public void removeColumn(int columnIndex) {
         this.data.removeColumn(columnIndex);
+        this.rowBounds = null;
         fireDatasetChanged();
     }
 
@@ -365,6 +391,7 @@ public class DefaultCategoryDataset extends AbstractDataset
      */
     public void removeColumn(Comparable columnKey) {
         this.data.removeColumn(columnKey);
+        this.rowBounds = null;
         fireDatasetChanged();
     }
 
@@ -374,6 +401,7 @@ public class DefaultCategoryDataset extends AbstractDataset
      */
     public void clear() {
         this.data.clear();
+        this.rowBounds = null;
         fireDatasetChanged();
     }
 
@@ -440,7 +468,179 @@ public class DefaultCategoryDataset extends AbstractDataset
     public Object clone() throws CloneNotSupportedException {
         DefaultCategoryDataset clone = (DefaultCategoryDataset) super.clone();
         clone.data = (DefaultKeyedValues2D) this.data.clone();
+        clone.rowBounds = null;
         return clone;
     }
 
+    /**
+     * Returns the minimum value in the dataset.
+     *
+     * @param includeInterval  ignored for this dataset.
+     *
+     * @return The minimum value (or {@code Double.NaN} if there is no
+     *     value).
+     *
+     * @since 1.5
+     */
+    @Override
+    public double getRangeLowerBound(boolean includeInterval) {
+        Range r = getRangeBounds(includeInterval);
+        return r != null ? r.getLowerBound() : Double.NaN;
+    }
+
+    /**
+     * Returns the maximum value in the dataset.
+     *
+     * @param includeInterval  ignored for this dataset.
+     *
+     * @return The maximum value (or {@code Double.NaN} if there is no
+     *     value).
+     *
+     * @since 1.5
+     */
+    @Override
+    public double getRangeUpperBound(boolean includeInterval) {
+        Range r = getRangeBounds(includeInterval);
+        return r != null ? r.getUpperBound() : Double.NaN;
+    }
+
+    /**
+     * Returns the range of the values in the dataset, ignoring any
+     * {@code null} and {@code Double.NaN} values.
+     *
+     * @param includeInterval  ignored for this dataset.
+     *
+     * @return The range (or {@code null} if there are no values).
+     *
+     * @since 1.5
+     */
+    @Override
+    public Range getRangeBounds(boolean includeInterval) {
+        return getRangeBounds(getRowKeys(), includeInterval);
+    }
+
+    /**
+     * Returns the range of the values in the specified rows, ignoring any
+     * {@code null} and {@code Double.NaN} values.  The bounds for each row
+     * are cached, so (unless the data has changed) the cost of this method
+     * depends on the number of rows only.
+     *
+     * @param visibleSeriesKeys  the keys for the visible rows
+     *     ({@code null} not permitted).
+     * @param includeInterval  ignored for this dataset.
+     *
+     * @return The range (or {@code null} if there are no values).
+     *
+     * @throws UnknownKeyException if one of the keys is not defined in the
+     *     dataset.
+     *
+     * @since 1.5
+     */
+    @Override
+    public Range getRangeBounds(List visibleSeriesKeys,
+            boolean includeInterval) {
+        Args.nullNotPermitted(visibleSeriesKeys, "visibleSeriesKeys");
+        double minimum = Double.POSITIVE_INFINITY;
+        double maximum = Double.NEGATIVE_INFINITY;
+        Iterator iterator = visibleSeriesKeys.iterator();
+        while (iterator.hasNext()) {
+            Comparable rowKey = (Comparable) iterator.next();
+            double[] bounds = getRowBounds(rowKey);
+            minimum = Math.min(minimum, bounds[0]);
+            maximum = Math.max(maximum, bounds[1]);
+        }
+        if (minimum == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        return new Range(minimum, maximum);
+    }
+
+    /**
+     * Returns the cached bounds for a row, calculating them first if
+     * necessary.  For a row with no values, the bounds are
+     * {@code {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}}.
+     *
+     * @param rowKey  the row key.
+     *
+     * @return The bounds (min, max).
+     */
+    private double[] getRowBounds(Comparable rowKey) {
+        if (this.rowBounds == null) {
+            this.rowBounds = new HashMap();
+        }
+        double[] bounds = (double[]) this.rowBounds.get(rowKey);
+        if (bounds == null) {
+            int row = getRowIndex(rowKey);
+            if (row < 0) {
+                throw new UnknownKeyException("Unknown rowKey: " + rowKey);
+            }
+            bounds = new double[] {Double.POSITIVE_INFINITY,
+                    Double.NEGATIVE_INFINITY};
+            int columnCount = getColumnCount();
+            for (int column = 0; column < columnCount; column++) {
+                Number value = getValue(row, column);
+                if (value != null) {
+                    double v = value.doubleValue();
+                    if (!Double.isNaN(v)) {
+                        bounds[0] = Math.min(bounds[0], v);
+                        bounds[1] = Math.max(bounds[1], v);
+                    }
+                }
+            }
+            this.rowBounds.put(rowKey, bounds);
+        }
+        return bounds;
+    }
+
+    /**
+     * Updates the cached bounds for a row on the basis that the value for
+     * the specified keys is about to be replaced.  If the existing value is
+     * the minimum or maximum for the row, the cached bounds are discarded,
+     * otherwise they are extended to include the new value.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     * @param value  the new value ({@code null} permitted).
+     */
+    private void updateRowBoundsForChange(Comparable rowKey,
+            Comparable columnKey, Number value) {
+        if (this.rowBounds == null || rowKey == null || columnKey == null) {
+            return;
+        }
+        double[] bounds = (double[]) this.rowBounds.get(rowKey);
+        if (bounds == null) {
+            return;
+        }
+        int row = getRowIndex(rowKey);
+        int column = getColumnIndex(columnKey);
+        if (row >= 0 && column >= 0) {
+            Number existing = getValue(row, column);
+            if (existing != null) {
+                double v = existing.doubleValue();
+                if (v <= bounds[0] || v >= bounds[1]) {
+                    invalidateRowBounds(rowKey);
+                    return;
+                }
+            }
+        }
+        if (value != null) {
+            double v = value.doubleValue();
+            if (!Double.isNaN(v)) {
+                bounds[0] = Math.min(bounds[0], v);
+                bounds[1] = Math.max(bounds[1], v);
+            }
+        }
+    }
+
+    /**
+     * Discards the cached bounds for a row.
+     *
+     * @param rowKey  the row key.
+     */
+    private void invalidateRowBounds(Comparable rowKey) {
+        if (this.rowBounds != null) {
+            this.rowBounds.remove(rowKey);
+        }
+    }
+
 }
@@ -66,6 +66,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectInputValidation;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EventListener;
 import java.util.List;
@@ -95,6 +96,24 @@ public abstract class AbstractDataset implements Dataset, Cloneable,
      */
     private boolean notify;
 
+    /** 
+     * The nesting depth of {@link #beginUpdate()} calls that have not yet 
+     * been matched by a call to {@link #endUpdate()}.
+     */
+    private transient int updateDepth;
+
+    /** 
+     * A flag that records whether a change event has been held back because
+     * an update is in progress.
+     */
+    private transient boolean updatePending;
+
+    /** 
+     * The series changes for the pending update (one event per series), or
+     * {@code null} if the scope of the pending change is not known.
+     */
+    private transient List pendingSeriesChanges;
+
     /**
      * Constructs a dataset. By default, the dataset is assigned to its own
      * group.
@@ -161,6 +180,65 @@ public abstract class AbstractDataset implements Dataset, Cloneable,
         }    
     }
     
+    /**
+     * Marks the start of a batch of changes to the dataset.  Until the 
+     * matching call to {@link #endUpdate()}, change events are held back and
+     * merged, so that registered listeners receive a single 
+     * {@link DatasetChangeEvent} describing the whole batch.  Where the 
+     * changes come from series belonging to the dataset, the event lists the
+     * affected series and item ranges (see 
+     * {@link DatasetChangeEvent#getSeriesChanges()}).  Calls to this method 
+     * can be nested.
+     * 
+     * @see #endUpdate()
+     * 
+     * @since 1.5
+     */
+    public void beginUpdate() {
+        this.updateDepth++;
+    }
+
+    /**
+     * Marks the end of a batch of changes started by {@link #beginUpdate()}.
+     * When the outermost batch ends, a single {@link DatasetChangeEvent} is
+     * sent to all registered listeners if any changes were made.
+     * 
+     * @throws IllegalStateException if there is no matching call to 
+     *     {@link #beginUpdate()}.
+     * 
+     * @since 1.5
+     */
+    public void endUpdate() {
+        if (this.updateDepth == 0) {
+            throw new IllegalStateException(
+                    "There is no update in progress.");
+        }
+        this.updateDepth--;
+        if (this.updateDepth == 0 && this.updatePending) {
+            List changes = this.pendingSeriesChanges;
+            this.updatePending = false;
+            this.pendingSeriesChanges = null;
+            if (changes != null) {
+                notifyListeners(new DatasetChangeEvent(this, this, changes));
+            }
+            else {
+                notifyListeners(new DatasetChangeEvent(this, this));
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if a batch of changes started by 
+     * {@link #beginUpdate()} is in progress, and {@code false} otherwise.
+     * 
+     * @return A boolean.
+     * 
+     * @since 1.5
+     */
+    public boolean isUpdating() {
+        return this.updateDepth > 0;
+    }
+
     /**
      * Registers an object to receive notification of changes to the dataset.
      *
@@ -217,7 +295,25 @@ public abstract class AbstractDataset implements Dataset, Cloneable,
     }
 
     /**
-     * Notifies all registered listeners that the dataset has changed.
+     * Notifies all registered listeners that the dataset has changed as a 
+     * result of the series change described by {@code event}, provided that 
+     * the {@code notify} flag has not been set to {@code false}.
+     * 
+     * @param event  the series change ({@code null} not permitted).
+     * 
+     * @since 1.5
+     */
+    protected void fireDatasetChanged(SeriesChangeEvent event) {
+        Args.nullNotPermitted(event, "event");
+        if (this.notify) {
+            notifyListeners(new DatasetChangeEvent(this, this, event));
+        }
+    }
+
+    /**
+     * Notifies all registered listeners that the dataset has changed.  If an
+     * update is in progress (see {@link #beginUpdate()}) the event is merged
+     * with any other pending changes and sent when the update ends.
      *
      * @param event  contains information about the event that triggered the
      *               notification.
@@ -226,6 +322,10 @@ public abstract class AbstractDataset implements Dataset, Cloneable,
      * @see #removeChangeListener(DatasetChangeListener)
      */
     protected void notifyListeners(DatasetChangeEvent event) {
+        if (this.updateDepth > 0) {
+            addPendingChange(event);
+            return;
+        }
         Object[] listeners = this.listenerList.getListenerList();
         for (int i = listeners.length - 2; i >= 0; i -= 2) {
             if (listeners[i] == DatasetChangeListener.class) {
@@ -235,6 +335,44 @@ public abstract class AbstractDataset implements Dataset, Cloneable,
         }
     }
 
+    /**
+     * Merges a change event into the pending change for the current update.
+     * 
+     * @param event  the event ({@code null} not permitted).
+     */
+    private void addPendingChange(DatasetChangeEvent event) {
+        List changes = event.getSeriesChanges();
+        if (!this.updatePending) {
+            this.updatePending = true;
+            this.pendingSeriesChanges = (changes != null 
+                    ? new ArrayList(changes) : null);
+            return;
+        }
+        if (this.pendingSeriesChanges == null) {
+            return;  // already a change of unknown scope
+        }
+        if (changes == null) {
+            this.pendingSeriesChanges = null;
+            return;
+        }
+        for (int i = 0; i < changes.size(); i++) {
+            SeriesChangeEvent change = (SeriesChangeEvent) changes.get(i);
+            boolean merged = false;
+            for (int j = 0; j < this.pendingSeriesChanges.size(); j++) {
+                SeriesChangeEvent pending 
+                        = (SeriesChangeEvent) this.pendingSeriesChanges.get(j);
+                if (pending.getSource() == change.getSource()) {
+                    this.pendingSeriesChanges.set(j, pending.merge(change));
+                    merged = true;
+                    break;
+                }
+            }
+            if (!merged) {
+                this.pendingSeriesChanges.add(change);
+            }
+        }
+    }
+
     /**
      * Returns a clone of the dataset. The cloned dataset will NOT include the
      * {@link DatasetChangeListener} references that have been registered with
@@ -249,6 +387,9 @@ public abstract class AbstractDataset implements Dataset, Cloneable,
     public Object clone() throws CloneNotSupportedException {
         AbstractDataset clone = (AbstractDataset) super.clone();
         clone.listenerList = new EventListenerList();
+        clone.updateDepth = 0;
+        clone.updatePending = false;
+        clone.pendingSeriesChanges = null;
         return clone;
     }
 
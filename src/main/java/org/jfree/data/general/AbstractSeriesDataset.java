@@ -105,13 +105,16 @@ public abstract class AbstractSeriesDataset extends AbstractDataset
     }
 
     /**
-     * Called when a series belonging to the dataset changes.
+     * Called when a series belonging to the dataset changes.  The dataset 
+     * change event that is sent to registered listeners includes 
+     * {@code event}, so that listeners can see which series (and items) 
+     * were affected.
      *
      * @param event  information about the change.
      */
     @Override
     public void seriesChanged(SeriesChangeEvent event) {
-        fireDatasetChanged();
+        fireDatasetChanged(event);
     }
 
 }
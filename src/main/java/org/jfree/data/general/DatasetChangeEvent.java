@@ -47,6 +47,11 @@
 
 package org.jfree.data.general;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jfree.chart.util.Args;
+
 /**
  * A change event that encapsulates information about a change to a dataset.
  */
@@ -57,6 +62,19 @@ public class DatasetChangeEvent extends java.util.EventObject {
      */
     private Dataset dataset;
 
+    /** 
+     * The series changes that are summarised by this event, or {@code null}
+     * if the scope of the change is not known (or if the list has not yet 
+     * been created for a single series change).
+     */
+    private List seriesChanges;
+
+    /** 
+     * The series change for an event that summarises a single change, or 
+     * {@code null}. 
+     */
+    private SeriesChangeEvent seriesChange;
+
     /**
      * Constructs a new event.  The source is either the dataset or the
      * {@link org.jfree.chart.plot.Plot} class.  The dataset can be
@@ -70,6 +88,50 @@ public class DatasetChangeEvent extends java.util.EventObject {
     public DatasetChangeEvent(Object source, Dataset dataset) {
         super(source);
         this.dataset = dataset;
+        this.seriesChanges = null;
+    }
+
+    /**
+     * Constructs a new event for a change that is limited to the series 
+     * described by {@code seriesChanges}.  One change event is expected 
+     * per affected series (the source of each event is the series, or the 
+     * series key for datasets that do not use {@link Series} objects).
+     *
+     * @param source  the source of the event.
+     * @param dataset  the dataset that generated the event ({@code null}
+     *                 permitted).
+     * @param seriesChanges  the series changes ({@code null} not permitted).
+     * 
+     * @since 1.5
+     */
+    public DatasetChangeEvent(Object source, Dataset dataset, 
+            List seriesChanges) {
+        super(source);
+        Args.nullNotPermitted(seriesChanges, "seriesChanges");
+        this.dataset = dataset;
+        this.seriesChanges = Collections.unmodifiableList(
+                new ArrayList(seriesChanges));
+    }
+
+    /**
+     * Constructs a new event for a change that is limited to the series 
+     * described by {@code seriesChange}.  This is equivalent to passing a 
+     * list containing the single series change, but the list is only 
+     * created if it is requested.
+     *
+     * @param source  the source of the event.
+     * @param dataset  the dataset that generated the event ({@code null}
+     *                 permitted).
+     * @param seriesChange  the series change ({@code null} not permitted).
+     * 
+     * @since 1.5
+     */
+    public DatasetChangeEvent(Object source, Dataset dataset, 
+            SeriesChangeEvent seriesChange) {
+        super(source);
+        Args.nullNotPermitted(seriesChange, "seriesChange");
+        this.dataset = dataset;
+        this.seriesChange = seriesChange;
     }
 
     /**
@@ -83,4 +145,22 @@ public class DatasetChangeEvent extends java.util.EventObject {
         return this.dataset;
     }
 
+    /**
+     * Returns the series changes (instances of {@link SeriesChangeEvent}) 
+     * that are summarised by this event, or {@code null} if the scope of the 
+     * change is not known (in which case listeners should assume that any 
+     * part of the dataset may have changed).
+     * 
+     * @return An unmodifiable list of series changes (possibly 
+     *     {@code null}).
+     * 
+     * @since 1.5
+     */
+    public List getSeriesChanges() {
+        if (this.seriesChanges == null && this.seriesChange != null) {
+            this.seriesChanges = Collections.singletonList(this.seriesChange);
+        }
+        return this.seriesChanges;
+    }
+
 }
@@ -101,6 +101,18 @@ public abstract class Series implements Cloneable, Serializable {
     /** A flag that controls whether or not changes are notified. */
     private boolean notify;
 
+    /** 
+     * The nesting depth of {@link #beginUpdate()} calls that have not yet 
+     * been matched by a call to {@link #endUpdate()}.
+     */
+    private transient int updateDepth;
+
+    /** 
+     * A change event that has been held back because an update is in 
+     * progress, or {@code null} if there is no pending change.
+     */
+    private transient SeriesChangeEvent pendingChange;
+
     /**
      * Creates a new series with the specified key.
      *
@@ -218,6 +230,57 @@ public abstract class Series implements Cloneable, Serializable {
         }
     }
 
+    /**
+     * Marks the start of a batch of changes to the series.  Until the 
+     * matching call to {@link #endUpdate()}, change events are held back and 
+     * merged, so that registered listeners receive a single 
+     * {@link SeriesChangeEvent} describing the whole batch (for example, 
+     * adding 10,000 items will trigger one chart repaint instead of 10,000).
+     * Calls to this method can be nested.
+     * 
+     * @see #endUpdate()
+     * 
+     * @since 1.5
+     */
+    public void beginUpdate() {
+        this.updateDepth++;
+    }
+
+    /**
+     * Marks the end of a batch of changes started by {@link #beginUpdate()}.
+     * When the outermost batch ends, a single {@link SeriesChangeEvent} is 
+     * sent to all registered listeners if any changes were made.
+     * 
+     * @throws IllegalStateException if there is no matching call to 
+     *     {@link #beginUpdate()}.
+     * 
+     * @since 1.5
+     */
+    public void endUpdate() {
+        if (this.updateDepth == 0) {
+            throw new IllegalStateException(
+                    "There is no update in progress.");
+        }
+        this.updateDepth--;
+        if (this.updateDepth == 0 && this.pendingChange != null) {
+            SeriesChangeEvent event = this.pendingChange;
+            this.pendingChange = null;
+            notifyListeners(event);
+        }
+    }
+
+    /**
+     * Returns {@code true} if a batch of changes started by 
+     * {@link #beginUpdate()} is in progress, and {@code false} otherwise.
+     * 
+     * @return A boolean.
+     * 
+     * @since 1.5
+     */
+    public boolean isUpdating() {
+        return this.updateDepth > 0;
+    }
+
     /**
      * Returns {@code true} if the series contains no data items, and
      * {@code false} otherwise.
@@ -260,6 +323,8 @@ public abstract class Series implements Cloneable, Serializable {
         clone.listeners = new EventListenerList();
         clone.propertyChangeSupport = new PropertyChangeSupport(clone);
         clone.vetoableChangeSupport = new VetoableChangeSupport(clone);
+        clone.updateDepth = 0;
+        clone.pendingChange = null;
         return clone;
     }
 
@@ -336,12 +401,46 @@ public abstract class Series implements Cloneable, Serializable {
     }
 
     /**
-     * Sends a change event to all registered listeners.
+     * Signals to registered listeners that the items from 
+     * {@code firstItemIndex} to {@code lastItemIndex} (inclusive) have been 
+     * changed, and that items before {@code firstItemIndex} are unchanged.
+     * Subclasses should report an insertion as a change to every item from 
+     * the insertion point to the end of the series, since those items have 
+     * moved.
+     * 
+     * @param firstItemIndex  the index of the first affected item.
+     * @param lastItemIndex  the index of the last affected item.
+     * 
+     * @since 1.5
+     */
+    protected void fireSeriesChanged(int firstItemIndex, int lastItemIndex) {
+        if (this.notify) {
+            notifyListeners(new SeriesChangeEvent(this, firstItemIndex, 
+                    lastItemIndex));
+        }
+    }
+
+    /**
+     * Sends a change event to all registered listeners.  If an update is in 
+     * progress (see {@link #beginUpdate()}) the event is merged with any 
+     * other pending changes and sent when the update ends.
      *
      * @param event  contains information about the event that triggered the
      *               notification.
      */
     protected void notifyListeners(SeriesChangeEvent event) {
+        if (this.updateDepth > 0) {
+            if (this.pendingChange == null) {
+                this.pendingChange = event;
+            }
+            else if (this.pendingChange.getSource() == event.getSource()) {
+                this.pendingChange = this.pendingChange.merge(event);
+            }
+            else {
+                this.pendingChange = new SeriesChangeEvent(this);
+            }
+            return;
+        }
 
         Object[] listenerList = this.listeners.getListenerList();
         for (int i = listenerList.length - 2; i >= 0; i -= 2) {
@@ -43,6 +43,7 @@ package org.jfree.data.general;
 
 import java.io.Serializable;
 import java.util.EventObject;
+import org.jfree.chart.util.Args;
 
 /**
  * An event with details of a change to a series.
@@ -52,13 +53,123 @@ public class SeriesChangeEvent extends EventObject implements Serializable {
     /** For serialization. */
     private static final long serialVersionUID = 1593866085210089052L;
 
+    /** 
+     * The index of the first item affected by the change, or -1 if the
+     * affected items are not known.
+     */
+    private int firstItemIndex;
+
+    /** 
+     * The index of the last item affected by the change, or -1 if the
+     * affected items are not known.
+     */
+    private int lastItemIndex;
+
     /**
-     * Constructs a new event.
+     * Constructs a new event that does not describe which items in the 
+     * series were affected by the change.
      *
      * @param source  the source of the change event.
      */
     public SeriesChangeEvent(Object source) {
+        this(source, -1, -1);
+    }
+
+    /**
+     * Constructs a new event for a change that affected the items from 
+     * {@code firstItemIndex} to {@code lastItemIndex} (inclusive).  Items 
+     * before {@code firstItemIndex} are unchanged and retain their indices.
+     * Pass -1 for both indices if the affected items are not known.
+     *
+     * @param source  the source of the change event.
+     * @param firstItemIndex  the index of the first affected item (or -1).
+     * @param lastItemIndex  the index of the last affected item (or -1).
+     * 
+     * @since 1.5
+     */
+    public SeriesChangeEvent(Object source, int firstItemIndex, 
+            int lastItemIndex) {
         super(source);
+        if (firstItemIndex < 0 || lastItemIndex < 0) {
+            firstItemIndex = -1;
+            lastItemIndex = -1;
+        }
+        else if (firstItemIndex > lastItemIndex) {
+            throw new IllegalArgumentException("Requires firstItemIndex <= "
+                    + "lastItemIndex.");
+        }
+        this.firstItemIndex = firstItemIndex;
+        this.lastItemIndex = lastItemIndex;
+    }
+
+    /**
+     * Returns the index of the first item affected by the change, or -1 if 
+     * the affected items are not known (in which case listeners should 
+     * assume that any item may have changed).
+     * 
+     * @return The item index (or -1).
+     * 
+     * @since 1.5
+     */
+    public int getFirstItemIndex() {
+        return this.firstItemIndex;
+    }
+
+    /**
+     * Returns the index of the last item affected by the change, or -1 if 
+     * the affected items are not known.
+     * 
+     * @return The item index (or -1).
+     * 
+     * @since 1.5
+     */
+    public int getLastItemIndex() {
+        return this.lastItemIndex;
+    }
+
+    /**
+     * Returns {@code true} if this event describes the range of items 
+     * affected by the change, and {@code false} otherwise.
+     * 
+     * @return A boolean.
+     * 
+     * @since 1.5
+     */
+    public boolean isItemRangeKnown() {
+        return this.firstItemIndex >= 0;
+    }
+
+    /**
+     * Returns an event that covers the changes described by this event and 
+     * {@code event}, which must have the same source.  The resulting item 
+     * range is the union of the two ranges, or unknown if either range is 
+     * unknown.
+     * 
+     * @param event  the event to merge with ({@code null} not permitted).
+     * 
+     * @return The merged event (possibly one of the two events). 
+     * 
+     * @since 1.5
+     */
+    public SeriesChangeEvent merge(SeriesChangeEvent event) {
+        Args.nullNotPermitted(event, "event");
+        if (event.getSource() != getSource()) {
+            throw new IllegalArgumentException(
+                    "Cannot merge events from different sources.");
+        }
+        if (!isItemRangeKnown()) {
+            return this;
+        }
+        if (!event.isItemRangeKnown()) {
+            return event;
+        }
+        if (event.firstItemIndex >= this.firstItemIndex 
+                && event.lastItemIndex <= this.lastItemIndex) {
+            return this;
+        }
+        return new SeriesChangeEvent(getSource(), 
+                Math.min(this.firstItemIndex, event.firstItemIndex),
+                Math.max(this.lastItemIndex, event.lastItemIndex));
     }
 
 }
@@ -51,7 +51,8 @@ import org.jfree.data.category.DefaultCategoryDataset;
 /**
  * A utility class for reading {@link CategoryDataset} data from a CSV file.
  * This initial version is very basic, and won't handle errors in the data
- * file very gracefully.
+ * file very gracefully.  To read large files of x and y-values, see
+ * {@link CSVXYReader}.
  */
 public class CSV {
 
@@ -0,0 +1,1447 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ----------------
+ * CSVXYReader.java
+ * ----------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jfree.chart.util.Args;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.xy.DefaultXYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+/**
+ * A reader for large CSV (or other delimited) files that contain one 
+ * column of x-values and one or more columns of y-values, for example:
+ * <pre>
+ * time,cpu,memory
+ * 2017-03-01T10:00:00,12.5,1024
+ * 2017-03-01T10:00:01,13.0,1030
+ * </pre>
+ * The bytes are parsed directly from a {@code ReadableByteChannel} or a 
+ * memory-mapped file, so no {@code String} is created per line or per 
+ * field (except for dates with a {@code DateFormat}, see 
+ * {@link #setDateFormat(DateFormat)}), and the values are collected in 
+ * {@code double} arrays.  A large file is split into chunks at line breaks
+ * that are parsed in parallel (see {@link #setParallelism(int)}).
+ * <p>
+ * The first line contains the series keys (unless 
+ * {@link #setHeader(boolean)} is set to {@code false}) and decides the 
+ * number of columns.  By default the x-values are taken from the first 
+ * column and every other column is a series, see 
+ * {@link #setXColumn(int)} and {@link #setYColumns(int[])}.  Empty fields
+ * are read as {@code null} y-values and rows without an x-value are 
+ * ignored.  Fields can be enclosed in text delimiters, but the parallel 
+ * parsing of files assumes that there are no line breaks inside fields.
+ * The file should use an encoding that is compatible with ASCII (such as 
+ * UTF-8 or ISO-8859-1).
+ *
+ * @since 1.5
+ */
+public class CSVXYReader {
+
+    /** The size of the buffer for reading from a channel. */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /** The smallest part of a file that is worth parsing on its own. */
+    private static final long MIN_CHUNK_SIZE = 1 << 22;
+
+    /** The largest part of a file that is mapped at once. */
+    private static final long MAX_CHUNK_SIZE = 1 << 30;
+
+    /** The character set for the header and date fields. */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /** Powers of ten that are exactly representable as doubles. */
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4,
+            1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 
+            1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    /** The field delimiter. */
+    private byte fieldDelimiter;
+
+    /** The text delimiter. */
+    private byte textDelimiter;
+
+    /** A flag that indicates whether the first line has series keys. */
+    private boolean header;
+
+    /** The index of the column with the x-values. */
+    private int xColumn;
+
+    /** The indices of the y-columns ({@code null} for all others). */
+    private int[] yColumns;
+
+    /** The format for x-values that are dates ({@code null} permitted). */
+    private DateFormat dateFormat;
+
+    /** The time zone for ISO 8601 x-values ({@code null} permitted). */
+    private TimeZone isoTimeZone;
+
+    /** The number of threads for parsing a file. */
+    private int parallelism;
+
+    /**
+     * Creates a new reader where the field delimiter is a comma, and the
+     * text delimiter is a double-quote.
+     */
+    public CSVXYReader() {
+        this(',', '"');
+    }
+
+    /**
+     * Creates a new reader with the specified field and text delimiters.
+     *
+     * @param fieldDelimiter  the field delimiter (an ASCII character, 
+     *     usually a comma, semi-colon, colon, tab or space).
+     * @param textDelimiter  the text delimiter (an ASCII character, usually
+     *     a single or double quote).
+     */
+    public CSVXYReader(char fieldDelimiter, char textDelimiter) {
+        if (fieldDelimiter > 127 || textDelimiter > 127 
+                || fieldDelimiter == '\n' || textDelimiter == '\n') {
+            throw new IllegalArgumentException(
+                    "The delimiters must be ASCII characters (not '\\n').");
+        }
+        this.fieldDelimiter = (byte) fieldDelimiter;
+        this.textDelimiter = (byte) textDelimiter;
+        this.header = true;
+        this.xColumn = 0;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Returns the flag that indicates whether or not the first line 
+     * contains the series keys.  The default value is {@code true}.
+     *
+     * @return A boolean.
+     */
+    public boolean hasHeader() {
+        return this.header;
+    }
+
+    /**
+     * Sets the flag that indicates whether or not the first line contains
+     * the series keys.  Without a header, the keys are "Column 1", 
+     * "Column 2" and so on.
+     *
+     * @param header  the new flag value.
+     */
+    public void setHeader(boolean header) {
+        this.header = header;
+    }
+
+    /**
+     * Returns the index of the column that contains the x-values.  The 
+     * default value is {@code 0}.
+     *
+     * @return The column index.
+     */
+    public int getXColumn() {
+        return this.xColumn;
+    }
+
+    /**
+     * Sets the index of the column that contains the x-values.
+     *
+     * @param column  the column index (zero-based).
+     */
+    public void setXColumn(int column) {
+        if (column < 0) {
+            throw new IllegalArgumentException("Requires 'column' >= 0.");
+        }
+        this.xColumn = column;
+    }
+
+    /**
+     * Returns a copy of the indices of the columns that contain the 
+     * y-values (one series per column).
+     *
+     * @return The column indices ({@code null} if all the columns other 
+     *     than the x-column are read).
+     */
+    public int[] getYColumns() {
+        return this.yColumns == null ? null : this.yColumns.clone();
+    }
+
+    /**
+     * Sets the indices of the columns that contain the y-values (one series
+     * per column, in the specified order).
+     *
+     * @param columns  the column indices ({@code null} to read all the 
+     *     columns other than the x-column).
+     */
+    public void setYColumns(int... columns) {
+        if (columns != null) {
+            for (int column : columns) {
+                if (column < 0) {
+                    throw new IllegalArgumentException(
+                            "Requires column indices >= 0.");
+                }
+            }
+            columns = columns.clone();
+        }
+        this.yColumns = columns;
+    }
+
+    /**
+     * Returns the format for x-values that are dates.
+     *
+     * @return The format (possibly {@code null}).
+     *
+     * @see #setDateFormat(DateFormat)
+     */
+    public DateFormat getDateFormat() {
+        return this.dateFormat;
+    }
+
+    /**
+     * Sets the format for x-values that are dates, which are converted to
+     * milliseconds since 1-Jan-1970.  This is the most flexible way to read
+     * dates, but it creates a {@code String} for each x-value, so 
+     * {@link #setISODateTimeZone(TimeZone)} is faster for dates in ISO 8601 
+     * format.  Setting a format clears the ISO date setting.
+     *
+     * @param format  the format ({@code null} if the x-values are numbers).
+     */
+    public void setDateFormat(DateFormat format) {
+        this.dateFormat = format;
+        if (format != null) {
+            this.isoTimeZone = null;
+        }
+    }
+
+    /**
+     * Returns the time zone for x-values that are ISO 8601 dates.
+     *
+     * @return The time zone (possibly {@code null}).
+     *
+     * @see #setISODateTimeZone(TimeZone)
+     */
+    public TimeZone getISODateTimeZone() {
+        return this.isoTimeZone;
+    }
+
+    /**
+     * Specifies that the x-values are ISO 8601 dates (such as 
+     * {@code 2017-03-01}, {@code 2017-03-01T10:00:00.250} or 
+     * {@code 2017-03-01 10:00:00+01:00}), which are parsed directly from the
+     * bytes and converted to milliseconds since 1-Jan-1970.  Dates without 
+     * a UTC offset are in the specified time zone.  Setting a time zone 
+     * clears the date format.
+     *
+     * @param zone  the time zone ({@code null} if the x-values are not ISO
+     *     8601 dates).
+     */
+    public void setISODateTimeZone(TimeZone zone) {
+        this.isoTimeZone = zone;
+        if (zone != null) {
+            this.dateFormat = null;
+        }
+    }
+
+    /**
+     * Returns the maximum number of threads for parsing a file.  The 
+     * default value is the number of available processors.
+     *
+     * @return The number of threads.
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Sets the maximum number of threads for parsing a file.  Each thread 
+     * parses at least a few megabytes, so small files are parsed by one
+     * thread anyway.
+     *
+     * @param parallelism  the number of threads (one or more).
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Requires 'parallelism' > 0.");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Reads a {@link DefaultXYDataset} from a file.  The series share the
+     * same array of x-values.  Null y-values are read as 
+     * {@code Double.NaN}.
+     *
+     * @param file  the file ({@code null} not permitted).
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if there is an I/O problem or the data cannot be
+     *     parsed.
+     */
+    public DefaultXYDataset readXYDataset(File file) throws IOException {
+        return createXYDataset(read(file));
+    }
+
+    /**
+     * Reads a {@link DefaultXYDataset} from a channel.  The series share 
+     * the same array of x-values.  Null y-values are read as 
+     * {@code Double.NaN}.
+     *
+     * @param channel  the channel ({@code null} not permitted).
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if there is an I/O problem or the data cannot be
+     *     parsed.
+     */
+    public DefaultXYDataset readXYDataset(ReadableByteChannel channel) 
+            throws IOException {
+        return createXYDataset(read(channel));
+    }
+
+    /**
+     * Reads an {@link XYSeriesCollection} from a file.  The series are 
+     * sorted, allow duplicate x-values and use columnar storage.
+     *
+     * @param file  the file ({@code null} not permitted).
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if there is an I/O problem or the data cannot be
+     *     parsed.
+     */
+    public XYSeriesCollection readXYSeriesCollection(File file) 
+            throws IOException {
+        return createXYSeriesCollection(read(file));
+    }
+
+    /**
+     * Reads an {@link XYSeriesCollection} from a channel.  The series are
+     * sorted, allow duplicate x-values and use columnar storage.
+     *
+     * @param channel  the channel ({@code null} not permitted).
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if there is an I/O problem or the data cannot be
+     *     parsed.
+     */
+    public XYSeriesCollection readXYSeriesCollection(
+            ReadableByteChannel channel) throws IOException {
+        return createXYSeriesCollection(read(channel));
+    }
+
+    /**
+     * Reads a {@link TimeSeriesCollection} from a file.  The x-values are 
+     * the dates (in milliseconds) and each one is converted to the time 
+     * period that contains it, in the time zone of the ISO dates or the 
+     * date format (or the default time zone).  If more than one row falls
+     * in the same time period, the last value is kept.  The series use 
+     * ring buffer storage.
+     *
+     * @param file  the file ({@code null} not permitted).
+     * @param periodClass  the time period class (for example, 
+     *     {@code Second.class}, {@code null} not permitted).
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if there is an I/O problem or the data cannot be
+     *     parsed.
+     */
+    public TimeSeriesCollection readTimeSeriesCollection(File file, 
+            Class periodClass) throws IOException {
+        Constructor constructor = getPeriodConstructor(periodClass);
+        return createTimeSeriesCollection(read(file), constructor);
+    }
+
+    /**
+     * Reads a {@link TimeSeriesCollection} from a channel.  See 
+     * {@link #readTimeSeriesCollection(File, Class)} for the details.
+     *
+     * @param channel  the channel ({@code null} not permitted).
+     * @param periodClass  the time period class (for example, 
+     *     {@code Second.class}, {@code null} not permitted).
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if there is an I/O problem or the data cannot be
+     *     parsed.
+     */
+    public TimeSeriesCollection readTimeSeriesCollection(
+            ReadableByteChannel channel, Class periodClass) 
+            throws IOException {
+        Constructor constructor = getPeriodConstructor(periodClass);
+        return createTimeSeriesCollection(read(channel), constructor);
+    }
+
+    /**
+     * Creates a dataset from the columns that have been read.
+     *
+     * @param columns  the columns.
+     *
+     * @return The dataset.
+     */
+    private DefaultXYDataset createXYDataset(Columns columns) {
+        DefaultXYDataset dataset = new DefaultXYDataset();
+        for (int s = 0; s < columns.keys.length; s++) {
+            dataset.addSeries(columns.keys[s], 
+                    new double[][] {columns.x, columns.y[s]});
+        }
+        return dataset;
+    }
+
+    /**
+     * Creates a dataset from the columns that have been read.
+     *
+     * @param columns  the columns.
+     *
+     * @return The dataset.
+     */
+    private XYSeriesCollection createXYSeriesCollection(Columns columns) {
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        for (int s = 0; s < columns.keys.length; s++) {
+            XYSeries series = new XYSeries(columns.keys[s], true, true, true);
+            double[] y = columns.y[s];
+            for (int i = 0; i < columns.count; i++) {
+                if (Double.isNaN(y[i])) {
+                    series.add(columns.x[i], null, false);
+                }
+                else {
+                    series.add(columns.x[i], y[i], false);
+                }
+            }
+            dataset.addSeries(series);
+        }
+        return dataset;
+    }
+
+    /**
+     * Returns the constructor that creates a time period from a date, time
+     * zone and locale.
+     *
+     * @param periodClass  the time period class ({@code null} not 
+     *     permitted).
+     *
+     * @return The constructor.
+     */
+    private static Constructor getPeriodConstructor(Class periodClass) {
+        Args.nullNotPermitted(periodClass, "periodClass");
+        if (!RegularTimePeriod.class.isAssignableFrom(periodClass)) {
+            throw new IllegalArgumentException(
+                    "Requires a RegularTimePeriod subclass.");
+        }
+        try {
+            return periodClass.getDeclaredConstructor(new Class[] {
+                    Date.class, TimeZone.class, Locale.class});
+        }
+        catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("The class " 
+                    + periodClass.getName() + " has no constructor for a "
+                    + "(Date, TimeZone, Locale).");
+        }
+    }
+
+    /**
+     * Creates a dataset from the columns that have been read.
+     *
+     * @param columns  the columns.
+     * @param constructor  the constructor for the time periods.
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if a time period cannot be created.
+     */
+    private TimeSeriesCollection createTimeSeriesCollection(Columns columns,
+            Constructor constructor) throws IOException {
+        TimeZone zone = TimeZone.getDefault();
+        if (this.isoTimeZone != null) {
+            zone = this.isoTimeZone;
+        }
+        else if (this.dateFormat != null) {
+            zone = this.dateFormat.getTimeZone();
+        }
+        Locale locale = Locale.getDefault();
+        int seriesCount = columns.keys.length;
+        TimeSeries[] series = new TimeSeries[seriesCount];
+        for (int s = 0; s < seriesCount; s++) {
+            series[s] = new TimeSeries(columns.keys[s], "Time", "Value", 
+                    true);
+        }
+        RegularTimePeriod last = null;
+        for (int i = 0; i < columns.count; i++) {
+            long millis = (long) columns.x[i];
+            RegularTimePeriod period = last;
+            if (last == null || millis < last.getFirstMillisecond() 
+                    || millis > last.getLastMillisecond()) {
+                try {
+                    period = (RegularTimePeriod) constructor.newInstance(
+                            new Date(millis), zone, locale);
+                }
+                catch (Exception e) {
+                    throw new IOException("Cannot create a time period for "
+                            + millis + ".", e);
+                }
+            }
+            for (int s = 0; s < seriesCount; s++) {
+                double y = columns.y[s][i];
+                Number value = Double.isNaN(y) ? null : new Double(y);
+                TimeSeries ts = series[s];
+                int count = ts.getItemCount();
+                if (period == last) {
+                    ts.update(count - 1, value);
+                }
+                else if (count == 0 || period.compareTo(
+                        ts.getTimePeriod(count - 1)) > 0) {
+                    ts.add(period, value, false);
+                }
+                else {
+                    ts.addOrUpdate(period, value);
+                }
+            }
+            last = period;
+        }
+        TimeSeriesCollection dataset = new TimeSeriesCollection(zone);
+        for (TimeSeries ts : series) {
+            dataset.addSeries(ts);
+        }
+        return dataset;
+    }
+
+    /**
+     * Reads the columns from a channel.
+     *
+     * @param channel  the channel ({@code null} not permitted).
+     *
+     * @return The columns.
+     *
+     * @throws IOException if there is an I/O problem or the data cannot be
+     *     parsed.
+     */
+    private Columns read(ReadableByteChannel channel) throws IOException {
+        Args.nullNotPermitted(channel, "channel");
+        byte[] data = new byte[BUFFER_SIZE];
+        int length = 0;
+        boolean eof = false;
+
+        // read the first line
+        int lineEnd = indexOfLineEnd(data, 0, length);
+        while (lineEnd < 0 && !eof) {
+            if (length == data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            int n = channel.read(ByteBuffer.wrap(data, length, 
+                    data.length - length));
+            if (n < 0) {
+                eof = true;
+            }
+            else {
+                length += n;
+            }
+            lineEnd = indexOfLineEnd(data, 0, length);
+        }
+        if (lineEnd < 0) {
+            lineEnd = length;
+        }
+        String[] firstLine = splitLine(new String(data, 0, lineEnd, UTF8));
+        ChunkParser parser = new ChunkParser(firstLine.length, 0L);
+        String[] keys = getSeriesKeys(firstLine);
+
+        // parse the rest as it arrives
+        int start = this.header ? Math.min(lineEnd + 1, length) : 0;
+        long offset = 0L;
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (true) {
+            int consumed = parser.parse(buffer, start, length, eof);
+            if (eof) {
+                break;
+            }
+            length -= consumed;
+            offset += consumed;
+            System.arraycopy(data, consumed, data, 0, length);
+            if (length == data.length) {
+                // a very long line
+                data = Arrays.copyOf(data, data.length * 2);
+                buffer = ByteBuffer.wrap(data);
+            }
+            int n = channel.read(ByteBuffer.wrap(data, length, 
+                    data.length - length));
+            if (n < 0) {
+                eof = true;
+            }
+            else {
+                length += n;
+            }
+            start = 0;
+            parser.offset = offset;
+        }
+        return parser.columns.complete(keys);
+    }
+
+    /**
+     * Reads the columns from a file.  The file is mapped into memory and 
+     * (if it is large enough) split into chunks that are parsed in 
+     * parallel.
+     *
+     * @param file  the file ({@code null} not permitted).
+     *
+     * @return The columns.
+     *
+     * @throws IOException if there is an I/O problem or the data cannot be
+     *     parsed.
+     */
+    private Columns read(File file) throws IOException {
+        Args.nullNotPermitted(file, "file");
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            long size = channel.size();
+            long lineEnd = findLineEnd(channel, 0L);
+            long firstLineEnd = lineEnd < 0 ? size : lineEnd;
+            ByteBuffer first = channel.map(FileChannel.MapMode.READ_ONLY, 0L,
+                    firstLineEnd);
+            byte[] bytes = new byte[(int) firstLineEnd];
+            first.get(bytes);
+            final String[] firstLine = splitLine(new String(bytes, UTF8));
+            String[] keys = getSeriesKeys(firstLine);
+            long dataStart = this.header ? Math.min(firstLineEnd + 1, size)
+                    : 0L;
+
+            // split the data into chunks at line breaks
+            long dataSize = size - dataStart;
+            int chunks = (int) Math.max(1L, Math.min(this.parallelism, 
+                    dataSize / MIN_CHUNK_SIZE));
+            chunks = (int) Math.max(chunks, dataSize / MAX_CHUNK_SIZE + 1);
+            final long[] bounds = new long[chunks + 1];
+            bounds[0] = dataStart;
+            bounds[chunks] = size;
+            for (int i = 1; i < chunks; i++) {
+                long end = findLineEnd(channel, Math.max(bounds[i - 1], 
+                        dataStart + dataSize * i / chunks));
+                bounds[i] = end < 0 ? size : end + 1;
+            }
+
+            List<Callable<Columns>> tasks = new ArrayList<Callable<Columns>>();
+            for (int i = 0; i < chunks; i++) {
+                final long chunkStart = bounds[i];
+                final long chunkEnd = bounds[i + 1];
+                tasks.add(new Callable<Columns>() {
+                    @Override
+                    public Columns call() throws IOException {
+                        ChunkParser parser = new ChunkParser(
+                                firstLine.length, chunkStart);
+                        ByteBuffer chunk = channel.map(
+                                FileChannel.MapMode.READ_ONLY, chunkStart, 
+                                chunkEnd - chunkStart);
+                        parser.parse(chunk, 0, chunk.limit(), true);
+                        return parser.columns;
+                    }
+                });
+            }
+            Columns[] results = new Columns[chunks];
+            if (chunks == 1) {
+                try {
+                    results[0] = tasks.get(0).call();
+                }
+                catch (IOException e) {
+                    throw e;
+                }
+                catch (Exception e) {
+                    throw new IOException(e);
+                }
+            }
+            else {
+                ExecutorService pool = Executors.newFixedThreadPool(
+                        Math.min(chunks, this.parallelism));
+                try {
+                    List<Future<Columns>> futures = pool.invokeAll(tasks);
+                    for (int i = 0; i < chunks; i++) {
+                        results[i] = getResult(futures.get(i));
+                    }
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while parsing.", e);
+                }
+                finally {
+                    pool.shutdown();
+                }
+            }
+            return Columns.concatenate(results, keys);
+        }
+        finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Returns the result of parsing a chunk.
+     *
+     * @param future  the future for the result.
+     *
+     * @return The columns.
+     *
+     * @throws IOException if the chunk could not be parsed.
+     */
+    private static Columns getResult(Future<Columns> future) 
+            throws IOException {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing.", e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Returns the position of the first line break in a file at or after
+     * the specified position.
+     *
+     * @param channel  the file channel.
+     * @param position  the position.
+     *
+     * @return The position of the line break, or -1 if there is none.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static long findLineEnd(FileChannel channel, long position) 
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long p = position;
+        while (true) {
+            buffer.clear();
+            int n = channel.read(buffer, p);
+            if (n < 0) {
+                return -1L;
+            }
+            int i = indexOfLineEnd(buffer.array(), 0, n);
+            if (i >= 0) {
+                return p + i;
+            }
+            p += n;
+        }
+    }
+
+    /**
+     * Returns the index of the first line break in a range of bytes.
+     *
+     * @param data  the bytes.
+     * @param start  the start index.
+     * @param end  the end index.
+     *
+     * @return The index, or -1 if there is no line break.
+     */
+    private static int indexOfLineEnd(byte[] data, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (data[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Splits a line into fields.
+     *
+     * @param line  the line.
+     *
+     * @return The fields.
+     */
+    private String[] splitLine(String line) {
+        List<String> fields = new ArrayList<String>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == this.textDelimiter) {
+                quoted = !quoted;
+            }
+            else if (c == this.fieldDelimiter && !quoted) {
+                fields.add(removeStringDelimiters(line.substring(start, i)));
+                start = i + 1;
+            }
+        }
+        fields.add(removeStringDelimiters(line.substring(start)));
+        return fields.toArray(new String[fields.size()]);
+    }
+
+    /**
+     * Removes the text delimiters from a field (as well as any white space
+     * outside the delimiters).
+     *
+     * @param field  the field (including delimiters).
+     *
+     * @return The field without delimiters.
+     */
+    private String removeStringDelimiters(String field) {
+        String f = field.trim();
+        if (f.length() >= 2 && f.charAt(0) == this.textDelimiter 
+                && f.charAt(f.length() - 1) == this.textDelimiter) {
+            f = f.substring(1, f.length() - 1);
+        }
+        return f;
+    }
+
+    /**
+     * Returns the series keys for the y-columns.
+     *
+     * @param firstLine  the fields in the first line.
+     *
+     * @return The series keys.
+     */
+    private String[] getSeriesKeys(String[] firstLine) {
+        int[] columns = getYColumns(firstLine.length);
+        String[] keys = new String[columns.length];
+        for (int s = 0; s < columns.length; s++) {
+            int column = columns[s];
+            if (this.header && column < firstLine.length) {
+                keys[s] = firstLine[column];
+            }
+            else {
+                keys[s] = "Column " + (column + 1);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the indices of the y-columns.
+     *
+     * @param columnCount  the number of columns in the first line.
+     *
+     * @return The column indices.
+     */
+    private int[] getYColumns(int columnCount) {
+        if (this.yColumns != null) {
+            return this.yColumns;
+        }
+        int[] result = new int[Math.max(0, columnCount - 1)];
+        int s = 0;
+        for (int column = 0; column < columnCount && s < result.length; 
+                column++) {
+            if (column != this.xColumn) {
+                result[s++] = column;
+            }
+        }
+        return Arrays.copyOf(result, s);
+    }
+
+    /**
+     * Parses a number from a range of bytes.  Numbers with up to 18 
+     * significant digits and a small exponent are converted exactly without
+     * creating any objects, other numbers are passed to 
+     * {@code Double.parseDouble()}.
+     *
+     * @param b  the buffer.
+     * @param start  the index of the first byte.
+     * @param end  the index after the last byte.
+     *
+     * @return The number.
+     *
+     * @throws NumberFormatException if the bytes are not a number.
+     */
+    static double parseDouble(ByteBuffer b, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (b.get(i) == '-' || b.get(i) == '+')) {
+            negative = b.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0L;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        boolean valid = false;
+        for (; i < end; i++) {
+            int c = b.get(i);
+            if (c >= '0' && c <= '9') {
+                valid = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa > 0) {
+                        digits++;
+                    }
+                    if (point) {
+                        scale--;
+                    }
+                }
+                else {
+                    digits++;  // too many digits, so take the slow path
+                }
+            }
+            else if (c == '.' && !point) {
+                point = true;
+            }
+            else {
+                break;
+            }
+        }
+        if (valid && i < end && (b.get(i) == 'e' || b.get(i) == 'E')) {
+            int j = i + 1;
+            boolean negativeExponent = false;
+            if (j < end && (b.get(j) == '-' || b.get(j) == '+')) {
+                negativeExponent = b.get(j) == '-';
+                j++;
+            }
+            int exponent = 0;
+            boolean validExponent = false;
+            for (; j < end && exponent < 10000; j++) {
+                int c = b.get(j);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                exponent = exponent * 10 + (c - '0');
+                validExponent = true;
+            }
+            if (validExponent) {
+                scale += negativeExponent ? -exponent : exponent;
+                i = j;
+            }
+            else {
+                valid = false;
+            }
+        }
+        if (valid && i == end && digits <= 18 
+                && mantissa < (1L << 53) && Math.abs(scale) <= 22) {
+            double value = (double) mantissa;
+            value = scale < 0 ? value / POWERS_OF_TEN[-scale] 
+                    : value * POWERS_OF_TEN[scale];
+            return negative ? -value : value;
+        }
+        byte[] bytes = new byte[end - start];
+        for (int k = 0; k < bytes.length; k++) {
+            bytes[k] = b.get(start + k);
+        }
+        return Double.parseDouble(new String(bytes, UTF8));
+    }
+
+    /**
+     * Parses an ISO 8601 date (with an optional time and UTC offset) from a
+     * range of bytes.
+     *
+     * @param b  the buffer.
+     * @param start  the index of the first byte.
+     * @param end  the index after the last byte.
+     * @param zone  the time zone for dates without a UTC offset.
+     *
+     * @return The number of milliseconds since 1-Jan-1970, or 
+     *     {@code Long.MIN_VALUE} if the bytes are not an ISO 8601 date.
+     */
+    static long parseISODate(ByteBuffer b, int start, int end, 
+            TimeZone zone) {
+        if (end - start < 10 || b.get(start + 4) != '-' 
+                || b.get(start + 7) != '-') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(b, start, 4);
+        int month = digits(b, start + 5, 2);
+        int day = digits(b, start + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return Long.MIN_VALUE;
+        }
+        int i = start + 10;
+        long millis = 0L;
+        if (i < end && (b.get(i) == 'T' || b.get(i) == ' ')) {
+            if (end - i < 6 || b.get(i + 3) != ':') {
+                return Long.MIN_VALUE;
+            }
+            int hour = digits(b, i + 1, 2);
+            int minute = digits(b, i + 4, 2);
+            int second = 0;
+            i += 6;
+            if (i < end && b.get(i) == ':') {
+                if (end - i < 3) {
+                    return Long.MIN_VALUE;
+                }
+                second = digits(b, i + 1, 2);
+                i += 3;
+                if (i < end && (b.get(i) == '.' || b.get(i) == ',')) {
+                    int scale = 1000;
+                    i++;
+                    while (i < end && b.get(i) >= '0' && b.get(i) <= '9') {
+                        scale /= 10;
+                        millis += (b.get(i) - '0') * scale;
+                        i++;
+                    }
+                }
+            }
+            if (hour < 0 || hour > 24 || minute < 0 || minute > 59 
+                    || second < 0 || second > 60) {
+                return Long.MIN_VALUE;
+            }
+            millis += ((hour * 60L + minute) * 60L + second) * 1000L;
+        }
+        long local = daysFromCivil(year, month, day) * 86400000L + millis;
+        if (i == end) {
+            long utc = local - zone.getOffset(local);
+            int offset = zone.getOffset(utc);
+            return local - offset;
+        }
+        if (b.get(i) == 'Z' && i + 1 == end) {
+            return local;
+        }
+        if ((b.get(i) == '+' || b.get(i) == '-') && end - i >= 3) {
+            int sign = b.get(i) == '-' ? -1 : 1;
+            int hours = digits(b, i + 1, 2);
+            int minutes = 0;
+            i += 3;
+            if (i < end && b.get(i) == ':') {
+                i++;
+            }
+            if (i < end) {
+                if (end - i != 2) {
+                    return Long.MIN_VALUE;
+                }
+                minutes = digits(b, i, 2);
+                i += 2;
+            }
+            if (hours < 0 || minutes < 0 || i != end) {
+                return Long.MIN_VALUE;
+            }
+            return local - sign * (hours * 60L + minutes) * 60000L;
+        }
+        return Long.MIN_VALUE;
+    }
+
+    /**
+     * Parses a fixed number of decimal digits.
+     *
+     * @param b  the buffer.
+     * @param start  the index of the first digit.
+     * @param count  the number of digits.
+     *
+     * @return The value, or -1 if the bytes are not all digits.
+     */
+    private static int digits(ByteBuffer b, int start, int count) {
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            int c = b.get(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of days from 1-Jan-1970 to a date in the 
+     * proleptic Gregorian calendar.
+     *
+     * @param year  the year.
+     * @param month  the month (1 to 12).
+     * @param day  the day of the month.
+     *
+     * @return The number of days.
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 
+                + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 
+                + dayOfYear;
+        return era * 146097L + dayOfEra - 719468L;
+    }
+
+    /**
+     * Parses the lines in a buffer into columns.
+     */
+    private final class ChunkParser {
+
+        /** 
+         * The series index for each column (-1 for columns that are not 
+         * read, -2 for the x-column). 
+         */
+        private final int[] seriesForColumn;
+
+        /** The date format for this parser ({@code null} permitted). */
+        private final DateFormat format;
+
+        /** The columns. */
+        final Columns columns;
+
+        /** The position of the buffer in the input (for error messages). */
+        long offset;
+
+        /** The y-values for the current row. */
+        private final double[] row;
+
+        /** The x-value for the current row. */
+        private double x;
+
+        /**
+         * Creates a new parser.
+         *
+         * @param columnCount  the number of columns in the first line.
+         * @param offset  the position of the buffer in the input.
+         */
+        ChunkParser(int columnCount, long offset) {
+            int[] series = getYColumns(columnCount);
+            int max = CSVXYReader.this.xColumn;
+            for (int column : series) {
+                max = Math.max(max, column);
+            }
+            this.seriesForColumn = new int[max + 1];
+            Arrays.fill(this.seriesForColumn, -1);
+            for (int s = 0; s < series.length; s++) {
+                this.seriesForColumn[series[s]] = s;
+            }
+            this.seriesForColumn[CSVXYReader.this.xColumn] = -2;
+            DateFormat df = CSVXYReader.this.dateFormat;
+            this.format = df == null ? null : (DateFormat) df.clone();
+            this.columns = new Columns(series.length, 1024);
+            this.row = new double[series.length];
+            this.offset = offset;
+        }
+
+        /**
+         * Parses the lines in a range of a buffer and adds the rows to the
+         * columns.
+         *
+         * @param b  the buffer.
+         * @param start  the index of the first byte.
+         * @param end  the index after the last byte.
+         * @param eof  a flag that indicates that the range ends at the end
+         *     of the input (otherwise, an incomplete line at the end of the
+         *     range is not parsed).
+         *
+         * @return The index after the last line that was parsed.
+         *
+         * @throws IOException if a value cannot be parsed.
+         */
+        int parse(ByteBuffer b, int start, int end, boolean eof) 
+                throws IOException {
+            byte delimiter = CSVXYReader.this.fieldDelimiter;
+            byte quote = CSVXYReader.this.textDelimiter;
+            int lineStart = start;
+            int fieldStart = start;
+            int column = 0;
+            boolean quoted = false;
+            startRow();
+            for (int i = start; i < end; i++) {
+                byte c = b.get(i);
+                if (c == quote) {
+                    quoted = !quoted;
+                }
+                else if (!quoted) {
+                    if (c == delimiter) {
+                        field(b, fieldStart, i, column++);
+                        fieldStart = i + 1;
+                    }
+                    else if (c == '\n') {
+                        field(b, fieldStart, i, column);
+                        endRow();
+                        lineStart = i + 1;
+                        fieldStart = lineStart;
+                        column = 0;
+                        startRow();
+                    }
+                }
+            }
+            if (eof && lineStart < end) {
+                field(b, fieldStart, end, column);
+                endRow();
+                lineStart = end;
+            }
+            return lineStart;
+        }
+
+        /**
+         * Clears the values for a new row.
+         */
+        private void startRow() {
+            this.x = Double.NaN;
+            Arrays.fill(this.row, Double.NaN);
+        }
+
+        /**
+         * Adds the current row to the columns, if it has an x-value.
+         */
+        private void endRow() {
+            if (!Double.isNaN(this.x)) {
+                this.columns.add(this.x, this.row);
+            }
+        }
+
+        /**
+         * Parses a field.
+         *
+         * @param b  the buffer.
+         * @param start  the index of the first byte.
+         * @param end  the index after the last byte.
+         * @param column  the column index.
+         *
+         * @throws IOException if the field cannot be parsed.
+         */
+        private void field(ByteBuffer b, int start, int end, int column) 
+                throws IOException {
+            if (column >= this.seriesForColumn.length) {
+                return;
+            }
+            int series = this.seriesForColumn[column];
+            if (series == -1) {
+                return;
+            }
+            // trim white space (including the '\r' of a "\r\n") and quotes
+            while (start < end && b.get(start) <= ' ') {
+                start++;
+            }
+            while (end > start && b.get(end - 1) <= ' ') {
+                end--;
+            }
+            byte quote = CSVXYReader.this.textDelimiter;
+            if (end - start >= 2 && b.get(start) == quote 
+                    && b.get(end - 1) == quote) {
+                start++;
+                end--;
+            }
+            if (start == end) {
+                return;  // null
+            }
+            if (series == -2) {
+                this.x = parseX(b, start, end);
+            }
+            else {
+                try {
+                    this.row[series] = parseDouble(b, start, end);
+                }
+                catch (NumberFormatException e) {
+                    throw error(b, start, end, "number");
+                }
+            }
+        }
+
+        /**
+         * Parses an x-value.
+         *
+         * @param b  the buffer.
+         * @param start  the index of the first byte.
+         * @param end  the index after the last byte.
+         *
+         * @return The x-value.
+         *
+         * @throws IOException if the x-value cannot be parsed.
+         */
+        private double parseX(ByteBuffer b, int start, int end) 
+                throws IOException {
+            TimeZone zone = CSVXYReader.this.isoTimeZone;
+            if (zone != null) {
+                long millis = parseISODate(b, start, end, zone);
+                if (millis == Long.MIN_VALUE) {
+                    throw error(b, start, end, "ISO 8601 date");
+                }
+                return millis;
+            }
+            if (this.format != null) {
+                try {
+                    return this.format.parse(text(b, start, end)).getTime();
+                }
+                catch (ParseException e) {
+                    throw error(b, start, end, "date");
+                }
+            }
+            try {
+                return parseDouble(b, start, end);
+            }
+            catch (NumberFormatException e) {
+                throw error(b, start, end, "number");
+            }
+        }
+
+        /**
+         * Creates an exception for a field that cannot be parsed.
+         *
+         * @param b  the buffer.
+         * @param start  the index of the first byte.
+         * @param end  the index after the last byte.
+         * @param expected  a description of the expected value.
+         *
+         * @return The exception.
+         */
+        private IOException error(ByteBuffer b, int start, int end, 
+                String expected) {
+            return new IOException("Expected a " + expected + " but found '"
+                    + text(b, start, end) + "' at byte offset " 
+                    + (this.offset + start) + ".");
+        }
+
+        /**
+         * Decodes a range of bytes.
+         *
+         * @param b  the buffer.
+         * @param start  the index of the first byte.
+         * @param end  the index after the last byte.
+         *
+         * @return The text.
+         */
+        private String text(ByteBuffer b, int start, int end) {
+            byte[] bytes = new byte[end - start];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = b.get(start + i);
+            }
+            return new String(bytes, UTF8);
+        }
+
+    }
+
+    /**
+     * The x and y-values that have been read.
+     */
+    private static final class Columns {
+
+        /** The series keys (set when the data is complete). */
+        String[] keys;
+
+        /** The x-values. */
+        double[] x;
+
+        /** The y-values (one array per series). */
+        double[][] y;
+
+        /** The number of rows. */
+        int count;
+
+        /**
+         * Creates new empty columns.
+         *
+         * @param seriesCount  the number of series.
+         * @param capacity  the initial capacity.
+         */
+        Columns(int seriesCount, int capacity) {
+            this.x = new double[capacity];
+            this.y = new double[seriesCount][capacity];
+        }
+
+        /**
+         * Adds a row.
+         *
+         * @param xValue  the x-value.
+         * @param yValues  the y-values.
+         */
+        void add(double xValue, double[] yValues) {
+            if (this.count == this.x.length) {
+                int capacity = Math.max(16, this.count + (this.count >> 1));
+                this.x = Arrays.copyOf(this.x, capacity);
+                for (int s = 0; s < this.y.length; s++) {
+                    this.y[s] = Arrays.copyOf(this.y[s], capacity);
+                }
+            }
+            this.x[this.count] = xValue;
+            for (int s = 0; s < yValues.length; s++) {
+                this.y[s][this.count] = yValues[s];
+            }
+            this.count++;
+        }
+
+        /**
+         * Trims the arrays to the number of rows and sets the keys.
+         *
+         * @param keys  the series keys.
+         *
+         * @return These columns.
+         */
+        Columns complete(String[] keys) {
+            return concatenate(new Columns[] {this}, keys);
+        }
+
+        /**
+         * Joins the columns from the chunks of the input into new columns 
+         * with arrays of the exact length.
+         *
+         * @param parts  the columns for the chunks.
+         * @param keys  the series keys.
+         *
+         * @return The columns.
+         */
+        static Columns concatenate(Columns[] parts, String[] keys) {
+            int total = 0;
+            for (Columns part : parts) {
+                total += part.count;
+            }
+            Columns result = new Columns(keys.length, total);
+            result.keys = keys;
+            result.count = total;
+            int index = 0;
+            for (Columns part : parts) {
+                System.arraycopy(part.x, 0, result.x, index, part.count);
+                for (int s = 0; s < keys.length; s++) {
+                    System.arraycopy(part.y[s], 0, result.y[s], index, 
+                            part.count);
+                }
+                index += part.count;
+            }
+            return result;
+        }
+
+    }
+
+}
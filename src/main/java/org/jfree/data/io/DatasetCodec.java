@@ -0,0 +1,1485 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -----------------
+ * DatasetCodec.java
+ * -----------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.jfree.chart.util.Args;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.Dataset;
+import org.jfree.data.general.DefaultHeatMapDataset;
+import org.jfree.data.general.DefaultPieDataset;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.TimePeriodAnchor;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.time.ohlc.OHLCItem;
+import org.jfree.data.time.ohlc.OHLCSeries;
+import org.jfree.data.time.ohlc.OHLCSeriesCollection;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+/**
+ * Reads and writes datasets in a compact, versioned binary format, as an
+ * alternative to Java serialization for moving large datasets between 
+ * processes.  The data values are written as primitive columns (one 
+ * column of x-values, one of y-values and so on for each series) rather 
+ * than as an object per item, and are read and written through NIO 
+ * channels.  The supported datasets are {@link XYSeriesCollection}, 
+ * {@link TimeSeriesCollection}, {@link OHLCSeriesCollection}, 
+ * {@link DefaultCategoryDataset}, {@link DefaultPieDataset} and 
+ * {@link DefaultHeatMapDataset}.
+ * <p>
+ * With compression, timestamps are written as variable-length differences
+ * between consecutive deltas (so a regular time series takes about one 
+ * byte per timestamp) and {@code double} values are written as the 
+ * meaningful bits of the XOR with the previous value (so repeated and 
+ * slowly changing values take a few bytes).  Without compression, each 
+ * value takes eight bytes.
+ * <p>
+ * Series keys, row keys and column keys can be instances of 
+ * {@code String}, {@code Integer}, {@code Long}, {@code Double}, 
+ * {@code Date} or {@link RegularTimePeriod}, other key types are not 
+ * supported.  Java serialization is not used, so reading data never creates
+ * instances of classes other than these.  Time periods are written as their
+ * first millisecond and are created again in the default time zone of the 
+ * writer, which is recorded in the data.
+ * <p>
+ * Listeners, renderer settings and other state that is not part of the 
+ * data are not written.
+ *
+ * @since 1.5
+ */
+public class DatasetCodec {
+
+    /** The first four bytes of the data ("JFDS"). */
+    private static final int MAGIC = 0x4A464453;
+
+    /** The current format version. */
+    public static final int VERSION = 1;
+
+    /** The type code for an {@link XYSeriesCollection}. */
+    private static final int XY_SERIES_COLLECTION = 1;
+
+    /** The type code for a {@link TimeSeriesCollection}. */
+    private static final int TIME_SERIES_COLLECTION = 2;
+
+    /** The type code for an {@link OHLCSeriesCollection}. */
+    private static final int OHLC_SERIES_COLLECTION = 3;
+
+    /** The type code for a {@link DefaultCategoryDataset}. */
+    private static final int CATEGORY_DATASET = 4;
+
+    /** The type code for a {@link DefaultPieDataset}. */
+    private static final int PIE_DATASET = 5;
+
+    /** The type code for a {@link DefaultHeatMapDataset}. */
+    private static final int HEAT_MAP_DATASET = 6;
+
+    /** The type code for a {@code String} key. */
+    private static final int STRING_KEY = 0;
+
+    /** The type code for an {@code Integer} key. */
+    private static final int INTEGER_KEY = 1;
+
+    /** The type code for a {@code Long} key. */
+    private static final int LONG_KEY = 2;
+
+    /** The type code for a {@code Double} key. */
+    private static final int DOUBLE_KEY = 3;
+
+    /** The type code for a {@code Date} key. */
+    private static final int DATE_KEY = 4;
+
+    /** The type code for a {@link RegularTimePeriod} key. */
+    private static final int TIME_PERIOD_KEY = 5;
+
+    /** The flag for compressed data. */
+    private static final int COMPRESSED = 1;
+
+    /** The size of the buffers. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** 
+     * The largest array allocated for a count before the data for it has
+     * been read (arrays grow as the data arrives).
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** The character set for strings. */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Private constructor prevents object creation.
+     */
+    private DatasetCodec() {
+    }
+
+    /**
+     * Writes a dataset to a channel.  The channel is not closed.
+     *
+     * @param dataset  the dataset ({@code null} not permitted).
+     * @param channel  the channel ({@code null} not permitted).
+     * @param compress  compress the timestamps and values?
+     *
+     * @throws IOException if there is an I/O problem.
+     * @throws IllegalArgumentException if the dataset type, or the type of 
+     *     one of its keys, is not supported.
+     */
+    public static void write(Dataset dataset, WritableByteChannel channel, 
+            boolean compress) throws IOException {
+        Args.nullNotPermitted(dataset, "dataset");
+        Args.nullNotPermitted(channel, "channel");
+        int type;
+        if (dataset instanceof XYSeriesCollection) {
+            type = XY_SERIES_COLLECTION;
+        }
+        else if (dataset instanceof TimeSeriesCollection) {
+            type = TIME_SERIES_COLLECTION;
+        }
+        else if (dataset instanceof OHLCSeriesCollection) {
+            type = OHLC_SERIES_COLLECTION;
+        }
+        else if (dataset instanceof DefaultCategoryDataset) {
+            type = CATEGORY_DATASET;
+        }
+        else if (dataset instanceof DefaultPieDataset) {
+            type = PIE_DATASET;
+        }
+        else if (dataset instanceof DefaultHeatMapDataset) {
+            type = HEAT_MAP_DATASET;
+        }
+        else {
+            throw new IllegalArgumentException("Unsupported dataset type: " 
+                    + dataset.getClass().getName());
+        }
+        Output out = new Output(channel, compress);
+        out.putInt(MAGIC);
+        out.putByte(VERSION);
+        out.putByte(type);
+        out.putByte(compress ? COMPRESSED : 0);
+        switch (type) {
+            case XY_SERIES_COLLECTION:
+                writeXYSeriesCollection((XYSeriesCollection) dataset, out);
+                break;
+            case TIME_SERIES_COLLECTION:
+                writeTimeSeriesCollection((TimeSeriesCollection) dataset, 
+                        out);
+                break;
+            case OHLC_SERIES_COLLECTION:
+                writeOHLCSeriesCollection((OHLCSeriesCollection) dataset, 
+                        out);
+                break;
+            case CATEGORY_DATASET:
+                writeCategoryDataset((DefaultCategoryDataset) dataset, out);
+                break;
+            case PIE_DATASET:
+                writePieDataset((DefaultPieDataset) dataset, out);
+                break;
+            default:
+                writeHeatMapDataset((DefaultHeatMapDataset) dataset, out);
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a dataset from a channel.  The channel is not closed, but more
+     * bytes than the dataset needs may have been read from it.
+     *
+     * @param channel  the channel ({@code null} not permitted).
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if there is an I/O problem, or the data is not 
+     *     valid or has an unsupported version.
+     */
+    public static Dataset read(ReadableByteChannel channel) 
+            throws IOException {
+        Args.nullNotPermitted(channel, "channel");
+        Input in = new Input(channel);
+        if (in.getInt() != MAGIC) {
+            throw new IOException("The data is not an encoded dataset.");
+        }
+        int version = in.getByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported version: " + version);
+        }
+        int type = in.getByte();
+        in.compressed = (in.getByte() & COMPRESSED) != 0;
+        switch (type) {
+            case XY_SERIES_COLLECTION:
+                return readXYSeriesCollection(in);
+            case TIME_SERIES_COLLECTION:
+                return readTimeSeriesCollection(in);
+            case OHLC_SERIES_COLLECTION:
+                return readOHLCSeriesCollection(in);
+            case CATEGORY_DATASET:
+                return readCategoryDataset(in);
+            case PIE_DATASET:
+                return readPieDataset(in);
+            case HEAT_MAP_DATASET:
+                return readHeatMapDataset(in);
+            default:
+                throw new IOException("Unknown dataset type: " + type);
+        }
+    }
+
+    /**
+     * Writes an {@link XYSeriesCollection}.
+     *
+     * @param dataset  the dataset.
+     * @param out  the output.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static void writeXYSeriesCollection(XYSeriesCollection dataset,
+            Output out) throws IOException {
+        out.putBoolean(dataset.isAutoWidth());
+        out.putDouble(dataset.getIntervalWidth());
+        out.putDouble(dataset.getIntervalPositionFactor());
+        int seriesCount = dataset.getSeriesCount();
+        out.putInt(seriesCount);
+        for (int s = 0; s < seriesCount; s++) {
+            XYSeries series = dataset.getSeries(s);
+            out.putKey(series.getKey());
+            out.putString(series.getDescription());
+            out.putBoolean(series.getAutoSort());
+            out.putBoolean(series.getAllowDuplicateXValues());
+            out.putBoolean(series.isColumnar());
+            out.putInt(series.getMaximumItemCount());
+            int count = series.getItemCount();
+            double[] x = new double[count];
+            double[] y = new double[count];
+            boolean[] nulls = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                x[i] = series.getXValue(i);
+                y[i] = series.getYValue(i);
+                nulls[i] = series.getY(i) == null;
+            }
+            out.putInt(count);
+            out.putDoubles(x);
+            out.putDoubles(y);
+            out.putNulls(nulls);
+        }
+    }
+
+    /**
+     * Reads an {@link XYSeriesCollection}.
+     *
+     * @param in  the input.
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static XYSeriesCollection readXYSeriesCollection(Input in) 
+            throws IOException {
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        boolean autoWidth = in.getBoolean();
+        double width = in.getDouble();
+        dataset.setIntervalPositionFactor(in.getDouble());
+        if (autoWidth) {
+            dataset.setAutoWidth(true);
+        }
+        else {
+            dataset.setIntervalWidth(width);
+        }
+        int seriesCount = in.getCount();
+        for (int s = 0; s < seriesCount; s++) {
+            Comparable key = in.getKey();
+            String description = in.getString();
+            boolean autoSort = in.getBoolean();
+            boolean allowDuplicateXValues = in.getBoolean();
+            boolean columnar = in.getBoolean();
+            int maximumItemCount = in.getInt();
+            XYSeries series = new XYSeries(key, autoSort, 
+                    allowDuplicateXValues, columnar);
+            series.setDescription(description);
+            int count = in.getCount();
+            double[] x = in.getDoubles(count);
+            double[] y = in.getDoubles(count);
+            boolean[] nulls = in.getNulls(count);
+            for (int i = 0; i < count; i++) {
+                if (nulls[i]) {
+                    series.add(x[i], null, false);
+                }
+                else {
+                    series.add(x[i], y[i], false);
+                }
+            }
+            series.setMaximumItemCount(maximumItemCount);
+            dataset.addSeries(series);
+        }
+        return dataset;
+    }
+
+    /**
+     * Writes a {@link TimeSeriesCollection}.
+     *
+     * @param dataset  the dataset.
+     * @param out  the output.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static void writeTimeSeriesCollection(
+            TimeSeriesCollection dataset, Output out) throws IOException {
+        out.putAnchor(dataset.getXPosition());
+        out.putString(TimeZone.getDefault().getID());
+        int seriesCount = dataset.getSeriesCount();
+        out.putInt(seriesCount);
+        for (int s = 0; s < seriesCount; s++) {
+            TimeSeries series = dataset.getSeries(s);
+            out.putKey(series.getKey());
+            out.putString(series.getDescription());
+            out.putString(series.getDomainDescription());
+            out.putString(series.getRangeDescription());
+            out.putBoolean(series.isRingBuffer());
+            out.putInt(series.getMaximumItemCount());
+            out.putLong(series.getMaximumItemAge());
+            Class periodClass = series.getTimePeriodClass();
+            out.putString(periodClass == null ? null : periodClass.getName());
+            int count = series.getItemCount();
+            long[] millis = new long[count];
+            double[] y = new double[count];
+            boolean[] nulls = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                millis[i] = series.getTimePeriod(i).getFirstMillisecond();
+                Number value = series.getValue(i);
+                nulls[i] = value == null;
+                y[i] = value == null ? Double.NaN : value.doubleValue();
+            }
+            out.putInt(count);
+            out.putLongs(millis);
+            out.putDoubles(y);
+            out.putNulls(nulls);
+        }
+    }
+
+    /**
+     * Reads a {@link TimeSeriesCollection}.
+     *
+     * @param in  the input.
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static TimeSeriesCollection readTimeSeriesCollection(Input in)
+            throws IOException {
+        TimeSeriesCollection dataset = new TimeSeriesCollection();
+        dataset.setXPosition(in.getAnchor());
+        TimeZone zone = in.getTimeZone();
+        int seriesCount = in.getCount();
+        for (int s = 0; s < seriesCount; s++) {
+            Comparable key = in.getKey();
+            String description = in.getString();
+            String domain = in.getString();
+            String range = in.getString();
+            boolean ringBuffer = in.getBoolean();
+            int maximumItemCount = in.getInt();
+            long maximumItemAge = in.getLong();
+            Class periodClass = in.getPeriodClass();
+            TimeSeries series = new TimeSeries(key, domain, range, 
+                    ringBuffer);
+            series.setDescription(description);
+            int count = in.getCount();
+            long[] millis = in.getLongs(count);
+            double[] y = in.getDoubles(count);
+            boolean[] nulls = in.getNulls(count);
+            for (int i = 0; i < count; i++) {
+                RegularTimePeriod period = createPeriod(periodClass, 
+                        millis[i], zone);
+                if (nulls[i]) {
+                    series.add(period, null, false);
+                }
+                else {
+                    series.add(period, y[i], false);
+                }
+            }
+            series.setMaximumItemCount(maximumItemCount);
+            series.setMaximumItemAge(maximumItemAge);
+            dataset.addSeries(series);
+        }
+        return dataset;
+    }
+
+    /**
+     * Writes an {@link OHLCSeriesCollection}.
+     *
+     * @param dataset  the dataset.
+     * @param out  the output.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static void writeOHLCSeriesCollection(
+            OHLCSeriesCollection dataset, Output out) throws IOException {
+        out.putAnchor(dataset.getXPosition());
+        out.putString(TimeZone.getDefault().getID());
+        int seriesCount = dataset.getSeriesCount();
+        out.putInt(seriesCount);
+        for (int s = 0; s < seriesCount; s++) {
+            OHLCSeries series = dataset.getSeries(s);
+            out.putKey(series.getKey());
+            out.putString(series.getDescription());
+            out.putInt(series.getMaximumItemCount());
+            int count = series.getItemCount();
+            out.putString(count == 0 ? null 
+                    : series.getPeriod(0).getClass().getName());
+            long[] millis = new long[count];
+            double[][] values = new double[4][count];
+            for (int i = 0; i < count; i++) {
+                OHLCItem item = (OHLCItem) series.getDataItem(i);
+                millis[i] = item.getPeriod().getFirstMillisecond();
+                values[0][i] = item.getOpenValue();
+                values[1][i] = item.getHighValue();
+                values[2][i] = item.getLowValue();
+                values[3][i] = item.getCloseValue();
+            }
+            out.putInt(count);
+            out.putLongs(millis);
+            for (int v = 0; v < 4; v++) {
+                out.putDoubles(values[v]);
+            }
+        }
+    }
+
+    /**
+     * Reads an {@link OHLCSeriesCollection}.
+     *
+     * @param in  the input.
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static OHLCSeriesCollection readOHLCSeriesCollection(Input in)
+            throws IOException {
+        OHLCSeriesCollection dataset = new OHLCSeriesCollection();
+        dataset.setXPosition(in.getAnchor());
+        TimeZone zone = in.getTimeZone();
+        int seriesCount = in.getCount();
+        for (int s = 0; s < seriesCount; s++) {
+            OHLCSeries series = new OHLCSeries(in.getKey());
+            series.setDescription(in.getString());
+            int maximumItemCount = in.getInt();
+            Class periodClass = in.getPeriodClass();
+            int count = in.getCount();
+            long[] millis = in.getLongs(count);
+            double[][] values = new double[4][];
+            for (int v = 0; v < 4; v++) {
+                values[v] = in.getDoubles(count);
+            }
+            for (int i = 0; i < count; i++) {
+                series.add(createPeriod(periodClass, millis[i], zone), 
+                        values[0][i], values[1][i], values[2][i], 
+                        values[3][i]);
+            }
+            series.setMaximumItemCount(maximumItemCount);
+            dataset.addSeries(series);
+        }
+        return dataset;
+    }
+
+    /**
+     * Writes a {@link DefaultCategoryDataset}.
+     *
+     * @param dataset  the dataset.
+     * @param out  the output.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static void writeCategoryDataset(DefaultCategoryDataset dataset,
+            Output out) throws IOException {
+        List rowKeys = dataset.getRowKeys();
+        List columnKeys = dataset.getColumnKeys();
+        out.putKeys(rowKeys);
+        out.putKeys(columnKeys);
+        int rows = rowKeys.size();
+        int columns = columnKeys.size();
+        double[] values = new double[rows * columns];
+        boolean[] nulls = new boolean[values.length];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                Number value = dataset.getValue(r, c);
+                int i = r * columns + c;
+                nulls[i] = value == null;
+                values[i] = value == null ? Double.NaN : value.doubleValue();
+            }
+        }
+        out.putDoubles(values);
+        out.putNulls(nulls);
+    }
+
+    /**
+     * Reads a {@link DefaultCategoryDataset}.
+     *
+     * @param in  the input.
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static DefaultCategoryDataset readCategoryDataset(Input in) 
+            throws IOException {
+        Comparable[] rowKeys = in.getKeys();
+        Comparable[] columnKeys = in.getKeys();
+        long size = (long) rowKeys.length * columnKeys.length;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Too many values.");
+        }
+        double[] values = in.getDoubles((int) size);
+        boolean[] nulls = in.getNulls((int) size);
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        for (int r = 0; r < rowKeys.length; r++) {
+            for (int c = 0; c < columnKeys.length; c++) {
+                int i = r * columnKeys.length + c;
+                dataset.addValue(nulls[i] ? null : new Double(values[i]), 
+                        rowKeys[r], columnKeys[c]);
+            }
+        }
+        return dataset;
+    }
+
+    /**
+     * Writes a {@link DefaultPieDataset}.
+     *
+     * @param dataset  the dataset.
+     * @param out  the output.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static void writePieDataset(DefaultPieDataset dataset, 
+            Output out) throws IOException {
+        List keys = dataset.getKeys();
+        out.putKeys(keys);
+        double[] values = new double[keys.size()];
+        boolean[] nulls = new boolean[values.length];
+        for (int i = 0; i < values.length; i++) {
+            Number value = dataset.getValue(i);
+            nulls[i] = value == null;
+            values[i] = value == null ? Double.NaN : value.doubleValue();
+        }
+        out.putDoubles(values);
+        out.putNulls(nulls);
+    }
+
+    /**
+     * Reads a {@link DefaultPieDataset}.
+     *
+     * @param in  the input.
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static DefaultPieDataset readPieDataset(Input in) 
+            throws IOException {
+        Comparable[] keys = in.getKeys();
+        double[] values = in.getDoubles(keys.length);
+        boolean[] nulls = in.getNulls(keys.length);
+        DefaultPieDataset dataset = new DefaultPieDataset();
+        for (int i = 0; i < keys.length; i++) {
+            dataset.setValue(keys[i], nulls[i] ? null 
+                    : new Double(values[i]));
+        }
+        return dataset;
+    }
+
+    /**
+     * Writes a {@link DefaultHeatMapDataset}.
+     *
+     * @param dataset  the dataset.
+     * @param out  the output.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static void writeHeatMapDataset(DefaultHeatMapDataset dataset,
+            Output out) throws IOException {
+        int xSamples = dataset.getXSampleCount();
+        int ySamples = dataset.getYSampleCount();
+        out.putInt(xSamples);
+        out.putInt(ySamples);
+        out.putDouble(dataset.getMinimumXValue());
+        out.putDouble(dataset.getMaximumXValue());
+        out.putDouble(dataset.getMinimumYValue());
+        out.putDouble(dataset.getMaximumYValue());
+        double[] z = new double[ySamples];
+        for (int x = 0; x < xSamples; x++) {
+            for (int y = 0; y < ySamples; y++) {
+                z[y] = dataset.getZValue(x, y);
+            }
+            out.putDoubles(z);
+        }
+    }
+
+    /**
+     * Reads a {@link DefaultHeatMapDataset}.
+     *
+     * @param in  the input.
+     *
+     * @return The dataset.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static DefaultHeatMapDataset readHeatMapDataset(Input in) 
+            throws IOException {
+        int xSamples = in.getCount();
+        int ySamples = in.getCount();
+        if (xSamples == 0 || ySamples == 0) {
+            throw new IOException("Invalid heat map dataset.");
+        }
+        double minX = in.getDouble();
+        double maxX = in.getDouble();
+        double minY = in.getDouble();
+        double maxY = in.getDouble();
+        // the values are read before the dataset allocates its arrays, so
+        // that truncated data cannot cause a large allocation
+        double[][] z = new double[Math.min(xSamples, INITIAL_CAPACITY)][];
+        for (int x = 0; x < xSamples; x++) {
+            if (x == z.length) {
+                z = Arrays.copyOf(z, grow(z.length, xSamples));
+            }
+            z[x] = in.getDoubles(ySamples);
+        }
+        DefaultHeatMapDataset dataset;
+        try {
+            dataset = new DefaultHeatMapDataset(xSamples, ySamples, minX, 
+                    maxX, minY, maxY);
+        }
+        catch (IllegalArgumentException e) {
+            throw new IOException("Invalid heat map dataset.", e);
+        }
+        for (int x = 0; x < xSamples; x++) {
+            for (int y = 0; y < ySamples; y++) {
+                dataset.setZValue(x, y, z[x][y], false);
+            }
+        }
+        return dataset;
+    }
+
+    /**
+     * Creates a time period.
+     *
+     * @param periodClass  the time period class.
+     * @param millis  the first millisecond of the period.
+     * @param zone  the time zone.
+     *
+     * @return The time period.
+     *
+     * @throws IOException if the time period cannot be created.
+     */
+    private static RegularTimePeriod createPeriod(Class periodClass, 
+            long millis, TimeZone zone) throws IOException {
+        if (periodClass == null) {
+            throw new IOException("Missing time period class.");
+        }
+        RegularTimePeriod period = RegularTimePeriod.createInstance(
+                periodClass, new Date(millis), zone, Locale.getDefault());
+        if (period == null) {
+            throw new IOException("Cannot create a " + periodClass.getName()
+                    + " for " + millis + ".");
+        }
+        return period;
+    }
+
+    /**
+     * Returns the new length for an array that is being filled with 
+     * {@code count} values read from the data and is full.
+     *
+     * @param length  the current length.
+     * @param count  the number of values.
+     *
+     * @return The new length.
+     */
+    private static int grow(int length, int count) {
+        return (int) Math.min(count, Math.max(2L * length, 1L));
+    }
+
+    /**
+     * Writes primitive values to a channel through a buffer.
+     */
+    private static final class Output {
+
+        /** The channel. */
+        private final WritableByteChannel channel;
+
+        /** The buffer. */
+        private final ByteBuffer buffer;
+
+        /** Compress the timestamps and values? */
+        private final boolean compress;
+
+        /**
+         * Creates an output.
+         *
+         * @param channel  the channel.
+         * @param compress  compress the timestamps and values?
+         */
+        Output(WritableByteChannel channel, boolean compress) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            this.compress = compress;
+        }
+
+        /**
+         * Makes sure that there is room for some bytes in the buffer.
+         *
+         * @param bytes  the number of bytes (at most the buffer size).
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        private void ensure(int bytes) throws IOException {
+            if (this.buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes the contents of the buffer to the channel.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void flush() throws IOException {
+            this.buffer.flip();
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+            this.buffer.clear();
+        }
+
+        /**
+         * Writes a byte.
+         *
+         * @param b  the byte (the low 8 bits are written).
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void putByte(int b) throws IOException {
+            ensure(1);
+            this.buffer.put((byte) b);
+        }
+
+        /**
+         * Writes a boolean as a byte.
+         *
+         * @param b  the value.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void putBoolean(boolean b) throws IOException {
+            putByte(b ? 1 : 0);
+        }
+
+        /**
+         * Writes an int.
+         *
+         * @param i  the value.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void putInt(int i) throws IOException {
+            ensure(4);
+            this.buffer.putInt(i);
+        }
+
+        /**
+         * Writes a long.
+         *
+         * @param l  the value.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void putLong(long l) throws IOException {
+            ensure(8);
+            this.buffer.putLong(l);
+        }
+
+        /**
+         * Writes a double.
+         *
+         * @param d  the value.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void putDouble(double d) throws IOException {
+            ensure(8);
+            this.buffer.putDouble(d);
+        }
+
+        /**
+         * Writes an unsigned variable-length long (7 bits per byte).
+         *
+         * @param l  the value.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void putVarLong(long l) throws IOException {
+            ensure(10);
+            while ((l & ~0x7FL) != 0) {
+                this.buffer.put((byte) ((l & 0x7F) | 0x80));
+                l >>>= 7;
+            }
+            this.buffer.put((byte) l);
+        }
+
+        /**
+         * Writes bytes with their length.
+         *
+         * @param bytes  the bytes.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void putBytes(byte[] bytes) throws IOException {
+            putInt(bytes.length);
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int n = Math.min(this.buffer.remaining(), 
+                        bytes.length - offset);
+                this.buffer.put(bytes, offset, n);
+                offset += n;
+            }
+        }
+
+        /**
+         * Writes a string (possibly {@code null}).
+         *
+         * @param s  the string.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void putString(String s) throws IOException {
+            if (s == null) {
+                putInt(-1);
+            }
+            else {
+                putBytes(s.getBytes(UTF8));
+            }
+        }
+
+        /**
+         * Writes a key (see the class description for the supported key 
+         * types).
+         *
+         * @param key  the key.
+         *
+         * @throws IOException if there is an I/O problem.
+         * @throws IllegalArgumentException if the key type is not 
+         *     supported.
+         */
+        void putKey(Comparable key) throws IOException {
+            Class c = key.getClass();
+            if (c == String.class) {
+                putByte(STRING_KEY);
+                putString((String) key);
+            }
+            else if (c == Integer.class) {
+                putByte(INTEGER_KEY);
+                putInt(((Integer) key).intValue());
+            }
+            else if (c == Long.class) {
+                putByte(LONG_KEY);
+                putLong(((Long) key).longValue());
+            }
+            else if (c == Double.class) {
+                putByte(DOUBLE_KEY);
+                putDouble(((Double) key).doubleValue());
+            }
+            else if (c == Date.class) {
+                putByte(DATE_KEY);
+                putLong(((Date) key).getTime());
+            }
+            else if (key instanceof RegularTimePeriod) {
+                putByte(TIME_PERIOD_KEY);
+                putString(c.getName());
+                putLong(((RegularTimePeriod) key).getFirstMillisecond());
+                putString(TimeZone.getDefault().getID());
+            }
+            else {
+                throw new IllegalArgumentException("Unsupported key type: " 
+                        + c.getName());
+            }
+        }
+
+        /**
+         * Writes a list of keys.
+         *
+         * @param keys  the keys.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void putKeys(List keys) throws IOException {
+            putInt(keys.size());
+            for (Object key : keys) {
+                putKey((Comparable) key);
+            }
+        }
+
+        /**
+         * Writes a time period anchor.
+         *
+         * @param anchor  the anchor.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void putAnchor(TimePeriodAnchor anchor) throws IOException {
+            if (anchor == TimePeriodAnchor.START) {
+                putByte(0);
+            }
+            else if (anchor == TimePeriodAnchor.MIDDLE) {
+                putByte(1);
+            }
+            else {
+                putByte(2);
+            }
+        }
+
+        /**
+         * Writes a column of timestamps (or other longs), with 
+         * delta-of-delta encoding if compression is on.
+         *
+         * @param values  the values.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void putLongs(long[] values) throws IOException {
+            if (!this.compress) {
+                for (long value : values) {
+                    putLong(value);
+                }
+                return;
+            }
+            long previous = 0L;
+            long delta = 0L;
+            for (long value : values) {
+                long d = value - previous;
+                long dd = d - delta;
+                putVarLong((dd << 1) ^ (dd >> 63));  // zig-zag
+                delta = d;
+                previous = value;
+            }
+        }
+
+        /**
+         * Writes a column of doubles, with XOR encoding if compression is
+         * on.  Each value is written as a tag byte, which is 0 if the value
+         * is the same as the previous value, 0xFF if the value follows in 8
+         * bytes, and otherwise one more than the number of trailing zero 
+         * bits in the XOR with the previous value, followed by the rest of
+         * the XOR bits in variable-length form.
+         *
+         * @param values  the values.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void putDoubles(double[] values) throws IOException {
+            if (!this.compress) {
+                for (double value : values) {
+                    putDouble(value);
+                }
+                return;
+            }
+            long previous = 0L;
+            for (double value : values) {
+                long bits = Double.doubleToRawLongBits(value);
+                long xor = bits ^ previous;
+                previous = bits;
+                if (xor == 0L) {
+                    putByte(0);
+                    continue;
+                }
+                int trailing = Long.numberOfTrailingZeros(xor);
+                int significant = 64 - trailing 
+                        - Long.numberOfLeadingZeros(xor);
+                if (significant > 49) {
+                    // the variable-length form would take more than 8 bytes
+                    putByte(0xFF);
+                    putLong(bits);
+                }
+                else {
+                    putByte(trailing + 1);
+                    putVarLong(xor >>> trailing);
+                }
+            }
+        }
+
+        /**
+         * Writes a mask of {@code null} values (a single byte if there are
+         * no {@code null} values).
+         *
+         * @param nulls  the flags.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void putNulls(boolean[] nulls) throws IOException {
+            int first = 0;
+            while (first < nulls.length && !nulls[first]) {
+                first++;
+            }
+            if (first == nulls.length) {
+                putByte(0);
+                return;
+            }
+            putByte(1);
+            for (int i = 0; i < nulls.length; i += 8) {
+                int b = 0;
+                for (int j = i; j < Math.min(i + 8, nulls.length); j++) {
+                    if (nulls[j]) {
+                        b |= 1 << (j - i);
+                    }
+                }
+                putByte(b);
+            }
+        }
+
+    }
+
+    /**
+     * Reads primitive values from a channel through a buffer.
+     */
+    private static final class Input {
+
+        /** The channel. */
+        private final ReadableByteChannel channel;
+
+        /** The buffer. */
+        private final ByteBuffer buffer;
+
+        /** Are the timestamps and values compressed? */
+        boolean compressed;
+
+        /**
+         * Creates an input.
+         *
+         * @param channel  the channel.
+         */
+        Input(ReadableByteChannel channel) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            this.buffer.flip();
+        }
+
+        /**
+         * Makes sure that some bytes are available in the buffer.
+         *
+         * @param bytes  the number of bytes (at most the buffer size).
+         *
+         * @throws IOException if the channel ends first.
+         */
+        private void ensure(int bytes) throws IOException {
+            if (this.buffer.remaining() >= bytes) {
+                return;
+            }
+            this.buffer.compact();
+            while (this.buffer.position() < bytes) {
+                if (this.channel.read(this.buffer) < 0) {
+                    throw new EOFException("Unexpected end of data.");
+                }
+            }
+            this.buffer.flip();
+        }
+
+        /**
+         * Reads a byte.
+         *
+         * @return The byte (from 0 to 255).
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        int getByte() throws IOException {
+            ensure(1);
+            return this.buffer.get() & 0xFF;
+        }
+
+        /**
+         * Reads a boolean.
+         *
+         * @return The value.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        boolean getBoolean() throws IOException {
+            return getByte() != 0;
+        }
+
+        /**
+         * Reads an int.
+         *
+         * @return The value.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        int getInt() throws IOException {
+            ensure(4);
+            return this.buffer.getInt();
+        }
+
+        /**
+         * Reads a count, which must not be negative.
+         *
+         * @return The count.
+         *
+         * @throws IOException if there is an I/O problem or the count is 
+         *     negative.
+         */
+        int getCount() throws IOException {
+            int count = getInt();
+            if (count < 0) {
+                throw new IOException("Invalid count: " + count);
+            }
+            return count;
+        }
+
+        /**
+         * Reads a long.
+         *
+         * @return The value.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        long getLong() throws IOException {
+            ensure(8);
+            return this.buffer.getLong();
+        }
+
+        /**
+         * Reads a double.
+         *
+         * @return The value.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        double getDouble() throws IOException {
+            ensure(8);
+            return this.buffer.getDouble();
+        }
+
+        /**
+         * Reads an unsigned variable-length long.
+         *
+         * @return The value.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        long getVarLong() throws IOException {
+            long result = 0L;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = getByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IOException("Invalid variable-length value.");
+        }
+
+        /**
+         * Reads bytes with their length, or returns {@code null} for a 
+         * length of -1.
+         *
+         * @return The bytes.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        byte[] getBytes() throws IOException {
+            int length = getInt();
+            if (length < 0) {
+                if (length == -1) {
+                    return null;
+                }
+                throw new IOException("Invalid length: " + length);
+            }
+            byte[] bytes = new byte[Math.min(length, BUFFER_SIZE)];
+            int offset = 0;
+            while (offset < length) {
+                ensure(1);
+                if (offset == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, grow(bytes.length, length));
+                }
+                int n = Math.min(this.buffer.remaining(), 
+                        bytes.length - offset);
+                this.buffer.get(bytes, offset, n);
+                offset += n;
+            }
+            return bytes;
+        }
+
+        /**
+         * Reads a string (possibly {@code null}).
+         *
+         * @return The string.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        String getString() throws IOException {
+            byte[] bytes = getBytes();
+            return bytes == null ? null : new String(bytes, UTF8);
+        }
+
+        /**
+         * Reads a key.
+         *
+         * @return The key.
+         *
+         * @throws IOException if there is an I/O problem, or the key type 
+         *     is not supported.
+         */
+        Comparable getKey() throws IOException {
+            int type = getByte();
+            switch (type) {
+                case STRING_KEY:
+                    String key = getString();
+                    if (key == null) {
+                        throw new IOException("Missing key.");
+                    }
+                    return key;
+                case INTEGER_KEY:
+                    return new Integer(getInt());
+                case LONG_KEY:
+                    return new Long(getLong());
+                case DOUBLE_KEY:
+                    return new Double(getDouble());
+                case DATE_KEY:
+                    return new Date(getLong());
+                case TIME_PERIOD_KEY:
+                    Class periodClass = getPeriodClass();
+                    if (periodClass == null) {
+                        throw new IOException("Missing key.");
+                    }
+                    long millis = getLong();
+                    return createPeriod(periodClass, millis, getTimeZone());
+                default:
+                    throw new IOException("Invalid key type: " + type);
+            }
+        }
+
+        /**
+         * Reads a list of keys.
+         *
+         * @return The keys.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        Comparable[] getKeys() throws IOException {
+            int count = getCount();
+            Comparable[] keys = new Comparable[Math.min(count, 
+                    INITIAL_CAPACITY)];
+            for (int i = 0; i < count; i++) {
+                if (i == keys.length) {
+                    keys = Arrays.copyOf(keys, grow(keys.length, count));
+                }
+                keys[i] = getKey();
+            }
+            return keys;
+        }
+
+        /**
+         * Reads a time period anchor.
+         *
+         * @return The anchor.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        TimePeriodAnchor getAnchor() throws IOException {
+            switch (getByte()) {
+                case 0: return TimePeriodAnchor.START;
+                case 1: return TimePeriodAnchor.MIDDLE;
+                case 2: return TimePeriodAnchor.END;
+                default: throw new IOException("Invalid anchor.");
+            }
+        }
+
+        /**
+         * Reads a time zone id.
+         *
+         * @return The time zone.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        TimeZone getTimeZone() throws IOException {
+            String id = getString();
+            if (id == null) {
+                throw new IOException("Missing time zone.");
+            }
+            return TimeZone.getTimeZone(id);
+        }
+
+        /**
+         * Reads the name of a time period class and returns the class.
+         *
+         * @return The class ({@code null} if there is no name).
+         *
+         * @throws IOException if there is an I/O problem or the class is 
+         *     not a time period class.
+         */
+        Class getPeriodClass() throws IOException {
+            String name = getString();
+            if (name == null) {
+                return null;
+            }
+            try {
+                // the class is not initialized unless it is a time period
+                Class c = Class.forName(name, false, 
+                        DatasetCodec.class.getClassLoader());
+                if (!RegularTimePeriod.class.isAssignableFrom(c)) {
+                    throw new IOException(name 
+                            + " is not a time period class.");
+                }
+                return c;
+            }
+            catch (ClassNotFoundException e) {
+                throw new IOException("Unknown time period class: " + name,
+                        e);
+            }
+        }
+
+        /**
+         * Reads a column of longs.
+         *
+         * @param count  the number of values.
+         *
+         * @return The values.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        long[] getLongs(int count) throws IOException {
+            long[] values = new long[Math.min(count, INITIAL_CAPACITY)];
+            if (!this.compressed) {
+                for (int i = 0; i < count; i++) {
+                    if (i == values.length) {
+                        values = Arrays.copyOf(values, grow(values.length, 
+                                count));
+                    }
+                    values[i] = getLong();
+                }
+                return values;
+            }
+            long previous = 0L;
+            long delta = 0L;
+            for (int i = 0; i < count; i++) {
+                if (i == values.length) {
+                    values = Arrays.copyOf(values, grow(values.length, 
+                            count));
+                }
+                long zz = getVarLong();
+                delta += (zz >>> 1) ^ -(zz & 1);
+                previous += delta;
+                values[i] = previous;
+            }
+            return values;
+        }
+
+        /**
+         * Reads a column of doubles.
+         *
+         * @param count  the number of values.
+         *
+         * @return The values.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        double[] getDoubles(int count) throws IOException {
+            double[] values = new double[Math.min(count, INITIAL_CAPACITY)];
+            if (!this.compressed) {
+                for (int i = 0; i < count; i++) {
+                    if (i == values.length) {
+                        values = Arrays.copyOf(values, grow(values.length, 
+                                count));
+                    }
+                    values[i] = getDouble();
+                }
+                return values;
+            }
+            long previous = 0L;
+            for (int i = 0; i < count; i++) {
+                if (i == values.length) {
+                    values = Arrays.copyOf(values, grow(values.length, 
+                            count));
+                }
+                int tag = getByte();
+                if (tag == 0xFF) {
+                    previous = getLong();
+                }
+                else if (tag != 0) {
+                    previous ^= getVarLong() << (tag - 1);
+                }
+                values[i] = Double.longBitsToDouble(previous);
+            }
+            return values;
+        }
+
+        /**
+         * Reads a mask of {@code null} values.
+         *
+         * @param count  the number of values.
+         *
+         * @return The flags.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        boolean[] getNulls(int count) throws IOException {
+            if (getByte() == 0) {
+                // the values for the count have been read already, so the 
+                // count is bounded by the length of the data
+                return new boolean[count];
+            }
+            boolean[] nulls = new boolean[Math.min(count, INITIAL_CAPACITY)];
+            for (int i = 0; i < count; i += 8) {
+                if (Math.min(i + 8, count) > nulls.length) {
+                    nulls = Arrays.copyOf(nulls, grow(nulls.length, count));
+                }
+                int b = getByte();
+                for (int j = i; j < Math.min(i + 8, count); j++) {
+                    nulls[j] = (b & (1 << (j - i))) != 0;
+                }
+            }
+            return nulls;
+        }
+
+    }
+
+}
@@ -0,0 +1,863 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------------------
+ * JDBCColumnarXYDataset.java
+ * --------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+
+import org.jfree.chart.util.Args;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.TableXYDataset;
+
+/**
+ * An {@link org.jfree.data.xy.XYDataset} that is loaded from a JDBC query
+ * and is suitable for large result sets.  Like {@link JDBCXYDataset}, the 
+ * first column of the query results gives the x-values and each remaining
+ * numeric (or date) column is a series, but:
+ * <ul>
+ * <li>the query is a {@code PreparedStatement} (see 
+ * {@link #setParameters(Object[])}) that is executed with a forward-only, 
+ * read-only cursor and a configurable fetch size (see 
+ * {@link #setFetchSize(int)}), so that the driver can stream the rows 
+ * rather than hold the whole result set in memory;</li>
+ * <li>the values are written straight into {@code double} arrays (one per
+ * column, with {@code Double.NaN} for {@code null}), without creating 
+ * objects per row;</li>
+ * <li>the dataset can be brought up to date with {@link #refresh()}, which 
+ * executes a second query that fetches only the rows after the last 
+ * x-value (see {@link #setRefreshQuery(String)});</li>
+ * <li>the rows can be aggregated into buckets of x-values (for example, 
+ * one minute of timestamps) as they are read (see 
+ * {@link #setBucketWidth(double)}).</li>
+ * </ul>
+ * The rows must be returned in ascending order of x-value (use an 
+ * {@code ORDER BY} clause).  Note that some drivers only stream the rows 
+ * when the connection is not in auto-commit mode.
+ *
+ * @since 1.5
+ */
+public class JDBCColumnarXYDataset extends AbstractXYDataset 
+        implements TableXYDataset, DomainInfo, RangeInfo {
+
+    /** The default fetch size. */
+    public static final int DEFAULT_FETCH_SIZE = 10000;
+
+    /** The initial capacity of the arrays. */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** The database connection. */
+    private transient Connection connection;
+
+    /** The query for loading all the data. */
+    private String query;
+
+    /** The query for loading the data after the last x-value. */
+    private String refreshQuery;
+
+    /** The query parameters. */
+    private Object[] parameters;
+
+    /** The fetch size. */
+    private int fetchSize;
+
+    /** The bucket width (zero for no aggregation). */
+    private double bucketWidth;
+
+    /** The bucket width for the data that is currently loaded. */
+    private double loadedBucketWidth;
+
+    /** The series keys (the y-column labels). */
+    private String[] columnNames;
+
+    /** The SQL types of the x and y-columns. */
+    private int[] columnTypes;
+
+    /** A flag that indicates whether or not the x-values are dates. */
+    private boolean timeSeries;
+
+    /** The number of items. */
+    private int itemCount;
+
+    /** The x-values. */
+    private double[] xValues;
+
+    /** The y-values (one array per series). */
+    private double[][] yValues;
+
+    /** The largest x-value read from the database (before aggregation). */
+    private double lastX;
+
+    /** The sums of the y-values in the last bucket. */
+    private double[] bucketSums;
+
+    /** The numbers of non-null y-values in the last bucket. */
+    private int[] bucketCounts;
+
+    /** The y-value bounds (or {@code null} if they need recalculating). */
+    private transient Range rangeBounds;
+
+    /**
+     * Creates a new dataset (initially empty) that loads its data with the
+     * specified query.  Call {@link #executeQuery()} to load the data.
+     *
+     * @param connection  the database connection ({@code null} not 
+     *     permitted).
+     * @param query  the SQL query ({@code null} not permitted).
+     */
+    public JDBCColumnarXYDataset(Connection connection, String query) {
+        Args.nullNotPermitted(connection, "connection");
+        Args.nullNotPermitted(query, "query");
+        this.connection = connection;
+        this.query = query;
+        this.parameters = new Object[0];
+        this.fetchSize = DEFAULT_FETCH_SIZE;
+        this.columnNames = new String[0];
+        this.columnTypes = new int[0];
+        this.xValues = new double[0];
+        this.yValues = new double[0][];
+        this.lastX = Double.NaN;
+    }
+
+    /**
+     * Returns the query that loads all the data.
+     *
+     * @return The query (never {@code null}).
+     */
+    public String getQuery() {
+        return this.query;
+    }
+
+    /**
+     * Returns the query that is used by {@link #refresh()}.
+     *
+     * @return The query (possibly {@code null}).
+     *
+     * @see #setRefreshQuery(String)
+     */
+    public String getRefreshQuery() {
+        return this.refreshQuery;
+    }
+
+    /**
+     * Sets the query that is used by {@link #refresh()} to fetch the rows 
+     * after the last x-value.  This query must return the same columns as
+     * the main query and take one more parameter than the main query: the 
+     * last x-value (bound as a {@code Timestamp} if the x-values are dates,
+     * and a {@code double} otherwise), for example
+     * {@code "SELECT t, a, b FROM samples WHERE t > ? ORDER BY t"}.  If 
+     * this is {@code null} (the default), {@link #refresh()} reloads all
+     * the data.
+     *
+     * @param query  the query ({@code null} permitted).
+     */
+    public void setRefreshQuery(String query) {
+        this.refreshQuery = query;
+    }
+
+    /**
+     * Returns a copy of the query parameters.
+     *
+     * @return The parameters (never {@code null}).
+     *
+     * @see #setParameters(Object[])
+     */
+    public Object[] getParameters() {
+        return this.parameters.clone();
+    }
+
+    /**
+     * Sets the values of the parameters in the query (and the refresh 
+     * query), which are bound with {@code PreparedStatement.setObject()}. 
+     * The data is not reloaded until {@link #executeQuery()} is called.
+     *
+     * @param parameters  the parameters ({@code null} not permitted).
+     */
+    public void setParameters(Object... parameters) {
+        Args.nullNotPermitted(parameters, "parameters");
+        this.parameters = parameters.clone();
+    }
+
+    /**
+     * Returns the number of rows that the driver is asked to fetch from the
+     * database at a time.  The default value is {@link #DEFAULT_FETCH_SIZE}.
+     *
+     * @return The fetch size.
+     */
+    public int getFetchSize() {
+        return this.fetchSize;
+    }
+
+    /**
+     * Sets the number of rows that the driver is asked to fetch from the 
+     * database at a time (zero leaves the choice to the driver).
+     *
+     * @param fetchSize  the fetch size (zero or more).
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("Requires 'fetchSize' >= 0.");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Returns the width of the buckets that the rows are aggregated into.
+     * The default value is zero (no aggregation).
+     *
+     * @return The bucket width.
+     *
+     * @see #setBucketWidth(double)
+     */
+    public double getBucketWidth() {
+        return this.bucketWidth;
+    }
+
+    /**
+     * Sets the width of the buckets that the rows are aggregated into (in
+     * milliseconds if the x-values are dates).  With a positive width, 
+     * each item in the dataset is a bucket that starts at a multiple of the
+     * width: the x-value is the start of the bucket and each y-value is the
+     * mean of the non-null values in the bucket.  The new width applies 
+     * the next time that the data is loaded by {@link #executeQuery()}.
+     *
+     * @param width  the width (zero for no aggregation).
+     */
+    public void setBucketWidth(double width) {
+        if (!(width >= 0.0) || Double.isInfinite(width)) {
+            throw new IllegalArgumentException(
+                    "Requires 'width' to be finite and >= 0.");
+        }
+        this.bucketWidth = width;
+    }
+
+    /**
+     * Returns {@code true} if the x-values are dates (in milliseconds since
+     * 1-Jan-1970), and {@code false} otherwise.
+     *
+     * @return A boolean.
+     */
+    public boolean isTimeSeries() {
+        return this.timeSeries;
+    }
+
+    /**
+     * Returns the largest x-value read from the database, before 
+     * aggregation.  This is the value that {@link #refresh()} passes to 
+     * the refresh query.
+     *
+     * @return The x-value ({@code Double.NaN} if no rows have been read).
+     */
+    public double getLastXValue() {
+        return this.lastX;
+    }
+
+    /**
+     * Executes the query and replaces the data in the dataset with the 
+     * results, then sends a change event to all registered listeners.
+     *
+     * @throws SQLException if there is a problem executing the query, or 
+     *     if the results contain less than two suitable columns or are not
+     *     in ascending order.
+     */
+    public void executeQuery() throws SQLException {
+        PreparedStatement statement = prepare(this.query);
+        try {
+            bindParameters(statement);
+            ResultSet resultSet = statement.executeQuery();
+            try {
+                readColumns(resultSet.getMetaData());
+                clearData();
+                readRows(resultSet);
+            }
+            finally {
+                resultSet.close();
+            }
+        }
+        finally {
+            statement.close();
+        }
+        fireDatasetChanged();
+    }
+
+    /**
+     * Fetches the rows after the last x-value with the refresh query and 
+     * appends them to the dataset (or reloads all the data if there is no 
+     * refresh query or no data has been loaded yet).  A change event is
+     * sent to all registered listeners if any rows are fetched.
+     *
+     * @return The number of rows fetched.
+     *
+     * @throws SQLException if there is a problem executing the query, or 
+     *     if the results do not have the same columns as the main query or
+     *     are not in ascending order.
+     *
+     * @see #setRefreshQuery(String)
+     */
+    public int refresh() throws SQLException {
+        if (this.refreshQuery == null || Double.isNaN(this.lastX)) {
+            executeQuery();
+            return this.itemCount;
+        }
+        int rows;
+        PreparedStatement statement = prepare(this.refreshQuery);
+        try {
+            bindParameters(statement);
+            int index = this.parameters.length + 1;
+            if (this.timeSeries) {
+                statement.setTimestamp(index, 
+                        new Timestamp((long) this.lastX));
+            }
+            else {
+                statement.setDouble(index, this.lastX);
+            }
+            ResultSet resultSet = statement.executeQuery();
+            try {
+                checkColumns(resultSet.getMetaData());
+                rows = readRows(resultSet);
+            }
+            finally {
+                resultSet.close();
+            }
+        }
+        finally {
+            statement.close();
+        }
+        if (rows > 0) {
+            fireDatasetChanged();
+        }
+        return rows;
+    }
+
+    /**
+     * Closes the database connection.
+     *
+     * @throws SQLException if there is a problem closing the connection.
+     */
+    public void close() throws SQLException {
+        this.connection.close();
+    }
+
+    /**
+     * Creates a forward-only, read-only statement for the specified query.
+     *
+     * @param sql  the query.
+     *
+     * @return The statement.
+     *
+     * @throws SQLException if there is a problem creating the statement.
+     */
+    private PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = this.connection.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            statement.setFetchSize(this.fetchSize);
+        }
+        catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        return statement;
+    }
+
+    /**
+     * Binds the query parameters to a statement.
+     *
+     * @param statement  the statement.
+     *
+     * @throws SQLException if there is a problem binding the parameters.
+     */
+    private void bindParameters(PreparedStatement statement) 
+            throws SQLException {
+        for (int i = 0; i < this.parameters.length; i++) {
+            statement.setObject(i + 1, this.parameters[i]);
+        }
+    }
+
+    /**
+     * Reads the column types and labels from the metadata for the main 
+     * query.
+     *
+     * @param metaData  the metadata.
+     *
+     * @throws SQLException if there are less than two suitable columns.
+     */
+    private void readColumns(ResultSetMetaData metaData) 
+            throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        int[] types = new int[columnCount];
+        int validColumns = 0;
+        for (int column = 0; column < columnCount; column++) {
+            types[column] = metaData.getColumnType(column + 1);
+            if (isSupported(types[column])) {
+                validColumns++;
+            }
+        }
+        if (!isSupported(types[0]) || validColumns < 2) {
+            throw new SQLException(
+                    "Not enough valid columns were generated by query.");
+        }
+        String[] names = new String[validColumns - 1];
+        int series = 0;
+        for (int column = 1; column < columnCount; column++) {
+            if (isSupported(types[column])) {
+                names[series++] = metaData.getColumnLabel(column + 1);
+            }
+        }
+        this.columnTypes = types;
+        this.columnNames = names;
+        this.timeSeries = isDate(types[0]);
+    }
+
+    /**
+     * Checks that the metadata for the refresh query matches the columns 
+     * of the main query.
+     *
+     * @param metaData  the metadata.
+     *
+     * @throws SQLException if the columns do not match.
+     */
+    private void checkColumns(ResultSetMetaData metaData) 
+            throws SQLException {
+        boolean match = metaData.getColumnCount() == this.columnTypes.length;
+        for (int column = 0; match && column < this.columnTypes.length; 
+                column++) {
+            int type = metaData.getColumnType(column + 1);
+            match = isSupported(type) == isSupported(this.columnTypes[column])
+                    && isDate(type) == isDate(this.columnTypes[column]);
+        }
+        if (!match) {
+            throw new SQLException("The refresh query does not return the "
+                    + "same columns as the query.");
+        }
+    }
+
+    /**
+     * Removes all the data.
+     */
+    private void clearData() {
+        int seriesCount = this.columnNames.length;
+        this.itemCount = 0;
+        this.xValues = new double[INITIAL_CAPACITY];
+        this.yValues = new double[seriesCount][INITIAL_CAPACITY];
+        this.bucketSums = new double[seriesCount];
+        this.bucketCounts = new int[seriesCount];
+        this.lastX = Double.NaN;
+        this.loadedBucketWidth = this.bucketWidth;
+        this.rangeBounds = null;
+    }
+
+    /**
+     * Reads the rows from a result set and adds them to the data.
+     *
+     * @param resultSet  the result set.
+     *
+     * @return The number of rows read.
+     *
+     * @throws SQLException if there is a problem reading the rows, or the
+     *     rows are not in ascending order.
+     */
+    private int readRows(ResultSet resultSet) throws SQLException {
+        int seriesCount = this.columnNames.length;
+        int columnCount = this.columnTypes.length;
+        double[] row = new double[seriesCount];
+        int rows = 0;
+        while (resultSet.next()) {
+            double x = readValue(resultSet, 1, this.columnTypes[0]);
+            if (Double.isNaN(x)) {
+                continue;  // an item needs an x-value
+            }
+            if (x < this.lastX) {
+                throw new SQLException("The rows are not in ascending order "
+                        + "of x-value (" + x + " follows " + this.lastX 
+                        + ").");
+            }
+            int series = 0;
+            for (int column = 1; column < columnCount; column++) {
+                int type = this.columnTypes[column];
+                if (isSupported(type)) {
+                    row[series++] = readValue(resultSet, column + 1, type);
+                }
+            }
+            addRow(x, row);
+            this.lastX = x;
+            rows++;
+        }
+        if (rows > 0) {
+            this.rangeBounds = null;
+        }
+        return rows;
+    }
+
+    /**
+     * Adds a row to the data, aggregating it into the last bucket if 
+     * necessary.
+     *
+     * @param x  the x-value.
+     * @param row  the y-values.
+     */
+    private void addRow(double x, double[] row) {
+        int seriesCount = row.length;
+        double width = this.loadedBucketWidth;
+        if (width <= 0.0) {
+            int item = appendItem(x);
+            for (int s = 0; s < seriesCount; s++) {
+                this.yValues[s][item] = row[s];
+            }
+            return;
+        }
+        double bucket = Math.floor(x / width) * width;
+        int item = this.itemCount - 1;
+        if (item < 0 || this.xValues[item] != bucket) {
+            item = appendItem(bucket);
+            Arrays.fill(this.bucketSums, 0.0);
+            Arrays.fill(this.bucketCounts, 0);
+        }
+        for (int s = 0; s < seriesCount; s++) {
+            if (!Double.isNaN(row[s])) {
+                this.bucketSums[s] += row[s];
+                this.bucketCounts[s]++;
+            }
+            this.yValues[s][item] = this.bucketCounts[s] > 0 
+                    ? this.bucketSums[s] / this.bucketCounts[s] : Double.NaN;
+        }
+    }
+
+    /**
+     * Appends an item with the specified x-value, growing the arrays if
+     * necessary.
+     *
+     * @param x  the x-value.
+     *
+     * @return The index of the new item.
+     */
+    private int appendItem(double x) {
+        if (this.itemCount == this.xValues.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, 
+                    this.itemCount + (this.itemCount >> 1));
+            this.xValues = Arrays.copyOf(this.xValues, capacity);
+            for (int s = 0; s < this.yValues.length; s++) {
+                this.yValues[s] = Arrays.copyOf(this.yValues[s], capacity);
+            }
+        }
+        this.xValues[this.itemCount] = x;
+        return this.itemCount++;
+    }
+
+    /**
+     * Reads a value from the current row of a result set.
+     *
+     * @param resultSet  the result set.
+     * @param column  the column (one-based index).
+     * @param type  the SQL type of the column.
+     *
+     * @return The value ({@code Double.NaN} for {@code null}).
+     *
+     * @throws SQLException if there is a problem reading the value.
+     */
+    private static double readValue(ResultSet resultSet, int column, 
+            int type) throws SQLException {
+        if (isDate(type)) {
+            Timestamp t = resultSet.getTimestamp(column);
+            return t == null ? Double.NaN : t.getTime();
+        }
+        double value = resultSet.getDouble(column);
+        return resultSet.wasNull() ? Double.NaN : value;
+    }
+
+    /**
+     * Returns {@code true} if values of the specified SQL type can be 
+     * read, and {@code false} otherwise.
+     *
+     * @param type  the SQL type.
+     *
+     * @return A boolean.
+     */
+    private static boolean isSupported(int type) {
+        switch (type) {
+            case Types.NUMERIC:
+            case Types.REAL:
+            case Types.INTEGER:
+            case Types.DOUBLE:
+            case Types.FLOAT:
+            case Types.DECIMAL:
+            case Types.BIT:
+            case Types.BIGINT:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return true;
+            default:
+                return isDate(type);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the specified SQL type is a date or time 
+     * type, and {@code false} otherwise.
+     *
+     * @param type  the SQL type.
+     *
+     * @return A boolean.
+     */
+    private static boolean isDate(int type) {
+        return type == Types.DATE || type == Types.TIME 
+                || type == Types.TIMESTAMP;
+    }
+
+    /**
+     * Returns the number of series in the dataset.
+     *
+     * @return The series count.
+     */
+    @Override
+    public int getSeriesCount() {
+        return this.columnNames.length;
+    }
+
+    /**
+     * Returns the key for a series (the label of the query column).
+     *
+     * @param series  the series (zero-based index).
+     *
+     * @return The key.
+     */
+    @Override
+    public Comparable getSeriesKey(int series) {
+        return this.columnNames[series];
+    }
+
+    /**
+     * Returns the number of items in every series.
+     *
+     * @return The item count.
+     */
+    @Override
+    public int getItemCount() {
+        return this.itemCount;
+    }
+
+    /**
+     * Returns the number of items in a series.
+     *
+     * @param series  the series (zero-based index, ignored).
+     *
+     * @return The item count.
+     */
+    @Override
+    public int getItemCount(int series) {
+        return this.itemCount;
+    }
+
+    /**
+     * Returns the x-value for an item.
+     *
+     * @param series  the series (zero-based index, ignored).
+     * @param item  the item (zero-based index).
+     *
+     * @return The x-value.
+     */
+    @Override
+    public double getXValue(int series, int item) {
+        checkItem(item);
+        return this.xValues[item];
+    }
+
+    /**
+     * Returns the x-value for an item.
+     *
+     * @param series  the series (zero-based index, ignored).
+     * @param item  the item (zero-based index).
+     *
+     * @return The x-value.
+     */
+    @Override
+    public Number getX(int series, int item) {
+        return new Double(getXValue(series, item));
+    }
+
+    /**
+     * Returns the y-value for an item.
+     *
+     * @param series  the series (zero-based index).
+     * @param item  the item (zero-based index).
+     *
+     * @return The y-value ({@code Double.NaN} for {@code null}).
+     */
+    @Override
+    public double getYValue(int series, int item) {
+        checkItem(item);
+        return this.yValues[series][item];
+    }
+
+    /**
+     * Returns the y-value for an item.
+     *
+     * @param series  the series (zero-based index).
+     * @param item  the item (zero-based index).
+     *
+     * @return The y-value (possibly {@code null}).
+     */
+    @Override
+    public Number getY(int series, int item) {
+        double y = getYValue(series, item);
+        return Double.isNaN(y) ? null : new Double(y);
+    }
+
+    /**
+     * Checks that an item index is valid.
+     *
+     * @param item  the item (zero-based index).
+     */
+    private void checkItem(int item) {
+        if (item < 0 || item >= this.itemCount) {
+            throw new IndexOutOfBoundsException("Index: " + item 
+                    + ", Size: " + this.itemCount);
+        }
+    }
+
+    /**
+     * Returns the minimum x-value in the dataset.
+     *
+     * @param includeInterval  ignored.
+     *
+     * @return The minimum x-value ({@code Double.NaN} if the dataset is 
+     *     empty).
+     */
+    @Override
+    public double getDomainLowerBound(boolean includeInterval) {
+        return this.itemCount > 0 ? this.xValues[0] : Double.NaN;
+    }
+
+    /**
+     * Returns the maximum x-value in the dataset.
+     *
+     * @param includeInterval  ignored.
+     *
+     * @return The maximum x-value ({@code Double.NaN} if the dataset is 
+     *     empty).
+     */
+    @Override
+    public double getDomainUpperBound(boolean includeInterval) {
+        return this.itemCount > 0 ? this.xValues[this.itemCount - 1] 
+                : Double.NaN;
+    }
+
+    /**
+     * Returns the range of the x-values in the dataset.
+     *
+     * @param includeInterval  ignored.
+     *
+     * @return The range ({@code null} if the dataset is empty).
+     */
+    @Override
+    public Range getDomainBounds(boolean includeInterval) {
+        if (this.itemCount == 0) {
+            return null;
+        }
+        return new Range(this.xValues[0], this.xValues[this.itemCount - 1]);
+    }
+
+    /**
+     * Returns the minimum y-value in the dataset.
+     *
+     * @param includeInterval  ignored.
+     *
+     * @return The minimum y-value ({@code Double.NaN} if there are no 
+     *     y-values).
+     */
+    @Override
+    public double getRangeLowerBound(boolean includeInterval) {
+        Range r = getRangeBounds(includeInterval);
+        return r != null ? r.getLowerBound() : Double.NaN;
+    }
+
+    /**
+     * Returns the maximum y-value in the dataset.
+     *
+     * @param includeInterval  ignored.
+     *
+     * @return The maximum y-value ({@code Double.NaN} if there are no 
+     *     y-values).
+     */
+    @Override
+    public double getRangeUpperBound(boolean includeInterval) {
+        Range r = getRangeBounds(includeInterval);
+        return r != null ? r.getUpperBound() : Double.NaN;
+    }
+
+    /**
+     * Returns the range of the y-values in the dataset.  The range is 
+     * calculated once after each change to the data.
+     *
+     * @param includeInterval  ignored.
+     *
+     * @return The range ({@code null} if there are no y-values).
+     */
+    @Override
+    public Range getRangeBounds(boolean includeInterval) {
+        if (this.rangeBounds == null) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (double[] values : this.yValues) {
+                for (int i = 0; i < this.itemCount; i++) {
+                    double y = values[i];
+                    // comparisons with NaN are false, so nulls are skipped
+                    if (y < min) {
+                        min = y;
+                    }
+                    if (y > max) {
+                        max = y;
+                    }
+                }
+            }
+            if (min > max) {
+                return null;
+            }
+            this.rangeBounds = new Range(min, max);
+        }
+        return this.rangeBounds;
+    }
+
+}
@@ -97,6 +97,9 @@ import org.jfree.data.xy.XYDataset;
  * executeQuery can be called a number of times.
  *
  * The database connection is read-only and no write back facility exists.
+ * <p>
+ * All the results are held as objects, so for large result sets consider
+ * {@link JDBCColumnarXYDataset} instead.
  */
 public class JDBCXYDataset extends AbstractXYDataset
         implements XYDataset, TableXYDataset, RangeInfo {
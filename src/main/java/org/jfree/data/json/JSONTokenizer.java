@@ -0,0 +1,413 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ------------------
+ * JSONTokenizer.java
+ * ------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.json;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.jfree.chart.util.Args;
+
+/**
+ * A pull parser that reads JSON tokens from a {@code Reader} one at a 
+ * time, so that datasets can be read without building a tree of objects.
+ */
+final class JSONTokenizer {
+
+    /** The reader. */
+    private final Reader reader;
+
+    /** The buffer. */
+    private final char[] buffer;
+
+    /** The position of the next character in the buffer. */
+    private int position;
+
+    /** The number of characters in the buffer. */
+    private int limit;
+
+    /** The number of characters read before the buffer. */
+    private long offset;
+
+    /** A flag that indicates that a comma is needed before the next value. */
+    private boolean needComma;
+
+    /** A builder that is reused for strings and numbers. */
+    private final StringBuilder text;
+
+    /**
+     * Creates a tokenizer.
+     *
+     * @param reader  the reader ({@code null} not permitted).
+     */
+    JSONTokenizer(Reader reader) {
+        Args.nullNotPermitted(reader, "reader");
+        this.reader = reader;
+        this.buffer = new char[8192];
+        this.text = new StringBuilder();
+    }
+
+    /**
+     * Returns the next character without consuming it, or -1 at the end of 
+     * the input.
+     *
+     * @return The character.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private int peekChar() throws IOException {
+        if (this.position == this.limit) {
+            this.offset += this.limit;
+            this.position = 0;
+            this.limit = Math.max(0, this.reader.read(this.buffer));
+            if (this.limit == 0) {
+                return -1;
+            }
+        }
+        return this.buffer[this.position];
+    }
+
+    /**
+     * Consumes the next character.
+     *
+     * @return The character.
+     *
+     * @throws IOException if the input ends.
+     */
+    private char readChar() throws IOException {
+        if (peekChar() < 0) {
+            throw error("Unexpected end of input");
+        }
+        return this.buffer[this.position++];
+    }
+
+    /**
+     * Skips white space and returns the next character without consuming 
+     * it.
+     *
+     * @return The character (-1 at the end of the input).
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private int peekToken() throws IOException {
+        int c = peekChar();
+        while (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+            this.position++;
+            c = peekChar();
+        }
+        return c;
+    }
+
+    /**
+     * Returns an exception for a syntax error at the current position.
+     *
+     * @param message  the message.
+     *
+     * @return The exception.
+     */
+    IOException error(String message) {
+        return new IOException(message + " at character " 
+                + (this.offset + this.position) + ".");
+    }
+
+    /**
+     * Consumes the comma before a value if one is needed.
+     *
+     * @throws IOException if the comma is missing.
+     */
+    private void separator() throws IOException {
+        if (this.needComma) {
+            if (peekToken() != ',') {
+                throw error("Expected ','");
+            }
+            this.position++;
+            this.needComma = false;
+        }
+    }
+
+    /**
+     * Consumes a character, after skipping white space.
+     *
+     * @param c  the expected character.
+     *
+     * @throws IOException if the next character is different.
+     */
+    private void expect(char c) throws IOException {
+        if (peekToken() != c) {
+            throw error("Expected '" + c + "'");
+        }
+        this.position++;
+    }
+
+    /**
+     * Returns {@code true} if there is another value in the current array,
+     * or another name in the current object.
+     *
+     * @return A boolean.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    boolean hasNext() throws IOException {
+        int c = peekToken();
+        return c != ']' && c != '}' && c >= 0;
+    }
+
+    /**
+     * Returns the first character of the next value (after any comma) 
+     * without consuming it: '{', '[', '"', 'n' (for {@code null}), 't' or
+     * 'f' (for a boolean) or the first character of a number.
+     *
+     * @return The character.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    int peek() throws IOException {
+        separator();
+        return peekToken();
+    }
+
+    /**
+     * Consumes the start of an array.
+     *
+     * @throws IOException if the next value is not an array.
+     */
+    void beginArray() throws IOException {
+        separator();
+        expect('[');
+    }
+
+    /**
+     * Consumes the end of an array.
+     *
+     * @throws IOException if the array does not end here.
+     */
+    void endArray() throws IOException {
+        expect(']');
+        this.needComma = true;
+    }
+
+    /**
+     * Consumes the start of an object.
+     *
+     * @throws IOException if the next value is not an object.
+     */
+    void beginObject() throws IOException {
+        separator();
+        expect('{');
+    }
+
+    /**
+     * Consumes the end of an object.
+     *
+     * @throws IOException if the object does not end here.
+     */
+    void endObject() throws IOException {
+        expect('}');
+        this.needComma = true;
+    }
+
+    /**
+     * Reads a name in an object, and the colon that follows it.
+     *
+     * @return The name.
+     *
+     * @throws IOException if there is no name.
+     */
+    String nextName() throws IOException {
+        String name = nextString();
+        expect(':');
+        this.needComma = false;
+        return name;
+    }
+
+    /**
+     * Reads a string.
+     *
+     * @return The string.
+     *
+     * @throws IOException if the next value is not a string.
+     */
+    String nextString() throws IOException {
+        separator();
+        expect('"');
+        StringBuilder sb = this.text;
+        sb.setLength(0);
+        while (true) {
+            // copy runs of plain characters in one call
+            int start = this.position;
+            while (this.position < this.limit) {
+                char c = this.buffer[this.position];
+                if (c == '"' || c == '\\') {
+                    break;
+                }
+                this.position++;
+            }
+            sb.append(this.buffer, start, this.position - start);
+            char c = readChar();
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                c = readChar();
+                switch (c) {
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u':
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            int digit = Character.digit(readChar(), 16);
+                            if (digit < 0) {
+                                throw error("Invalid escape");
+                            }
+                            code = code * 16 + digit;
+                        }
+                        sb.append((char) code);
+                        break;
+                    default: sb.append(c);
+                }
+            }
+            else {
+                // the buffer ran out in a run of plain characters
+                sb.append(c);
+            }
+        }
+        this.needComma = true;
+        return sb.toString();
+    }
+
+    /**
+     * Reads a number, returning {@code Double.NaN} for {@code null}.
+     *
+     * @return The number.
+     *
+     * @throws IOException if the next value is not a number or 
+     *     {@code null}.
+     */
+    double nextDouble() throws IOException {
+        separator();
+        int c = peekToken();
+        if (c == 'n') {
+            nextLiteral("null");
+            return Double.NaN;
+        }
+        StringBuilder sb = this.text;
+        sb.setLength(0);
+        while ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.'
+                || c == 'e' || c == 'E') {
+            sb.append((char) c);
+            this.position++;
+            c = peekChar();
+        }
+        if (sb.length() == 0) {
+            throw error("Expected a number");
+        }
+        this.needComma = true;
+        try {
+            return Double.parseDouble(sb.toString());
+        }
+        catch (NumberFormatException e) {
+            throw error("Invalid number '" + sb + "'");
+        }
+    }
+
+    /**
+     * Reads a literal ({@code null}, {@code true} or {@code false}).
+     *
+     * @param literal  the expected literal.
+     *
+     * @throws IOException if the literal is not found.
+     */
+    private void nextLiteral(String literal) throws IOException {
+        peekToken();
+        for (int i = 0; i < literal.length(); i++) {
+            if (readChar() != literal.charAt(i)) {
+                throw error("Expected '" + literal + "'");
+            }
+        }
+        this.needComma = true;
+    }
+
+    /**
+     * Skips the next value (including any nested arrays and objects).
+     *
+     * @throws IOException if there is a syntax error.
+     */
+    void skipValue() throws IOException {
+        int c = peek();
+        if (c == '[') {
+            beginArray();
+            while (hasNext()) {
+                skipValue();
+            }
+            endArray();
+        }
+        else if (c == '{') {
+            beginObject();
+            while (hasNext()) {
+                nextName();
+                skipValue();
+            }
+            endObject();
+        }
+        else if (c == '"') {
+            nextString();
+        }
+        else if (c == 't') {
+            nextLiteral("true");
+        }
+        else if (c == 'f') {
+            nextLiteral("false");
+        }
+        else {
+            nextDouble();
+        }
+    }
+
+    /**
+     * Checks that there is nothing but white space after the last value.
+     *
+     * @throws IOException if there is more input.
+     */
+    void end() throws IOException {
+        if (peekToken() >= 0) {
+            throw error("Unexpected input after the end");
+        }
+    }
+
+}
@@ -40,20 +40,44 @@
 
 package org.jfree.data.json;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
 import org.jfree.chart.util.Args;
 import org.jfree.data.KeyedValues;
 import org.jfree.data.KeyedValues2D;
 import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.DefaultPieDataset;
 import org.jfree.data.general.PieDataset;
-import org.jfree.data.json.impl.JSONValue;
+import org.jfree.data.general.SeriesException;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.xy.DefaultXYDataset;
+import org.jfree.data.xy.XYDataset;
 
 /**
  * A utility class that can read and write data in specific JSON formats.
+ * <br><br>
+ * The methods write directly to a {@code Writer} and read with a pull 
+ * parser, so no intermediate JSON objects are created.  XY and time series
+ * data is written in a columnar layout, with the x-values and y-values for
+ * each series in parallel arrays:
+ * {@code {"series": [{"key": "S1", "x": [1.0, 2.0], "y": [3.0, null]}]}}
  * 
  * @since 1.0.20
  */
@@ -108,9 +132,9 @@ public class JSONUtils {
                 first = false;
             }
             writer.write("[");
-            writer.write(JSONValue.toJSONString(key.toString()));
+            writeString(key.toString(), writer);
             writer.write(", ");
-            writer.write(JSONValue.toJSONString(data.getValue(key)));
+            writeNumber(data.getValue(key), writer);
             writer.write("]");
         }
         writer.write("]");
@@ -164,12 +188,15 @@ public class JSONUtils {
                 } else {
                     first = false;
                 }
-                writer.write(JSONValue.toJSONString(columnKey.toString()));
+                writeString(columnKey.toString(), writer);
             }
             writer.write("]");
         }
         if (!rowKeys.isEmpty()) {
-            writer.write(", \"rows\": [");
+            if (!columnKeys.isEmpty()) {
+                writer.write(", ");
+            }
+            writer.write("\"rows\": [");
             boolean firstRow = true;
             for (Comparable<?> rowKey : rowKeys) {   
                 if (!firstRow) {
@@ -179,7 +206,7 @@ public class JSONUtils {
                     firstRow = false;
                 }
                 // write the row data 
-                writer.write(JSONValue.toJSONString(rowKey.toString()));
+                writeString(rowKey.toString(), writer);
                 writer.write(", [");
                 boolean first = true;
                 for (Comparable<?> columnKey : columnKeys) {
@@ -188,8 +215,7 @@ public class JSONUtils {
                     } else {
                         first = false;
                     }
-                    writer.write(JSONValue.toJSONString(data.getValue(rowKey, 
-                            columnKey)));
+                    writeNumber(data.getValue(rowKey, columnKey), writer);
                 }
                 writer.write("]]");
             }
@@ -197,5 +223,683 @@ public class JSONUtils {
         }
         writer.write("}");    
     }
-    
+
+    /**
+     * Returns a string containing the data in the columnar JSON format
+     * (see {@link #writeXYDataset(XYDataset, Writer, boolean)}).
+     * 
+     * @param data  the data ({@code null} not permitted).
+     * 
+     * @return A string in JSON format.
+     * 
+     * @since 1.5
+     */
+    public static String writeXYDataset(XYDataset data) {
+        Args.nullNotPermitted(data, "data");
+        StringWriter sw = new StringWriter();
+        try {
+            writeXYDataset(data, sw, true);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        return sw.toString();
+    }
+
+    /**
+     * Writes the data in the columnar JSON format, encoded as UTF-8, to 
+     * the supplied stream.  The stream is flushed but not closed.
+     * 
+     * @param data  the data ({@code null} not permitted).
+     * @param out  the output stream ({@code null} not permitted).
+     * 
+     * @throws IOException if there is an I/O problem.
+     * 
+     * @since 1.5
+     */
+    public static void writeXYDataset(XYDataset data, OutputStream out) 
+            throws IOException {
+        Args.nullNotPermitted(out, "out");
+        Writer writer = createWriter(out);
+        writeXYDataset(data, writer, true);
+        writer.flush();
+    }
+
+    /**
+     * Writes the data in JSON format to the supplied writer.  The format 
+     * is an object with a "series" array, containing an object for each 
+     * series with the series key and the data items.  In the columnar 
+     * layout the x-values and y-values are in two parallel arrays, for 
+     * example {@code {"key": "S1", "x": [1.0, 2.0], "y": [3.0, null]}}, 
+     * otherwise each data item is an array of two values, for example 
+     * {@code {"key": "S1", "items": [[1.0, 3.0], [2.0, null]]}}.  
+     * {@code NaN} values are written as {@code null}.
+     * 
+     * @param data  the data ({@code null} not permitted).
+     * @param writer  the writer ({@code null} not permitted).
+     * @param columnar  use the columnar layout?
+     * 
+     * @throws IOException if there is an I/O problem.
+     * 
+     * @since 1.5
+     */
+    public static void writeXYDataset(XYDataset data, Writer writer, 
+            boolean columnar) throws IOException {
+        Args.nullNotPermitted(data, "data");
+        Args.nullNotPermitted(writer, "writer");
+        writer.write("{\"series\": [");
+        for (int s = 0; s < data.getSeriesCount(); s++) {
+            if (s > 0) {
+                writer.write(", ");
+            }
+            writer.write("{\"key\": ");
+            writeString(data.getSeriesKey(s).toString(), writer);
+            int count = data.getItemCount(s);
+            if (columnar) {
+                writer.write(", \"x\": [");
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        writer.write(", ");
+                    }
+                    writeDouble(data.getXValue(s, i), writer);
+                }
+                writer.write("], \"y\": [");
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        writer.write(", ");
+                    }
+                    writeDouble(data.getYValue(s, i), writer);
+                }
+                writer.write("]}");
+            } else {
+                writer.write(", \"items\": [");
+                for (int i = 0; i < count; i++) {
+                    writer.write(i > 0 ? ", [" : "[");
+                    writeDouble(data.getXValue(s, i), writer);
+                    writer.write(", ");
+                    writeDouble(data.getYValue(s, i), writer);
+                    writer.write("]");
+                }
+                writer.write("]}");
+            }
+        }
+        writer.write("]}");
+    }
+
+    /**
+     * Reads a dataset in the format written by 
+     * {@link #writeXYDataset(XYDataset, Writer, boolean)} (either layout).
+     * {@code null} values are read as {@code Double.NaN}.
+     * 
+     * @param reader  the reader ({@code null} not permitted).
+     * 
+     * @return The dataset.
+     * 
+     * @throws IOException if there is an I/O problem or the JSON is not 
+     *     valid.
+     * 
+     * @since 1.5
+     */
+    public static DefaultXYDataset readXYDataset(Reader reader) 
+            throws IOException {
+        JSONTokenizer tokenizer = new JSONTokenizer(reader);
+        DefaultXYDataset dataset = new DefaultXYDataset();
+        tokenizer.beginObject();
+        while (tokenizer.hasNext()) {
+            if ("series".equals(tokenizer.nextName())) {
+                tokenizer.beginArray();
+                while (tokenizer.hasNext()) {
+                    SeriesData series = readSeries(tokenizer);
+                    dataset.addSeries(series.key, new double[][] {
+                            series.x, series.y});
+                }
+                tokenizer.endArray();
+            } else {
+                tokenizer.skipValue();
+            }
+        }
+        tokenizer.endObject();
+        tokenizer.end();
+        return dataset;
+    }
+
+    /**
+     * Reads a dataset in the format written by 
+     * {@link #writeXYDataset(XYDataset, Writer, boolean)} from a UTF-8
+     * encoded stream.  The stream is not closed.
+     * 
+     * @param in  the input stream ({@code null} not permitted).
+     * 
+     * @return The dataset.
+     * 
+     * @throws IOException if there is an I/O problem or the JSON is not 
+     *     valid.
+     * 
+     * @since 1.5
+     */
+    public static DefaultXYDataset readXYDataset(InputStream in) 
+            throws IOException {
+        Args.nullNotPermitted(in, "in");
+        return readXYDataset(new InputStreamReader(in, "UTF-8"));
+    }
+
+    /**
+     * Writes a time series collection in the columnar JSON format to the 
+     * supplied writer.  The x-values are the first millisecond of each 
+     * time period and each series object also has a "timePeriod" entry 
+     * with the name of the time period class (for example "Day"), for 
+     * example 
+     * {@code {"series": [{"key": "S1", "timePeriod": "Day", 
+     * "x": [1483228800000, 1483315200000], "y": [1.0, 2.0]}]}}.
+     * 
+     * @param data  the data ({@code null} not permitted).
+     * @param writer  the writer ({@code null} not permitted).
+     * 
+     * @throws IOException if there is an I/O problem.
+     * 
+     * @since 1.5
+     */
+    public static void writeTimeSeriesCollection(TimeSeriesCollection data, 
+            Writer writer) throws IOException {
+        Args.nullNotPermitted(data, "data");
+        Args.nullNotPermitted(writer, "writer");
+        writer.write("{\"series\": [");
+        for (int s = 0; s < data.getSeriesCount(); s++) {
+            TimeSeries series = data.getSeries(s);
+            if (s > 0) {
+                writer.write(", ");
+            }
+            writer.write("{\"key\": ");
+            writeString(series.getKey().toString(), writer);
+            Class periodClass = series.getTimePeriodClass();
+            if (periodClass != null) {
+                writer.write(", \"timePeriod\": ");
+                String name = periodClass.getName();
+                if (periodClass.getPackage() 
+                        == RegularTimePeriod.class.getPackage()) {
+                    name = name.substring(name.lastIndexOf('.') + 1);
+                }
+                writeString(name, writer);
+            }
+            int count = series.getItemCount();
+            writer.write(", \"x\": [");
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    writer.write(", ");
+                }
+                writer.write(Long.toString(
+                        series.getTimePeriod(i).getFirstMillisecond()));
+            }
+            writer.write("], \"y\": [");
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    writer.write(", ");
+                }
+                writeNumber(series.getValue(i), writer);
+            }
+            writer.write("]}");
+        }
+        writer.write("]}");
+    }
+
+    /**
+     * Writes a time series collection in the columnar JSON format (see 
+     * {@link #writeTimeSeriesCollection(TimeSeriesCollection, Writer)}), 
+     * encoded as UTF-8, to the supplied stream.  The stream is flushed but
+     * not closed.
+     * 
+     * @param data  the data ({@code null} not permitted).
+     * @param out  the output stream ({@code null} not permitted).
+     * 
+     * @throws IOException if there is an I/O problem.
+     * 
+     * @since 1.5
+     */
+    public static void writeTimeSeriesCollection(TimeSeriesCollection data, 
+            OutputStream out) throws IOException {
+        Args.nullNotPermitted(out, "out");
+        Writer writer = createWriter(out);
+        writeTimeSeriesCollection(data, writer);
+        writer.flush();
+    }
+
+    /**
+     * Reads a time series collection in the format written by 
+     * {@link #writeTimeSeriesCollection(TimeSeriesCollection, Writer)}.  
+     * The time periods are created in the specified time zone, and items
+     * with a {@code null} value are kept.
+     * 
+     * @param reader  the reader ({@code null} not permitted).
+     * @param zone  the time zone ({@code null} not permitted).
+     * 
+     * @return The time series collection.
+     * 
+     * @throws IOException if there is an I/O problem, the JSON is not 
+     *     valid or a time period cannot be created.
+     * 
+     * @since 1.5
+     */
+    public static TimeSeriesCollection readTimeSeriesCollection(
+            Reader reader, TimeZone zone) throws IOException {
+        Args.nullNotPermitted(zone, "zone");
+        JSONTokenizer tokenizer = new JSONTokenizer(reader);
+        TimeSeriesCollection dataset = new TimeSeriesCollection(zone);
+        tokenizer.beginObject();
+        while (tokenizer.hasNext()) {
+            if ("series".equals(tokenizer.nextName())) {
+                tokenizer.beginArray();
+                while (tokenizer.hasNext()) {
+                    dataset.addSeries(createTimeSeries(readSeries(tokenizer),
+                            zone, tokenizer));
+                }
+                tokenizer.endArray();
+            } else {
+                tokenizer.skipValue();
+            }
+        }
+        tokenizer.endObject();
+        tokenizer.end();
+        return dataset;
+    }
+
+    /**
+     * Reads a time series collection in the format written by 
+     * {@link #writeTimeSeriesCollection(TimeSeriesCollection, Writer)} 
+     * from a UTF-8 encoded stream.  The stream is not closed.
+     * 
+     * @param in  the input stream ({@code null} not permitted).
+     * @param zone  the time zone ({@code null} not permitted).
+     * 
+     * @return The time series collection.
+     * 
+     * @throws IOException if there is an I/O problem, the JSON is not 
+     *     valid or a time period cannot be created.
+     * 
+     * @since 1.5
+     */
+    public static TimeSeriesCollection readTimeSeriesCollection(
+            InputStream in, TimeZone zone) throws IOException {
+        Args.nullNotPermitted(in, "in");
+        return readTimeSeriesCollection(new InputStreamReader(in, "UTF-8"), 
+                zone);
+    }
+
+    /**
+     * Reads a dataset in the format written by 
+     * {@link #writeKeyedValues2D(KeyedValues2D, Writer)}.
+     * 
+     * @param reader  the reader ({@code null} not permitted).
+     * 
+     * @return The dataset.
+     * 
+     * @throws IOException if there is an I/O problem or the JSON is not 
+     *     valid.
+     * 
+     * @since 1.5
+     */
+    public static DefaultCategoryDataset readCategoryDataset(Reader reader) 
+            throws IOException {
+        JSONTokenizer tokenizer = new JSONTokenizer(reader);
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        String[] columnKeys = new String[0];
+        tokenizer.beginObject();
+        while (tokenizer.hasNext()) {
+            String name = tokenizer.nextName();
+            if ("columnKeys".equals(name)) {
+                int count = 0;
+                tokenizer.beginArray();
+                while (tokenizer.hasNext()) {
+                    if (count == columnKeys.length) {
+                        columnKeys = Arrays.copyOf(columnKeys, 
+                                count * 2 + 8);
+                    }
+                    columnKeys[count++] = tokenizer.nextString();
+                }
+                tokenizer.endArray();
+                columnKeys = Arrays.copyOf(columnKeys, count);
+            } else if ("rows".equals(name)) {
+                tokenizer.beginArray();
+                while (tokenizer.hasNext()) {
+                    tokenizer.beginArray();
+                    String rowKey = tokenizer.nextString();
+                    tokenizer.beginArray();
+                    int c = 0;
+                    while (tokenizer.hasNext()) {
+                        if (c == columnKeys.length) {
+                            throw tokenizer.error("Too many values in row");
+                        }
+                        double value = tokenizer.nextDouble();
+                        dataset.addValue(Double.isNaN(value) ? null 
+                                : new Double(value), rowKey, columnKeys[c++]);
+                    }
+                    tokenizer.endArray();
+                    tokenizer.endArray();
+                }
+                tokenizer.endArray();
+            } else {
+                tokenizer.skipValue();
+            }
+        }
+        tokenizer.endObject();
+        tokenizer.end();
+        return dataset;
+    }
+
+    /**
+     * Reads a dataset in the format written by 
+     * {@link #writeKeyedValues(KeyedValues, Writer)}.
+     * 
+     * @param reader  the reader ({@code null} not permitted).
+     * 
+     * @return The dataset.
+     * 
+     * @throws IOException if there is an I/O problem or the JSON is not 
+     *     valid.
+     * 
+     * @since 1.5
+     */
+    public static DefaultPieDataset readPieDataset(Reader reader) 
+            throws IOException {
+        JSONTokenizer tokenizer = new JSONTokenizer(reader);
+        DefaultPieDataset dataset = new DefaultPieDataset();
+        tokenizer.beginArray();
+        while (tokenizer.hasNext()) {
+            tokenizer.beginArray();
+            String key = tokenizer.nextString();
+            double value = tokenizer.nextDouble();
+            tokenizer.endArray();
+            dataset.setValue(key, Double.isNaN(value) ? null 
+                    : new Double(value));
+        }
+        tokenizer.endArray();
+        tokenizer.end();
+        return dataset;
+    }
+
+    /**
+     * Reads one series object in the XY or time series format.
+     * 
+     * @param tokenizer  the tokenizer.
+     * 
+     * @return The series data.
+     * 
+     * @throws IOException if there is an I/O problem or the JSON is not 
+     *     valid.
+     */
+    private static SeriesData readSeries(JSONTokenizer tokenizer) 
+            throws IOException {
+        SeriesData series = new SeriesData();
+        tokenizer.beginObject();
+        while (tokenizer.hasNext()) {
+            String name = tokenizer.nextName();
+            if ("key".equals(name)) {
+                series.key = tokenizer.nextString();
+            } else if ("timePeriod".equals(name)) {
+                series.timePeriod = tokenizer.nextString();
+            } else if ("x".equals(name)) {
+                series.x = readDoubles(tokenizer);
+            } else if ("y".equals(name)) {
+                series.y = readDoubles(tokenizer);
+            } else if ("items".equals(name)) {
+                double[] x = new double[16];
+                double[] y = new double[16];
+                int count = 0;
+                tokenizer.beginArray();
+                while (tokenizer.hasNext()) {
+                    if (count == x.length) {
+                        x = Arrays.copyOf(x, count * 2);
+                        y = Arrays.copyOf(y, count * 2);
+                    }
+                    tokenizer.beginArray();
+                    x[count] = tokenizer.nextDouble();
+                    y[count++] = tokenizer.nextDouble();
+                    tokenizer.endArray();
+                }
+                tokenizer.endArray();
+                series.x = Arrays.copyOf(x, count);
+                series.y = Arrays.copyOf(y, count);
+            } else {
+                tokenizer.skipValue();
+            }
+        }
+        tokenizer.endObject();
+        if (series.key == null) {
+            throw tokenizer.error("Series without a key");
+        }
+        if (series.x == null) {
+            series.x = new double[0];
+        }
+        if (series.y == null) {
+            series.y = new double[0];
+        }
+        if (series.x.length != series.y.length) {
+            throw tokenizer.error("The 'x' and 'y' arrays for series '" 
+                    + series.key + "' have different lengths");
+        }
+        return series;
+    }
+
+    /**
+     * Reads an array of numbers.
+     * 
+     * @param tokenizer  the tokenizer.
+     * 
+     * @return The numbers ({@code null} values are {@code Double.NaN}).
+     * 
+     * @throws IOException if there is an I/O problem or the JSON is not 
+     *     valid.
+     */
+    private static double[] readDoubles(JSONTokenizer tokenizer) 
+            throws IOException {
+        double[] values = new double[16];
+        int count = 0;
+        tokenizer.beginArray();
+        while (tokenizer.hasNext()) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = tokenizer.nextDouble();
+        }
+        tokenizer.endArray();
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Creates a time series from the data that has been read.
+     * 
+     * @param data  the series data.
+     * @param zone  the time zone.
+     * @param tokenizer  the tokenizer (for errors).
+     * 
+     * @return The time series.
+     * 
+     * @throws IOException if a time period cannot be created.
+     */
+    private static TimeSeries createTimeSeries(SeriesData data, 
+            TimeZone zone, JSONTokenizer tokenizer) throws IOException {
+        TimeSeries series = new TimeSeries(data.key);
+        if (data.x.length == 0) {
+            return series;
+        }
+        if (data.timePeriod == null) {
+            throw tokenizer.error("Series '" + data.key 
+                    + "' has no 'timePeriod'");
+        }
+        Constructor constructor = getPeriodConstructor(data.timePeriod);
+        Locale locale = Locale.getDefault();
+        try {
+            for (int i = 0; i < data.x.length; i++) {
+                RegularTimePeriod period = (RegularTimePeriod) 
+                        constructor.newInstance(new Date((long) data.x[i]), 
+                        zone, locale);
+                double y = data.y[i];
+                series.add(period, Double.isNaN(y) ? null : new Double(y), 
+                        false);
+            }
+        } catch (SeriesException e) {
+            throw new IOException("Duplicate time period in series '" 
+                    + data.key + "'.", e);
+        } catch (Exception e) {
+            throw new IOException("Cannot create a time period for series '"
+                    + data.key + "'.", e);
+        }
+        return series;
+    }
+
+    /**
+     * Returns the constructor that creates a time period from a date, time
+     * zone and locale.
+     * 
+     * @param name  the class name (a name without a package is in the 
+     *     {@code org.jfree.data.time} package).
+     * 
+     * @return The constructor.
+     * 
+     * @throws IOException if the class is not a time period class.
+     */
+    private static Constructor getPeriodConstructor(String name) 
+            throws IOException {
+        String className = name;
+        if (name.indexOf('.') < 0) {
+            className = RegularTimePeriod.class.getPackage().getName() + "." 
+                    + name;
+        }
+        try {
+            // the class is not initialized unless it is a time period
+            Class c = Class.forName(className, false, 
+                    JSONUtils.class.getClassLoader());
+            if (!RegularTimePeriod.class.isAssignableFrom(c)) {
+                throw new IOException("'" + name 
+                        + "' is not a time period class.");
+            }
+            return c.getDeclaredConstructor(new Class[] {Date.class, 
+                    TimeZone.class, Locale.class});
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unknown time period class '" + name 
+                    + "'.", e);
+        } catch (NoSuchMethodException e) {
+            throw new IOException("The class '" + name + "' has no "
+                    + "constructor for a (Date, TimeZone, Locale).", e);
+        }
+    }
+
+    /**
+     * Creates a buffered UTF-8 writer for a stream.
+     * 
+     * @param out  the stream.
+     * 
+     * @return The writer.
+     * 
+     * @throws IOException if UTF-8 is not supported.
+     */
+    private static Writer createWriter(OutputStream out) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+    }
+
+    /**
+     * Writes a number, or {@code null} for a {@code null}, {@code NaN} or
+     * infinite value.
+     * 
+     * @param value  the value ({@code null} permitted).
+     * @param writer  the writer.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    private static void writeNumber(Number value, Writer writer) 
+            throws IOException {
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = value.doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                writer.write("null");
+            } else {
+                writer.write(value.toString());
+            }
+        } else {
+            writer.write(value.toString());
+        }
+    }
+
+    /**
+     * Writes a double value, or {@code null} for a {@code NaN} or infinite
+     * value.
+     * 
+     * @param value  the value.
+     * @param writer  the writer.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    private static void writeDouble(double value, Writer writer) 
+            throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writer.write("null");
+        } else {
+            writer.write(Double.toString(value));
+        }
+    }
+
+    /**
+     * Writes a string in quotes, escaping the characters that JSON requires
+     * (and the others that {@code JSONValue} escapes).
+     * 
+     * @param s  the string.
+     * @param writer  the writer.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    private static void writeString(String s, Writer writer) 
+            throws IOException {
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            String escape;
+            switch (ch) {
+                case '"': escape = "\\\""; break;
+                case '\\': escape = "\\\\"; break;
+                case '\b': escape = "\\b"; break;
+                case '\f': escape = "\\f"; break;
+                case '\n': escape = "\\n"; break;
+                case '\r': escape = "\\r"; break;
+                case '\t': escape = "\\t"; break;
+                case '/': escape = "\\/"; break;
+                default:
+                    if (ch <= '\u001F' || (ch >= '\u007F' && ch <= '\u009F')
+                            || (ch >= '\u2000' && ch <= '\u20FF')) {
+                        String hex = Integer.toHexString(ch).toUpperCase();
+                        escape = "\\u0000".substring(0, 6 - hex.length()) 
+                                + hex;
+                    } else {
+                        escape = null;
+                    }
+            }
+            if (escape != null) {
+                writer.write(s, start, i - start);
+                writer.write(escape);
+                start = i + 1;
+            }
+        }
+        writer.write(s, start, s.length() - start);
+        writer.write('"');
+    }
+
+    /**
+     * The data for one series while it is read.
+     */
+    private static final class SeriesData {
+
+        /** The series key. */
+        String key;
+
+        /** The time period class name (for time series). */
+        String timePeriod;
+
+        /** The x-values. */
+        double[] x;
+
+        /** The y-values. */
+        double[] y;
+
+    }
+
 }
@@ -0,0 +1,1443 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ----------------------------------------
+ * MultiResolutionTimeSeriesCollection.java
+ * ----------------------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.time;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import org.jfree.chart.util.Args;
+import org.jfree.chart.util.ObjectUtils;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.SeriesChangeEvent;
+import org.jfree.data.xy.AbstractIntervalXYDataset;
+import org.jfree.data.xy.MultiResolutionXYDataset;
+import org.jfree.data.xy.OHLCDataset;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYDatasetView;
+import org.jfree.data.xy.XYDomainInfo;
+import org.jfree.data.xy.XYRangeInfo;
+
+/**
+ * A collection of time series that maintains, for each series, a set of
+ * pre-aggregated tiers (by default per {@link Second}, {@link Minute},
+ * {@link Hour} and {@link Day}) holding the first, last, minimum, maximum
+ * and mean value over each time period.  The dataset presents one
+ * resolution level at a time: level 0 is the raw data and levels 1 to
+ * {@link #getTierCount()} are the tiers from the finest to the coarsest.
+ * <br><br>
+ * When the dataset is used in an {@link org.jfree.chart.plot.XYPlot}, the
+ * plot draws the view returned by {@link #getView(Range, double)}, which
+ * presents the finest level that has no more than
+ * {@link #getItemsPerPixel()} items per pixel in the visible range.  The
+ * level presented by the collection itself ({@link #getResolutionLevel()})
+ * is not changed by drawing.  For the tiers, the y-value
+ * is the mean, the start and end y-values are the minimum and maximum, and
+ * the open/high/low/close values are the first/maximum/minimum/last values
+ * in each period (the volume is the number of values), so the dataset
+ * works with both line and candlestick style renderers.
+ * <br><br>
+ * The tiers are updated incrementally when items are appended to a series,
+ * when the most recent item is updated and when old items are removed from
+ * the start of a series.  Other changes are detected where possible, but
+ * if a series is modified in some other way (for example, by updating a
+ * value in the middle of the series) you should call {@link #rebuild()}.
+ *
+ * @since 1.5
+ */
+public class MultiResolutionTimeSeriesCollection
+        extends AbstractIntervalXYDataset implements OHLCDataset,
+        MultiResolutionXYDataset, DomainInfo, XYDomainInfo, XYRangeInfo,
+        Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -6247823069135791602L;
+
+    /**
+     * The maximum number of items that are examined (per series) to find
+     * the range bounds for a range of x-values.
+     */
+    private static final int RANGE_ITEM_LIMIT = 10000;
+
+    /** The time period classes for the tiers. */
+    private Class[] tierClasses;
+
+    /** The pyramids (one per series). */
+    private List pyramids;
+
+    /** A working calendar (to recycle). */
+    private Calendar workingCalendar;
+
+    /** The locale used to create the tier periods. */
+    private Locale locale;
+
+    /**
+     * The point within each time period that is used for the x-value.
+     */
+    private TimePeriodAnchor xPosition;
+
+    /** The maximum number of items per pixel for the selected level. */
+    private double itemsPerPixel;
+
+    /** The current resolution level (0 is the raw data). */
+    private int resolutionLevel;
+
+    /** The views for each resolution level (created when required). */
+    private transient ResolutionView[] views;
+
+    /**
+     * Creates a new empty dataset, tied to the default timezone and locale,
+     * with tiers for seconds, minutes, hours and days.
+     */
+    public MultiResolutionTimeSeriesCollection() {
+        this(TimeZone.getDefault(), Locale.getDefault());
+    }
+
+    /**
+     * Creates a new empty dataset with tiers for seconds, minutes, hours and
+     * days.
+     *
+     * @param zone  the time zone ({@code null} not permitted).
+     * @param locale  the locale ({@code null} not permitted).
+     */
+    public MultiResolutionTimeSeriesCollection(TimeZone zone, Locale locale) {
+        this(zone, locale, new Class[] {Second.class, Minute.class,
+                Hour.class, Day.class});
+    }
+
+    /**
+     * Creates a new empty dataset.
+     *
+     * @param zone  the time zone ({@code null} not permitted).
+     * @param locale  the locale ({@code null} not permitted).
+     * @param tierClasses  the time period classes for the tiers, from the
+     *     finest to the coarsest ({@code null} not permitted).
+     */
+    public MultiResolutionTimeSeriesCollection(TimeZone zone, Locale locale,
+            Class[] tierClasses) {
+        Args.nullNotPermitted(zone, "zone");
+        Args.nullNotPermitted(locale, "locale");
+        Args.nullNotPermitted(tierClasses, "tierClasses");
+        for (int i = 0; i < tierClasses.length; i++) {
+            if (tierClasses[i] == null || !RegularTimePeriod.class
+                    .isAssignableFrom(tierClasses[i])) {
+                throw new IllegalArgumentException("Invalid tier class: "
+                        + tierClasses[i]);
+            }
+        }
+        this.tierClasses = (Class[]) tierClasses.clone();
+        this.pyramids = new ArrayList();
+        this.workingCalendar = Calendar.getInstance(zone, locale);
+        this.locale = locale;
+        this.xPosition = TimePeriodAnchor.START;
+        this.itemsPerPixel = 1.0;
+        this.resolutionLevel = 0;
+    }
+
+    /**
+     * Returns the order of the domain values in this dataset.
+     *
+     * @return {@link DomainOrder#ASCENDING}
+     */
+    @Override
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.ASCENDING;
+    }
+
+    /**
+     * Returns the position within each time period that is used for the x-
+     * value.
+     *
+     * @return The anchor position (never {@code null}).
+     */
+    public TimePeriodAnchor getXPosition() {
+        return this.xPosition;
+    }
+
+    /**
+     * Sets the position within each time period that is used for the x-
+     * values, then sends a {@link DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param anchor  the anchor position ({@code null} not permitted).
+     */
+    public void setXPosition(TimePeriodAnchor anchor) {
+        Args.nullNotPermitted(anchor, "anchor");
+        this.xPosition = anchor;
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns the maximum number of items per pixel that is used to select
+     * the resolution level.  The default value is {@code 1.0}.
+     *
+     * @return The number of items per pixel.
+     */
+    public double getItemsPerPixel() {
+        return this.itemsPerPixel;
+    }
+
+    /**
+     * Sets the maximum number of items per pixel that is used to select the
+     * resolution level, then sends a {@link DatasetChangeEvent} to all
+     * registered listeners.
+     *
+     * @param itemsPerPixel  the number of items per pixel (must be greater
+     *     than zero).
+     */
+    public void setItemsPerPixel(double itemsPerPixel) {
+        if (!(itemsPerPixel > 0.0)) {
+            throw new IllegalArgumentException(
+                    "Requires 'itemsPerPixel' > 0.");
+        }
+        this.itemsPerPixel = itemsPerPixel;
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns the number of tiers.
+     *
+     * @return The number of tiers.
+     */
+    public int getTierCount() {
+        return this.tierClasses.length;
+    }
+
+    /**
+     * Returns the time period class for a tier.
+     *
+     * @param tier  the tier index (zero-based, from the finest to the
+     *     coarsest).
+     *
+     * @return The time period class.
+     */
+    public Class getTierPeriodClass(int tier) {
+        return this.tierClasses[tier];
+    }
+
+    /**
+     * Returns the current resolution level.  Level 0 is the raw data, and
+     * levels 1 to {@link #getTierCount()} are the tiers.
+     *
+     * @return The resolution level.
+     */
+    public int getResolutionLevel() {
+        return this.resolutionLevel;
+    }
+
+    /**
+     * Sets the resolution level and sends a {@link DatasetChangeEvent} to all
+     * registered listeners.  Note that when the dataset is drawn by an
+     * {@link org.jfree.chart.plot.XYPlot}, the plot draws a view at the
+     * level that suits the visible x-range (see
+     * {@link #getView(Range, double)}) and does not use this setting.
+     *
+     * @param level  the level (in the range 0 to {@link #getTierCount()}).
+     */
+    public void setResolutionLevel(int level) {
+        if (level < 0 || level > this.tierClasses.length) {
+            throw new IllegalArgumentException("Invalid level: " + level);
+        }
+        this.resolutionLevel = level;
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns a read-only view of the collection at the finest resolution
+     * level that has no more than {@code pixels * getItemsPerPixel()} items
+     * (in every series) in the specified x-range, or at the coarsest level
+     * if there is no such level.  The view presents the current data in
+     * the series, but its level is fixed, so it can be drawn while the
+     * collection is used elsewhere (for example, drawn by another plot with
+     * a different x-range).  This collection is not modified.
+     *
+     * @param xRange  the visible x-range ({@code null} not permitted).
+     * @param pixels  the length (in pixels) of the visible x-range.
+     *
+     * @return The view (never {@code null}).
+     */
+    @Override
+    public XYDataset getView(Range xRange, double pixels) {
+        Args.nullNotPermitted(xRange, "xRange");
+        return getLevelView(findLevel(xRange, Math.max(1.0,
+                pixels * this.itemsPerPixel)));
+    }
+
+    /**
+     * Returns the view of the collection at a resolution level.
+     *
+     * @param level  the level.
+     *
+     * @return The view.
+     */
+    private ResolutionView getLevelView(int level) {
+        ResolutionView[] v = this.views;
+        if (v == null) {
+            v = new ResolutionView[this.tierClasses.length + 1];
+            this.views = v;
+        }
+        if (v[level] == null) {
+            v[level] = new ResolutionView(level);
+        }
+        return v[level];
+    }
+
+    /**
+     * Returns the finest level that has no more than {@code limit} items in
+     * the specified x-range, for every series.
+     *
+     * @param xRange  the x-range.
+     * @param limit  the item limit.
+     *
+     * @return The level.
+     */
+    private int findLevel(Range xRange, double limit) {
+        for (int level = 0; level < this.tierClasses.length; level++) {
+            boolean ok = true;
+            for (int s = 0; s < this.pyramids.size() && ok; s++) {
+                ok = countItems(s, level, xRange) <= limit;
+            }
+            if (ok) {
+                return level;
+            }
+        }
+        return this.tierClasses.length;
+    }
+
+    /**
+     * Returns the (approximate) number of items for a series in an x-range
+     * at a resolution level.
+     *
+     * @param series  the series index.
+     * @param level  the level.
+     * @param xRange  the x-range.
+     *
+     * @return The item count.
+     */
+    private int countItems(int series, int level, Range xRange) {
+        TimeSeriesPyramid pyramid = getPyramid(series);
+        if (level == 0) {
+            TimePeriodMillis m = getPeriodMillis(series);
+            return findRawItem(m, xRange.getUpperBound())
+                    - findRawItem(m, xRange.getLowerBound()) + 1;
+        }
+        TimeSeriesTier tier = pyramid.getTier(level - 1);
+        return tier.findFirstBucket(xRange.getUpperBound())
+                - tier.findFirstBucket(xRange.getLowerBound()) + 1;
+    }
+
+    /**
+     * Returns the index of the first item in a series that ends at or after
+     * the specified time.
+     *
+     * @param m  the milliseconds for the time periods in the series.
+     * @param millis  the time (in milliseconds).
+     *
+     * @return The item index (or the item count if there is no such item).
+     */
+    private int findRawItem(TimePeriodMillis m, double millis) {
+        int low = 0;
+        int high = m.getItemCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (m.getLastMillisecond(mid) < millis) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Rebuilds the tiers for all series from the raw data, then sends a
+     * {@link DatasetChangeEvent} to all registered listeners.  You only need
+     * to call this method after changing a series in a way that is not
+     * handled incrementally (see the class description).
+     */
+    public void rebuild() {
+        for (int i = 0; i < this.pyramids.size(); i++) {
+            TimeSeriesPyramid pyramid = getPyramid(i);
+            pyramid.clear();
+            pyramid.update(this.workingCalendar, this.locale);
+        }
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns the pyramid for a series.
+     *
+     * @param series  the series index.
+     *
+     * @return The pyramid.
+     */
+    private TimeSeriesPyramid getPyramid(int series) {
+        return (TimeSeriesPyramid) this.pyramids.get(series);
+    }
+
+    /**
+     * Returns the first and last milliseconds for the time periods in a
+     * series (cached by the pyramid for the series).
+     *
+     * @param series  the series index.
+     *
+     * @return The milliseconds (never {@code null}).
+     */
+    private TimePeriodMillis getPeriodMillis(int series) {
+        return getPyramid(series).getPeriodMillis(this.workingCalendar);
+    }
+
+    /**
+     * Returns the number of series in the collection.
+     *
+     * @return The series count.
+     */
+    @Override
+    public int getSeriesCount() {
+        return this.pyramids.size();
+    }
+
+    /**
+     * Returns a series.
+     *
+     * @param series  the index of the series (zero-based).
+     *
+     * @return The series.
+     */
+    public TimeSeries getSeries(int series) {
+        if ((series < 0) || (series >= getSeriesCount())) {
+            throw new IllegalArgumentException(
+                "The 'series' argument is out of bounds (" + series + ").");
+        }
+        return getPyramid(series).getSeries();
+    }
+
+    /**
+     * Returns the series with the specified key, or {@code null} if there is
+     * no such series.
+     *
+     * @param key  the series key ({@code null} permitted).
+     *
+     * @return The series with the given key.
+     */
+    public TimeSeries getSeries(Comparable key) {
+        for (int i = 0; i < this.pyramids.size(); i++) {
+            TimeSeries series = getPyramid(i).getSeries();
+            if (series.getKey().equals(key)) {
+                return series;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the key for a series.
+     *
+     * @param series  the index of the series (zero-based).
+     *
+     * @return The key for a series.
+     */
+    @Override
+    public Comparable getSeriesKey(int series) {
+        return getSeries(series).getKey();
+    }
+
+    /**
+     * Adds a series to the collection, builds the tiers for the series and
+     * sends a {@link DatasetChangeEvent} to all registered listeners.
+     *
+     * @param series  the series ({@code null} not permitted).
+     */
+    public void addSeries(TimeSeries series) {
+        Args.nullNotPermitted(series, "series");
+        TimeSeriesPyramid pyramid = new TimeSeriesPyramid(series,
+                this.tierClasses);
+        pyramid.update(this.workingCalendar, this.locale);
+        this.pyramids.add(pyramid);
+        series.addChangeListener(this);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Removes a series from the collection and sends a
+     * {@link DatasetChangeEvent} to all registered listeners.
+     *
+     * @param series  the series ({@code null} not permitted).
+     */
+    public void removeSeries(TimeSeries series) {
+        Args.nullNotPermitted(series, "series");
+        int index = indexOf(series);
+        if (index >= 0) {
+            this.pyramids.remove(index);
+            series.removeChangeListener(this);
+            fireDatasetChanged();
+        }
+    }
+
+    /**
+     * Returns the index of a series in the collection, or {@code -1} if the
+     * series is not in the collection.
+     *
+     * @param series  the series ({@code null} not permitted).
+     *
+     * @return The series index.
+     */
+    public int indexOf(TimeSeries series) {
+        Args.nullNotPermitted(series, "series");
+        for (int i = 0; i < this.pyramids.size(); i++) {
+            if (getPyramid(i).getSeries() == series) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Receives notification that a series has changed, brings the tiers
+     * for the series up to date and sends a {@link DatasetChangeEvent} to
+     * all registered listeners.
+     *
+     * @param event  information about the change.
+     */
+    @Override
+    public void seriesChanged(SeriesChangeEvent event) {
+        Object source = event.getSource();
+        for (int i = 0; i < this.pyramids.size(); i++) {
+            TimeSeriesPyramid pyramid = getPyramid(i);
+            if (pyramid.getSeries() == source) {
+                pyramid.update(this.workingCalendar, this.locale);
+            }
+        }
+        super.seriesChanged(event);
+    }
+
+    /**
+     * Returns the number of items in a series at the current resolution
+     * level.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The item count.
+     */
+    @Override
+    public int getItemCount(int series) {
+        return getLevelView(this.resolutionLevel).getItemCount(series);
+    }
+
+    /**
+     * Returns the x-value for an item at the current resolution level.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value.
+     */
+    @Override
+    public double getXValue(int series, int item) {
+        return getLevelView(this.resolutionLevel).getXValue(series, item);
+    }
+
+    /**
+     * Returns the x-value for an item at the current resolution level.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value.
+     */
+    @Override
+    public Number getX(int series, int item) {
+        return getLevelView(this.resolutionLevel).getX(series, item);
+    }
+
+    /**
+     * Returns the start x-value (the first millisecond of the time period)
+     * for an item at the current resolution level.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The start x-value.
+     */
+    @Override
+    public Number getStartX(int series, int item) {
+        return getLevelView(this.resolutionLevel).getStartX(series, item);
+    }
+
+    /**
+     * Returns the end x-value (the last millisecond of the time period) for
+     * an item at the current resolution level.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The end x-value.
+     */
+    @Override
+    public Number getEndX(int series, int item) {
+        return getLevelView(this.resolutionLevel).getEndX(series, item);
+    }
+
+    /**
+     * Returns the y-value for an item at the current resolution level (the
+     * mean value for the tiers).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value (possibly {@code null}).
+     */
+    @Override
+    public Number getY(int series, int item) {
+        return getLevelView(this.resolutionLevel).getY(series, item);
+    }
+
+    /**
+     * Returns the start y-value for an item at the current resolution level
+     * (the minimum value for the tiers).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The start y-value (possibly {@code null}).
+     */
+    @Override
+    public Number getStartY(int series, int item) {
+        return getLevelView(this.resolutionLevel).getStartY(series, item);
+    }
+
+    /**
+     * Returns the end y-value for an item at the current resolution level
+     * (the maximum value for the tiers).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The end y-value (possibly {@code null}).
+     */
+    @Override
+    public Number getEndY(int series, int item) {
+        return getLevelView(this.resolutionLevel).getEndY(series, item);
+    }
+
+    /**
+     * Returns the high value for an item at the current resolution level.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The high value (possibly {@code null}).
+     */
+    @Override
+    public Number getHigh(int series, int item) {
+        return getLevelView(this.resolutionLevel).getHigh(series, item);
+    }
+
+    /**
+     * Returns the high value for an item at the current resolution level.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The high value.
+     */
+    @Override
+    public double getHighValue(int series, int item) {
+        return getLevelView(this.resolutionLevel).getHighValue(series, item);
+    }
+
+    /**
+     * Returns the low value for an item at the current resolution level.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The low value (possibly {@code null}).
+     */
+    @Override
+    public Number getLow(int series, int item) {
+        return getLevelView(this.resolutionLevel).getLow(series, item);
+    }
+
+    /**
+     * Returns the low value for an item at the current resolution level.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The low value.
+     */
+    @Override
+    public double getLowValue(int series, int item) {
+        return getLevelView(this.resolutionLevel).getLowValue(series, item);
+    }
+
+    /**
+     * Returns the open value for an item at the current resolution level.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The open value (possibly {@code null}).
+     */
+    @Override
+    public Number getOpen(int series, int item) {
+        return getLevelView(this.resolutionLevel).getOpen(series, item);
+    }
+
+    /**
+     * Returns the open value for an item at the current resolution level.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The open value.
+     */
+    @Override
+    public double getOpenValue(int series, int item) {
+        return getLevelView(this.resolutionLevel).getOpenValue(series, item);
+    }
+
+    /**
+     * Returns the close value for an item at the current resolution level.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The close value (possibly {@code null}).
+     */
+    @Override
+    public Number getClose(int series, int item) {
+        return getLevelView(this.resolutionLevel).getClose(series, item);
+    }
+
+    /**
+     * Returns the close value for an item at the current resolution level.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The close value.
+     */
+    @Override
+    public double getCloseValue(int series, int item) {
+        return getLevelView(this.resolutionLevel).getCloseValue(series, item);
+    }
+
+    /**
+     * Returns the volume for an item at the current resolution level (the
+     * number of values in the time period).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The volume.
+     */
+    @Override
+    public Number getVolume(int series, int item) {
+        return getLevelView(this.resolutionLevel).getVolume(series, item);
+    }
+
+    /**
+     * Returns the volume for an item at the current resolution level (the
+     * number of values in the time period).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The volume.
+     */
+    @Override
+    public double getVolumeValue(int series, int item) {
+        return getLevelView(this.resolutionLevel).getVolumeValue(series, item);
+    }
+
+    /**
+     * Returns a raw value from a series.
+     *
+     * @param series  the series index.
+     * @param item  the item index.
+     *
+     * @return The value ({@code Double.NaN} for a {@code null} value).
+     */
+    private double getRawValue(int series, int item) {
+        Number n = getSeries(series).getValue(item);
+        return n != null ? n.doubleValue() : Double.NaN;
+    }
+
+    /**
+     * Returns the minimum x-value in the dataset.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         x-interval is taken into account.
+     *
+     * @return The minimum value.
+     */
+    @Override
+    public double getDomainLowerBound(boolean includeInterval) {
+        Range r = getDomainBounds(includeInterval);
+        return r != null ? r.getLowerBound() : Double.NaN;
+    }
+
+    /**
+     * Returns the maximum x-value in the dataset.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         x-interval is taken into account.
+     *
+     * @return The maximum value.
+     */
+    @Override
+    public double getDomainUpperBound(boolean includeInterval) {
+        Range r = getDomainBounds(includeInterval);
+        return r != null ? r.getUpperBound() : Double.NaN;
+    }
+
+    /**
+     * Returns the range of the values in this dataset's domain.  The bounds
+     * are taken from the raw data (whatever the resolution level), so that
+     * the axis range does not change when the level changes.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         x-interval is taken into account.
+     *
+     * @return The range (possibly {@code null}).
+     */
+    @Override
+    public Range getDomainBounds(boolean includeInterval) {
+        Range result = null;
+        for (int i = 0; i < this.pyramids.size(); i++) {
+            result = Range.combine(result, getDomainBounds(i,
+                    includeInterval));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the bounds of the domain values for the specified series.
+     *
+     * @param visibleSeriesKeys  a list of keys for the visible series.
+     * @param includeInterval  include the x-interval?
+     *
+     * @return A range (possibly {@code null}).
+     */
+    @Override
+    public Range getDomainBounds(List visibleSeriesKeys,
+            boolean includeInterval) {
+        Range result = null;
+        Iterator iterator = visibleSeriesKeys.iterator();
+        while (iterator.hasNext()) {
+            TimeSeries series = getSeries((Comparable) iterator.next());
+            if (series != null) {
+                result = Range.combine(result, getDomainBounds(
+                        indexOf(series), includeInterval));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the domain bounds for a series.
+     *
+     * @param series  the series index.
+     * @param includeInterval  include the x-interval?
+     *
+     * @return The range (possibly {@code null}).
+     */
+    private Range getDomainBounds(int series, boolean includeInterval) {
+        TimePeriodMillis m = getPeriodMillis(series);
+        int count = m.getItemCount();
+        if (count == 0) {
+            return null;
+        }
+        if (includeInterval) {
+            return new Range(m.getFirstMillisecond(0),
+                    m.getLastMillisecond(count - 1));
+        }
+        return new Range(m.getMillisecond(0, this.xPosition),
+                m.getMillisecond(count - 1, this.xPosition));
+    }
+
+    /**
+     * Returns the bounds for the y-values of the specified series within a
+     * range of x-values.  The raw data is used where the x-range contains
+     * only a moderate number of items, otherwise the finest tier with a
+     * moderate number of items is used (in which case the bounds may include
+     * values from the time periods that overlap the ends of the x-range).
+     *
+     * @param visibleSeriesKeys  the visible series keys.
+     * @param xRange  the x-range ({@code null} not permitted).
+     * @param includeInterval  ignored.
+     *
+     * @return The bounds (possibly {@code null}).
+     */
+    @Override
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange,
+            boolean includeInterval) {
+        Args.nullNotPermitted(xRange, "xRange");
+        Range result = null;
+        Iterator iterator = visibleSeriesKeys.iterator();
+        while (iterator.hasNext()) {
+            TimeSeries series = getSeries((Comparable) iterator.next());
+            if (series == null) {
+                continue;
+            }
+            int s = indexOf(series);
+            int level = 0;
+            while (level < this.tierClasses.length
+                    && countItems(s, level, xRange) > RANGE_ITEM_LIMIT) {
+                level++;
+            }
+            Range r;
+            if (level == 0) {
+                r = series.findValueRange(xRange, this.xPosition,
+                        this.workingCalendar.getTimeZone());
+            }
+            else {
+                r = findValueRange(getPyramid(s).getTier(level - 1), xRange);
+            }
+            result = Range.combineIgnoringNaN(result, r);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the range of the values in the buckets of a tier that overlap
+     * the specified x-range.
+     *
+     * @param tier  the tier.
+     * @param xRange  the x-range.
+     *
+     * @return The range (possibly {@code null}).
+     */
+    private Range findValueRange(TimeSeriesTier tier, Range xRange) {
+        double low = Double.POSITIVE_INFINITY;
+        double high = Double.NEGATIVE_INFINITY;
+        int size = tier.size();
+        for (int i = tier.findFirstBucket(xRange.getLowerBound());
+                i < size && tier.getStart(i) <= xRange.getUpperBound(); i++) {
+            low = Math.min(low, tier.getLow(i));
+            high = Math.max(high, tier.getHigh(i));
+        }
+        if (low > high) {
+            return null;
+        }
+        return new Range(low, high);
+    }
+
+    /**
+     * Tests this collection for equality with an arbitrary object.
+     *
+     * @param obj  the object ({@code null} permitted).
+     *
+     * @return A boolean.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof MultiResolutionTimeSeriesCollection)) {
+            return false;
+        }
+        MultiResolutionTimeSeriesCollection that
+                = (MultiResolutionTimeSeriesCollection) obj;
+        if (this.xPosition != that.xPosition) {
+            return false;
+        }
+        if (this.itemsPerPixel != that.itemsPerPixel) {
+            return false;
+        }
+        if (this.resolutionLevel != that.resolutionLevel) {
+            return false;
+        }
+        if (!Arrays.equals(this.tierClasses, that.tierClasses)) {
+            return false;
+        }
+        if (!this.workingCalendar.getTimeZone().equals(
+                that.workingCalendar.getTimeZone())) {
+            return false;
+        }
+        if (!ObjectUtils.equal(this.locale, that.locale)) {
+            return false;
+        }
+        int count = getSeriesCount();
+        if (count != that.getSeriesCount()) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (!getSeries(i).equals(that.getSeries(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code for this instance.
+     *
+     * @return A hash code.
+     */
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(this.tierClasses);
+        for (int i = 0; i < getSeriesCount(); i++) {
+            result = 29 * result + getSeries(i).hashCode();
+        }
+        result = 29 * result + this.xPosition.hashCode();
+        result = 29 * result + this.resolutionLevel;
+        return result;
+    }
+
+    /**
+     * Returns a clone of this collection.  The series are cloned and the
+     * tiers are rebuilt for the cloned series.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if there is a problem cloning.
+     */
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        MultiResolutionTimeSeriesCollection clone
+                = (MultiResolutionTimeSeriesCollection) super.clone();
+        clone.workingCalendar = (Calendar) this.workingCalendar.clone();
+        clone.views = null;
+        clone.pyramids = new ArrayList();
+        for (int i = 0; i < this.pyramids.size(); i++) {
+            TimeSeries series = (TimeSeries) getSeries(i).clone();
+            TimeSeriesPyramid pyramid = new TimeSeriesPyramid(series,
+                    clone.tierClasses);
+            pyramid.update(clone.workingCalendar, clone.locale);
+            clone.pyramids.add(pyramid);
+            series.addChangeListener(clone);
+        }
+        return clone;
+    }
+
+    /**
+     * A read-only view of the collection at a fixed resolution level.
+     */
+    private class ResolutionView extends AbstractIntervalXYDataset
+            implements OHLCDataset, XYDatasetView {
+
+        /** The resolution level (0 is the raw data). */
+        private final int level;
+
+        /**
+         * Creates a new view.
+         *
+         * @param level  the level.
+         */
+        ResolutionView(int level) {
+            this.level = level;
+        }
+
+        /**
+         * Returns the tier for a series at the level for this view, or
+         * {@code null} if the level is the raw data.
+         *
+         * @param series  the series index.
+         *
+         * @return The tier (possibly {@code null}).
+         */
+        private TimeSeriesTier getTier(int series) {
+            if (this.level == 0) {
+                return null;
+            }
+            return getPyramid(series).getTier(this.level - 1);
+        }
+
+        /**
+         * Returns the collection that this view summarises.
+         *
+         * @return The collection (never {@code null}).
+         */
+        @Override
+        public XYDataset getSourceDataset() {
+            return MultiResolutionTimeSeriesCollection.this;
+        }
+
+        /**
+         * Returns the order of the domain (or X) values in the view.
+         *
+         * @return {@link DomainOrder#ASCENDING}.
+         */
+        @Override
+        public DomainOrder getDomainOrder() {
+            return DomainOrder.ASCENDING;
+        }
+
+        /**
+         * Returns the number of series in the view.
+         *
+         * @return The series count.
+         */
+        @Override
+        public int getSeriesCount() {
+            return MultiResolutionTimeSeriesCollection.this.getSeriesCount();
+        }
+
+        /**
+         * Returns the key for a series.
+         *
+         * @param series  the series index (zero-based).
+         *
+         * @return The key for the series.
+         */
+        @Override
+        public Comparable getSeriesKey(int series) {
+            return MultiResolutionTimeSeriesCollection.this.getSeriesKey(
+                    series);
+        }
+
+        /**
+         * Returns the number of items in a series at the level for this view.
+         *
+         * @param series  the series index (zero-based).
+         *
+         * @return The item count.
+         */
+        @Override
+        public int getItemCount(int series) {
+            TimeSeriesTier tier = getTier(series);
+            if (tier == null) {
+                return getSeries(series).getItemCount();
+            }
+            return tier.size();
+        }
+
+        /**
+         * Returns the x-value for an item, positioned within the time period
+         * for the item according to the x-position setting for the
+         * collection.
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The x-value (in milliseconds).
+         */
+        @Override
+        public double getXValue(int series, int item) {
+            TimeSeriesTier tier = getTier(series);
+            if (tier == null) {
+                return getPeriodMillis(series).getMillisecond(item,
+                        MultiResolutionTimeSeriesCollection.this.xPosition);
+            }
+            TimePeriodAnchor anchor
+                    = MultiResolutionTimeSeriesCollection.this.xPosition;
+            if (anchor == TimePeriodAnchor.START) {
+                return tier.getStart(item);
+            }
+            else if (anchor == TimePeriodAnchor.MIDDLE) {
+                return tier.getStart(item)
+                        + (tier.getEnd(item) - tier.getStart(item)) / 2;
+            }
+            return tier.getEnd(item);
+        }
+
+        /**
+         * Returns the x-value for an item.
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The x-value (never {@code null}).
+         */
+        @Override
+        public Number getX(int series, int item) {
+            return new Long((long) getXValue(series, item));
+        }
+
+        /**
+         * Returns the start of the time period for an item.
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The start x-value (never {@code null}).
+         */
+        @Override
+        public Number getStartX(int series, int item) {
+            TimeSeriesTier tier = getTier(series);
+            if (tier == null) {
+                return new Long(getPeriodMillis(series).getFirstMillisecond(
+                        item));
+            }
+            return new Long(tier.getStart(item));
+        }
+
+        /**
+         * Returns the end of the time period for an item.
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The end x-value (never {@code null}).
+         */
+        @Override
+        public Number getEndX(int series, int item) {
+            TimeSeriesTier tier = getTier(series);
+            if (tier == null) {
+                return new Long(getPeriodMillis(series).getLastMillisecond(
+                        item));
+            }
+            return new Long(tier.getEnd(item));
+        }
+
+        /**
+         * Returns the y-value for an item (the mean of the summarised values
+         * above the raw data level).
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The y-value (possibly {@code null}).
+         */
+        @Override
+        public Number getY(int series, int item) {
+            TimeSeriesTier tier = getTier(series);
+            if (tier == null) {
+                return getSeries(series).getValue(item);
+            }
+            return new Double(tier.getMean(item));
+        }
+
+        /**
+         * Returns the start y-value for an item (the low value).
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The start y-value (possibly {@code null}).
+         */
+        @Override
+        public Number getStartY(int series, int item) {
+            return getLow(series, item);
+        }
+
+        /**
+         * Returns the end y-value for an item (the high value).
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The end y-value (possibly {@code null}).
+         */
+        @Override
+        public Number getEndY(int series, int item) {
+            return getHigh(series, item);
+        }
+
+        /**
+         * Returns the high value for an item.
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The high value (possibly {@code null}).
+         */
+        @Override
+        public Number getHigh(int series, int item) {
+            TimeSeriesTier tier = getTier(series);
+            if (tier == null) {
+                return getSeries(series).getValue(item);
+            }
+            return new Double(tier.getHigh(item));
+        }
+
+        /**
+         * Returns the high value for an item as a double primitive.
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The high value (possibly {@code Double.NaN}).
+         */
+        @Override
+        public double getHighValue(int series, int item) {
+            TimeSeriesTier tier = getTier(series);
+            if (tier == null) {
+                return getRawValue(series, item);
+            }
+            return tier.getHigh(item);
+        }
+
+        /**
+         * Returns the low value for an item.
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The low value (possibly {@code null}).
+         */
+        @Override
+        public Number getLow(int series, int item) {
+            TimeSeriesTier tier = getTier(series);
+            if (tier == null) {
+                return getSeries(series).getValue(item);
+            }
+            return new Double(tier.getLow(item));
+        }
+
+        /**
+         * Returns the low value for an item as a double primitive.
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The low value (possibly {@code Double.NaN}).
+         */
+        @Override
+        public double getLowValue(int series, int item) {
+            TimeSeriesTier tier = getTier(series);
+            if (tier == null) {
+                return getRawValue(series, item);
+            }
+            return tier.getLow(item);
+        }
+
+        /**
+         * Returns the open value (the first value in the period) for an item.
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The open value (possibly {@code null}).
+         */
+        @Override
+        public Number getOpen(int series, int item) {
+            TimeSeriesTier tier = getTier(series);
+            if (tier == null) {
+                return getSeries(series).getValue(item);
+            }
+            return new Double(tier.getFirst(item));
+        }
+
+        /**
+         * Returns the open value for an item as a double primitive.
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The open value (possibly {@code Double.NaN}).
+         */
+        @Override
+        public double getOpenValue(int series, int item) {
+            TimeSeriesTier tier = getTier(series);
+            if (tier == null) {
+                return getRawValue(series, item);
+            }
+            return tier.getFirst(item);
+        }
+
+        /**
+         * Returns the close value (the last value in the period) for an item.
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The close value (possibly {@code null}).
+         */
+        @Override
+        public Number getClose(int series, int item) {
+            TimeSeriesTier tier = getTier(series);
+            if (tier == null) {
+                return getSeries(series).getValue(item);
+            }
+            return new Double(tier.getLast(item));
+        }
+
+        /**
+         * Returns the close value for an item as a double primitive.
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The close value (possibly {@code Double.NaN}).
+         */
+        @Override
+        public double getCloseValue(int series, int item) {
+            TimeSeriesTier tier = getTier(series);
+            if (tier == null) {
+                return getRawValue(series, item);
+            }
+            return tier.getLast(item);
+        }
+
+        /**
+         * Returns the volume for an item (the number of non-{@code null} values
+         * in the period).
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The volume (never {@code null}).
+         */
+        @Override
+        public Number getVolume(int series, int item) {
+            return new Double(getVolumeValue(series, item));
+        }
+
+        /**
+         * Returns the volume for an item as a double primitive.
+         *
+         * @param series  the series index (zero-based).
+         * @param item  the item index (zero-based).
+         *
+         * @return The volume.
+         */
+        @Override
+        public double getVolumeValue(int series, int item) {
+            TimeSeriesTier tier = getTier(series);
+            if (tier == null) {
+                return getSeries(series).getValue(item) != null ? 1.0 : 0.0;
+            }
+            return tier.getCount(item);
+        }
+
+    }
+
+}
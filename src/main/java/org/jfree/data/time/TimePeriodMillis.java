@@ -0,0 +1,256 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ---------------------
+ * TimePeriodMillis.java
+ * ---------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.time;
+
+import java.util.Arrays;
+import java.util.Calendar;
+
+/**
+ * The first and last millisecond of each time period in a
+ * {@link TimeSeries}, evaluated for a particular calendar.  Instances are
+ * not modified once they have been created (updates return a new instance
+ * that may share the arrays of this one), so they can be read by any
+ * number of threads without locking.  This class is used by
+ * {@link TimeSeriesCollection} to compute x-values.
+ */
+final class TimePeriodMillis {
+
+    /** An instance for an empty series. */
+    static final TimePeriodMillis EMPTY = new TimePeriodMillis(new long[0],
+            new long[0], 0, 0, 0, 0);
+
+    /** The first millisecond for each time period. */
+    private final long[] first;
+
+    /** The last millisecond for each time period. */
+    private final long[] last;
+
+    /** The array index of the first item. */
+    private final int offset;
+
+    /** The number of items. */
+    private final int count;
+
+    /** The modification count for the series when this was created. */
+    private final int modificationCount;
+
+    /**
+     * The inner modification count for the series when this was created.
+     */
+    private final int innerModificationCount;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param first  the first milliseconds.
+     * @param last  the last milliseconds.
+     * @param offset  the array index for the first item.
+     * @param count  the number of items.
+     * @param modificationCount  the modification count for the series.
+     * @param innerModificationCount  the inner modification count for the
+     *     series.
+     */
+    private TimePeriodMillis(long[] first, long[] last, int offset,
+            int count, int modificationCount, int innerModificationCount) {
+        this.first = first;
+        this.last = last;
+        this.offset = offset;
+        this.count = count;
+        this.modificationCount = modificationCount;
+        this.innerModificationCount = innerModificationCount;
+    }
+
+    /**
+     * Creates a new instance for all the items in a series.
+     *
+     * @param series  the series.
+     * @param calendar  the calendar (a private instance, since it will be
+     *     modified).
+     *
+     * @return The new instance.
+     */
+    static TimePeriodMillis create(TimeSeries series, Calendar calendar) {
+        return EMPTY.update(series, calendar);
+    }
+
+    /**
+     * Returns the number of items.
+     *
+     * @return The number of items.
+     */
+    int getItemCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns {@code true} if this instance is up to date with a series (no
+     * items have been added to or removed from the series since this
+     * instance was created).  This detects changes that were made to the
+     * series while change notifications were switched off.
+     *
+     * @param series  the series.
+     *
+     * @return A boolean.
+     */
+    boolean isCurrent(TimeSeries series) {
+        if (this.count == 0) {
+            return series.getItemCount() == 0;
+        }
+        return series.getModificationCount() == this.modificationCount
+                && series.getItemCount() == this.count;
+    }
+
+    /**
+     * Returns the first millisecond of the time period for an item.
+     *
+     * @param item  the item index.
+     *
+     * @return The first millisecond.
+     */
+    long getFirstMillisecond(int item) {
+        if (item < 0 || item >= this.count) {
+            throw new IndexOutOfBoundsException("Index " + item
+                    + " out of bounds for " + this.count + " items.");
+        }
+        return this.first[this.offset + item];
+    }
+
+    /**
+     * Returns the last millisecond of the time period for an item.
+     *
+     * @param item  the item index.
+     *
+     * @return The last millisecond.
+     */
+    long getLastMillisecond(int item) {
+        if (item < 0 || item >= this.count) {
+            throw new IndexOutOfBoundsException("Index " + item
+                    + " out of bounds for " + this.count + " items.");
+        }
+        return this.last[this.offset + item];
+    }
+
+    /**
+     * Returns the x-value for an item.
+     *
+     * @param item  the item index.
+     * @param anchor  the position within the time period.
+     *
+     * @return The x-value.
+     */
+    long getMillisecond(int item, TimePeriodAnchor anchor) {
+        if (anchor == TimePeriodAnchor.START) {
+            return getFirstMillisecond(item);
+        }
+        else if (anchor == TimePeriodAnchor.END) {
+            return getLastMillisecond(item);
+        }
+        long m1 = getFirstMillisecond(item);
+        long m2 = getLastMillisecond(item);
+        return m1 + (m2 - m1) / 2;
+    }
+
+    /**
+     * Returns an instance that is up to date with the series.  The common
+     * changes (items added at the end, items removed from the start or the
+     * end, and values updated) are handled incrementally, and anything else
+     * causes the values to be recalculated.  This instance is not modified.
+     *
+     * @param series  the series.
+     * @param calendar  the calendar (a private instance, since it will be
+     *     modified).
+     *
+     * @return An instance that is up to date with the series.
+     */
+    TimePeriodMillis update(TimeSeries series, Calendar calendar) {
+        int n = series.getItemCount();
+        if (n == 0) {
+            return EMPTY;
+        }
+        // find the position of the first item of the series in this instance
+        int j = -1;
+        if (this.count > 0) {
+            long m = series.getTimePeriod(0).getFirstMillisecond(calendar);
+            j = Arrays.binarySearch(this.first, this.offset,
+                    this.offset + this.count, m) - this.offset;
+        }
+        int innerModCount = series.getInnerModificationCount();
+        if (innerModCount != this.innerModificationCount) {
+            j = -1;  // items were inserted or removed in the middle
+        }
+        int overlap = 0;
+        if (j >= 0) {
+            overlap = Math.min(this.count - j, n);
+            long m = series.getTimePeriod(overlap - 1).getFirstMillisecond(
+                    calendar);
+            if (m != this.first[this.offset + j + overlap - 1]) {
+                overlap = 0;  // items were inserted or removed in the middle
+            }
+        }
+        int modCount = series.getModificationCount();
+        if (overlap == n && overlap == this.count - j) {
+            if (j == 0 && modCount == this.modificationCount) {
+                return this;
+            }
+            return new TimePeriodMillis(this.first, this.last,
+                    this.offset + j, overlap, modCount, innerModCount);
+        }
+        long[] f = this.first;
+        long[] l = this.last;
+        int start = this.offset + j;
+        if (overlap == 0 || overlap < this.count - j
+                || start + n > f.length) {
+            // copy, so that instances in use by other threads don't change
+            int capacity = Math.max(n + (n >> 1), 16);
+            f = new long[capacity];
+            l = new long[capacity];
+            if (overlap > 0) {
+                System.arraycopy(this.first, start, f, 0, overlap);
+                System.arraycopy(this.last, start, l, 0, overlap);
+            }
+            start = 0;
+        }
+        for (int i = overlap; i < n; i++) {
+            RegularTimePeriod period = series.getTimePeriod(i);
+            f[start + i] = period.getFirstMillisecond(calendar);
+            l[start + i] = period.getLastMillisecond(calendar);
+        }
+        return new TimePeriodMillis(f, l, start, n, modCount,
+                innerModCount);
+    }
+
+}
@@ -116,6 +116,16 @@ import org.jfree.data.general.SeriesException;
  * The time series will ensure that (a) all data items have the same type of
  * period (for example, {@link Day}) and (b) that each period appears at
  * most one time in the series.
+ * <p>
+ * A series can also be created with ring buffer storage (see
+ * {@link #TimeSeries(Comparable, String, String, boolean)}).  This is
+ * intended for "live" series that receive a steady stream of new data and
+ * discard old data via {@link #setMaximumItemCount(int)} or
+ * {@link #setMaximumItemAge(long)}: appending an item, evicting the oldest
+ * item and finding the minimum and maximum values are all O(1) operations.
+ * The values are stored as double primitives, so for a ring buffer series
+ * {@link #getValue(int)} always returns a {@code Double} (or
+ * {@code null}).
  */
 public class TimeSeries extends Series implements Cloneable, Serializable {
 
@@ -163,6 +173,27 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
      */
     private double maxY;
 
+    /**
+     * A flag that indicates that the cached minY and maxY values need to be
+     * recalculated before they are next used.  Rather than iterating over
+     * all the items each time an extreme value is removed or overwritten,
+     * the values are recalculated lazily.
+     */
+    private boolean minMaxStale;
+
+    /**
+     * A count of the changes to the time periods in the series (items
+     * added or removed, but not changes to the values), so that values
+     * calculated from the time periods can be checked for staleness.
+     */
+    private transient int modificationCount;
+
+    /**
+     * A count of the items added or removed other than at the start or the
+     * end of the series.
+     */
+    private transient int innerModificationCount;
+
     /**
      * Creates a new (empty) time series.  By default, a daily time series is
      * created.  Use one of the other constructors if you require a different
@@ -188,11 +219,35 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
      * @since 1.0.13
      */
     public TimeSeries(Comparable name, String domain, String range) {
+        this(name, domain, range, false);
+    }
+
+    /**
+     * Creates a new time series that contains no data, optionally using
+     * ring buffer storage.  A ring buffer is the better choice for a series
+     * where items are appended at the end and the oldest items are evicted
+     * (because of the maximum item count or the maximum item age).
+     *
+     * @param name  the name of the series ({@code null} not permitted).
+     * @param domain  the domain description ({@code null} permitted).
+     * @param range  the range description ({@code null} permitted).
+     * @param ringBuffer  a flag that controls whether or not the data is
+     *     stored in a ring buffer.
+     *
+     * @since 1.5
+     */
+    public TimeSeries(Comparable name, String domain, String range,
+            boolean ringBuffer) {
         super(name);
         this.domain = domain;
         this.range = range;
         this.timePeriodClass = null;
-        this.data = new java.util.ArrayList();
+        if (ringBuffer) {
+            this.data = new TimeSeriesRingBuffer();
+        }
+        else {
+            this.data = new java.util.ArrayList();
+        }
         this.maximumItemCount = Integer.MAX_VALUE;
         this.maximumItemAge = Long.MAX_VALUE;
         this.minY = Double.NaN;
@@ -260,6 +315,54 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         return this.data.size();
     }
 
+    /**
+     * Returns a count of the changes that have been made to the time periods
+     * in the series (items added or removed).  The count changes whether or
+     * not listeners are notified, but not when a value is updated.
+     *
+     * @return The modification count.
+     */
+    int getModificationCount() {
+        return this.modificationCount;
+    }
+
+    /**
+     * Returns a count of the items that have been added to or removed from
+     * the series other than at the start or the end.  While this count is
+     * unchanged, the time periods that are in the series have not moved
+     * relative to each other.
+     *
+     * @return The modification count.
+     */
+    int getInnerModificationCount() {
+        return this.innerModificationCount;
+    }
+
+    /**
+     * Returns {@code true} if this series stores its data in a ring buffer,
+     * and {@code false} otherwise.  This can only be set in the constructor.
+     *
+     * @return A boolean.
+     *
+     * @since 1.5
+     */
+    public boolean isRingBuffer() {
+        return this.data instanceof TimeSeriesRingBuffer;
+    }
+
+    /**
+     * Returns the ring buffer storage for the series, or {@code null} if
+     * the series does not use a ring buffer.
+     *
+     * @return The ring buffer (possibly {@code null}).
+     */
+    private TimeSeriesRingBuffer ringBuffer() {
+        if (this.data instanceof TimeSeriesRingBuffer) {
+            return (TimeSeriesRingBuffer) this.data;
+        }
+        return null;
+    }
+
     /**
      * Returns the list of data items for the series (the list contains
      * {@link TimeSeriesDataItem} objects and is unmodifiable).
@@ -303,6 +406,26 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         if (count > maximum) {
             delete(0, count - maximum - 1);
         }
+        TimeSeriesRingBuffer buffer = ringBuffer();
+        if (buffer != null) {
+            buffer.setMaximumCapacity(ringCapacity(maximum));
+        }
+    }
+
+    /**
+     * Returns the maximum capacity of the ring buffer for a series with the
+     * specified maximum item count.  There is room for one extra item,
+     * because a new item is added before the first item is removed.
+     *
+     * @param maximumItemCount  the maximum item count.
+     *
+     * @return The capacity.
+     */
+    private static int ringCapacity(int maximumItemCount) {
+        if (maximumItemCount == Integer.MAX_VALUE) {
+            return maximumItemCount;
+        }
+        return maximumItemCount + 1;
     }
 
     /**
@@ -351,7 +474,7 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         if (this.data.isEmpty()) {
             return null;
         }
-        return new Range(this.minY, this.maxY);
+        return new Range(getMinY(), getMaxY());
     }
     
     /**
@@ -395,15 +518,22 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
             return null;
         }
         Calendar calendar = Calendar.getInstance(zone);
-        // since the items are ordered, we could be more clever here and avoid
-        // iterating over all the data
+        // since the items are ordered, the items within the x-range form a
+        // contiguous block that can be located with a binary search
+        int start = findFirstIndex(xRange.getLowerBound(), false, xAnchor,
+                calendar);
+        int end = findFirstIndex(xRange.getUpperBound(), true, xAnchor,
+                calendar);
         double lowY = Double.POSITIVE_INFINITY;
         double highY = Double.NEGATIVE_INFINITY;
-        for (int i = 0; i < this.data.size(); i++) {
-            TimeSeriesDataItem item = (TimeSeriesDataItem) this.data.get(i);
-            long millis = item.getPeriod().getMillisecond(xAnchor, calendar);
-            if (xRange.contains(millis)) {
-                Number n = item.getValue();
+        if (start == 0 && end == this.data.size()) {
+            // all items are in the x-range, so the cached values can be used
+            lowY = minIgnoreNaN(lowY, getMinY());
+            highY = maxIgnoreNaN(highY, getMaxY());
+        }
+        else {
+            for (int i = start; i < end; i++) {
+                Number n = getValue(i);
                 if (n != null) {
                     double v = n.doubleValue();
                     lowY = minIgnoreNaN(lowY, v);
@@ -421,6 +551,37 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         return new Range(lowY, highY);
     }
 
+    /**
+     * Returns the index of the first item with an x-value (as determined by
+     * the anchor and calendar) that is greater than {@code x} (or greater
+     * than or equal to {@code x} if {@code strict} is {@code false}).  If
+     * there is no such item, the item count is returned.
+     *
+     * @param x  the x-value (in milliseconds).
+     * @param strict  a flag that controls whether items with an x-value equal
+     *     to {@code x} are skipped.
+     * @param xAnchor  the anchor point for the x-values.
+     * @param calendar  the calendar used to convert periods to milliseconds.
+     *
+     * @return The item index.
+     */
+    private int findFirstIndex(double x, boolean strict,
+            TimePeriodAnchor xAnchor, Calendar calendar) {
+        int low = 0;
+        int high = this.data.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long millis = getTimePeriod(mid).getMillisecond(xAnchor, calendar);
+            if (millis < x || (strict && millis == x)) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
     /**
      * Returns the smallest y-value in the series, ignoring any 
      * {@code null} and {@code Double.NaN} values.  This method 
@@ -434,6 +595,11 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
      * @since 1.0.14
      */
     public double getMinY() {
+        TimeSeriesRingBuffer buffer = ringBuffer();
+        if (buffer != null) {
+            return buffer.getMinValue();
+        }
+        ensureMinMaxYIsCurrent();
         return this.minY;
     }
 
@@ -450,6 +616,11 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
      * @since 1.0.14
      */
     public double getMaxY() {
+        TimeSeriesRingBuffer buffer = ringBuffer();
+        if (buffer != null) {
+            return buffer.getMaxValue();
+        }
+        ensureMinMaxYIsCurrent();
         return this.maxY;
     }
 
@@ -478,6 +649,10 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
      */
     public TimeSeriesDataItem getDataItem(int index) {
         TimeSeriesDataItem item = (TimeSeriesDataItem) this.data.get(index);
+        if (ringBuffer() != null) {
+            // the item is created on demand, so there is no need to clone it
+            return item;
+        }
         return (TimeSeriesDataItem) item.clone();
     }
 
@@ -547,6 +722,10 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
      * @return The time period.
      */
     public RegularTimePeriod getTimePeriod(int index) {
+        TimeSeriesRingBuffer buffer = ringBuffer();
+        if (buffer != null) {
+            return buffer.getPeriod(index);
+        }
         return getRawDataItem(index).getPeriod();
     }
 
@@ -604,6 +783,10 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
      */
     public int getIndex(RegularTimePeriod period) {
         Args.nullNotPermitted(period, "period");
+        TimeSeriesRingBuffer buffer = ringBuffer();
+        if (buffer != null) {
+            return buffer.indexOf(period);
+        }
         TimeSeriesDataItem dummy = new TimeSeriesDataItem(
               period, Integer.MIN_VALUE);
         return Collections.binarySearch(this.data, dummy);
@@ -617,9 +800,33 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
      * @return The value (possibly {@code null}).
      */
     public Number getValue(int index) {
+        TimeSeriesRingBuffer buffer = ringBuffer();
+        if (buffer != null) {
+            return buffer.getValue(index);
+        }
         return getRawDataItem(index).getValue();
     }
 
+    /**
+     * Returns the value at the specified index as a double primitive.  Unlike
+     * {@link #getValue(int)}, this method never creates a {@code Number}
+     * instance (the ring buffer storage holds primitive values).
+     *
+     * @param index  index of a value.
+     *
+     * @return The value ({@code Double.NaN} for a {@code null} value).
+     *
+     * @since 1.5
+     */
+    public double getDoubleValue(int index) {
+        TimeSeriesRingBuffer buffer = ringBuffer();
+        if (buffer != null) {
+            return buffer.getDoubleValue(index);
+        }
+        Number n = getRawDataItem(index).getValue();
+        return n != null ? n.doubleValue() : Double.NaN;
+    }
+
     /**
      * Returns the value for a time period.  If there is no data item with the
      * specified period, this method will return {@code null}.
@@ -673,22 +880,27 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
 
         // make the change (if it's not a duplicate time period)...
         boolean added = false;
+        int addedIndex = -1;
         int count = getItemCount();
         if (count == 0) {
             this.data.add(item);
             added = true;
+            addedIndex = 0;
         }
         else {
             RegularTimePeriod last = getTimePeriod(getItemCount() - 1);
             if (item.getPeriod().compareTo(last) > 0) {
                 this.data.add(item);
                 added = true;
+                addedIndex = count;
             }
             else {
-                int index = Collections.binarySearch(this.data, item);
+                int index = getIndex(item.getPeriod());
                 if (index < 0) {
                     this.data.add(-index - 1, item);
+                    this.innerModificationCount++;
                     added = true;
+                    addedIndex = -index - 1;
                 }
                 else {
                     StringBuilder b = new StringBuilder();
@@ -703,18 +915,23 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
             }
         }
         if (added) {
+            this.modificationCount++;
             updateBoundsForAddedItem(item);
             // check if this addition will exceed the maximum item count...
             if (getItemCount() > this.maximumItemCount) {
-                TimeSeriesDataItem d = (TimeSeriesDataItem) this.data.remove(0);
-                updateBoundsForRemovedItem(d);
+                removeFirstItem();
+                addedIndex = 0;  // every item has moved
             }
 
+            int itemCount = getItemCount();
             removeAgedItems(false);  // remove old items if necessary, but
                                      // don't notify anyone, because that
                                      // happens next anyway...
+            if (getItemCount() < itemCount) {
+                addedIndex = 0;
+            }
             if (notify) {
-                fireSeriesChanged();
+                fireSeriesChanged(addedIndex, getItemCount() - 1);
             }
         }
 
@@ -794,8 +1011,8 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
      * @param value  the value ({@code null} permitted).
      */
     public void update(RegularTimePeriod period, Number value) {
-        TimeSeriesDataItem temp = new TimeSeriesDataItem(period, value);
-        int index = Collections.binarySearch(this.data, temp);
+        Args.nullNotPermitted(period, "period");
+        int index = getIndex(period);
         if (index < 0) {
             throw new SeriesException("There is no existing value for the "
                     + "specified 'period'.");
@@ -810,25 +1027,17 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
      * @param value  the new value ({@code null} permitted).
      */
     public void update(int index, Number value) {
-        TimeSeriesDataItem item = (TimeSeriesDataItem) this.data.get(index);
-        boolean iterate = false;
-        Number oldYN = item.getValue();
-        if (oldYN != null) {
-            double oldY = oldYN.doubleValue();
-            if (!Double.isNaN(oldY)) {
-                iterate = oldY <= this.minY || oldY >= this.maxY;
-            }
+        TimeSeriesRingBuffer buffer = ringBuffer();
+        if (buffer != null) {
+            buffer.setValue(index, value);
+            fireSeriesChanged(index, index);
+            return;
         }
+        TimeSeriesDataItem item = (TimeSeriesDataItem) this.data.get(index);
+        Number oldValue = item.getValue();
         item.setValue(value);
-        if (iterate) {
-            updateMinMaxYByIteration();
-        }
-        else if (value != null) {
-            double yy = value.doubleValue();
-            this.minY = minIgnoreNaN(this.minY, yy);
-            this.maxY = maxIgnoreNaN(this.maxY, yy);
-        }
-        fireSeriesChanged();
+        updateBoundsForChangedValue(oldValue, value);
+        fireSeriesChanged(index, index);
     }
 
     /**
@@ -911,38 +1120,32 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
             throw new SeriesException(msg);
         }
         TimeSeriesDataItem overwritten = null;
-        int index = Collections.binarySearch(this.data, item);
-        if (index >= 0) {
+        int index = getIndex(item.getPeriod());
+        TimeSeriesRingBuffer buffer = ringBuffer();
+        if (index >= 0 && buffer != null) {
+            overwritten = getDataItem(index);
+            buffer.setValue(index, item.getValue());
+        }
+        else if (index >= 0) {
             TimeSeriesDataItem existing
                     = (TimeSeriesDataItem) this.data.get(index);
             overwritten = (TimeSeriesDataItem) existing.clone();
-            // figure out if we need to iterate through all the y-values
-            // to find the revised minY / maxY
-            boolean iterate = false;
-            Number oldYN = existing.getValue();
-            double oldY = oldYN != null ? oldYN.doubleValue() : Double.NaN;
-            if (!Double.isNaN(oldY)) {
-                iterate = oldY <= this.minY || oldY >= this.maxY;
-            }
             existing.setValue(item.getValue());
-            if (iterate) {
-                updateMinMaxYByIteration();
-            }
-            else if (item.getValue() != null) {
-                double yy = item.getValue().doubleValue();
-                this.minY = minIgnoreNaN(this.minY, yy);
-                this.maxY = maxIgnoreNaN(this.maxY, yy);
-            }
+            updateBoundsForChangedValue(overwritten.getValue(),
+                    item.getValue());
         }
         else {
             item = (TimeSeriesDataItem) item.clone();
+            if (-index - 1 < this.data.size()) {
+                this.innerModificationCount++;
+            }
             this.data.add(-index - 1, item);
+            this.modificationCount++;
             updateBoundsForAddedItem(item);
 
             // check if this addition will exceed the maximum item count...
             if (getItemCount() > this.maximumItemCount) {
-                TimeSeriesDataItem d = (TimeSeriesDataItem) this.data.remove(0);
-                updateBoundsForRemovedItem(d);
+                removeFirstItem();
             }
         }
         removeAgedItems(false);  // remove old items if necessary, but
@@ -953,6 +1156,22 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
 
     }
 
+    /**
+     * Removes the first item in the series and updates the cached minimum
+     * and maximum values, without notifying listeners.
+     */
+    private void removeFirstItem() {
+        this.modificationCount++;
+        TimeSeriesRingBuffer buffer = ringBuffer();
+        if (buffer != null) {
+            buffer.removeFirst();
+        }
+        else {
+            TimeSeriesDataItem d = (TimeSeriesDataItem) this.data.remove(0);
+            updateBoundsForRemovedItem(d);
+        }
+    }
+
     /**
      * Age items in the series.  Ensure that the timespan from the youngest to
      * the oldest record in the series does not exceed maximumItemAge time
@@ -966,14 +1185,15 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         // count...
         if (getItemCount() > 1) {
             long latest = getTimePeriod(getItemCount() - 1).getSerialIndex();
-            boolean removed = false;
-            while ((latest - getTimePeriod(0).getSerialIndex())
+            int count = 0;
+            while ((latest - getTimePeriod(count).getSerialIndex())
                     > this.maximumItemAge) {
-                this.data.remove(0);
-                removed = true;
+                count++;
             }
-            if (removed) {
-                updateMinMaxYByIteration();
+            if (count > 0) {
+                this.data.subList(0, count).clear();
+                this.modificationCount++;
+                invalidateMinMaxY();
                 if (notify) {
                     fireSeriesChanged();
                 }
@@ -1018,14 +1238,16 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
 
         // check if there are any values earlier than specified by the history
         // count...
-        boolean removed = false;
-        while (getItemCount() > 0 && (index
-                - getTimePeriod(0).getSerialIndex()) > this.maximumItemAge) {
-            this.data.remove(0);
-            removed = true;
+        int count = 0;
+        int itemCount = getItemCount();
+        while (count < itemCount && (index
+                - getTimePeriod(count).getSerialIndex()) > this.maximumItemAge) {
+            count++;
         }
-        if (removed) {
-            updateMinMaxYByIteration();
+        if (count > 0) {
+            this.data.subList(0, count).clear();
+            this.modificationCount++;
+            invalidateMinMaxY();
             if (notify) {
                 fireSeriesChanged();
             }
@@ -1039,9 +1261,11 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
     public void clear() {
         if (this.data.size() > 0) {
             this.data.clear();
+            this.modificationCount++;
             this.timePeriodClass = null;
             this.minY = Double.NaN;
             this.maxY = Double.NaN;
+            this.minMaxStale = false;
             fireSeriesChanged();
         }
     }
@@ -1057,8 +1281,12 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
     public void delete(RegularTimePeriod period) {
         int index = getIndex(period);
         if (index >= 0) {
+            if (index > 0 && index < this.data.size() - 1) {
+                this.innerModificationCount++;
+            }
             TimeSeriesDataItem item = (TimeSeriesDataItem) this.data.remove(
                     index);
+            this.modificationCount++;
             updateBoundsForRemovedItem(item);
             if (this.data.isEmpty()) {
                 this.timePeriodClass = null;
@@ -1090,10 +1318,12 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         if (end < start) {
             throw new IllegalArgumentException("Requires start <= end.");
         }
-        for (int i = 0; i <= (end - start); i++) {
-            this.data.remove(start);
+        if (start > 0 && end < this.data.size() - 1) {
+            this.innerModificationCount++;
         }
-        updateMinMaxYByIteration();
+        this.data.subList(start, end + 1).clear();
+        this.modificationCount++;
+        invalidateMinMaxY();
         if (this.data.isEmpty()) {
             this.timePeriodClass = null;
         }
@@ -1120,7 +1350,13 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
     @Override
     public Object clone() throws CloneNotSupportedException {
         TimeSeries clone = (TimeSeries) super.clone();
-        clone.data = (List) ObjectUtils.deepClone(this.data);
+        TimeSeriesRingBuffer buffer = ringBuffer();
+        if (buffer != null) {
+            clone.data = (List) buffer.clone();
+        }
+        else {
+            clone.data = (List) ObjectUtils.deepClone(this.data);
+        }
         return clone;
     }
 
@@ -1147,7 +1383,8 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         TimeSeries copy = (TimeSeries) super.clone();
         copy.minY = Double.NaN;
         copy.maxY = Double.NaN;
-        copy.data = new java.util.ArrayList();
+        copy.minMaxStale = false;
+        copy.data = newStorage();
         if (this.data.size() > 0) {
             for (int index = start; index <= end; index++) {
                 TimeSeriesDataItem item
@@ -1204,12 +1441,26 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
         }
         if (emptyRange) {
             TimeSeries copy = (TimeSeries) super.clone();
-            copy.data = new java.util.ArrayList();
+            copy.data = newStorage();
             return copy;
         }
         return createCopy(startIndex, endIndex);
     }
 
+    /**
+     * Returns a new empty list for storing data items, of the same kind
+     * (ring buffer or not) as the list used by this series.
+     *
+     * @return A new list.
+     */
+    private List newStorage() {
+        if (ringBuffer() != null) {
+            return new TimeSeriesRingBuffer(
+                    ringCapacity(this.maximumItemCount));
+        }
+        return new java.util.ArrayList();
+    }
+
     /**
      * Tests the series for equality with an arbitrary object.
      *
@@ -1295,6 +1546,9 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
      * @since 1.0.14
      */
     private void updateBoundsForAddedItem(TimeSeriesDataItem item) {
+        if (ringBuffer() != null || this.minMaxStale) {
+            return;
+        }
         Number yN = item.getValue();
         if (item.getValue() != null) {
             double y = yN.doubleValue();
@@ -1312,17 +1566,59 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
      * @since 1.0.14
      */
     private void updateBoundsForRemovedItem(TimeSeriesDataItem item) {
+        if (ringBuffer() != null || this.minMaxStale) {
+            return;
+        }
         Number yN = item.getValue();
         if (yN != null) {
             double y = yN.doubleValue();
             if (!Double.isNaN(y)) {
                 if (y <= this.minY || y >= this.maxY) {
-                    updateMinMaxYByIteration();
+                    invalidateMinMaxY();
                 }
             }
         }
     }
 
+    /**
+     * Updates the cached values for the minimum and maximum data values on
+     * the basis that the value for one item has been changed.
+     *
+     * @param oldValue  the previous value ({@code null} permitted).
+     * @param value  the new value ({@code null} permitted).
+     */
+    private void updateBoundsForChangedValue(Number oldValue, Number value) {
+        if (this.minMaxStale) {
+            return;
+        }
+        double oldY = oldValue != null ? oldValue.doubleValue() : Double.NaN;
+        if (!Double.isNaN(oldY) && (oldY <= this.minY || oldY >= this.maxY)) {
+            invalidateMinMaxY();
+        }
+        else if (value != null) {
+            double yy = value.doubleValue();
+            this.minY = minIgnoreNaN(this.minY, yy);
+            this.maxY = maxIgnoreNaN(this.maxY, yy);
+        }
+    }
+
+    /**
+     * Marks the cached minimum and maximum values as stale, so that they
+     * will be recalculated the next time they are required.
+     */
+    private void invalidateMinMaxY() {
+        this.minMaxStale = true;
+    }
+
+    /**
+     * Recalculates the cached minimum and maximum values if they are stale.
+     */
+    private void ensureMinMaxYIsCurrent() {
+        if (this.minMaxStale) {
+            updateMinMaxYByIteration();
+        }
+    }
+
     /**
      * Finds the bounds of the x and y values for the series, by iterating
      * through all the data items.
@@ -1332,6 +1628,11 @@ public class TimeSeries extends Series implements Cloneable, Serializable {
     private void updateMinMaxYByIteration() {
         this.minY = Double.NaN;
         this.maxY = Double.NaN;
+        this.minMaxStale = false;
+        if (ringBuffer() != null) {
+            // the ring buffer tracks the minimum and maximum values itself
+            return;
+        }
         Iterator iterator = this.data.iterator();
         while (iterator.hasNext()) {
             TimeSeriesDataItem item = (TimeSeriesDataItem) iterator.next();
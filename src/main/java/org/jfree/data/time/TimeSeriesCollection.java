@@ -106,6 +106,7 @@ import org.jfree.data.DomainOrder;
 import org.jfree.data.Range;
 import org.jfree.data.general.DatasetChangeEvent;
 import org.jfree.data.general.Series;
+import org.jfree.data.general.SeriesChangeEvent;
 import org.jfree.data.xy.AbstractIntervalXYDataset;
 import org.jfree.data.xy.IntervalXYDataset;
 import org.jfree.data.xy.XYDataset;
@@ -131,6 +132,14 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
     /** A working calendar (to recycle) */
     private Calendar workingCalendar;
 
+    /**
+     * The first and last millisecond of every time period, for each series
+     * (calculated when required and updated when a series changes).  The
+     * array is replaced rather than modified, so that the x-values can be
+     * read without locking.
+     */
+    private transient volatile TimePeriodMillis[] periodMillis;
+
     /**
      * The point within each time period that is used for the X value when this
      * collection is used as an {@link org.jfree.data.xy.XYDataset}.  This can
@@ -338,6 +347,7 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
     public void addSeries(TimeSeries series) {
         Args.nullNotPermitted(series, "series");
         this.data.add(series);
+        this.periodMillis = null;
         series.addChangeListener(this);
         series.addVetoableChangeListener(this);
         fireDatasetChanged();
@@ -352,6 +362,7 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
     public void removeSeries(TimeSeries series) {
         Args.nullNotPermitted(series, "series");
         this.data.remove(series);
+        this.periodMillis = null;
         series.removeChangeListener(this);
         series.removeVetoableChangeListener(this);
         fireDatasetChanged();
@@ -385,6 +396,7 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
 
         // remove all the series from the collection and notify listeners.
         this.data.clear();
+        this.periodMillis = null;
         fireDatasetChanged();
 
     }
@@ -412,9 +424,7 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
      */
     @Override
     public double getXValue(int series, int item) {
-        TimeSeries s = (TimeSeries) this.data.get(series);
-        RegularTimePeriod period = s.getTimePeriod(item);
-        return getX(period);
+        return getPeriodMillis(series).getMillisecond(item, this.xPosition);
     }
 
     /**
@@ -427,13 +437,80 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
      */
     @Override
     public Number getX(int series, int item) {
-        TimeSeries ts = (TimeSeries) this.data.get(series);
-        RegularTimePeriod period = ts.getTimePeriod(item);
-        return new Long(getX(period));
+        return new Long(getPeriodMillis(series).getMillisecond(item,
+                this.xPosition));
+    }
+
+    /**
+     * Returns the first and last milliseconds for the time periods in a
+     * series.  This method does not lock unless the values need to be
+     * calculated.
+     *
+     * @param series  the series index.
+     *
+     * @return The milliseconds (never {@code null}).
+     */
+    private TimePeriodMillis getPeriodMillis(int series) {
+        TimeSeries s = (TimeSeries) this.data.get(series);
+        TimePeriodMillis[] cache = this.periodMillis;
+        if (cache != null && series < cache.length) {
+            TimePeriodMillis m = cache[series];
+            if (m != null && m.isCurrent(s)) {
+                return m;
+            }
+        }
+        return updatePeriodMillis(series);
+    }
+
+    /**
+     * Brings the cached milliseconds for a series up to date.
+     *
+     * @param series  the series index.
+     *
+     * @return The milliseconds (never {@code null}).
+     */
+    private synchronized TimePeriodMillis updatePeriodMillis(int series) {
+        TimePeriodMillis[] cache = this.periodMillis;
+        int n = this.data.size();
+        TimePeriodMillis[] result = new TimePeriodMillis[n];
+        if (cache != null && cache.length == n) {
+            System.arraycopy(cache, 0, result, 0, n);
+        }
+        TimePeriodMillis m = result[series];
+        if (m == null) {
+            m = TimePeriodMillis.EMPTY;
+        }
+        result[series] = m.update((TimeSeries) this.data.get(series),
+                (Calendar) this.workingCalendar.clone());
+        this.periodMillis = result;
+        return result[series];
+    }
+
+    /**
+     * Receives notification that a series has changed, updates the cached
+     * x-values for the series (if they have already been calculated) and
+     * sends a {@link DatasetChangeEvent} to all registered listeners.
+     *
+     * @param event  information about the change.
+     */
+    @Override
+    public void seriesChanged(SeriesChangeEvent event) {
+        TimePeriodMillis[] cache = this.periodMillis;
+        if (cache != null) {
+            for (int i = 0; i < cache.length && i < this.data.size(); i++) {
+                if (cache[i] != null && this.data.get(i) == event.getSource()) {
+                    updatePeriodMillis(i);
+                }
+            }
+        }
+        super.seriesChanged(event);
     }
 
     /**
-     * Returns the x-value for a time period.
+     * Returns the x-value for a time period.  Note that this method
+     * synchronizes on the collection, while the methods that return the
+     * x-values for the items in the collection use cached values and don't
+     * need to.
      *
      * @param period  the time period ({@code null} not permitted).
      *
@@ -462,10 +539,24 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
      * @return The value.
      */
     @Override
-    public synchronized Number getStartX(int series, int item) {
-        TimeSeries ts = (TimeSeries) this.data.get(series);
-        return new Long(ts.getTimePeriod(item).getFirstMillisecond(
-                this.workingCalendar));
+    public Number getStartX(int series, int item) {
+        return new Long(getPeriodMillis(series).getFirstMillisecond(item));
+    }
+
+    /**
+     * Returns the starting x-value (as a double primitive) for the specified
+     * series and item.
+     *
+     * @param series  the series (zero-based index).
+     * @param item  the item (zero-based index).
+     *
+     * @return The value.
+     *
+     * @since 1.5
+     */
+    @Override
+    public double getStartXValue(int series, int item) {
+        return getPeriodMillis(series).getFirstMillisecond(item);
     }
 
     /**
@@ -477,10 +568,24 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
      * @return The value.
      */
     @Override
-    public synchronized Number getEndX(int series, int item) {
-        TimeSeries ts = (TimeSeries) this.data.get(series);
-        return new Long(ts.getTimePeriod(item).getLastMillisecond(
-                this.workingCalendar));
+    public Number getEndX(int series, int item) {
+        return new Long(getPeriodMillis(series).getLastMillisecond(item));
+    }
+
+    /**
+     * Returns the ending x-value (as a double primitive) for the specified
+     * series and item.
+     *
+     * @param series  the series (zero-based index).
+     * @param item  the item (zero-based index).
+     *
+     * @return The value.
+     *
+     * @since 1.5
+     */
+    @Override
+    public double getEndXValue(int series, int item) {
+        return getPeriodMillis(series).getLastMillisecond(item);
     }
 
     /**
@@ -497,6 +602,23 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
         return ts.getValue(item);
     }
 
+    /**
+     * Returns the y-value (as a double primitive) for the specified series
+     * and item.
+     *
+     * @param series  the series (zero-based index).
+     * @param item  the item (zero-based index).
+     *
+     * @return The value ({@code Double.NaN} for a {@code null} value).
+     *
+     * @since 1.5
+     */
+    @Override
+    public double getYValue(int series, int item) {
+        TimeSeries ts = (TimeSeries) this.data.get(series);
+        return ts.getDoubleValue(item);
+    }
+
     /**
      * Returns the starting Y value for the specified series and item.
      *
@@ -510,6 +632,22 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
         return getY(series, item);
     }
 
+    /**
+     * Returns the starting y-value (as a double primitive) for the specified
+     * series and item.
+     *
+     * @param series  the series (zero-based index).
+     * @param item  the item (zero-based index).
+     *
+     * @return The value ({@code Double.NaN} for a {@code null} value).
+     *
+     * @since 1.5
+     */
+    @Override
+    public double getStartYValue(int series, int item) {
+        return getYValue(series, item);
+    }
+
     /**
      * Returns the ending Y value for the specified series and item.
      *
@@ -523,6 +661,22 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
         return getY(series, item);
     }
 
+    /**
+     * Returns the ending y-value (as a double primitive) for the specified
+     * series and item.
+     *
+     * @param series  the series (zero-based index).
+     * @param item  the item (zero-based index).
+     *
+     * @return The value ({@code Double.NaN} for a {@code null} value).
+     *
+     * @since 1.5
+     */
+    @Override
+    public double getEndYValue(int series, int item) {
+        return getYValue(series, item);
+    }
+
 
     /**
      * Returns the indices of the two data items surrounding a particular
@@ -598,24 +752,9 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
     @Override
     public Range getDomainBounds(boolean includeInterval) {
         Range result = null;
-        Iterator iterator = this.data.iterator();
-        while (iterator.hasNext()) {
-            TimeSeries series = (TimeSeries) iterator.next();
-            int count = series.getItemCount();
-            if (count > 0) {
-                RegularTimePeriod start = series.getTimePeriod(0);
-                RegularTimePeriod end = series.getTimePeriod(count - 1);
-                Range temp;
-                if (!includeInterval) {
-                    temp = new Range(getX(start), getX(end));
-                }
-                else {
-                    temp = new Range(
-                            start.getFirstMillisecond(this.workingCalendar),
-                            end.getLastMillisecond(this.workingCalendar));
-                }
-                result = Range.combine(result, temp);
-            }
+        for (int s = 0; s < this.data.size(); s++) {
+            result = Range.combine(result, getDomainBounds(s,
+                    includeInterval));
         }
         return result;
     }
@@ -637,26 +776,34 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
         Iterator iterator = visibleSeriesKeys.iterator();
         while (iterator.hasNext()) {
             Comparable seriesKey = (Comparable) iterator.next();
-            TimeSeries series = getSeries(seriesKey);
-            int count = series.getItemCount();
-            if (count > 0) {
-                RegularTimePeriod start = series.getTimePeriod(0);
-                RegularTimePeriod end = series.getTimePeriod(count - 1);
-                Range temp;
-                if (!includeInterval) {
-                    temp = new Range(getX(start), getX(end));
-                }
-                else {
-                    temp = new Range(
-                            start.getFirstMillisecond(this.workingCalendar),
-                            end.getLastMillisecond(this.workingCalendar));
-                }
-                result = Range.combine(result, temp);
-            }
+            result = Range.combine(result, getDomainBounds(
+                    getSeriesIndex(seriesKey), includeInterval));
         }
         return result;
     }
 
+    /**
+     * Returns the bounds of the domain values for one series.
+     *
+     * @param series  the series index.
+     * @param includeInterval  include the x-interval?
+     *
+     * @return A range (possibly {@code null}).
+     */
+    private Range getDomainBounds(int series, boolean includeInterval) {
+        TimePeriodMillis m = getPeriodMillis(series);
+        int count = m.getItemCount();
+        if (count == 0) {
+            return null;
+        }
+        if (includeInterval) {
+            return new Range(m.getFirstMillisecond(0),
+                    m.getLastMillisecond(count - 1));
+        }
+        return new Range(m.getMillisecond(0, this.xPosition),
+                m.getMillisecond(count - 1, this.xPosition));
+    }
+
     /**
      * Returns the bounds for the y-values in the dataset.
      * 
@@ -788,6 +935,7 @@ public class TimeSeriesCollection extends AbstractIntervalXYDataset
         TimeSeriesCollection clone = (TimeSeriesCollection) super.clone();
         clone.data = (List) ObjectUtils.deepClone(this.data);
         clone.workingCalendar = (Calendar) this.workingCalendar.clone();
+        clone.periodMillis = null;
         return clone;
     }
 
@@ -0,0 +1,237 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ----------------------
+ * TimeSeriesPyramid.java
+ * ----------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.time;
+
+import java.io.Serializable;
+import java.util.Calendar;
+import java.util.Locale;
+import org.jfree.chart.util.ObjectUtils;
+
+/**
+ * The aggregated tiers for one {@link TimeSeries} in a
+ * {@link MultiResolutionTimeSeriesCollection}.  The tiers are updated
+ * incrementally when items are appended to the series, when the most
+ * recent item is updated, and when the oldest items are removed (because
+ * of the maximum item count or age for the series).  Any other change is
+ * handled by rebuilding the tiers, if it is detected.
+ */
+final class TimeSeriesPyramid implements Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 7031648593262118420L;
+
+    /** The series. */
+    private TimeSeries series;
+
+    /** The tiers, from the finest to the coarsest. */
+    private TimeSeriesTier[] tiers;
+
+    /** The period of the most recent item processed. */
+    private RegularTimePeriod lastPeriod;
+
+    /** The value of the most recent item processed. */
+    private Number lastValue;
+
+    /** The index of the most recent item processed. */
+    private int lastIndex;
+
+    /**
+     * The first and last millisecond of each time period in the series
+     * (calculated when required).  The instance is replaced rather than
+     * modified, so that it can be read without locking.
+     */
+    private transient volatile TimePeriodMillis periodMillis;
+
+    /**
+     * Creates a new pyramid for a series.
+     *
+     * @param series  the series.
+     * @param periodClasses  the time period classes for the tiers.
+     */
+    TimeSeriesPyramid(TimeSeries series, Class[] periodClasses) {
+        this.series = series;
+        this.tiers = new TimeSeriesTier[periodClasses.length];
+        for (int i = 0; i < periodClasses.length; i++) {
+            this.tiers[i] = new TimeSeriesTier(periodClasses[i]);
+        }
+        this.lastIndex = -1;
+    }
+
+    /**
+     * Returns the series.
+     *
+     * @return The series.
+     */
+    TimeSeries getSeries() {
+        return this.series;
+    }
+
+    /**
+     * Returns the first and last milliseconds for the time periods in the
+     * series.  This method does not lock unless the values need to be
+     * calculated.
+     *
+     * @param calendar  the calendar used to convert periods to milliseconds
+     *     (this is cloned, not modified).
+     *
+     * @return The milliseconds (never {@code null}).
+     */
+    TimePeriodMillis getPeriodMillis(Calendar calendar) {
+        TimePeriodMillis m = this.periodMillis;
+        if (m != null && m.isCurrent(this.series)) {
+            return m;
+        }
+        return updatePeriodMillis(calendar);
+    }
+
+    /**
+     * Brings the cached milliseconds up to date with the series.
+     *
+     * @param calendar  the calendar used to convert periods to milliseconds.
+     *
+     * @return The milliseconds (never {@code null}).
+     */
+    private synchronized TimePeriodMillis updatePeriodMillis(
+            Calendar calendar) {
+        TimePeriodMillis m = this.periodMillis;
+        if (m == null) {
+            m = TimePeriodMillis.EMPTY;
+        }
+        m = m.update(this.series, (Calendar) calendar.clone());
+        this.periodMillis = m;
+        return m;
+    }
+
+    /**
+     * Returns a tier.
+     *
+     * @param tier  the tier index.
+     *
+     * @return The tier.
+     */
+    TimeSeriesTier getTier(int tier) {
+        return this.tiers[tier];
+    }
+
+    /**
+     * Discards the aggregated data for all tiers.
+     */
+    void clear() {
+        for (int t = 0; t < this.tiers.length; t++) {
+            this.tiers[t].clear();
+        }
+        this.lastPeriod = null;
+        this.lastValue = null;
+        this.lastIndex = -1;
+    }
+
+    /**
+     * Brings the tiers up to date with the series.
+     *
+     * @param calendar  the calendar used to convert periods to milliseconds.
+     * @param locale  the locale used to create the bucket periods.
+     */
+    void update(Calendar calendar, Locale locale) {
+        int count = this.series.getItemCount();
+        if (count == 0) {
+            clear();
+            return;
+        }
+        if (this.lastPeriod != null) {
+            int index = this.series.getIndex(this.lastPeriod);
+            boolean canEvict = this.series.getMaximumItemCount()
+                    != Integer.MAX_VALUE
+                    || this.series.getMaximumItemAge() != Long.MAX_VALUE;
+            if (index < 0 || (index != this.lastIndex && !canEvict)) {
+                clear();
+            }
+            else if (!ObjectUtils.equal(this.series.getValue(index),
+                    this.lastValue)) {
+                // the most recent item was updated, so reprocess its buckets
+                long millis = this.lastPeriod.getFirstMillisecond(calendar);
+                for (int t = 0; t < this.tiers.length; t++) {
+                    this.tiers[t].removeFrom(millis);
+                }
+            }
+        }
+        long first = this.series.getTimePeriod(0).getFirstMillisecond(
+                calendar);
+        long resume = Long.MAX_VALUE;
+        for (int t = 0; t < this.tiers.length; t++) {
+            this.tiers[t].removeBefore(first);
+            resume = Math.min(resume, this.tiers[t].getCoveredUntil());
+        }
+        for (int i = findFirstItemAfter(resume, calendar); i < count; i++) {
+            long millis = this.series.getTimePeriod(i).getFirstMillisecond(
+                    calendar);
+            Number n = this.series.getValue(i);
+            double value = n != null ? n.doubleValue() : Double.NaN;
+            for (int t = 0; t < this.tiers.length; t++) {
+                this.tiers[t].add(millis, value, calendar, locale);
+            }
+        }
+        this.lastIndex = count - 1;
+        this.lastPeriod = this.series.getTimePeriod(this.lastIndex);
+        this.lastValue = this.series.getValue(this.lastIndex);
+    }
+
+    /**
+     * Returns the index of the first item in the series that starts after
+     * the specified time.
+     *
+     * @param millis  the time (in milliseconds).
+     * @param calendar  the calendar used to convert periods to milliseconds.
+     *
+     * @return The item index (or the item count if there is no such item).
+     */
+    private int findFirstItemAfter(long millis, Calendar calendar) {
+        int low = 0;
+        int high = this.series.getItemCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.series.getTimePeriod(mid).getFirstMillisecond(calendar)
+                    <= millis) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+}
@@ -0,0 +1,799 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -------------------------
+ * TimeSeriesRingBuffer.java
+ * -------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.time;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import org.jfree.chart.util.Args;
+
+/**
+ * Ring buffer storage for the items in a {@link TimeSeries}.  The time
+ * periods are held in an array together with their first and last
+ * millisecond, and the values are held in a {@code double[]} array (with a
+ * lazily allocated {@code boolean[]} to record {@code null} values).
+ * Appending an item and removing the first item are both O(1) operations,
+ * which suits a series with a maximum item count or a maximum item age
+ * that is continually receiving new data.
+ * <p>
+ * The capacity starts small and doubles as items are added, but never
+ * exceeds the maximum capacity.  A {@link TimeSeries} sets the maximum
+ * capacity to one more than its maximum item count (the new item is
+ * appended before the oldest item is evicted), so a series that is
+ * limited to {@code n} items reaches a steady state with a fixed set of
+ * arrays of length {@code n + 1}.
+ * <p>
+ * The minimum and maximum values are tracked with a pair of monotonic
+ * deques, which are updated in O(1) (amortised) time as items are appended
+ * and evicted.  Any other modification (inserting or removing an item that
+ * is not at the end or the front, or changing a value) discards the deques,
+ * and they are rebuilt the next time that the minimum or maximum is
+ * requested.
+ * <p>
+ * The class implements the {@code List} interface so that it can be used
+ * as the {@code data} list of a {@link TimeSeries}, but the
+ * {@link TimeSeriesDataItem} instances returned by {@link #get(int)} are
+ * created on demand and are NOT backed by the storage.
+ */
+final class TimeSeriesRingBuffer extends AbstractList
+        implements RandomAccess, Cloneable, Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -1787553232271536734L;
+
+    /** The default initial capacity. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** The time periods. */
+    private RegularTimePeriod[] periods;
+
+    /** The first millisecond for each time period. */
+    private long[] firstMillis;
+
+    /** The last millisecond for each time period. */
+    private long[] lastMillis;
+
+    /** The values ({@code null} values are stored as Double.NaN). */
+    private double[] values;
+
+    /**
+     * Flags for the values that are {@code null} (not allocated until the
+     * first {@code null} value is stored).
+     */
+    private boolean[] nullValues;
+
+    /** The array index of the first item. */
+    private int head;
+
+    /** The number of items. */
+    private int size;
+
+    /**
+     * The array indices of the candidates for the minimum value, in order
+     * of age and with increasing values (this is itself a ring).
+     */
+    private int[] minDeque;
+
+    /** The position of the first entry in {@code minDeque}. */
+    private int minHead;
+
+    /** The number of entries in {@code minDeque}. */
+    private int minSize;
+
+    /**
+     * The array indices of the candidates for the maximum value, in order
+     * of age and with decreasing values (this is itself a ring).
+     */
+    private int[] maxDeque;
+
+    /** The position of the first entry in {@code maxDeque}. */
+    private int maxHead;
+
+    /** The number of entries in {@code maxDeque}. */
+    private int maxSize;
+
+    /** A flag that indicates whether or not the deques are up to date. */
+    private boolean dequesValid;
+
+    /** The capacity that the buffer will not grow beyond. */
+    private int maximumCapacity;
+
+    /**
+     * Creates a new empty buffer with no limit on the capacity.
+     */
+    TimeSeriesRingBuffer() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new empty buffer that grows as required, up to the
+     * specified maximum capacity.
+     *
+     * @param maximumCapacity  the maximum capacity (must be positive).
+     */
+    TimeSeriesRingBuffer(int maximumCapacity) {
+        if (maximumCapacity < 1) {
+            throw new IllegalArgumentException(
+                    "Requires 'maximumCapacity' > 0.");
+        }
+        this.maximumCapacity = maximumCapacity;
+        allocate(Math.min(DEFAULT_CAPACITY, maximumCapacity));
+        this.dequesValid = true;
+    }
+
+    /**
+     * Returns the number of items.
+     *
+     * @return The number of items.
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the current capacity of the buffer.
+     *
+     * @return The capacity.
+     */
+    int capacity() {
+        return this.periods.length;
+    }
+
+    /**
+     * Returns the capacity that the buffer will not grow beyond.
+     *
+     * @return The maximum capacity.
+     */
+    int getMaximumCapacity() {
+        return this.maximumCapacity;
+    }
+
+    /**
+     * Sets the capacity that the buffer will not grow beyond.  If the
+     * current capacity is larger, the arrays are reallocated at the new
+     * maximum capacity.
+     *
+     * @param maximumCapacity  the maximum capacity (must be positive and
+     *     not less than the number of items in the buffer).
+     */
+    void setMaximumCapacity(int maximumCapacity) {
+        if (maximumCapacity < Math.max(this.size, 1)) {
+            throw new IllegalArgumentException("Requires 'maximumCapacity' "
+                    + ">= " + Math.max(this.size, 1) + ".");
+        }
+        this.maximumCapacity = maximumCapacity;
+        if (this.periods.length > maximumCapacity) {
+            resize(maximumCapacity);
+        }
+    }
+
+    /**
+     * Returns a new data item containing the time period and value at the
+     * specified index.
+     *
+     * @param index  the index.
+     *
+     * @return A new data item.
+     */
+    @Override
+    public Object get(int index) {
+        return new TimeSeriesDataItem(getPeriod(index), getValue(index));
+    }
+
+    /**
+     * Returns the time period at the specified index.
+     *
+     * @param index  the index.
+     *
+     * @return The time period (never {@code null}).
+     */
+    public RegularTimePeriod getPeriod(int index) {
+        return this.periods[checkedSlot(index)];
+    }
+
+    /**
+     * Returns the first millisecond of the time period at the specified
+     * index (as returned by {@link RegularTimePeriod#getFirstMillisecond()}
+     * when the item was added).
+     *
+     * @param index  the index.
+     *
+     * @return The first millisecond.
+     */
+    public long getFirstMillisecond(int index) {
+        return this.firstMillis[checkedSlot(index)];
+    }
+
+    /**
+     * Returns the last millisecond of the time period at the specified
+     * index (as returned by {@link RegularTimePeriod#getLastMillisecond()}
+     * when the item was added).
+     *
+     * @param index  the index.
+     *
+     * @return The last millisecond.
+     */
+    public long getLastMillisecond(int index) {
+        return this.lastMillis[checkedSlot(index)];
+    }
+
+    /**
+     * Returns the value at the specified index as a double primitive
+     * (Double.NaN is returned for a {@code null} value).
+     *
+     * @param index  the index.
+     *
+     * @return The value.
+     */
+    public double getDoubleValue(int index) {
+        return this.values[checkedSlot(index)];
+    }
+
+    /**
+     * Returns the value at the specified index as a new {@code Double}.
+     *
+     * @param index  the index.
+     *
+     * @return The value (possibly {@code null}).
+     */
+    public Number getValue(int index) {
+        int s = checkedSlot(index);
+        if (this.nullValues != null && this.nullValues[s]) {
+            return null;
+        }
+        return new Double(this.values[s]);
+    }
+
+    /**
+     * Sets the value at the specified index.
+     *
+     * @param index  the index.
+     * @param value  the value ({@code null} permitted).
+     */
+    public void setValue(int index, Number value) {
+        store(checkedSlot(index), value);
+        this.dequesValid = false;
+    }
+
+    /**
+     * Returns the smallest value in the buffer, ignoring {@code null} and
+     * Double.NaN values, or Double.NaN if there is no such value.
+     *
+     * @return The smallest value.
+     */
+    public double getMinValue() {
+        if (!this.dequesValid) {
+            rebuildDeques();
+        }
+        if (this.minSize == 0) {
+            return Double.NaN;
+        }
+        return this.values[this.minDeque[this.minHead]];
+    }
+
+    /**
+     * Returns the largest value in the buffer, ignoring {@code null} and
+     * Double.NaN values, or Double.NaN if there is no such value.
+     *
+     * @return The largest value.
+     */
+    public double getMaxValue() {
+        if (!this.dequesValid) {
+            rebuildDeques();
+        }
+        if (this.maxSize == 0) {
+            return Double.NaN;
+        }
+        return this.values[this.maxDeque[this.maxHead]];
+    }
+
+    /**
+     * Returns the index of the item with the specified time period, using
+     * a binary search.  The return value follows the same convention as
+     * {@code Collections.binarySearch()}.
+     *
+     * @param period  the time period ({@code null} not permitted).
+     *
+     * @return The index (negative if there is no item for the period).
+     */
+    public int indexOf(RegularTimePeriod period) {
+        int low = 0;
+        int high = this.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = this.periods[slot(mid)].compareTo(period);
+            if (c < 0) {
+                low = mid + 1;
+            }
+            else if (c > 0) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Inserts a data item at the specified index.
+     *
+     * @param index  the index.
+     * @param element  the data item ({@code null} not permitted).
+     */
+    @Override
+    public void add(int index, Object element) {
+        Args.nullNotPermitted(element, "element");
+        TimeSeriesDataItem item = (TimeSeriesDataItem) element;
+        insert(index, item.getPeriod(), item.getValue());
+    }
+
+    /**
+     * Replaces the data item at the specified index.
+     *
+     * @param index  the index.
+     * @param element  the data item ({@code null} not permitted).
+     *
+     * @return A data item containing the previous period and value.
+     */
+    @Override
+    public Object set(int index, Object element) {
+        Args.nullNotPermitted(element, "element");
+        TimeSeriesDataItem item = (TimeSeriesDataItem) element;
+        Object old = get(index);
+        int s = checkedSlot(index);
+        storePeriod(s, item.getPeriod());
+        store(s, item.getValue());
+        this.dequesValid = false;
+        return old;
+    }
+
+    /**
+     * Inserts an item at the specified index.  Inserting at the end of the
+     * buffer, or at the front when there is spare capacity, does not move
+     * any of the existing items.
+     *
+     * @param index  the index (in the range {@code 0} to {@code size()}).
+     * @param period  the time period ({@code null} not permitted).
+     * @param value  the value ({@code null} permitted).
+     *
+     * @throws IllegalStateException if the buffer is full and already at
+     *     its maximum capacity.
+     */
+    public void insert(int index, RegularTimePeriod period, Number value) {
+        Args.nullNotPermitted(period, "period");
+        if (index < 0 || index > this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", Size: " + this.size);
+        }
+        this.modCount++;
+        if (this.size == this.periods.length) {
+            grow();
+        }
+        int s;
+        if (index == this.size) {
+            s = slot(index);
+            this.size++;
+            storePeriod(s, period);
+            store(s, value);
+            if (this.dequesValid) {
+                pushBack(s);
+            }
+            return;
+        }
+        if (index == 0) {
+            this.head = this.head == 0 ? this.periods.length - 1
+                    : this.head - 1;
+            s = this.head;
+        }
+        else {
+            for (int i = this.size; i > index; i--) {
+                move(slot(i - 1), slot(i));
+            }
+            s = slot(index);
+        }
+        this.size++;
+        storePeriod(s, period);
+        store(s, value);
+        this.dequesValid = false;
+    }
+
+    /**
+     * Removes the data item at the specified index.
+     *
+     * @param index  the index.
+     *
+     * @return A data item containing the removed period and value.
+     */
+    @Override
+    public Object remove(int index) {
+        Object removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    /**
+     * Removes the first item in O(1) time.
+     */
+    public void removeFirst() {
+        if (this.size == 0) {
+            throw new IndexOutOfBoundsException("Empty buffer.");
+        }
+        this.modCount++;
+        int s = this.head;
+        this.periods[s] = null;
+        this.head = this.head + 1 == this.periods.length ? 0 : this.head + 1;
+        this.size--;
+        if (this.size == 0) {
+            resetDeques();
+            this.head = 0;
+            return;
+        }
+        if (this.dequesValid) {
+            if (this.minSize > 0 && this.minDeque[this.minHead] == s) {
+                this.minHead = next(this.minHead);
+                this.minSize--;
+            }
+            if (this.maxSize > 0 && this.maxDeque[this.maxHead] == s) {
+                this.maxHead = next(this.maxHead);
+                this.maxSize--;
+            }
+        }
+    }
+
+    /**
+     * Removes the items from index {@code fromIndex} (inclusive) to
+     * {@code toIndex} (exclusive).  Items removed from the front of the
+     * buffer are evicted in O(1) time each.
+     *
+     * @param fromIndex  the index of the first item to remove.
+     * @param toIndex  the index after the last item to remove.
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > this.size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range: " + fromIndex + " to "
+                    + toIndex + ", Size: " + this.size);
+        }
+        if (fromIndex == 0) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                removeFirst();
+            }
+            return;
+        }
+        int count = toIndex - fromIndex;
+        if (count == 0) {
+            return;
+        }
+        this.modCount++;
+        for (int i = toIndex; i < this.size; i++) {
+            move(slot(i), slot(i - count));
+        }
+        for (int i = this.size - count; i < this.size; i++) {
+            this.periods[slot(i)] = null;
+        }
+        this.size -= count;
+        this.dequesValid = false;
+    }
+
+    /**
+     * Removes all items.
+     */
+    @Override
+    public void clear() {
+        this.modCount++;
+        java.util.Arrays.fill(this.periods, null);
+        this.head = 0;
+        this.size = 0;
+        this.nullValues = null;
+        resetDeques();
+    }
+
+    /**
+     * Returns an independent copy of this buffer.
+     *
+     * @return A clone.
+     */
+    @Override
+    public Object clone() {
+        TimeSeriesRingBuffer clone;
+        try {
+            clone = (TimeSeriesRingBuffer) super.clone();
+        }
+        catch (CloneNotSupportedException e) {
+            throw new InternalError(e.getMessage());
+        }
+        clone.allocate(this.periods.length);
+        for (int i = 0; i < this.size; i++) {
+            int s = slot(i);
+            clone.periods[i] = this.periods[s];
+            clone.firstMillis[i] = this.firstMillis[s];
+            clone.lastMillis[i] = this.lastMillis[s];
+            clone.values[i] = this.values[s];
+            if (this.nullValues != null) {
+                if (clone.nullValues == null) {
+                    clone.nullValues = new boolean[clone.periods.length];
+                }
+                clone.nullValues[i] = this.nullValues[s];
+            }
+        }
+        clone.head = 0;
+        clone.size = this.size;
+        clone.modCount = 0;
+        clone.dequesValid = false;
+        return clone;
+    }
+
+    /**
+     * Checks that the index refers to an existing item and returns the
+     * array index for the item.
+     *
+     * @param index  the index.
+     *
+     * @return The array index.
+     */
+    private int checkedSlot(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", Size: " + this.size);
+        }
+        return slot(index);
+    }
+
+    /**
+     * Returns the array index for the item at the specified index (the
+     * index is not checked).
+     *
+     * @param index  the index (in the range {@code 0} to {@code size()}).
+     *
+     * @return The array index.
+     */
+    private int slot(int index) {
+        int s = this.head + index;
+        int capacity = this.periods.length;
+        return s >= capacity ? s - capacity : s;
+    }
+
+    /**
+     * Returns the array index following {@code s} (wrapping around).
+     *
+     * @param s  the array index.
+     *
+     * @return The next array index.
+     */
+    private int next(int s) {
+        return s + 1 == this.periods.length ? 0 : s + 1;
+    }
+
+    /**
+     * Stores the time period (and its first and last millisecond) at the
+     * specified array index.
+     *
+     * @param s  the array index.
+     * @param period  the period.
+     */
+    private void storePeriod(int s, RegularTimePeriod period) {
+        this.periods[s] = period;
+        this.firstMillis[s] = period.getFirstMillisecond();
+        this.lastMillis[s] = period.getLastMillisecond();
+    }
+
+    /**
+     * Stores a value at the specified array index.
+     *
+     * @param s  the array index.
+     * @param value  the value ({@code null} permitted).
+     */
+    private void store(int s, Number value) {
+        if (value == null) {
+            if (this.nullValues == null) {
+                this.nullValues = new boolean[this.periods.length];
+            }
+            this.nullValues[s] = true;
+            this.values[s] = Double.NaN;
+        }
+        else {
+            if (this.nullValues != null) {
+                this.nullValues[s] = false;
+            }
+            this.values[s] = value.doubleValue();
+        }
+    }
+
+    /**
+     * Copies an item from one array index to another.
+     *
+     * @param from  the source array index.
+     * @param to  the destination array index.
+     */
+    private void move(int from, int to) {
+        this.periods[to] = this.periods[from];
+        this.firstMillis[to] = this.firstMillis[from];
+        this.lastMillis[to] = this.lastMillis[from];
+        this.values[to] = this.values[from];
+        if (this.nullValues != null) {
+            this.nullValues[to] = this.nullValues[from];
+        }
+    }
+
+    /**
+     * Allocates new (empty) arrays with the specified capacity.
+     *
+     * @param capacity  the capacity.
+     */
+    private void allocate(int capacity) {
+        this.periods = new RegularTimePeriod[capacity];
+        this.firstMillis = new long[capacity];
+        this.lastMillis = new long[capacity];
+        this.values = new double[capacity];
+        this.nullValues = null;
+        this.minDeque = new int[capacity];
+        this.maxDeque = new int[capacity];
+        this.head = 0;
+        this.size = 0;
+        resetDeques();
+    }
+
+    /**
+     * Doubles the capacity of the buffer (but not beyond the maximum
+     * capacity).
+     */
+    private void grow() {
+        int capacity = this.periods.length;
+        if (capacity >= this.maximumCapacity) {
+            throw new IllegalStateException("The buffer is full (capacity "
+                    + capacity + ").");
+        }
+        resize((int) Math.min(Math.max(DEFAULT_CAPACITY, 2L * capacity),
+                this.maximumCapacity));
+    }
+
+    /**
+     * Moves the items to new arrays with the specified capacity, so that the
+     * first item is at array index 0.
+     *
+     * @param capacity  the new capacity (not less than the item count).
+     */
+    private void resize(int capacity) {
+        RegularTimePeriod[] newPeriods = new RegularTimePeriod[capacity];
+        long[] newFirstMillis = new long[capacity];
+        long[] newLastMillis = new long[capacity];
+        double[] newValues = new double[capacity];
+        boolean[] newNullValues = null;
+        copyItems(this.periods, newPeriods);
+        copyItems(this.firstMillis, newFirstMillis);
+        copyItems(this.lastMillis, newLastMillis);
+        copyItems(this.values, newValues);
+        if (this.nullValues != null) {
+            newNullValues = new boolean[capacity];
+            copyItems(this.nullValues, newNullValues);
+        }
+        this.periods = newPeriods;
+        this.firstMillis = newFirstMillis;
+        this.lastMillis = newLastMillis;
+        this.values = newValues;
+        this.nullValues = newNullValues;
+        this.minDeque = new int[capacity];
+        this.maxDeque = new int[capacity];
+        this.head = 0;
+        this.dequesValid = false;
+    }
+
+    /**
+     * Copies the items from one of the (circular) storage arrays to the
+     * start of a new array.
+     *
+     * @param src  the storage array.
+     * @param dest  the new array.
+     */
+    private void copyItems(Object src, Object dest) {
+        int n = Math.min(this.size, this.periods.length - this.head);
+        System.arraycopy(src, this.head, dest, 0, n);
+        System.arraycopy(src, 0, dest, n, this.size - n);
+    }
+
+    /**
+     * Empties both deques (and marks them as valid).
+     */
+    private void resetDeques() {
+        this.minHead = 0;
+        this.minSize = 0;
+        this.maxHead = 0;
+        this.maxSize = 0;
+        this.dequesValid = true;
+    }
+
+    /**
+     * Rebuilds the deques by scanning all the items in the buffer.
+     */
+    private void rebuildDeques() {
+        resetDeques();
+        for (int i = 0; i < this.size; i++) {
+            pushBack(slot(i));
+        }
+    }
+
+    /**
+     * Updates the deques for an item that has just been added at the end
+     * of the buffer.  Items with a {@code null} or Double.NaN value are
+     * ignored.
+     *
+     * @param s  the array index of the new item.
+     */
+    private void pushBack(int s) {
+        double v = this.values[s];
+        if (Double.isNaN(v)) {
+            return;
+        }
+        int capacity = this.periods.length;
+        // older candidates that are not smaller than the new value can never
+        // be the minimum again, because they will be evicted first
+        while (this.minSize > 0) {
+            int back = this.minHead + this.minSize - 1;
+            if (back >= capacity) {
+                back -= capacity;
+            }
+            if (this.values[this.minDeque[back]] >= v) {
+                this.minSize--;
+            }
+            else {
+                break;
+            }
+        }
+        int p = this.minHead + this.minSize;
+        this.minDeque[p >= capacity ? p - capacity : p] = s;
+        this.minSize++;
+
+        while (this.maxSize > 0) {
+            int back = this.maxHead + this.maxSize - 1;
+            if (back >= capacity) {
+                back -= capacity;
+            }
+            if (this.values[this.maxDeque[back]] <= v) {
+                this.maxSize--;
+            }
+            else {
+                break;
+            }
+        }
+        p = this.maxHead + this.maxSize;
+        this.maxDeque[p >= capacity ? p - capacity : p] = s;
+        this.maxSize++;
+    }
+
+}
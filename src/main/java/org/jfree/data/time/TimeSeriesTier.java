@@ -0,0 +1,390 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -------------------
+ * TimeSeriesTier.java
+ * -------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.time;
+
+import java.io.Serializable;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * One tier of a {@link MultiResolutionTimeSeriesCollection}: the values of
+ * a {@link TimeSeries} aggregated (first, last, minimum, maximum, sum and
+ * count) over consecutive time periods of a fixed type.  The data is held
+ * in parallel arrays; removing the oldest buckets just advances an offset.
+ */
+final class TimeSeriesTier implements Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -2480736651902475134L;
+
+    /** The initial capacity. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The time period class for the buckets. */
+    private Class periodClass;
+
+    /** The first millisecond of each bucket. */
+    private long[] starts;
+
+    /** The last millisecond of each bucket. */
+    private long[] ends;
+
+    /** The first value in each bucket. */
+    private double[] firsts;
+
+    /** The last value in each bucket. */
+    private double[] lasts;
+
+    /** The minimum value in each bucket. */
+    private double[] lows;
+
+    /** The maximum value in each bucket. */
+    private double[] highs;
+
+    /** The sum of the values in each bucket. */
+    private double[] sums;
+
+    /** The number of values in each bucket. */
+    private int[] counts;
+
+    /** The array index of the first bucket. */
+    private int offset;
+
+    /** The number of buckets. */
+    private int size;
+
+    /**
+     * The time (in milliseconds) of the most recent item that has been
+     * added to the tier.
+     */
+    private long coveredUntil;
+
+    /**
+     * Creates a new empty tier.
+     *
+     * @param periodClass  the time period class for the buckets.
+     */
+    TimeSeriesTier(Class periodClass) {
+        this.periodClass = periodClass;
+        this.starts = new long[INITIAL_CAPACITY];
+        this.ends = new long[INITIAL_CAPACITY];
+        this.firsts = new double[INITIAL_CAPACITY];
+        this.lasts = new double[INITIAL_CAPACITY];
+        this.lows = new double[INITIAL_CAPACITY];
+        this.highs = new double[INITIAL_CAPACITY];
+        this.sums = new double[INITIAL_CAPACITY];
+        this.counts = new int[INITIAL_CAPACITY];
+        this.coveredUntil = Long.MIN_VALUE;
+    }
+
+    /**
+     * Returns the time period class for the buckets.
+     *
+     * @return The time period class.
+     */
+    Class getPeriodClass() {
+        return this.periodClass;
+    }
+
+    /**
+     * Returns the number of buckets.
+     *
+     * @return The number of buckets.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the time of the most recent item added to the tier, or
+     * {@code Long.MIN_VALUE} if no items have been added.
+     *
+     * @return The time (in milliseconds).
+     */
+    long getCoveredUntil() {
+        return this.coveredUntil;
+    }
+
+    /**
+     * Returns the first millisecond of a bucket.
+     *
+     * @param bucket  the bucket index.
+     *
+     * @return The time (in milliseconds).
+     */
+    long getStart(int bucket) {
+        return this.starts[this.offset + bucket];
+    }
+
+    /**
+     * Returns the last millisecond of a bucket.
+     *
+     * @param bucket  the bucket index.
+     *
+     * @return The time (in milliseconds).
+     */
+    long getEnd(int bucket) {
+        return this.ends[this.offset + bucket];
+    }
+
+    /**
+     * Returns the first value in a bucket.
+     *
+     * @param bucket  the bucket index.
+     *
+     * @return The value.
+     */
+    double getFirst(int bucket) {
+        return this.firsts[this.offset + bucket];
+    }
+
+    /**
+     * Returns the last value in a bucket.
+     *
+     * @param bucket  the bucket index.
+     *
+     * @return The value.
+     */
+    double getLast(int bucket) {
+        return this.lasts[this.offset + bucket];
+    }
+
+    /**
+     * Returns the minimum value in a bucket.
+     *
+     * @param bucket  the bucket index.
+     *
+     * @return The value.
+     */
+    double getLow(int bucket) {
+        return this.lows[this.offset + bucket];
+    }
+
+    /**
+     * Returns the maximum value in a bucket.
+     *
+     * @param bucket  the bucket index.
+     *
+     * @return The value.
+     */
+    double getHigh(int bucket) {
+        return this.highs[this.offset + bucket];
+    }
+
+    /**
+     * Returns the mean of the values in a bucket.
+     *
+     * @param bucket  the bucket index.
+     *
+     * @return The value.
+     */
+    double getMean(int bucket) {
+        int i = this.offset + bucket;
+        return this.sums[i] / this.counts[i];
+    }
+
+    /**
+     * Returns the number of values in a bucket.
+     *
+     * @param bucket  the bucket index.
+     *
+     * @return The count.
+     */
+    int getCount(int bucket) {
+        return this.counts[this.offset + bucket];
+    }
+
+    /**
+     * Adds an item to the tier.  Items must be added in time order, and
+     * items that are not later than the most recent item added are ignored.
+     *
+     * @param millis  the time of the item (in milliseconds).
+     * @param value  the value ({@code Double.NaN} values are not included
+     *     in the aggregates).
+     * @param calendar  the calendar used to find the bucket boundaries.
+     * @param locale  the locale used to create the bucket periods.
+     */
+    void add(long millis, double value, Calendar calendar, Locale locale) {
+        if (millis <= this.coveredUntil) {
+            return;
+        }
+        this.coveredUntil = millis;
+        if (Double.isNaN(value)) {
+            return;
+        }
+        int last = this.offset + this.size - 1;
+        if (this.size > 0 && millis <= this.ends[last]) {
+            this.lasts[last] = value;
+            this.lows[last] = Math.min(this.lows[last], value);
+            this.highs[last] = Math.max(this.highs[last], value);
+            this.sums[last] += value;
+            this.counts[last]++;
+            return;
+        }
+        RegularTimePeriod period = RegularTimePeriod.createInstance(
+                this.periodClass, new Date(millis), calendar.getTimeZone(),
+                locale);
+        ensureCapacity();
+        int i = this.offset + this.size;
+        this.starts[i] = period.getFirstMillisecond(calendar);
+        this.ends[i] = period.getLastMillisecond(calendar);
+        this.firsts[i] = value;
+        this.lasts[i] = value;
+        this.lows[i] = value;
+        this.highs[i] = value;
+        this.sums[i] = value;
+        this.counts[i] = 1;
+        this.size++;
+    }
+
+    /**
+     * Removes the buckets that end before the specified time.
+     *
+     * @param millis  the time (in milliseconds).
+     */
+    void removeBefore(long millis) {
+        while (this.size > 0 && this.ends[this.offset] < millis) {
+            this.offset++;
+            this.size--;
+        }
+    }
+
+    /**
+     * Removes the bucket containing the specified time, and all later
+     * buckets, so that the items from that time onwards can be added again.
+     *
+     * @param millis  the time (in milliseconds).
+     */
+    void removeFrom(long millis) {
+        while (this.size > 0
+                && this.ends[this.offset + this.size - 1] >= millis) {
+            this.size--;
+        }
+        this.coveredUntil = this.size > 0
+                ? this.ends[this.offset + this.size - 1] : Long.MIN_VALUE;
+    }
+
+    /**
+     * Removes all the buckets.
+     */
+    void clear() {
+        this.offset = 0;
+        this.size = 0;
+        this.coveredUntil = Long.MIN_VALUE;
+    }
+
+    /**
+     * Returns the index of the first bucket that ends at or after the
+     * specified time (or the bucket count if there is no such bucket).
+     *
+     * @param millis  the time (in milliseconds).
+     *
+     * @return The bucket index.
+     */
+    int findFirstBucket(double millis) {
+        int low = 0;
+        int high = this.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.ends[this.offset + mid] < millis) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Ensures there is space at the end of the arrays for one more bucket,
+     * by compacting the arrays or growing them.
+     */
+    private void ensureCapacity() {
+        int required = this.size + 1;
+        if (this.offset + required <= this.starts.length) {
+            return;
+        }
+        int capacity = this.starts.length;
+        if (required > capacity * 3 / 4) {
+            capacity = Math.max(capacity + (capacity >> 1), required);
+        }
+        this.starts = resize(this.starts, capacity);
+        this.ends = resize(this.ends, capacity);
+        this.firsts = resize(this.firsts, capacity);
+        this.lasts = resize(this.lasts, capacity);
+        this.lows = resize(this.lows, capacity);
+        this.highs = resize(this.highs, capacity);
+        this.sums = resize(this.sums, capacity);
+        int[] c = new int[capacity];
+        System.arraycopy(this.counts, this.offset, c, 0, this.size);
+        this.counts = c;
+        this.offset = 0;
+    }
+
+    /**
+     * Returns a copy of the live part of an array with the specified
+     * capacity.
+     *
+     * @param array  the array.
+     * @param capacity  the new capacity.
+     *
+     * @return The new array.
+     */
+    private long[] resize(long[] array, int capacity) {
+        long[] result = new long[capacity];
+        System.arraycopy(array, this.offset, result, 0, this.size);
+        return result;
+    }
+
+    /**
+     * Returns a copy of the live part of an array with the specified
+     * capacity.
+     *
+     * @param array  the array.
+     * @param capacity  the new capacity.
+     *
+     * @return The new array.
+     */
+    private double[] resize(double[] array, int capacity) {
+        double[] result = new double[capacity];
+        System.arraycopy(array, this.offset, result, 0, this.size);
+        return result;
+    }
+
+}
@@ -0,0 +1,1075 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------------
+ * MappedXYDataset.java
+ * --------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.xy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import org.jfree.chart.util.Args;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+
+/**
+ * An {@link IntervalXYDataset} that reads its data from a memory-mapped 
+ * file, so that the data can be larger than the heap (only the pages that
+ * are used are read from the disk).  The file is written by a 
+ * {@link MappedXYDatasetWriter} and contains a header, a column of 
+ * x-values (shared by all the series, in ascending order), a column of 
+ * y-values ({@code double} or {@code float}) for each series, and 
+ * summaries (the minimum, maximum and mean y-values) for blocks of items 
+ * at several levels.
+ * <p>
+ * Because the x-values are in ascending order, renderers can find the 
+ * visible items with a binary search, and the bounds (including the 
+ * bounds for a range of x-values, see {@link XYRangeInfo}) are found from 
+ * the summaries rather than by reading every item.  The dataset presents 
+ * one resolution level at a time (see {@link MultiResolutionXYDataset}):
+ * level 0 is the raw data and, at level {@code n > 0}, each item is a 
+ * block from the n-th summary level, with the x-interval running from the 
+ * first to the last x-value in the block, the y-value being the mean and 
+ * the y-interval running from the minimum to the maximum.  An 
+ * {@link org.jfree.chart.plot.XYPlot} draws the view returned by 
+ * {@link #getView(Range, double)} for the visible x-range, so when the 
+ * chart is zoomed out, only the summaries are read.
+ * <p>
+ * {@code null} y-values are stored as {@code Double.NaN}.  The number of
+ * items is limited to {@code Integer.MAX_VALUE}.
+ *
+ * @since 1.5
+ */
+public class MappedXYDataset extends AbstractIntervalXYDataset
+        implements MultiResolutionXYDataset, DomainInfo, RangeInfo, 
+        XYRangeInfo {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 2904316557240218213L;
+
+    /** The first four bytes of the file ("JFXY"). */
+    static final int MAGIC = 0x4A465859;
+
+    /** The file format version. */
+    static final int VERSION = 1;
+
+    /** The size of the fixed part of the header. */
+    static final int HEADER_SIZE = 40;
+
+    /** The file. */
+    private File file;
+
+    /** The maximum number of items per pixel for the selected level. */
+    private double itemsPerPixel;
+
+    /** The current resolution level (0 is the raw data). */
+    private int resolutionLevel;
+
+    /** The series keys. */
+    private transient String[] seriesKeys;
+
+    /** The number of items. */
+    private transient int itemCount;
+
+    /** The size of each y-value in bytes (4 or 8). */
+    private transient int valueSize;
+
+    /** The number of items in each block at the first summary level. */
+    private transient int blockSize;
+
+    /** The number of blocks combined at each further summary level. */
+    private transient int levelFactor;
+
+    /** The x-values. */
+    private transient MappedRegion xValues;
+
+    /** The y-values for each series. */
+    private transient MappedRegion[] yValues;
+
+    /** The summary levels (index 0 is the first summary level). */
+    private transient Level[] levels;
+
+    /** The views for each resolution level (created when required). */
+    private transient ResolutionView[] views;
+
+    /**
+     * Opens a dataset.
+     *
+     * @param file  the file ({@code null} not permitted).
+     *
+     * @throws IOException if the file cannot be read or is not a dataset 
+     *     file.
+     */
+    public MappedXYDataset(File file) throws IOException {
+        Args.nullNotPermitted(file, "file");
+        this.file = file;
+        this.itemsPerPixel = 2.0;
+        open();
+    }
+
+    /**
+     * Maps the file.
+     *
+     * @throws IOException if the file cannot be read or is not a dataset 
+     *     file.
+     */
+    private void open() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(this.file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("The file is not a dataset file.");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 
+                    0L, Math.min(size, Integer.MAX_VALUE)).order(
+                    ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("The file is not a dataset file.");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported file version: " 
+                        + version);
+            }
+            this.valueSize = header.getInt();
+            int seriesCount = header.getInt();
+            long items = header.getLong();
+            this.blockSize = header.getInt();
+            this.levelFactor = header.getInt();
+            int levelCount = header.getInt();
+            header.getInt();  // reserved
+            if ((this.valueSize != 4 && this.valueSize != 8) 
+                    || seriesCount < 0 || items < 0 
+                    || items > Integer.MAX_VALUE || this.blockSize < 2
+                    || this.levelFactor < 2 || levelCount < 0) {
+                throw new IOException("The file header is invalid.");
+            }
+            this.itemCount = (int) items;
+            Charset utf8 = Charset.forName("UTF-8");
+            this.seriesKeys = new String[seriesCount];
+            for (int s = 0; s < seriesCount; s++) {
+                byte[] key = new byte[header.getInt()];
+                header.get(key);
+                this.seriesKeys[s] = new String(key, utf8);
+            }
+
+            long position = align(header.position());
+            this.xValues = new MappedRegion(channel, position, items, 8);
+            position += items * 8;
+            this.yValues = new MappedRegion[seriesCount];
+            for (int s = 0; s < seriesCount; s++) {
+                this.yValues[s] = new MappedRegion(channel, position, items,
+                        this.valueSize);
+                position += align(items * this.valueSize);
+            }
+            this.levels = new Level[levelCount];
+            long count = items;
+            for (int i = 0; i < levelCount; i++) {
+                int factor = i == 0 ? this.blockSize : this.levelFactor;
+                count = (count + factor - 1) / factor;
+                this.levels[i] = new Level(channel, position, (int) count, 
+                        seriesCount);
+                position += (2L + 4L * seriesCount) * count * 8;
+            }
+            if (position > size) {
+                throw new IOException("The file is incomplete.");
+            }
+        }
+        catch (RuntimeException e) {
+            // for example, a BufferUnderflowException for a short header
+            throw new IOException("The file header is invalid.", e);
+        }
+        finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Rounds a position up to a multiple of 8.
+     *
+     * @param position  the position.
+     *
+     * @return The aligned position.
+     */
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    /**
+     * Returns the file.
+     *
+     * @return The file (never {@code null}).
+     */
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Returns the number of items in the raw data.
+     *
+     * @return The item count.
+     */
+    public int getRawItemCount() {
+        return this.itemCount;
+    }
+
+    /**
+     * Returns the number of summary levels.  The resolution levels run from
+     * 0 (the raw data) to this number.
+     *
+     * @return The level count.
+     */
+    public int getSummaryLevelCount() {
+        return this.levels.length;
+    }
+
+    /**
+     * Returns the current resolution level.
+     *
+     * @return The level (0 is the raw data).
+     */
+    public int getResolutionLevel() {
+        return this.resolutionLevel;
+    }
+
+    /**
+     * Sets the resolution level and sends a change event to all registered
+     * listeners.  Note that an {@link org.jfree.chart.plot.XYPlot} draws a
+     * view at the level that suits the visible x-range (see 
+     * {@link #getView(Range, double)}) and does not use this setting.
+     *
+     * @param level  the level (from 0 to {@link #getSummaryLevelCount()}).
+     */
+    public void setResolutionLevel(int level) {
+        if (level < 0 || level > this.levels.length) {
+            throw new IllegalArgumentException("Invalid level: " + level);
+        }
+        this.resolutionLevel = level;
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns the maximum number of items per pixel for the level that is 
+     * selected by {@link #getView(Range, double)}.  The default 
+     * value is 2.
+     *
+     * @return The number of items per pixel.
+     */
+    public double getItemsPerPixel() {
+        return this.itemsPerPixel;
+    }
+
+    /**
+     * Sets the maximum number of items per pixel for the level that is
+     * selected by {@link #getView(Range, double)}, and sends a 
+     * change event to all registered listeners.
+     *
+     * @param itemsPerPixel  the number of items per pixel (greater than 
+     *     zero).
+     */
+    public void setItemsPerPixel(double itemsPerPixel) {
+        if (!(itemsPerPixel > 0.0)) {
+            throw new IllegalArgumentException(
+                    "Requires 'itemsPerPixel' > 0.");
+        }
+        this.itemsPerPixel = itemsPerPixel;
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns a read-only view of the data at the finest resolution level
+     * that has no more than {@code pixels * getItemsPerPixel()} items in the
+     * specified x-range (or at the coarsest level if there is no such
+     * level).  The view reads the same file as this dataset, but its level
+     * is fixed, so it can be drawn while the dataset is used elsewhere (for
+     * example, drawn by another plot with a different x-range).  This 
+     * dataset is not modified.
+     *
+     * @param xRange  the visible x-range ({@code null} not permitted).
+     * @param pixels  the length (in pixels) of the visible x-range.
+     *
+     * @return The view (never {@code null}).
+     */
+    @Override
+    public XYDataset getView(Range xRange, double pixels) {
+        Args.nullNotPermitted(xRange, "xRange");
+        return getLevelView(findLevel(xRange, Math.max(1.0, 
+                pixels * this.itemsPerPixel)));
+    }
+
+    /**
+     * Returns the finest level that has no more than {@code limit} items in
+     * the specified x-range.
+     *
+     * @param xRange  the x-range.
+     * @param limit  the item limit.
+     *
+     * @return The level.
+     */
+    private int findLevel(Range xRange, double limit) {
+        long count = findRawItem(xRange.getUpperBound(), false) 
+                - findRawItem(xRange.getLowerBound(), true) + 1;
+        int level = 0;
+        long itemsPerBlock = 1;
+        while (level < this.levels.length && count / itemsPerBlock + 2 
+                > limit) {
+            itemsPerBlock *= level == 0 ? this.blockSize : this.levelFactor;
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Returns the view of the data at a resolution level.
+     *
+     * @param level  the level.
+     *
+     * @return The view.
+     */
+    private ResolutionView getLevelView(int level) {
+        ResolutionView[] v = this.views;
+        if (v == null) {
+            v = new ResolutionView[this.levels.length + 1];
+            this.views = v;
+        }
+        if (v[level] == null) {
+            v[level] = new ResolutionView(level);
+        }
+        return v[level];
+    }
+
+    /**
+     * Returns the index of the first raw item with an x-value greater than
+     * or equal to {@code x}, or the index of the last raw item with an 
+     * x-value less than or equal to {@code x}.
+     *
+     * @param x  the x-value.
+     * @param first  find the first item at or after {@code x}?
+     *
+     * @return The item index (between -1 and the item count).
+     */
+    private int findRawItem(double x, boolean first) {
+        int low = 0;
+        int high = this.itemCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            double midX = this.xValues.getDouble(mid);
+            if (first ? midX < x : midX <= x) {
+                low = mid + 1;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+        return first ? low : high;
+    }
+
+    /**
+     * Returns the order of the x-values, which is always 
+     * {@link DomainOrder#ASCENDING}.
+     *
+     * @return The domain order.
+     */
+    @Override
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.ASCENDING;
+    }
+
+    /**
+     * Returns the number of series.
+     *
+     * @return The series count.
+     */
+    @Override
+    public int getSeriesCount() {
+        return this.seriesKeys.length;
+    }
+
+    /**
+     * Returns the key for a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The key.
+     */
+    @Override
+    public Comparable getSeriesKey(int series) {
+        return this.seriesKeys[series];
+    }
+
+    /**
+     * Returns the number of items (at the current resolution level) in a
+     * series.
+     *
+     * @param series  the series index (zero-based, ignored).
+     *
+     * @return The item count.
+     */
+    @Override
+    public int getItemCount(int series) {
+        return getLevelView(this.resolutionLevel).getItemCount(series);
+    }
+
+    /**
+     * Returns the x-value for an item (the middle of the block at summary 
+     * levels).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value.
+     */
+    @Override
+    public double getXValue(int series, int item) {
+        return getLevelView(this.resolutionLevel).getXValue(series, item);
+    }
+
+    /**
+     * Returns the start x-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The start x-value.
+     */
+    @Override
+    public double getStartXValue(int series, int item) {
+        return getLevelView(this.resolutionLevel).getStartXValue(series, 
+                item);
+    }
+
+    /**
+     * Returns the end x-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The end x-value.
+     */
+    @Override
+    public double getEndXValue(int series, int item) {
+        return getLevelView(this.resolutionLevel).getEndXValue(series, item);
+    }
+
+    /**
+     * Returns the y-value for an item (the mean value at summary levels).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value ({@code Double.NaN} for {@code null}).
+     */
+    @Override
+    public double getYValue(int series, int item) {
+        return getLevelView(this.resolutionLevel).getYValue(series, item);
+    }
+
+    /**
+     * Returns the start y-value for an item (the minimum value at summary
+     * levels).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The start y-value.
+     */
+    @Override
+    public double getStartYValue(int series, int item) {
+        return getLevelView(this.resolutionLevel).getStartYValue(series, 
+                item);
+    }
+
+    /**
+     * Returns the end y-value for an item (the maximum value at summary
+     * levels).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The end y-value.
+     */
+    @Override
+    public double getEndYValue(int series, int item) {
+        return getLevelView(this.resolutionLevel).getEndYValue(series, item);
+    }
+
+    /**
+     * Returns a y-value from the raw data.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value.
+     */
+    private double getRawYValue(int series, int item) {
+        MappedRegion y = this.yValues[series];
+        return this.valueSize == 4 ? y.getFloat(item) : y.getDouble(item);
+    }
+
+    /**
+     * Returns the x-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value.
+     */
+    @Override
+    public Number getX(int series, int item) {
+        return new Double(getXValue(series, item));
+    }
+
+    /**
+     * Returns the start x-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The start x-value.
+     */
+    @Override
+    public Number getStartX(int series, int item) {
+        return new Double(getStartXValue(series, item));
+    }
+
+    /**
+     * Returns the end x-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The end x-value.
+     */
+    @Override
+    public Number getEndX(int series, int item) {
+        return new Double(getEndXValue(series, item));
+    }
+
+    /**
+     * Returns the y-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value.
+     */
+    @Override
+    public Number getY(int series, int item) {
+        return new Double(getYValue(series, item));
+    }
+
+    /**
+     * Returns the start y-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The start y-value.
+     */
+    @Override
+    public Number getStartY(int series, int item) {
+        return new Double(getStartYValue(series, item));
+    }
+
+    /**
+     * Returns the end y-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The end y-value.
+     */
+    @Override
+    public Number getEndY(int series, int item) {
+        return new Double(getEndYValue(series, item));
+    }
+
+    /**
+     * Returns the minimum x-value.
+     *
+     * @param includeInterval  ignored (the intervals at the summary levels
+     *     are within the range of the raw x-values).
+     *
+     * @return The minimum x-value ({@code Double.NaN} if there are no 
+     *     items).
+     */
+    @Override
+    public double getDomainLowerBound(boolean includeInterval) {
+        return this.itemCount > 0 ? this.xValues.getDouble(0) : Double.NaN;
+    }
+
+    /**
+     * Returns the maximum x-value.
+     *
+     * @param includeInterval  ignored (the intervals at the summary levels
+     *     are within the range of the raw x-values).
+     *
+     * @return The maximum x-value ({@code Double.NaN} if there are no 
+     *     items).
+     */
+    @Override
+    public double getDomainUpperBound(boolean includeInterval) {
+        return this.itemCount > 0 
+                ? this.xValues.getDouble(this.itemCount - 1) : Double.NaN;
+    }
+
+    /**
+     * Returns the range of the x-values.
+     *
+     * @param includeInterval  ignored.
+     *
+     * @return The range ({@code null} if there are no items).
+     */
+    @Override
+    public Range getDomainBounds(boolean includeInterval) {
+        if (this.itemCount == 0) {
+            return null;
+        }
+        return new Range(getDomainLowerBound(includeInterval), 
+                getDomainUpperBound(includeInterval));
+    }
+
+    /**
+     * Returns the minimum y-value.
+     *
+     * @param includeInterval  ignored.
+     *
+     * @return The minimum y-value ({@code Double.NaN} if there are no 
+     *     y-values).
+     */
+    @Override
+    public double getRangeLowerBound(boolean includeInterval) {
+        Range r = getRangeBounds(includeInterval);
+        return r != null ? r.getLowerBound() : Double.NaN;
+    }
+
+    /**
+     * Returns the maximum y-value.
+     *
+     * @param includeInterval  ignored.
+     *
+     * @return The maximum y-value ({@code Double.NaN} if there are no 
+     *     y-values).
+     */
+    @Override
+    public double getRangeUpperBound(boolean includeInterval) {
+        Range r = getRangeBounds(includeInterval);
+        return r != null ? r.getUpperBound() : Double.NaN;
+    }
+
+    /**
+     * Returns the range of the y-values in all series, which is found from
+     * the coarsest summary level.
+     *
+     * @param includeInterval  ignored.
+     *
+     * @return The range ({@code null} if there are no y-values).
+     */
+    @Override
+    public Range getRangeBounds(boolean includeInterval) {
+        double[] bounds = {Double.NaN, Double.NaN};
+        for (int s = 0; s < this.seriesKeys.length; s++) {
+            accumulate(s, 0, 0L, this.itemCount, bounds);
+        }
+        return Double.isNaN(bounds[0]) ? null 
+                : new Range(bounds[0], bounds[1]);
+    }
+
+    /**
+     * Returns the range of the y-values for the specified series and 
+     * range of x-values.  The raw y-values are read only at the ends of the
+     * x-range, the summaries are used for the rest.
+     *
+     * @param visibleSeriesKeys  the keys of the series.
+     * @param xRange  the x-range ({@code null} not permitted).
+     * @param includeInterval  ignored.
+     *
+     * @return The range ({@code null} if there are no y-values).
+     */
+    @Override
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange,
+            boolean includeInterval) {
+        Args.nullNotPermitted(visibleSeriesKeys, "visibleSeriesKeys");
+        Args.nullNotPermitted(xRange, "xRange");
+        int first = findRawItem(xRange.getLowerBound(), true);
+        int last = findRawItem(xRange.getUpperBound(), false);
+        double[] bounds = {Double.NaN, Double.NaN};
+        if (first <= last) {
+            for (Object key : visibleSeriesKeys) {
+                int s = indexOf((Comparable) key);
+                if (s >= 0) {
+                    accumulate(s, 0, first, last + 1L, bounds);
+                }
+            }
+        }
+        return Double.isNaN(bounds[0]) ? null 
+                : new Range(bounds[0], bounds[1]);
+    }
+
+    /**
+     * Adds the minimum and maximum y-values for a range of items at a 
+     * level to {@code bounds}, using the next level for the blocks that 
+     * are completely inside the range.
+     *
+     * @param series  the series index.
+     * @param level  the level (0 for the raw data).
+     * @param from  the first item (at the level).
+     * @param to  the index after the last item.
+     * @param bounds  the minimum and maximum (updated by this method).
+     */
+    private void accumulate(int series, int level, long from, long to, 
+            double[] bounds) {
+        if (level < this.levels.length) {
+            long factor = level == 0 ? this.blockSize : this.levelFactor;
+            long a = (from + factor - 1) / factor;
+            long b = to / factor;
+            if (a < b) {
+                scan(series, level, from, a * factor, bounds);
+                accumulate(series, level + 1, a, b, bounds);
+                scan(series, level, b * factor, to, bounds);
+                return;
+            }
+        }
+        scan(series, level, from, to, bounds);
+    }
+
+    /**
+     * Adds the minimum and maximum y-values for a range of items at a 
+     * level to {@code bounds}.
+     *
+     * @param series  the series index.
+     * @param level  the level (0 for the raw data).
+     * @param from  the first item (at the level).
+     * @param to  the index after the last item.
+     * @param bounds  the minimum and maximum (updated by this method).
+     */
+    private void scan(int series, int level, long from, long to, 
+            double[] bounds) {
+        for (long i = from; i < to; i++) {
+            double lo;
+            double hi;
+            if (level == 0) {
+                lo = getRawYValue(series, (int) i);
+                hi = lo;
+            }
+            else {
+                lo = this.levels[level - 1].min[series].getDouble(i);
+                hi = this.levels[level - 1].max[series].getDouble(i);
+            }
+            // NaN values fail these tests, so they are skipped
+            if (lo < bounds[0] || (Double.isNaN(bounds[0]) && lo == lo)) {
+                bounds[0] = lo;
+            }
+            if (hi > bounds[1] || (Double.isNaN(bounds[1]) && hi == hi)) {
+                bounds[1] = hi;
+            }
+        }
+    }
+
+    /**
+     * Provides serialization support (the file is mapped again).
+     *
+     * @param stream  the input stream.
+     *
+     * @throws IOException  if there is an I/O error.
+     * @throws ClassNotFoundException  if there is a classpath problem.
+     */
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        open();
+    }
+
+    /**
+     * A read-only view of the data at a fixed resolution level.
+     */
+    private class ResolutionView extends AbstractIntervalXYDataset 
+            implements XYDatasetView {
+
+        /** The resolution level (0 is the raw data). */
+        private final int level;
+
+        /**
+         * Creates a new view.
+         *
+         * @param level  the level.
+         */
+        ResolutionView(int level) {
+            this.level = level;
+        }
+
+        @Override
+        public XYDataset getSourceDataset() {
+            return MappedXYDataset.this;
+        }
+
+        @Override
+        public DomainOrder getDomainOrder() {
+            return DomainOrder.ASCENDING;
+        }
+
+        @Override
+        public int getSeriesCount() {
+            return MappedXYDataset.this.getSeriesCount();
+        }
+
+        @Override
+        public Comparable getSeriesKey(int series) {
+            return MappedXYDataset.this.getSeriesKey(series);
+        }
+
+        @Override
+        public int getItemCount(int series) {
+            if (this.level == 0) {
+                return itemCount;
+            }
+            return levels[this.level - 1].count;
+        }
+
+        @Override
+        public double getXValue(int series, int item) {
+            if (this.level == 0) {
+                return xValues.getDouble(item);
+            }
+            Level l = levels[this.level - 1];
+            return (l.startX.getDouble(item) + l.endX.getDouble(item)) / 2.0;
+        }
+
+        @Override
+        public double getStartXValue(int series, int item) {
+            if (this.level == 0) {
+                return xValues.getDouble(item);
+            }
+            return levels[this.level - 1].startX.getDouble(item);
+        }
+
+        @Override
+        public double getEndXValue(int series, int item) {
+            if (this.level == 0) {
+                return xValues.getDouble(item);
+            }
+            return levels[this.level - 1].endX.getDouble(item);
+        }
+
+        @Override
+        public double getYValue(int series, int item) {
+            if (this.level == 0) {
+                return getRawYValue(series, item);
+            }
+            return levels[this.level - 1].mean[series].getDouble(item);
+        }
+
+        @Override
+        public double getStartYValue(int series, int item) {
+            if (this.level == 0) {
+                return getRawYValue(series, item);
+            }
+            return levels[this.level - 1].min[series].getDouble(item);
+        }
+
+        @Override
+        public double getEndYValue(int series, int item) {
+            if (this.level == 0) {
+                return getRawYValue(series, item);
+            }
+            return levels[this.level - 1].max[series].getDouble(item);
+        }
+
+        @Override
+        public Number getX(int series, int item) {
+            return new Double(getXValue(series, item));
+        }
+
+        @Override
+        public Number getStartX(int series, int item) {
+            return new Double(getStartXValue(series, item));
+        }
+
+        @Override
+        public Number getEndX(int series, int item) {
+            return new Double(getEndXValue(series, item));
+        }
+
+        @Override
+        public Number getY(int series, int item) {
+            return new Double(getYValue(series, item));
+        }
+
+        @Override
+        public Number getStartY(int series, int item) {
+            return new Double(getStartYValue(series, item));
+        }
+
+        @Override
+        public Number getEndY(int series, int item) {
+            return new Double(getEndYValue(series, item));
+        }
+
+    }
+
+    /**
+     * Values of one type in a mapped part of the file.  A region larger 
+     * than 1GB is mapped in several segments.
+     */
+    private static final class MappedRegion {
+
+        /** The number of bits for the offset within a segment. */
+        private static final int SEGMENT_BITS = 30;
+
+        /** The segments. */
+        private final ByteBuffer[] segments;
+
+        /**
+         * Maps a region of a file.
+         *
+         * @param channel  the file channel.
+         * @param position  the position of the region.
+         * @param count  the number of values.
+         * @param size  the size of each value in bytes (4 or 8).
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        MappedRegion(FileChannel channel, long position, long count, 
+                int size) throws IOException {
+            long length = count * size;
+            long segmentSize = 1L << SEGMENT_BITS;
+            int segmentCount = (int) ((length + segmentSize - 1) 
+                    / segmentSize);
+            this.segments = new ByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long start = i * segmentSize;
+                this.segments[i] = channel.map(
+                        FileChannel.MapMode.READ_ONLY, position + start, 
+                        Math.min(segmentSize, length - start)).order(
+                        ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        /**
+         * Returns a {@code double} value.
+         *
+         * @param index  the value index.
+         *
+         * @return The value.
+         */
+        double getDouble(long index) {
+            long offset = index << 3;
+            return this.segments[(int) (offset >>> SEGMENT_BITS)].getDouble(
+                    (int) (offset & ((1L << SEGMENT_BITS) - 1)));
+        }
+
+        /**
+         * Returns a {@code float} value.
+         *
+         * @param index  the value index.
+         *
+         * @return The value.
+         */
+        double getFloat(long index) {
+            long offset = index << 2;
+            return this.segments[(int) (offset >>> SEGMENT_BITS)].getFloat(
+                    (int) (offset & ((1L << SEGMENT_BITS) - 1)));
+        }
+
+    }
+
+    /**
+     * The mapped regions for one summary level.
+     */
+    private static final class Level {
+
+        /** The number of blocks. */
+        final int count;
+
+        /** The first x-value in each block. */
+        final MappedRegion startX;
+
+        /** The last x-value in each block. */
+        final MappedRegion endX;
+
+        /** The minimum y-values for each series. */
+        final MappedRegion[] min;
+
+        /** The maximum y-values for each series. */
+        final MappedRegion[] max;
+
+        /** The mean y-values for each series. */
+        final MappedRegion[] mean;
+
+        /**
+         * Maps a summary level.
+         *
+         * @param channel  the file channel.
+         * @param position  the position of the level.
+         * @param count  the number of blocks.
+         * @param seriesCount  the number of series.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        Level(FileChannel channel, long position, int count, 
+                int seriesCount) throws IOException {
+            this.count = count;
+            long length = count * 8L;
+            this.startX = new MappedRegion(channel, position, count, 8);
+            this.endX = new MappedRegion(channel, position + length, count, 
+                    8);
+            this.min = new MappedRegion[seriesCount];
+            this.max = new MappedRegion[seriesCount];
+            this.mean = new MappedRegion[seriesCount];
+            long p = position + 2 * length;
+            for (int s = 0; s < seriesCount; s++) {
+                this.min[s] = new MappedRegion(channel, p, count, 8);
+                this.max[s] = new MappedRegion(channel, p + length, count, 
+                        8);
+                this.mean[s] = new MappedRegion(channel, p + 2 * length, 
+                        count, 8);
+                // (the counts follow the means, they are only needed by 
+                // the writer)
+                p += 4 * length;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,598 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------------------
+ * MappedXYDatasetWriter.java
+ * --------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.xy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import org.jfree.chart.util.Args;
+
+/**
+ * Writes a file for a {@link MappedXYDataset}.  The items are added one 
+ * row at a time (an x-value and one y-value per series) in ascending order
+ * of x-value, and the file is completed by {@link #close()}.  While the 
+ * file is being written, the columns are held in temporary files in the 
+ * same directory, so the amount of data is not limited by the heap.
+ * <p>
+ * The file starts with a header (see {@link MappedXYDataset}), followed by
+ * the x-values, the y-values for each series and then the summaries: the 
+ * first x-value, last x-value, and for each series the minimum, maximum 
+ * and mean y-value and the number of y-values for each block of 
+ * {@code blockSize} items, then the same for each block of 
+ * {@link #LEVEL_FACTOR} blocks, and so on.  All values are little-endian.
+ *
+ * @since 1.5
+ */
+public class MappedXYDatasetWriter {
+
+    /** The default number of items in each block of the first summary. */
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    /** 
+     * The number of blocks at each summary level that are combined into one
+     * block at the next level.
+     */
+    public static final int LEVEL_FACTOR = 16;
+
+    /** The size of the buffer for each column. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** The file. */
+    private final File file;
+
+    /** The series keys. */
+    private final String[] seriesKeys;
+
+    /** Store the y-values as floats? */
+    private final boolean floatValues;
+
+    /** The number of items in each block of the first summary. */
+    private final int blockSize;
+
+    /** The temporary files for the columns (x first). */
+    private final File[] columnFiles;
+
+    /** The channels for the columns. */
+    private final FileChannel[] channels;
+
+    /** The buffers for the columns. */
+    private final ByteBuffer[] buffers;
+
+    /** The number of items. */
+    private long itemCount;
+
+    /** The last x-value. */
+    private double lastX;
+
+    /** The summaries for the first level. */
+    private Summary summary;
+
+    /** The number of items in the current block. */
+    private int blockItems;
+
+    /** A flag that indicates whether or not the writer is closed. */
+    private boolean closed;
+
+    /**
+     * Creates a writer with the default block size.
+     *
+     * @param file  the file ({@code null} not permitted).
+     * @param seriesKeys  the series keys ({@code null} not permitted).
+     * @param floatValues  store the y-values as {@code float} rather than 
+     *     {@code double} values?
+     *
+     * @throws IOException if the temporary files cannot be created.
+     */
+    public MappedXYDatasetWriter(File file, String[] seriesKeys, 
+            boolean floatValues) throws IOException {
+        this(file, seriesKeys, floatValues, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param file  the file ({@code null} not permitted).
+     * @param seriesKeys  the series keys ({@code null} not permitted).
+     * @param floatValues  store the y-values as {@code float} rather than 
+     *     {@code double} values?
+     * @param blockSize  the number of items in each block of the first 
+     *     summary level (at least 2).
+     *
+     * @throws IOException if the temporary files cannot be created.
+     */
+    public MappedXYDatasetWriter(File file, String[] seriesKeys, 
+            boolean floatValues, int blockSize) throws IOException {
+        Args.nullNotPermitted(file, "file");
+        Args.nullNotPermitted(seriesKeys, "seriesKeys");
+        if (blockSize < 2) {
+            throw new IllegalArgumentException("Requires 'blockSize' >= 2.");
+        }
+        for (String key : seriesKeys) {
+            Args.nullNotPermitted(key, "key");
+        }
+        this.file = file;
+        this.seriesKeys = seriesKeys.clone();
+        this.floatValues = floatValues;
+        this.blockSize = blockSize;
+        int columns = seriesKeys.length + 1;
+        this.columnFiles = new File[columns];
+        this.channels = new FileChannel[columns];
+        this.buffers = new ByteBuffer[columns];
+        File dir = file.getAbsoluteFile().getParentFile();
+        try {
+            for (int c = 0; c < columns; c++) {
+                this.columnFiles[c] = File.createTempFile("jfreechart", 
+                        ".tmp", dir);
+                this.channels[c] = new RandomAccessFile(this.columnFiles[c],
+                        "rw").getChannel();
+                this.buffers[c] = ByteBuffer.allocate(BUFFER_SIZE).order(
+                        ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        catch (IOException e) {
+            discard();
+            throw e;
+        }
+        this.summary = new Summary(seriesKeys.length, 1024);
+        this.lastX = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Returns the number of items that have been added.
+     *
+     * @return The item count.
+     */
+    public long getItemCount() {
+        return this.itemCount;
+    }
+
+    /**
+     * Adds an item.
+     *
+     * @param x  the x-value (not less than the previous x-value).
+     * @param y  the y-values, one for each series ({@code Double.NaN} for
+     *     {@code null}).
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public void add(double x, double... y) throws IOException {
+        if (this.closed) {
+            throw new IllegalStateException("The writer is closed.");
+        }
+        if (y.length != this.seriesKeys.length) {
+            throw new IllegalArgumentException("Requires one y-value for "
+                    + "each series.");
+        }
+        if (!(x >= this.lastX)) {
+            throw new IllegalArgumentException("The x-values must be in "
+                    + "ascending order (" + x + " follows " + this.lastX 
+                    + ").");
+        }
+        put(0, x, false);
+        for (int s = 0; s < y.length; s++) {
+            put(s + 1, y[s], this.floatValues);
+        }
+        if (this.blockItems == 0) {
+            this.summary.startBlock(x);
+        }
+        this.summary.addItem(x, y);
+        this.blockItems++;
+        if (this.blockItems == this.blockSize) {
+            this.summary.endBlock();
+            this.blockItems = 0;
+        }
+        this.lastX = x;
+        this.itemCount++;
+    }
+
+    /**
+     * Writes a value to a column.
+     *
+     * @param column  the column.
+     * @param value  the value.
+     * @param asFloat  write a {@code float}?
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private void put(int column, double value, boolean asFloat) 
+            throws IOException {
+        ByteBuffer buffer = this.buffers[column];
+        if (buffer.remaining() < 8) {
+            flush(column);
+        }
+        if (asFloat) {
+            buffer.putFloat((float) value);
+        }
+        else {
+            buffer.putDouble(value);
+        }
+    }
+
+    /**
+     * Writes the contents of a column buffer to the column file.
+     *
+     * @param column  the column.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private void flush(int column) throws IOException {
+        ByteBuffer buffer = this.buffers[column];
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            this.channels[column].write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Completes the file.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            if (this.blockItems > 0) {
+                this.summary.endBlock();
+            }
+            for (int c = 0; c < this.channels.length; c++) {
+                flush(c);
+            }
+            writeFile();
+        }
+        finally {
+            discard();
+        }
+    }
+
+    /**
+     * Writes the header, the columns and the summaries to the file.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private void writeFile() throws IOException {
+        // build the summary levels
+        Summary[] levels = new Summary[] {this.summary};
+        if (this.summary.count == 0) {
+            levels = new Summary[0];
+        }
+        while (levels.length > 0 
+                && levels[levels.length - 1].count > LEVEL_FACTOR) {
+            levels = Arrays.copyOf(levels, levels.length + 1);
+            levels[levels.length - 1] = levels[levels.length - 2].combine(
+                    LEVEL_FACTOR);
+        }
+
+        RandomAccessFile raf = new RandomAccessFile(this.file, "rw");
+        try {
+            raf.setLength(0L);
+            FileChannel out = raf.getChannel();
+            Charset utf8 = Charset.forName("UTF-8");
+            int headerSize = MappedXYDataset.HEADER_SIZE;
+            byte[][] keys = new byte[this.seriesKeys.length][];
+            for (int s = 0; s < keys.length; s++) {
+                keys[s] = this.seriesKeys[s].getBytes(utf8);
+                headerSize += 4 + keys[s].length;
+            }
+            ByteBuffer header = ByteBuffer.allocate(headerSize + 8).order(
+                    ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MappedXYDataset.MAGIC);
+            header.putInt(MappedXYDataset.VERSION);
+            header.putInt(this.floatValues ? 4 : 8);
+            header.putInt(this.seriesKeys.length);
+            header.putLong(this.itemCount);
+            header.putInt(this.blockSize);
+            header.putInt(LEVEL_FACTOR);
+            header.putInt(levels.length);
+            header.putInt(0);  // reserved
+            for (byte[] key : keys) {
+                header.putInt(key.length);
+                header.put(key);
+            }
+            pad(header);
+            header.flip();
+            write(out, header);
+
+            // the columns
+            for (int c = 0; c < this.channels.length; c++) {
+                FileChannel in = this.channels[c];
+                long size = in.size();
+                long position = 0L;
+                while (position < size) {
+                    position += in.transferTo(position, size - position, 
+                            out);
+                }
+                if (size % 8 != 0) {
+                    write(out, ByteBuffer.allocate((int) (8 - size % 8)));
+                }
+            }
+
+            // the summaries
+            for (Summary level : levels) {
+                level.write(out);
+            }
+        }
+        finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Pads a buffer to a multiple of 8 bytes.
+     *
+     * @param buffer  the buffer.
+     */
+    private static void pad(ByteBuffer buffer) {
+        while (buffer.position() % 8 != 0) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * Writes all of a buffer to a channel.
+     *
+     * @param out  the channel.
+     * @param buffer  the buffer.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static void write(FileChannel out, ByteBuffer buffer) 
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * Closes and deletes the temporary files.
+     */
+    private void discard() {
+        for (int c = 0; c < this.columnFiles.length; c++) {
+            if (this.channels[c] != null) {
+                try {
+                    this.channels[c].close();
+                }
+                catch (IOException e) {
+                    // nothing more can be done
+                }
+            }
+            if (this.columnFiles[c] != null) {
+                this.columnFiles[c].delete();
+            }
+        }
+    }
+
+    /**
+     * The summaries for one level.
+     */
+    private static final class Summary {
+
+        /** The number of blocks. */
+        int count;
+
+        /** The first x-value in each block. */
+        double[] startX;
+
+        /** The last x-value in each block. */
+        double[] endX;
+
+        /** The minimum y-values for each series. */
+        double[][] min;
+
+        /** The maximum y-values for each series. */
+        double[][] max;
+
+        /** The mean y-values (the sums while a block is open). */
+        double[][] mean;
+
+        /** The numbers of y-values. */
+        double[][] n;
+
+        /**
+         * Creates an empty summary.
+         *
+         * @param seriesCount  the number of series.
+         * @param capacity  the initial capacity.
+         */
+        Summary(int seriesCount, int capacity) {
+            this.startX = new double[capacity];
+            this.endX = new double[capacity];
+            this.min = new double[seriesCount][capacity];
+            this.max = new double[seriesCount][capacity];
+            this.mean = new double[seriesCount][capacity];
+            this.n = new double[seriesCount][capacity];
+        }
+
+        /**
+         * Starts a new block.
+         *
+         * @param x  the first x-value.
+         */
+        void startBlock(double x) {
+            if (this.count == this.startX.length) {
+                int capacity = this.count * 2;
+                this.startX = Arrays.copyOf(this.startX, capacity);
+                this.endX = Arrays.copyOf(this.endX, capacity);
+                for (int s = 0; s < this.min.length; s++) {
+                    this.min[s] = Arrays.copyOf(this.min[s], capacity);
+                    this.max[s] = Arrays.copyOf(this.max[s], capacity);
+                    this.mean[s] = Arrays.copyOf(this.mean[s], capacity);
+                    this.n[s] = Arrays.copyOf(this.n[s], capacity);
+                }
+            }
+            int b = this.count;
+            this.startX[b] = x;
+            for (int s = 0; s < this.min.length; s++) {
+                this.min[s][b] = Double.NaN;
+                this.max[s][b] = Double.NaN;
+                this.mean[s][b] = 0.0;
+                this.n[s][b] = 0.0;
+            }
+        }
+
+        /**
+         * Adds an item (or the summary of a block) to the open block.
+         *
+         * @param x  the x-value.
+         * @param y  the y-values.
+         */
+        void addItem(double x, double[] y) {
+            int b = this.count;
+            this.endX[b] = x;
+            for (int s = 0; s < y.length; s++) {
+                add(s, y[s], y[s], y[s], 1.0);
+            }
+        }
+
+        /**
+         * Adds values to the open block for one series.
+         *
+         * @param s  the series.
+         * @param lo  the minimum value.
+         * @param hi  the maximum value.
+         * @param mean  the mean value.
+         * @param n  the number of values.
+         */
+        private void add(int s, double lo, double hi, double mean, 
+                double n) {
+            if (Double.isNaN(mean) || n == 0.0) {
+                return;
+            }
+            int b = this.count;
+            if (!(this.min[s][b] <= lo)) {
+                this.min[s][b] = lo;
+            }
+            if (!(this.max[s][b] >= hi)) {
+                this.max[s][b] = hi;
+            }
+            this.mean[s][b] += mean * n;
+            this.n[s][b] += n;
+        }
+
+        /**
+         * Completes the open block.
+         */
+        void endBlock() {
+            int b = this.count;
+            for (int s = 0; s < this.min.length; s++) {
+                this.mean[s][b] = this.n[s][b] > 0.0 
+                        ? this.mean[s][b] / this.n[s][b] : Double.NaN;
+            }
+            this.count++;
+        }
+
+        /**
+         * Creates the next summary level.
+         *
+         * @param factor  the number of blocks to combine.
+         *
+         * @return The next level.
+         */
+        Summary combine(int factor) {
+            int seriesCount = this.min.length;
+            Summary result = new Summary(seriesCount, 
+                    (this.count + factor - 1) / factor);
+            for (int b = 0; b < this.count; b++) {
+                if (b % factor == 0) {
+                    result.startBlock(this.startX[b]);
+                }
+                result.endX[result.count] = this.endX[b];
+                for (int s = 0; s < seriesCount; s++) {
+                    result.add(s, this.min[s][b], this.max[s][b], 
+                            this.mean[s][b], this.n[s][b]);
+                }
+                if (b % factor == factor - 1 || b == this.count - 1) {
+                    result.endBlock();
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Writes the summary.
+         *
+         * @param out  the channel.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void write(FileChannel out) throws IOException {
+            writeArray(out, this.startX);
+            writeArray(out, this.endX);
+            for (int s = 0; s < this.min.length; s++) {
+                writeArray(out, this.min[s]);
+                writeArray(out, this.max[s]);
+                writeArray(out, this.mean[s]);
+                writeArray(out, this.n[s]);
+            }
+        }
+
+        /**
+         * Writes the first {@code count} values of an array.
+         *
+         * @param out  the channel.
+         * @param values  the values.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        private void writeArray(FileChannel out, double[] values) 
+                throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(
+                    ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < this.count; i++) {
+                if (!buffer.hasRemaining()) {
+                    buffer.flip();
+                    MappedXYDatasetWriter.write(out, buffer);
+                    buffer.clear();
+                }
+                buffer.putDouble(values[i]);
+            }
+            buffer.flip();
+            MappedXYDatasetWriter.write(out, buffer);
+        }
+
+    }
+
+}
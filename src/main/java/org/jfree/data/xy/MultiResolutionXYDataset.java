@@ -0,0 +1,71 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -----------------------------
+ * MultiResolutionXYDataset.java
+ * -----------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.xy;
+
+import org.jfree.data.Range;
+
+/**
+ * An {@link XYDataset} that can present its data at more than one
+ * resolution (for example, raw values and values aggregated over fixed
+ * time intervals).  When a dataset of this type is drawn, the
+ * {@link org.jfree.chart.plot.XYPlot} passes the renderer the view
+ * returned by {@link #getView(Range, double)}, so that the number of items
+ * the renderer visits is bounded by the size of the data area rather than
+ * by the size of the dataset.
+ *
+ * @since 1.5
+ */
+public interface MultiResolutionXYDataset extends XYDataset {
+
+    /**
+     * Returns a read-only view of the data at the resolution that suits
+     * displaying the specified range of x-values over the specified number
+     * of pixels.  The resolution of the view does not change (so the view
+     * can be used for a complete drawing pass, while the dataset is used
+     * elsewhere), and this dataset is not modified.  Views should implement
+     * {@link XYDatasetView}, so that the plot can map them back to this
+     * dataset.
+     *
+     * @param xRange  the visible range of x-values ({@code null} not
+     *     permitted).
+     * @param pixels  the length (in pixels) of the visible x-range.
+     *
+     * @return The view (never {@code null}).
+     */
+    public XYDataset getView(Range xRange, double pixels);
+
+}
@@ -0,0 +1,57 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ------------------
+ * XYDatasetView.java
+ * ------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.xy;
+
+/**
+ * A read-only view of an {@link XYDataset} (for example, a subset of the
+ * items selected for drawing) that a plot passes to its renderer in place
+ * of the dataset that was added to the plot.  The plot uses
+ * {@link #getSourceDataset()} to map the view back to the original dataset
+ * (for example, to find the dataset index and the axes for the dataset).
+ *
+ * @since 1.5
+ */
+public interface XYDatasetView extends XYDataset {
+
+    /**
+     * Returns the dataset that this view presents.
+     *
+     * @return The source dataset (never {@code null}).
+     */
+    public XYDataset getSourceDataset();
+
+}
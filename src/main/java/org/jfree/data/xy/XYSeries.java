@@ -86,6 +86,7 @@ import java.util.Iterator;
 import java.util.List;
 import org.jfree.chart.util.ObjectUtils;
 import org.jfree.chart.util.Args;
+import org.jfree.data.Range;
 
 import org.jfree.data.general.Series;
 import org.jfree.data.general.SeriesChangeEvent;
@@ -97,6 +98,15 @@ import org.jfree.data.general.SeriesException;
  * and duplicate x-values are permitted.  Both the sorting and duplicate
  * defaults can be changed in the constructor.  Y-values can be
  * {@code null} to represent missing values.
+ * <p>
+ * A series can also be created with columnar storage (see
+ * {@link #XYSeries(Comparable, boolean, boolean, boolean)}), in which case
+ * the x and y-values are held in primitive arrays rather than as
+ * {@link XYDataItem} instances.  This uses much less memory for large series
+ * and {@link #getXValue(int)} and {@link #getYValue(int)} can read values
+ * without allocating any objects.  For a columnar series, the data items
+ * returned by {@link #getDataItem(int)} and {@link #getItems()} are created
+ * on demand.
  */
 public class XYSeries extends Series implements Cloneable, Serializable {
 
@@ -134,6 +144,20 @@ public class XYSeries extends Series implements Cloneable, Serializable {
     /** The highest y-value in the series, excluding Double.NaN values. */
     private double maxY;
 
+    /**
+     * A flag that indicates that the cached bounds (minX, maxX, minY and
+     * maxY) need to be recalculated before they are next used.  Rather than
+     * iterating over all the items every time an item at the edge of the
+     * bounds is removed, the bounds are recalculated lazily.
+     */
+    private boolean boundsStale;
+
+    /**
+     * A flag that indicates that the series (may) contain items with an
+     * x-value of Double.NaN, which are excluded from any x-range.
+     */
+    private boolean containsNaNX;
+
     /**
      * Creates a new empty series.  By default, items added to the series will
      * be sorted into ascending order by x-value, and duplicate x-values will
@@ -169,8 +193,35 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      */
     public XYSeries(Comparable key, boolean autoSort,
             boolean allowDuplicateXValues) {
+        this(key, autoSort, allowDuplicateXValues, false);
+    }
+
+    /**
+     * Constructs a new xy-series that contains no data, optionally using
+     * columnar storage for the data values.  Columnar storage holds the
+     * x and y-values in growable {@code double[]} arrays, which is much more
+     * compact than the default storage (a list of {@link XYDataItem}
+     * objects) for series with a large number of items.
+     *
+     * @param key  the series key ({@code null} not permitted).
+     * @param autoSort  a flag that controls whether or not the items in the
+     *                  series are sorted.
+     * @param allowDuplicateXValues  a flag that controls whether duplicate
+     *                               x-values are allowed.
+     * @param columnar  a flag that controls whether or not the data values
+     *                  are stored in primitive arrays.
+     *
+     * @since 1.5
+     */
+    public XYSeries(Comparable key, boolean autoSort,
+            boolean allowDuplicateXValues, boolean columnar) {
         super(key);
-        this.data = new java.util.ArrayList();
+        if (columnar) {
+            this.data = new XYSeriesColumns(autoSort);
+        }
+        else {
+            this.data = new java.util.ArrayList();
+        }
         this.autoSort = autoSort;
         this.allowDuplicateXValues = allowDuplicateXValues;
         this.minX = Double.NaN;
@@ -191,6 +242,7 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      * @since 1.0.13
      */
     public double getMinX() {
+        ensureBoundsAreCurrent();
         return this.minX;
     }
 
@@ -206,6 +258,7 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      * @since 1.0.13
      */
     public double getMaxX() {
+        ensureBoundsAreCurrent();
         return this.maxX;
     }
 
@@ -221,6 +274,7 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      * @since 1.0.13
      */
     public double getMinY() {
+        ensureBoundsAreCurrent();
         return this.minY;
     }
 
@@ -236,9 +290,81 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      * @since 1.0.13
      */
     public double getMaxY() {
+        ensureBoundsAreCurrent();
         return this.maxY;
     }
 
+    /**
+     * Returns the range of y-values for the items in the series that have
+     * x-values within the specified range, ignoring any {@code null} and
+     * {@code Double.NaN} y-values.  When the x-range spans all the items in
+     * the series, the cached bounds are used.  For a series that is sorted
+     * by x-value, the items in the x-range are located by a binary search.
+     *
+     * @param xRange  the x-range ({@code null} not permitted).
+     *
+     * @return The range of y-values ({@code null} if the series is empty,
+     *     and a range with {@code Double.NaN} bounds if there are no
+     *     y-values within the x-range).
+     *
+     * @since 1.5
+     */
+    public Range findValueRange(Range xRange) {
+        Args.nullNotPermitted(xRange, "xRange");
+        int itemCount = getItemCount();
+        if (itemCount == 0) {
+            return null;
+        }
+        if (xRange.contains(getMinX()) && xRange.contains(getMaxX())
+                && !this.containsNaNX) {
+            return new Range(getMinY(), getMaxY());
+        }
+        int start = 0;
+        int end = itemCount;
+        if (this.autoSort) {
+            start = findFirstIndex(xRange.getLowerBound(), false);
+            end = findFirstIndex(xRange.getUpperBound(), true);
+        }
+        double lowY = Double.NaN;
+        double highY = Double.NaN;
+        for (int i = start; i < end; i++) {
+            if (xRange.contains(getXValue(i))) {
+                double y = getYValue(i);
+                lowY = minIgnoreNaN(lowY, y);
+                highY = maxIgnoreNaN(highY, y);
+            }
+        }
+        return new Range(lowY, highY);
+    }
+
+    /**
+     * Returns the index of the first item with an x-value greater than
+     * {@code x} (or greater than or equal to {@code x} if {@code strict} is
+     * {@code false}), or the item count if there is no such item.  This
+     * method requires the series to be sorted by x-value.
+     *
+     * @param x  the x-value.
+     * @param strict  a flag that controls whether items with an x-value equal
+     *     to {@code x} are skipped.
+     *
+     * @return The item index.
+     */
+    private int findFirstIndex(double x, boolean strict) {
+        int low = 0;
+        int high = getItemCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            double midX = getXValue(mid);
+            if (midX < x || (strict && midX == x)) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
     /**
      * Updates the cached values for the minimum and maximum data values.
      *
@@ -247,13 +373,26 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      * @since 1.0.13
      */
     private void updateBoundsForAddedItem(XYDataItem item) {
-        double x = item.getXValue();
+        updateBoundsForAddedItem(item.getXValue(), item.getYValue());
+    }
+
+    /**
+     * Updates the cached values for the minimum and maximum data values.
+     *
+     * @param x  the x-value of the item added.
+     * @param y  the y-value of the item added (Double.NaN for a
+     *     {@code null} y-value).
+     */
+    private void updateBoundsForAddedItem(double x, double y) {
+        if (this.boundsStale) {
+            return;
+        }
         this.minX = minIgnoreNaN(this.minX, x);
         this.maxX = maxIgnoreNaN(this.maxX, x);
-        if (item.getY() != null) {
-            double y = item.getYValue();
-            this.minY = minIgnoreNaN(this.minY, y);
-            this.maxY = maxIgnoreNaN(this.maxY, y);
+        this.minY = minIgnoreNaN(this.minY, y);
+        this.maxY = maxIgnoreNaN(this.maxY, y);
+        if (Double.isNaN(x)) {
+            this.containsNaNX = true;
         }
     }
 
@@ -266,36 +405,85 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      * @since 1.0.13
      */
     private void updateBoundsForRemovedItem(XYDataItem item) {
+        updateBoundsForRemovedItem(item.getXValue(), item.getYValue());
+    }
+
+    /**
+     * Updates the cached values for the minimum and maximum data values on
+     * the basis that an item with the specified values has just been removed.
+     *
+     * @param x  the x-value of the item removed.
+     * @param y  the y-value of the item removed (Double.NaN for a
+     *     {@code null} y-value).
+     */
+    private void updateBoundsForRemovedItem(double x, double y) {
+        if (this.boundsStale) {
+            return;
+        }
         boolean itemContributesToXBounds = false;
         boolean itemContributesToYBounds = false;
-        double x = item.getXValue();
         if (!Double.isNaN(x)) {
             if (x <= this.minX || x >= this.maxX) {
                 itemContributesToXBounds = true;
             }
         }
-        if (item.getY() != null) {
-            double y = item.getYValue();
-            if (!Double.isNaN(y)) {
-                if (y <= this.minY || y >= this.maxY) {
-                    itemContributesToYBounds = true;
-                }
+        if (!Double.isNaN(y)) {
+            if (y <= this.minY || y >= this.maxY) {
+                itemContributesToYBounds = true;
             }
         }
         if (itemContributesToYBounds) {
-            findBoundsByIteration();
+            invalidateBounds();
         }
         else if (itemContributesToXBounds) {
             if (getAutoSort()) {
-                this.minX = getX(0).doubleValue();
-                this.maxX = getX(getItemCount() - 1).doubleValue();
+                this.minX = getXValue(0);
+                this.maxX = getXValue(getItemCount() - 1);
             }
             else {
-                findBoundsByIteration();
+                invalidateBounds();
             }
         }
     }
 
+    /**
+     * Updates the cached values for the minimum and maximum y-values on the
+     * basis that the y-value for one item has changed.
+     *
+     * @param oldY  the previous y-value (Double.NaN for {@code null}).
+     * @param y  the new y-value ({@code null} permitted).
+     */
+    private void updateBoundsForChangedY(double oldY, Number y) {
+        if (this.boundsStale) {
+            return;
+        }
+        if (!Double.isNaN(oldY) && (oldY <= this.minY || oldY >= this.maxY)) {
+            invalidateBounds();
+        }
+        else if (y != null) {
+            double yy = y.doubleValue();
+            this.minY = minIgnoreNaN(this.minY, yy);
+            this.maxY = maxIgnoreNaN(this.maxY, yy);
+        }
+    }
+
+    /**
+     * Marks the cached bounds as stale, so that they will be recalculated
+     * the next time they are required.
+     */
+    private void invalidateBounds() {
+        this.boundsStale = true;
+    }
+
+    /**
+     * Recalculates the cached bounds if they are stale.
+     */
+    private void ensureBoundsAreCurrent() {
+        if (this.boundsStale) {
+            findBoundsByIteration();
+        }
+    }
+
     /**
      * Finds the bounds of the x and y values for the series, by iterating
      * through all the data items.
@@ -303,10 +491,21 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      * @since 1.0.13
      */
     private void findBoundsByIteration() {
+        this.boundsStale = false;
+        this.containsNaNX = false;
         this.minX = Double.NaN;
         this.maxX = Double.NaN;
         this.minY = Double.NaN;
         this.maxY = Double.NaN;
+        XYSeriesColumns columns = columns();
+        if (columns != null) {
+            int count = columns.size();
+            for (int i = 0; i < count; i++) {
+                updateBoundsForAddedItem(columns.getXValue(i),
+                        columns.getYValue(i));
+            }
+            return;
+        }
         Iterator iterator = this.data.iterator();
         while (iterator.hasNext()) {
             XYDataItem item = (XYDataItem) iterator.next();
@@ -314,6 +513,19 @@ public class XYSeries extends Series implements Cloneable, Serializable {
         }
     }
 
+    /**
+     * Returns the columnar storage for the series, or {@code null} if the
+     * series does not use columnar storage.
+     *
+     * @return The columnar storage (possibly {@code null}).
+     */
+    private XYSeriesColumns columns() {
+        if (this.data instanceof XYSeriesColumns) {
+            return (XYSeriesColumns) this.data;
+        }
+        return null;
+    }
+
     /**
      * Returns the flag that controls whether the items in the series are
      * automatically sorted.  There is no setter for this flag, it must be
@@ -335,6 +547,19 @@ public class XYSeries extends Series implements Cloneable, Serializable {
         return this.allowDuplicateXValues;
     }
 
+    /**
+     * Returns {@code true} if the data values for this series are held in
+     * columnar storage (primitive arrays), and {@code false} otherwise.
+     * This can only be set in the constructor.
+     *
+     * @return A boolean.
+     *
+     * @since 1.5
+     */
+    public boolean isColumnar() {
+        return this.data instanceof XYSeriesColumns;
+    }
+
     /**
      * Returns the number of items in the series.
      *
@@ -388,7 +613,7 @@ public class XYSeries extends Series implements Cloneable, Serializable {
         int remove = this.data.size() - maximum;
         if (remove > 0) {
             this.data.subList(0, remove).clear();
-            findBoundsByIteration();
+            invalidateBounds();
             fireSeriesChanged();
         }
     }
@@ -412,7 +637,7 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      * @param y  the y value.
      */
     public void add(double x, double y) {
-        add(new Double(x), new Double(y), true);
+        add(x, y, true);
     }
 
     /**
@@ -426,6 +651,10 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      *                listeners.
      */
     public void add(double x, double y, boolean notify) {
+        if (columns() != null) {
+            addToColumns(x, y, false, notify);
+            return;
+        }
         add(new Double(x), new Double(y), notify);
     }
 
@@ -453,6 +682,11 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      *                listeners.
      */
     public void add(double x, Number y, boolean notify) {
+        if (columns() != null) {
+            addToColumns(x, y == null ? Double.NaN : y.doubleValue(),
+                    y == null, notify);
+            return;
+        }
         add(new Double(x), y, notify);
     }
 
@@ -505,11 +739,18 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      */
     public void add(XYDataItem item, boolean notify) {
         Args.nullNotPermitted(item, "item");
+        if (columns() != null) {
+            addToColumns(item.getXValue(), item.getYValue(),
+                    item.getY() == null, notify);
+            return;
+        }
         item = (XYDataItem) item.clone();
+        int added;
         if (this.autoSort) {
             int index = Collections.binarySearch(this.data, item);
             if (index < 0) {
-                this.data.add(-index - 1, item);
+                added = -index - 1;
+                this.data.add(added, item);
             }
             else {
                 if (this.allowDuplicateXValues) {
@@ -519,6 +760,7 @@ public class XYSeries extends Series implements Cloneable, Serializable {
                             this.data.get(index)) == 0) {
                         index++;
                     }
+                    added = index;
                     if (index < this.data.size()) {
                         this.data.add(index, item);
                     }
@@ -540,15 +782,80 @@ public class XYSeries extends Series implements Cloneable, Serializable {
                     throw new SeriesException("X-value already exists.");
                 }
             }
+            added = this.data.size();
             this.data.add(item);
         }
         updateBoundsForAddedItem(item);
         if (getItemCount() > this.maximumItemCount) {
             XYDataItem removed = (XYDataItem) this.data.remove(0);
             updateBoundsForRemovedItem(removed);
+            added = 0;  // every item has moved
         }
         if (notify) {
-            fireSeriesChanged();
+            fireSeriesChanged(added, this.data.size() - 1);
+        }
+    }
+
+    /**
+     * Adds an item to a series that uses columnar storage and, if requested,
+     * sends a {@link SeriesChangeEvent} to all registered listeners.  This
+     * follows the same rules as {@link #add(XYDataItem, boolean)}, but
+     * appending an item with an x-value at or beyond the end of a sorted
+     * series does not require a search.
+     *
+     * @param x  the x-value.
+     * @param y  the y-value.
+     * @param nullY  a flag indicating that the y-value is {@code null}.
+     * @param notify  a flag that controls whether or not a
+     *                {@link SeriesChangeEvent} is sent to all registered
+     *                listeners.
+     */
+    private void addToColumns(double x, double y, boolean nullY,
+            boolean notify) {
+        XYSeriesColumns columns = columns();
+        int count = columns.size();
+        int index;
+        if (this.autoSort) {
+            double lastX = count > 0 ? columns.getXValue(count - 1)
+                    : Double.NaN;
+            if (count == 0 || lastX < x
+                    || (lastX == x && this.allowDuplicateXValues)) {
+                index = count;
+            }
+            else {
+                index = columns.indexOf(x);
+                if (index < 0) {
+                    index = -index - 1;
+                }
+                else if (this.allowDuplicateXValues) {
+                    // need to make sure we are adding *after* any duplicates
+                    while (index < count && columns.getXValue(index) == x) {
+                        index++;
+                    }
+                }
+                else {
+                    throw new SeriesException("X-value already exists.");
+                }
+            }
+        }
+        else {
+            if (!this.allowDuplicateXValues && columns.indexOf(x) >= 0) {
+                throw new SeriesException("X-value already exists.");
+            }
+            index = count;
+        }
+        columns.insert(index, x, y, nullY);
+        double yy = nullY ? Double.NaN : y;
+        updateBoundsForAddedItem(x, yy);
+        if (columns.size() > this.maximumItemCount) {
+            double removedX = columns.getXValue(0);
+            double removedY = columns.getYValue(0);
+            columns.remove(0);
+            updateBoundsForRemovedItem(removedX, removedY);
+            index = 0;  // every item has moved
+        }
+        if (notify) {
+            fireSeriesChanged(index, columns.size() - 1);
         }
     }
 
@@ -561,7 +868,7 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      */
     public void delete(int start, int end) {
         this.data.subList(start, end + 1).clear();
-        findBoundsByIteration();
+        invalidateBounds();
         fireSeriesChanged();
     }
 
@@ -605,6 +912,8 @@ public class XYSeries extends Series implements Cloneable, Serializable {
             this.maxX = Double.NaN;
             this.minY = Double.NaN;
             this.maxY = Double.NaN;
+            this.boundsStale = false;
+            this.containsNaNX = false;
             fireSeriesChanged();
         }
     }
@@ -618,6 +927,10 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      */
     public XYDataItem getDataItem(int index) {
         XYDataItem item = (XYDataItem) this.data.get(index);
+        if (columns() != null) {
+            // the item is created on demand, so there is no need to clone it
+            return item;
+        }
         return (XYDataItem) item.clone();
     }
 
@@ -642,6 +955,10 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      * @return The x-value (never {@code null}).
      */
     public Number getX(int index) {
+        XYSeriesColumns columns = columns();
+        if (columns != null) {
+            return columns.getX(index);
+        }
         return getRawDataItem(index).getX();
     }
 
@@ -653,9 +970,72 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      * @return The y-value (possibly {@code null}).
      */
     public Number getY(int index) {
+        XYSeriesColumns columns = columns();
+        if (columns != null) {
+            return columns.getY(index);
+        }
         return getRawDataItem(index).getY();
     }
 
+    /**
+     * Returns the x-value at the specified index as a double primitive.  For
+     * a series that uses columnar storage, this does not allocate any
+     * objects.
+     *
+     * @param index  the index (zero-based).
+     *
+     * @return The x-value.
+     *
+     * @see #getX(int)
+     *
+     * @since 1.5
+     */
+    public double getXValue(int index) {
+        XYSeriesColumns columns = columns();
+        if (columns != null) {
+            return columns.getXValue(index);
+        }
+        return getRawDataItem(index).getXValue();
+    }
+
+    /**
+     * Returns the y-value at the specified index as a double primitive
+     * ({@code null} y-values are returned as Double.NaN).  For a series that
+     * uses columnar storage, this does not allocate any objects.
+     *
+     * @param index  the index (zero-based).
+     *
+     * @return The y-value.
+     *
+     * @see #getY(int)
+     *
+     * @since 1.5
+     */
+    public double getYValue(int index) {
+        XYSeriesColumns columns = columns();
+        if (columns != null) {
+            return columns.getYValue(index);
+        }
+        return getRawDataItem(index).getYValue();
+    }
+
+    /**
+     * Sets the y-value for the item at the specified index without updating
+     * the cached bounds or notifying listeners.
+     *
+     * @param index  the index (zero-based).
+     * @param y  the new y-value ({@code null} permitted).
+     */
+    private void setRawY(int index, Number y) {
+        XYSeriesColumns columns = columns();
+        if (columns != null) {
+            columns.setY(index, y);
+        }
+        else {
+            getRawDataItem(index).setY(y);
+        }
+    }
+
     /**
      * A function to find the minimum of two values, but ignoring any
      * Double.NaN values.
@@ -704,25 +1084,10 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      * @since 1.0.1
      */
     public void updateByIndex(int index, Number y) {
-        XYDataItem item = getRawDataItem(index);
-
-        // figure out if we need to iterate through all the y-values
-        boolean iterate = false;
-        double oldY = item.getYValue();
-        if (!Double.isNaN(oldY)) {
-            iterate = oldY <= this.minY || oldY >= this.maxY;
-        }
-        item.setY(y);
-
-        if (iterate) {
-            findBoundsByIteration();
-        }
-        else if (y != null) {
-            double yy = y.doubleValue();
-            this.minY = minIgnoreNaN(this.minY, yy);
-            this.maxY = maxIgnoreNaN(this.maxY, yy);
-        }
-        fireSeriesChanged();
+        double oldY = getYValue(index);
+        setRawY(index, y);
+        updateBoundsForChangedY(oldY, y);
+        fireSeriesChanged(index, index);
     }
 
     /**
@@ -794,24 +1159,9 @@ public class XYSeries extends Series implements Cloneable, Serializable {
         XYDataItem overwritten = null;
         int index = indexOf(item.getX());
         if (index >= 0) {
-            XYDataItem existing = (XYDataItem) this.data.get(index);
-            overwritten = (XYDataItem) existing.clone();
-            // figure out if we need to iterate through all the y-values
-            boolean iterate = false;
-            double oldY = existing.getYValue();
-            if (!Double.isNaN(oldY)) {
-                iterate = oldY <= this.minY || oldY >= this.maxY;
-            }
-            existing.setY(item.getY());
-
-            if (iterate) {
-                findBoundsByIteration();
-            }
-            else if (item.getY() != null) {
-                double yy = item.getY().doubleValue();
-                this.minY = minIgnoreNaN(this.minY, yy);
-                this.maxY = maxIgnoreNaN(this.maxY, yy);
-            }
+            overwritten = getDataItem(index);
+            setRawY(index, item.getY());
+            updateBoundsForChangedY(overwritten.getYValue(), item.getY());
         }
         else {
             // if the series is sorted, the negative index is a result from
@@ -848,6 +1198,10 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      * @return The index.
      */
     public int indexOf(Number x) {
+        XYSeriesColumns columns = columns();
+        if (columns != null) {
+            return columns.indexOf(x.doubleValue());
+        }
         if (this.autoSort) {
             return Collections.binarySearch(this.data, new XYDataItem(x, null));
         }
@@ -870,6 +1224,10 @@ public class XYSeries extends Series implements Cloneable, Serializable {
      * @since 1.0.4
      */
     public double[][] toArray() {
+        XYSeriesColumns columns = columns();
+        if (columns != null) {
+            return columns.toArray2D();
+        }
         int itemCount = getItemCount();
         double[][] result = new double[2][itemCount];
         for (int i = 0; i < itemCount; i++) {
@@ -895,7 +1253,13 @@ public class XYSeries extends Series implements Cloneable, Serializable {
     @Override
     public Object clone() throws CloneNotSupportedException {
         XYSeries clone = (XYSeries) super.clone();
-        clone.data = (List) ObjectUtils.deepClone(this.data);
+        XYSeriesColumns columns = columns();
+        if (columns != null) {
+            clone.data = (List) columns.clone();
+        }
+        else {
+            clone.data = (List) ObjectUtils.deepClone(this.data);
+        }
         return clone;
     }
 
@@ -913,7 +1277,12 @@ public class XYSeries extends Series implements Cloneable, Serializable {
             throws CloneNotSupportedException {
 
         XYSeries copy = (XYSeries) super.clone();
-        copy.data = new java.util.ArrayList();
+        if (isColumnar()) {
+            copy.data = new XYSeriesColumns(this.autoSort);
+        }
+        else {
+            copy.data = new java.util.ArrayList();
+        }
         if (this.data.size() > 0) {
             for (int index = start; index <= end; index++) {
                 XYDataItem item = (XYDataItem) this.data.get(index);
@@ -90,8 +90,8 @@ import org.jfree.data.general.Series;
  * dataset.
  */
 public class XYSeriesCollection extends AbstractIntervalXYDataset
-        implements IntervalXYDataset, DomainInfo, RangeInfo, 
-        VetoableChangeListener, PublicCloneable, Serializable {
+        implements IntervalXYDataset, DomainInfo, RangeInfo, XYDomainInfo,
+        XYRangeInfo, VetoableChangeListener, PublicCloneable, Serializable {
 
     /** For serialization. */
     private static final long serialVersionUID = -7590013825931496766L;
@@ -358,6 +358,22 @@ public class XYSeriesCollection extends AbstractIntervalXYDataset
         return s.getX(item);
     }
 
+    /**
+     * Returns the x-value for the specified series and item as a double
+     * primitive.  This avoids creating a {@code Number} instance when the
+     * series uses columnar storage.
+     *
+     * @param series  the series (zero-based index).
+     * @param item  the item (zero-based index).
+     *
+     * @return The value.
+     */
+    @Override
+    public double getXValue(int series, int item) {
+        XYSeries s = (XYSeries) this.data.get(series);
+        return s.getXValue(item);
+    }
+
     /**
      * Returns the starting X value for the specified series and item.
      *
@@ -371,6 +387,22 @@ public class XYSeriesCollection extends AbstractIntervalXYDataset
         return this.intervalDelegate.getStartX(series, item);
     }
 
+    /**
+     * Returns the starting x-value (as a double primitive) for the specified
+     * series and item.
+     *
+     * @param series  the series (zero-based index).
+     * @param item  the item (zero-based index).
+     *
+     * @return The starting x-value.
+     *
+     * @since 1.5
+     */
+    @Override
+    public double getStartXValue(int series, int item) {
+        return this.intervalDelegate.getStartXValue(series, item);
+    }
+
     /**
      * Returns the ending X value for the specified series and item.
      *
@@ -384,6 +416,22 @@ public class XYSeriesCollection extends AbstractIntervalXYDataset
         return this.intervalDelegate.getEndX(series, item);
     }
 
+    /**
+     * Returns the ending x-value (as a double primitive) for the specified
+     * series and item.
+     *
+     * @param series  the series (zero-based index).
+     * @param item  the item (zero-based index).
+     *
+     * @return The ending x-value.
+     *
+     * @since 1.5
+     */
+    @Override
+    public double getEndXValue(int series, int item) {
+        return this.intervalDelegate.getEndXValue(series, item);
+    }
+
     /**
      * Returns the y-value for the specified series and item.
      *
@@ -398,6 +446,21 @@ public class XYSeriesCollection extends AbstractIntervalXYDataset
         return s.getY(index);
     }
 
+    /**
+     * Returns the y-value for the specified series and item as a double
+     * primitive ({@code null} values are returned as Double.NaN).
+     *
+     * @param series  the series (zero-based index).
+     * @param item  the item (zero-based index).
+     *
+     * @return The value.
+     */
+    @Override
+    public double getYValue(int series, int item) {
+        XYSeries s = (XYSeries) this.data.get(series);
+        return s.getYValue(item);
+    }
+
     /**
      * Returns the starting Y value for the specified series and item.
      *
@@ -411,6 +474,22 @@ public class XYSeriesCollection extends AbstractIntervalXYDataset
         return getY(series, item);
     }
 
+    /**
+     * Returns the starting y-value (as a double primitive) for the specified
+     * series and item.
+     *
+     * @param series  the series (zero-based index).
+     * @param item  the item (zero-based index).
+     *
+     * @return The starting y-value.
+     *
+     * @since 1.5
+     */
+    @Override
+    public double getStartYValue(int series, int item) {
+        return getYValue(series, item);
+    }
+
     /**
      * Returns the ending Y value for the specified series and item.
      *
@@ -424,6 +503,22 @@ public class XYSeriesCollection extends AbstractIntervalXYDataset
         return getY(series, item);
     }
 
+    /**
+     * Returns the ending y-value (as a double primitive) for the specified
+     * series and item.
+     *
+     * @param series  the series (zero-based index).
+     * @param item  the item (zero-based index).
+     *
+     * @return The ending y-value.
+     *
+     * @since 1.5
+     */
+    @Override
+    public double getEndYValue(int series, int item) {
+        return getYValue(series, item);
+    }
+
     /**
      * Tests this collection for equality with an arbitrary object.
      *
@@ -575,6 +670,52 @@ public class XYSeriesCollection extends AbstractIntervalXYDataset
         }
     }
 
+    /**
+     * Returns the bounds of the x-values for the specified series, using the
+     * bounds that are cached by each series (so the cost does not depend on
+     * the number of items in the series).
+     *
+     * @param visibleSeriesKeys  the keys for the visible series
+     *     ({@code null} not permitted).
+     * @param includeInterval  include the x-interval?
+     *
+     * @return The range (or {@code null} if there are no x-values for the
+     *     visible series).
+     *
+     * @since 1.5
+     */
+    @Override
+    public Range getDomainBounds(List visibleSeriesKeys,
+            boolean includeInterval) {
+        Args.nullNotPermitted(visibleSeriesKeys, "visibleSeriesKeys");
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        Iterator iterator = visibleSeriesKeys.iterator();
+        while (iterator.hasNext()) {
+            Comparable seriesKey = (Comparable) iterator.next();
+            XYSeries series = getSeries(seriesKey);
+            double minX = series.getMinX();
+            if (!Double.isNaN(minX)) {
+                lower = Math.min(lower, minX);
+            }
+            double maxX = series.getMaxX();
+            if (!Double.isNaN(maxX)) {
+                upper = Math.max(upper, maxX);
+            }
+        }
+        if (lower > upper) {
+            return null;
+        }
+        if (includeInterval) {
+            double width = this.intervalDelegate.getIntervalWidth();
+            double lowerAdj = width
+                    * this.intervalDelegate.getIntervalPositionFactor();
+            lower = lower - lowerAdj;
+            upper = upper + (width - lowerAdj);
+        }
+        return new Range(lower, upper);
+    }
+
     /**
      * Returns the interval width. This is used to calculate the start and end
      * x-values, if/when the dataset is used as an {@link IntervalXYDataset}.
@@ -672,6 +813,39 @@ public class XYSeriesCollection extends AbstractIntervalXYDataset
         }
     }
 
+    /**
+     * Returns the bounds of the y-values for the specified series, for the
+     * items with x-values that fall within the specified range.  For each
+     * series the cached bounds are used when the x-range spans all the
+     * items in the series, otherwise see
+     * {@link XYSeries#findValueRange(Range)}.
+     *
+     * @param visibleSeriesKeys  the keys for the visible series
+     *     ({@code null} not permitted).
+     * @param xRange  the x-range ({@code null} not permitted).
+     * @param includeInterval  ignored.
+     *
+     * @return The range (or {@code null} if there are no y-values for the
+     *     visible series in the x-range).
+     *
+     * @since 1.5
+     */
+    @Override
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange,
+            boolean includeInterval) {
+        Args.nullNotPermitted(visibleSeriesKeys, "visibleSeriesKeys");
+        Args.nullNotPermitted(xRange, "xRange");
+        Range result = null;
+        Iterator iterator = visibleSeriesKeys.iterator();
+        while (iterator.hasNext()) {
+            Comparable seriesKey = (Comparable) iterator.next();
+            XYSeries series = getSeries(seriesKey);
+            result = Range.combineIgnoringNaN(result,
+                    series.findValueRange(xRange));
+        }
+        return result;
+    }
+
     /**
      * Returns the minimum y-value in the dataset.
      *
@@ -0,0 +1,517 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------------
+ * XYSeriesColumns.java
+ * --------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.xy;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import org.jfree.chart.util.Args;
+
+/**
+ * Columnar storage for the items in an {@link XYSeries}.  The x and y-values
+ * are held in growable {@code double[]} arrays (with a lazily allocated
+ * {@code boolean[]} to record {@code null} y-values), so that a series with
+ * millions of items does not need one {@link XYDataItem} plus two
+ * {@code Number} instances per item.
+ * <p>
+ * The class implements the {@code List} interface so that it can be used
+ * as the {@code data} list of an {@link XYSeries}, but the
+ * {@link XYDataItem} instances returned by {@link #get(int)} are created on
+ * demand and are NOT backed by the storage (changing them has no effect on
+ * the series).  Removing items from the front of the list (as happens when
+ * the series has a maximum item count) does not copy the arrays.
+ */
+final class XYSeriesColumns extends AbstractList
+        implements RandomAccess, Cloneable, Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 4406934738712519367L;
+
+    /** The default initial capacity. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** A flag indicating whether or not the x-values are kept sorted. */
+    private final boolean sorted;
+
+    /** The x-values (the live items are at {@code start} to
+     * {@code start + size - 1}). */
+    private double[] xValues;
+
+    /** The y-values ({@code null} y-values are stored as Double.NaN). */
+    private double[] yValues;
+
+    /**
+     * Flags for the y-values that are {@code null} (this array is not
+     * allocated until the first {@code null} y-value is added).
+     */
+    private boolean[] nullY;
+
+    /** The array index of the first item. */
+    private int start;
+
+    /** The number of items. */
+    private int size;
+
+    /**
+     * Creates a new empty instance.
+     *
+     * @param sorted  a flag that indicates whether or not the caller will
+     *     keep the items sorted by ascending x-value (this enables binary
+     *     searches in {@link #indexOf(double)}).
+     */
+    XYSeriesColumns(boolean sorted) {
+        this.sorted = sorted;
+        this.xValues = new double[DEFAULT_CAPACITY];
+        this.yValues = new double[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Returns the flag that indicates whether or not the items are sorted
+     * by ascending x-value.
+     *
+     * @return A boolean.
+     */
+    boolean isSorted() {
+        return this.sorted;
+    }
+
+    /**
+     * Returns the number of items.
+     *
+     * @return The number of items.
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns a new data item containing the x and y-values at the specified
+     * index.
+     *
+     * @param index  the index.
+     *
+     * @return A new data item.
+     */
+    @Override
+    public Object get(int index) {
+        return new XYDataItem(getX(index), getY(index));
+    }
+
+    /**
+     * Returns the x-value at the specified index.
+     *
+     * @param index  the index.
+     *
+     * @return The x-value.
+     */
+    public double getXValue(int index) {
+        checkIndex(index);
+        return this.xValues[this.start + index];
+    }
+
+    /**
+     * Returns the y-value at the specified index (Double.NaN is returned for
+     * a {@code null} y-value).
+     *
+     * @param index  the index.
+     *
+     * @return The y-value.
+     */
+    public double getYValue(int index) {
+        checkIndex(index);
+        return this.yValues[this.start + index];
+    }
+
+    /**
+     * Returns the x-value at the specified index as a new {@code Double}.
+     *
+     * @param index  the index.
+     *
+     * @return The x-value (never {@code null}).
+     */
+    public Number getX(int index) {
+        return new Double(getXValue(index));
+    }
+
+    /**
+     * Returns the y-value at the specified index as a new {@code Double}.
+     *
+     * @param index  the index.
+     *
+     * @return The y-value (possibly {@code null}).
+     */
+    public Number getY(int index) {
+        if (isNullY(index)) {
+            return null;
+        }
+        return new Double(this.yValues[this.start + index]);
+    }
+
+    /**
+     * Returns {@code true} if the y-value at the specified index is
+     * {@code null}, and {@code false} otherwise.
+     *
+     * @param index  the index.
+     *
+     * @return A boolean.
+     */
+    public boolean isNullY(int index) {
+        checkIndex(index);
+        return this.nullY != null && this.nullY[this.start + index];
+    }
+
+    /**
+     * Inserts a data item at the specified index.
+     *
+     * @param index  the index.
+     * @param element  the data item ({@code null} not permitted).
+     */
+    @Override
+    public void add(int index, Object element) {
+        Args.nullNotPermitted(element, "element");
+        XYDataItem item = (XYDataItem) element;
+        insert(index, item.getXValue(), item.getYValue(),
+                item.getY() == null);
+    }
+
+    /**
+     * Replaces the data item at the specified index.
+     *
+     * @param index  the index.
+     * @param element  the data item ({@code null} not permitted).
+     *
+     * @return A data item containing the previous values.
+     */
+    @Override
+    public Object set(int index, Object element) {
+        Args.nullNotPermitted(element, "element");
+        XYDataItem item = (XYDataItem) element;
+        Object old = get(index);
+        this.xValues[this.start + index] = item.getXValue();
+        setY(index, item.getY());
+        return old;
+    }
+
+    /**
+     * Sets the y-value at the specified index.
+     *
+     * @param index  the index.
+     * @param y  the y-value ({@code null} permitted).
+     */
+    public void setY(int index, Number y) {
+        checkIndex(index);
+        int i = this.start + index;
+        if (y == null) {
+            ensureNullFlags();
+            this.nullY[i] = true;
+            this.yValues[i] = Double.NaN;
+        }
+        else {
+            if (this.nullY != null) {
+                this.nullY[i] = false;
+            }
+            this.yValues[i] = y.doubleValue();
+        }
+    }
+
+    /**
+     * Removes the data item at the specified index.
+     *
+     * @param index  the index.
+     *
+     * @return A data item containing the removed values.
+     */
+    @Override
+    public Object remove(int index) {
+        Object removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    /**
+     * Removes all items.
+     */
+    @Override
+    public void clear() {
+        this.modCount++;
+        this.start = 0;
+        this.size = 0;
+        this.nullY = null;
+    }
+
+    /**
+     * Inserts an (x, y) item at the specified index.
+     *
+     * @param index  the index (in the range {@code 0} to {@code size()}).
+     * @param x  the x-value.
+     * @param y  the y-value.
+     * @param isNullY  a flag indicating that the y-value is {@code null}.
+     */
+    public void insert(int index, double x, double y, boolean isNullY) {
+        if (index < 0 || index > this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", Size: " + this.size);
+        }
+        this.modCount++;
+        if (index == 0 && this.start > 0) {
+            // items are removed from the front by a series with a maximum
+            // item count, so reuse the space there when we can
+            this.start--;
+        }
+        else {
+            ensureCapacity(this.size + 1);
+            int i = this.start + index;
+            int count = this.size - index;
+            if (count > 0) {
+                System.arraycopy(this.xValues, i, this.xValues, i + 1, count);
+                System.arraycopy(this.yValues, i, this.yValues, i + 1, count);
+                if (this.nullY != null) {
+                    System.arraycopy(this.nullY, i, this.nullY, i + 1, count);
+                }
+            }
+        }
+        int i = this.start + index;
+        this.xValues[i] = x;
+        if (isNullY) {
+            ensureNullFlags();
+            this.nullY[i] = true;
+            this.yValues[i] = Double.NaN;
+        }
+        else {
+            if (this.nullY != null) {
+                this.nullY[i] = false;
+            }
+            this.yValues[i] = y;
+        }
+        this.size++;
+    }
+
+    /**
+     * Removes the items from index {@code fromIndex} (inclusive) to
+     * {@code toIndex} (exclusive).  Removing items from the front of the
+     * list is done without copying.
+     *
+     * @param fromIndex  the index of the first item to remove.
+     * @param toIndex  the index after the last item to remove.
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > this.size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range: " + fromIndex + " to "
+                    + toIndex + ", Size: " + this.size);
+        }
+        int count = toIndex - fromIndex;
+        if (count == 0) {
+            return;
+        }
+        this.modCount++;
+        if (fromIndex == 0) {
+            this.start += count;
+        }
+        else {
+            int tail = this.size - toIndex;
+            int dst = this.start + fromIndex;
+            int src = this.start + toIndex;
+            System.arraycopy(this.xValues, src, this.xValues, dst, tail);
+            System.arraycopy(this.yValues, src, this.yValues, dst, tail);
+            if (this.nullY != null) {
+                System.arraycopy(this.nullY, src, this.nullY, dst, tail);
+            }
+        }
+        this.size -= count;
+        if (this.size == 0) {
+            this.start = 0;
+        }
+    }
+
+    /**
+     * Returns the index of an item with the specified x-value, or a negative
+     * value if there is no such item.  For sorted storage this is a binary
+     * search with the same return value convention as
+     * {@code Collections.binarySearch()} (so that a negative result encodes
+     * the insertion point), otherwise the items are searched in order and
+     * {@code -1} is returned if there is no match.
+     *
+     * @param x  the x-value.
+     *
+     * @return The index.
+     */
+    public int indexOf(double x) {
+        if (this.sorted) {
+            int low = 0;
+            int high = this.size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                double midX = this.xValues[this.start + mid];
+                if (midX < x) {
+                    low = mid + 1;
+                }
+                else if (midX > x) {
+                    high = mid - 1;
+                }
+                else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+        long bits = Double.doubleToLongBits(x);
+        for (int i = 0; i < this.size; i++) {
+            if (Double.doubleToLongBits(this.xValues[this.start + i])
+                    == bits) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a new array containing the x and y-values.
+     *
+     * @return A new array.
+     */
+    public double[][] toArray2D() {
+        double[][] result = new double[2][this.size];
+        System.arraycopy(this.xValues, this.start, result[0], 0, this.size);
+        System.arraycopy(this.yValues, this.start, result[1], 0, this.size);
+        return result;
+    }
+
+    /**
+     * Returns an independent copy of this storage.
+     *
+     * @return A clone.
+     */
+    @Override
+    public Object clone() {
+        XYSeriesColumns clone;
+        try {
+            clone = (XYSeriesColumns) super.clone();
+        }
+        catch (CloneNotSupportedException e) {
+            throw new InternalError(e.getMessage());
+        }
+        int capacity = Math.max(this.size, DEFAULT_CAPACITY);
+        clone.xValues = new double[capacity];
+        clone.yValues = new double[capacity];
+        System.arraycopy(this.xValues, this.start, clone.xValues, 0,
+                this.size);
+        System.arraycopy(this.yValues, this.start, clone.yValues, 0,
+                this.size);
+        if (this.nullY != null) {
+            clone.nullY = new boolean[capacity];
+            System.arraycopy(this.nullY, this.start, clone.nullY, 0,
+                    this.size);
+        }
+        clone.start = 0;
+        clone.modCount = 0;
+        return clone;
+    }
+
+    /**
+     * Checks that the index refers to an existing item.
+     *
+     * @param index  the index.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", Size: " + this.size);
+        }
+    }
+
+    /**
+     * Allocates the {@code null} flags array, if it does not already exist.
+     */
+    private void ensureNullFlags() {
+        if (this.nullY == null) {
+            this.nullY = new boolean[this.xValues.length];
+        }
+    }
+
+    /**
+     * Ensures that there is room for {@code required} items starting at
+     * {@code start}, compacting or growing the arrays as necessary.
+     *
+     * @param required  the required number of items.
+     */
+    private void ensureCapacity(int required) {
+        int capacity = this.xValues.length;
+        if (this.start + required <= capacity) {
+            return;
+        }
+        if (required <= capacity - (capacity >> 2)) {
+            // there is plenty of free space at the front, so just compact
+            System.arraycopy(this.xValues, this.start, this.xValues, 0,
+                    this.size);
+            System.arraycopy(this.yValues, this.start, this.yValues, 0,
+                    this.size);
+            if (this.nullY != null) {
+                System.arraycopy(this.nullY, this.start, this.nullY, 0,
+                        this.size);
+            }
+            this.start = 0;
+            return;
+        }
+        int newCapacity = Math.max(required, capacity + (capacity >> 1));
+        this.xValues = copyOf(this.xValues, newCapacity);
+        this.yValues = copyOf(this.yValues, newCapacity);
+        if (this.nullY != null) {
+            boolean[] flags = new boolean[newCapacity];
+            System.arraycopy(this.nullY, this.start, flags, 0, this.size);
+            this.nullY = flags;
+        }
+        this.start = 0;
+    }
+
+    /**
+     * Returns a new array of the specified length containing the live items
+     * from {@code source}, starting at index 0.
+     *
+     * @param source  the source array.
+     * @param length  the new array length.
+     *
+     * @return The new array.
+     */
+    private double[] copyOf(double[] source, int length) {
+        double[] result = new double[length];
+        System.arraycopy(source, this.start, result, 0, this.size);
+        return result;
+    }
+
+}
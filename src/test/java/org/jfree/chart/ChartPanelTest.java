@@ -44,18 +44,37 @@ package org.jfree.chart;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import java.awt.Graphics2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.EventListener;
+import java.util.Iterator;
 import java.util.List;
 
+import javax.swing.SwingUtilities;
 import javax.swing.event.CaretListener;
 
 import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.event.ChartChangeEvent;
+import org.jfree.chart.entity.EntityCollection;
+import org.jfree.chart.entity.IndexedEntityCollection;
+import org.jfree.chart.entity.StandardEntityCollection;
+import org.jfree.chart.entity.XYItemEntity;
 import org.jfree.chart.event.ChartChangeListener;
+import org.jfree.chart.event.ChartProgressEvent;
+import org.jfree.chart.event.ChartProgressListener;
+import org.jfree.chart.plot.CrosshairState;
 import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.PlotRenderingInfo;
 import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYItemRendererState;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.data.xy.DefaultXYDataset;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
 import org.junit.Test;
 
 /**
@@ -343,4 +362,382 @@ public class ChartPanelTest implements ChartChangeListener, ChartMouseListener {
         panel.setMouseWheelEnabled(false);
         assertFalse(panel.isMouseWheelEnabled());
     }
+
+    /**
+     * Paints a panel into a new image.
+     *
+     * @param panel  the panel.
+     *
+     * @return The image.
+     */
+    private static BufferedImage paint(ChartPanel panel) {
+        BufferedImage image = new BufferedImage(panel.getWidth(), 
+                panel.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        panel.paintComponent(g2);
+        g2.dispose();
+        return image;
+    }
+
+    /**
+     * Creates a line chart with one series.
+     *
+     * @param series  the series.
+     *
+     * @return The chart.
+     */
+    private static JFreeChart createLineChart(XYSeries series) {
+        series.add(1.0, 1.0);
+        series.add(2.0, 4.0);
+        series.add(3.0, 2.0);
+        return ChartFactory.createXYLineChart("Title", "X", "Y", 
+                new XYSeriesCollection(series), PlotOrientation.VERTICAL, 
+                true, true, false);
+    }
+
+    /**
+     * With a layered buffer, each layer is drawn separately and a dataset 
+     * update only redraws the data layer, unless the axis ranges change.
+     */
+    @Test
+    public void testLayeredBuffer() {
+        XYSeries series = new XYSeries("S1");
+        JFreeChart chart = createLineChart(series);
+        final int[] draws = new int[1];
+        chart.addProgressListener(new ChartProgressListener() {
+            @Override
+            public void chartProgress(ChartProgressEvent event) {
+                if (event.getType() == ChartProgressEvent.DRAWING_STARTED) {
+                    draws[0]++;
+                }
+            }
+        });
+        ChartPanel panel = new ChartPanel(chart, true);
+        panel.setLayeredBufferEnabled(true);
+        assertTrue(panel.isLayeredBufferEnabled());
+        panel.setSize(500, 400);
+        paint(panel);
+        assertEquals(4, draws[0]);
+        paint(panel);
+        assertEquals(4, draws[0]);
+
+        // the axis ranges are unchanged, so just the data layer
+        series.add(2.5, 3.0);
+        paint(panel);
+        assertEquals(5, draws[0]);
+        EntityCollection entities 
+                = panel.getChartRenderingInfo().getEntityCollection();
+        int itemCount = 0;
+        Iterator iterator = entities.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() instanceof XYItemEntity) {
+                itemCount++;
+            }
+        }
+        assertEquals(4, itemCount);
+        assertTrue(panel.getChartRenderingInfo().getPlotInfo().getDataArea()
+                .getWidth() > 0.0);
+
+        // the axis ranges change
+        series.add(10.0, 20.0);
+        paint(panel);
+        assertEquals(9, draws[0]);
+
+        // other changes redraw everything
+        chart.setTitle("New Title");
+        paint(panel);
+        assertEquals(13, draws[0]);
+
+        // with crosshairs, the overlay layer is redrawn with the data layer
+        ((XYPlot) chart.getPlot()).setDomainCrosshairVisible(true);
+        paint(panel);
+        assertEquals(18, draws[0]);
+        series.add(5.0, 5.0);
+        paint(panel);
+        assertEquals(20, draws[0]);
+    }
+
+    /**
+     * A chart drawn with a layered buffer looks the same as a chart drawn 
+     * with a single buffer.
+     */
+    @Test
+    public void testLayeredBufferOutput() {
+        JFreeChart chart = createLineChart(new XYSeries("S1"));
+        XYPlot plot = (XYPlot) chart.getPlot();
+        plot.setDomainCrosshairVisible(true);
+        plot.setDomainCrosshairValue(2.0);
+        ChartPanel panel = new ChartPanel(chart, true);
+        panel.setSize(500, 400);
+        BufferedImage expected = paint(panel);
+        panel.setLayeredBufferEnabled(true);
+        BufferedImage actual = paint(panel);
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                int e = expected.getRGB(x, y);
+                int a = actual.getRGB(x, y);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int diff = ((e >> shift) & 0xFF) - ((a >> shift) & 0xFF);
+                    assertTrue("(" + x + ", " + y + ")", Math.abs(diff) <= 2);
+                }
+            }
+        }
+    }
+
+    /**
+     * With overlay crosshairs, a change to the crosshair values repaints the 
+     * panel without redrawing the chart, and the output is the same as for
+     * crosshairs drawn in the chart buffer.
+     */
+    @Test
+    public void testOverlayCrosshairs() {
+        JFreeChart chart = createLineChart(new XYSeries("S1"));
+        XYPlot plot = (XYPlot) chart.getPlot();
+        plot.setDomainCrosshairVisible(true);
+        plot.setRangeCrosshairVisible(true);
+        plot.setDomainCrosshairValue(2.0);
+        plot.setRangeCrosshairValue(3.0);
+        // the overlay crosshairs are drawn over the outline rather than under
+        plot.setOutlineVisible(false);
+        final int[] draws = new int[1];
+        chart.addProgressListener(new ChartProgressListener() {
+            @Override
+            public void chartProgress(ChartProgressEvent event) {
+                if (event.getType() == ChartProgressEvent.DRAWING_STARTED) {
+                    draws[0]++;
+                }
+            }
+        });
+        ChartPanel panel = new ChartPanel(chart, true);
+        panel.setSize(500, 400);
+        BufferedImage expected = paint(panel);
+        panel.setOverlayCrosshairsEnabled(true);
+        assertTrue(panel.isOverlayCrosshairsEnabled());
+        assertImagesSimilar(expected, paint(panel));
+        assertEquals(2, draws[0]);
+
+        plot.setDomainCrosshairValue(2.5);
+        plot.setRangeCrosshairValue(1.5);
+        BufferedImage actual = paint(panel);
+        assertEquals(2, draws[0]);
+        panel.setOverlayCrosshairsEnabled(false);
+        assertImagesSimilar(paint(panel), actual);
+        assertEquals(3, draws[0]);
+
+        // other changes still redraw the chart
+        panel.setOverlayCrosshairsEnabled(true);
+        paint(panel);
+        chart.setTitle("New Title");
+        paint(panel);
+        assertEquals(5, draws[0]);
+    }
+
+    /**
+     * Checks that two images are the same (allowing for small differences 
+     * in the colour components).
+     *
+     * @param expected  the expected image.
+     * @param actual  the actual image.
+     */
+    private static void assertImagesSimilar(BufferedImage expected, 
+            BufferedImage actual) {
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                int e = expected.getRGB(x, y);
+                int a = actual.getRGB(x, y);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int diff = ((e >> shift) & 0xFF) - ((a >> shift) & 0xFF);
+                    assertTrue("(" + x + ", " + y + ")", Math.abs(diff) <= 2);
+                }
+            }
+        }
+    }
+
+    /**
+     * Paints a panel on the event dispatch thread.
+     *
+     * @param panel  the panel.
+     *
+     * @return The image.
+     */
+    private static BufferedImage paintOnEDT(final ChartPanel panel) 
+            throws Exception {
+        final BufferedImage[] result = new BufferedImage[1];
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                result[0] = paint(panel);
+            }
+        });
+        return result[0];
+    }
+
+    /**
+     * Waits (up to ten seconds) for a panel to receive a frame rendered in 
+     * the background, which updates the panel's rendering info.
+     *
+     * @param panel  the panel.
+     * @param itemEntities  the number of data item entities in the frame.
+     */
+    private static void waitForFrame(final ChartPanel panel, 
+            int itemEntities) throws Exception {
+        final int[] count = new int[1];
+        for (int i = 0; i < 1000; i++) {
+            // the frame is delivered on the event dispatch thread
+            SwingUtilities.invokeAndWait(new Runnable() {
+                @Override
+                public void run() {
+                    count[0] = countItemEntities(panel);
+                }
+            });
+            if (count[0] == itemEntities) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("No frame rendered.");
+    }
+
+    /**
+     * Counts the data item entities for a panel.
+     *
+     * @param panel  the panel.
+     *
+     * @return The number of entities.
+     */
+    private static int countItemEntities(ChartPanel panel) {
+        int count = 0;
+        Iterator iterator = panel.getChartRenderingInfo().getEntityCollection()
+                .iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() instanceof XYItemEntity) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * With asynchronous rendering, the panel shows the last completed frame
+     * until the frame for the latest version of the chart is ready.
+     */
+    @Test
+    public void testAsyncRendering() throws Exception {
+        XYSeries series = new XYSeries("S1");
+        JFreeChart chart = createLineChart(series);
+        ChartPanel syncPanel = new ChartPanel(chart, true);
+        syncPanel.setSize(500, 400);
+        BufferedImage expected = paint(syncPanel);
+
+        ChartPanel panel = new ChartPanel(chart, true);
+        panel.setSize(500, 400);
+        panel.setAsyncRenderingEnabled(true);
+        assertTrue(panel.isAsyncRenderingEnabled());
+        ChartRenderingInfo info = panel.getChartRenderingInfo();
+        BufferedImage image = paintOnEDT(panel);
+        // no frame yet, so just the panel background
+        assertEquals(panel.getBackground().getRGB(), image.getRGB(250, 200));
+        waitForFrame(panel, 3);
+        // the frame updates the panel's existing rendering info
+        assertSame(info, panel.getChartRenderingInfo());
+        image = paintOnEDT(panel);
+        for (int y = 0; y < 400; y += 7) {
+            for (int x = 0; x < 500; x += 7) {
+                assertEquals(expected.getRGB(x, y), image.getRGB(x, y));
+            }
+        }
+
+        // the last frame is shown until the new one is ready
+        series.add(2.5, 3.0);
+        image = paintOnEDT(panel);
+        assertEquals(expected.getRGB(250, 200), image.getRGB(250, 200));
+        waitForFrame(panel, 4);
+        assertSame(info, panel.getChartRenderingInfo());
+    }
+
+    /**
+     * The entity index is off by default, and enabling it keeps the entities
+     * collected when the chart was last drawn.
+     */
+    @Test
+    public void testEntityIndex() {
+        XYSeries series = new XYSeries("S1");
+        series.add(1.0, 2.0);
+        series.add(2.0, 1.0);
+        series.add(3.0, 4.0);
+        ChartPanel panel = new ChartPanel(createLineChart(series), true);
+        panel.setSize(500, 400);
+        assertFalse(panel.isEntityIndexEnabled());
+        ChartRenderingInfo info = panel.getChartRenderingInfo();
+        assertTrue(info.getEntityCollection()
+                instanceof StandardEntityCollection);
+        assertFalse(info.getEntityCollection()
+                instanceof IndexedEntityCollection);
+        paint(panel);
+        int count = info.getEntityCollection().getEntityCount();
+        int itemCount = countItemEntities(panel);
+        assertTrue(itemCount > 0);
+
+        panel.setEntityIndexEnabled(true);
+        assertTrue(panel.isEntityIndexEnabled());
+        assertSame(info, panel.getChartRenderingInfo());
+        EntityCollection entities = info.getEntityCollection();
+        assertTrue(entities instanceof IndexedEntityCollection);
+        assertEquals(count, entities.getEntityCount());
+        paint(panel);
+        assertEquals(count, entities.getEntityCount());
+        assertEquals(itemCount, countItemEntities(panel));
+
+        panel.setEntityIndexEnabled(false);
+        assertFalse(info.getEntityCollection()
+                instanceof IndexedEntityCollection);
+        assertEquals(count, info.getEntityCollection().getEntityCount());
+    }
+
+    /**
+     * A renderer that fails when it is used on the background rendering 
+     * thread.
+     */
+    private static class BackgroundFailingRenderer 
+            extends XYLineAndShapeRenderer {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void drawItem(Graphics2D g2, XYItemRendererState state,
+                Rectangle2D dataArea, PlotRenderingInfo info, XYPlot plot, 
+                ValueAxis domainAxis, ValueAxis rangeAxis, XYDataset dataset,
+                int series, int item, CrosshairState crosshairState, 
+                int pass) {
+            if (!SwingUtilities.isEventDispatchThread()) {
+                throw new IllegalStateException("Background failure.");
+            }
+            super.drawItem(g2, state, dataArea, info, plot, domainAxis, 
+                    rangeAxis, dataset, series, item, crosshairState, pass);
+        }
+    }
+
+    /**
+     * With asynchronous rendering, a chart that fails to render in the 
+     * background is drawn on the event dispatch thread instead.
+     */
+    @Test
+    public void testAsyncRenderingFailure() throws Exception {
+        JFreeChart chart = createLineChart(new XYSeries("S1"));
+        ((XYPlot) chart.getPlot()).setRenderer(
+                new BackgroundFailingRenderer());
+        ChartPanel panel = new ChartPanel(chart, true);
+        panel.setSize(500, 400);
+        panel.setAsyncRenderingEnabled(true);
+        for (int i = 0; i < 1000; i++) {
+            paintOnEDT(panel);
+            if (countItemEntities(panel) == 3) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("No frame rendered.");
+    }
+
 }
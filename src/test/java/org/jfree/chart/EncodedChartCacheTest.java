@@ -0,0 +1,204 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------------------
+ * EncodedChartCacheTest.java
+ * --------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+import org.jfree.chart.event.ChartProgressEvent;
+import org.jfree.chart.event.ChartProgressListener;
+import org.jfree.chart.util.ExportUtils;
+import org.jfree.data.general.DefaultPieDataset;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for the {@link EncodedChartCache} class and its use by 
+ * {@link ChartUtils} and {@link ExportUtils}.
+ */
+public class EncodedChartCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** The cache. */
+    private EncodedChartCache cache;
+
+    /** The dataset. */
+    private DefaultPieDataset dataset;
+
+    /** The chart. */
+    private JFreeChart chart;
+
+    /** The number of times the chart has been drawn. */
+    private int drawCount;
+
+    @Before
+    public void setUp() {
+        this.cache = new EncodedChartCache();
+        ChartUtils.setImageCache(this.cache);
+        this.dataset = new DefaultPieDataset();
+        this.dataset.setValue("A", 1.0);
+        this.dataset.setValue("B", 2.0);
+        this.chart = ChartFactory.createPieChart("Pie", this.dataset);
+        this.chart.addProgressListener(new ChartProgressListener() {
+            @Override
+            public void chartProgress(ChartProgressEvent event) {
+                if (event.getType() == ChartProgressEvent.DRAWING_STARTED) {
+                    drawCount++;
+                }
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        ChartUtils.setImageCache(null);
+    }
+
+    /**
+     * Writes the chart in PNG format and returns the bytes.
+     * 
+     * @param width  the width.
+     * @param height  the height.
+     * 
+     * @return The PNG bytes.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    private byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ChartUtils.writeChartAsPNG(out, this.chart, width, height);
+        return out.toByteArray();
+    }
+
+    /**
+     * An unchanged chart is only drawn once.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testReuse() throws IOException {
+        byte[] b1 = png(300, 200);
+        byte[] b2 = png(300, 200);
+        assertEquals(1, this.drawCount);
+        assertArrayEquals(b1, b2);
+        assertEquals(1, this.cache.getItemCount());
+        assertEquals(b1.length, this.cache.getSize());
+
+        // a different size or format is drawn again
+        png(301, 200);
+        assertEquals(2, this.drawCount);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ChartUtils.writeChartAsJPEG(out, this.chart, 300, 200);
+        ChartUtils.writeChartAsJPEG(out, this.chart, 300, 200);
+        assertEquals(3, this.drawCount);
+
+        // requesting rendering info always draws the chart
+        ChartRenderingInfo info = new ChartRenderingInfo();
+        out = new ByteArrayOutputStream();
+        ChartUtils.writeChartAsPNG(out, this.chart, 300, 200, info);
+        assertEquals(4, this.drawCount);
+        assertTrue(info.getEntityCollection().getEntityCount() > 0);
+    }
+
+    /**
+     * A change to the chart (or its dataset) invalidates the cached image.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testInvalidation() throws IOException {
+        byte[] b1 = png(300, 200);
+        this.dataset.setValue("C", 3.0);
+        byte[] b2 = png(300, 200);
+        assertEquals(2, this.drawCount);
+        assertFalse(java.util.Arrays.equals(b1, b2));
+        this.chart.setBackgroundPaint(Color.YELLOW);
+        png(300, 200);
+        png(300, 200);
+        assertEquals(3, this.drawCount);
+        assertEquals(1, this.cache.getItemCount());
+
+        this.cache.clear();
+        png(300, 200);
+        assertEquals(4, this.drawCount);
+    }
+
+    /**
+     * The cache size is limited.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testMaximumSize() throws IOException {
+        byte[] b1 = png(300, 200);
+        EncodedChartCache small = new EncodedChartCache(b1.length + 10);
+        ChartUtils.setImageCache(small);
+        png(300, 200);
+        png(310, 200);
+        assertEquals(1, small.getItemCount());
+        assertTrue(small.getSize() <= small.getMaximumSize());
+    }
+
+    /**
+     * The cache is also used by ExportUtils.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testExportUtils() throws IOException {
+        File f1 = this.folder.newFile("chart1.png");
+        File f2 = this.folder.newFile("chart2.png");
+        ExportUtils.writeAsPNG(this.chart, 300, 200, f1);
+        ExportUtils.writeAsPNG(this.chart, 300, 200, f2);
+        assertEquals(1, this.drawCount);
+        assertTrue(f1.length() > 0);
+        assertEquals(f1.length(), f2.length());
+    }
+
+}
@@ -57,6 +57,7 @@ import org.jfree.chart.event.ChartChangeEvent;
 import org.jfree.chart.event.ChartChangeListener;
 import org.jfree.chart.plot.PiePlot;
 import org.jfree.chart.plot.RingPlot;
+import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.title.LegendTitle;
 import org.jfree.chart.title.TextTitle;
 import org.jfree.chart.title.Title;
@@ -69,6 +70,8 @@ import org.jfree.data.time.Day;
 import org.jfree.data.time.RegularTimePeriod;
 import org.jfree.data.time.TimeSeries;
 import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -490,4 +493,62 @@ public class JFreeChartTest implements ChartChangeListener {
         this.lastChartChangeEvent = event;
     }
 
+
+    /**
+     * The modification stamp advances when any part of the chart changes.
+     */
+    @Test
+    public void testModificationStamp() throws CloneNotSupportedException {
+        XYSeries series = new XYSeries("S1");
+        series.add(1.0, 1.0);
+        XYSeriesCollection dataset = new XYSeriesCollection(series);
+        JFreeChart chart = ChartFactory.createXYLineChart("Title", "X", "Y",
+                dataset);
+        XYPlot plot = (XYPlot) chart.getPlot();
+        long stamp = chart.getModificationStamp();
+        assertTrue(stamp > 0L);
+        JFreeChart other = ChartFactory.createXYLineChart("Title", "X", "Y",
+                dataset);
+        assertFalse(other.getModificationStamp() == stamp);
+        JFreeChart clone = (JFreeChart) chart.clone();
+        assertFalse(clone.getModificationStamp() == stamp);
+
+        series.add(2.0, 2.0);
+        stamp = checkStampAdvanced(chart, stamp);
+        plot.setBackgroundPaint(Color.YELLOW);
+        stamp = checkStampAdvanced(chart, stamp);
+        plot.getDomainAxis().setLabel("XX");
+        stamp = checkStampAdvanced(chart, stamp);
+        plot.getRenderer().setSeriesPaint(0, Color.GREEN);
+        stamp = checkStampAdvanced(chart, stamp);
+        chart.getTitle().setText("New Title");
+        stamp = checkStampAdvanced(chart, stamp);
+        chart.getLegend().setItemPaint(Color.RED);
+        stamp = checkStampAdvanced(chart, stamp);
+        chart.setBorderVisible(true);
+        stamp = checkStampAdvanced(chart, stamp);
+
+        // changes are counted even when listeners are not notified
+        chart.setNotify(false);
+        stamp = chart.getModificationStamp();
+        series.add(3.0, 3.0);
+        stamp = checkStampAdvanced(chart, stamp);
+        chart.setNotify(true);
+        assertTrue(chart.getModificationStamp() > stamp);
+    }
+
+    /**
+     * Checks that the chart's modification stamp is greater than 
+     * {@code stamp} and returns the current stamp.
+     * 
+     * @param chart  the chart.
+     * @param stamp  the previous stamp.
+     * 
+     * @return The current stamp.
+     */
+    private long checkStampAdvanced(JFreeChart chart, long stamp) {
+        long current = chart.getModificationStamp();
+        assertTrue(current > stamp);
+        return current;
+    }
 }
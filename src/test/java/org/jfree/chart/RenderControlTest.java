@@ -0,0 +1,263 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ----------------------
+ * RenderControlTest.java
+ * ----------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import org.jfree.chart.axis.CategoryAxis;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.CrosshairState;
+import org.jfree.chart.plot.PlotRenderingInfo;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.category.BarRenderer;
+import org.jfree.chart.renderer.category.CategoryItemRendererState;
+import org.jfree.chart.renderer.xy.StackedXYAreaRenderer2;
+import org.jfree.chart.renderer.xy.XYBarRenderer;
+import org.jfree.chart.renderer.xy.XYItemRendererState;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.xy.DefaultTableXYDataset;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link RenderControl} class.
+ */
+public class RenderControlTest {
+
+    /**
+     * A renderer that counts the items it draws (in the first pass) and can
+     * cancel the drawing after a number of items.
+     */
+    static class CountingRenderer extends XYLineAndShapeRenderer {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        int count;
+
+        RenderControl control;
+
+        int cancelAt = -1;
+
+        CountingRenderer() {
+            super(true, false);
+        }
+
+        @Override
+        public void drawItem(Graphics2D g2, XYItemRendererState state,
+                Rectangle2D dataArea, PlotRenderingInfo info, XYPlot plot,
+                ValueAxis domainAxis, ValueAxis rangeAxis, XYDataset dataset,
+                int series, int item, CrosshairState crosshairState, 
+                int pass) {
+            if (pass == 0) {
+                this.count++;
+                if (this.count == this.cancelAt) {
+                    this.control.cancel();
+                }
+            }
+            super.drawItem(g2, state, dataArea, info, plot, domainAxis, 
+                    rangeAxis, dataset, series, item, crosshairState, pass);
+        }
+    }
+
+    private static JFreeChart createXYChart(int itemCount, 
+            CountingRenderer renderer) {
+        XYSeries series = new XYSeries("S1", true, false);
+        for (int i = 0; i < itemCount; i++) {
+            series.add(i, Math.sin(i / 100.0));
+        }
+        XYPlot plot = new XYPlot(new XYSeriesCollection(series), 
+                new NumberAxis("X"), new NumberAxis("Y"), renderer);
+        return new JFreeChart(plot);
+    }
+
+    private static void draw(JFreeChart chart, RenderControl control) {
+        BufferedImage image = new BufferedImage(400, 300, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        chart.draw(g2, new Rectangle2D.Double(0, 0, 400, 300), null, null, 
+                control);
+        assertNull(g2.getRenderingHint(ChartHints.KEY_RENDER_CONTROL));
+        g2.dispose();
+    }
+
+    @Test
+    public void testDeadline() {
+        RenderControl control = new RenderControl();
+        assertFalse(control.hasDeadline());
+        assertFalse(control.isExpired());
+        assertEquals(Long.MAX_VALUE, control.getRemainingNanos());
+        control = new RenderControl(0L);
+        assertTrue(control.hasDeadline());
+        assertTrue(control.isExpired());
+        control = new RenderControl(60000L);
+        assertFalse(control.isExpired());
+        assertTrue(control.getRemainingNanos() > 0L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBudget() {
+        new RenderControl(-1L);
+    }
+
+    /**
+     * Without a budget, every item is drawn.
+     */
+    @Test
+    public void testCompleteRender() {
+        CountingRenderer renderer = new CountingRenderer();
+        JFreeChart chart = createXYChart(20000, renderer);
+        RenderControl control = new RenderControl();
+        draw(chart, control);
+        assertEquals(20000, renderer.count);
+        assertFalse(control.isRefinementRequired());
+        assertFalse(control.isCancelled());
+    }
+
+    /**
+     * When the budget is used up, a coarse view of the data is drawn and
+     * the control records that the chart needs refinement.
+     */
+    @Test
+    public void testCoarseRender() {
+        CountingRenderer renderer = new CountingRenderer();
+        JFreeChart chart = createXYChart(20000, renderer);
+        RenderControl control = new RenderControl(0L);
+        draw(chart, control);
+        assertTrue(renderer.count > 0);
+        assertTrue(renderer.count < 20000);
+        assertTrue(control.isRefinementRequired());
+
+        // a small dataset is always drawn in full
+        renderer = new CountingRenderer();
+        chart = createXYChart(100, renderer);
+        control = new RenderControl(0L);
+        draw(chart, control);
+        assertEquals(100, renderer.count);
+        assertFalse(control.isRefinementRequired());
+    }
+
+    /**
+     * The coarse view works with renderers that need the x-intervals and
+     * the dataset index, and is not used for a table dataset.
+     */
+    @Test
+    public void testCoarseRenderWithIntervalsAndTables() {
+        XYSeries series = new XYSeries("S1", true, false);
+        for (int i = 0; i < 20000; i++) {
+            series.add(i, Math.sin(i / 100.0));
+        }
+        XYPlot plot = new XYPlot(new XYSeriesCollection(series),
+                new NumberAxis("X"), new NumberAxis("Y"), new XYBarRenderer());
+        RenderControl control = new RenderControl(0L);
+        draw(new JFreeChart(plot), control);
+        assertTrue(control.isRefinementRequired());
+
+        DefaultTableXYDataset table = new DefaultTableXYDataset();
+        table.addSeries(series);
+        plot = new XYPlot(table, new NumberAxis("X"), new NumberAxis("Y"),
+                new StackedXYAreaRenderer2());
+        control = new RenderControl(0L);
+        draw(new JFreeChart(plot), control);
+        assertFalse(control.isRefinementRequired());
+    }
+
+    /**
+     * A cancelled render stops early.
+     */
+    @Test
+    public void testCancel() {
+        CountingRenderer renderer = new CountingRenderer();
+        JFreeChart chart = createXYChart(20000, renderer);
+        RenderControl control = new RenderControl();
+        control.cancel();
+        draw(chart, control);
+        assertEquals(0, renderer.count);
+
+        control = new RenderControl();
+        renderer.count = 0;
+        renderer.control = control;
+        renderer.cancelAt = 5000;
+        draw(chart, control);
+        assertTrue(renderer.count >= 5000);
+        assertTrue(renderer.count < 5000 + 1024);
+    }
+
+    /**
+     * A cancelled render stops between the categories of a category plot.
+     */
+    @Test
+    public void testCancelCategoryPlot() {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        for (int c = 0; c < 50; c++) {
+            dataset.addValue(c, "R1", "C" + c);
+        }
+        final RenderControl control = new RenderControl();
+        final int[] count = new int[1];
+        BarRenderer renderer = new BarRenderer() {
+            @Override
+            public void drawItem(Graphics2D g2, 
+                    CategoryItemRendererState state, Rectangle2D dataArea, 
+                    CategoryPlot plot, CategoryAxis domainAxis, 
+                    ValueAxis rangeAxis, CategoryDataset dataset, int row, 
+                    int column, int pass) {
+                count[0]++;
+                if (count[0] == 10) {
+                    control.cancel();
+                }
+            }
+        };
+        CategoryPlot plot = new CategoryPlot(dataset, new CategoryAxis("C"),
+                new NumberAxis("V"), renderer);
+        draw(new JFreeChart(plot), control);
+        assertEquals(10, count[0]);
+    }
+
+}
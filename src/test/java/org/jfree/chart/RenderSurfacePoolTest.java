@@ -0,0 +1,214 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------------------
+ * RenderSurfacePoolTest.java
+ * --------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.jfree.chart.util.ExportUtils;
+import org.jfree.data.general.DefaultPieDataset;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for the {@link RenderSurfacePool} class and its use by 
+ * {@link ChartUtils} and {@link ExportUtils}.
+ */
+public class RenderSurfacePoolTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** The pool in use before the test. */
+    private RenderSurfacePool savedPool;
+
+    @Before
+    public void setUp() {
+        this.savedPool = ChartUtils.getRenderSurfacePool();
+    }
+
+    @After
+    public void tearDown() {
+        ChartUtils.setRenderSurfacePool(this.savedPool);
+    }
+
+    /**
+     * A released image is reused for the same size and type, and is cleared.
+     */
+    @Test
+    public void testReuse() {
+        RenderSurfacePool pool = new RenderSurfacePool();
+        BufferedImage image = pool.acquire(40, 30, 
+                BufferedImage.TYPE_INT_ARGB);
+        assertEquals(40, image.getWidth());
+        assertEquals(30, image.getHeight());
+        Graphics2D g2 = image.createGraphics();
+        g2.setColor(Color.RED);
+        g2.fillRect(0, 0, 40, 30);
+        g2.dispose();
+        pool.release(image);
+        assertEquals(1, pool.getImageCount());
+        assertEquals(40 * 30 * 4, pool.getSize());
+
+        assertNotSame(image, pool.acquire(40, 30, 
+                BufferedImage.TYPE_INT_RGB));
+        assertNotSame(image, pool.acquire(41, 30, 
+                BufferedImage.TYPE_INT_ARGB));
+        BufferedImage reused = pool.acquire(40, 30, 
+                BufferedImage.TYPE_INT_ARGB);
+        assertSame(image, reused);
+        assertEquals(0, pool.getImageCount());
+        assertEquals(0L, pool.getSize());
+        for (int y = 0; y < 30; y++) {
+            for (int x = 0; x < 40; x++) {
+                assertEquals(0, reused.getRGB(x, y));
+            }
+        }
+    }
+
+    /**
+     * The oldest idle images are discarded to stay within the limits.
+     */
+    @Test
+    public void testLimits() {
+        RenderSurfacePool pool = new RenderSurfacePool(2, 10000);
+        BufferedImage a = pool.acquire(10, 10, BufferedImage.TYPE_INT_RGB);
+        BufferedImage b = pool.acquire(20, 10, BufferedImage.TYPE_INT_RGB);
+        BufferedImage c = pool.acquire(30, 10, BufferedImage.TYPE_INT_RGB);
+        pool.release(a);
+        pool.release(b);
+        pool.release(c);
+        assertEquals(2, pool.getImageCount());
+        a = pool.acquire(10, 10, BufferedImage.TYPE_INT_RGB);
+        assertSame(c, pool.acquire(30, 10, BufferedImage.TYPE_INT_RGB));
+
+        // too large for the pool
+        pool.release(pool.acquire(100, 100, BufferedImage.TYPE_INT_RGB));
+        assertEquals(1, pool.getImageCount());
+
+        // the count limit discards 'b', then the size limit discards 'a'
+        pool.release(a);
+        assertEquals(2, pool.getImageCount());
+        BufferedImage d = pool.acquire(99, 25, BufferedImage.TYPE_INT_RGB);
+        pool.release(d);
+        assertEquals(1, pool.getImageCount());
+        assertEquals(9900L, pool.getSize());
+        assertSame(d, pool.acquire(99, 25, BufferedImage.TYPE_INT_RGB));
+        pool.release(d);
+        pool.clear();
+        assertEquals(0, pool.getImageCount());
+        assertEquals(0L, pool.getSize());
+    }
+
+    /**
+     * Images that were not acquired from the pool, or that have been 
+     * released already, are ignored, so an image is never handed out twice.
+     */
+    @Test
+    public void testUnknownAndDuplicateRelease() {
+        RenderSurfacePool pool = new RenderSurfacePool();
+        pool.release(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB));
+        assertEquals(0, pool.getImageCount());
+
+        BufferedImage image = pool.acquire(10, 10, 
+                BufferedImage.TYPE_INT_RGB);
+        pool.release(image);
+        pool.release(image);
+        assertEquals(1, pool.getImageCount());
+        BufferedImage first = pool.acquire(10, 10, 
+                BufferedImage.TYPE_INT_RGB);
+        BufferedImage second = pool.acquire(10, 10, 
+                BufferedImage.TYPE_INT_RGB);
+        assertSame(image, first);
+        assertNotSame(first, second);
+    }
+
+    /**
+     * There is no pool by default, so images are never reused unless a pool
+     * is set.
+     */
+    @Test
+    public void testNoPoolByDefault() {
+        assertNull(this.savedPool);
+    }
+
+    /**
+     * Writing charts repeatedly at the same size reuses the same image.
+     */
+    @Test
+    public void testChartUtils() throws IOException {
+        RenderSurfacePool pool = new RenderSurfacePool();
+        ChartUtils.setRenderSurfacePool(pool);
+        DefaultPieDataset dataset = new DefaultPieDataset();
+        dataset.setValue("A", 1.0);
+        JFreeChart chart = ChartFactory.createPieChart("Pie", dataset);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ChartUtils.writeChartAsPNG(out, chart, 400, 300);
+        assertEquals(1, pool.getImageCount());
+        BufferedImage image = pool.acquire(400, 300, 
+                BufferedImage.TYPE_INT_ARGB);
+        pool.release(image);
+        ChartUtils.writeChartAsJPEG(out, chart, 400, 300);
+        ChartUtils.writeChartAsPNG(out, chart, 400, 300);
+        assertEquals(2, pool.getImageCount());
+        assertSame(image, pool.acquire(400, 300, 
+                BufferedImage.TYPE_INT_ARGB));
+
+        ExportUtils.writeAsPNG(chart, 400, 300, 
+                this.folder.newFile("chart.png"));
+        assertEquals(2, pool.getImageCount());
+        assertTrue(this.folder.getRoot().listFiles()[0].length() > 0);
+
+        // no pool
+        ChartUtils.setRenderSurfacePool(null);
+        ChartUtils.writeChartAsPNG(out, chart, 400, 300);
+        assertEquals(2, pool.getImageCount());
+    }
+
+}
@@ -0,0 +1,255 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -----------------------
+ * FastPNGEncoderTest.java
+ * -----------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.encoders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.data.general.DefaultPieDataset;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link FastPNGEncoder} class.
+ */
+public class FastPNGEncoderTest {
+
+    /**
+     * Creates an image with a smooth gradient, so it has many colors.
+     *
+     * @param type  the image type.
+     *
+     * @return The image.
+     */
+    private static BufferedImage gradientImage(int type) {
+        BufferedImage image = new BufferedImage(67, 45, type);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int a = 255 - (x + y) % 200;
+                image.setRGB(x, y, (a << 24) | (x * 3 << 16) | (y * 5 << 8) 
+                        | ((x * y) & 0xFF));
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Encodes an image and decodes it again using ImageIO.
+     *
+     * @param encoder  the encoder.
+     * @param image  the image.
+     *
+     * @return The decoded image.
+     *
+     * @throws IOException if there is an IO problem.
+     */
+    private static BufferedImage roundTrip(FastPNGEncoder encoder, 
+            BufferedImage image) throws IOException {
+        byte[] data = encoder.encode(image);
+        return ImageIO.read(new ByteArrayInputStream(data));
+    }
+
+    /**
+     * Checks that two images have the same pixels.
+     *
+     * @param expected  the expected image.
+     * @param actual  the actual image.
+     * @param alpha  compare the alpha values?
+     */
+    private static void assertSamePixels(BufferedImage expected, 
+            BufferedImage actual, boolean alpha) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        int mask = alpha ? 0xFFFFFFFF : 0x00FFFFFF;
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals("(" + x + ", " + y + ")", 
+                        expected.getRGB(x, y) & mask, 
+                        actual.getRGB(x, y) & mask);
+            }
+        }
+    }
+
+    /**
+     * Every filter strategy gives the same pixels back.
+     */
+    @Test
+    public void testFilters() throws IOException {
+        BufferedImage image = gradientImage(BufferedImage.TYPE_INT_ARGB);
+        FastPNGEncoder encoder = new FastPNGEncoder();
+        for (int f = FastPNGEncoder.FILTER_NONE; 
+                f <= FastPNGEncoder.FILTER_ADAPTIVE; f++) {
+            encoder.setFilter(f);
+            BufferedImage decoded = roundTrip(encoder, image);
+            assertFalse(decoded.getColorModel() instanceof IndexColorModel);
+            assertTrue(decoded.getColorModel().hasAlpha());
+            assertSamePixels(image, decoded, true);
+        }
+    }
+
+    /**
+     * The alpha channel is dropped when alpha encoding is off, and images
+     * without alpha are written as RGB.
+     */
+    @Test
+    public void testAlpha() throws IOException {
+        FastPNGEncoder encoder = new FastPNGEncoder();
+        encoder.setEncodingAlpha(false);
+        BufferedImage image = gradientImage(BufferedImage.TYPE_INT_ARGB);
+        BufferedImage decoded = roundTrip(encoder, image);
+        assertFalse(decoded.getColorModel().hasAlpha());
+        assertSamePixels(image, decoded, false);
+
+        encoder.setEncodingAlpha(true);
+        image = gradientImage(BufferedImage.TYPE_INT_RGB);
+        decoded = roundTrip(encoder, image);
+        assertFalse(decoded.getColorModel().hasAlpha());
+        assertSamePixels(image, decoded, false);
+    }
+
+    /**
+     * Images with few colors are written as indexed PNGs, including 
+     * transparent colors.
+     */
+    @Test
+    public void testPalette() throws IOException {
+        FastPNGEncoder encoder = new FastPNGEncoder();
+        int[] counts = {2, 3, 16, 200};
+        for (int count : counts) {
+            BufferedImage image = new BufferedImage(33, 20, 
+                    BufferedImage.TYPE_INT_ARGB);
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    int i = (x + y * image.getWidth()) % count;
+                    int a = i == 1 ? 0x80 : 0xFF;
+                    image.setRGB(x, y, (a << 24) | (i * 0x010203));
+                }
+            }
+            BufferedImage decoded = roundTrip(encoder, image);
+            assertTrue(decoded.getColorModel() instanceof IndexColorModel);
+            assertSamePixels(image, decoded, true);
+        }
+
+        // the same image as true color is larger
+        BufferedImage image = new BufferedImage(400, 300, 
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setColor(Color.WHITE);
+        g2.fillRect(0, 0, 400, 300);
+        g2.setColor(Color.RED);
+        g2.drawLine(0, 0, 399, 299);
+        g2.dispose();
+        int indexedSize = encoder.encode(image).length;
+        encoder.setPaletteEnabled(false);
+        BufferedImage decoded = roundTrip(encoder, image);
+        assertFalse(decoded.getColorModel() instanceof IndexColorModel);
+        assertSamePixels(image, decoded, false);
+        assertTrue(indexedSize < encoder.encode(image).length);
+    }
+
+    /**
+     * Images that are not backed by an int buffer are supported.
+     */
+    @Test
+    public void testOtherImageTypes() throws IOException {
+        BufferedImage image = gradientImage(BufferedImage.TYPE_4BYTE_ABGR);
+        assertSamePixels(image, roundTrip(new FastPNGEncoder(), image), true);
+        image = gradientImage(BufferedImage.TYPE_3BYTE_BGR);
+        assertSamePixels(image, roundTrip(new FastPNGEncoder(), image), 
+                false);
+    }
+
+    /**
+     * Each compression level gives a valid image, and level 0 is larger than
+     * level 9.
+     */
+    @Test
+    public void testCompressionLevel() throws IOException {
+        DefaultPieDataset dataset = new DefaultPieDataset();
+        dataset.setValue("A", 1.0);
+        dataset.setValue("B", 2.0);
+        JFreeChart chart = ChartFactory.createPieChart("Pie", dataset);
+        BufferedImage image = chart.createBufferedImage(400, 300);
+        FastPNGEncoder encoder = new FastPNGEncoder();
+        encoder.setQuality(0.0f);
+        assertEquals(0, encoder.getCompressionLevel());
+        int size0 = encoder.encode(image).length;
+        for (int level = 1; level <= 9; level++) {
+            encoder.setCompressionLevel(level);
+            assertSamePixels(image, roundTrip(encoder, image), true);
+        }
+        assertTrue(encoder.encode(image).length < size0);
+        encoder.setQuality(12.0f);
+        assertEquals(9, encoder.getCompressionLevel());
+
+        boolean pass = false;
+        try {
+            encoder.setCompressionLevel(10);
+        }
+        catch (IllegalArgumentException e) {
+            pass = true;
+        }
+        assertTrue(pass);
+    }
+
+    /**
+     * The factory returns this encoder for FAST_PNG, and keeps the ImageIO
+     * based encoder for PNG.
+     */
+    @Test
+    public void testFactory() {
+        ImageEncoder encoder = ImageEncoderFactory.newInstance(
+                ImageFormat.FAST_PNG, 3.0f, false);
+        assertTrue(encoder instanceof FastPNGEncoder);
+        assertEquals(3, ((FastPNGEncoder) encoder).getCompressionLevel());
+        assertFalse(encoder.isEncodingAlpha());
+        assertTrue(ImageEncoderFactory.newInstance(ImageFormat.PNG)
+                instanceof SunPNGEncoderAdapter);
+    }
+
+}
@@ -0,0 +1,151 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------------------------
+ * IndexedEntityCollectionTest.java
+ * --------------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+
+import org.jfree.chart.TestUtils;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link IndexedEntityCollection} class.
+ */
+public class IndexedEntityCollectionTest {
+
+    /**
+     * Checks that the lookups give the same results as a
+     * {@link StandardEntityCollection} containing the same entities.
+     */
+    @Test
+    public void testGetEntity() {
+        IndexedEntityCollection c1 = new IndexedEntityCollection();
+        StandardEntityCollection c2 = new StandardEntityCollection();
+        assertNull(c1.getEntity(1.0, 1.0));
+
+        // a large entity (such as a plot entity) that is underneath the rest
+        ChartEntity plot = new ChartEntity(new Rectangle2D.Double(0.0, 0.0,
+                100.0, 100.0));
+        c1.add(plot);
+        c2.add(plot);
+        Random random = new Random(123L);
+        for (int i = 0; i < 1000; i++) {
+            double x = random.nextDouble() * 100.0;
+            double y = random.nextDouble() * 100.0;
+            double size = random.nextDouble() * 5.0;
+            ChartEntity entity = new ChartEntity(new Ellipse2D.Double(x, y,
+                    size, size));
+            c1.add(entity);
+            c2.add(entity);
+        }
+        // a large entity on top of the others
+        ChartEntity top = new ChartEntity(new Rectangle2D.Double(20.0, 20.0,
+                30.0, 30.0));
+        c1.add(top);
+        c2.add(top);
+        assertSame(top, c1.getEntity(25.0, 25.0));
+        for (int i = 0; i < 5000; i++) {
+            double x = random.nextDouble() * 110.0 - 5.0;
+            double y = random.nextDouble() * 110.0 - 5.0;
+            assertSame(c2.getEntity(x, y), c1.getEntity(x, y));
+        }
+
+        // the index is updated when entities are added
+        ChartEntity e = new ChartEntity(new Rectangle2D.Double(90.0, 90.0,
+                20.0, 20.0));
+        c1.add(e);
+        assertSame(e, c1.getEntity(105.0, 105.0));
+        assertSame(e, c1.getEntity(95.0, 95.0));
+        c1.clear();
+        assertNull(c1.getEntity(95.0, 95.0));
+    }
+
+    /**
+     * Confirm that the equals method can distinguish all the required fields.
+     */
+    @Test
+    public void testEquals() {
+        IndexedEntityCollection c1 = new IndexedEntityCollection();
+        IndexedEntityCollection c2 = new IndexedEntityCollection();
+        assertTrue(c1.equals(c2));
+        c1.add(new ChartEntity(new Rectangle2D.Double(1.0, 2.0, 3.0, 4.0)));
+        assertFalse(c1.equals(c2));
+        c2.add(new ChartEntity(new Rectangle2D.Double(1.0, 2.0, 3.0, 4.0)));
+        assertTrue(c1.equals(c2));
+    }
+
+    /**
+     * Confirm that cloning works.
+     */
+    @Test
+    public void testCloning() throws CloneNotSupportedException {
+        IndexedEntityCollection c1 = new IndexedEntityCollection();
+        c1.add(new ChartEntity(new Rectangle2D.Double(1.0, 2.0, 3.0, 4.0)));
+        assertEquals(c1.getEntity(0), c1.getEntity(2.0, 3.0));
+        IndexedEntityCollection c2 = (IndexedEntityCollection) c1.clone();
+        assertTrue(c1 != c2);
+        assertTrue(c1.getClass() == c2.getClass());
+        assertTrue(c1.equals(c2));
+        assertSame(c2.getEntity(0), c2.getEntity(2.0, 3.0));
+
+        // check independence
+        c1.clear();
+        assertFalse(c1.equals(c2));
+    }
+
+    /**
+     * Serialize an instance, restore it, and check for equality.
+     */
+    @Test
+    public void testSerialization() {
+        IndexedEntityCollection c1 = new IndexedEntityCollection();
+        c1.add(new ChartEntity(new Rectangle2D.Double(1.0, 2.0, 3.0, 4.0)));
+        c1.getEntity(2.0, 3.0);
+        IndexedEntityCollection c2 = (IndexedEntityCollection)
+                TestUtils.serialised(c1);
+        assertEquals(c1, c2);
+        assertSame(c2.getEntity(0), c2.getEntity(2.0, 3.0));
+    }
+
+}
@@ -42,6 +42,7 @@
 package org.jfree.chart.plot;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.awt.Graphics2D;
@@ -49,6 +50,7 @@ import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.List;
 
+import org.jfree.chart.ChartRenderingInfo;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.TestUtils;
 import org.jfree.chart.axis.CategoryAxis;
@@ -105,6 +107,65 @@ public class CombinedDomainCategoryPlotTest implements ChartChangeListener {
         CombinedDomainCategoryPlot plot1 = createPlot();
         CombinedDomainCategoryPlot plot2 = createPlot();
         assertTrue(plot1.equals(plot2));
+
+        plot1.setParallelRendering(true);
+        assertFalse(plot1.equals(plot2));
+        plot2.setParallelRendering(true);
+        assertTrue(plot1.equals(plot2));
+    }
+
+    /**
+     * Drawing the subplots in parallel gives the same output and rendering
+     * info as drawing them one after another.
+     */
+    @Test
+    public void testParallelRendering() {
+        ChartRenderingInfo serialInfo = new ChartRenderingInfo();
+        BufferedImage serial = draw(createPlot(), serialInfo);
+        CombinedDomainCategoryPlot plot = createPlot();
+        plot.setParallelRendering(true);
+        ChartRenderingInfo parallelInfo = new ChartRenderingInfo();
+        BufferedImage parallel = draw(plot, parallelInfo);
+        for (int y = 0; y < serial.getHeight(); y++) {
+            for (int x = 0; x < serial.getWidth(); x++) {
+                int e = serial.getRGB(x, y);
+                int a = parallel.getRGB(x, y);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int diff = ((e >> shift) & 0xFF) - ((a >> shift) & 0xFF);
+                    assertTrue("(" + x + ", " + y + ")", Math.abs(diff) <= 2);
+                }
+            }
+        }
+        assertEquals(serialInfo.getEntityCollection().getEntityCount(), 
+                parallelInfo.getEntityCollection().getEntityCount());
+        PlotRenderingInfo serialPlotInfo = serialInfo.getPlotInfo();
+        PlotRenderingInfo parallelPlotInfo = parallelInfo.getPlotInfo();
+        assertEquals(2, parallelPlotInfo.getSubplotCount());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(serialPlotInfo.getSubplotInfo(i).getDataArea(), 
+                    parallelPlotInfo.getSubplotInfo(i).getDataArea());
+            assertEquals(parallelInfo, 
+                    parallelPlotInfo.getSubplotInfo(i).getOwner());
+        }
+    }
+
+    /**
+     * Draws a chart for a plot into an image (with a translation).
+     *
+     * @param plot  the plot.
+     * @param info  the rendering info.
+     *
+     * @return The image.
+     */
+    private static BufferedImage draw(Plot plot, ChartRenderingInfo info) {
+        JFreeChart chart = new JFreeChart(plot);
+        BufferedImage image = new BufferedImage(440, 330, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.translate(20, 15);
+        chart.draw(g2, new Rectangle2D.Double(0, 0, 400, 300), info);
+        g2.dispose();
+        return image;
     }
 
     /**
@@ -42,14 +42,21 @@
 package org.jfree.chart.plot;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.awt.Font;
 import java.awt.Graphics2D;
+import java.awt.Paint;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 
+import org.jfree.chart.ChartHints;
+import org.jfree.chart.ChartLayer;
+import org.jfree.chart.ChartRenderingInfo;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.TestUtils;
 import org.jfree.chart.annotations.XYTextAnnotation;
@@ -116,6 +123,242 @@ public class CombinedDomainXYPlotTest implements ChartChangeListener {
         CombinedDomainXYPlot plot2 = createPlot();
         assertTrue(plot1.equals(plot2));
         assertTrue(plot2.equals(plot1));
+
+        plot1.setParallelRendering(true);
+        assertFalse(plot1.equals(plot2));
+        plot2.setParallelRendering(true);
+        assertTrue(plot1.equals(plot2));
+    }
+
+    /**
+     * Drawing the subplots in parallel gives the same output and rendering
+     * info as drawing them one after another.
+     */
+    @Test
+    public void testParallelRendering() {
+        ChartRenderingInfo serialInfo = new ChartRenderingInfo();
+        BufferedImage serial = draw(createPlot(), serialInfo);
+        CombinedDomainXYPlot plot = createPlot();
+        plot.setParallelRendering(true);
+        ChartRenderingInfo parallelInfo = new ChartRenderingInfo();
+        BufferedImage parallel = draw(plot, parallelInfo);
+        for (int y = 0; y < serial.getHeight(); y++) {
+            for (int x = 0; x < serial.getWidth(); x++) {
+                int e = serial.getRGB(x, y);
+                int a = parallel.getRGB(x, y);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int diff = ((e >> shift) & 0xFF) - ((a >> shift) & 0xFF);
+                    assertTrue("(" + x + ", " + y + ")", Math.abs(diff) <= 2);
+                }
+            }
+        }
+        assertEquals(serialInfo.getEntityCollection().getEntityCount(), 
+                parallelInfo.getEntityCollection().getEntityCount());
+        PlotRenderingInfo serialPlotInfo = serialInfo.getPlotInfo();
+        PlotRenderingInfo parallelPlotInfo = parallelInfo.getPlotInfo();
+        assertEquals(2, parallelPlotInfo.getSubplotCount());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(serialPlotInfo.getSubplotInfo(i).getDataArea(), 
+                    parallelPlotInfo.getSubplotInfo(i).getDataArea());
+            assertEquals(parallelInfo, 
+                    parallelPlotInfo.getSubplotInfo(i).getOwner());
+        }
+    }
+
+    /**
+     * A combined plot that is a subplot of a combined plot drawn in parallel
+     * draws its own subplots one after another (waiting for the pool from
+     * one of its threads could deadlock).
+     */
+    @Test(timeout = 60000)
+    public void testParallelRenderingNested() {
+        CombinedDomainXYPlot serialPlot = new CombinedDomainXYPlot(
+                new NumberAxis("Domain"));
+        serialPlot.add(createPlot());
+        serialPlot.add(createPlot());
+        CombinedDomainXYPlot plot = new CombinedDomainXYPlot(
+                new NumberAxis("Domain"));
+        plot.setParallelRendering(true);
+        for (int i = 0; i < 2; i++) {
+            CombinedDomainXYPlot subplot = createPlot();
+            subplot.setParallelRendering(true);
+            plot.add(subplot);
+        }
+        ChartRenderingInfo serialInfo = new ChartRenderingInfo();
+        BufferedImage serial = draw(serialPlot, serialInfo);
+        ChartRenderingInfo info = new ChartRenderingInfo();
+        BufferedImage parallel = draw(plot, info);
+        for (int y = 0; y < serial.getHeight(); y++) {
+            for (int x = 0; x < serial.getWidth(); x++) {
+                int e = serial.getRGB(x, y);
+                int a = parallel.getRGB(x, y);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int diff = ((e >> shift) & 0xFF) - ((a >> shift) & 0xFF);
+                    assertTrue("(" + x + ", " + y + ")", Math.abs(diff) <= 2);
+                }
+            }
+        }
+        assertEquals(serialInfo.getEntityCollection().getEntityCount(),
+                info.getEntityCollection().getEntityCount());
+    }
+
+    /**
+     * The subplots can be drawn in parallel without rendering info.
+     */
+    @Test
+    public void testParallelRenderingWithoutInfo() {
+        BufferedImage serial = draw(createPlot(), null);
+        CombinedDomainXYPlot plot = createPlot();
+        plot.setParallelRendering(true);
+        BufferedImage parallel = draw(plot, null);
+        for (int y = 0; y < serial.getHeight(); y++) {
+            for (int x = 0; x < serial.getWidth(); x++) {
+                int e = serial.getRGB(x, y);
+                int a = parallel.getRGB(x, y);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int diff = ((e >> shift) & 0xFF) - ((a >> shift) & 0xFF);
+                    assertTrue("(" + x + ", " + y + ")", Math.abs(diff) <= 2);
+                }
+            }
+        }
+    }
+
+    /**
+     * The series that are not in the legend get their automatic paints
+     * before the subplots are drawn in parallel, in the same order as when
+     * the subplots are drawn one after another.
+     */
+    @Test
+    public void testParallelRenderingSeriesNotInLegend() {
+        CombinedDomainXYPlot serialPlot = createPlot();
+        CombinedDomainXYPlot plot = createPlot();
+        plot.setParallelRendering(true);
+        for (CombinedDomainXYPlot p : Arrays.asList(serialPlot, plot)) {
+            List<XYPlot> subplots = p.getSubplots();
+            for (XYPlot subplot : subplots) {
+                subplot.setRenderer(new ThreadCheckingRenderer());
+            }
+            subplots.get(0).getRenderer().setSeriesVisibleInLegend(1, false);
+            subplots.get(1).getRenderer().setSeriesVisibleInLegend(0, false);
+        }
+        BufferedImage serial = draw(serialPlot, new ChartRenderingInfo());
+        BufferedImage parallel = draw(plot, new ChartRenderingInfo());
+        List<XYPlot> serialSubplots = serialPlot.getSubplots();
+        List<XYPlot> subplots = plot.getSubplots();
+        for (int i = 0; i < 2; i++) {
+            XYItemRenderer sr = serialSubplots.get(i).getRenderer();
+            ThreadCheckingRenderer r
+                    = (ThreadCheckingRenderer) subplots.get(i).getRenderer();
+            assertFalse(r.otherThread);
+            assertEquals(sr.getSeriesPaint(0), r.getSeriesPaint(0));
+            assertEquals(sr.getSeriesPaint(1), r.getSeriesPaint(1));
+        }
+        for (int y = 0; y < serial.getHeight(); y++) {
+            for (int x = 0; x < serial.getWidth(); x++) {
+                int e = serial.getRGB(x, y);
+                int a = parallel.getRGB(x, y);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int diff = ((e >> shift) & 0xFF) - ((a >> shift) & 0xFF);
+                    assertTrue("(" + x + ", " + y + ")", Math.abs(diff) <= 2);
+                }
+            }
+        }
+    }
+
+    /**
+     * A renderer that records whether a series paint is assigned on a
+     * thread other than the one that created the renderer.
+     */
+    private static class ThreadCheckingRenderer
+            extends StandardXYItemRenderer {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        /** The thread that created the renderer. */
+        private final transient Thread thread = Thread.currentThread();
+
+        /** Set if a paint is assigned on another thread. */
+        volatile boolean otherThread;
+
+        @Override
+        public Paint lookupSeriesPaint(int series) {
+            if (getSeriesPaint(series) == null
+                    && Thread.currentThread() != this.thread) {
+                this.otherThread = true;
+            }
+            return super.lookupSeriesPaint(series);
+        }
+
+    }
+
+    /**
+     * Subplots that share a renderer, or a target with a scaling transform,
+     * are drawn one after another.
+     */
+    @Test
+    public void testParallelRenderingFallback() {
+        BufferedImage image = new BufferedImage(10, 10, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.translate(5, 5);
+        assertTrue(ParallelSubplotRenderer.isSupported(g2));
+        g2.scale(1.5, 1.5);
+        assertFalse(ParallelSubplotRenderer.isSupported(g2));
+        g2.dispose();
+
+        CombinedDomainXYPlot serialPlot = createPlot();
+        CombinedDomainXYPlot plot = createPlot();
+        plot.setParallelRendering(true);
+        assertFalse(ParallelSubplotRenderer.hasSharedRenderers(
+                plot.getSubplots()));
+        List<XYPlot> subplots = serialPlot.getSubplots();
+        subplots.get(1).setRenderer(subplots.get(0).getRenderer());
+        subplots = plot.getSubplots();
+        subplots.get(1).setRenderer(subplots.get(0).getRenderer());
+        assertTrue(ParallelSubplotRenderer.hasSharedRenderers(subplots));
+        // no legend, since a shared renderer takes the legend items from the
+        // last plot it was added to
+        BufferedImage serial = draw(new JFreeChart(null, null, serialPlot, 
+                false), new ChartRenderingInfo());
+        BufferedImage parallel = draw(new JFreeChart(null, null, plot, false),
+                new ChartRenderingInfo());
+        for (int y = 0; y < serial.getHeight(); y++) {
+            for (int x = 0; x < serial.getWidth(); x++) {
+                assertEquals(serial.getRGB(x, y), parallel.getRGB(x, y));
+            }
+        }
+    }
+
+    /**
+     * Draws a chart for a plot into an image (with a translation).
+     *
+     * @param plot  the plot.
+     * @param info  the rendering info ({@code null} permitted).
+     *
+     * @return The image.
+     */
+    private static BufferedImage draw(Plot plot, ChartRenderingInfo info) {
+        return draw(new JFreeChart(plot), info);
+    }
+
+    /**
+     * Draws a chart into an image (with a translation).
+     *
+     * @param chart  the chart.
+     * @param info  the rendering info ({@code null} permitted).
+     *
+     * @return The image.
+     */
+    private static BufferedImage draw(JFreeChart chart, 
+            ChartRenderingInfo info) {
+        BufferedImage image = new BufferedImage(440, 330, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.translate(20, 15);
+        chart.draw(g2, new Rectangle2D.Double(0, 0, 400, 300), info);
+        g2.dispose();
+        return image;
     }
 
     /**
@@ -141,6 +384,32 @@ public class CombinedDomainXYPlotTest implements ChartChangeListener {
         assertEquals(plot1, plot2);
     }
 
+    /**
+     * The shared axis is only drawn when the axes layer is drawn.
+     */
+    @Test
+    public void testDrawDataLayer() {
+        CombinedDomainXYPlot plot = new CombinedDomainXYPlot(
+                new NumberAxis("Domain"));
+        plot.add(new XYPlot(null, null, new NumberAxis("Range 1"),
+                new StandardXYItemRenderer()));
+        plot.add(new XYPlot(null, null, new NumberAxis("Range 2"),
+                new StandardXYItemRenderer()));
+        BufferedImage image = new BufferedImage(400, 300,
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setRenderingHint(ChartHints.KEY_LAYERS,
+                EnumSet.of(ChartLayer.DATA));
+        plot.draw(g2, new Rectangle2D.Double(0, 0, 400, 300), null, null,
+                null);
+        g2.dispose();
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                assertEquals(0, image.getRGB(x, y));
+            }
+        }
+    }
+
     /**
      * Check that only one chart change event is generated by a change to a
      * subplot.
@@ -0,0 +1,113 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ------------------------
+ * LTTBXYDecimatorTest.java
+ * ------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.plot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+
+import org.jfree.chart.TestUtils;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.ui.RectangleEdge;
+import org.jfree.data.xy.DefaultXYDataset;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link LTTBXYDecimator} class.
+ */
+public class LTTBXYDecimatorTest {
+
+    /**
+     * Checks the number and order of the items selected.
+     */
+    @Test
+    public void testDecimate() {
+        int n = 10000;
+        double[][] data = new double[2][n];
+        for (int i = 0; i < n; i++) {
+            data[0][i] = i;
+            data[1][i] = (i == 5000) ? 100.0 : Math.sin(i / 50.0);
+        }
+        DefaultXYDataset dataset = new DefaultXYDataset();
+        dataset.addSeries("S1", data);
+        NumberAxis axis = new NumberAxis("X");
+        axis.setRange(0.0, n);
+        Rectangle2D area = new Rectangle2D.Double(0.0, 0.0, 200.0, 100.0);
+        int[] items = new LTTBXYDecimator().decimate(dataset, 0, 0, n - 1,
+                axis, area, RectangleEdge.BOTTOM);
+        assertEquals(200, items.length);
+        assertEquals(0, items[0]);
+        assertEquals(n - 1, items[items.length - 1]);
+        boolean spike = false;
+        for (int i = 1; i < items.length; i++) {
+            assertTrue(items[i] > items[i - 1]);
+            spike = spike || items[i] == 5000;
+        }
+        assertTrue(spike);
+
+        // fewer items than the threshold are all kept
+        items = new LTTBXYDecimator().decimate(dataset, 0, 10, 19, axis, area,
+                RectangleEdge.BOTTOM);
+        assertEquals(10, items.length);
+        assertEquals(19, items[9]);
+    }
+
+    /**
+     * Confirm that the equals method can distinguish all the required fields.
+     */
+    @Test
+    public void testEquals() {
+        LTTBXYDecimator d1 = new LTTBXYDecimator(2.0);
+        LTTBXYDecimator d2 = new LTTBXYDecimator(2.0);
+        assertTrue(d1.equals(d2));
+        d1 = new LTTBXYDecimator(3.0);
+        assertFalse(d1.equals(d2));
+    }
+
+    /**
+     * Serialize an instance, restore it, and check for equality.
+     */
+    @Test
+    public void testSerialization() {
+        LTTBXYDecimator d1 = new LTTBXYDecimator(1.5);
+        LTTBXYDecimator d2 = (LTTBXYDecimator) TestUtils.serialised(d1);
+        assertEquals(d1, d2);
+    }
+
+}
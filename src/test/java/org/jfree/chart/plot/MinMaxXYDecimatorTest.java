@@ -0,0 +1,112 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------------------
+ * MinMaxXYDecimatorTest.java
+ * --------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.plot;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+
+import org.jfree.chart.TestUtils;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.ui.RectangleEdge;
+import org.jfree.data.xy.DefaultXYDataset;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link MinMaxXYDecimator} class.
+ */
+public class MinMaxXYDecimatorTest {
+
+    /**
+     * Checks the items selected for a small dataset.
+     */
+    @Test
+    public void testDecimate() {
+        DefaultXYDataset dataset = new DefaultXYDataset();
+        dataset.addSeries("S1", new double[][] {
+                {0.0, 0.1, 0.2, 0.3, 0.4, 1.0, 1.1, 2.0, 2.1, 2.2},
+                {5.0, 1.0, 9.0, 3.0, 4.0, 2.0, Double.NaN, 1.0, 3.0, 2.0}});
+        NumberAxis axis = new NumberAxis("X");
+        axis.setRange(0.0, 10.0);
+        // one pixel per unit on the x-axis
+        Rectangle2D area = new Rectangle2D.Double(0.0, 0.0, 10.0, 10.0);
+        MinMaxXYDecimator d = new MinMaxXYDecimator();
+        int[] items = d.decimate(dataset, 0, 0, 9, axis, area,
+                RectangleEdge.BOTTOM);
+        assertArrayEquals(new int[] {0, 1, 2, 4, 5, 6, 7, 8, 9}, items);
+
+        items = d.decimate(dataset, 0, 2, 3, axis, area, RectangleEdge.BOTTOM);
+        assertArrayEquals(new int[] {2, 3}, items);
+    }
+
+    /**
+     * The number of items selected is bounded by the number of pixels.
+     */
+    @Test
+    public void testDecimateLargeSeries() {
+        int n = 100000;
+        double[][] data = new double[2][n];
+        for (int i = 0; i < n; i++) {
+            data[0][i] = i;
+            data[1][i] = Math.sin(i);
+        }
+        DefaultXYDataset dataset = new DefaultXYDataset();
+        dataset.addSeries("S1", data);
+        NumberAxis axis = new NumberAxis("X");
+        axis.setRange(0.0, n);
+        Rectangle2D area = new Rectangle2D.Double(0.0, 0.0, 500.0, 300.0);
+        int[] items = new MinMaxXYDecimator().decimate(dataset, 0, 0, n - 1,
+                axis, area, RectangleEdge.BOTTOM);
+        assertTrue(items.length <= 4 * 501);
+        for (int i = 1; i < items.length; i++) {
+            assertTrue(items[i] > items[i - 1]);
+        }
+    }
+
+    /**
+     * Serialize an instance, restore it, and check for equality.
+     */
+    @Test
+    public void testSerialization() {
+        MinMaxXYDecimator d1 = new MinMaxXYDecimator();
+        MinMaxXYDecimator d2 = (MinMaxXYDecimator) TestUtils.serialised(d1);
+        assertEquals(d1, d2);
+    }
+
+}
@@ -53,9 +53,11 @@ package org.jfree.chart.plot;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 
@@ -71,6 +73,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartRenderingInfo;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.LegendItem;
 import org.jfree.chart.LegendItemCollection;
@@ -80,9 +83,12 @@ import org.jfree.chart.axis.AxisLocation;
 import org.jfree.chart.axis.DateAxis;
 import org.jfree.chart.axis.NumberAxis;
 import org.jfree.chart.date.MonthConstants;
+import org.jfree.chart.entity.XYItemEntity;
 import org.jfree.chart.event.MarkerChangeListener;
 import org.jfree.chart.labels.StandardXYToolTipGenerator;
 import org.jfree.chart.renderer.xy.DefaultXYItemRenderer;
+import org.jfree.chart.renderer.xy.DeviationRenderer;
+import org.jfree.chart.renderer.xy.StackedXYAreaRenderer2;
 import org.jfree.chart.renderer.xy.StandardXYItemRenderer;
 import org.jfree.chart.renderer.xy.XYBarRenderer;
 import org.jfree.chart.renderer.xy.XYItemRenderer;
@@ -92,13 +98,19 @@ import org.jfree.chart.ui.RectangleInsets;
 import org.jfree.chart.util.DefaultShadowGenerator;
 import org.jfree.data.Range;
 import org.jfree.data.time.Day;
+import org.jfree.data.time.MultiResolutionTimeSeriesCollection;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.Second;
 import org.jfree.data.time.TimeSeries;
 import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.xy.DefaultTableXYDataset;
 import org.jfree.data.xy.DefaultXYDataset;
 import org.jfree.data.xy.IntervalXYDataset;
 import org.jfree.data.xy.XYDataset;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
+import org.jfree.data.xy.YIntervalSeries;
+import org.jfree.data.xy.YIntervalSeriesCollection;
 
 /**
  * Tests for the {@link XYPlot} class.
@@ -426,6 +438,12 @@ public class XYPlotTest {
         plot2.setShadowGenerator(null);
         assertTrue(plot1.equals(plot2));
 
+        // decimator
+        plot1.setDecimator(new LTTBXYDecimator(2.0));
+        assertFalse(plot1.equals(plot2));
+        plot2.setDecimator(new LTTBXYDecimator(2.0));
+        assertTrue(plot1.equals(plot2));
+
         LegendItemCollection lic1 = new LegendItemCollection();
         lic1.add(new LegendItem("XYZ", Color.RED));
         plot1.setFixedLegendItems(lic1);
@@ -1058,6 +1076,233 @@ public class XYPlotTest {
         }
     }
 
+    /**
+     * Draws a chart with a decimator for the plot, and checks that only the
+     * selected items are rendered.
+     */
+    @Test
+    public void testDrawWithDecimator() {
+        XYSeries series = new XYSeries("S1");
+        for (int i = 0; i < 10000; i++) {
+            series.add(i, Math.sin(i / 100.0));
+        }
+        series.add(10000, Double.NaN);
+        series.add(10001, 1.0);
+        XYSeriesCollection dataset = new XYSeriesCollection(series);
+        JFreeChart chart = ChartFactory.createXYLineChart("Title", "X", "Y",
+                dataset, PlotOrientation.VERTICAL, true, true, false);
+        XYPlot plot = (XYPlot) chart.getPlot();
+        plot.setDecimator(new MinMaxXYDecimator());
+        ChartRenderingInfo info = new ChartRenderingInfo();
+        BufferedImage image = new BufferedImage(400, 300,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        chart.draw(g2, new Rectangle2D.Double(0, 0, 400, 300), null, info);
+        int entityCount = info.getEntityCollection().getEntityCount();
+        assertTrue(entityCount > 0);
+        assertTrue(entityCount < 2000);
+
+        chart.draw(g2, new Rectangle2D.Double(0, 0, 400, 300), null, info);
+        assertEquals(entityCount, info.getEntityCollection().getEntityCount());
+
+        plot.getDomainAxis().setRange(0.0, 100.0);
+        plot.setDecimator(new LTTBXYDecimator());
+        chart.draw(g2, new Rectangle2D.Double(0, 0, 400, 300), null, info);
+        g2.dispose();
+    }
+
+    /**
+     * A decimated view is passed to a renderer that needs the x-intervals
+     * (and looks up the dataset index from the plot).
+     */
+    @Test
+    public void testDrawWithDecimatorAndBarRenderer() {
+        XYSeries series = new XYSeries("S1");
+        for (int i = 0; i < 10000; i++) {
+            series.add(i, Math.sin(i / 100.0));
+        }
+        XYSeriesCollection dataset = new XYSeriesCollection(series);
+        XYPlot plot = new XYPlot(dataset, new NumberAxis("X"),
+                new NumberAxis("Y"), new XYBarRenderer());
+        plot.setDecimator(new MinMaxXYDecimator());
+        JFreeChart chart = new JFreeChart(plot);
+        ChartRenderingInfo info = new ChartRenderingInfo();
+        BufferedImage image = new BufferedImage(400, 300,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        chart.draw(g2, new Rectangle2D.Double(0, 0, 400, 300), null, info);
+        g2.dispose();
+        int entityCount = info.getEntityCollection().getEntityCount();
+        assertTrue(entityCount > 0);
+        assertTrue(entityCount < 2000);
+        XYItemEntity entity = findLastItemEntity(info);
+        assertSame(dataset, entity.getDataset());
+        assertTrue(entity.getItem() > 9000);
+    }
+
+    /**
+     * The item entities for a decimated view refer to the plot's dataset
+     * and its item indices.
+     */
+    @Test
+    public void testDrawWithDecimatorEntities() {
+        XYSeries series = new XYSeries("S1");
+        for (int i = 0; i < 10000; i++) {
+            series.add(i, Math.sin(i / 100.0));
+        }
+        XYSeriesCollection dataset = new XYSeriesCollection(series);
+        XYPlot plot = new XYPlot(dataset, new NumberAxis("X"),
+                new NumberAxis("Y"), new XYLineAndShapeRenderer());
+        plot.setDecimator(new MinMaxXYDecimator());
+        JFreeChart chart = new JFreeChart(plot);
+        ChartRenderingInfo info = new ChartRenderingInfo();
+        BufferedImage image = new BufferedImage(400, 300,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        chart.draw(g2, new Rectangle2D.Double(0, 0, 400, 300), null, info);
+        g2.dispose();
+        XYItemEntity entity = findLastItemEntity(info);
+        assertSame(dataset, entity.getDataset());
+        assertEquals(9999, entity.getItem());
+        for (Object obj : info.getEntityCollection().getEntities()) {
+            if (obj instanceof XYItemEntity) {
+                XYItemEntity e = (XYItemEntity) obj;
+                assertSame(dataset, e.getDataset());
+                double x = dataset.getXValue(0, e.getItem());
+                double xx = plot.getDomainAxis().valueToJava2D(x,
+                        info.getPlotInfo().getDataArea(),
+                        plot.getDomainAxisEdge());
+                assertEquals(xx, e.getArea().getBounds2D().getCenterX(),
+                        1.0);
+            }
+        }
+    }
+
+    /**
+     * Returns the last item entity recorded for a chart.
+     *
+     * @param info  the rendering info.
+     *
+     * @return The entity.
+     */
+    private static XYItemEntity findLastItemEntity(ChartRenderingInfo info) {
+        XYItemEntity result = null;
+        for (Object entity : info.getEntityCollection().getEntities()) {
+            if (entity instanceof XYItemEntity) {
+                result = (XYItemEntity) entity;
+            }
+        }
+        assertNotNull(result);
+        return result;
+    }
+
+    /**
+     * Returns the first item entity recorded for a chart.
+     *
+     * @param info  the rendering info.
+     *
+     * @return The entity.
+     */
+    private static XYItemEntity findItemEntity(ChartRenderingInfo info) {
+        for (Object entity : info.getEntityCollection().getEntities()) {
+            if (entity instanceof XYItemEntity) {
+                return (XYItemEntity) entity;
+            }
+        }
+        fail("No item entity.");
+        return null;
+    }
+
+    /**
+     * A decimated view is passed to a renderer that needs the y-intervals.
+     */
+    @Test
+    public void testDrawWithDecimatorAndDeviationRenderer() {
+        YIntervalSeries series = new YIntervalSeries("S1");
+        for (int i = 0; i < 10000; i++) {
+            double y = Math.sin(i / 100.0);
+            series.add(i, y, y - 0.1, y + 0.1);
+        }
+        YIntervalSeriesCollection dataset = new YIntervalSeriesCollection();
+        dataset.addSeries(series);
+        XYPlot plot = new XYPlot(dataset, new NumberAxis("X"),
+                new NumberAxis("Y"), new DeviationRenderer());
+        plot.setDecimator(new MinMaxXYDecimator());
+        JFreeChart chart = new JFreeChart(plot);
+        BufferedImage image = new BufferedImage(400, 300,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        ChartRenderingInfo info = new ChartRenderingInfo();
+        chart.draw(g2, new Rectangle2D.Double(0, 0, 400, 300), null, info);
+        g2.dispose();
+        XYItemEntity entity = findItemEntity(info);
+        assertSame(dataset, entity.getDataset());
+    }
+
+    /**
+     * Datasets that carry more than (x, y) values per item are not
+     * decimated.
+     */
+    @Test
+    public void testDrawWithDecimatorAndTableDataset() {
+        DefaultTableXYDataset dataset = new DefaultTableXYDataset();
+        XYSeries series = new XYSeries("S1", true, false);
+        for (int i = 0; i < 10000; i++) {
+            series.add(i, Math.sin(i / 100.0));
+        }
+        dataset.addSeries(series);
+        XYPlot plot = new XYPlot(dataset, new NumberAxis("X"),
+                new NumberAxis("Y"), new StackedXYAreaRenderer2());
+        plot.setDecimator(new MinMaxXYDecimator());
+        JFreeChart chart = new JFreeChart(plot);
+        BufferedImage image = new BufferedImage(400, 300,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        ChartRenderingInfo info = new ChartRenderingInfo();
+        chart.draw(g2, new Rectangle2D.Double(0, 0, 400, 300), null, info);
+        g2.dispose();
+        assertSame(dataset, findItemEntity(info).getDataset());
+    }
+
+    /**
+     * Drawing a chart draws a view of a multi-resolution dataset at the
+     * resolution level that suits the axis range, without changing the
+     * dataset.
+     */
+    @Test
+    public void testDrawWithMultiResolutionDataset() {
+        TimeSeries series = new TimeSeries("S1");
+        RegularTimePeriod p = new Second(0, 0, 0, 1, 1, 2017);
+        for (int i = 0; i < 7200; i++) {
+            series.add(p, i);
+            p = p.next();
+        }
+        MultiResolutionTimeSeriesCollection dataset
+                = new MultiResolutionTimeSeriesCollection();
+        dataset.addSeries(series);
+        JFreeChart chart = ChartFactory.createTimeSeriesChart("Title", "X",
+                "Y", dataset);
+        BufferedImage image = new BufferedImage(400, 300,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        ChartRenderingInfo info = new ChartRenderingInfo();
+        chart.draw(g2, new Rectangle2D.Double(0, 0, 400, 300), info);
+        XYItemEntity entity = findItemEntity(info);
+        assertEquals(120, entity.getDataset().getItemCount(0));
+        assertEquals(0, dataset.getResolutionLevel());
+
+        XYPlot plot = (XYPlot) chart.getPlot();
+        assertEquals(0, plot.indexOf(entity.getDataset()));
+        plot.getDomainAxis().setRange(series.getTimePeriod(0)
+                .getFirstMillisecond(), series.getTimePeriod(99)
+                .getFirstMillisecond());
+        chart.draw(g2, new Rectangle2D.Double(0, 0, 400, 300), info);
+        entity = findItemEntity(info);
+        assertEquals(7200, entity.getDataset().getItemCount(0));
+        assertEquals(0, dataset.getResolutionLevel());
+        g2.dispose();
+    }
+
     /**
      * Check that removing a marker that isn't assigned to the plot returns
      * false.
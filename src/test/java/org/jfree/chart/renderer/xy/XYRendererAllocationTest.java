@@ -0,0 +1,288 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ------------------------------
+ * XYRendererAllocationTest.java
+ * ------------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.renderer.xy;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.time.Millisecond;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.xy.DefaultIntervalXYDataset;
+import org.jfree.data.xy.DefaultXYDataset;
+import org.jfree.data.xy.IntervalXYDataset;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.Test;
+
+/**
+ * Checks that the line, bar and scatter renderers read the dataset through
+ * the primitive accessors only, and that those accessors don't allocate
+ * any objects for the standard datasets.
+ */
+public class XYRendererAllocationTest {
+
+    /** The number of items in the test datasets. */
+    private static final int ITEM_COUNT = 10000;
+
+    /**
+     * A dataset that fails if any of the methods that return a
+     * {@code Number} are called.
+     */
+    static class PrimitiveOnlyDataset extends DefaultIntervalXYDataset {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        PrimitiveOnlyDataset() {
+            double[] x = new double[ITEM_COUNT];
+            double[] y = new double[ITEM_COUNT];
+            double[] y0 = new double[ITEM_COUNT];
+            for (int i = 0; i < ITEM_COUNT; i++) {
+                x[i] = i;
+                y[i] = Math.sin(i / 100.0);
+            }
+            addSeries("S1", new double[][] {x, x, x, y, y0, y});
+        }
+
+        private Number fail() {
+            throw new IllegalStateException("Boxed access.");
+        }
+
+        @Override
+        public Number getX(int series, int item) {
+            return fail();
+        }
+
+        @Override
+        public Number getY(int series, int item) {
+            return fail();
+        }
+
+        @Override
+        public Number getStartX(int series, int item) {
+            return fail();
+        }
+
+        @Override
+        public Number getEndX(int series, int item) {
+            return fail();
+        }
+
+        @Override
+        public Number getStartY(int series, int item) {
+            return fail();
+        }
+
+        @Override
+        public Number getEndY(int series, int item) {
+            return fail();
+        }
+    }
+
+    /**
+     * Draws a chart.
+     *
+     * @param chart  the chart.
+     */
+    private void draw(JFreeChart chart) {
+        BufferedImage image = new BufferedImage(400, 300,
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        chart.draw(g2, new Rectangle2D.Double(0, 0, 400, 300));
+        g2.dispose();
+    }
+
+    /**
+     * The line renderer should only use the primitive accessors.
+     */
+    @Test
+    public void testLineRendererUsesPrimitiveAccess() {
+        draw(ChartFactory.createXYLineChart("Title", "X", "Y",
+                new PrimitiveOnlyDataset(), PlotOrientation.VERTICAL, false,
+                false, false));
+    }
+
+    /**
+     * The bar renderer should only use the primitive accessors.
+     */
+    @Test
+    public void testBarRendererUsesPrimitiveAccess() {
+        draw(ChartFactory.createXYBarChart("Title", "X", false, "Y",
+                new PrimitiveOnlyDataset(), PlotOrientation.VERTICAL, false,
+                false, false));
+    }
+
+    /**
+     * The scatter renderer should only use the primitive accessors.
+     */
+    @Test
+    public void testScatterRendererUsesPrimitiveAccess() {
+        draw(ChartFactory.createScatterPlot("Title", "X", "Y",
+                new PrimitiveOnlyDataset(), PlotOrientation.VERTICAL, false,
+                false, false));
+    }
+
+    /**
+     * Returns the number of bytes allocated while reading every item in a
+     * dataset via the primitive accessors (after a warm-up pass), or -1 if
+     * the JVM can't measure allocations.
+     *
+     * @param dataset  the dataset.
+     *
+     * @return The number of bytes allocated.
+     */
+    private long measureAllocation(XYDataset dataset) {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1L;
+        }
+        com.sun.management.ThreadMXBean tb
+                = (com.sun.management.ThreadMXBean) bean;
+        if (!tb.isThreadAllocatedMemorySupported()) {
+            return -1L;
+        }
+        tb.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+        double total = 0.0;
+        long allocated = 0L;
+        for (int pass = 0; pass < 20; pass++) {
+            long before = tb.getThreadAllocatedBytes(threadId);
+            total += readAll(dataset);
+            allocated = tb.getThreadAllocatedBytes(threadId) - before;
+        }
+        assertTrue(total != 0.0);
+        return allocated;
+    }
+
+    /**
+     * Reads all the x and y values in a dataset.
+     *
+     * @param dataset  the dataset.
+     *
+     * @return The sum of the values.
+     */
+    private double readAll(XYDataset dataset) {
+        IntervalXYDataset intervals = null;
+        if (dataset instanceof IntervalXYDataset) {
+            intervals = (IntervalXYDataset) dataset;
+        }
+        double total = 0.0;
+        for (int s = 0; s < dataset.getSeriesCount(); s++) {
+            for (int i = 0; i < dataset.getItemCount(s); i++) {
+                total += dataset.getXValue(s, i) + dataset.getYValue(s, i);
+                if (intervals != null) {
+                    total += intervals.getStartXValue(s, i)
+                            + intervals.getEndXValue(s, i)
+                            + intervals.getStartYValue(s, i)
+                            + intervals.getEndYValue(s, i);
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Checks that less than one byte per item is allocated while reading a
+     * dataset (in other words, nothing is allocated per item).
+     *
+     * @param dataset  the dataset.
+     */
+    private void checkNoAllocationPerItem(XYDataset dataset) {
+        long allocated = measureAllocation(dataset);
+        assumeTrue(allocated >= 0L);
+        assertTrue("Allocated " + allocated + " bytes.",
+                allocated < ITEM_COUNT);
+    }
+
+    /**
+     * Reading an {@link XYSeriesCollection} with columnar storage should
+     * not allocate.
+     */
+    @Test
+    public void testXYSeriesCollectionAllocation() {
+        XYSeries series = new XYSeries("S1", true, true, true);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            series.add(i, i * 2.0);
+        }
+        checkNoAllocationPerItem(new XYSeriesCollection(series));
+    }
+
+    /**
+     * Reading a {@link TimeSeriesCollection} should not allocate, with
+     * either storage type.
+     */
+    @Test
+    public void testTimeSeriesCollectionAllocation() {
+        TimeSeries s1 = new TimeSeries("S1");
+        TimeSeries s2 = new TimeSeries("S2", "Time", "Value", true);
+        s2.setMaximumItemCount(ITEM_COUNT);
+        Millisecond t = new Millisecond();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            s1.add(t, i);
+            s2.add(t, i);
+            t = (Millisecond) t.next();
+        }
+        checkNoAllocationPerItem(new TimeSeriesCollection(s1));
+        checkNoAllocationPerItem(new TimeSeriesCollection(s2));
+    }
+
+    /**
+     * Reading a {@link DefaultXYDataset} should not allocate.
+     */
+    @Test
+    public void testDefaultXYDatasetAllocation() {
+        DefaultXYDataset dataset = new DefaultXYDataset();
+        double[][] data = new double[2][ITEM_COUNT];
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            data[0][i] = i;
+            data[1][i] = i * 2.0;
+        }
+        dataset.addSeries("S1", data);
+        checkNoAllocationPerItem(dataset);
+    }
+
+}
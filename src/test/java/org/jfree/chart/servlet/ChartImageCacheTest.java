@@ -0,0 +1,236 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ------------------------
+ * ChartImageCacheTest.java
+ * ------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.servlet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for the {@link ChartImageCache} class.
+ */
+public class ChartImageCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A cache with a clock that is controlled by the test.
+     */
+    static class TestCache extends ChartImageCache {
+        long now = 1000000L;
+        TestCache(long maximumSize, long timeToLive) {
+            super(maximumSize, timeToLive);
+        }
+        @Override
+        protected long currentTimeMillis() {
+            return this.now;
+        }
+    }
+
+    /**
+     * Some checks for the put() and get() methods.
+     */
+    @Test
+    public void testPutAndGet() {
+        ChartImageCache cache = new ChartImageCache();
+        byte[] data = new byte[] {1, 2, 3};
+        String token = cache.put(data, "image/png");
+        assertNotNull(token);
+        assertEquals(32, token.length());
+        data[0] = 9;  // the cache holds a copy
+        CachedChart chart = cache.get(token);
+        assertArrayEquals(new byte[] {1, 2, 3}, chart.getData());
+        assertEquals("image/png", chart.getMimeType());
+        assertEquals("\"" + token + "\"", chart.getETag());
+        assertEquals(3, chart.getLength());
+        assertEquals(3L, cache.getSize());
+        assertNull(cache.get("unknown"));
+        assertNull(cache.get(null));
+
+        String token2 = cache.put(new byte[] {4}, "image/png");
+        assertFalse(token.equals(token2));
+        assertTrue(cache.remove(token));
+        assertFalse(cache.remove(token));
+        assertNull(cache.get(token));
+        assertEquals(1L, cache.getSize());
+    }
+
+    /**
+     * When the size limit is exceeded, the least recently used images are
+     * evicted.
+     */
+    @Test
+    public void testEviction() {
+        ChartImageCache cache = new ChartImageCache(250, 60000L);
+        String t1 = cache.put(new byte[100], "image/png");
+        String t2 = cache.put(new byte[100], "image/png");
+        assertNotNull(cache.get(t1));  // t2 is now least recently used
+        String t3 = cache.put(new byte[100], "image/png");
+        assertEquals(2, cache.getItemCount());
+        assertEquals(200L, cache.getSize());
+        assertNotNull(cache.get(t1));
+        assertNull(cache.get(t2));
+        assertNotNull(cache.get(t3));
+
+        cache.setMaximumSize(150L);
+        assertEquals(1, cache.getItemCount());
+        assertNotNull(cache.get(t3));
+
+        // an image larger than the limit is not kept
+        String t4 = cache.put(new byte[200], "image/png");
+        assertNull(cache.get(t4));
+        assertEquals(0L, cache.getSize());
+    }
+
+    /**
+     * Images expire after the time-to-live.
+     */
+    @Test
+    public void testTimeToLive() {
+        TestCache cache = new TestCache(1000L, 5000L);
+        String t1 = cache.put(new byte[10], "image/png");
+        cache.now += 3000L;
+        String t2 = cache.put(new byte[10], "image/png");
+        assertEquals(1000000L, cache.get(t1).getLastModified());
+        cache.now += 2000L;
+        assertNull(cache.get(t1));
+        assertNotNull(cache.get(t2));
+        cache.now += 3000L;
+        cache.purgeExpired();
+        assertEquals(0, cache.getItemCount());
+        assertEquals(0L, cache.getSize());
+    }
+
+    /**
+     * Evicted images are written to the spill directory and read back on 
+     * demand.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testSpill() throws IOException {
+        File dir = this.folder.newFolder("spill");
+        TestCache cache = new TestCache(150L, 5000L);
+        cache.setSpillDirectory(dir);
+        String t1 = cache.put(new byte[] {1, 2, 3}, "image/png");
+        cache.put(new byte[148], "image/jpeg");
+        assertEquals(1, cache.getItemCount());
+        assertEquals(1, cache.getSpilledItemCount());
+        assertEquals(1, dir.listFiles().length);
+        CachedChart chart = cache.get(t1);
+        assertArrayEquals(new byte[] {1, 2, 3}, chart.getData());
+        assertEquals("image/png", chart.getMimeType());
+        assertEquals(1000000L, chart.getLastModified());
+
+        // spilled images expire too
+        cache.now += 5000L;
+        assertNull(cache.get(t1));
+        assertEquals(0, cache.getSpilledItemCount());
+        assertEquals(0, dir.listFiles().length);
+
+        String t3 = cache.put(new byte[200], "image/png");
+        assertNotNull(cache.get(t3));
+        cache.clear();
+        assertEquals(0, dir.listFiles().length);
+        assertNull(cache.get(t3));
+    }
+
+    /**
+     * The oldest spilled images are deleted when the spilled images exceed
+     * the maximum spill size.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testSpillLimit() throws IOException {
+        File dir = this.folder.newFolder("spill");
+        TestCache cache = new TestCache(100L, 5000L);
+        cache.setSpillDirectory(dir);
+        cache.setMaximumSpillSize(250L);
+        String t1 = cache.put(new byte[100], "image/png");
+        String t2 = cache.put(new byte[100], "image/png");
+        String t3 = cache.put(new byte[100], "image/png");
+        String t4 = cache.put(new byte[100], "image/png");
+        assertEquals(2, cache.getSpilledItemCount());
+        assertEquals(200L, cache.getSpilledSize());
+        assertEquals(2, dir.listFiles().length);
+        assertNull(cache.get(t1));
+        assertNotNull(cache.get(t2));
+        assertNotNull(cache.get(t3));
+        assertNotNull(cache.get(t4));
+
+        cache.setMaximumSpillSize(150L);
+        assertEquals(1, cache.getSpilledItemCount());
+        assertEquals(1, dir.listFiles().length);
+        assertNull(cache.get(t2));
+        assertNotNull(cache.get(t3));
+    }
+
+    /**
+     * Expired images are purged by put() at most once per quarter of the 
+     * time-to-live.
+     */
+    @Test
+    public void testPurgeOnPut() {
+        TestCache cache = new TestCache(1000L, 4000L);
+        cache.put(new byte[10], "image/png");
+        cache.now += 999L;
+        String t2 = cache.put(new byte[10], "image/png");
+        cache.now += 3001L;
+        cache.put(new byte[10], "image/png");
+        assertEquals(2, cache.getItemCount());  // the first has been purged
+        cache.now += 999L;
+        cache.put(new byte[10], "image/png");
+        assertEquals(3, cache.getItemCount());  // t2 has expired, not purged
+        assertNull(cache.get(t2));
+        cache.now += 1L;
+        cache.put(new byte[10], "image/png");
+        assertEquals(3, cache.getItemCount());
+    }
+
+}
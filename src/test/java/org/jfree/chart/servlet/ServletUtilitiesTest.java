@@ -0,0 +1,185 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -------------------------
+ * ServletUtilitiesTest.java
+ * -------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.servlet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.data.general.DefaultPieDataset;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ServletUtilities} class.
+ */
+public class ServletUtilitiesTest {
+
+    /**
+     * A minimal HTTP response that records the status, headers and body.
+     */
+    static class TestResponse implements InvocationHandler {
+        int status = HttpServletResponse.SC_OK;
+        Map<String, Object> headers = new HashMap<String, Object>();
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpServletResponse proxy() {
+            return (HttpServletResponse) Proxy.newProxyInstance(
+                    getClass().getClassLoader(), 
+                    new Class[] {HttpServletResponse.class}, this);
+        }
+        @Override
+        public Object invoke(Object p, Method m, Object[] args) {
+            String name = m.getName();
+            if (name.equals("setStatus")) {
+                this.status = (Integer) args[0];
+            } else if (name.equals("setHeader") 
+                    || name.equals("setDateHeader")) {
+                this.headers.put((String) args[0], args[1]);
+            } else if (name.equals("setContentType")) {
+                this.headers.put("Content-Type", args[0]);
+            } else if (name.equals("setContentLength")) {
+                this.headers.put("Content-Length", args[0]);
+            } else if (name.equals("getOutputStream")) {
+                return new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        body.write(b);
+                    }
+                };
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Creates a request with the specified headers.
+     * 
+     * @param headers  the headers.
+     * 
+     * @return The request.
+     */
+    private static HttpServletRequest request(
+            final Map<String, Object> headers) {
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                ServletUtilitiesTest.class.getClassLoader(), 
+                new Class[] {HttpServletRequest.class}, 
+                new InvocationHandler() {
+            @Override
+            public Object invoke(Object p, Method m, Object[] args) {
+                Object value = headers.get((String) args[0]);
+                if (m.getName().equals("getDateHeader")) {
+                    return value == null ? Long.valueOf(-1L) : value;
+                }
+                return value;
+            }
+        });
+    }
+
+    /**
+     * Checks the response to plain and conditional requests for a cached 
+     * chart.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testSendCachedChart() throws IOException {
+        DefaultPieDataset dataset = new DefaultPieDataset();
+        dataset.setValue("A", 1.0);
+        dataset.setValue("B", 2.0);
+        JFreeChart chart = ChartFactory.createPieChart("Pie", dataset);
+        String token = ServletUtilities.cacheChartAsPNG(chart, 200, 100, 
+                null);
+        CachedChart cached = ServletUtilities.getChartCache().get(token);
+        assertNotNull(cached);
+
+        Map<String, Object> headers = new HashMap<String, Object>();
+        TestResponse r1 = new TestResponse();
+        ServletUtilities.sendCachedChart(cached, request(headers), 
+                r1.proxy());
+        assertEquals(HttpServletResponse.SC_OK, r1.status);
+        assertEquals("image/png", r1.headers.get("Content-Type"));
+        assertEquals(cached.getETag(), r1.headers.get("ETag"));
+        long lastModified = (Long) r1.headers.get("Last-Modified");
+        assertEquals(cached.getLength(), r1.body.size());
+        assertEquals(cached.getLength(), r1.headers.get("Content-Length"));
+
+        // matching entity tag
+        headers.put("If-None-Match", "\"other\", " + cached.getETag());
+        TestResponse r2 = new TestResponse();
+        ServletUtilities.sendCachedChart(cached, request(headers), 
+                r2.proxy());
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, r2.status);
+        assertEquals(0, r2.body.size());
+
+        // entity tag takes precedence over the date
+        headers.put("If-None-Match", "\"other\"");
+        headers.put("If-Modified-Since", lastModified);
+        TestResponse r3 = new TestResponse();
+        ServletUtilities.sendCachedChart(cached, request(headers), 
+                r3.proxy());
+        assertEquals(HttpServletResponse.SC_OK, r3.status);
+        assertTrue(r3.body.size() > 0);
+
+        // date only
+        headers.remove("If-None-Match");
+        TestResponse r4 = new TestResponse();
+        ServletUtilities.sendCachedChart(cached, request(headers), 
+                r4.proxy());
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, r4.status);
+
+        headers.put("If-Modified-Since", lastModified - 1000L);
+        TestResponse r5 = new TestResponse();
+        ServletUtilities.sendCachedChart(cached, request(headers), 
+                r5.proxy());
+        assertEquals(HttpServletResponse.SC_OK, r5.status);
+        ServletUtilities.getChartCache().remove(token);
+    }
+
+}
@@ -0,0 +1,224 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ----------------------
+ * BatchExporterTest.java
+ * ----------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.chart.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.data.general.DefaultPieDataset;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for the {@link BatchExporter} class.
+ */
+public class BatchExporterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Creates a supplier for a new pie chart.
+     *
+     * @param title  the chart title.
+     *
+     * @return The supplier.
+     */
+    private static Callable<JFreeChart> pieChart(final String title) {
+        return new Callable<JFreeChart>() {
+            @Override
+            public JFreeChart call() {
+                DefaultPieDataset dataset = new DefaultPieDataset();
+                dataset.setValue("A", 1.0);
+                dataset.setValue("B", 2.0);
+                return ChartFactory.createPieChart(title, dataset);
+            }
+        };
+    }
+
+    /**
+     * Export a batch of raster images with several threads and check that 
+     * every file is written with the correct size.
+     */
+    @Test
+    public void testExportRaster() throws Exception {
+        List<ExportJob> jobs = new ArrayList<ExportJob>();
+        for (int i = 0; i < 20; i++) {
+            ExportFormat format = i % 2 == 0 ? ExportFormat.PNG 
+                    : ExportFormat.JPEG;
+            int w = 400 + (i % 3) * 10;
+            File file = new File(this.folder.getRoot(), "chart" + i + "." 
+                    + format.name().toLowerCase());
+            jobs.add(new ExportJob(pieChart("Chart " + i), w, 300, format, 
+                    file));
+        }
+        BatchExporter exporter = new BatchExporter(3, 2, 4);
+        BatchExportResult result = exporter.export(jobs.iterator());
+        assertEquals(20, result.getSucceededCount());
+        assertEquals(0, result.getFailedCount());
+        for (ExportJob job : jobs) {
+            BufferedImage image = ImageIO.read(job.getFile());
+            assertEquals(job.getWidth(), image.getWidth());
+            assertEquals(job.getHeight(), image.getHeight());
+        }
+    }
+
+    /**
+     * A job that fails is recorded, and does not stop the batch.
+     */
+    @Test
+    public void testFailure() throws Exception {
+        ExportJob bad = new ExportJob(new Callable<JFreeChart>() {
+            @Override
+            public JFreeChart call() {
+                throw new IllegalStateException("No chart.");
+            }
+        }, 400, 300, ExportFormat.PNG, this.folder.newFile("bad.png"));
+        ExportJob good = new ExportJob(pieChart("Good"), 400, 300, 
+                ExportFormat.PNG, new File(this.folder.getRoot(), "good.png"));
+        List<ExportJob> jobs = new ArrayList<ExportJob>();
+        jobs.add(bad);
+        jobs.add(good);
+        BatchExportResult result = new BatchExporter(2).export(
+                jobs.iterator());
+        assertEquals(1, result.getSucceededCount());
+        assertEquals(1, result.getFailedCount());
+        assertEquals(bad, result.getFailedJobs().get(0));
+        assertTrue(result.getFailure(bad) instanceof IllegalStateException);
+        assertEquals(null, result.getFailure(good));
+        assertTrue(good.getFile().length() > 0);
+    }
+
+    /**
+     * Jobs are taken from the iterator only as capacity becomes available.
+     */
+    @Test
+    public void testBackpressure() throws Exception {
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger maxPending = new AtomicInteger();
+        Iterator<ExportJob> jobs = new Iterator<ExportJob>() {
+            private int count;
+            @Override
+            public boolean hasNext() {
+                return this.count < 12;
+            }
+            @Override
+            public ExportJob next() {
+                // jobs taken but not yet drawn
+                int pending = this.count - completed.get();
+                if (pending > maxPending.get()) {
+                    maxPending.set(pending);
+                }
+                this.count++;
+                File file = new File(folder.getRoot(), "lazy" + this.count 
+                        + ".png");
+                return new ExportJob(new Callable<JFreeChart>() {
+                    @Override
+                    public JFreeChart call() throws Exception {
+                        Thread.sleep(20);
+                        completed.incrementAndGet();
+                        return pieChart("Lazy").call();
+                    }
+                }, 400, 300, ExportFormat.PNG, file);
+            }
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        BatchExportResult result = new BatchExporter(2, 1, 3).export(jobs);
+        assertEquals(12, result.getSucceededCount());
+        assertTrue(maxPending.get() <= 3);
+    }
+
+    /**
+     * Vector output is written by the drawing threads (only tested when 
+     * JFreeSVG is on the classpath).
+     */
+    @Test
+    public void testExportSVG() throws Exception {
+        if (!ExportUtils.isJFreeSVGAvailable()) {
+            return;
+        }
+        File file = new File(this.folder.getRoot(), "chart.svg");
+        List<ExportJob> jobs = new ArrayList<ExportJob>();
+        jobs.add(new ExportJob(pieChart("SVG"), 400, 300, ExportFormat.SVG, 
+                file));
+        BatchExportResult result = new BatchExporter(1).export(
+                jobs.iterator());
+        assertEquals(1, result.getSucceededCount());
+        assertTrue(file.length() > 0);
+    }
+
+    /**
+     * Check the argument checks in the constructor.
+     */
+    @Test
+    public void testConstructor() {
+        boolean pass = false;
+        try {
+            new BatchExporter(0, 1, 1);
+        }
+        catch (IllegalArgumentException e) {
+            pass = true;
+        }
+        assertTrue(pass);
+        pass = false;
+        try {
+            new BatchExporter(1, 1, 0);
+        }
+        catch (IllegalArgumentException e) {
+            pass = true;
+        }
+        assertTrue(pass);
+        assertEquals(2, new BatchExporter(4).getEncodeThreadCount());
+    }
+
+}
@@ -43,9 +43,14 @@
 
 package org.jfree.data.category;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.jfree.chart.TestUtils;
 import org.jfree.chart.util.PublicCloneable;
+import org.jfree.data.Range;
 import org.jfree.data.UnknownKeyException;
+import org.jfree.data.general.DatasetUtils;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -374,4 +379,41 @@ public class DefaultCategoryDatasetTest {
         assertTrue(pass);
     }
 
+    /**
+     * Some checks for the cached range bounds.
+     */
+    @Test
+    public void testGetRangeBounds() {
+        DefaultCategoryDataset d = new DefaultCategoryDataset();
+        assertNull(d.getRangeBounds(false));
+        d.addValue(1.0, "R1", "C1");
+        d.addValue(4.0, "R1", "C2");
+        d.addValue(null, "R2", "C1");
+        assertEquals(new Range(1.0, 4.0), d.getRangeBounds(false));
+        List r2 = Arrays.asList(new Comparable[] {"R2"});
+        assertNull(d.getRangeBounds(r2, false));
+
+        // extend the cached bounds
+        d.setValue(-2.0, "R2", "C2");
+        d.setValue(2.0, "R1", "C3");
+        assertEquals(new Range(-2.0, 4.0), d.getRangeBounds(false));
+        assertEquals(new Range(-2.0, -2.0), d.getRangeBounds(r2, false));
+
+        // overwrite and remove the extremes
+        d.setValue(3.0, "R1", "C2");
+        assertEquals(new Range(-2.0, 3.0), d.getRangeBounds(false));
+        d.removeValue("R2", "C2");
+        assertEquals(new Range(1.0, 3.0), d.getRangeBounds(false));
+        d.incrementValue(5.0, "R1", "C1");
+        assertEquals(new Range(2.0, 6.0), d.getRangeBounds(false));
+        d.removeColumn("C1");
+        assertEquals(new Range(2.0, 3.0), d.getRangeBounds(false));
+        assertEquals(2.0, d.getRangeLowerBound(false), EPSILON);
+        assertEquals(3.0, d.getRangeUpperBound(false), EPSILON);
+        d.removeRow("R1");
+        assertNull(d.getRangeBounds(false));
+        assertEquals(DatasetUtils.iterateRangeBounds(d),
+                d.getRangeBounds(false));
+    }
+
 }
@@ -0,0 +1,360 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------------
+ * CSVXYReaderTest.java
+ * --------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.text.SimpleDateFormat;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.jfree.data.time.Minute;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.xy.DefaultXYDataset;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for the {@link CSVXYReader} class.
+ */
+public class CSVXYReaderTest {
+
+    /** A folder for the test files. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Returns a channel that reads the text a few bytes at a time, so that
+     * lines are split across reads.
+     *
+     * @param text  the text.
+     *
+     * @return The channel.
+     */
+    private static ReadableByteChannel channel(String text) {
+        final ReadableByteChannel in = Channels.newChannel(
+                new ByteArrayInputStream(text.getBytes()));
+        return new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                ByteBuffer small = ByteBuffer.allocate(
+                        Math.min(7, dst.remaining()));
+                int n = in.read(small);
+                small.flip();
+                dst.put(small);
+                return n;
+            }
+            @Override
+            public boolean isOpen() {
+                return in.isOpen();
+            }
+            @Override
+            public void close() throws IOException {
+                in.close();
+            }
+        };
+    }
+
+    /**
+     * Reads a simple file with a header, quotes, blank lines, CRLF line 
+     * ends and missing values.
+     *
+     * @throws IOException if there is a problem.
+     */
+    @Test
+    public void testReadXYDataset() throws IOException {
+        String text = "X, \"Series A\",B\r\n"
+                + "1.0,2.5,-3\r\n"
+                + "\r\n"
+                + "\"2\",,4e2\r\n"
+                + ",9,9\r\n"
+                + "3,1.25\n"
+                + "4,5,6";
+        DefaultXYDataset d = new CSVXYReader().readXYDataset(channel(text));
+        assertEquals(2, d.getSeriesCount());
+        assertEquals("Series A", d.getSeriesKey(0));
+        assertEquals("B", d.getSeriesKey(1));
+        assertEquals(4, d.getItemCount(0));
+        assertEquals(2.0, d.getXValue(0, 1), 0.0);
+        assertEquals(2.5, d.getYValue(0, 0), 0.0);
+        assertTrue(Double.isNaN(d.getYValue(0, 1)));
+        assertEquals(400.0, d.getYValue(1, 1), 0.0);
+        assertTrue(Double.isNaN(d.getYValue(1, 2)));
+        assertEquals(6.0, d.getYValue(1, 3), 0.0);
+    }
+
+    /**
+     * Checks the column mapping and reading without a header.
+     *
+     * @throws IOException if there is a problem.
+     */
+    @Test
+    public void testColumnMapping() throws IOException {
+        CSVXYReader reader = new CSVXYReader(';', '\'');
+        reader.setHeader(false);
+        reader.setXColumn(2);
+        reader.setYColumns(3, 0);
+        DefaultXYDataset d = reader.readXYDataset(
+                channel("1;'x';10;100\n2;'y';20;200\n"));
+        assertEquals(2, d.getSeriesCount());
+        assertEquals("Column 4", d.getSeriesKey(0));
+        assertEquals("Column 1", d.getSeriesKey(1));
+        assertEquals(2, d.getItemCount(0));
+        assertEquals(20.0, d.getXValue(0, 1), 0.0);
+        assertEquals(200.0, d.getYValue(0, 1), 0.0);
+        assertEquals(2.0, d.getYValue(1, 1), 0.0);
+    }
+
+    /**
+     * Checks the number parsing against {@code Double.parseDouble()}.
+     */
+    @Test
+    public void testParseDouble() {
+        String[] samples = {"0", "-0", "1", "+1", "0.1", "1.", ".5", 
+                "123456789012345678", "1234567890123456789", "9007199254740993",
+                "3.141592653589793", "1e10", "1E-5", "-2.5e+3", "1e22", 
+                "1e23", "4.9e-324", "1.7976931348623157e308", "0.000001", 
+                "NaN", "-Infinity"};
+        for (String sample : samples) {
+            assertParsed(sample);
+        }
+        Random random = new Random(1L);
+        for (int i = 0; i < 10000; i++) {
+            assertParsed(Double.toString(random.nextDouble() * 1000.0));
+            assertParsed(Long.toString(random.nextLong() % 100000000L));
+            assertParsed(String.format("%.4f", random.nextGaussian()));
+        }
+        String[] invalid = {"", "-", ".", "1e", "1x", "1.2.3", "abc"};
+        for (String sample : invalid) {
+            ByteBuffer b = ByteBuffer.wrap(sample.getBytes());
+            try {
+                CSVXYReader.parseDouble(b, 0, b.limit());
+                fail("Expected a NumberFormatException for " + sample);
+            }
+            catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * Checks that a string is parsed to the same value as 
+     * {@code Double.parseDouble()}.
+     *
+     * @param s  the string.
+     */
+    private static void assertParsed(String s) {
+        ByteBuffer b = ByteBuffer.wrap(s.getBytes());
+        assertEquals(s, Double.doubleToLongBits(Double.parseDouble(s)), 
+                Double.doubleToLongBits(CSVXYReader.parseDouble(b, 0, 
+                b.limit())));
+    }
+
+    /**
+     * Checks the parsing of ISO 8601 dates.
+     */
+    @Test
+    public void testParseISODate() {
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        TimeZone paris = TimeZone.getTimeZone("Europe/Paris");
+        assertEquals(0L, iso("1970-01-01", utc));
+        assertEquals(951782400000L, iso("2000-02-29", utc));
+        assertEquals(1488362400000L, iso("2017-03-01T10:00", utc));
+        assertEquals(1488362405250L, iso("2017-03-01T10:00:05.25", utc));
+        assertEquals(1488362405000L, iso("2017-03-01 10:00:05Z", paris));
+        assertEquals(1488358800000L, iso("2017-03-01T10:00:00+01:00", utc));
+        assertEquals(1488369600000L, iso("2017-03-01T10:00:00-0200", utc));
+        assertEquals(1488358800000L, iso("2017-03-01T10:00", paris));
+        // summer time
+        assertEquals(1498896000000L, iso("2017-07-01T10:00", paris));
+        assertEquals(Long.MIN_VALUE, iso("2017-13-01", utc));
+        assertEquals(Long.MIN_VALUE, iso("2017-03-01T10", utc));
+        assertEquals(Long.MIN_VALUE, iso("2017-03-01T10:00:0", utc));
+        assertEquals(Long.MIN_VALUE, iso("01/03/2017", utc));
+        assertEquals(Long.MIN_VALUE, iso("2017-03-01T10:00+1", utc));
+    }
+
+    private static long iso(String s, TimeZone zone) {
+        ByteBuffer b = ByteBuffer.wrap(s.getBytes());
+        return CSVXYReader.parseISODate(b, 0, b.limit(), zone);
+    }
+
+    /**
+     * Reads a time series collection, with several rows in the same time 
+     * period.
+     *
+     * @throws IOException if there is a problem.
+     */
+    @Test
+    public void testReadTimeSeriesCollection() throws IOException {
+        String text = "time,a\n"
+                + "2017-03-01T10:00:05,1\n"
+                + "2017-03-01T10:00:50,2\n"
+                + "2017-03-01T10:01:00,\n"
+                + "2017-03-01T10:03:00,4\n";
+        CSVXYReader reader = new CSVXYReader();
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        reader.setISODateTimeZone(utc);
+        TimeSeriesCollection d = reader.readTimeSeriesCollection(
+                channel(text), Minute.class);
+        TimeSeries s = d.getSeries("a");
+        assertEquals(3, s.getItemCount());
+        assertEquals(new Minute(0, 10, 1, 3, 2017), s.getTimePeriod(0));
+        assertEquals(2.0, s.getValue(0).doubleValue(), 0.0);
+        assertNull(s.getValue(1));
+        assertEquals(4.0, s.getValue(2).doubleValue(), 0.0);
+    }
+
+    /**
+     * Reads dates with a date format into an XY series collection.
+     *
+     * @throws IOException if there is a problem.
+     */
+    @Test
+    public void testDateFormat() throws IOException {
+        SimpleDateFormat format = new SimpleDateFormat("dd/MM/yyyy");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        CSVXYReader reader = new CSVXYReader();
+        reader.setDateFormat(format);
+        XYSeriesCollection d = reader.readXYSeriesCollection(
+                channel("day,v\n02/01/1970,5\n01/01/1970,\n"));
+        assertEquals(2, d.getItemCount(0));
+        assertEquals(0.0, d.getXValue(0, 0), 0.0);
+        assertNull(d.getY(0, 0));
+        assertEquals(86400000.0, d.getXValue(0, 1), 0.0);
+        assertEquals(5.0, d.getYValue(0, 1), 0.0);
+        try {
+            reader.readXYDataset(channel("day,v\n1970-01-01,5\n"));
+            fail("Expected an IOException.");
+        }
+        catch (IOException e) {
+            // expected
+        }
+    }
+
+    /**
+     * An invalid value should be reported.
+     */
+    @Test
+    public void testInvalidNumber() {
+        try {
+            new CSVXYReader().readXYDataset(channel("x,y\n1,2\n2,two\n"));
+            fail("Expected an IOException.");
+        }
+        catch (IOException e) {
+            assertTrue(e.getMessage().contains("'two'"));
+        }
+    }
+
+    /**
+     * Reads a file that is large enough to be parsed in several chunks, 
+     * and checks the results against reading the same file through a 
+     * channel.
+     *
+     * @throws IOException if there is a problem.
+     */
+    @Test
+    public void testParallelFile() throws IOException {
+        File file = this.folder.newFile("data.csv");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), "UTF-8"));
+        try {
+            writer.write("x,a,b\n");
+            Random random = new Random(2L);
+            for (int i = 0; i < 500000; i++) {
+                writer.write(i + "," + random.nextInt(1000) / 8.0 + "," 
+                        + (i % 7 == 0 ? "" : random.nextInt(100000) / 100.0)
+                        + "\n");
+            }
+        }
+        finally {
+            writer.close();
+        }
+        assertTrue(file.length() > 8 << 20);
+
+        CSVXYReader reader = new CSVXYReader();
+        reader.setParallelism(4);
+        DefaultXYDataset parallel = reader.readXYDataset(file);
+        FileInputStream in = new FileInputStream(file);
+        DefaultXYDataset serial;
+        try {
+            serial = reader.readXYDataset(in.getChannel());
+        }
+        finally {
+            in.close();
+        }
+        assertEquals(500000, parallel.getItemCount(0));
+        assertEquals(2, parallel.getSeriesCount());
+        for (int s = 0; s < 2; s++) {
+            assertEquals(serial.getSeriesKey(s), parallel.getSeriesKey(s));
+            double[][] a = new double[2][];
+            double[][] b = new double[2][];
+            a[0] = new double[500000];
+            a[1] = new double[500000];
+            b[0] = new double[500000];
+            b[1] = new double[500000];
+            for (int i = 0; i < 500000; i++) {
+                a[0][i] = serial.getXValue(s, i);
+                a[1][i] = serial.getYValue(s, i);
+                b[0][i] = parallel.getXValue(s, i);
+                b[1][i] = parallel.getYValue(s, i);
+            }
+            assertArrayEquals(a[0], b[0], 0.0);
+            assertArrayEquals(a[1], b[1], 0.0);
+        }
+        assertEquals(499999.0, parallel.getXValue(0, 499999), 0.0);
+    }
+
+}
@@ -0,0 +1,482 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ---------------------
+ * DatasetCodecTest.java
+ * ---------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.Dataset;
+import org.jfree.data.general.DefaultHeatMapDataset;
+import org.jfree.data.general.DefaultPieDataset;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.Millisecond;
+import org.jfree.data.time.Minute;
+import org.jfree.data.time.TimePeriodAnchor;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.time.ohlc.OHLCSeries;
+import org.jfree.data.time.ohlc.OHLCSeriesCollection;
+import org.jfree.data.xy.DefaultXYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link DatasetCodec} class.
+ */
+public class DatasetCodecTest {
+
+    /**
+     * Encodes a dataset.
+     * 
+     * @param dataset  the dataset.
+     * @param compress  compress the values?
+     * 
+     * @return The bytes.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    private static byte[] encode(Dataset dataset, boolean compress) 
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DatasetCodec.write(dataset, Channels.newChannel(out), compress);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a dataset.
+     * 
+     * @param bytes  the bytes.
+     * 
+     * @return The dataset.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    private static Dataset decode(byte[] bytes) throws IOException {
+        return DatasetCodec.read(Channels.newChannel(
+                new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * Checks that a dataset is equal to the dataset read back, with and 
+     * without compression.
+     * 
+     * @param dataset  the dataset.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    private static void assertRoundTrip(Dataset dataset) throws IOException {
+        assertEquals(dataset, decode(encode(dataset, false)));
+        assertEquals(dataset, decode(encode(dataset, true)));
+    }
+
+    /**
+     * Round trip for an {@link XYSeriesCollection}.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testXYSeriesCollection() throws IOException {
+        XYSeries s1 = new XYSeries("S1");
+        s1.add(1.0, 2.0);
+        s1.add(3.5, null);
+        s1.add(-2.0, Double.NaN);
+        s1.add(7.0, -0.0);
+        s1.setDescription("Description");
+        XYSeries s2 = new XYSeries(new Integer(2), false, true, true);
+        s2.add(5.0, 1.0);
+        s2.add(5.0, 1.0);
+        s2.add(4.0, Double.MAX_VALUE);
+        s2.setMaximumItemCount(10);
+        XYSeriesCollection c = new XYSeriesCollection();
+        c.addSeries(s1);
+        c.addSeries(s2);
+        c.addSeries(new XYSeries("S3"));
+        c.setIntervalWidth(0.25);
+        c.setIntervalPositionFactor(0.3);
+        assertRoundTrip(c);
+
+        XYSeriesCollection c2 = (XYSeriesCollection) decode(encode(c, true));
+        assertNull(c2.getSeries(0).getY(2));
+        assertTrue(c2.getSeries(1).isColumnar());
+        assertEquals(new Integer(2), c2.getSeriesKey(1));
+    }
+
+    /**
+     * Round trip for a {@link TimeSeriesCollection}.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testTimeSeriesCollection() throws IOException {
+        TimeSeries s1 = new TimeSeries("S1", "Time", "Value");
+        s1.add(new Day(1, 1, 2017), 1.0);
+        s1.add(new Day(2, 1, 2017), null);
+        s1.add(new Day(9, 3, 2017), 3.5);
+        s1.setMaximumItemAge(1000L);
+        TimeSeries s2 = new TimeSeries("S2", null, null, true);
+        s2.setMaximumItemCount(100);
+        for (int i = 0; i < 250; i++) {
+            s2.add(new Millisecond(i % 1000, 0, 0, 12, 1, 2, 2017), i);
+        }
+        TimeSeriesCollection c = new TimeSeriesCollection();
+        c.addSeries(s1);
+        c.addSeries(s2);
+        c.addSeries(new TimeSeries("S3"));
+        c.setXPosition(TimePeriodAnchor.END);
+        assertRoundTrip(c);
+        TimeSeriesCollection c2 = (TimeSeriesCollection) decode(
+                encode(c, true));
+        assertEquals(TimePeriodAnchor.END, c2.getXPosition());
+        assertTrue(c2.getSeries(1).isRingBuffer());
+    }
+
+    /**
+     * Round trip for an {@link OHLCSeriesCollection}.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testOHLCSeriesCollection() throws IOException {
+        OHLCSeries s1 = new OHLCSeries("S1");
+        s1.add(new Day(1, 1, 2017), 1.0, 4.0, 0.5, 2.0);
+        s1.add(new Day(2, 1, 2017), 2.0, 2.5, 1.5, 1.75);
+        OHLCSeriesCollection c = new OHLCSeriesCollection();
+        c.addSeries(s1);
+        c.addSeries(new OHLCSeries("S2"));
+        c.setXPosition(TimePeriodAnchor.START);
+        assertRoundTrip(c);
+    }
+
+    /**
+     * Round trip for a {@link DefaultCategoryDataset}.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testCategoryDataset() throws IOException {
+        DefaultCategoryDataset d = new DefaultCategoryDataset();
+        d.addValue(1.0, "R1", "C1");
+        d.addValue(null, "R1", "C2");
+        d.addValue(3.0, "R2", "C1");
+        d.addValue(4.0, "R2", new Integer(3));
+        assertRoundTrip(d);
+        assertRoundTrip(new DefaultCategoryDataset());
+    }
+
+    /**
+     * Round trip for a {@link DefaultPieDataset}.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testPieDataset() throws IOException {
+        DefaultPieDataset d = new DefaultPieDataset();
+        d.setValue("A", 1.0);
+        d.setValue("B", null);
+        d.setValue("\u00E9\u4E2D", 3.0);
+        assertRoundTrip(d);
+    }
+
+    /**
+     * Keys of the supported types are read back, other key types are 
+     * rejected when writing and when reading.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testKeys() throws IOException {
+        DefaultPieDataset d = new DefaultPieDataset();
+        d.setValue("A", 1.0);
+        d.setValue(new Integer(2), 2.0);
+        d.setValue(new Long(3L), 3.0);
+        d.setValue(new Double(4.5), 4.0);
+        d.setValue(new Date(1234567890L), 5.0);
+        d.setValue(new Day(1, 1, 2017), 6.0);
+        d.setValue(new Minute(30, 12, 1, 1, 2017), 7.0);
+        assertRoundTrip(d);
+
+        DefaultPieDataset d2 = new DefaultPieDataset();
+        d2.setValue(Boolean.TRUE, 1.0);
+        try {
+            encode(d2, false);
+            fail("Expected an IllegalArgumentException.");
+        }
+        catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        // an unknown key type
+        DefaultPieDataset d3 = new DefaultPieDataset();
+        d3.setValue("A", 1.0);
+        byte[] bytes = encode(d3, false);
+        bytes[11] = 9;  // after the header and the key count
+        try {
+            decode(bytes);
+            fail("Expected an IOException.");
+        }
+        catch (IOException e) {
+            assertEquals("Invalid key type: 9", e.getMessage());
+        }
+
+        // a time period key with a class that is not a time period
+        DefaultPieDataset d4 = new DefaultPieDataset();
+        d4.setValue(new Day(1, 1, 2017), 1.0);
+        bytes = encode(d4, false);
+        String name = new String(bytes, "ISO-8859-1").replace(
+                Day.class.getName(), "java.util.LinkedHashMap");
+        try {
+            decode(name.getBytes("ISO-8859-1"));
+            fail("Expected an IOException.");
+        }
+        catch (IOException e) {
+            assertEquals("java.util.LinkedHashMap is not a time period class.",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Round trip for a {@link DefaultHeatMapDataset}.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testHeatMapDataset() throws IOException {
+        DefaultHeatMapDataset d = new DefaultHeatMapDataset(3, 4, 0.0, 10.0,
+                -5.0, 5.0);
+        for (int x = 0; x < 3; x++) {
+            for (int y = 0; y < 4; y++) {
+                d.setZValue(x, y, x * 0.5 - y);
+            }
+        }
+        assertRoundTrip(d);
+    }
+
+    /**
+     * A large series is read back exactly.  The uncompressed data is a 
+     * little over 16 bytes per item, several times smaller than Java 
+     * serialization of the items, and compression makes it smaller still 
+     * for regularly spaced, slowly changing data.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testLargeSeries() throws IOException {
+        int n = 1000000;
+        XYSeries series = new XYSeries("S1", true, false, true);
+        for (int i = 0; i < n; i++) {
+            series.add(i, Math.round(Math.sin(i / 1000.0) * 100.0) / 4.0, 
+                    false);
+        }
+        XYSeriesCollection c = new XYSeriesCollection(series);
+        byte[] raw = encode(c, false);
+        byte[] compressed = encode(c, true);
+        assertTrue(raw.length < n * 16 + 200);
+        assertTrue(compressed.length < raw.length / 4);
+        assertEquals(c, decode(raw));
+        assertEquals(c, decode(compressed));
+
+        // Java serialization of an object per item, for a smaller series
+        int m = 100000;
+        XYSeries items = new XYSeries("S1");
+        for (int i = 0; i < m; i++) {
+            items.add(i, i * 0.25, false);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(out);
+        oos.writeObject(new XYSeriesCollection(items));
+        oos.close();
+        byte[] encoded = encode(new XYSeriesCollection(items), false);
+        assertTrue(out.size() > 2 * encoded.length);
+    }
+
+    /**
+     * Regular timestamps take about one byte each when compressed.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testTimestampCompression() throws IOException {
+        TimeSeries series = new TimeSeries("S1");
+        Minute minute = new Minute(0, 0, 1, 1, 2017);
+        for (int i = 0; i < 10000; i++) {
+            series.add(minute, 42.0);
+            minute = (Minute) minute.next();
+        }
+        byte[] compressed = encode(new TimeSeriesCollection(series), true);
+        assertTrue(compressed.length < 10000 * 2 + 200);
+        assertEquals(new TimeSeriesCollection(series), decode(compressed));
+    }
+
+    /**
+     * Invalid data and unsupported datasets are rejected.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testInvalid() throws IOException {
+        try {
+            DatasetCodec.write(new DefaultXYDataset(), Channels.newChannel(
+                    new ByteArrayOutputStream()), false);
+            fail("Expected an IllegalArgumentException.");
+        }
+        catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            decode(new byte[] {1, 2, 3, 4, 5, 6, 7});
+            fail("Expected an IOException.");
+        }
+        catch (IOException e) {
+            // expected
+        }
+        DefaultPieDataset d = new DefaultPieDataset();
+        d.setValue("A", 1.0);
+        byte[] bytes = encode(d, true);
+        try {
+            decode(Arrays.copyOf(bytes, bytes.length - 1));
+            fail("Expected an EOFException.");
+        }
+        catch (EOFException e) {
+            // expected
+        }
+        bytes[4] = (byte) (DatasetCodec.VERSION + 1);
+        try {
+            decode(bytes);
+            fail("Expected an IOException.");
+        }
+        catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Unsupported version"));
+        }
+    }
+
+    /**
+     * Truncated data and counts that are larger than the data are rejected
+     * with an exception rather than by running out of memory.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testTruncatedAndCorrupted() throws IOException {
+        XYSeries s1 = new XYSeries("S1");
+        for (int i = 0; i < 5000; i++) {
+            s1.add(i, i * 2.0);
+        }
+        for (boolean compress : new boolean[] {false, true}) {
+            byte[] bytes = encode(new XYSeriesCollection(s1), compress);
+            for (int n = 0; n < bytes.length; n += 97) {
+                try {
+                    decode(Arrays.copyOf(bytes, n));
+                    fail("Expected an EOFException for " + n + " bytes.");
+                }
+                catch (EOFException e) {
+                    // expected
+                }
+            }
+        }
+
+        // an XYSeriesCollection with one series that claims to have 
+        // Integer.MAX_VALUE items
+        ByteBuffer b = ByteBuffer.allocate(64);
+        b.putInt(0x4A464453).put((byte) 1).put((byte) 1).put((byte) 0);
+        b.put((byte) 0).putDouble(1.0).putDouble(0.5).putInt(1);
+        b.put((byte) 0).putInt(1).put((byte) 'A').putInt(-1);
+        b.put((byte) 1).put((byte) 1).put((byte) 0).putInt(100);
+        b.putInt(Integer.MAX_VALUE).putDouble(1.0);
+        try {
+            decode(Arrays.copyOf(b.array(), b.position()));
+            fail("Expected an EOFException.");
+        }
+        catch (EOFException e) {
+            // expected
+        }
+
+        // a pie dataset with a key that claims to be Integer.MAX_VALUE 
+        // bytes long
+        b.clear();
+        b.putInt(0x4A464453).put((byte) 1).put((byte) 5).put((byte) 0);
+        b.putInt(Integer.MAX_VALUE).put((byte) 0).putInt(Integer.MAX_VALUE);
+        b.put((byte) 'A');
+        try {
+            decode(Arrays.copyOf(b.array(), b.position()));
+            fail("Expected an EOFException.");
+        }
+        catch (EOFException e) {
+            // expected
+        }
+
+        // a heat map dataset that claims to have 2^30 x 2^30 samples
+        b.clear();
+        b.putInt(0x4A464453).put((byte) 1).put((byte) 6).put((byte) 1);
+        b.putInt(1 << 30).putInt(1 << 30);
+        b.putDouble(0.0).putDouble(1.0).putDouble(0.0).putDouble(1.0);
+        b.put((byte) 0);
+        try {
+            decode(Arrays.copyOf(b.array(), b.position()));
+            fail("Expected an EOFException.");
+        }
+        catch (EOFException e) {
+            // expected
+        }
+
+        // a negative count
+        b.clear();
+        b.putInt(0x4A464453).put((byte) 1).put((byte) 4).put((byte) 0);
+        b.putInt(-5);
+        try {
+            decode(Arrays.copyOf(b.array(), b.position()));
+            fail("Expected an IOException.");
+        }
+        catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Invalid count"));
+        }
+    }
+
+}
@@ -0,0 +1,433 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ------------------------------
+ * JDBCColumnarXYDatasetTest.java
+ * ------------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jfree.data.Range;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link JDBCColumnarXYDataset} class.  The database is a 
+ * table in memory behind proxies for the JDBC interfaces.
+ */
+public class JDBCColumnarXYDatasetTest implements DatasetChangeListener {
+
+    /** The number of change events received. */
+    private int events;
+
+    /**
+     * Counts the change events.
+     *
+     * @param event  the event.
+     */
+    @Override
+    public void datasetChanged(DatasetChangeEvent event) {
+        this.events++;
+    }
+
+    /**
+     * A table in memory.  A query that contains {@code "> ?"} returns the
+     * rows with an x-value greater than the last parameter.
+     */
+    static class FakeTable {
+
+        int[] types;
+
+        String[] labels;
+
+        List<Object[]> rows = new ArrayList<Object[]>();
+
+        String lastQuery;
+
+        int lastFetchSize = -1;
+
+        int lastResultSetType;
+
+        Map<Integer, Object> lastParameters;
+
+        FakeTable(int[] types, String[] labels) {
+            this.types = types;
+            this.labels = labels;
+        }
+
+        void add(Object... row) {
+            this.rows.add(row);
+        }
+
+        Connection getConnection() {
+            return (Connection) proxy(Connection.class, 
+                    new InvocationHandler() {
+                @Override
+                public Object invoke(Object p, Method m, Object[] args) {
+                    if (m.getName().equals("prepareStatement")) {
+                        lastQuery = (String) args[0];
+                        lastResultSetType = (Integer) args[1];
+                        return createStatement();
+                    }
+                    return null;
+                }
+            });
+        }
+
+        PreparedStatement createStatement() {
+            final Map<Integer, Object> parameters 
+                    = new TreeMap<Integer, Object>();
+            lastParameters = parameters;
+            return (PreparedStatement) proxy(PreparedStatement.class, 
+                    new InvocationHandler() {
+                @Override
+                public Object invoke(Object p, Method m, Object[] args) {
+                    String name = m.getName();
+                    if (name.equals("setFetchSize")) {
+                        lastFetchSize = (Integer) args[0];
+                    }
+                    else if (name.startsWith("set")) {
+                        parameters.put((Integer) args[0], args[1]);
+                    }
+                    else if (name.equals("executeQuery")) {
+                        List<Object[]> result = rows;
+                        if (lastQuery.contains("> ?")) {
+                            Object bound = parameters.get(parameters.size());
+                            double x = bound instanceof Timestamp 
+                                    ? ((Timestamp) bound).getTime() 
+                                    : ((Number) bound).doubleValue();
+                            result = new ArrayList<Object[]>();
+                            for (Object[] row : rows) {
+                                if (toDouble(row[0]) > x) {
+                                    result.add(row);
+                                }
+                            }
+                        }
+                        return createResultSet(result);
+                    }
+                    return null;
+                }
+            });
+        }
+
+        ResultSet createResultSet(final List<Object[]> result) {
+            final ResultSetMetaData metaData = (ResultSetMetaData) proxy(
+                    ResultSetMetaData.class, new InvocationHandler() {
+                @Override
+                public Object invoke(Object p, Method m, Object[] args) {
+                    if (m.getName().equals("getColumnCount")) {
+                        return types.length;
+                    }
+                    if (m.getName().equals("getColumnType")) {
+                        return types[(Integer) args[0] - 1];
+                    }
+                    if (m.getName().equals("getColumnLabel")) {
+                        return labels[(Integer) args[0] - 1];
+                    }
+                    return null;
+                }
+            });
+            return (ResultSet) proxy(ResultSet.class, 
+                    new InvocationHandler() {
+                int row = -1;
+                boolean wasNull;
+                @Override
+                public Object invoke(Object p, Method m, Object[] args) {
+                    String name = m.getName();
+                    if (name.equals("getMetaData")) {
+                        return metaData;
+                    }
+                    if (name.equals("next")) {
+                        row++;
+                        return row < result.size();
+                    }
+                    if (name.equals("wasNull")) {
+                        return this.wasNull;
+                    }
+                    if (name.equals("getDouble") 
+                            || name.equals("getTimestamp")) {
+                        Object value = result.get(row)[(Integer) args[0] - 1];
+                        this.wasNull = value == null;
+                        if (name.equals("getTimestamp")) {
+                            return value;
+                        }
+                        return value == null ? 0.0 : toDouble(value);
+                    }
+                    return null;
+                }
+            });
+        }
+
+        static double toDouble(Object value) {
+            if (value instanceof Timestamp) {
+                return ((Timestamp) value).getTime();
+            }
+            return ((Number) value).doubleValue();
+        }
+
+        static Object proxy(Class<?> c, InvocationHandler handler) {
+            return Proxy.newProxyInstance(
+                    FakeTable.class.getClassLoader(), 
+                    new Class<?>[] {c}, handler);
+        }
+    }
+
+    /**
+     * Returns a table with a numeric x-column, a numeric y-column, a text
+     * column and another numeric y-column.
+     *
+     * @return The table.
+     */
+    private static FakeTable createNumericTable() {
+        FakeTable table = new FakeTable(new int[] {Types.DOUBLE, 
+                Types.INTEGER, Types.VARCHAR, Types.DECIMAL}, 
+                new String[] {"X", "A", "NAME", "B"});
+        table.add(1.0, 10, "a", 100.0);
+        table.add(2.0, null, "b", 200.0);
+        table.add(3.0, 30, "c", -50.0);
+        return table;
+    }
+
+    /**
+     * Checks that the query results are read into the dataset.
+     *
+     * @throws SQLException if there is a problem.
+     */
+    @Test
+    public void testExecuteQuery() throws SQLException {
+        FakeTable table = createNumericTable();
+        JDBCColumnarXYDataset d = new JDBCColumnarXYDataset(
+                table.getConnection(), "SELECT x, a, name, b FROM t "
+                + "WHERE k = ? ORDER BY x");
+        d.setParameters("key");
+        d.setFetchSize(500);
+        d.addChangeListener(this);
+        d.executeQuery();
+        assertEquals(1, this.events);
+        assertEquals(500, table.lastFetchSize);
+        assertEquals(ResultSet.TYPE_FORWARD_ONLY, table.lastResultSetType);
+        assertEquals("key", table.lastParameters.get(1));
+        assertFalse(d.isTimeSeries());
+
+        assertEquals(2, d.getSeriesCount());
+        assertEquals("A", d.getSeriesKey(0));
+        assertEquals("B", d.getSeriesKey(1));
+        assertEquals(3, d.getItemCount());
+        assertEquals(2.0, d.getXValue(1, 1), 0.0);
+        assertEquals(30.0, d.getYValue(0, 2), 0.0);
+        assertTrue(Double.isNaN(d.getYValue(0, 1)));
+        assertNull(d.getY(0, 1));
+        assertEquals(200.0, d.getY(1, 1).doubleValue(), 0.0);
+        assertEquals(new Range(1.0, 3.0), d.getDomainBounds(false));
+        assertEquals(new Range(-50.0, 200.0), d.getRangeBounds(false));
+        assertEquals(3.0, d.getLastXValue(), 0.0);
+    }
+
+    /**
+     * A query must return an x-column and at least one y-column.
+     */
+    @Test
+    public void testNotEnoughColumns() {
+        FakeTable table = new FakeTable(new int[] {Types.DOUBLE, 
+                Types.VARCHAR}, new String[] {"X", "NAME"});
+        JDBCColumnarXYDataset d = new JDBCColumnarXYDataset(
+                table.getConnection(), "SELECT x, name FROM t");
+        try {
+            d.executeQuery();
+            fail("Expected an SQLException.");
+        }
+        catch (SQLException e) {
+            // expected
+        }
+    }
+
+    /**
+     * The rows must be in ascending order of x-value.
+     */
+    @Test
+    public void testUnsortedRows() {
+        FakeTable table = createNumericTable();
+        table.add(0.5, 5, "d", 5.0);
+        JDBCColumnarXYDataset d = new JDBCColumnarXYDataset(
+                table.getConnection(), "SELECT x, a, name, b FROM t");
+        try {
+            d.executeQuery();
+            fail("Expected an SQLException.");
+        }
+        catch (SQLException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Checks that refresh() fetches only the new rows.
+     *
+     * @throws SQLException if there is a problem.
+     */
+    @Test
+    public void testRefresh() throws SQLException {
+        FakeTable table = createNumericTable();
+        JDBCColumnarXYDataset d = new JDBCColumnarXYDataset(
+                table.getConnection(), "SELECT x, a, name, b FROM t "
+                + "WHERE k = ? ORDER BY x");
+        d.setRefreshQuery("SELECT x, a, name, b FROM t WHERE k = ? "
+                + "AND x > ? ORDER BY x");
+        d.setParameters("key");
+        d.addChangeListener(this);
+
+        // the first refresh loads everything
+        assertEquals(3, d.refresh());
+        assertEquals(1, this.events);
+
+        // nothing new
+        assertEquals(0, d.refresh());
+        assertEquals(1, this.events);
+        assertEquals("key", table.lastParameters.get(1));
+        assertEquals(3.0, table.lastParameters.get(2));
+
+        table.add(4.0, 40, "d", 400.0);
+        table.add(5.0, 50, "e", 500.0);
+        assertEquals(2, d.refresh());
+        assertEquals(2, this.events);
+        assertEquals(5, d.getItemCount());
+        assertEquals(50.0, d.getYValue(0, 4), 0.0);
+        assertEquals(new Range(-50.0, 500.0), d.getRangeBounds(false));
+    }
+
+    /**
+     * Checks the aggregation of timestamps into buckets, including a 
+     * bucket that is completed by a refresh.
+     *
+     * @throws SQLException if there is a problem.
+     */
+    @Test
+    public void testBuckets() throws SQLException {
+        FakeTable table = new FakeTable(new int[] {Types.TIMESTAMP, 
+                Types.DOUBLE}, new String[] {"T", "V"});
+        table.add(new Timestamp(60000L), 1.0);
+        table.add(new Timestamp(61000L), 3.0);
+        table.add(new Timestamp(125000L), null);
+        table.add(new Timestamp(130000L), 10.0);
+        JDBCColumnarXYDataset d = new JDBCColumnarXYDataset(
+                table.getConnection(), "SELECT t, v FROM t ORDER BY t");
+        d.setRefreshQuery("SELECT t, v FROM t WHERE t > ? ORDER BY t");
+        d.setBucketWidth(60000.0);
+        d.executeQuery();
+        assertTrue(d.isTimeSeries());
+        assertEquals(2, d.getItemCount());
+        assertEquals(60000.0, d.getXValue(0, 0), 0.0);
+        assertEquals(2.0, d.getYValue(0, 0), 0.0);
+        assertEquals(120000.0, d.getXValue(0, 1), 0.0);
+        assertEquals(10.0, d.getYValue(0, 1), 0.0);
+        assertEquals(130000.0, d.getLastXValue(), 0.0);
+
+        table.add(new Timestamp(170000L), 20.0);
+        table.add(new Timestamp(180000L), 7.0);
+        assertEquals(2, d.refresh());
+        assertEquals(new Timestamp(130000L), table.lastParameters.get(1));
+        assertEquals(3, d.getItemCount());
+        assertEquals(15.0, d.getYValue(0, 1), 0.0);
+        assertEquals(180000.0, d.getXValue(0, 2), 0.0);
+        assertEquals(7.0, d.getYValue(0, 2), 0.0);
+        assertEquals(new Range(2.0, 15.0), d.getRangeBounds(false));
+    }
+
+    /**
+     * Checks that a large result set is read correctly.
+     *
+     * @throws SQLException if there is a problem.
+     */
+    @Test
+    public void testLargeResultSet() throws SQLException {
+        FakeTable table = new FakeTable(new int[] {Types.BIGINT, 
+                Types.DOUBLE}, new String[] {"X", "Y"});
+        for (int i = 0; i < 5000; i++) {
+            table.add((long) i, (double) (i % 100));
+        }
+        JDBCColumnarXYDataset d = new JDBCColumnarXYDataset(
+                table.getConnection(), "SELECT x, y FROM t ORDER BY x");
+        d.executeQuery();
+        assertEquals(5000, d.getItemCount());
+        assertEquals(4999.0, d.getXValue(0, 4999), 0.0);
+        assertEquals(99.0, d.getYValue(0, 4999), 0.0);
+        assertEquals(new Range(0.0, 99.0), d.getRangeBounds(false));
+    }
+
+    /**
+     * Some checks for the argument checks.
+     */
+    @Test
+    public void testArguments() {
+        JDBCColumnarXYDataset d = new JDBCColumnarXYDataset(
+                createNumericTable().getConnection(), "SELECT 1");
+        try {
+            d.setFetchSize(-1);
+            fail("Expected an IllegalArgumentException.");
+        }
+        catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            d.setBucketWidth(Double.NaN);
+            fail("Expected an IllegalArgumentException.");
+        }
+        catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(0, d.getItemCount());
+        assertNull(d.getRangeBounds(false));
+        assertNull(d.getDomainBounds(false));
+    }
+
+}
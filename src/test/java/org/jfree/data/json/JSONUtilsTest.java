@@ -0,0 +1,296 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ------------------
+ * JSONUtilsTest.java
+ * ------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.TimeZone;
+
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.DefaultPieDataset;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.Minute;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.xy.DefaultXYDataset;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link JSONUtils} class.
+ */
+public class JSONUtilsTest {
+
+    /**
+     * Creates an XY dataset for testing.
+     * 
+     * @return The dataset.
+     */
+    private static DefaultXYDataset createXYDataset() {
+        DefaultXYDataset d = new DefaultXYDataset();
+        d.addSeries("S1", new double[][] {{1.0, 2.5, 3.0}, 
+                {-4.0, Double.NaN, 1.0E-10}});
+        d.addSeries("S\"2\"/\n ", new double[][] {{}, {}});
+        return d;
+    }
+
+    /**
+     * Checks that two XY datasets have the same series and values.
+     * 
+     * @param expected  the expected dataset.
+     * @param actual  the actual dataset.
+     */
+    private static void assertXYEquals(DefaultXYDataset expected, 
+            DefaultXYDataset actual) {
+        assertEquals(expected.getSeriesCount(), actual.getSeriesCount());
+        for (int s = 0; s < expected.getSeriesCount(); s++) {
+            assertEquals(expected.getSeriesKey(s), actual.getSeriesKey(s));
+            assertEquals(expected.getItemCount(s), actual.getItemCount(s));
+            for (int i = 0; i < expected.getItemCount(s); i++) {
+                assertEquals(expected.getXValue(s, i), 
+                        actual.getXValue(s, i), 0.0);
+                assertEquals(expected.getYValue(s, i), 
+                        actual.getYValue(s, i), 0.0);
+            }
+        }
+    }
+
+    /**
+     * The existing formats are unchanged.
+     */
+    @Test
+    public void testWriteKeyedValues() {
+        DefaultPieDataset pie = new DefaultPieDataset();
+        pie.setValue("A", 1.0);
+        pie.setValue("B\"", null);
+        pie.setValue("C", new Integer(3));
+        assertEquals("[[\"A\", 1.0], [\"B\\\"\", null], [\"C\", 3]]", 
+                JSONUtils.writeKeyedValues(pie));
+
+        DefaultCategoryDataset cat = new DefaultCategoryDataset();
+        cat.addValue(1.0, "R1", "C1");
+        cat.addValue(2.0, "R1", "C2");
+        cat.addValue(null, "R2", "C2");
+        assertEquals("{\"columnKeys\": [\"C1\", \"C2\"], \"rows\": "
+                + "[[\"R1\", [1.0, 2.0]], [\"R2\", [null, null]]]}", 
+                JSONUtils.writeKeyedValues2D(cat));
+        assertEquals("{}", JSONUtils.writeKeyedValues2D(
+                new DefaultCategoryDataset()));
+    }
+
+    /**
+     * An XY dataset can be written and read in both layouts.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testXYDataset() throws IOException {
+        DefaultXYDataset d1 = createXYDataset();
+        String json = JSONUtils.writeXYDataset(d1);
+        assertTrue(json.startsWith("{\"series\": [{\"key\": \"S1\", "
+                + "\"x\": [1.0, 2.5, 3.0], \"y\": [-4.0, null, 1.0E-10]}"));
+        assertXYEquals(d1, JSONUtils.readXYDataset(new StringReader(json)));
+
+        StringWriter sw = new StringWriter();
+        JSONUtils.writeXYDataset(d1, sw, false);
+        assertTrue(sw.toString().startsWith("{\"series\": [{\"key\": \"S1\", "
+                + "\"items\": [[1.0, -4.0], [2.5, null], [3.0, 1.0E-10]]}"));
+        assertXYEquals(d1, JSONUtils.readXYDataset(
+                new StringReader(sw.toString())));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JSONUtils.writeXYDataset(d1, out);
+        assertXYEquals(d1, JSONUtils.readXYDataset(
+                new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    /**
+     * A larger dataset is read back exactly.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testLargeXYDataset() throws IOException {
+        int n = 100000;
+        double[][] data = new double[2][n];
+        for (int i = 0; i < n; i++) {
+            data[0][i] = i * 0.001;
+            data[1][i] = Math.sin(i) * 1000.0;
+        }
+        DefaultXYDataset d1 = new DefaultXYDataset();
+        d1.addSeries("S1", data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JSONUtils.writeXYDataset(d1, out);
+        assertXYEquals(d1, JSONUtils.readXYDataset(
+                new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    /**
+     * Other JSON layout: white space, unknown entries and escapes.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testReadXYDatasetLenient() throws IOException {
+        String json = "\n{ \"version\" : {\"a\": [1, true, false, null]},\r\n"
+                + "\t\"series\":[ {\"y\":[2e3,-1.5E-2] , \"key\":\"A\\u0042\", "
+                + "\"x\":[0,1]} ] }  ";
+        DefaultXYDataset d = JSONUtils.readXYDataset(new StringReader(json));
+        assertEquals(1, d.getSeriesCount());
+        assertEquals("AB", d.getSeriesKey(0));
+        assertEquals(2000.0, d.getYValue(0, 0), 0.0);
+        assertEquals(-0.015, d.getYValue(0, 1), 0.0);
+        assertEquals(1.0, d.getXValue(0, 1), 0.0);
+    }
+
+    /**
+     * Invalid JSON is reported with an {@code IOException}.
+     */
+    @Test
+    public void testReadInvalid() {
+        String[] invalid = {"", "{", "{\"series\": [}", 
+                "{\"series\": [{\"key\": \"A\", \"x\": [1, 2], \"y\": [1]}]}",
+                "{\"series\": [{\"x\": [], \"y\": []}]}",
+                "{\"series\": [{\"key\": \"A\" \"x\": []}]}",
+                "{\"series\": [{\"key\": \"A\", \"x\": [1,], \"y\": [1]}]}",
+                "{\"series\": [{\"key\": \"A\", \"x\": [1-], \"y\": [1]}]}",
+                "{\"series\": []} x"};
+        for (String json : invalid) {
+            try {
+                JSONUtils.readXYDataset(new StringReader(json));
+                fail("Expected an IOException for " + json);
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * A time series collection can be written and read.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testTimeSeriesCollection() throws IOException {
+        TimeZone zone = TimeZone.getTimeZone("UTC");
+        TimeSeries s1 = new TimeSeries("S1");
+        s1.add(new Day(1, 1, 2017), 1.0);
+        s1.add(new Day(2, 1, 2017), null);
+        s1.add(new Day(5, 1, 2017), 3.5);
+        TimeSeries s2 = new TimeSeries("S2");
+        s2.add(new Minute(5, 12, 1, 2, 2017), 7.0);
+        TimeSeriesCollection c1 = new TimeSeriesCollection(zone);
+        c1.addSeries(s1);
+        c1.addSeries(s2);
+        c1.addSeries(new TimeSeries("S3"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JSONUtils.writeTimeSeriesCollection(c1, out);
+        String json = out.toString("UTF-8");
+        assertTrue(json.contains("\"timePeriod\": \"Day\""));
+        assertTrue(json.contains("\"y\": [1.0, null, 3.5]"));
+
+        TimeSeriesCollection c2 = JSONUtils.readTimeSeriesCollection(
+                new ByteArrayInputStream(out.toByteArray()), 
+                TimeZone.getDefault());
+        assertEquals(3, c2.getSeriesCount());
+        assertEquals(s1, c2.getSeries(0));
+        assertEquals(s2, c2.getSeries(1));
+        assertEquals(0, c2.getSeries(2).getItemCount());
+    }
+
+    /**
+     * Only time period classes are accepted.
+     */
+    @Test
+    public void testReadTimeSeriesInvalidPeriod() {
+        String[] periods = {"String", "java.lang.String", "NoSuchPeriod"};
+        for (String period : periods) {
+            String json = "{\"series\": [{\"key\": \"A\", \"timePeriod\": \""
+                    + period + "\", \"x\": [0], \"y\": [1]}]}";
+            try {
+                JSONUtils.readTimeSeriesCollection(new StringReader(json), 
+                        TimeZone.getDefault());
+                fail("Expected an IOException for " + period);
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * A category dataset can be written and read.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testCategoryDataset() throws IOException {
+        DefaultCategoryDataset d1 = new DefaultCategoryDataset();
+        d1.addValue(1.0, "R1", "C1");
+        d1.addValue(2.0, "R1", "C2");
+        d1.addValue(3.0, "R2", "C1");
+        d1.addValue(null, "R2", "C2");
+        DefaultCategoryDataset d2 = JSONUtils.readCategoryDataset(
+                new StringReader(JSONUtils.writeKeyedValues2D(d1)));
+        assertEquals(d1, d2);
+        assertNull(d2.getValue("R2", "C2"));
+    }
+
+    /**
+     * A pie dataset can be written and read.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testPieDataset() throws IOException {
+        DefaultPieDataset d1 = new DefaultPieDataset();
+        d1.setValue("A", 1.5);
+        d1.setValue("B", null);
+        d1.setValue("C\\", 3.0);
+        DefaultPieDataset d2 = JSONUtils.readPieDataset(
+                new StringReader(JSONUtils.writeKeyedValues(d1)));
+        assertEquals(d1, d2);
+    }
+
+}
@@ -0,0 +1,337 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------------------------------------
+ * MultiResolutionTimeSeriesCollectionTest.java
+ * --------------------------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.time;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import org.jfree.chart.TestUtils;
+import org.jfree.data.Range;
+import org.jfree.data.xy.OHLCDataset;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYDatasetView;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link MultiResolutionTimeSeriesCollection} class.
+ */
+public class MultiResolutionTimeSeriesCollectionTest {
+
+    /** The time zone used for the tests. */
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    /** Midnight on 1 January 2017 (UTC). */
+    private static final long START = 1483228800000L;
+
+    /**
+     * Creates a collection with tiers for minutes and hours.
+     *
+     * @return The collection.
+     */
+    private MultiResolutionTimeSeriesCollection createCollection() {
+        return new MultiResolutionTimeSeriesCollection(UTC, Locale.UK,
+                new Class[] {Minute.class, Hour.class});
+    }
+
+    /**
+     * Creates a series with one value per second, starting at midnight on
+     * 1 January 2017 (UTC).  The value of each item is its index.
+     *
+     * @param key  the series key.
+     * @param count  the number of items.
+     *
+     * @return The series.
+     */
+    private TimeSeries createSeries(String key, int count) {
+        TimeSeries s = new TimeSeries(key);
+        for (int i = 0; i < count; i++) {
+            s.add(createSecond(i), i);
+        }
+        return s;
+    }
+
+    /**
+     * Returns the second at the specified offset from midnight on 1 January
+     * 2017 (UTC).
+     *
+     * @param offset  the offset (in seconds).
+     *
+     * @return The second.
+     */
+    private Second createSecond(int offset) {
+        return new Second(new Date(START + offset * 1000L), UTC, Locale.UK);
+    }
+
+    /**
+     * Checks that the tiers in two collections hold the same values.
+     *
+     * @param expected  the expected collection.
+     * @param actual  the actual collection.
+     */
+    private void assertSameTiers(MultiResolutionTimeSeriesCollection expected,
+            MultiResolutionTimeSeriesCollection actual) {
+        for (int level = 1; level <= expected.getTierCount(); level++) {
+            expected.setResolutionLevel(level);
+            actual.setResolutionLevel(level);
+            for (int s = 0; s < expected.getSeriesCount(); s++) {
+                int count = expected.getItemCount(s);
+                assertEquals(count, actual.getItemCount(s));
+                for (int i = 0; i < count; i++) {
+                    assertEquals(expected.getXValue(s, i),
+                            actual.getXValue(s, i), 0.0);
+                    assertEquals(expected.getOpenValue(s, i),
+                            actual.getOpenValue(s, i), 0.0);
+                    assertEquals(expected.getHighValue(s, i),
+                            actual.getHighValue(s, i), 0.0);
+                    assertEquals(expected.getLowValue(s, i),
+                            actual.getLowValue(s, i), 0.0);
+                    assertEquals(expected.getCloseValue(s, i),
+                            actual.getCloseValue(s, i), 0.0);
+                    assertEquals(expected.getYValue(s, i),
+                            actual.getYValue(s, i), 1e-9);
+                    assertEquals(expected.getVolumeValue(s, i),
+                            actual.getVolumeValue(s, i), 0.0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks the aggregated values in the tiers.
+     */
+    @Test
+    public void testTierValues() {
+        MultiResolutionTimeSeriesCollection c = createCollection();
+        c.addSeries(createSeries("S1", 7200));
+        assertEquals(0, c.getResolutionLevel());
+        assertEquals(7200, c.getItemCount(0));
+
+        c.setResolutionLevel(1);
+        assertEquals(120, c.getItemCount(0));
+        assertEquals(START + 60000L, c.getXValue(0, 1), 0.0);
+        assertEquals(START + 60000L, c.getStartXValue(0, 1), 0.0);
+        assertEquals(START + 119999L, c.getEndXValue(0, 1), 0.0);
+        assertEquals(60.0, c.getOpenValue(0, 1), 0.0);
+        assertEquals(119.0, c.getCloseValue(0, 1), 0.0);
+        assertEquals(60.0, c.getLowValue(0, 1), 0.0);
+        assertEquals(119.0, c.getHighValue(0, 1), 0.0);
+        assertEquals(89.5, c.getYValue(0, 1), 1e-9);
+        assertEquals(60.0, c.getStartYValue(0, 1), 0.0);
+        assertEquals(119.0, c.getEndYValue(0, 1), 0.0);
+        assertEquals(60.0, c.getVolumeValue(0, 1), 0.0);
+
+        c.setResolutionLevel(2);
+        assertEquals(2, c.getItemCount(0));
+        assertEquals(3600.0, c.getOpenValue(0, 1), 0.0);
+        assertEquals(7199.0, c.getCloseValue(0, 1), 0.0);
+        assertEquals(5399.5, c.getYValue(0, 1), 1e-9);
+    }
+
+    /**
+     * Checks the selection of the resolution level for a view.
+     */
+    @Test
+    public void testGetView() {
+        MultiResolutionTimeSeriesCollection c = createCollection();
+        c.addSeries(createSeries("S1", 7200));
+        Range all = c.getDomainBounds(true);
+        XYDataset minutes = c.getView(all, 500.0);
+        assertEquals(120, minutes.getItemCount(0));
+        assertSame(minutes, c.getView(all, 500.0));
+        assertSame(c, ((XYDatasetView) minutes).getSourceDataset());
+        assertTrue(minutes instanceof OHLCDataset);
+        assertEquals(60.0, ((OHLCDataset) minutes).getOpenValue(0, 1), 0.0);
+        XYDataset raw = c.getView(all, 10000.0);
+        assertEquals(7200, raw.getItemCount(0));
+        assertEquals(START + 1000.0, raw.getXValue(0, 1), 0.0);
+        assertEquals(2, c.getView(all, 1.0).getItemCount(0));
+
+        // a narrow x-range can be shown at full resolution
+        Range narrow = new Range(all.getLowerBound(),
+                all.getLowerBound() + 100000.0);
+        assertSame(raw, c.getView(narrow, 500.0));
+
+        // the collection itself is not changed, and a view keeps its level
+        assertEquals(0, c.getResolutionLevel());
+        assertEquals(120, minutes.getItemCount(0));
+        c.setResolutionLevel(1);
+        assertEquals(120, c.getItemCount(0));
+        assertEquals(7200, raw.getItemCount(0));
+
+        // the domain bounds don't depend on the resolution level
+        c.setResolutionLevel(2);
+        assertEquals(all, c.getDomainBounds(true));
+    }
+
+    /**
+     * Appending, updating the last item and evicting old items should
+     * give the same tiers as building them from scratch.
+     */
+    @Test
+    public void testIncrementalUpdates() throws CloneNotSupportedException {
+        MultiResolutionTimeSeriesCollection c = createCollection();
+        TimeSeries s = createSeries("S1", 100);
+        c.addSeries(s);
+        for (int i = 100; i < 5000; i++) {
+            s.add(createSecond(i), i);
+        }
+        s.addOrUpdate(s.getTimePeriod(4999), -5.0);
+        MultiResolutionTimeSeriesCollection expected = createCollection();
+        expected.addSeries(createSeries("S1", 5000));
+        expected.getSeries(0).update(4999, -5.0);
+        assertSameTiers(expected, c);
+
+        s.setMaximumItemCount(3000);
+        s.add(createSecond(5000), 5000);
+        expected = createCollection();
+        expected.addSeries((TimeSeries) s.clone());
+        assertEquals(3000, c.getSeries(0).getItemCount());
+        c.setResolutionLevel(1);
+        assertEquals(51, c.getItemCount(0));
+        // the first (partially evicted) bucket retains its aggregates, but
+        // the later buckets match
+        expected.setResolutionLevel(1);
+        for (int i = 1; i < 51; i++) {
+            assertEquals(expected.getOpenValue(0, i), c.getOpenValue(0, i),
+                    0.0);
+            assertEquals(expected.getCloseValue(0, i), c.getCloseValue(0, i),
+                    0.0);
+            assertEquals(expected.getLowValue(0, i), c.getLowValue(0, i),
+                    0.0);
+        }
+    }
+
+    /**
+     * Other changes to a series are picked up by a rebuild.
+     */
+    @Test
+    public void testRebuild() {
+        MultiResolutionTimeSeriesCollection c = createCollection();
+        TimeSeries s = createSeries("S1", 600);
+        c.addSeries(s);
+        s.delete(0, 299);
+        MultiResolutionTimeSeriesCollection expected = createCollection();
+        expected.addSeries(createSeries("S1", 600));
+        expected.getSeries(0).delete(0, 299);
+        assertSameTiers(expected, c);
+
+        s.update(100, -1.0);
+        c.rebuild();
+        expected.getSeries(0).update(100, -1.0);
+        expected.rebuild();
+        assertSameTiers(expected, c);
+    }
+
+    /**
+     * Checks the range bounds for a range of x-values.
+     */
+    @Test
+    public void testGetRangeBounds() {
+        MultiResolutionTimeSeriesCollection c = createCollection();
+        c.addSeries(createSeries("S1", 7200));
+        Range all = c.getDomainBounds(true);
+        Range r = c.getRangeBounds(Collections.singletonList("S1"), all,
+                false);
+        assertEquals(new Range(0.0, 7199.0), r);
+        r = c.getRangeBounds(Collections.singletonList("S1"),
+                new Range(all.getLowerBound() + 10000.0,
+                all.getLowerBound() + 19000.0), false);
+        assertEquals(new Range(10.0, 19.0), r);
+    }
+
+    /**
+     * Some checks for the equals() method.
+     */
+    @Test
+    public void testEquals() {
+        MultiResolutionTimeSeriesCollection c1 = createCollection();
+        MultiResolutionTimeSeriesCollection c2 = createCollection();
+        assertEquals(c1, c2);
+        c1.addSeries(createSeries("S1", 10));
+        assertFalse(c1.equals(c2));
+        c2.addSeries(createSeries("S1", 10));
+        assertEquals(c1, c2);
+        assertEquals(c1.hashCode(), c2.hashCode());
+        c1.setXPosition(TimePeriodAnchor.MIDDLE);
+        assertFalse(c1.equals(c2));
+        c2.setXPosition(TimePeriodAnchor.MIDDLE);
+        assertEquals(c1, c2);
+        c1.setItemsPerPixel(2.0);
+        assertFalse(c1.equals(c2));
+        c2.setItemsPerPixel(2.0);
+        assertEquals(c1, c2);
+        assertFalse(c1.equals(new MultiResolutionTimeSeriesCollection(UTC,
+                Locale.UK, new Class[] {Minute.class})));
+    }
+
+    /**
+     * Confirm that cloning works.
+     */
+    @Test
+    public void testCloning() throws CloneNotSupportedException {
+        MultiResolutionTimeSeriesCollection c1 = createCollection();
+        c1.addSeries(createSeries("S1", 200));
+        MultiResolutionTimeSeriesCollection c2
+                = (MultiResolutionTimeSeriesCollection) c1.clone();
+        assertTrue(c1 != c2);
+        assertEquals(c1, c2);
+        assertSameTiers(c1, c2);
+        c1.getSeries(0).add(createSecond(600), 99.0);
+        assertFalse(c1.equals(c2));
+    }
+
+    /**
+     * Serialize an instance, restore it, and check for equality.
+     */
+    @Test
+    public void testSerialization() {
+        MultiResolutionTimeSeriesCollection c1 = createCollection();
+        c1.addSeries(createSeries("S1", 200));
+        MultiResolutionTimeSeriesCollection c2
+                = (MultiResolutionTimeSeriesCollection)
+                TestUtils.serialised(c1);
+        assertEquals(c1, c2);
+        assertSameTiers(c1, c2);
+    }
+
+}
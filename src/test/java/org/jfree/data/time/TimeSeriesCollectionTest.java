@@ -476,4 +476,144 @@ public class TimeSeriesCollectionTest {
         collection.setXPosition(TimePeriodAnchor.END);
         assertNull(collection.getRangeBounds(Arrays.asList("S1"), range, true));
     }
+
+    /**
+     * Checks the x-values for all items in a collection against values
+     * calculated directly from the time periods.
+     *
+     * @param c  the collection.
+     * @param zone  the time zone for the collection.
+     */
+    private void checkXValues(TimeSeriesCollection c, TimeZone zone) {
+        Calendar calendar = Calendar.getInstance(zone);
+        for (int s = 0; s < c.getSeriesCount(); s++) {
+            TimeSeries series = c.getSeries(s);
+            assertEquals(series.getItemCount(), c.getItemCount(s));
+            for (int i = 0; i < series.getItemCount(); i++) {
+                RegularTimePeriod p = series.getTimePeriod(i);
+                assertEquals(p.getFirstMillisecond(calendar),
+                        c.getStartXValue(s, i), 0.0);
+                assertEquals(p.getLastMillisecond(calendar),
+                        c.getEndXValue(s, i), 0.0);
+                assertEquals(p.getMiddleMillisecond(calendar),
+                        c.getXValue(s, i), 0.0);
+            }
+        }
+    }
+
+    /**
+     * The cached x-values should follow changes to the series.
+     */
+    @Test
+    public void testXValuesAfterSeriesChanges() {
+        TimeZone zone = TimeZone.getTimeZone("Asia/Tokyo");
+        TimeSeriesCollection c = new TimeSeriesCollection(zone);
+        c.setXPosition(TimePeriodAnchor.MIDDLE);
+        TimeSeries s1 = new TimeSeries("S1");
+        for (int i = 1; i <= 20; i++) {
+            s1.add(new Day(i, 3, 2017), i);
+        }
+        c.addSeries(s1);
+        checkXValues(c, zone);
+
+        // append
+        s1.add(new Day(21, 3, 2017), 21.0);
+        checkXValues(c, zone);
+
+        // remove from the start
+        s1.delete(0, 4);
+        checkXValues(c, zone);
+
+        // remove from the end
+        s1.delete(s1.getItemCount() - 1, s1.getItemCount() - 1);
+        checkXValues(c, zone);
+
+        // insert in the middle
+        s1.add(new Day(28, 2, 2017), 1.0);
+        s1.delete(5, 6);
+        checkXValues(c, zone);
+
+        // append and evict
+        s1.setMaximumItemCount(10);
+        s1.add(new Day(1, 4, 2017), 22.0);
+        checkXValues(c, zone);
+
+        // changes without notification
+        s1.setNotify(false);
+        s1.add(new Day(2, 4, 2017), 23.0);
+        checkXValues(c, zone);
+        // same item count, first and last items, different periods between
+        s1.delete(s1.getTimePeriod(5));
+        s1.add(new Day(30, 3, 2017), 24.0);
+        checkXValues(c, zone);
+        s1.setNotify(true);
+
+        // a second series
+        TimeSeries s2 = new TimeSeries("S2");
+        s2.add(new Day(1, 1, 2017), 1.0);
+        c.addSeries(s2);
+        checkXValues(c, zone);
+        c.removeSeries(s1);
+        checkXValues(c, zone);
+        s2.clear();
+        assertNull(c.getDomainBounds(true));
+    }
+
+    /**
+     * The x-values can be read by several threads at the same time.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    public void testConcurrentXValues() throws InterruptedException {
+        final TimeSeriesCollection c = new TimeSeriesCollection(
+                TimeZone.getTimeZone("UTC"));
+        TimeSeries s1 = new TimeSeries("S1");
+        RegularTimePeriod p = new Minute(0, 0, 1, 1, 2017);
+        for (int i = 0; i < 5000; i++) {
+            s1.add(p, i);
+            p = p.next();
+        }
+        c.addSeries(s1);
+        final double expected = sumXValues(c);
+        final boolean[] ok = new boolean[4];
+        Thread[] threads = new Thread[ok.length];
+        for (int t = 0; t < threads.length; t++) {
+            final int index = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    boolean result = true;
+                    for (int pass = 0; pass < 20; pass++) {
+                        result = result && sumXValues(c) == expected;
+                    }
+                    ok[index] = result;
+                }
+            });
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].join();
+            assertTrue(ok[t]);
+        }
+    }
+
+    /**
+     * Returns the sum of the x-values in a collection.
+     *
+     * @param c  the collection.
+     *
+     * @return The sum.
+     */
+    private static double sumXValues(TimeSeriesCollection c) {
+        double total = 0.0;
+        for (int s = 0; s < c.getSeriesCount(); s++) {
+            for (int i = 0; i < c.getItemCount(s); i++) {
+                total += c.getXValue(s, i) + c.getStartXValue(s, i)
+                        + c.getEndXValue(s, i);
+            }
+        }
+        return total;
+    }
+
 }
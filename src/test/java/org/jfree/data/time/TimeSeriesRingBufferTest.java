@@ -0,0 +1,136 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2017, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates.
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -----------------------------
+ * TimeSeriesRingBufferTest.java
+ * -----------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.time;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link TimeSeriesRingBuffer} class.
+ */
+public class TimeSeriesRingBufferTest {
+
+    /**
+     * The capacity doubles as items are added, but not beyond the maximum
+     * capacity.
+     */
+    @Test
+    public void testMaximumCapacity() {
+        TimeSeriesRingBuffer buffer = new TimeSeriesRingBuffer(40);
+        RegularTimePeriod p = new Year(2000);
+        for (int i = 0; i < 40; i++) {
+            buffer.insert(i, p, i);
+            p = p.next();
+        }
+        assertEquals(40, buffer.capacity());
+        try {
+            buffer.insert(40, p, 40.0);
+            fail("Expected an IllegalStateException.");
+        }
+        catch (IllegalStateException e) {
+            // expected
+        }
+
+        // a full buffer keeps its arrays while items are evicted and added
+        buffer.removeFirst();
+        buffer.insert(39, p, 40.0);
+        assertEquals(40, buffer.capacity());
+        assertEquals(1.0, buffer.getDoubleValue(0), 0.0);
+        assertEquals(40.0, buffer.getDoubleValue(39), 0.0);
+        assertEquals(1.0, buffer.getMinValue(), 0.0);
+        assertEquals(40.0, buffer.getMaxValue(), 0.0);
+    }
+
+    /**
+     * Reducing the maximum capacity reallocates the arrays, keeping the
+     * items in order.
+     */
+    @Test
+    public void testSetMaximumCapacity() {
+        TimeSeriesRingBuffer buffer = new TimeSeriesRingBuffer();
+        RegularTimePeriod p = new Year(2000);
+        for (int i = 0; i < 20; i++) {
+            buffer.insert(i, p, i % 3 == 0 ? null : new Double(i));
+            p = p.next();
+        }
+        for (int i = 0; i < 15; i++) {
+            buffer.removeFirst();
+        }
+        assertEquals(32, buffer.capacity());
+        buffer.setMaximumCapacity(6);
+        assertEquals(6, buffer.capacity());
+        assertEquals(5, buffer.size());
+        assertEquals(new Year(2015), buffer.getPeriod(0));
+        assertEquals(null, buffer.getValue(3));
+        assertEquals(new Double(19.0), buffer.getValue(4));
+        assertEquals(16.0, buffer.getMinValue(), 0.0);
+        try {
+            buffer.setMaximumCapacity(4);
+            fail("Expected an IllegalArgumentException.");
+        }
+        catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * A series with a maximum item count keeps a ring buffer with room for
+     * one more item.
+     */
+    @Test
+    public void testSeriesCapacity() {
+        TimeSeries series = new TimeSeries("S1", "Time", "Value", true);
+        series.setMaximumItemCount(100);
+        RegularTimePeriod p = new Second(0, 0, 0, 1, 1, 2017);
+        for (int i = 0; i < 1000; i++) {
+            series.add(p, i);
+            p = p.next();
+        }
+        TimeSeriesRingBuffer buffer = (TimeSeriesRingBuffer) series.data;
+        assertEquals(101, buffer.getMaximumCapacity());
+        assertTrue(buffer.capacity() <= 101);
+        assertEquals(100, series.getItemCount());
+
+        series.setMaximumItemCount(10);
+        assertEquals(11, buffer.capacity());
+        assertEquals(990.0, series.getValue(0).doubleValue(), 0.0);
+    }
+
+}
@@ -62,8 +62,10 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
 
@@ -1244,4 +1246,162 @@ public class TimeSeriesTest implements SeriesChangeListener {
                 ts.findValueRange(range, TimePeriodAnchor.END, tzone));
 
     }
+
+    /**
+     * Some checks for a series that uses a ring buffer, with a maximum item
+     * count.
+     */
+    @Test
+    public void testRingBufferMaximumItemCount() {
+        TimeSeries s1 = new TimeSeries("S1", "Time", "Value", true);
+        assertTrue(s1.isRingBuffer());
+        s1.setMaximumItemCount(100);
+        Second start = new Second(0, 0, 0, 1, 1, 2017);
+        RegularTimePeriod p = start;
+        for (int i = 0; i < 1000; i++) {
+            // values are highest in the middle of each block of 200
+            s1.add(p, 100 - Math.abs((i % 200) - 100));
+            p = p.next();
+        }
+        assertEquals(100, s1.getItemCount());
+        assertEquals(900, s1.getTimePeriod(0).getSerialIndex()
+                - start.getSerialIndex());
+        assertEquals(new Double(100.0), s1.getValue(0));
+        assertEquals(1.0, s1.getMinY(), EPSILON);
+        assertEquals(100.0, s1.getMaxY(), EPSILON);
+        assertEquals(50, s1.getIndex(s1.getTimePeriod(50)));
+        assertEquals(-1, s1.getIndex(start));
+        assertEquals(-101, s1.getIndex(p));
+
+        s1.setMaximumItemCount(10);
+        assertEquals(1.0, s1.getMinY(), EPSILON);
+        assertEquals(10.0, s1.getMaxY(), EPSILON);
+
+        s1.update(9, new Double(-5.0));
+        assertEquals(-5.0, s1.getMinY(), EPSILON);
+        s1.delete(s1.getTimePeriod(9));
+        assertEquals(2.0, s1.getMinY(), EPSILON);
+    }
+
+    /**
+     * Some checks for a series that uses a ring buffer, with a maximum item
+     * age.
+     */
+    @Test
+    public void testRingBufferMaximumItemAge() {
+        TimeSeries s1 = new TimeSeries("S1", "Time", "Value", true);
+        s1.setMaximumItemAge(2);
+        s1.add(new Year(2000), 5.0);
+        s1.add(new Year(2001), null);
+        s1.add(new Year(2002), 3.0);
+        assertEquals(3.0, s1.getMinY(), EPSILON);
+        assertEquals(5.0, s1.getMaxY(), EPSILON);
+        s1.add(new Year(2003), 4.0);
+        assertEquals(3, s1.getItemCount());
+        assertNull(s1.getValue(0));
+        assertEquals(3.0, s1.getMinY(), EPSILON);
+        assertEquals(4.0, s1.getMaxY(), EPSILON);
+
+        // insert an item out of order
+        s1.addOrUpdate(new Year(2001), 9.0);
+        assertEquals(9.0, s1.getMaxY(), EPSILON);
+        s1.add(new Year(2005), 1.0);
+        assertEquals(2, s1.getItemCount());
+        assertEquals(1.0, s1.getMinY(), EPSILON);
+        assertEquals(4.0, s1.getMaxY(), EPSILON);
+    }
+
+    /**
+     * A series with a ring buffer is equal to a regular series with the same
+     * data, and survives cloning and serialization.
+     */
+    @Test
+    public void testRingBufferEqualsCloneAndSerialization()
+            throws CloneNotSupportedException {
+        TimeSeries s1 = new TimeSeries("S1", "Time", "Value", true);
+        TimeSeries s2 = new TimeSeries("S1");
+        for (int i = 0; i < 50; i++) {
+            s1.add(new Year(2000 + i), i * 1.5);
+            s2.add(new Year(2000 + i), i * 1.5);
+        }
+        assertEquals(s1, s2);
+        assertEquals(s1.hashCode(), s2.hashCode());
+
+        TimeSeries s3 = (TimeSeries) s1.clone();
+        assertTrue(s3.isRingBuffer());
+        assertEquals(s1, s3);
+        s3.add(new Year(2050), 1.0);
+        assertFalse(s1.equals(s3));
+
+        TimeSeries s4 = (TimeSeries) TestUtils.serialised(s1);
+        assertTrue(s4.isRingBuffer());
+        assertEquals(s1, s4);
+        assertEquals(73.5, s4.getMaxY(), EPSILON);
+    }
+    /**
+     * Checks that the cached minimum and maximum y-values are recalculated
+     * when the extreme values are overwritten or removed.
+     */
+    @Test
+    public void testMinMaxYAfterChanges() {
+        TimeSeries ts = new TimeSeries("S");
+        ts.add(new Year(2010), 5.0);
+        ts.add(new Year(2011), 1.0);
+        ts.add(new Year(2012), 9.0);
+        ts.add(new Year(2013), 3.0);
+        assertEquals(1.0, ts.getMinY(), EPSILON);
+        assertEquals(9.0, ts.getMaxY(), EPSILON);
+        ts.update(2, new Double(4.0));
+        assertEquals(5.0, ts.getMaxY(), EPSILON);
+        ts.addOrUpdate(new Year(2011), 2.0);
+        assertEquals(2.0, ts.getMinY(), EPSILON);
+        ts.delete(new Year(2010));
+        assertEquals(2.0, ts.getMinY(), EPSILON);
+        assertEquals(4.0, ts.getMaxY(), EPSILON);
+        ts.setMaximumItemCount(1);
+        assertEquals(3.0, ts.getMinY(), EPSILON);
+        assertEquals(3.0, ts.getMaxY(), EPSILON);
+        ts.delete(0, 0);
+        assertTrue(Double.isNaN(ts.getMinY()));
+        assertTrue(Double.isNaN(ts.getMaxY()));
+    }
+
+
+    /**
+     * Adding and updating items reports the range of affected items, and a
+     * batch of changes results in a single event.
+     */
+    @Test
+    public void testChangeEventItemRange() {
+        final List<SeriesChangeEvent> events 
+                = new ArrayList<SeriesChangeEvent>();
+        TimeSeries s1 = new TimeSeries("S1");
+        s1.addChangeListener(new SeriesChangeListener() {
+            @Override
+            public void seriesChanged(SeriesChangeEvent event) {
+                events.add(event);
+            }
+        });
+        s1.add(new Year(2010), 1.0);
+        s1.add(new Year(2012), 2.0);
+        s1.add(new Year(2011), 3.0);
+        s1.update(new Year(2012), 4.0);
+        assertEquals(4, events.size());
+        assertEquals(0, events.get(0).getFirstItemIndex());
+        assertEquals(1, events.get(1).getFirstItemIndex());
+        assertEquals(1, events.get(2).getFirstItemIndex());
+        assertEquals(2, events.get(2).getLastItemIndex());
+        assertEquals(2, events.get(3).getFirstItemIndex());
+        assertEquals(2, events.get(3).getLastItemIndex());
+
+        events.clear();
+        s1.beginUpdate();
+        for (int y = 2013; y < 3013; y++) {
+            s1.add(new Year(y), y);
+        }
+        s1.endUpdate();
+        assertEquals(1, events.size());
+        assertEquals(3, events.get(0).getFirstItemIndex());
+        assertEquals(1002, events.get(0).getLastItemIndex());
+    }
 }
@@ -0,0 +1,352 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2016, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ------------------------
+ * MappedXYDatasetTest.java
+ * ------------------------
+ * (C) Copyright 2017, by Object Refinery Limited and Contributors.
+ *
+ * Original Author:  David Gilbert (for Object Refinery Limited);
+ * Contributor(s):   -;
+ *
+ */
+
+package org.jfree.data.xy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.jfree.chart.TestUtils;
+import org.jfree.chart.renderer.RendererUtils;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.general.DatasetUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for the {@link MappedXYDataset} class.
+ */
+public class MappedXYDatasetTest {
+
+    /** A folder for the test files. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** The number of items in the test data. */
+    private static final int ITEMS = 1000;
+
+    /**
+     * Returns the y-value for an item in the test data (every 37th value 
+     * in series "B" is {@code null}).
+     * 
+     * @param s  the series index.
+     * @param i  the item index.
+     * 
+     * @return The y-value.
+     */
+    private static double y(int s, int i) {
+        if (s == 1 && i % 37 == 0) {
+            return Double.NaN;
+        }
+        return s == 0 ? Math.sin(i / 50.0) * i : (i * 7919 % 1000) - 500.0;
+    }
+
+    /**
+     * Writes the test data with a small block size, so that there are 
+     * several summary levels.
+     * 
+     * @param floatValues  write the y-values as floats?
+     * 
+     * @return The file.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    private File writeTestData(boolean floatValues) throws IOException {
+        File file = this.folder.newFile();
+        MappedXYDatasetWriter writer = new MappedXYDatasetWriter(file, 
+                new String[] {"A", "B"}, floatValues, 4);
+        for (int i = 0; i < ITEMS; i++) {
+            writer.add(i * 0.5, y(0, i), y(1, i));
+        }
+        assertEquals(ITEMS, writer.getItemCount());
+        writer.close();
+        return file;
+    }
+
+    /**
+     * Returns the minimum and maximum of the test data for item indices
+     * from {@code first} to {@code last}, found by checking every item.
+     * 
+     * @param first  the first item.
+     * @param last  the last item.
+     * 
+     * @return The range.
+     */
+    private static Range bruteForce(int first, int last) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int s = 0; s < 2; s++) {
+            for (int i = first; i <= last; i++) {
+                double y = y(s, i);
+                if (!Double.isNaN(y)) {
+                    min = Math.min(min, y);
+                    max = Math.max(max, y);
+                }
+            }
+        }
+        return new Range(min, max);
+    }
+
+    /**
+     * The raw values are read back as they were written.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testRawValues() throws IOException {
+        MappedXYDataset d = new MappedXYDataset(writeTestData(false));
+        assertEquals(2, d.getSeriesCount());
+        assertEquals("A", d.getSeriesKey(0));
+        assertEquals("B", d.getSeriesKey(1));
+        assertEquals(0, d.getResolutionLevel());
+        assertEquals(ITEMS, d.getItemCount(0));
+        assertEquals(DomainOrder.ASCENDING, d.getDomainOrder());
+        for (int i = 0; i < ITEMS; i++) {
+            assertEquals(i * 0.5, d.getXValue(1, i), 0.0);
+            assertEquals(i * 0.5, d.getStartXValue(1, i), 0.0);
+            assertEquals(y(0, i), d.getYValue(0, i), 0.0);
+            assertEquals(y(1, i), d.getYValue(1, i), 0.0);
+            assertEquals(y(1, i), d.getEndYValue(1, i), 0.0);
+        }
+        assertEquals(new Range(0.0, 499.5), d.getDomainBounds(false));
+    }
+
+    /**
+     * Float values are stored with float precision.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testFloatValues() throws IOException {
+        MappedXYDataset d = new MappedXYDataset(writeTestData(true));
+        for (int i = 0; i < ITEMS; i++) {
+            assertEquals((float) y(0, i), d.getYValue(0, i), 0.0);
+            assertEquals(y(1, i), d.getYValue(1, i), 0.0);
+        }
+        assertEquals(bruteForce(0, ITEMS - 1).getUpperBound(), 
+                d.getRangeUpperBound(false), 0.001);
+    }
+
+    /**
+     * The bounds found from the summaries match the bounds found by 
+     * checking every item.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testRangeBounds() throws IOException {
+        MappedXYDataset d = new MappedXYDataset(writeTestData(false));
+        assertTrue(d.getSummaryLevelCount() >= 2);
+        assertEquals(bruteForce(0, ITEMS - 1), d.getRangeBounds(false));
+        assertEquals(bruteForce(0, ITEMS - 1), 
+                DatasetUtils.findRangeBounds(d));
+        List keys = Arrays.asList("A", "B");
+        Random random = new Random(1L);
+        for (int k = 0; k < 200; k++) {
+            int first = random.nextInt(ITEMS);
+            int last = first + random.nextInt(ITEMS - first);
+            Range xRange = new Range(first * 0.5 - 0.1, last * 0.5 + 0.1);
+            assertEquals(bruteForce(first, last), 
+                    d.getRangeBounds(keys, xRange, false));
+            assertEquals(bruteForce(first, last), 
+                    DatasetUtils.findRangeBounds(d, keys, xRange, false));
+        }
+        // an x-range between two items
+        assertNull(d.getRangeBounds(keys, new Range(0.1, 0.4), false));
+        // an unknown key
+        assertNull(d.getRangeBounds(Collections.singletonList("C"), 
+                new Range(0.0, 10.0), false));
+    }
+
+    /**
+     * The resolution level of a view is selected for the number of pixels, 
+     * and the items at a summary level cover the raw data.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testGetView() throws IOException {
+        MappedXYDataset d = new MappedXYDataset(writeTestData(false));
+        Range all = new Range(0.0, 499.5);
+        XYDataset raw = d.getView(all, 1000.0);
+        assertEquals(d.getRawItemCount(), raw.getItemCount(0));
+        XYDataset view = d.getView(all, 150.0);
+        assertEquals(250, view.getItemCount(0));
+        assertSame(view, d.getView(all, 150.0));
+        assertSame(d, ((XYDatasetView) view).getSourceDataset());
+        assertTrue(view instanceof IntervalXYDataset);
+        XYDataset coarse = d.getView(all, 10.0);
+        assertTrue(coarse.getItemCount(0) < 250);
+        // a narrow x-range needs the raw data
+        assertSame(raw, d.getView(new Range(0.0, 20.0), 50.0));
+        // the dataset itself is not changed
+        assertEquals(0, d.getResolutionLevel());
+        assertEquals(d.getRawItemCount(), d.getItemCount(0));
+
+        d.setResolutionLevel(2);
+        assertEquals(coarse.getItemCount(0), d.getItemCount(0));
+        d.setResolutionLevel(1);
+        for (int i = 0; i < view.getItemCount(0); i++) {
+            assertEquals(view.getXValue(0, i), d.getXValue(0, i), 0.0);
+            assertEquals(view.getYValue(0, i), d.getYValue(0, i), 0.0);
+        }
+        for (int i = 0; i < d.getItemCount(0); i++) {
+            assertEquals(i * 2.0, d.getStartXValue(0, i), 0.0);
+            assertEquals(i * 2.0 + 1.5, d.getEndXValue(0, i), 0.0);
+            assertEquals(i * 2.0 + 0.75, d.getXValue(0, i), 0.0);
+            Range r = bruteForceSeries0(i * 4, i * 4 + 3);
+            assertEquals(r.getLowerBound(), d.getStartYValue(0, i), 0.0);
+            assertEquals(r.getUpperBound(), d.getEndYValue(0, i), 0.0);
+            assertEquals(r.getCentralValue(), d.getYValue(0, i), 
+                    r.getLength());
+        }
+        int[] live = RendererUtils.findLiveItems(d, 0, 100.0, 200.0);
+        assertEquals(50, live[0]);
+        assertEquals(99, live[1]);
+    }
+
+    /**
+     * Returns the range of series "A" for some items.
+     * 
+     * @param first  the first item.
+     * @param last  the last item.
+     * 
+     * @return The range.
+     */
+    private static Range bruteForceSeries0(int first, int last) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = first; i <= last; i++) {
+            min = Math.min(min, y(0, i));
+            max = Math.max(max, y(0, i));
+        }
+        return new Range(min, max);
+    }
+
+    /**
+     * Live items are found with a binary search in the raw data.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testFindLiveItems() throws IOException {
+        MappedXYDataset d = new MappedXYDataset(writeTestData(false));
+        int[] live = RendererUtils.findLiveItems(d, 0, 100.0, 200.0);
+        assertEquals(200, live[0]);
+        assertEquals(400, live[1]);
+    }
+
+    /**
+     * An empty dataset has no bounds.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testEmpty() throws IOException {
+        File file = this.folder.newFile();
+        new MappedXYDatasetWriter(file, new String[] {"A"}, false).close();
+        MappedXYDataset d = new MappedXYDataset(file);
+        assertEquals(1, d.getSeriesCount());
+        assertEquals(0, d.getItemCount(0));
+        assertEquals(0, d.getSummaryLevelCount());
+        assertNull(d.getDomainBounds(false));
+        assertNull(d.getRangeBounds(false));
+        assertNull(DatasetUtils.findRangeBounds(d));
+    }
+
+    /**
+     * The writer requires ascending x-values and a file that is not a 
+     * dataset is rejected.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testInvalid() throws IOException {
+        File file = this.folder.newFile();
+        MappedXYDatasetWriter writer = new MappedXYDatasetWriter(file, 
+                new String[] {"A"}, false);
+        writer.add(2.0, 1.0);
+        try {
+            writer.add(1.0, 1.0);
+            fail("Expected an IllegalArgumentException.");
+        }
+        catch (IllegalArgumentException e) {
+            // expected
+        }
+        writer.close();
+
+        File other = this.folder.newFile();
+        FileOutputStream out = new FileOutputStream(other);
+        out.write(new byte[100]);
+        out.close();
+        try {
+            new MappedXYDataset(other);
+            fail("Expected an IOException.");
+        }
+        catch (IOException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Serialize an instance, restore it, and check for equality of the 
+     * values.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Test
+    public void testSerialization() throws IOException {
+        MappedXYDataset d1 = new MappedXYDataset(writeTestData(false));
+        MappedXYDataset d2 = (MappedXYDataset) TestUtils.serialised(d1);
+        assertEquals(d1.getFile(), d2.getFile());
+        assertEquals(d1.getRangeBounds(false), d2.getRangeBounds(false));
+        assertEquals(y(0, 123), d2.getYValue(0, 123), 0.0);
+    }
+
+}
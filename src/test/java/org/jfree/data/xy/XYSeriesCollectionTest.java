@@ -57,10 +57,18 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.jfree.chart.TestUtils;
 import org.jfree.chart.util.PublicCloneable;
 import org.jfree.data.Range;
 import org.jfree.data.UnknownKeyException;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.general.DatasetUtils;
+import org.jfree.data.general.SeriesChangeEvent;
 
 import org.junit.Test;
 
@@ -385,6 +393,54 @@ public class XYSeriesCollectionTest {
         assertEquals(new Range(-1.1, 5.0), dataset.getRangeBounds(true));
     }
 
+    /**
+     * Checks the bounds for the visible series against the bounds found by
+     * iterating over the data items.
+     */
+    @Test
+    public void testGetBoundsForVisibleSeries() {
+        XYSeries s1 = new XYSeries("S1");
+        s1.add(1.0, 5.0);
+        s1.add(2.0, -3.0);
+        s1.add(3.0, 7.0);
+        s1.add(4.0, null);
+        XYSeries s2 = new XYSeries("S2", false);
+        s2.add(8.0, 2.0);
+        s2.add(0.5, 9.0);
+        s2.add(5.0, 1.0);
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        dataset.addSeries(s1);
+        dataset.addSeries(s2);
+        List keys = Arrays.asList(new Comparable[] {"S1"});
+        List allKeys = Arrays.asList(new Comparable[] {"S1", "S2"});
+
+        assertEquals(new Range(1.0, 4.0), dataset.getDomainBounds(keys,
+                false));
+        assertEquals(new Range(0.5, 4.5), dataset.getDomainBounds(keys,
+                true));
+        assertEquals(DatasetUtils.iterateToFindDomainBounds(dataset, allKeys,
+                true), dataset.getDomainBounds(allKeys, true));
+        assertNull(dataset.getDomainBounds(new ArrayList(), false));
+
+        assertEquals(new Range(-3.0, 7.0), dataset.getRangeBounds(keys,
+                new Range(0.0, 10.0), false));
+        assertEquals(new Range(-3.0, 5.0), dataset.getRangeBounds(keys,
+                new Range(1.0, 2.5), false));
+        assertNull(dataset.getRangeBounds(keys, new Range(3.5, 4.5), false));
+        Range xRange = new Range(0.0, 6.0);
+        assertEquals(DatasetUtils.iterateToFindRangeBounds(dataset, allKeys,
+                xRange, false), dataset.getRangeBounds(allKeys, xRange,
+                false));
+
+        // the bounds are recalculated after the extremes are removed
+        s1.remove(2);
+        s1.remove(1);
+        assertEquals(new Range(5.0, 5.0), dataset.getRangeBounds(keys,
+                new Range(0.0, 10.0), false));
+        assertEquals(new Range(1.0, 4.0), dataset.getDomainBounds(keys,
+                false));
+    }
+
     @Test
     public void testGetRangeLowerBound() {
         XYSeriesCollection dataset = new XYSeriesCollection();
@@ -534,4 +590,117 @@ public class XYSeriesCollectionTest {
         // change because "C" is already the key for the other series in the
         // collection
     }
+
+    /**
+     * A listener that records the dataset change events it receives.
+     */
+    static class EventRecorder implements DatasetChangeListener {
+        List<DatasetChangeEvent> events = new ArrayList<DatasetChangeEvent>();
+        @Override
+        public void datasetChanged(DatasetChangeEvent event) {
+            this.events.add(event);
+        }
+    }
+
+    /**
+     * Changes to a series are passed on with the dataset change event.
+     */
+    @Test
+    public void testSeriesChangesInEvent() {
+        XYSeries s1 = new XYSeries("S1");
+        XYSeriesCollection c = new XYSeriesCollection(s1);
+        EventRecorder recorder = new EventRecorder();
+        c.addChangeListener(recorder);
+        s1.add(1.0, 1.0);
+        assertEquals(1, recorder.events.size());
+        List changes = recorder.events.get(0).getSeriesChanges();
+        assertEquals(1, changes.size());
+        SeriesChangeEvent change = (SeriesChangeEvent) changes.get(0);
+        assertSame(s1, change.getSource());
+        assertEquals(0, change.getFirstItemIndex());
+        assertEquals(0, change.getLastItemIndex());
+
+        // adding a series is a change of unknown scope
+        c.addSeries(new XYSeries("S2"));
+        assertNull(recorder.events.get(1).getSeriesChanges());
+    }
+
+    /**
+     * A batch of changes to several series results in a single dataset 
+     * change event that lists the affected series.
+     */
+    @Test
+    public void testBeginEndUpdate() {
+        XYSeries s1 = new XYSeries("S1");
+        XYSeries s2 = new XYSeries("S2");
+        XYSeries s3 = new XYSeries("S3");
+        XYSeriesCollection c = new XYSeriesCollection();
+        c.addSeries(s1);
+        c.addSeries(s2);
+        c.addSeries(s3);
+        EventRecorder recorder = new EventRecorder();
+        c.addChangeListener(recorder);
+        c.beginUpdate();
+        assertTrue(c.isUpdating());
+        for (int i = 0; i < 5000; i++) {
+            s1.add(i, i);
+            s2.add(i, i);
+        }
+        s1.updateByIndex(2, 0.0);
+        assertTrue(recorder.events.isEmpty());
+        c.endUpdate();
+        assertFalse(c.isUpdating());
+        assertEquals(1, recorder.events.size());
+        DatasetChangeEvent event = recorder.events.get(0);
+        assertSame(c, event.getDataset());
+        List changes = event.getSeriesChanges();
+        assertEquals(2, changes.size());
+        SeriesChangeEvent c1 = (SeriesChangeEvent) changes.get(0);
+        SeriesChangeEvent c2 = (SeriesChangeEvent) changes.get(1);
+        assertSame(s1, c1.getSource());
+        assertEquals(0, c1.getFirstItemIndex());
+        assertEquals(4999, c1.getLastItemIndex());
+        assertSame(s2, c2.getSource());
+        assertEquals(0, c2.getFirstItemIndex());
+        assertEquals(4999, c2.getLastItemIndex());
+
+        // a dataset-level change in the batch makes the scope unknown
+        recorder.events.clear();
+        c.beginUpdate();
+        s1.add(5000, 1.0);
+        c.removeSeries(s3);
+        c.endUpdate();
+        assertEquals(1, recorder.events.size());
+        assertNull(recorder.events.get(0).getSeriesChanges());
+
+        try {
+            c.endUpdate();
+            fail("Expected an IllegalStateException.");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Series and dataset batches can be combined.
+     */
+    @Test
+    public void testNestedSeriesUpdate() {
+        XYSeries s1 = new XYSeries("S1");
+        XYSeriesCollection c = new XYSeriesCollection(s1);
+        EventRecorder recorder = new EventRecorder();
+        c.addChangeListener(recorder);
+        c.beginUpdate();
+        s1.beginUpdate();
+        s1.add(1.0, 1.0);
+        s1.add(2.0, 2.0);
+        s1.endUpdate();
+        s1.add(3.0, 3.0);
+        c.endUpdate();
+        assertEquals(1, recorder.events.size());
+        SeriesChangeEvent change = (SeriesChangeEvent) 
+                recorder.events.get(0).getSeriesChanges().get(0);
+        assertEquals(0, change.getFirstItemIndex());
+        assertEquals(2, change.getLastItemIndex());
+    }
 }
@@ -48,9 +48,15 @@ package org.jfree.data.xy;
 
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import org.jfree.chart.TestUtils;
 
+import org.jfree.data.general.SeriesChangeEvent;
+import org.jfree.data.general.SeriesChangeListener;
 import org.jfree.data.general.SeriesException;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
@@ -773,6 +779,94 @@ public class XYSeriesTest {
         assertEquals(2.0, s1.getMaxY(), EPSILON);
     }
 
+    /**
+     * Some checks for a series that uses columnar storage.
+     */
+    @Test
+    public void testColumnar() {
+        XYSeries s1 = new XYSeries("S1", true, true, true);
+        assertTrue(s1.isColumnar());
+        s1.add(3.0, 3.3);
+        s1.add(1.0, 1.1);
+        s1.add(2.0, null);
+        s1.add(4.0, 4.4);
+        assertEquals(4, s1.getItemCount());
+        assertEquals(1.0, s1.getXValue(0), EPSILON);
+        assertEquals(1.1, s1.getYValue(0), EPSILON);
+        assertNull(s1.getY(1));
+        assertTrue(Double.isNaN(s1.getYValue(1)));
+        assertEquals(new XYDataItem(3.0, 3.3), s1.getDataItem(2));
+        assertEquals(3, s1.indexOf(new Double(4.0)));
+        assertEquals(-3, s1.indexOf(new Double(2.5)));
+        assertEquals(1.0, s1.getMinX(), EPSILON);
+        assertEquals(4.4, s1.getMaxY(), EPSILON);
+
+        s1.updateByIndex(1, new Double(2.2));
+        assertEquals(2.2, s1.getYValue(1), EPSILON);
+        s1.addOrUpdate(5.0, 5.5);
+        assertEquals(5, s1.getItemCount());
+        s1.remove(4);
+        assertEquals(4.4, s1.getMaxY(), EPSILON);
+
+        // a columnar series is equal to a regular series with the same data
+        XYSeries s2 = new XYSeries("S1");
+        s2.add(1.0, 1.1);
+        s2.add(2.0, 2.2);
+        s2.add(3.0, 3.3);
+        s2.add(4.0, 4.4);
+        assertEquals(s2, s1);
+        assertEquals(s2.hashCode(), s1.hashCode());
+    }
+
+    /**
+     * Check the maximum item count for a series with columnar storage.
+     */
+    @Test
+    public void testColumnarMaximumItemCount() {
+        XYSeries s1 = new XYSeries("S1", true, false, true);
+        s1.setMaximumItemCount(3);
+        for (int i = 0; i < 100; i++) {
+            s1.add(i, i * 2.0);
+        }
+        assertEquals(3, s1.getItemCount());
+        assertEquals(97.0, s1.getXValue(0), EPSILON);
+        assertEquals(99.0, s1.getXValue(2), EPSILON);
+        assertEquals(194.0, s1.getMinY(), EPSILON);
+        try {
+            s1.add(98.0, 1.0);
+            fail("Duplicate x-value should be rejected.");
+        }
+        catch (SeriesException e) {
+            // expected
+        }
+        s1.setMaximumItemCount(1);
+        assertEquals(99.0, s1.getMinX(), EPSILON);
+        double[][] array = s1.toArray();
+        assertEquals(99.0, array[0][0], EPSILON);
+        assertEquals(198.0, array[1][0], EPSILON);
+    }
+
+    /**
+     * Cloning and serialization for a series with columnar storage.
+     */
+    @Test
+    public void testColumnarCloningAndSerialization()
+            throws CloneNotSupportedException {
+        XYSeries s1 = new XYSeries("S1", false, true, true);
+        s1.add(2.0, 2.2);
+        s1.add(1.0, null);
+        XYSeries s2 = (XYSeries) s1.clone();
+        assertTrue(s2.isColumnar());
+        assertEquals(s1, s2);
+        s1.add(3.0, 3.3);
+        assertFalse(s1.equals(s2));
+
+        XYSeries s3 = (XYSeries) TestUtils.serialised(s1);
+        assertTrue(s3.isColumnar());
+        assertEquals(s1, s3);
+        assertNull(s3.getY(1));
+    }
+
     @Test
     public void testSetKey() {
         XYSeries s1 = new XYSeries("S");
@@ -806,4 +900,135 @@ public class XYSeriesTest {
         c.removeSeries(1);
         s1.setKey("S2");
     }
+
+    /**
+     * A listener that records the series change events it receives.
+     */
+    static class EventRecorder implements SeriesChangeListener {
+        List<SeriesChangeEvent> events = new ArrayList<SeriesChangeEvent>();
+        @Override
+        public void seriesChanged(SeriesChangeEvent event) {
+            this.events.add(event);
+        }
+    }
+
+    /**
+     * Adding items reports the range of affected items.
+     */
+    @Test
+    public void testChangeEventItemRange() {
+        XYSeries s1 = new XYSeries("S1");
+        EventRecorder recorder = new EventRecorder();
+        s1.addChangeListener(recorder);
+        s1.add(1.0, 1.0);
+        s1.add(3.0, 3.0);
+        s1.add(2.0, 2.0);
+        s1.updateByIndex(0, 5.0);
+        assertEquals(4, recorder.events.size());
+        assertEquals(0, recorder.events.get(0).getFirstItemIndex());
+        assertEquals(0, recorder.events.get(0).getLastItemIndex());
+        assertEquals(1, recorder.events.get(1).getFirstItemIndex());
+        assertEquals(1, recorder.events.get(1).getLastItemIndex());
+        // an insertion moves the items after it
+        assertEquals(1, recorder.events.get(2).getFirstItemIndex());
+        assertEquals(2, recorder.events.get(2).getLastItemIndex());
+        assertEquals(0, recorder.events.get(3).getFirstItemIndex());
+        assertEquals(0, recorder.events.get(3).getLastItemIndex());
+
+        // removing items reports an unknown range
+        s1.remove(1);
+        assertFalse(recorder.events.get(4).isItemRangeKnown());
+
+        // dropping the first item moves every item
+        s1.setMaximumItemCount(2);
+        recorder.events.clear();
+        s1.add(4.0, 4.0);
+        assertEquals(0, recorder.events.get(0).getFirstItemIndex());
+        assertEquals(1, recorder.events.get(0).getLastItemIndex());
+    }
+
+    /**
+     * A batch of changes results in a single event that covers all of them.
+     */
+    @Test
+    public void testBeginEndUpdate() {
+        XYSeries s1 = new XYSeries("S1");
+        s1.add(0.0, 0.0);
+        EventRecorder recorder = new EventRecorder();
+        s1.addChangeListener(recorder);
+        assertFalse(s1.isUpdating());
+        s1.beginUpdate();
+        assertTrue(s1.isUpdating());
+        for (int i = 1; i <= 10000; i++) {
+            s1.add(i, i);
+        }
+        assertEquals(0, recorder.events.size());
+        s1.endUpdate();
+        assertFalse(s1.isUpdating());
+        assertEquals(1, recorder.events.size());
+        SeriesChangeEvent event = recorder.events.get(0);
+        assertTrue(event.getSource() == s1);
+        assertEquals(1, event.getFirstItemIndex());
+        assertEquals(10000, event.getLastItemIndex());
+
+        // nested updates send one event at the end of the outermost update
+        recorder.events.clear();
+        s1.beginUpdate();
+        s1.updateByIndex(5, 1.0);
+        s1.beginUpdate();
+        s1.updateByIndex(3, 1.0);
+        s1.endUpdate();
+        assertEquals(0, recorder.events.size());
+        s1.endUpdate();
+        assertEquals(1, recorder.events.size());
+        assertEquals(3, recorder.events.get(0).getFirstItemIndex());
+        assertEquals(5, recorder.events.get(0).getLastItemIndex());
+
+        // a removal in the batch makes the range unknown
+        recorder.events.clear();
+        s1.beginUpdate();
+        s1.add(-1.0, 1.0);
+        s1.remove(0);
+        s1.endUpdate();
+        assertEquals(1, recorder.events.size());
+        assertFalse(recorder.events.get(0).isItemRangeKnown());
+
+        // an update with no changes sends no event
+        recorder.events.clear();
+        s1.beginUpdate();
+        s1.endUpdate();
+        assertEquals(0, recorder.events.size());
+    }
+
+    /**
+     * Calling endUpdate() without beginUpdate() is an error.
+     */
+    @Test
+    public void testEndUpdateWithoutBegin() {
+        XYSeries s1 = new XYSeries("S1");
+        try {
+            s1.endUpdate();
+            fail("Expected an IllegalStateException.");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Batching also applies to series that use columnar storage.
+     */
+    @Test
+    public void testBeginEndUpdateColumnar() {
+        XYSeries s1 = new XYSeries("S1", true, true, true);
+        EventRecorder recorder = new EventRecorder();
+        s1.addChangeListener(recorder);
+        s1.beginUpdate();
+        for (int i = 0; i < 100; i++) {
+            s1.add(i, i);
+        }
+        s1.endUpdate();
+        assertEquals(1, recorder.events.size());
+        assertEquals(0, recorder.events.get(0).getFirstItemIndex());
+        assertEquals(99, recorder.events.get(0).getLastItemIndex());
+    }
 }